@@ -0,0 +1,101 @@
+package de.gabriel.engine.benchmark;
+
+import de.gabriel.engine.converter.AssetManager;
+import de.gabriel.engine.converter.Loader;
+import de.gabriel.engine.textures.TextureData;
+import org.lwjgl.stb.STBImage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die CPU-Stufen des Ladens beim Start der Engine mit unterschiedlich großen Worker-Pools des
+ * {@link AssetManager}s: alle Texturen, die {@code Main} anfordert, werden dekodiert und alle Models (mit
+ * Detailstufen bzw. für Normal Mapping) aus ihren Cache-Dateien gelesen. Gemessen wird, bis alle Ergebnisse fertig
+ * sind; das Hochladen auf dem Thread mit dem OpenGL-Context ist nicht enthalten. Muss im Projektordner nach
+ * {@code mvn compile} gestartet werden, da die Ressourcen aus {@code target/classes} gelesen werden.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = "-Dengine.resources=target/classes/")
+@State(Scope.Benchmark)
+public class AssetLoadingBenchmark {
+
+    /**
+     * Die Texturen, die {@code Main} beim Start anfordert.
+     */
+    private static final String[] TEXTURES = {
+            "fonts/segeo_ui", "lamp", "stallTexture", "grass", "mud", "flowers", "path", "blendMap", "barrel",
+            "normals/barrelNormal", "pine", "grass01", "fern", "lwjgl"
+    };
+
+    /**
+     * Die Models, die {@code Main} mit Detailstufen anfordert.
+     */
+    private static final String[] LOD_MODELS = {"lamp", "stall", "pine"};
+
+    /**
+     * Die Models, die {@code Main} in voller Auflösung anfordert.
+     */
+    private static final String[] MODELS = {"grass", "fern"};
+
+    @Param({"1", "2", "4", "8"})
+    private int poolSize;
+
+    private AssetManager assets;
+
+    @Setup(Level.Iteration)
+    public void createAssetManager() {
+        assets = new AssetManager(new Loader(), poolSize);
+    }
+
+    @TearDown(Level.Iteration)
+    public void shutdownAssetManager() {
+        assets.cleanUp();
+    }
+
+    @Benchmark
+    public int decodeAndParseStartupAssets() {
+        List<CompletableFuture<TextureData>> textures = new ArrayList<CompletableFuture<TextureData>>(TEXTURES.length);
+        for (String texture : TEXTURES) {
+            textures.add(assets.decodeTexture(texture));
+        }
+        List<CompletableFuture<?>> models = new ArrayList<CompletableFuture<?>>();
+        for (String model : LOD_MODELS) {
+            models.add(assets.parseMeshLods(model));
+        }
+        for (String model : MODELS) {
+            models.add(assets.parseMesh(model));
+        }
+        models.add(assets.parseNormalMappedMesh("barrel"));
+
+        int bytes = 0;
+        for (CompletableFuture<TextureData> texture : textures) {
+            TextureData image = texture.join();
+            bytes += image.buffer().remaining();
+            STBImage.stbi_image_free(image.buffer());
+        }
+        for (CompletableFuture<?> model : models) {
+            model.join();
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,71 @@
+package de.gabriel.engine.benchmark;
+
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.textures.ModelTexture;
+import de.gabriel.engine.utils.Maths;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Kosten der Transformationsmatrizen pro Frame für statische Entities: vor dem Zwischenspeichern
+ * wurde jede Matrix in jedem Frame mit {@link Maths#createTransformationMatrix(Vector3f, float, float, float, float)}
+ * neu erstellt, danach liefert {@link Entity#getTransformationMatrix()} die zwischengespeicherte Matrix.
+ * Eine Operation entspricht einem Frame über alle Entities.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityMatrixBenchmark {
+
+    @Param({"10000"})
+    private int entityCount;
+
+    private Entity[] entities;
+
+    @Setup(Level.Trial)
+    public void createEntities() {
+        TexturedModel model = new TexturedModel(new RawModel(1, 36, 1), new ModelTexture(1));
+        Random random = new Random(42);
+        entities = new Entity[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            Vector3f position = new Vector3f(random.nextFloat() * 800, random.nextFloat() * 50, random.nextFloat() * -800);
+            entities[i] = new Entity(model, position, 0, random.nextFloat() * 360, 0, 0.5f + random.nextFloat());
+        }
+    }
+
+    @Benchmark
+    public void recomputedPerFrame(Blackhole blackhole) {
+        for (Entity entity : entities) {
+            blackhole.consume(Maths.createTransformationMatrix(entity.getPosition(),
+                    entity.getRotX(), entity.getRotY(), entity.getRotZ(), entity.getScale()));
+        }
+    }
+
+    @Benchmark
+    public void cached(Blackhole blackhole) {
+        for (Entity entity : entities) {
+            blackhole.consume(entity.getTransformationMatrix());
+        }
+    }
+
+}
@@ -0,0 +1,280 @@
+package de.gabriel.engine.benchmark;
+
+import de.gabriel.engine.converter.AssetManager;
+import de.gabriel.engine.converter.Loader;
+import de.gabriel.engine.entities.Camera;
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.entities.Light;
+import de.gabriel.engine.models.LodChain;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.profiler.Profiler;
+import de.gabriel.engine.renderer.FrameStatistics;
+import de.gabriel.engine.renderer.MasterRenderer;
+import de.gabriel.engine.renderer.backend.NullBackend;
+import de.gabriel.engine.renderer.backend.RenderBackend;
+import de.gabriel.engine.skybox.time.HourlyDayNightCycle;
+import de.gabriel.engine.terrain.GeneratedTileLoader;
+import de.gabriel.engine.terrain.NoiseHeightSource;
+import de.gabriel.engine.terrain.TerrainWorld;
+import de.gabriel.engine.textures.ModelTexture;
+import de.gabriel.engine.textures.TerrainTexture;
+import de.gabriel.engine.textures.TerrainTexturePack;
+import de.gabriel.engine.vegetation.DensityMap;
+import de.gabriel.engine.vegetation.GeneratedVegetationLoader;
+import de.gabriel.engine.vegetation.VegetationField;
+import de.gabriel.engine.vegetation.VegetationGenerator;
+import de.gabriel.engine.vegetation.VegetationLayer;
+import lombok.extern.slf4j.Slf4j;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst {@link MasterRenderer#render(List, Camera)} ohne Fenster und ohne Grafikkarte. Alle OpenGL-Aufrufe gehen an
+ * den {@link NullBackend} der Tests, sodass nur die CPU-Zeit eines Frames (Culling, Sortieren, Packen der Instanzen,
+ * Uniforms) gemessen wird. JMH gibt mit {@link Mode#SampleTime} die Perzentile der Frame-Zeiten aus.
+ * <p>
+ * Die Szene ist synthetisch, aber reproduzierbar: die Modelle und Texturen der Engine, Entities an zufälligen,
+ * aus einem festen Seed gezogenen Positionen auf generiertem Terrain, Vegetation und eine Kamera, die im Kreis über
+ * die Szene fliegt. Gemessen wird mit einzeln und mit instanziert gerenderten Entities, jeweils ohne und mit
+ * eingeschaltetem {@link Profiler}. Am Ende werden die Befehle eines Frames, die Zeiten pro Zone des Profilers und
+ * mit {@code -p trace=<Datei>} der Chrome Trace des Profilers ausgegeben.
+ * </p>
+ * <p>
+ * Muss im Projektordner nach {@code mvn test-compile} gestartet werden, da die Ressourcen aus {@code target/classes}
+ * gelesen werden.
+ * </p>
+ */
+@Slf4j
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dengine.resources=target/classes/")
+@State(Scope.Benchmark)
+public class HeadlessBenchmark {
+
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+
+    private static final long SEED = 42;
+
+    /**
+     * Die Anzahl der Frames für einen Kreis der Kamera.
+     */
+    private static final int FRAMES_PER_CIRCLE = 1000;
+
+    /**
+     * Die halbe Kantenlänge der Fläche um den Ursprung, auf der die Entities verteilt werden.
+     */
+    private static final float SCENE_HALF_SIZE = 600;
+
+    /**
+     * Der Radius des Kreises, auf dem die Kamera fliegt.
+     */
+    private static final float CAMERA_RADIUS = 300;
+
+    /**
+     * Die Höhe der Kamera über dem Terrain.
+     */
+    private static final float CAMERA_HEIGHT = 5;
+
+    @Param({"5000"})
+    private int entityCount;
+
+    @Param({"false", "true"})
+    private boolean instanced;
+
+    @Param({"false", "true"})
+    private boolean profiler;
+
+    /**
+     * Die Datei, in die der Chrome Trace des Profilers geschrieben wird; leer für keinen Trace.
+     */
+    @Param({""})
+    private String trace;
+
+    private NullBackend backend;
+    private Loader loader;
+    private AssetManager assets;
+    private MasterRenderer renderer;
+    private TerrainWorld world;
+    private VegetationField vegetation;
+    private final Camera camera = new Camera();
+    private final List<Light> lights = List.of(new Light(new Vector3f(-400, 1000, -400), new Vector3f(1, 1, 1)));
+    private int frame;
+
+    @Setup(Level.Trial)
+    public void createScene() {
+        backend = new NullBackend(WIDTH, HEIGHT);
+        RenderBackend.use(backend);
+
+        loader = new Loader();
+        assets = new AssetManager(loader);
+        renderer = new MasterRenderer(loader, assets, new HourlyDayNightCycle());
+        renderer.setImpostorDistance(150);
+        renderer.setImpostorFadeWidth(30);
+        renderer.setInstancedRendering(instanced);
+
+        // Terrain
+
+        TerrainTexturePack texturePack = new TerrainTexturePack(
+                new TerrainTexture(assets.await(assets.loadTexture("grass"))),
+                new TerrainTexture(assets.await(assets.loadTexture("mud"))),
+                new TerrainTexture(assets.await(assets.loadTexture("flowers"))),
+                new TerrainTexture(assets.await(assets.loadTexture("path"))));
+        TerrainTexture blendMap = new TerrainTexture(assets.await(assets.loadTexture("blendMap")));
+        world = new TerrainWorld(new GeneratedTileLoader(assets, loader, new NoiseHeightSource(SEED),
+                texturePack, blendMap), 1, 2, 4);
+        world.setListener(renderer.getTerrainListener());
+        do {
+            assets.finishLoading();
+            world.update(0, 0);
+        } while (world.getPendingLoads() > 0);
+
+        // Entities
+
+        List<TexturedModel> models = new ArrayList<TexturedModel>();
+        models.add(renderer.bakeImpostor(loadModel("pine", "pine")));
+        models.add(renderer.bakeImpostor(loadModel("stall", "stallTexture")));
+        models.add(loadModel("lamp", "lamp"));
+
+        Random random = new Random(SEED);
+        for (int i = 0; i < entityCount; i++) {
+            float x = (random.nextFloat() * 2 - 1) * SCENE_HALF_SIZE;
+            float z = (random.nextFloat() * 2 - 1) * SCENE_HALF_SIZE;
+            TexturedModel model = models.get(random.nextInt(models.size()));
+            renderer.addEntity(new Entity(model, new Vector3f(x, world.getHeightOfTerrain(x, z), z), 0,
+                    random.nextFloat() * 360, 0, 1 + random.nextFloat() * 2));
+        }
+
+        // Vegetation
+
+        TexturedModel grass = new TexturedModel(assets.await(assets.loadMesh("grass")),
+                new ModelTexture(assets.await(assets.loadTexture("grass01"))));
+        grass.texture().setHasTransparency(true);
+        grass.texture().setUseFakeLighting(true);
+        List<VegetationLayer> layers = List.of(new VegetationLayer(grass, 1.0f, 0.3f, 1.5f, 0, 1.5f, 3, 120, 20));
+        vegetation = new VegetationField(layers, new GeneratedVegetationLoader(assets, loader,
+                new VegetationGenerator(SEED, DensityMap.of(assets.await(assets.decodeTexture("blendMap"))), layers)),
+                world, 8);
+        renderer.setVegetation(vegetation);
+
+        moveCamera(0);
+        do {
+            assets.finishLoading();
+            vegetation.update(camera.getPosition().x, camera.getPosition().z);
+        } while (vegetation.getPendingLoads() > 0);
+        assets.finishLoading();
+
+        if (profiler) {
+            Profiler.setEnabled(true);
+            Profiler.setGpuTiming(true); // Die Timer Queries des NullBackend liefern 0, kosten aber die Aufrufe
+            Profiler.endFrame();
+        }
+        log.info("Created headless benchmark scene; {[Entities={}], [Terrains={}], [VegetationInstances={}], "
+                        + "[Instanced={}], [Profiler={}]}", entityCount, world.getTerrains().size(),
+                vegetation.getResidentInstances(), instanced, profiler);
+    }
+
+    /**
+     * Setzt die Kamera auf ihre nächste Position im Kreis und lädt die Vegetation um sie nach. Das Laden gehört nicht
+     * zum gemessenen Frame.
+     */
+    @Setup(Level.Invocation)
+    public void advanceCamera() {
+        moveCamera(frame++ % FRAMES_PER_CIRCLE);
+        vegetation.update(camera.getPosition().x, camera.getPosition().z);
+        if (assets.getPendingAssets() > 0) {
+            assets.finishLoading();
+        }
+        backend.reset();
+    }
+
+    @Benchmark
+    public void renderFrame() {
+        renderer.render(lights, camera);
+        FrameStatistics.endFrame();
+        Profiler.endFrame();
+    }
+
+    @TearDown(Level.Trial)
+    public void logFrameAndCleanUp() throws IOException {
+        // Ein weiterer Frame, dessen Befehlsstrom aufgeschlüsselt wird
+        advanceCamera();
+        backend.setRecording(true);
+        renderFrame();
+        backend.setRecording(false);
+        StringJoiner commands = new StringJoiner(", ");
+        for (NullBackend.Command command : NullBackend.Command.values()) {
+            long count = backend.getCount(command);
+            if (count > 0) {
+                commands.add(command + "=" + count);
+            }
+        }
+        log.info("Headless benchmark frame; {[DrawCalls={}], [Binds={}], [Uniforms={}], [StateChanges={}], "
+                        + "[UploadedBytes={}], [Vertices={}], [Commands={}], [{}]}",
+                backend.getDrawCalls(), backend.getBinds(), backend.getCount(NullBackend.Kind.UNIFORM),
+                backend.getCount(NullBackend.Kind.STATE), backend.getUploadedBytes(), backend.getDrawnVertices(),
+                backend.getCommands().size(), commands);
+
+        if (profiler) {
+            for (Profiler.ZoneSummary zone : Profiler.getSummaries()) {
+                log.info("Profiler zone; {[Zone={}], [Depth={}], [Calls={}], [P50Millis={}], [P95Millis={}], "
+                                + "[P99Millis={}]}",
+                        zone.name(), zone.depth(), zone.calls(), zone.cpuP50(), zone.cpuP95(), zone.cpuP99());
+            }
+            if (!trace.isEmpty()) {
+                Profiler.writeChromeTrace(Path.of(trace));
+            }
+            Profiler.cleanUp();
+        }
+
+        vegetation.cleanUp();
+        renderer.cleanUp();
+        world.cleanUp();
+        assets.cleanUp();
+        loader.cleanUp();
+    }
+
+    private TexturedModel loadModel(String objFileName, String textureFileName) {
+        LodChain lods = assets.await(assets.loadLodChain(objFileName));
+        ModelTexture texture = new ModelTexture(assets.await(assets.loadTexture(textureFileName)));
+        texture.setShineDamper(10);
+        texture.setReflectivity(1);
+        return new TexturedModel(lods, texture);
+    }
+
+    /**
+     * Setzt die Kamera auf ihre Position im Kreis, mit Blick in Flugrichtung.
+     *
+     * @param frame der Frame innerhalb eines Kreises.
+     */
+    private void moveCamera(int frame) {
+        double angle = 2 * Math.PI * frame / FRAMES_PER_CIRCLE;
+        float x = (float) (Math.cos(angle) * CAMERA_RADIUS);
+        float z = (float) (Math.sin(angle) * CAMERA_RADIUS);
+        camera.getPosition().set(x, world.getHeightOfTerrain(x, z) + CAMERA_HEIGHT, z);
+        camera.setYaw((float) Math.toDegrees(Math.atan2(-Math.sin(angle), -Math.cos(angle)))); // Tangente des Kreises
+    }
+
+}
@@ -0,0 +1,79 @@
+package de.gabriel.engine.benchmark;
+
+import de.gabriel.engine.terrain.HeightField;
+import de.gabriel.engine.terrain.Terrain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht Höhenabfragen Punkt für Punkt ({@link HeightField#heightAt(float, float)}) mit der Abfrage vieler
+ * Punkte auf einmal ({@link HeightField#heightsAt(float[], float[], float[])}), jeweils für das Height Field als
+ * Floats und quantisiert. Die Zeit wird pro Punkt angegeben. Muss im Projektordner gestartet werden.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeightQueryBenchmark {
+
+    /**
+     * Die Anzahl der Punkte pro Aufruf; muss zu {@link OperationsPerInvocation} passen.
+     */
+    private static final int POINTS = 1 << 16;
+
+    @Param({"false", "true"})
+    private boolean quantized;
+
+    private HeightField heightField;
+    private final float[] xs = new float[POINTS];
+    private final float[] zs = new float[POINTS];
+    private final float[] out = new float[POINTS];
+
+    @Setup(Level.Trial)
+    public void createHeightField() throws IOException {
+        HeightField heights = Terrain.decodeHeights(
+                ImageIO.read(Path.of("src/main/resources/textures/heightmap.png").toFile()), 0, 0);
+        heightField = quantized ? heights.quantize() : heights;
+        Random random = new Random(42);
+        for (int i = 0; i < POINTS; i++) {
+            xs[i] = random.nextFloat() * Terrain.SIZE;
+            zs[i] = random.nextFloat() * Terrain.SIZE;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public float[] perPoint() {
+        for (int i = 0; i < POINTS; i++) {
+            out[i] = heightField.heightAt(xs[i], zs[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public float[] batch() {
+        heightField.heightsAt(xs, zs, out);
+        return out;
+    }
+
+}
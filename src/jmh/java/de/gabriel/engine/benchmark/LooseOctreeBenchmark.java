@@ -0,0 +1,93 @@
+package de.gabriel.engine.benchmark;
+
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.scene.LooseOctree;
+import de.gabriel.engine.textures.ModelTexture;
+import de.gabriel.engine.utils.Frustum;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht {@link LooseOctree#queryFrustum(Frustum, List)} mit einem linearen Frustum-Test über alle Entities bei
+ * 10k, 100k und 1M statischen Entities. Die Entities liegen gleichverteilt in einem Würfel mit
+ * {@value #WORLD_HALF_SIZE} Einheiten halber Kantenlänge, die Kamera steht in der Mitte und sieht etwa ein Achtel
+ * der Szene.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LooseOctreeBenchmark {
+
+    private static final float WORLD_HALF_SIZE = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int entityCount;
+
+    private final List<Entity> entities = new ArrayList<Entity>();
+    private final List<Entity> result = new ArrayList<Entity>();
+    private final Frustum frustum = new Frustum();
+    private LooseOctree octree;
+
+    @Setup(Level.Trial)
+    public void createScene() {
+        TexturedModel model = new TexturedModel(new RawModel(1, 36, 1), new ModelTexture(1));
+        octree = new LooseOctree(new Vector3f(), WORLD_HALF_SIZE * 1.024f, 7);
+        Random random = new Random(42);
+        for (int i = 0; i < entityCount; i++) {
+            Vector3f position = new Vector3f(
+                    (random.nextFloat() * 2 - 1) * WORLD_HALF_SIZE,
+                    (random.nextFloat() * 2 - 1) * WORLD_HALF_SIZE,
+                    (random.nextFloat() * 2 - 1) * WORLD_HALF_SIZE);
+            Entity entity = new Entity(model, position, 0, random.nextFloat() * 360, 0, 1 + random.nextFloat() * 4);
+            entities.add(entity);
+            octree.insert(entity);
+        }
+        Matrix4f projection = new Matrix4f().perspective((float) Math.toRadians(70), 16 / 9f, 0.1f, WORLD_HALF_SIZE);
+        Matrix4f view = new Matrix4f().lookAt(new Vector3f(), new Vector3f(1, 0, -1), new Vector3f(0, 1, 0));
+        frustum.update(projection.mul(view));
+    }
+
+    @Benchmark
+    public int octreeQuery() {
+        result.clear();
+        octree.queryFrustum(frustum, result);
+        return result.size();
+    }
+
+    @Benchmark
+    public int linearScan() {
+        result.clear();
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            Vector4f sphere = entity.getWorldBoundingSphere();
+            if (frustum.testSphere(sphere.x, sphere.y, sphere.z, sphere.w)) {
+                result.add(entity);
+            }
+        }
+        return result.size();
+    }
+
+}
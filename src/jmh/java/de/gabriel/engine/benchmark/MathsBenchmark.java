@@ -0,0 +1,86 @@
+package de.gabriel.engine.benchmark;
+
+import de.gabriel.engine.entities.Camera;
+import de.gabriel.engine.utils.Maths;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Funktionen von {@link Maths} jeweils in der Variante, die eine neue Matrix erstellt, und in der Variante
+ * mit Zielmatrix bzw. mit Vektoren und mit primitiven Parametern. Die Allokationen pro Aufruf (B/op) zeigt der GC-Profiler von JMH:
+ * {@code -Djmh.args="MathsBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MathsBenchmark {
+
+    private final Vector3f translation = new Vector3f(12.5f, 3, -40);
+    private final Vector2f translation2d = new Vector2f(0.25f, -0.5f);
+    private final Vector2f scale2d = new Vector2f(0.1f, 0.2f);
+    private final Camera camera = new Camera();
+    private final Matrix4f dest = new Matrix4f();
+
+    private final Vector3f p1 = new Vector3f(0, 1.5f, 0);
+    private final Vector3f p2 = new Vector3f(1, 2.25f, 0);
+    private final Vector3f p3 = new Vector3f(0, 0.75f, 1);
+    private final Vector2f position = new Vector2f(0.3f, 0.4f);
+
+    private float rotY = 45;
+
+    @Benchmark
+    public Matrix4f transformationMatrix() {
+        return Maths.createTransformationMatrix(translation, 10, rotY, 5, 1.5f);
+    }
+
+    @Benchmark
+    public Matrix4f transformationMatrixDest() {
+        return Maths.createTransformationMatrix(translation, 10, rotY, 5, 1.5f, dest);
+    }
+
+    @Benchmark
+    public Matrix4f guiTransformationMatrix() {
+        return Maths.createTransformationMatrix(translation2d, scale2d);
+    }
+
+    @Benchmark
+    public Matrix4f guiTransformationMatrixDest() {
+        return Maths.createTransformationMatrix(translation2d, scale2d, dest);
+    }
+
+    @Benchmark
+    public Matrix4f viewMatrix() {
+        return Maths.createViewMatrix(camera);
+    }
+
+    @Benchmark
+    public Matrix4f viewMatrixDest() {
+        return Maths.createViewMatrix(camera, dest);
+    }
+
+    @Benchmark
+    public float barryCentricVectors() {
+        return Maths.barryCentric(p1, p2, p3, position);
+    }
+
+    @Benchmark
+    public float barryCentricFloats() {
+        return Maths.barryCentric(p1.x, p1.y, p1.z, p2.x, p2.y, p2.z, p3.x, p3.y, p3.z, position.x, position.y);
+    }
+
+}
@@ -0,0 +1,58 @@
+package de.gabriel.engine.benchmark;
+
+import de.gabriel.engine.converter.obj.MeshData;
+import de.gabriel.engine.converter.obj.OBJFileLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Ladezeit jedes Models im Ordner {@code models} der Ressourcen mit {@link OBJFileLoader#loadMesh(String)}:
+ * kalt (die Cache-Datei wird vor jeder Messung gelöscht, die OBJ Datei wird geparst, optimiert und der Cache neu
+ * geschrieben) und warm (die Cache-Datei wird gemappt). Es wird weder ein Fenster noch eine Grafikkarte benötigt.
+ * Muss im Projektordner nach {@code mvn compile} gestartet werden, da die Ressourcen aus {@code target/classes}
+ * gelesen werden.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dengine.resources=target/classes/")
+@State(Scope.Benchmark)
+public class ModelLoadBenchmark {
+
+    @Param({"barrel", "fern", "grass", "lamp", "pine", "player", "stall"})
+    private String model;
+
+    @Param({"true", "false"})
+    private boolean cold;
+
+    @Setup(Level.Iteration)
+    public void prepareCache() throws IOException {
+        if (cold) {
+            Files.deleteIfExists(OBJFileLoader.getCacheFile(model));
+        } else {
+            OBJFileLoader.loadMesh(model); // Schreibt die Cache-Datei, falls sie fehlt
+        }
+    }
+
+    @Benchmark
+    public MeshData loadMesh() throws FileNotFoundException {
+        return OBJFileLoader.loadMesh(model);
+    }
+
+}
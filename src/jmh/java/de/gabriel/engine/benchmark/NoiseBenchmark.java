@@ -0,0 +1,90 @@
+package de.gabriel.engine.benchmark;
+
+import de.gabriel.engine.terrain.HeightField;
+import de.gabriel.engine.terrain.NoiseHeightSource;
+import de.gabriel.engine.terrain.Terrain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst den Durchsatz der {@link NoiseHeightSource} in Höhen pro Sekunde: einzeln über
+ * {@link NoiseHeightSource#heightAt(double, double)} und als ganze Kachel über
+ * {@link NoiseHeightSource#generate(int, int)}, einmal auf einem Thread und einmal auf dem Common Pool. Die Quelle
+ * hat dieselben Parameter wie im Spiel ({@value #QUADS} Quadrate pro Seite).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NoiseBenchmark {
+
+    private static final long SEED = 42;
+
+    private static final int QUADS = 256;
+
+    /**
+     * Die Anzahl der Höhen einer Kachel; muss zu {@link OperationsPerInvocation} passen.
+     */
+    private static final int SAMPLES = (QUADS + 1) * (QUADS + 1);
+
+    private NoiseHeightSource parallel;
+    private NoiseHeightSource singleThreaded;
+    private ForkJoinPool singleThreadPool;
+    private int tile;
+
+    @Setup(Level.Trial)
+    public void createSources() {
+        singleThreadPool = new ForkJoinPool(1);
+        parallel = new NoiseHeightSource(SEED, QUADS, 6, 600, Terrain.MAX_HEIGHT, 150, ForkJoinPool.commonPool());
+        singleThreaded = new NoiseHeightSource(SEED, QUADS, 6, 600, Terrain.MAX_HEIGHT, 150, singleThreadPool);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool() {
+        singleThreadPool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public float heightAt() {
+        // Jeder Aufruf an einer anderen Kachel, damit nicht immer dieselben Gitterpunkte gehasht werden
+        double originX = tile++ * (double) Terrain.SIZE;
+        float sum = 0;
+        for (int row = 0; row <= QUADS; row++) {
+            double worldZ = (double) row * Terrain.SIZE / QUADS;
+            for (int column = 0; column <= QUADS; column++) {
+                sum += parallel.heightAt(originX + (double) column * Terrain.SIZE / QUADS, worldZ);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public HeightField generateSingleThread() {
+        return singleThreaded.generate(tile++, 0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public HeightField generateCommonPool() {
+        return parallel.generate(tile++, 0);
+    }
+
+}
@@ -0,0 +1,249 @@
+package de.gabriel.engine.benchmark;
+
+import de.gabriel.engine.converter.obj.ModelData;
+import de.gabriel.engine.converter.obj.ObjGeometry;
+import de.gabriel.engine.converter.obj.ObjParser;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht den {@link ObjParser} mit dem früheren zeilenbasierten Loader ({@code BufferedReader.readLine} und
+ * {@code String.split}) auf {@code player.obj} und auf einem generierten Gitter mit knapp 1 Mio. Dreiecken. Gemessen
+ * werden das Parsen allein ({@link ObjParser#parse(Path)}) und das Parsen mit Zusammenführen der Vertices zu
+ * {@link ModelData}, das dem Ergebnis des alten Loaders entspricht. Muss im Projektordner gestartet werden.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ObjParserBenchmark {
+
+    /**
+     * Die Anzahl der Vertices pro Seite des generierten Gitters: 707² Quads, also 999.698 Dreiecke.
+     */
+    private static final int SYNTHETIC_GRID_SIZE = 708;
+
+    @Param({"player", "synthetic"})
+    private String model;
+
+    private Path objFile;
+
+    @Setup(Level.Trial)
+    public void prepareFile() throws IOException {
+        if (model.equals("synthetic")) {
+            objFile = Files.createTempFile("synthetic", ".obj");
+            writeGrid(objFile, SYNTHETIC_GRID_SIZE);
+        } else {
+            objFile = Path.of("src/main/resources/models/" + model + ".obj");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        if (model.equals("synthetic")) {
+            Files.deleteIfExists(objFile);
+        }
+    }
+
+    @Benchmark
+    public ModelData lineBasedLoader() throws IOException {
+        return LineBasedLoader.load(objFile);
+    }
+
+    @Benchmark
+    public ObjGeometry objParser() throws IOException {
+        return ObjParser.parse(objFile);
+    }
+
+    @Benchmark
+    public ModelData objParserToModelData() throws IOException {
+        return ObjParser.parse(objFile).toModelData();
+    }
+
+    /**
+     * Schreibt ein gewelltes Gitter mit {@code size}² Vertices im Format, das auch der alte Loader versteht
+     * (alle Vertex-Daten vor den Flächen, Ecken als {@code v/vt/vn}).
+     */
+    private static void writeGrid(Path file, int size) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (int z = 0; z < size; z++) {
+                for (int x = 0; x < size; x++) {
+                    writer.write("v " + x * 0.1f + " " + (float) Math.sin(x * 0.05) * (float) Math.cos(z * 0.05)
+                            + " " + z * 0.1f + "\n");
+                }
+            }
+            for (int z = 0; z < size; z++) {
+                for (int x = 0; x < size; x++) {
+                    writer.write("vt " + (float) x / (size - 1) + " " + (float) z / (size - 1) + "\n");
+                }
+            }
+            for (int i = 0; i < size * size; i++) {
+                writer.write("vn 0.0 1.0 0.0\n");
+            }
+            for (int z = 0; z < size - 1; z++) {
+                for (int x = 0; x < size - 1; x++) {
+                    int topLeft = z * size + x + 1; // OBJ Indices beginnen bei 1
+                    int topRight = topLeft + 1;
+                    int bottomLeft = topLeft + size;
+                    int bottomRight = bottomLeft + 1;
+                    writeFace(writer, topLeft, bottomLeft, topRight);
+                    writeFace(writer, topRight, bottomLeft, bottomRight);
+                }
+            }
+        }
+    }
+
+    private static void writeFace(BufferedWriter writer, int a, int b, int c) throws IOException {
+        writer.write("f " + a + "/" + a + "/" + a + " " + b + "/" + b + "/" + b + " " + c + "/" + c + "/" + c + "\n");
+    }
+
+    /**
+     * Der frühere Loader von <a href="https://github.com/TheThinMatrix">TheThinMatrix</a>, nur zum Vergleich (wie im
+     * {@code ObjParserTest}). Er erwartet Dreiecke im Format {@code v/vt/vn}, nach allen Vertex-Daten.
+     */
+    private static final class LineBasedLoader {
+
+        private static final int NO_INDEX = -1;
+
+        private static final class Vertex {
+
+            private final Vector3f position;
+            private final int index;
+            private final float length;
+            private int textureIndex = NO_INDEX;
+            private int normalIndex = NO_INDEX;
+            private Vertex duplicateVertex;
+
+            private Vertex(int index, Vector3f position) {
+                this.index = index;
+                this.position = position;
+                this.length = position.length();
+            }
+
+            private boolean isSet() {
+                return textureIndex == NO_INDEX || normalIndex == NO_INDEX;
+            }
+
+        }
+
+        static ModelData load(Path objFile) throws IOException {
+            List<Vertex> vertices = new ArrayList<Vertex>();
+            List<Vector2f> textures = new ArrayList<Vector2f>();
+            List<Vector3f> normals = new ArrayList<Vector3f>();
+            List<Integer> indices = new ArrayList<Integer>();
+            try (BufferedReader reader = Files.newBufferedReader(objFile, StandardCharsets.US_ASCII)) {
+                String line;
+                while (true) {
+                    line = reader.readLine();
+                    if (line.startsWith("v ")) {
+                        String[] currentLine = line.split(" ");
+                        vertices.add(new Vertex(vertices.size(), new Vector3f(Float.parseFloat(currentLine[1]),
+                                Float.parseFloat(currentLine[2]), Float.parseFloat(currentLine[3]))));
+                    } else if (line.startsWith("vt ")) {
+                        String[] currentLine = line.split(" ");
+                        textures.add(new Vector2f(Float.parseFloat(currentLine[1]), Float.parseFloat(currentLine[2])));
+                    } else if (line.startsWith("vn ")) {
+                        String[] currentLine = line.split(" ");
+                        normals.add(new Vector3f(Float.parseFloat(currentLine[1]),
+                                Float.parseFloat(currentLine[2]), Float.parseFloat(currentLine[3])));
+                    } else if (line.startsWith("f ")) {
+                        break;
+                    }
+                }
+                while (line != null && line.startsWith("f ")) {
+                    String[] currentLine = line.split(" ");
+                    processVertex(currentLine[1].split("/"), vertices, indices);
+                    processVertex(currentLine[2].split("/"), vertices, indices);
+                    processVertex(currentLine[3].split("/"), vertices, indices);
+                    line = reader.readLine();
+                }
+            }
+            for (Vertex vertex : vertices) {
+                if (vertex.isSet()) {
+                    vertex.textureIndex = 0;
+                    vertex.normalIndex = 0;
+                }
+            }
+            float[] verticesArray = new float[vertices.size() * 3];
+            float[] texturesArray = new float[vertices.size() * 2];
+            float[] normalsArray = new float[vertices.size() * 3];
+            float furthestPoint = 0;
+            for (int i = 0; i < vertices.size(); i++) {
+                Vertex vertex = vertices.get(i);
+                furthestPoint = Math.max(furthestPoint, vertex.length);
+                Vector2f textureCoord = textures.get(vertex.textureIndex);
+                Vector3f normal = normals.get(vertex.normalIndex);
+                verticesArray[i * 3] = vertex.position.x;
+                verticesArray[i * 3 + 1] = vertex.position.y;
+                verticesArray[i * 3 + 2] = vertex.position.z;
+                texturesArray[i * 2] = textureCoord.x;
+                texturesArray[i * 2 + 1] = 1 - textureCoord.y;
+                normalsArray[i * 3] = normal.x;
+                normalsArray[i * 3 + 1] = normal.y;
+                normalsArray[i * 3 + 2] = normal.z;
+            }
+            int[] indicesArray = new int[indices.size()];
+            for (int i = 0; i < indicesArray.length; i++) {
+                indicesArray[i] = indices.get(i);
+            }
+            return new ModelData(verticesArray, texturesArray, normalsArray, indicesArray, furthestPoint);
+        }
+
+        private static void processVertex(String[] corner, List<Vertex> vertices, List<Integer> indices) {
+            int index = Integer.parseInt(corner[0]) - 1;
+            Vertex vertex = vertices.get(index);
+            int textureIndex = Integer.parseInt(corner[1]) - 1;
+            int normalIndex = Integer.parseInt(corner[2]) - 1;
+            if (vertex.isSet()) {
+                vertex.textureIndex = textureIndex;
+                vertex.normalIndex = normalIndex;
+                indices.add(index);
+            } else {
+                dealWithAlreadyProcessedVertex(vertex, textureIndex, normalIndex, indices, vertices);
+            }
+        }
+
+        private static void dealWithAlreadyProcessedVertex(Vertex previous, int textureIndex, int normalIndex,
+                                                           List<Integer> indices, List<Vertex> vertices) {
+            if (previous.textureIndex == textureIndex && previous.normalIndex == normalIndex) {
+                indices.add(previous.index);
+            } else if (previous.duplicateVertex != null) {
+                dealWithAlreadyProcessedVertex(previous.duplicateVertex, textureIndex, normalIndex, indices, vertices);
+            } else {
+                Vertex duplicate = new Vertex(vertices.size(), previous.position);
+                duplicate.textureIndex = textureIndex;
+                duplicate.normalIndex = normalIndex;
+                previous.duplicateVertex = duplicate;
+                vertices.add(duplicate);
+                indices.add(duplicate.index);
+            }
+        }
+
+    }
+
+}
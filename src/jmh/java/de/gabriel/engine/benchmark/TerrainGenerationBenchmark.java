@@ -0,0 +1,67 @@
+package de.gabriel.engine.benchmark;
+
+import de.gabriel.engine.terrain.HeightField;
+import de.gabriel.engine.terrain.HeightMapSource;
+import de.gabriel.engine.terrain.Terrain;
+import de.gabriel.engine.terrain.TerrainData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Generierung eines Terrains aus einer Height Map mit 256², 1024² und 4096² Pixeln: das Dekodieren der
+ * Höhen allein und die gesamte Generierung mit {@link Terrain#generate} (Dekodieren, Chunks, Mesh und Packen der
+ * Vertices, ohne Hochladen). Die Height Map der Engine wird dafür auf die jeweilige Größe skaliert. Muss im
+ * Projektordner gestartet werden.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TerrainGenerationBenchmark {
+
+    @Param({"256", "1024", "4096"})
+    private int size;
+
+    private BufferedImage heightMap;
+    private HeightMapSource source;
+
+    @Setup(Level.Trial)
+    public void readHeightMap() throws IOException {
+        BufferedImage original = ImageIO.read(Path.of("src/main/resources/textures/heightmap.png").toFile());
+        heightMap = new BufferedImage(size, size, original.getType());
+        Graphics2D graphics = heightMap.createGraphics();
+        graphics.drawImage(original, 0, 0, size, size, null);
+        graphics.dispose();
+        source = new HeightMapSource(heightMap);
+    }
+
+    @Benchmark
+    public HeightField decodeHeights() {
+        return Terrain.decodeHeights(heightMap, 0, 0);
+    }
+
+    @Benchmark
+    public TerrainData generate() {
+        return Terrain.generate(0, 0, source);
+    }
+
+}
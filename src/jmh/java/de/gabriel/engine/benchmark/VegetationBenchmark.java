@@ -0,0 +1,106 @@
+package de.gabriel.engine.benchmark;
+
+import de.gabriel.engine.converter.Loader;
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.terrain.HeightField;
+import de.gabriel.engine.terrain.NoiseHeightSource;
+import de.gabriel.engine.terrain.Terrain;
+import de.gabriel.engine.textures.ModelTexture;
+import de.gabriel.engine.vegetation.DensityMap;
+import de.gabriel.engine.vegetation.VegetationChunk;
+import de.gabriel.engine.vegetation.VegetationGenerator;
+import de.gabriel.engine.vegetation.VegetationInstances;
+import de.gabriel.engine.vegetation.VegetationLayer;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Misst, wie schnell der {@link VegetationGenerator} die Vegetation einer ganzen Kachel verteilt, einmal auf dem
+ * aktuellen Thread und einmal parallel auf dem Common Pool. Verwendet werden die Ebenen (Gras und Farn) und die Blend
+ * Map der Szene sowie eine quantisierte Kachel aus der {@link NoiseHeightSource}; es wird weder ein Fenster noch eine
+ * Grafikkarte benötigt.
+ * <p>
+ * Die Anzahl der Instanzen der Kachel und ihr Speicher pro Million Instanzen im Hauptspeicher
+ * ({@link VegetationChunk#getMemoryBytes()}) und im Instanz-VBO ({@link VegetationInstances#BYTES_PER_INSTANCE})
+ * werden beim Start geloggt; den beim Generieren allokierten Speicher zeigt der GC-Profiler von JMH:
+ * {@code -Djmh.args="VegetationBenchmark -prof gc"}. Muss im Projektordner nach {@code mvn compile} gestartet werden,
+ * da die Blend Map aus {@code target/classes} gelesen wird.
+ * </p>
+ */
+@Slf4j
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dengine.resources=target/classes/")
+@State(Scope.Benchmark)
+public class VegetationBenchmark {
+
+    private static final long SEED = 1337;
+
+    /**
+     * Die Anzahl der Chunks pro Seite einer Kachel.
+     */
+    private static final int CHUNKS_PER_SIDE = (int) (Terrain.SIZE / VegetationChunk.SIZE);
+
+    private static final int CHUNK_COUNT = CHUNKS_PER_SIDE * CHUNKS_PER_SIDE;
+
+    private VegetationGenerator generator;
+    private HeightField heights;
+
+    @Setup(Level.Trial)
+    public void createGenerator() {
+        RawModel model = new RawModel(0, 12, 1);
+        ModelTexture fernTexture = new ModelTexture(0);
+        fernTexture.setNumberOfRows(2);
+        List<VegetationLayer> layers = List.of(
+                new VegetationLayer(new TexturedModel(model, new ModelTexture(0)), 1.0f, 0.3f, 1.5f, 0, 1.5f, 3, 120, 20),
+                new VegetationLayer(new TexturedModel(model, fernTexture), 0.02f, 0, 0.15f, 0, 0.7f, 1.3f, 200, 30));
+        DensityMap densityMap = DensityMap.of(new Loader().decodeTexture("blendMap"));
+        generator = new VegetationGenerator(SEED, densityMap, layers);
+        heights = new NoiseHeightSource(SEED).generate(0, 0).quantize();
+
+        long instances = 0;
+        long memoryBytes = 0;
+        for (VegetationChunk chunk : generateSerial()) {
+            instances += chunk.getInstanceCount();
+            memoryBytes += chunk.getMemoryBytes();
+        }
+        log.info("Vegetation benchmark tile; {[Chunks={}], [Instances={}], [CpuBytesPerMillion={}], "
+                        + "[GpuBytesPerMillion={}]}", CHUNK_COUNT, instances,
+                instances > 0 ? Math.round(memoryBytes * 1e6 / instances) : 0,
+                (long) VegetationInstances.BYTES_PER_INSTANCE * 1_000_000);
+    }
+
+    @Benchmark
+    public VegetationChunk[] generateSerial() {
+        VegetationChunk[] chunks = new VegetationChunk[CHUNK_COUNT];
+        for (int chunk = 0; chunk < CHUNK_COUNT; chunk++) {
+            chunks[chunk] = generator.generate(chunk % CHUNKS_PER_SIDE, chunk / CHUNKS_PER_SIDE, heights);
+        }
+        return chunks;
+    }
+
+    @Benchmark
+    public VegetationChunk[] generateCommonPool() {
+        return IntStream.range(0, CHUNK_COUNT).parallel()
+                .mapToObj(chunk -> generator.generate(chunk % CHUNKS_PER_SIDE, chunk / CHUNKS_PER_SIDE, heights))
+                .toArray(VegetationChunk[]::new);
+    }
+
+}
@@ -1,9 +1,7 @@
 package de.gabriel.engine;
 
+import de.gabriel.engine.converter.AssetManager;
 import de.gabriel.engine.converter.Loader;
-import de.gabriel.engine.converter.normals.NormalMappedObjLoader;
-import de.gabriel.engine.converter.obj.ModelData;
-import de.gabriel.engine.converter.obj.OBJFileLoader;
 import de.gabriel.engine.entities.Camera;
 import de.gabriel.engine.entities.Entity;
 import de.gabriel.engine.entities.Light;
@@ -14,25 +12,43 @@ import de.gabriel.engine.fonts.mesh.GUIText;
 import de.gabriel.engine.gui.GuiRenderer;
 import de.gabriel.engine.gui.GuiTexture;
 import de.gabriel.engine.input.Input;
+import de.gabriel.engine.models.LodChain;
 import de.gabriel.engine.models.RawModel;
 import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.profiler.Profiler;
+import de.gabriel.engine.profiler.ProfilerOverlay;
+import de.gabriel.engine.renderer.FrameStatistics;
 import de.gabriel.engine.renderer.MasterRenderer;
 import de.gabriel.engine.renderer.WindowManager;
+import de.gabriel.engine.scene.Occluder;
 import de.gabriel.engine.skybox.time.HourlyDayNightCycle;
 import de.gabriel.engine.skybox.time.TimeCycle;
+import de.gabriel.engine.terrain.GeneratedTileLoader;
+import de.gabriel.engine.terrain.HeightMapSource;
+import de.gabriel.engine.terrain.HeightSource;
+import de.gabriel.engine.terrain.NoiseHeightSource;
 import de.gabriel.engine.terrain.Terrain;
+import de.gabriel.engine.terrain.TerrainWorld;
 import de.gabriel.engine.textures.ModelTexture;
 import de.gabriel.engine.textures.TerrainTexture;
 import de.gabriel.engine.textures.TerrainTexturePack;
+import de.gabriel.engine.textures.TextureData;
+import de.gabriel.engine.vegetation.DensityMap;
+import de.gabriel.engine.vegetation.GeneratedVegetationLoader;
+import de.gabriel.engine.vegetation.VegetationField;
+import de.gabriel.engine.vegetation.VegetationGenerator;
+import de.gabriel.engine.vegetation.VegetationLayer;
 import lombok.extern.slf4j.Slf4j;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import static org.lwjgl.glfw.GLFW.glfwGetTime;
 import static org.lwjgl.glfw.GLFW.glfwWindowShouldClose;
@@ -41,14 +57,67 @@ import static org.lwjgl.glfw.GLFW.glfwWindowShouldClose;
 public class Main {
 
     /**
-     * Pfad zu den Ressourcen der Applikation.
+     * Pfad zu den Ressourcen der Applikation (mit abschließendem Schrägstrich). Kann mit der System Property
+     * {@code engine.resources} überschrieben werden, z.B. für Tests und Benchmarks im Projektordner.
      */
-    public static final String RESOURCES_PATH = "C:/Users/gabriel/Desktop/Coding Projekte/engine/game-engine/src/main/resources/";
+    public static final String RESOURCES_PATH = System.getProperty("engine.resources",
+            "C:/Users/gabriel/Desktop/Coding Projekte/engine/game-engine/src/main/resources/");
+
+    /**
+     * Was der Profiler misst: {@code off} (Standard), {@code cpu} oder {@code gpu} (CPU und GPU). Kann mit der System
+     * Property {@code engine.profiler} überschrieben werden, z.B. {@code -Dengine.profiler=gpu}.
+     */
+    private static final String PROFILER_MODE = System.getProperty("engine.profiler", "off");
 
     /**
      * Pfad zu den Shadern der Applikation.
      */
     public static final String SHADER_PATH = RESOURCES_PATH + "shaders/";
+
+    /**
+     * Das Zeitbudget pro Frame, in dem asynchron geladene Assets in OpenGL hochgeladen werden (2 ms).
+     */
+    private static final long UPLOAD_BUDGET_NANOS = 2_000_000;
+
+    /**
+     * Ob das Terrain aus Noise statt aus der Height Map generiert wird.
+     */
+    private static final boolean PROCEDURAL_TERRAIN = false;
+
+    /**
+     * Der Seed des Noise, wenn das Terrain aus Noise generiert wird.
+     */
+    private static final long TERRAIN_SEED = 1337;
+
+    /**
+     * Der Abstand in Kacheln, bis zu dem Terrain um die Kamera geladen wird.
+     */
+    private static final int TERRAIN_LOAD_RADIUS = 1;
+
+    /**
+     * Der Abstand in Kacheln, ab dem Terrain verworfen wird. Eine Kachel Abstand zum Laden verhindert, dass an der
+     * Grenze zweier Kacheln ständig geladen und verworfen wird.
+     */
+    private static final int TERRAIN_EVICT_RADIUS = 2;
+
+    /**
+     * Die Anzahl der Kacheln, die höchstens gleichzeitig generiert werden.
+     */
+    private static final int TERRAIN_MAX_PENDING_LOADS = 4;
+
+    /**
+     * Die Anzahl der Vegetations-Chunks, die höchstens gleichzeitig generiert werden.
+     */
+    private static final int VEGETATION_MAX_PENDING_LOADS = 8;
+
+    /**
+     * Die Zonen des Game-Loops im {@link Profiler}.
+     */
+    private static final int UPLOADS_ZONE = Profiler.zone("Uploads");
+    private static final int UPDATE_ZONE = Profiler.zone("Update");
+    private static final int RENDER_ZONE = Profiler.zone("Render");
+    private static final int SWAP_ZONE = Profiler.zone("SwapBuffers");
+
     private static float delta;
 
     public static void main(String[] args) throws IOException {
@@ -58,15 +127,45 @@ public class Main {
         long window = windowManager.init();
 
         Loader loader = new Loader();
+        AssetManager assets = new AssetManager(loader);
+        long loadStart = System.nanoTime();
+
+        // Assets anfordern: Texturen und Models werden parallel dekodiert bzw. geparst und beim Warten hochgeladen
+
+        CompletableFuture<Integer> fontTexture = assets.loadTexture("fonts/segeo_ui");
+        CompletableFuture<LodChain> lampModel = assets.loadLodChain("lamp");
+        CompletableFuture<Integer> lampTexture = assets.loadTexture("lamp");
+        CompletableFuture<LodChain> stallModel = assets.loadLodChain("stall");
+        CompletableFuture<Integer> stallTexture = assets.loadTexture("stallTexture");
+        CompletableFuture<Integer> backgroundTerrainTexture = assets.loadTexture("grass");
+        CompletableFuture<Integer> rTerrainTexture = assets.loadTexture("mud");
+        CompletableFuture<Integer> gTerrainTexture = assets.loadTexture("flowers");
+        CompletableFuture<Integer> bTerrainTexture = assets.loadTexture("path");
+        CompletableFuture<Integer> blendMapTexture = assets.loadTexture("blendMap");
+        CompletableFuture<TextureData> blendMapImage = assets.decodeTexture("blendMap");
+        CompletableFuture<RawModel> barrelModel = assets.loadNormalMappedMesh("barrel");
+        CompletableFuture<Integer> barrelTexture = assets.loadTexture("barrel");
+        CompletableFuture<Integer> barrelNormalMap = assets.loadTexture("normals/barrelNormal");
+        CompletableFuture<LodChain> pineModel = assets.loadLodChain("pine");
+        CompletableFuture<Integer> pineTexture = assets.loadTexture("pine");
+        CompletableFuture<RawModel> grassModel = assets.loadMesh("grass");
+        CompletableFuture<Integer> grassTexture = assets.loadTexture("grass01");
+        CompletableFuture<RawModel> fernModel = assets.loadMesh("fern");
+        CompletableFuture<Integer> fernTexture = assets.loadTexture("fern");
+        CompletableFuture<Integer> guiTexture = assets.loadTexture("lwjgl");
+
         TextMaster.init(loader);
 
-        FontType font = new FontType(loader.loadTexture("fonts/segeo_ui"), new File(RESOURCES_PATH + "fonts/segeo_ui.fnt"));
+        FontType font = new FontType(assets.await(fontTexture), new File(RESOURCES_PATH + "fonts/segeo_ui.fnt"));
         GUIText text = new GUIText("Hello World", 3, font, new Vector2f(0f, 0f), 1f, true);
         text.setColor(1, 1, 1);
 
         TimeCycle dayNightCycle = new HourlyDayNightCycle();
 
-        MasterRenderer renderer = new MasterRenderer(loader, dayNightCycle);
+        MasterRenderer renderer = new MasterRenderer(loader, assets, dayNightCycle);
+        renderer.setInstancedRendering(true); // Ein Draw Call pro texturiertem Modell statt pro Entity
+        renderer.setImpostorDistance(150); // Bäume und Stand ab 150 Einheiten als Impostor
+        renderer.setImpostorFadeWidth(30);
 
         List<Entity> entities = new ArrayList<Entity>();
         List<Entity> normalMapEntities = new ArrayList<Entity>();
@@ -77,85 +176,88 @@ public class Main {
 
         // Lamp
 
-        ModelData lampData = OBJFileLoader.loadOBJ("lamp");
-
-        RawModel lampModel = loader.loadToVAO(lampData.vertices(), lampData.textureCoords(),
-                lampData.normals(), lampData.indices());
-
-        TexturedModel lampTexturedModel = new TexturedModel(lampModel, new ModelTexture(loader.loadTexture("lamp")));
+        TexturedModel lampTexturedModel = new TexturedModel(assets.await(lampModel), new ModelTexture(assets.await(lampTexture)));
 
         lampTexturedModel.texture().setShineDamper(10);
 
         // Stall
 
-        ModelData stallData = OBJFileLoader.loadOBJ("stall");
-
-        RawModel stallModel = loader.loadToVAO(stallData.vertices(), stallData.textureCoords(),
-                stallData.normals(), stallData.indices());
-
-        TexturedModel stallTexturedModel = new TexturedModel(stallModel, new ModelTexture(loader.loadTexture("stallTexture")));
+        TexturedModel stallTexturedModel = new TexturedModel(assets.await(stallModel), new ModelTexture(assets.await(stallTexture)));
 
         stallTexturedModel.texture().setShineDamper(10);
         stallTexturedModel.texture().setReflectivity(1);
+        stallTexturedModel = renderer.bakeImpostor(stallTexturedModel);
 
-        entities.add(new Entity(stallTexturedModel, new Vector3f(-400, 0, -25), 0, 0, 0, 3));
+        Entity stall = new Entity(stallTexturedModel, new Vector3f(-400, 0, -25), 0, 0, 0, 3);
+        // Die untere Rückwand des Stands (z = -1) verdeckt beim Occlusion Culling, was dahinter liegt
+        stall.setOccluder(Occluder.box(-3.1f, 0, -1, 3.1f, 1.85f, -1));
+        entities.add(stall);
 
         // Terrain
 
-        TerrainTexture backgroundTexture = new TerrainTexture(loader.loadTexture("grass"));
-        TerrainTexture rTexture = new TerrainTexture(loader.loadTexture("mud"));
-        TerrainTexture gTexture = new TerrainTexture(loader.loadTexture("flowers"));
-        TerrainTexture bTexture = new TerrainTexture(loader.loadTexture("path"));
+        TerrainTexture backgroundTexture = new TerrainTexture(assets.await(backgroundTerrainTexture));
+        TerrainTexture rTexture = new TerrainTexture(assets.await(rTerrainTexture));
+        TerrainTexture gTexture = new TerrainTexture(assets.await(gTerrainTexture));
+        TerrainTexture bTexture = new TerrainTexture(assets.await(bTerrainTexture));
 
         TerrainTexturePack texturePack = new TerrainTexturePack(backgroundTexture, rTexture, gTexture, bTexture);
 
-        TerrainTexture blendMap = new TerrainTexture(loader.loadTexture("blendMap"));
+        TerrainTexture blendMap = new TerrainTexture(assets.await(blendMapTexture));
 
-        Terrain terrain = new Terrain(-1, -1, loader, texturePack, blendMap, "heightmap");
+        // Die Kacheln um die Kamera werden auf den Worker-Threads generiert; vor dem Start wird auf sie gewartet
+
+        Camera camera = new Camera();
+
+        HeightSource heightSource = PROCEDURAL_TERRAIN
+                ? new NoiseHeightSource(TERRAIN_SEED)
+                : new HeightMapSource("heightmap");
+        TerrainWorld world = new TerrainWorld(new GeneratedTileLoader(assets, loader, heightSource, texturePack, blendMap),
+                TERRAIN_LOAD_RADIUS, TERRAIN_EVICT_RADIUS, TERRAIN_MAX_PENDING_LOADS);
+        world.setListener(renderer.getTerrainListener());
+        world.update(camera.getPosition().x, camera.getPosition().z);
+        while (world.getPendingLoads() > 0) {
+            assets.finishLoading();
+            world.update(camera.getPosition().x, camera.getPosition().z);
+        }
+        Terrain terrain = world.getTerrain(-1, -1);
 
         // Barrels
 
-        TexturedModel barrelTexturedModel = new TexturedModel(NormalMappedObjLoader.loadOBJ("barrel", loader),
-                new ModelTexture(loader.loadTexture("barrel")));
-        barrelTexturedModel.texture().setNormalMapID(loader.loadTexture("normals/barrelNormal"));
+        TexturedModel barrelTexturedModel = new TexturedModel(assets.await(barrelModel),
+                new ModelTexture(assets.await(barrelTexture)));
+        barrelTexturedModel.texture().setNormalMapID(assets.await(barrelNormalMap));
         barrelTexturedModel.texture().setShineDamper(10);
         barrelTexturedModel.texture().setReflectivity(0.5f);
 
-        Entity barrelEntity = new Entity(barrelTexturedModel, new Vector3f(-360, terrain.getHeightOfTerrain(-360, -25) + 8, -25), 0, 0, 0, 1);
+        Entity barrelEntity = new Entity(barrelTexturedModel, new Vector3f(-360, world.getHeightOfTerrain(-360, -25) + 8, -25), 0, 0, 0, 1);
 
         normalMapEntities.add(barrelEntity);
 
         // Pines
 
-        ModelData pineData = OBJFileLoader.loadOBJ("pine");
-
-        RawModel pineModel = loader.loadToVAO(pineData.vertices(), pineData.textureCoords(),
-                pineData.normals(), pineData.indices());
-
-        TexturedModel pineTexturedModel = new TexturedModel(pineModel, new ModelTexture(loader.loadTexture("pine")));
+        TexturedModel pineTexturedModel = new TexturedModel(assets.await(pineModel), new ModelTexture(assets.await(pineTexture)));
 
         pineTexturedModel.texture().setShineDamper(10);
         pineTexturedModel.texture().setReflectivity(1);
+        pineTexturedModel = renderer.bakeImpostor(pineTexturedModel);
 
         Random randomPineTrees = new Random();
 
+        float[][] pinePositions = scatter(randomPineTrees, 80, terrain);
         for (int i = 0; i < 80; i++) {
-            float x = randomPineTrees.nextFloat() * -800;
-            float z = randomPineTrees.nextFloat() * -800;
-            float y = terrain.getHeightOfTerrain(x, z);
             entities.add(new Entity(pineTexturedModel,
-                    new Vector3f(x, y, z), 0, 0, 0, 3));
+                    new Vector3f(pinePositions[0][i], pinePositions[1][i], pinePositions[2][i]), 0, 0, 0, 3));
         }
 
         // Lamps
 
         lights.add(new Light(new Vector3f(-400, 0, -400), new Vector3f(0.5f, 0.5f, 0.5f))); // Sun
 
-        pointLights.add(new PointLight(lampTexturedModel, new Vector3f(-300, terrain.getHeightOfTerrain(-300, -50), -50), new Vector3f(0, 0, 0), 1,
+        pointLights.add(new PointLight(lampTexturedModel, new Vector3f(-300, world.getHeightOfTerrain(-300, -50), -50), new Vector3f(0, 0, 0), 1,
                 new Vector3f(2, 0, 0), new Vector3f(1, 0.01f, 0.002f)));
-        pointLights.add(new PointLight(lampTexturedModel, new Vector3f(-325, terrain.getHeightOfTerrain(-325, -70), -70), new Vector3f(0, 0, 0), 1,
+        pointLights.add(new PointLight(lampTexturedModel, new Vector3f(-325, world.getHeightOfTerrain(-325, -70), -70), new Vector3f(0, 0, 0), 1,
                 new Vector3f(0, 2, 0), new Vector3f(1, 0.01f, 0.002f)));
-        pointLights.add(new PointLight(lampTexturedModel, new Vector3f(-350, terrain.getHeightOfTerrain(-350, -62), -62), new Vector3f(0, 0, 0), 1,
+        pointLights.add(new PointLight(lampTexturedModel, new Vector3f(-350, world.getHeightOfTerrain(-350, -62), -62), new Vector3f(0, 0, 0), 1,
                 new Vector3f(0, 0, 2), new Vector3f(1, 0.01f, 0.002f)));
 
         for (PointLight pointLight : pointLights) {
@@ -165,101 +267,163 @@ public class Main {
 
         // Vegetation
 
-        ModelData grassData = OBJFileLoader.loadOBJ("grass");
-
-        RawModel grassModel = loader.loadToVAO(grassData.vertices(), grassData.textureCoords(),
-                grassData.normals(), grassData.indices());
-
-        TexturedModel grassTexturedModel = new TexturedModel(grassModel,
-                new ModelTexture(loader.loadTexture("grass01")));
+        TexturedModel grassTexturedModel = new TexturedModel(assets.await(grassModel),
+                new ModelTexture(assets.await(grassTexture)));
 
         grassTexturedModel.texture().setHasTransparency(true);
         grassTexturedModel.texture().setUseFakeLighting(true);
 
-        ModelData fernData = OBJFileLoader.loadOBJ("fern");
-
-        RawModel fernModel = loader.loadToVAO(fernData.vertices(), fernData.textureCoords(),
-                fernData.normals(), fernData.indices());
-
-        TexturedModel fernTexturedModel = new TexturedModel(fernModel,
-                new ModelTexture(loader.loadTexture("fern")));
+        TexturedModel fernTexturedModel = new TexturedModel(assets.await(fernModel),
+                new ModelTexture(assets.await(fernTexture)));
 
         fernTexturedModel.texture().setHasTransparency(true);
         fernTexturedModel.texture().setNumberOfRows(2);
 
-        Random random = new Random();
+        // Gras wächst überall außer auf dem Weg, Farne vor allem zwischen den Blumen (grüner Kanal der Blend Map)
+        List<VegetationLayer> vegetationLayers = List.of(
+                new VegetationLayer(grassTexturedModel, 1.0f, 0.3f, 1.5f, 0, 1.5f, 3, 120, 20),
+                new VegetationLayer(fernTexturedModel, 0.02f, 0, 0.15f, 0, 0.7f, 1.3f, 200, 30));
+        DensityMap densityMap = DensityMap.of(assets.await(blendMapImage));
+        VegetationField vegetation = new VegetationField(vegetationLayers, new GeneratedVegetationLoader(assets, loader,
+                new VegetationGenerator(TERRAIN_SEED, densityMap, vegetationLayers)), world, VEGETATION_MAX_PENDING_LOADS);
+        renderer.setVegetation(vegetation);
 
-        for (int i = 0; i < 1000; i++) {
-            float x = random.nextFloat() * -800;
-            float z = random.nextFloat() * -800;
-            float y = terrain.getHeightOfTerrain(x, z);
-            entities.add(new Entity(grassTexturedModel,
-                    new Vector3f(x, y, z), 0, 0, 0, 3));
-        }
+        // Entities und Terrain werden einmalig registriert und bleiben bis zum Entfernen in den Render Queues
 
-        for (int i = 0; i < 500; i++) {
-            float x = random.nextFloat() * -800;
-            float z = random.nextFloat() * -800;
-            float y = terrain.getHeightOfTerrain(x, z);
-            entities.add(new Entity(fernTexturedModel, random.nextInt(4),
-                    new Vector3f(x, y, z), 0, 0, 0, 1));
+        for (Entity entity : entities) {
+            renderer.addEntity(entity);
+        }
+        for (Entity entity : normalMapEntities) {
+            renderer.addNormalMapEntity(entity);
         }
 
         // GUI
 
         List<GuiTexture> guis = new ArrayList<GuiTexture>();
-        GuiTexture gui = new GuiTexture(loader.loadTexture("lwjgl"), new Vector2f(0.75f, 0.75f), new Vector2f(0.225f, 0.1125f));
+        GuiTexture gui = new GuiTexture(assets.await(guiTexture), new Vector2f(0.75f, 0.75f), new Vector2f(0.225f, 0.1125f));
         guis.add(gui);
 
         GuiRenderer guiRenderer = new GuiRenderer(loader);
 
-        // Input
+        assets.finishLoading();
+        log.info("Loaded scene; {[AssetPoolSize={}], [Millis={}]}", assets.getPoolSize(), (System.nanoTime() - loadStart) / 1e6);
 
-        Camera camera = new Camera();
+        // Input
 
         Input input = new Input(camera, window);
 
+        // Profiler: F3 blendet die Zeiten ein, F4 schreibt einen Chrome Trace der letzten Frames
+
+        switch (PROFILER_MODE) {
+            case "gpu" -> {
+                Profiler.setEnabled(true);
+                Profiler.setGpuTiming(true);
+            }
+            case "cpu" -> Profiler.setEnabled(true);
+            case "off" -> {
+            }
+            default -> log.warn("Unknown profiler mode, profiler stays disabled; {[Mode={}], [Expected=gpu|cpu|off]}",
+                    PROFILER_MODE);
+        }
+        ProfilerOverlay profilerOverlay = new ProfilerOverlay(font);
+
         // Game-Loop
 
         float lastUpdateTime = (float) glfwGetTime();
+        float statisticsTime = 0;
 
         while (!glfwWindowShouldClose(window)) {
             delta = (float) glfwGetTime() - lastUpdateTime;
             lastUpdateTime += delta;
 
-            input.moveCamera(delta);
-            camera.update(delta, terrain);
+            Profiler.begin(UPLOADS_ZONE);
+            assets.processUploads(UPLOAD_BUDGET_NANOS); // Nachgeladene Assets innerhalb des Budgets hochladen
+            Profiler.end(UPLOADS_ZONE);
 
-            renderer.addTerrain(terrain);
+            Profiler.begin(UPDATE_ZONE);
+            input.moveCamera(delta);
+            world.update(camera.getPosition().x, camera.getPosition().z); // Kacheln um die Kamera nachladen
+            vegetation.update(camera.getPosition().x, camera.getPosition().z); // Vegetation auf geladenen Kacheln
+            camera.update(delta, world);
 
-            barrelEntity.increaseRotation(0, 0.25f, 0);
+            barrelEntity.increaseRotation(0, 0.25f, 0); // Markiert die Entity in ihrer Render Queue als geändert
 
-            for (Entity Entity : entities) {
-                renderer.processEntity(Entity);
-            }
-            for (Entity Entity : normalMapEntities) {
-                renderer.processNormalMapEntity(Entity);
-            }
+            profilerOverlay.setVisible(input.isShowProfiler());
+            profilerOverlay.update(delta);
+            Profiler.end(UPDATE_ZONE);
 
+            Profiler.begin(RENDER_ZONE);
             renderer.render(lights, camera);
+            Profiler.end(RENDER_ZONE);
 
             guiRenderer.render(guis);
 
             TextMaster.render();
 
+            Profiler.begin(SWAP_ZONE);
             windowManager.update();
+            Profiler.end(SWAP_ZONE);
+            Profiler.endFrame();
+
+            if (input.pollTraceRequest()) {
+                Path trace = Path.of("trace-" + System.currentTimeMillis() + ".json");
+                try {
+                    Profiler.writeChromeTrace(trace);
+                } catch (IOException e) {
+                    log.error("Failed to write chrome trace; {[Path={}]}", trace, e);
+                }
+            }
+
+            statisticsTime += delta;
+            if (statisticsTime >= 1) { // Einmal pro Sekunde die Einsparung durch Impostors des letzten Frames ausgeben
+                statisticsTime = 0;
+                log.info("Impostor statistics; {[Impostors={}], [TrianglesRemoved={}], [DrawCalls={}]}",
+                        FrameStatistics.get(FrameStatistics.Counter.IMPOSTORS),
+                        FrameStatistics.get(FrameStatistics.Counter.IMPOSTOR_TRIANGLES_REMOVED),
+                        FrameStatistics.get(FrameStatistics.Counter.DRAW_CALLS));
+                log.info("Vegetation statistics; {[Chunks={}], [Instances={}], [ResidentInstances={}], [ResidentBytes={}]}",
+                        FrameStatistics.get(FrameStatistics.Counter.VEGETATION_CHUNKS),
+                        FrameStatistics.get(FrameStatistics.Counter.VEGETATION_INSTANCES),
+                        vegetation.getResidentInstances(), vegetation.getResidentBytes());
+            }
         }
 
         // Clean Up
 
+        profilerOverlay.cleanUp();
+        Profiler.cleanUp();
         TextMaster.cleanUp();
         guiRenderer.cleanUp();
         renderer.cleanUp();
+        vegetation.cleanUp();
+        world.cleanUp();
+        assets.cleanUp();
         loader.cleanUp();
         windowManager.cleanUp();
         input.cleanUp();
     }
 
+    /**
+     * Verteilt Punkte zufällig auf dem Terrain. Die Höhen aller Punkte werden mit einer einzigen Abfrage an das
+     * Height Field bestimmt.
+     *
+     * @param random  der Zufallsgenerator; pro Punkt werden nacheinander X und Z gezogen.
+     * @param count   die Anzahl der Punkte.
+     * @param terrain das Terrain.
+     * @return die X, Y und Z Positionen der Punkte ({@code [0]}, {@code [1]} und {@code [2]}).
+     */
+    private static float[][] scatter(Random random, int count, Terrain terrain) {
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        float[] zs = new float[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = random.nextFloat() * -800;
+            zs[i] = random.nextFloat() * -800;
+        }
+        terrain.getHeightField().heightsAt(xs, zs, ys);
+        return new float[][]{xs, ys, zs};
+    }
+
     public static float getDeltaTime() {
         return delta;
     }
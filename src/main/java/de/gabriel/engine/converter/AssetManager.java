@@ -0,0 +1,393 @@
+package de.gabriel.engine.converter;
+
+import de.gabriel.engine.converter.normals.ModelDataNM;
+import de.gabriel.engine.converter.normals.NormalMappedObjLoader;
+import de.gabriel.engine.converter.obj.MeshData;
+import de.gabriel.engine.converter.obj.OBJFileLoader;
+import de.gabriel.engine.converter.vertex.PackedMesh;
+import de.gabriel.engine.converter.vertex.VertexPacker;
+import de.gabriel.engine.models.LodChain;
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.textures.TextureData;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.FileNotFoundException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Lädt Assets asynchron. Das Dekodieren von Texturen und das Parsen von Models ist reine CPU-Arbeit und läuft
+ * parallel auf einem Pool von Worker-Threads. Nur das Hochladen in OpenGL ({@code glBufferData},
+ * {@code glTexImage2D}) muss auf dem Thread mit dem OpenGL-Context passieren; diese Aufgaben landen in einer
+ * Warteschlange, die der Game-Loop mit {@link #processUploads(long)} innerhalb eines Zeitbudgets pro Frame abarbeitet.
+ * <p>
+ * Die Methoden {@code decode...} und {@code parse...} liefern nur das Ergebnis der CPU-Stufe und benötigen
+ * keinen OpenGL-Context. Die Methoden {@code load...} hängen zusätzlich das Hochladen an. Sie verwenden den Cache
+ * des {@link Loader}s: bereits geladene Assets werden sofort zurückgegeben, und mehrere Anforderungen derselben
+ * Datei, während sie noch geladen wird, teilen sich das Dekodieren und Hochladen. Jede Anforderung hält dabei eine
+ * eigene Referenz. Da der Cache nicht synchronisiert ist, müssen die Methoden {@code load...} auf dem Thread mit dem
+ * OpenGL-Context aufgerufen werden.
+ * </p>
+ *
+ * @see Loader
+ */
+@Slf4j
+public class AssetManager {
+
+    /**
+     * Die Standardgröße des Worker-Pools. Ein Kern bleibt für den Thread mit dem OpenGL-Context frei.
+     */
+    public static final int DEFAULT_POOL_SIZE = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    /**
+     * Wie lange {@link #await(CompletableFuture)} höchstens auf eine neue Upload-Aufgabe wartet,
+     * bevor erneut geprüft wird, ob das Ergebnis fertig ist.
+     */
+    private static final long AWAIT_POLL_MILLIS = 10;
+
+    private final Loader loader;
+
+    private final ExecutorService workers;
+
+    /**
+     * Aufgaben, die auf dem Thread mit dem OpenGL-Context ausgeführt werden müssen.
+     */
+    private final BlockingQueue<Runnable> uploads = new LinkedBlockingQueue<Runnable>();
+
+    /**
+     * Anzahl der angeforderten Assets, die noch nicht hochgeladen wurden.
+     */
+    private final AtomicInteger pendingAssets = new AtomicInteger();
+
+    /**
+     * Die Assets, die gerade geladen werden, nach ihrem Schlüssel im Cache des Loaders. Fehlgeschlagene Assets
+     * werden auf einem Worker-Thread entfernt, daher eine ConcurrentHashMap.
+     */
+    private final Map<String, CompletableFuture<?>> loading = new ConcurrentHashMap<String, CompletableFuture<?>>();
+
+    @Getter
+    private final int poolSize;
+
+    public AssetManager(Loader loader) {
+        this(loader, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * @param loader   der Loader, mit dem dekodiert und hochgeladen wird.
+     * @param poolSize die Anzahl der Worker-Threads.
+     */
+    public AssetManager(Loader loader, int poolSize) {
+        this.loader = loader;
+        this.poolSize = poolSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "asset-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Created asset manager; {[PoolSize={}]}", poolSize);
+    }
+
+    /**
+     * Dekodiert eine Textur auf einem Worker-Thread.
+     *
+     * @param fileName der Dateiname der Textur (PNG).
+     * @return das dekodierte Bild.
+     * @see Loader#decodeTexture(String)
+     */
+    public CompletableFuture<TextureData> decodeTexture(String fileName) {
+        return CompletableFuture.supplyAsync(() -> loader.decodeTexture(fileName), workers);
+    }
+
+    /**
+     * Parst ein Model (bzw. liest es aus dem binären Cache) auf einem Worker-Thread.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return die Daten des Models.
+     * @see OBJFileLoader#loadMesh(String)
+     */
+    public CompletableFuture<MeshData> parseMesh(String objFileName) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return OBJFileLoader.loadMesh(objFileName);
+            } catch (FileNotFoundException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, workers);
+    }
+
+    /**
+     * Liest alle Detailstufen eines Models (bzw. erzeugt sie beim ersten Laden) auf einem Worker-Thread.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return die Detailstufen des Models, beginnend mit der vollen Auflösung.
+     * @see OBJFileLoader#loadMeshLods(String)
+     */
+    public CompletableFuture<List<MeshData>> parseMeshLods(String objFileName) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return OBJFileLoader.loadMeshLods(objFileName);
+            } catch (FileNotFoundException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, workers);
+    }
+
+    /**
+     * Parst ein Model für Normal Mapping auf einem Worker-Thread.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return die Daten des Models inklusive Tangenten.
+     * @see NormalMappedObjLoader#parseOBJ(String)
+     */
+    public CompletableFuture<ModelDataNM> parseNormalMappedMesh(String objFileName) {
+        return CompletableFuture.supplyAsync(() -> NormalMappedObjLoader.parseOBJ(objFileName), workers);
+    }
+
+    /**
+     * Lädt eine Textur asynchron.
+     *
+     * @param fileName der Dateiname der Textur (PNG).
+     * @return die ID der Textur, sobald sie hochgeladen wurde.
+     */
+    public CompletableFuture<Integer> loadTexture(String fileName) {
+        return load(Loader.textureKey(fileName), () -> loader.acquireTexture(fileName),
+                () -> upload(decodeTexture(fileName), image -> loader.uploadTexture(image, fileName)));
+    }
+
+    /**
+     * Lädt eine Cube Map asynchron. Die 6 Seiten werden parallel dekodiert.
+     *
+     * @param textureFiles die Dateinamen der 6 Texturen (PNG).
+     * @return die ID der Cube Map, sobald sie hochgeladen wurde.
+     */
+    public CompletableFuture<Integer> loadCubeMap(String[] textureFiles) {
+        return load(Loader.cubeMapKey(textureFiles), () -> loader.acquireCubeMap(textureFiles),
+                () -> decodeAndUploadCubeMap(textureFiles));
+    }
+
+    /**
+     * Dekodiert die 6 Seiten einer Cube Map parallel und hängt das Hochladen an.
+     */
+    private CompletableFuture<Integer> decodeAndUploadCubeMap(String[] textureFiles) {
+        List<CompletableFuture<TextureData>> sides = new ArrayList<CompletableFuture<TextureData>>(textureFiles.length);
+        for (String textureFile : textureFiles) {
+            sides.add(decodeTexture(textureFile));
+        }
+        CompletableFuture<Void> allSides = CompletableFuture.allOf(sides.toArray(CompletableFuture<?>[]::new));
+        CompletableFuture<TextureData[]> images = allSides.thenApply(ignored -> {
+            TextureData[] result = new TextureData[sides.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = sides.get(i).join();
+            }
+            return result;
+        });
+        return upload(images, decoded -> loader.uploadCubeMap(decoded, textureFiles));
+    }
+
+    /**
+     * Lädt ein Model asynchron.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return das Model, sobald es hochgeladen wurde.
+     */
+    public CompletableFuture<RawModel> loadMesh(String objFileName) {
+        return load(Loader.modelKey(objFileName), () -> loader.acquireModel(objFileName),
+                () -> upload(packOnWorker(parseMesh(objFileName), VertexPacker::pack),
+                        mesh -> loader.uploadModel(mesh, objFileName)));
+    }
+
+    /**
+     * Lädt alle Detailstufen eines Models asynchron.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return die Detailstufen, sobald alle hochgeladen wurden.
+     */
+    public CompletableFuture<LodChain> loadLodChain(String objFileName) {
+        return load(Loader.lodChainKey(objFileName), () -> loader.acquireLodChain(objFileName), () -> {
+            CompletableFuture<List<MeshData>> parsed = parseMeshLods(objFileName);
+            CompletableFuture<List<PackedMesh>> packed = packOnWorker(parsed, levels -> {
+                List<PackedMesh> meshes = new ArrayList<PackedMesh>(levels.size());
+                for (MeshData level : levels) {
+                    meshes.add(VertexPacker.pack(level));
+                }
+                return meshes;
+            });
+            // Die gepackten Stufen hängen von den geparsten ab, daher ist parsed hier bereits fertig
+            return upload(packed, meshes -> loader.uploadLodChain(meshes, Loader.lodErrors(parsed.join()), objFileName));
+        });
+    }
+
+    /**
+     * Lädt ein Model für Normal Mapping asynchron.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return das Model, sobald es hochgeladen wurde.
+     */
+    public CompletableFuture<RawModel> loadNormalMappedMesh(String objFileName) {
+        return load(Loader.normalMappedModelKey(objFileName), () -> loader.acquireNormalMappedModel(objFileName),
+                () -> upload(packOnWorker(parseNormalMappedMesh(objFileName), VertexPacker::pack),
+                        mesh -> loader.uploadNormalMappedModel(mesh, objFileName)));
+    }
+
+    /**
+     * Erzeugt Daten auf einem Worker-Thread und lädt sie danach über die Warteschlange auf dem Thread mit dem
+     * OpenGL-Context hoch, z.B. generierte Kacheln eines Terrains. Das Ergebnis wird nicht im Cache des Loaders
+     * abgelegt; der Aufrufer gibt es selbst wieder frei.
+     *
+     * @param generate erzeugt die Daten (ohne OpenGL).
+     * @param upload   lädt die Daten hoch.
+     * @return das Ergebnis, sobald es hochgeladen wurde.
+     */
+    public <T, R> CompletableFuture<R> submit(Supplier<T> generate, Function<T, R> upload) {
+        return upload(CompletableFuture.supplyAsync(generate, workers), upload);
+    }
+
+    /**
+     * Packt die geparsten Daten eines Models ebenfalls noch auf einem Worker-Thread in ihr Vertex-Layout.
+     */
+    private <T, P> CompletableFuture<P> packOnWorker(CompletableFuture<T> parsed, Function<T, P> pack) {
+        return parsed.thenApplyAsync(pack, workers);
+    }
+
+    /**
+     * Liefert ein Asset aus dem Cache des Loaders, hängt sich an ein bereits laufendes Laden derselben Datei an
+     * oder startet ein neues Laden.
+     *
+     * @param key     der Schlüssel des Assets im Cache des Loaders.
+     * @param acquire fordert das Asset aus dem Cache an (null, wenn es nicht im Cache liegt).
+     * @param load    startet das Laden des Assets.
+     * @return das Asset, sobald es hochgeladen wurde.
+     */
+    private <R> CompletableFuture<R> load(String key, Supplier<R> acquire, Supplier<CompletableFuture<R>> load) {
+        R cached = acquire.get();
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        @SuppressWarnings("unchecked")
+        CompletableFuture<R> pending = (CompletableFuture<R>) loading.get(key);
+        if (pending != null) {
+            // Läuft nach dem Hochladen auf dem Thread mit dem OpenGL-Context und holt eine eigene Referenz
+            return pending.thenApply(ignored -> acquire.get());
+        }
+        CompletableFuture<R> result = load.get();
+        loading.put(key, result);
+        result.whenComplete((ignored, error) -> loading.remove(key));
+        return result;
+    }
+
+    /**
+     * Hängt an das Ergebnis einer CPU-Stufe eine Upload-Aufgabe für den Thread mit dem OpenGL-Context an.
+     */
+    private <T, R> CompletableFuture<R> upload(CompletableFuture<T> decoded, Function<T, R> upload) {
+        pendingAssets.incrementAndGet();
+        CompletableFuture<R> result = new CompletableFuture<R>();
+        decoded.whenComplete((data, error) -> {
+            if (error != null) {
+                pendingAssets.decrementAndGet();
+                result.completeExceptionally(error);
+                return;
+            }
+            uploads.add(() -> {
+                try {
+                    result.complete(upload.apply(data));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    pendingAssets.decrementAndGet();
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Führt wartende Upload-Aufgaben aus, bis die Warteschlange leer oder das Zeitbudget aufgebraucht ist.
+     * Es wird immer mindestens eine Aufgabe ausgeführt, falls eine wartet. Muss auf dem Thread mit dem
+     * OpenGL-Context aufgerufen werden.
+     *
+     * @param budgetNanos das Zeitbudget in Nanosekunden.
+     * @return die Anzahl der ausgeführten Aufgaben.
+     */
+    public int processUploads(long budgetNanos) {
+        long start = System.nanoTime();
+        int processed = 0;
+        Runnable task;
+        while ((task = uploads.poll()) != null) {
+            task.run();
+            processed++;
+            if (System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+        return processed;
+    }
+
+    /**
+     * Wartet auf ein Asset und führt dabei die Upload-Aufgaben aus, sobald sie anfallen. Muss auf dem Thread mit
+     * dem OpenGL-Context aufgerufen werden, da das Asset sonst nie hochgeladen werden würde.
+     *
+     * @param asset das angeforderte Asset.
+     * @return das Ergebnis.
+     */
+    public <T> T await(CompletableFuture<T> asset) {
+        while (!asset.isDone()) {
+            try {
+                Runnable task = uploads.poll(AWAIT_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (task != null) {
+                    task.run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return asset.join();
+    }
+
+    /**
+     * Wartet, bis alle angeforderten Assets hochgeladen wurden.
+     *
+     * @see AssetManager#await(CompletableFuture)
+     */
+    public void finishLoading() {
+        long start = System.nanoTime();
+        while (pendingAssets.get() > 0) {
+            try {
+                Runnable task = uploads.poll(AWAIT_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (task != null) {
+                    task.run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        log.info("Finished loading assets; {[PoolSize={}], [Millis={}]}", poolSize, (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * @return die Anzahl der angeforderten Assets, die noch nicht hochgeladen wurden.
+     */
+    public int getPendingAssets() {
+        return pendingAssets.get();
+    }
+
+    public void cleanUp() {
+        workers.shutdownNow();
+    }
+
+}
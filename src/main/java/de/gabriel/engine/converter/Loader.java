@@ -1,32 +1,60 @@
 package de.gabriel.engine.converter;
 
 import de.gabriel.engine.Main;
+import de.gabriel.engine.converter.normals.ModelDataNM;
 import de.gabriel.engine.converter.normals.NormalMappedObjLoader;
+import de.gabriel.engine.converter.obj.MeshData;
+import de.gabriel.engine.converter.obj.ModelData;
+import de.gabriel.engine.converter.obj.OBJFileLoader;
+import de.gabriel.engine.converter.vertex.PackedMesh;
+import de.gabriel.engine.converter.vertex.VertexAttribute;
+import de.gabriel.engine.converter.vertex.VertexFormat;
+import de.gabriel.engine.converter.vertex.VertexLayout;
+import de.gabriel.engine.converter.vertex.VertexPacker;
+import de.gabriel.engine.converter.vertex.VertexStream;
+import de.gabriel.engine.models.LodChain;
 import de.gabriel.engine.models.RawModel;
 import de.gabriel.engine.textures.TextureData;
+import de.gabriel.engine.utils.IntList;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.*;
 import org.lwjgl.stb.STBImage;
 import org.lwjgl.system.MemoryStack;
 
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
 
 import static de.gabriel.engine.Main.RESOURCES_PATH;
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
 import static org.lwjgl.stb.STBImage.stbi_load;
 
 /**
  * Das Ziel des Loaders ist es VBOs in einem VAO zu speichern und dieses mit der zugehörigen
  * ID als {@link RawModel} mit der Anzahl der Vertices zurückzugeben.
+ * <p>
+ * Texturen, Cube Maps und Models aus Dateien werden in einem {@link ResourceCache} mit Referenzzählung
+ * abgelegt, dessen Schlüssel der kanonische Pfad der Quelldatei ist. Wird dieselbe Datei mehrfach geladen,
+ * wird sie nur einmal dekodiert und hochgeladen. Mit {@link #releaseTexture(int)},
+ * {@link #releaseModel(RawModel)} und {@link #releaseLodChain(LodChain)} wird eine Referenz wieder freigegeben; die letzte Freigabe löscht die
+ * Ressource sofort und nicht erst in {@link #cleanUp()}.
+ * </p>
  *
  * @see RawModel
  */
 @Slf4j
-public class Loader {
+public final class Loader {
 
     /**
      * Eine Liste, der in der Sitzung erstellten VAOs, um diese beim Beenden der Sitzung zu löschen.
@@ -50,8 +78,54 @@ public class Loader {
     private final List<Integer> textures = new ArrayList<Integer>();
 
     /**
-     * Erstellt ein VAO mit den VBOs (siehe Parameter), wofür das VAO am Ende unbounded werden muss und dann als {@link RawModel}
-     * mit der Anzahl der Vertices und der VAO ID zurückgegeben wird.
+     * Die VBOs, die für ein VAO erstellt wurden, um sie zusammen mit dem VAO löschen zu können.
+     *
+     * @see Loader#deleteVAO(int)
+     */
+    private final Map<Integer, IntList> vaoBuffers = new HashMap<Integer, IntList>();
+
+    /**
+     * Das VAO, das gerade befüllt wird. Neue VBOs werden diesem VAO zugeordnet.
+     */
+    private int boundVao;
+
+    /**
+     * Werden benachrichtigt, wenn ein VAO gelöscht wurde, da OpenGL seine ID danach erneut vergeben kann.
+     *
+     * @see Loader#deleteVAO(int)
+     */
+    private final List<IntConsumer> vaoDeletionListeners = new ArrayList<IntConsumer>();
+
+    /**
+     * Der Cache für Texturen und Cube Maps (beide teilen sich die IDs der Texturen).
+     */
+    @Getter
+    private final ResourceCache<Integer> textureCache;
+
+    /**
+     * Der Cache für Models aus OBJ Dateien.
+     */
+    @Getter
+    private final ResourceCache<RawModel> modelCache;
+
+    /**
+     * Der Cache für die Detailstufen von Models aus OBJ Dateien.
+     */
+    @Getter
+    private final ResourceCache<LodChain> lodCache;
+
+    public Loader() {
+        // Die Caches erhalten eine Referenz auf den Loader; da die Klasse final ist, kann keine Unterklasse den
+        // Loader über sie beobachten, bevor er vollständig initialisiert ist
+        this.textureCache = new ResourceCache<Integer>(this::deleteTexture);
+        this.modelCache = new ResourceCache<RawModel>(this::deleteModel);
+        this.lodCache = new ResourceCache<LodChain>(this::deleteLodChain);
+    }
+
+    /**
+     * Erstellt ein VAO mit einem verschachtelten VBO im Layout {@link VertexLayout#STANDARD} (ohne Quantisierung),
+     * wofür das VAO am Ende unbounded werden muss und dann als {@link RawModel} mit der Anzahl der Vertices und der
+     * VAO ID zurückgegeben wird.
      *
      * @param positions     die Positionen der Vertices.
      * @param textureCoords die Texture Coordinates des Vertex.
@@ -60,19 +134,34 @@ public class Loader {
      * @return Ein {@link RawModel} mit der zugehörigen VAO ID und der Anzahl der Vertices.
      */
     public RawModel loadToVAO(float[] positions, float[] textureCoords, float[] normals, int[] indices) {
-        int vaoID = createVAO();
-        bindIndicesBuffer(indices);
-        storeDataInAttributeList(0, 3, positions);
-        storeDataInAttributeList(1, 2, textureCoords);
-        storeDataInAttributeList(2, 3, normals);
-        unbindVAO();
+        VertexStream[] streams = {
+                VertexStream.of(positions, 3), VertexStream.of(textureCoords, 2), VertexStream.of(normals, 3)
+        };
+        return loadToVAO(VertexPacker.pack(VertexLayout.STANDARD, streams, positions.length / 3,
+                IntBuffer.wrap(indices), calculateBoundingRadius(positions)));
+    }
 
-        return new RawModel(vaoID, indices.length);
+    /**
+     * Erstellt ein VAO aus den Daten eines mit dem {@link OBJFileLoader} geladenen Modells im Layout
+     * {@link VertexLayout#STANDARD}. Der bereits beim Laden berechnete, am weitesten vom Ursprung entfernte Punkt
+     * wird als Radius der Bounding Sphere übernommen.
+     *
+     * @param data die Daten des Modells.
+     * @return Ein {@link RawModel} mit der zugehörigen VAO ID, der Anzahl der Vertices und der Bounding Sphere.
+     */
+    public RawModel loadToVAO(ModelData data) {
+        VertexStream[] streams = {
+                VertexStream.of(data.vertices(), 3), VertexStream.of(data.textureCoords(), 2),
+                VertexStream.of(data.normals(), 3)
+        };
+        return loadToVAO(VertexPacker.pack(VertexLayout.STANDARD, streams, data.vertices().length / 3,
+                IntBuffer.wrap(data.indices()), data.furthestPoint()));
     }
 
     /**
-     * Erstellt ein VAO mit den VBOs (siehe Parameter), wofür das VAO am Ende unbounded werden muss und dann als {@link RawModel}
-     * mit der Anzahl der Vertices und der VAO ID zurückgegeben wird. Wird für Modelle mit Normal Maps verwendet ({@link NormalMappedObjLoader#loadOBJ(String, Loader)}).
+     * Erstellt ein VAO mit einem verschachtelten VBO im Layout {@link VertexLayout#STANDARD_NORMAL_MAPPED}
+     * (ohne Quantisierung), wofür das VAO am Ende unbounded werden muss und dann als {@link RawModel}
+     * mit der Anzahl der Vertices und der VAO ID zurückgegeben wird.
      *
      * @param positions     die Positionen der Vertices.
      * @param textureCoords die Texture Coordinates des Vertex.
@@ -82,15 +171,42 @@ public class Loader {
      * @return Ein {@link RawModel} mit der zugehörigen VAO ID und der Anzahl der Vertices.
      */
     public RawModel loadToVAO(float[] positions, float[] textureCoords, float[] normals, float[] tangents, int[] indices) {
+        VertexStream[] streams = {
+                VertexStream.of(positions, 3), VertexStream.of(textureCoords, 2), VertexStream.of(normals, 3),
+                VertexStream.of(tangents, 3)
+        };
+        return loadToVAO(VertexPacker.pack(VertexLayout.STANDARD_NORMAL_MAPPED, streams, positions.length / 3,
+                IntBuffer.wrap(indices), calculateBoundingRadius(positions)));
+    }
+
+    /**
+     * Lädt ein gepacktes Model in ein VAO. Alle Attribute liegen dabei in einem einzigen VBO; die Attribute werden
+     * nach dem {@link VertexLayout} des Models an ihre Locations gebunden.
+     *
+     * @param mesh das gepackte Model.
+     * @return das geladene Model mit dem Datentyp der Indices und der Umrechnung der Positionen.
+     * @see VertexPacker
+     */
+    public RawModel loadToVAO(PackedMesh mesh) {
         int vaoID = createVAO();
-        bindIndicesBuffer(indices);
-        storeDataInAttributeList(0, 3, positions);
-        storeDataInAttributeList(1, 2, textureCoords);
-        storeDataInAttributeList(2, 3, normals);
-        storeDataInAttributeList(3, 3, tangents);
+        int indexVboID = createVBO();
+        gl().bindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, indexVboID);
+        gl().bufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, mesh.indices(), GL15.GL_STATIC_DRAW);
+        int vboID = createVBO();
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, vboID);
+        gl().bufferData(GL15.GL_ARRAY_BUFFER, mesh.vertices(), GL15.GL_STATIC_DRAW);
+        VertexLayout layout = mesh.layout();
+        for (int i = 0; i < layout.size(); i++) {
+            VertexAttribute attribute = layout.get(i);
+            VertexFormat format = attribute.format();
+            gl().vertexAttribPointer(attribute.location(), format.getComponents(), format.getGlType(),
+                    format.isNormalized(), layout.getStride(), attribute.offset());
+            gl().enableVertexAttribArray(attribute.location()); // Zustand des VAOs, muss beim Rendern nicht erneut aktiviert werden
+        }
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, 0);
         unbindVAO();
 
-        return new RawModel(vaoID, indices.length);
+        return new RawModel(vaoID, mesh.indexCount(), mesh.boundingRadius(), mesh.indexType(), mesh.positionDecode());
     }
 
     /**
@@ -116,28 +232,178 @@ public class Loader {
         return vaoID;
     }
 
+    /**
+     * Erstellt ein leeres VBO, das jeden Frame mit neuen Daten (z.B. Daten pro Instanz) beschrieben werden kann.
+     *
+     * @param floatCount die maximale Anzahl an Floats, die das VBO aufnehmen kann.
+     * @return die ID des VBOs.
+     * @see Loader#updateVbo(int, FloatBuffer)
+     */
+    public int createEmptyVbo(int floatCount) {
+        int vboID = gl().genBuffers();
+        vbos.add(vboID);
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, vboID);
+        gl().bufferData(GL15.GL_ARRAY_BUFFER, (long) floatCount * Float.BYTES, GL15.GL_STREAM_DRAW);
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        return vboID;
+    }
+
+    /**
+     * Erstellt ein VBO mit Daten, die sich nicht mehr ändern und keinem VAO gehören (z.B. Daten pro Instanz, die
+     * beim Rendern an wechselnde VAOs gebunden werden).
+     *
+     * @param data die Daten (bereit zum Lesen).
+     * @return die ID des VBOs.
+     * @see Loader#deleteVbo(int)
+     */
+    public int loadStaticVbo(ByteBuffer data) {
+        int vboID = gl().genBuffers();
+        vbos.add(vboID);
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, vboID);
+        gl().bufferData(GL15.GL_ARRAY_BUFFER, data, GL15.GL_STATIC_DRAW);
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        return vboID;
+    }
+
+    /**
+     * Löscht ein VBO, das keinem VAO gehört, sofort.
+     *
+     * @param vbo die ID des VBOs.
+     * @see Loader#loadStaticVbo(ByteBuffer)
+     */
+    public void deleteVbo(int vbo) {
+        gl().deleteBuffers(vbo);
+        vbos.remove(Integer.valueOf(vbo));
+    }
+
+    /**
+     * Erstellt ein VAO, dessen Vertices jeden Frame neu in ein mit {@link Loader#createEmptyVbo(int)} erstelltes VBO
+     * geladen werden. Die Attribute liegen verschachtelt als Floats im VBO (Attribut i an Location i); der Index-Buffer
+     * ist statisch.
+     *
+     * @param vbo            die ID des VBOs mit den Vertices.
+     * @param attributeSizes die Anzahl der Floats jedes Attributes.
+     * @param indices        der Index-Buffer.
+     * @return die ID des VAOs.
+     * @see Loader#updateVbo(int, FloatBuffer)
+     */
+    public int loadDynamicVAO(int vbo, int[] attributeSizes, int[] indices) {
+        int vaoID = createVAO();
+        int indexVboID = createVBO();
+        gl().bindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, indexVboID);
+        gl().bufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, indices, GL15.GL_STATIC_DRAW);
+        int vertexLength = 0;
+        for (int size : attributeSizes) {
+            vertexLength += size;
+        }
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        int offset = 0;
+        for (int attribute = 0; attribute < attributeSizes.length; attribute++) {
+            gl().vertexAttribPointer(attribute, attributeSizes[attribute], GL11.GL_FLOAT, false,
+                    vertexLength * Float.BYTES, (long) offset * Float.BYTES);
+            gl().enableVertexAttribArray(attribute);
+            offset += attributeSizes[attribute];
+        }
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        unbindVAO();
+        return vaoID;
+    }
+
+    /**
+     * Fügt einem VAO ein Attribut hinzu, dessen Daten pro Instanz (und nicht pro Vertex) aus einem VBO gelesen werden.
+     *
+     * @param vao                 die ID des VAOs.
+     * @param vbo                 die ID des VBOs mit den Daten pro Instanz.
+     * @param attribute           die Nummer des Attributes im VAO.
+     * @param dataSize            die Anzahl der Floats des Attributes (maximal 4).
+     * @param instancedDataLength die Anzahl der Floats pro Instanz im VBO.
+     * @param offset              der Offset des Attributes innerhalb der Daten einer Instanz (in Floats).
+     * @see de.gabriel.engine.renderer.GlStateCache#invalidate()
+     */
+    public void addInstancedAttribute(int vao, int vbo, int attribute, int dataSize, int instancedDataLength, int offset) {
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        gl().bindVertexArray(vao);
+        gl().vertexAttribPointer(attribute, dataSize, GL11.GL_FLOAT, false,
+                instancedDataLength * Float.BYTES, (long) offset * Float.BYTES);
+        gl().vertexAttribDivisor(attribute, 1); // Attribut wechselt pro Instanz statt pro Vertex
+        gl().enableVertexAttribArray(attribute);
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        gl().bindVertexArray(0);
+    }
+
+    /**
+     * Lädt neue Daten in ein mit {@link Loader#createEmptyVbo(int)} erstelltes VBO. Der alte Speicher des VBOs wird dabei
+     * verworfen (Buffer Orphaning), damit OpenGL nicht auf noch laufende Draw Calls mit den alten Daten warten muss.
+     *
+     * @param vbo    die ID des VBOs.
+     * @param buffer die Daten, die in das VBO geladen werden sollen.
+     */
+    public void updateVbo(int vbo, FloatBuffer buffer) {
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        gl().bufferData(GL15.GL_ARRAY_BUFFER, (long) buffer.capacity() * Float.BYTES, GL15.GL_STREAM_DRAW);
+        gl().bufferSubData(GL15.GL_ARRAY_BUFFER, 0, buffer);
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+
     /**
      * Diese Methode lädt eine Textur und gibt die ID der Textur zurück.
      * Dabei wird immer von einer PNG Datei für die Textur ausgegangen.
+     * Liegt die Textur bereits im Cache, wird nur ihr Referenzzähler erhöht.
      *
      * @param fileName der Dateiname der Textur (PNG).
      * @return die ID der Textur.
+     * @see Loader#releaseTexture(int)
      */
     public int loadTexture(String fileName) {
-        TextureData image = decodeTexture(fileName);
+        Integer cached = acquireTexture(fileName);
+        if (cached != null) {
+            return cached;
+        }
+        return uploadTexture(decodeTexture(fileName), fileName);
+    }
+
+    /**
+     * Fordert eine Textur aus dem Cache an, ohne sie zu laden.
+     *
+     * @param fileName der Dateiname der Textur (PNG).
+     * @return die ID der Textur (Referenzzähler erhöht) oder null, wenn sie noch nicht geladen wurde.
+     */
+    public Integer acquireTexture(String fileName) {
+        return textureCache.acquire(textureKey(fileName));
+    }
+
+    /**
+     * Lädt eine bereits dekodierte Textur in OpenGL hoch und gibt den Speicher des Bildes frei.
+     * Wurde die Textur in der Zwischenzeit bereits geladen, wird stattdessen die Textur aus dem Cache verwendet.
+     * Muss auf dem Thread mit dem OpenGL-Context aufgerufen werden.
+     *
+     * @param image    das dekodierte Bild.
+     * @param fileName der Dateiname der Textur (Schlüssel im Cache).
+     * @return die ID der Textur.
+     * @see Loader#decodeTexture(String)
+     */
+    public int uploadTexture(TextureData image, String fileName) {
+        String key = textureKey(fileName);
+        Integer cached = textureCache.acquire(key);
+        if (cached != null) {
+            if (image.buffer() != null) {
+                STBImage.stbi_image_free(image.buffer());
+            }
+            return cached;
+        }
 
-        int id = GL11.glGenTextures();
+        int id = gl().genTextures();
 
         textures.add(id);
 
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, id);
-        GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+        gl().bindTexture(GL11.GL_TEXTURE_2D, id);
+        gl().pixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
 
-        if (image != null) {
-            GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA8, image.width(), image.height(), 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, image.buffer());
-            GL30.glGenerateMipmap(GL11.GL_TEXTURE_2D);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR_MIPMAP_LINEAR);
-            GL11.glTexParameterf(GL11.GL_TEXTURE_2D, GL14.GL_TEXTURE_LOD_BIAS, -2.5f);
+        if (image.buffer() != null) {
+            gl().texImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA8, image.width(), image.height(), 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, image.buffer());
+            gl().generateMipmap(GL11.GL_TEXTURE_2D);
+            gl().texParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR_MIPMAP_LINEAR);
+            gl().texParameterf(GL11.GL_TEXTURE_2D, GL14.GL_TEXTURE_LOD_BIAS, -2.5f);
             STBImage.stbi_image_free(image.buffer());
         } else {
             log.error("Failed to load texture; {[TextureId={}], [TextureFileName={}]}",
@@ -148,46 +414,416 @@ public class Loader {
         log.trace("Successfully loaded texture; {[TextureId={}], [TextureWidth={}], [TextureHeight={}], [TextureFileName={}]}",
                 id, image.width(), image.height(), fileName);
 
-        return id;
+        long bytes = (long) image.width() * image.height() * 4 * 4 / 3; // RGBA8 inklusive Mipmaps (+1/3)
+        return textureCache.put(key, id, bytes);
     }
 
     /**
      * Diese Methode lädt Texturen als eine Cube Map hoch und gibt die ID der Cube Map zurück.
      * Dabei wird immer von PNG Dateien für die 6 Texturen ausgegangen.
+     * Liegt die Cube Map bereits im Cache, wird nur ihr Referenzzähler erhöht.
      *
      * @param textureFiles die Dateinamen der 6 Texturen (PNG).
      * @return die ID der Cube Map.
+     * @see Loader#releaseTexture(int)
      */
     public int loadCubeMap(String[] textureFiles) {
-        int texID = GL11.glGenTextures();
-        GL13.glActiveTexture(GL13.GL_TEXTURE0);
-        GL11.glBindTexture(GL13.GL_TEXTURE_CUBE_MAP, texID);
-
+        Integer cached = acquireCubeMap(textureFiles);
+        if (cached != null) {
+            return cached;
+        }
+        TextureData[] images = new TextureData[textureFiles.length];
         for (int i = 0; i < textureFiles.length; i++) {
-            TextureData image = decodeTexture(textureFiles[i]);
-            GL11.glTexImage2D(GL13.GL_TEXTURE_CUBE_MAP_POSITIVE_X + i, // inkrementieren von GL_TEXTURE_CUBE_MAP_POSITIVE_X, da die weiteren Seiten ebenfalls Integer sind, die aufeinander folgen
+            images[i] = decodeTexture(textureFiles[i]);
+        }
+        return uploadCubeMap(images, textureFiles);
+    }
+
+    /**
+     * Fordert eine Cube Map aus dem Cache an, ohne sie zu laden.
+     *
+     * @param textureFiles die Dateinamen der 6 Texturen (PNG).
+     * @return die ID der Cube Map (Referenzzähler erhöht) oder null, wenn sie noch nicht geladen wurde.
+     */
+    public Integer acquireCubeMap(String[] textureFiles) {
+        return textureCache.acquire(cubeMapKey(textureFiles));
+    }
+
+    /**
+     * Lädt 6 bereits dekodierte Texturen als Cube Map in OpenGL hoch und gibt den Speicher der Bilder frei.
+     * Wurde die Cube Map in der Zwischenzeit bereits geladen, wird stattdessen die Cube Map aus dem Cache verwendet.
+     * Muss auf dem Thread mit dem OpenGL-Context aufgerufen werden.
+     *
+     * @param images       die dekodierten Bilder in der Reihenfolge der Seiten der Cube Map.
+     * @param textureFiles die Dateinamen der 6 Texturen (Schlüssel im Cache).
+     * @return die ID der Cube Map.
+     */
+    public int uploadCubeMap(TextureData[] images, String[] textureFiles) {
+        String key = cubeMapKey(textureFiles);
+        Integer cached = textureCache.acquire(key);
+        if (cached != null) {
+            for (TextureData image : images) {
+                if (image.buffer() != null) {
+                    STBImage.stbi_image_free(image.buffer());
+                }
+            }
+            return cached;
+        }
+
+        long bytes = 0;
+        int texID = gl().genTextures();
+        gl().activeTexture(GL13.GL_TEXTURE0);
+        gl().bindTexture(GL13.GL_TEXTURE_CUBE_MAP, texID);
+
+        for (int i = 0; i < images.length; i++) {
+            TextureData image = images[i];
+            gl().texImage2D(GL13.GL_TEXTURE_CUBE_MAP_POSITIVE_X + i, // inkrementieren von GL_TEXTURE_CUBE_MAP_POSITIVE_X, da die weiteren Seiten ebenfalls Integer sind, die aufeinander folgen
                     0, GL11.GL_RGBA8, image.width(), image.height(), 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, image.buffer());
             STBImage.stbi_image_free(image.buffer());
+            bytes += (long) image.width() * image.height() * 4;
         }
 
-        GL11.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
-        GL11.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
-        GL11.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
-        GL11.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
+        gl().texParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+        gl().texParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+        gl().texParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
+        gl().texParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
 
         textures.add(texID);
 
         log.info("Successfully loaded cube map; {[CubeMapId={}], [TextureFiles={}]}",
                 texID, textureFiles);
 
-        return texID;
+        return textureCache.put(key, texID, bytes);
+    }
+
+    /**
+     * Lädt ein Model aus einer OBJ Datei (bzw. ihrer binären Cache-Datei) in ein VAO.
+     * Liegt das Model bereits im Cache, wird nur sein Referenzzähler erhöht.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return das geladene Model.
+     * @see Loader#releaseModel(RawModel)
+     */
+    public RawModel loadModel(String objFileName) {
+        RawModel cached = acquireModel(objFileName);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            return uploadModel(OBJFileLoader.loadMesh(objFileName), objFileName);
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Fordert ein Model aus dem Cache an, ohne es zu laden.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return das Model (Referenzzähler erhöht) oder null, wenn es noch nicht geladen wurde.
+     */
+    public RawModel acquireModel(String objFileName) {
+        return modelCache.acquire(modelKey(objFileName));
+    }
+
+    /**
+     * Lädt die bereits geparsten Daten eines Models in ein VAO und legt es im Cache ab. Wurde das Model in der
+     * Zwischenzeit bereits geladen, wird stattdessen das Model aus dem Cache verwendet.
+     * Muss auf dem Thread mit dem OpenGL-Context aufgerufen werden.
+     *
+     * @param data        die Daten des Models.
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung (Schlüssel im Cache).
+     * @return das geladene Model.
+     */
+    public RawModel uploadModel(MeshData data, String objFileName) {
+        return uploadModel(VertexPacker.pack(data), objFileName);
+    }
+
+    /**
+     * Lädt ein bereits gepacktes Model in ein VAO und legt es im Cache ab. Wurde das Model in der
+     * Zwischenzeit bereits geladen, wird stattdessen das Model aus dem Cache verwendet.
+     * Muss auf dem Thread mit dem OpenGL-Context aufgerufen werden.
+     *
+     * @param mesh        das gepackte Model.
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung (Schlüssel im Cache).
+     * @return das geladene Model.
+     */
+    public RawModel uploadModel(PackedMesh mesh, String objFileName) {
+        String key = modelKey(objFileName);
+        RawModel cached = modelCache.acquire(key);
+        if (cached != null) {
+            return cached;
+        }
+        return modelCache.put(key, loadToVAO(mesh), mesh.bytes());
+    }
+
+    /**
+     * Lädt ein Model für Normal Mapping aus einer OBJ Datei in ein VAO.
+     * Liegt das Model bereits im Cache, wird nur sein Referenzzähler erhöht.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return das geladene Model.
+     * @see Loader#releaseModel(RawModel)
+     */
+    public RawModel loadNormalMappedModel(String objFileName) {
+        RawModel cached = acquireNormalMappedModel(objFileName);
+        if (cached != null) {
+            return cached;
+        }
+        return uploadNormalMappedModel(NormalMappedObjLoader.parseOBJ(objFileName), objFileName);
+    }
+
+    /**
+     * Fordert ein Model für Normal Mapping aus dem Cache an, ohne es zu laden.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return das Model (Referenzzähler erhöht) oder null, wenn es noch nicht geladen wurde.
+     */
+    public RawModel acquireNormalMappedModel(String objFileName) {
+        return modelCache.acquire(normalMappedModelKey(objFileName));
     }
 
     /**
-     * Diese Methode lädt eine Textur. Dabei wird immer von einer PNG Datei für die Textur ausgegangen.
+     * Lädt die bereits geparsten Daten eines Models für Normal Mapping in ein VAO und legt es im Cache ab.
+     * Muss auf dem Thread mit dem OpenGL-Context aufgerufen werden.
+     *
+     * @param data        die Daten des Models inklusive Tangenten.
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung (Schlüssel im Cache).
+     * @return das geladene Model.
+     */
+    public RawModel uploadNormalMappedModel(ModelDataNM data, String objFileName) {
+        return uploadNormalMappedModel(VertexPacker.pack(data), objFileName);
+    }
+
+    /**
+     * Lädt ein bereits gepacktes Model für Normal Mapping in ein VAO und legt es im Cache ab.
+     * Muss auf dem Thread mit dem OpenGL-Context aufgerufen werden.
+     *
+     * @param mesh        das gepackte Model inklusive Tangenten.
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung (Schlüssel im Cache).
+     * @return das geladene Model.
+     */
+    public RawModel uploadNormalMappedModel(PackedMesh mesh, String objFileName) {
+        String key = normalMappedModelKey(objFileName);
+        RawModel cached = modelCache.acquire(key);
+        if (cached != null) {
+            return cached;
+        }
+        return modelCache.put(key, loadToVAO(mesh), mesh.bytes());
+    }
+
+    /**
+     * Lädt alle Detailstufen eines Models aus einer OBJ Datei (bzw. ihrer binären Cache-Datei) in je ein VAO.
+     * Liegen die Detailstufen bereits im Cache, wird nur ihr Referenzzähler erhöht.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return die geladenen Detailstufen.
+     * @see Loader#releaseLodChain(LodChain)
+     */
+    public LodChain loadLodChain(String objFileName) {
+        LodChain cached = acquireLodChain(objFileName);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            List<MeshData> levels = OBJFileLoader.loadMeshLods(objFileName);
+            List<PackedMesh> meshes = new ArrayList<PackedMesh>(levels.size());
+            for (MeshData level : levels) {
+                meshes.add(VertexPacker.pack(level));
+            }
+            return uploadLodChain(meshes, lodErrors(levels), objFileName);
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Fordert die Detailstufen eines Models aus dem Cache an, ohne sie zu laden.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return die Detailstufen (Referenzzähler erhöht) oder null, wenn sie noch nicht geladen wurden.
+     */
+    public LodChain acquireLodChain(String objFileName) {
+        return lodCache.acquire(lodChainKey(objFileName));
+    }
+
+    /**
+     * Lädt die bereits gepackten Detailstufen eines Models in je ein VAO und legt sie im Cache ab. Wurden sie in
+     * der Zwischenzeit bereits geladen, werden stattdessen die Detailstufen aus dem Cache verwendet.
+     * Muss auf dem Thread mit dem OpenGL-Context aufgerufen werden.
+     *
+     * @param meshes      die gepackten Detailstufen, beginnend mit der vollen Auflösung.
+     * @param errors      der geometrische Fehler jeder Stufe.
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung (Schlüssel im Cache).
+     * @return die geladenen Detailstufen.
+     */
+    public LodChain uploadLodChain(List<PackedMesh> meshes, float[] errors, String objFileName) {
+        String key = lodChainKey(objFileName);
+        LodChain cached = lodCache.acquire(key);
+        if (cached != null) {
+            return cached;
+        }
+        RawModel[] levels = new RawModel[meshes.size()];
+        long bytes = 0;
+        for (int level = 0; level < levels.length; level++) {
+            levels[level] = loadToVAO(meshes.get(level));
+            bytes += meshes.get(level).bytes();
+        }
+        return lodCache.put(key, new LodChain(levels, errors), bytes);
+    }
+
+    /**
+     * @param levels die Detailstufen eines Models.
+     * @return der geometrische Fehler jeder Stufe.
+     */
+    public static float[] lodErrors(List<MeshData> levels) {
+        float[] errors = new float[levels.size()];
+        for (int level = 0; level < errors.length; level++) {
+            errors[level] = levels.get(level).error();
+        }
+        return errors;
+    }
+
+    /**
+     * Gibt eine Referenz auf eine Textur oder Cube Map frei. Die letzte Freigabe löscht die Textur.
+     *
+     * @param textureId die ID der Textur.
+     * @see Loader#loadTexture(String)
+     * @see Loader#loadCubeMap(String[])
+     */
+    public void releaseTexture(int textureId) {
+        textureCache.release(textureId);
+    }
+
+    /**
+     * Gibt eine Referenz auf ein Model frei. Die letzte Freigabe löscht das VAO mit all seinen VBOs.
+     *
+     * @param model das Model.
+     * @see Loader#loadModel(String)
+     * @see Loader#loadNormalMappedModel(String)
+     */
+    public void releaseModel(RawModel model) {
+        modelCache.release(model);
+    }
+
+    /**
+     * Gibt eine Referenz auf die Detailstufen eines Models frei. Die letzte Freigabe löscht die VAOs aller Stufen.
+     *
+     * @param lods die Detailstufen.
+     * @see Loader#loadLodChain(String)
+     */
+    public void releaseLodChain(LodChain lods) {
+        lodCache.release(lods);
+    }
+
+    /**
+     * Registriert einen Listener, der die ID jedes gelöschten VAOs erhält, z.B. um Zustand zu verwerfen, der an
+     * die ID gebunden ist.
+     *
+     * @param listener der Listener.
+     * @see Loader#deleteVAO(int)
+     */
+    public void addVaoDeletionListener(IntConsumer listener) {
+        vaoDeletionListeners.add(listener);
+    }
+
+    /**
+     * Löscht ein VAO mit all seinen VBOs sofort, z.B. für Meshes, die nicht im Cache liegen (wie Texte).
+     *
+     * @param vao die ID des VAOs.
+     */
+    public void deleteVAO(int vao) {
+        gl().deleteVertexArrays(vao);
+        for (int i = 0; i < vaoDeletionListeners.size(); i++) {
+            vaoDeletionListeners.get(i).accept(vao);
+        }
+        vaos.remove(Integer.valueOf(vao));
+        IntList buffers = vaoBuffers.remove(vao);
+        if (buffers != null) {
+            for (int i = 0; i < buffers.size(); i++) {
+                gl().deleteBuffers(buffers.get(i));
+                vbos.remove(Integer.valueOf(buffers.get(i)));
+            }
+        }
+    }
+
+    /**
+     * Bildet den Schlüssel einer Textur im Cache.
      *
      * @param fileName der Dateiname der Textur (PNG).
-     * @return die ID der Textur.
+     * @return der kanonische Pfad der Textur.
+     */
+    public static String textureKey(String fileName) {
+        return canonicalPath(RESOURCES_PATH + "textures/" + fileName + ".png");
+    }
+
+    /**
+     * Bildet den Schlüssel einer Cube Map im Cache aus den kanonischen Pfaden ihrer 6 Seiten.
+     *
+     * @param textureFiles die Dateinamen der 6 Texturen (PNG).
+     * @return der Schlüssel der Cube Map.
+     */
+    public static String cubeMapKey(String[] textureFiles) {
+        StringBuilder key = new StringBuilder("cubemap:");
+        for (int i = 0; i < textureFiles.length; i++) {
+            if (i > 0) {
+                key.append('|');
+            }
+            key.append(textureKey(textureFiles[i]));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Bildet den Schlüssel eines Models im Cache.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return der kanonische Pfad der OBJ Datei.
+     */
+    public static String modelKey(String objFileName) {
+        return canonicalPath(RESOURCES_PATH + "models/" + objFileName + ".obj");
+    }
+
+    /**
+     * Bildet den Schlüssel eines Models für Normal Mapping im Cache. Es unterscheidet sich vom Schlüssel des
+     * normalen Models, da das VAO zusätzlich die Tangenten enthält.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return der Schlüssel des Models.
+     */
+    public static String normalMappedModelKey(String objFileName) {
+        return "normalmapped:" + modelKey(objFileName);
+    }
+
+    /**
+     * Bildet den Schlüssel der Detailstufen eines Models im Cache.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return der Schlüssel der Detailstufen.
+     */
+    public static String lodChainKey(String objFileName) {
+        return "lods:" + modelKey(objFileName);
+    }
+
+    /**
+     * Normalisiert einen Pfad, sodass unterschiedliche Schreibweisen derselben Datei (z.B. mit ".." oder über
+     * symbolische Links) denselben Schlüssel ergeben. Existiert die Datei nicht, wird nur der absolute Pfad normalisiert.
+     */
+    private static String canonicalPath(String path) {
+        Path file = Path.of(path);
+        try {
+            return file.toRealPath().toString();
+        } catch (IOException e) {
+            return file.toAbsolutePath().normalize().toString();
+        }
+    }
+
+    /**
+     * Diese Methode dekodiert eine Textur. Dabei wird immer von einer PNG Datei für die Textur ausgegangen.
+     * Benötigt keinen OpenGL-Context und kann daher auch auf anderen Threads aufgerufen werden.
+     *
+     * @param fileName der Dateiname der Textur (PNG).
+     * @return das dekodierte Bild (der Buffer ist null, wenn die Textur nicht geladen werden konnte).
      */
     public TextureData decodeTexture(String fileName) {
         int width, height;
@@ -221,15 +857,53 @@ public class Loader {
      */
     public void cleanUp() {
         for (int vao : vaos) {
-            GL30.glDeleteVertexArrays(vao);
+            gl().deleteVertexArrays(vao);
         }
         for (int vbo : vbos) {
-            GL15.glDeleteBuffers(vbo);
+            gl().deleteBuffers(vbo);
         }
         for (int texture : textures) {
-            GL11.glDeleteTextures(texture);
+            gl().deleteTextures(texture);
+        }
+        log.info("Cleaned up all VAOs, VBOs and Textures; {[TextureCacheHits={}], [TextureCacheMisses={}], " +
+                        "[TextureBytesResident={}], [ModelCacheHits={}], [ModelCacheMisses={}], [ModelBytesResident={}], " +
+                        "[LodCacheHits={}], [LodCacheMisses={}], [LodBytesResident={}]}",
+                textureCache.getHits(), textureCache.getMisses(), textureCache.getBytesResident(),
+                modelCache.getHits(), modelCache.getMisses(), modelCache.getBytesResident(),
+                lodCache.getHits(), lodCache.getMisses(), lodCache.getBytesResident());
+        textureCache.clear();
+        modelCache.clear();
+        lodCache.clear();
+    }
+
+    /**
+     * Löscht eine Textur, die nicht mehr referenziert wird.
+     *
+     * @see ResourceCache#release(Object)
+     */
+    private void deleteTexture(int textureId) {
+        gl().deleteTextures(textureId);
+        textures.remove(Integer.valueOf(textureId));
+    }
+
+    /**
+     * Löscht ein Model, das nicht mehr referenziert wird.
+     *
+     * @see ResourceCache#release(Object)
+     */
+    private void deleteModel(RawModel model) {
+        deleteVAO(model.vaoID());
+    }
+
+    /**
+     * Löscht die Detailstufen eines Models, die nicht mehr referenziert werden.
+     *
+     * @see ResourceCache#release(Object)
+     */
+    private void deleteLodChain(LodChain lods) {
+        for (int level = 0; level < lods.getLevelCount(); level++) {
+            deleteVAO(lods.getLevel(level).vaoID());
         }
-        log.info("Cleaned up all VAOs, VBOs and Textures;");
     }
 
     /**
@@ -238,12 +912,29 @@ public class Loader {
      * @return Die ID des VAOs.
      */
     private int createVAO() {
-        int vaoID = GL30.glGenVertexArrays();
+        int vaoID = gl().genVertexArrays();
         vaos.add(vaoID);
-        GL30.glBindVertexArray(vaoID);
+        vaoBuffers.put(vaoID, new IntList(4));
+        boundVao = vaoID;
+        gl().bindVertexArray(vaoID);
         return vaoID;
     }
 
+    /**
+     * Erstellt ein VBO und ordnet es dem VAO zu, das gerade befüllt wird.
+     *
+     * @return die ID des VBOs.
+     */
+    private int createVBO() {
+        int vboID = gl().genBuffers();
+        vbos.add(vboID);
+        IntList buffers = vaoBuffers.get(boundVao);
+        if (buffers != null) {
+            buffers.add(vboID);
+        }
+        return vboID;
+    }
+
     /**
      * Speichert VBOs in der Attribute List des VAOs. Zum Ende wird
      * das VBO noch unbounded, damit es später beim Bearbeiten von
@@ -254,52 +945,41 @@ public class Loader {
      * @param data            die Daten, die als VBO als Attribut des VAOs gespeichert werden.
      */
     private void storeDataInAttributeList(int attributeNumber, int coordinateSize, float[] data) {
-        int vboID = GL15.glGenBuffers();
-        vbos.add(vboID);
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboID);
+        int vboID = createVBO();
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, vboID);
         FloatBuffer buffer = storeDataInFloatBuffer(data);
-        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, buffer, GL15.GL_STATIC_DRAW);
-        GL20.glVertexAttribPointer(attributeNumber, coordinateSize, GL11.GL_FLOAT, false, 0, 0);
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
-    }
-
-    /**
-     * Diese Methode unbounded das aktuelle VAO, um zu verhindern, dass beim Erstellen eines neuen VAOs immer noch das alte gebundene VAO bearbeitet wird.
-     */
-    private void unbindVAO() {
-        GL30.glBindVertexArray(0);
+        gl().bufferData(GL15.GL_ARRAY_BUFFER, buffer, GL15.GL_STATIC_DRAW);
+        gl().vertexAttribPointer(attributeNumber, coordinateSize, GL11.GL_FLOAT, false, 0, 0);
+        gl().enableVertexAttribArray(attributeNumber);
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, 0);
     }
 
-
     /**
-     * Diese Methode speichert Indices in einem VBO, der dann dem VAO hinzugefügt wird.
+     * Berechnet den Radius der kleinsten Kugel um den Ursprung des Modells, die alle Vertices enthält.
      *
-     * @param indices die Indices, die in dem VBO gespeichert werden sollen.
+     * @param positions die Positionen der Vertices (x, y, z).
+     * @return der Abstand des am weitesten vom Ursprung entfernten Vertex.
      */
-    private void bindIndicesBuffer(int[] indices) {
-        int vboID = GL15.glGenBuffers();
-        vbos.add(vboID);
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, vboID);
-        IntBuffer buffer = storeDataInIntBuffer(indices);
-        GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, buffer, GL15.GL_STATIC_DRAW);
+    private static float calculateBoundingRadius(float[] positions) {
+        float furthestSquared = 0;
+        for (int i = 0; i + 2 < positions.length; i += 3) {
+            float x = positions[i];
+            float y = positions[i + 1];
+            float z = positions[i + 2];
+            furthestSquared = Math.max(furthestSquared, x * x + y * y + z * z);
+        }
+        return (float) Math.sqrt(furthestSquared);
     }
 
-
     /**
-     * Diese Methoden erstellt einen Int-Buffer, der dann die Daten für das VBO hält.
-     *
-     * @param data die Daten, die in den Buffer gespeichert werden sollen.
-     * @return der Int-Buffer mit den Daten.
-     * @see IntBuffer
-     * @see Loader#bindIndicesBuffer(int[])
+     * Diese Methode unbounded das aktuelle VAO, um zu verhindern, dass beim Erstellen eines neuen VAOs immer noch das alte gebundene VAO bearbeitet wird.
      */
-    private IntBuffer storeDataInIntBuffer(int[] data) {
-        IntBuffer buffer = BufferUtils.createIntBuffer(data.length);
-        buffer.put(data);
-        buffer.flip();
-        return buffer;
+    private void unbindVAO() {
+        boundVao = 0;
+        gl().bindVertexArray(0);
     }
 
+
     /**
      * Diese Methoden erstellt einen Float-Buffer, der dann die Daten für das VBO hält.
      *
@@ -0,0 +1,175 @@
+package de.gabriel.engine.converter;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Ein Cache mit Referenzzählung für Ressourcen im OpenGL-Context (Texturen, Models). Jede Ressource wird unter
+ * einem Schlüssel (dem kanonischen Pfad ihrer Quelldatei) abgelegt. Jede Anforderung erhöht den Referenzzähler;
+ * mit {@link #release(Object)} wird er wieder verringert. Fällt er auf 0, wird die Ressource aus dem Cache
+ * entfernt und gelöscht.
+ * <p>
+ * Der Cache ist nicht synchronisiert und darf nur auf dem Thread mit dem OpenGL-Context verwendet werden.
+ * </p>
+ *
+ * @param <T> der Typ der Ressource (z.B. die ID einer Textur).
+ * @see Loader
+ */
+public class ResourceCache<T> {
+
+    /**
+     * Ein Eintrag des Caches.
+     */
+    private static final class Entry<T> {
+
+        private final String key;
+        private final T resource;
+        private final long bytes;
+        private int references = 1;
+
+        private Entry(String key, T resource, long bytes) {
+            this.key = key;
+            this.resource = resource;
+            this.bytes = bytes;
+        }
+
+    }
+
+    /**
+     * Die Einträge nach ihrem Schlüssel.
+     */
+    private final Map<String, Entry<T>> entriesByKey = new HashMap<String, Entry<T>>();
+
+    /**
+     * Die Einträge nach ihrer Ressource, damit sie ohne Schlüssel freigegeben werden können.
+     */
+    private final Map<T, Entry<T>> entriesByResource = new HashMap<T, Entry<T>>();
+
+    /**
+     * Löscht eine Ressource, deren Referenzzähler auf 0 gefallen ist.
+     */
+    private final Consumer<T> destroyer;
+
+    /**
+     * Anzahl der Anforderungen, die aus dem Cache bedient wurden.
+     */
+    @Getter
+    private long hits;
+
+    /**
+     * Anzahl der Ressourcen, die neu geladen werden mussten.
+     */
+    @Getter
+    private long misses;
+
+    /**
+     * Die geschätzte Größe aller Ressourcen im Cache in Bytes.
+     */
+    @Getter
+    private long bytesResident;
+
+    /**
+     * @param destroyer löscht eine Ressource, sobald sie nicht mehr referenziert wird.
+     */
+    public ResourceCache(Consumer<T> destroyer) {
+        this.destroyer = destroyer;
+    }
+
+    /**
+     * Fordert eine Ressource aus dem Cache an und erhöht ihren Referenzzähler.
+     *
+     * @param key der Schlüssel der Ressource.
+     * @return die Ressource oder null, wenn sie noch nicht im Cache liegt.
+     */
+    public T acquire(String key) {
+        Entry<T> entry = entriesByKey.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.references++;
+        hits++;
+        return entry.resource;
+    }
+
+    /**
+     * Legt eine neu geladene Ressource mit einem Referenzzähler von 1 im Cache ab.
+     *
+     * @param key      der Schlüssel der Ressource.
+     * @param resource die Ressource.
+     * @param bytes    die geschätzte Größe der Ressource in Bytes.
+     * @return die Ressource.
+     * @throws IllegalStateException wenn unter dem Schlüssel bereits eine Ressource liegt.
+     */
+    public T put(String key, T resource, long bytes) {
+        if (entriesByKey.containsKey(key)) {
+            throw new IllegalStateException("Resource is already cached: " + key);
+        }
+        Entry<T> entry = new Entry<T>(key, resource, bytes);
+        entriesByKey.put(key, entry);
+        entriesByResource.put(resource, entry);
+        misses++;
+        bytesResident += bytes;
+        return resource;
+    }
+
+    /**
+     * Gibt eine Referenz auf eine Ressource frei. Wird die Ressource danach nicht mehr referenziert,
+     * wird sie aus dem Cache entfernt und gelöscht.
+     *
+     * @param resource die Ressource.
+     * @return true, wenn die Ressource gelöscht wurde.
+     * @throws IllegalArgumentException wenn die Ressource nicht im Cache liegt.
+     */
+    public boolean release(T resource) {
+        Entry<T> entry = entriesByResource.get(resource);
+        if (entry == null) {
+            throw new IllegalArgumentException("Resource is not cached: " + resource);
+        }
+        if (--entry.references > 0) {
+            return false;
+        }
+        entriesByKey.remove(entry.key);
+        entriesByResource.remove(resource);
+        bytesResident -= entry.bytes;
+        destroyer.accept(resource);
+        return true;
+    }
+
+    /**
+     * @param resource die Ressource.
+     * @return true, wenn die Ressource im Cache liegt.
+     */
+    public boolean contains(T resource) {
+        return entriesByResource.containsKey(resource);
+    }
+
+    /**
+     * @param resource die Ressource.
+     * @return die Anzahl der Referenzen auf die Ressource (0, wenn sie nicht im Cache liegt).
+     */
+    public int getReferences(T resource) {
+        Entry<T> entry = entriesByResource.get(resource);
+        return entry == null ? 0 : entry.references;
+    }
+
+    /**
+     * @return die Anzahl der Ressourcen im Cache.
+     */
+    public int size() {
+        return entriesByKey.size();
+    }
+
+    /**
+     * Entfernt alle Einträge, ohne die Ressourcen zu löschen (z.B. weil sie beim Beenden ohnehin
+     * gemeinsam gelöscht werden).
+     */
+    public void clear() {
+        entriesByKey.clear();
+        entriesByResource.clear();
+        bytesResident = 0;
+    }
+
+}
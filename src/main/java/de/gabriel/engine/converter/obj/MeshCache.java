@@ -0,0 +1,213 @@
+package de.gabriel.engine.converter.obj;
+
+import de.gabriel.engine.converter.simplify.LodMesh;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ein binäres Cache-Format für Models, damit OBJ Dateien nicht bei jedem Start neu geparst, optimiert und
+ * vereinfacht werden müssen.
+ * <p>
+ * Eine Cache-Datei enthält einen Header und danach die Daten aller Detailstufen eines Models (die erste ist das
+ * Model in voller Auflösung) als {@link MeshData} Records in der nativen Byte-Reihenfolge, sodass die Datei mit
+ * einem {@link FileChannel} in den Speicher gemappt und die Buffer direkt an OpenGL übergeben werden können.
+ * </p>
+ * <pre>
+ * int   MAGIC
+ * int   VERSION
+ * long  Größe der Quelldatei in Bytes
+ * long  Zeitpunkt der letzten Änderung der Quelldatei (Millisekunden)
+ * int   Anzahl der Detailstufen
+ * pro Detailstufe:
+ *   int   Anzahl der Vertices
+ *   int   Anzahl der Indices
+ *   float Radius der Bounding Sphere
+ *   float geometrischer Fehler gegenüber dem Quellmodel
+ *   float[Anzahl der Vertices * {@link MeshData#VERTEX_LENGTH}] verschachtelte Vertex-Daten
+ *   int[Anzahl der Indices] Indices
+ * </pre>
+ * Eine Cache-Datei ist nur gültig, solange Größe und Änderungszeitpunkt der Quelldatei übereinstimmen.
+ */
+@Slf4j
+public class MeshCache {
+
+    /**
+     * Kennung am Anfang jeder Cache-Datei ("GEMC"). Wird die Datei mit einer anderen Byte-Reihenfolge gelesen,
+     * stimmt die Kennung nicht überein und die Datei wird neu erstellt.
+     */
+    private static final int MAGIC = 0x47454D43;
+
+    /**
+     * Version des Formats. Muss bei jeder Änderung des Layouts erhöht werden.
+     */
+    private static final int VERSION = 3;
+
+    /**
+     * Größe des Headers in Bytes (ohne die Anzahl der Detailstufen).
+     */
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+
+    /**
+     * Größe des Headers einer Detailstufe in Bytes.
+     */
+    private static final int LEVEL_HEADER_SIZE = 4 + 4 + 4 + 4;
+
+    /**
+     * Liest eine Cache-Datei, indem sie in den Speicher gemappt wird.
+     *
+     * @param cacheFile    die Cache-Datei.
+     * @param sourceSize   die aktuelle Größe der Quelldatei.
+     * @param sourceMtime  der aktuelle Änderungszeitpunkt der Quelldatei.
+     * @return die Detailstufen des Models oder null, wenn die Cache-Datei fehlt, veraltet oder ungültig ist.
+     * @throws IOException wenn die Cache-Datei nicht gelesen werden kann.
+     */
+    public static List<MeshData> read(Path cacheFile, long sourceSize, long sourceMtime) throws IOException {
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE + 4) {
+                return null;
+            }
+            // Das Mapping bleibt auch nach dem Schließen des Channels gültig
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        mapped.order(ByteOrder.nativeOrder());
+        if (mapped.getInt() != MAGIC || mapped.getInt() != VERSION
+                || mapped.getLong() != sourceSize || mapped.getLong() != sourceMtime) {
+            return null;
+        }
+        return readLevels(mapped);
+    }
+
+    /**
+     * Schreibt die Detailstufen eines Models in eine Cache-Datei. Die Datei wird zuerst unter einem temporären
+     * Namen geschrieben und anschließend umbenannt, damit nie eine halb geschriebene Cache-Datei gelesen wird.
+     *
+     * @param cacheFile   die Cache-Datei.
+     * @param levels      die Detailstufen des Models, beginnend mit der vollen Auflösung.
+     * @param sourceSize  die Größe der Quelldatei.
+     * @param sourceMtime der Änderungszeitpunkt der Quelldatei.
+     * @return die Detailstufen des Models in direkten Buffern.
+     * @throws IOException wenn die Cache-Datei nicht geschrieben werden kann.
+     */
+    public static List<MeshData> write(Path cacheFile, List<LodMesh> levels, long sourceSize, long sourceMtime)
+            throws IOException {
+        ByteBuffer buffer = toBuffer(levels, sourceSize, sourceMtime);
+        Files.createDirectories(cacheFile.getParent());
+        Path temporaryFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote mesh cache file; {[CacheFile={}], [Levels={}], [Bytes={}]}", cacheFile, levels.size(), buffer.capacity());
+        buffer.position(HEADER_SIZE);
+        return readLevels(buffer);
+    }
+
+    /**
+     * Erstellt die Daten eines Models aus den geparsten OBJ Daten, ohne eine Cache-Datei zu schreiben.
+     *
+     * @param data die geparsten Daten des Models.
+     * @return die Daten des Models in direkten Buffern.
+     */
+    public static MeshData toMeshData(ModelData data) {
+        return toMeshData(List.of(new LodMesh(data, 0))).get(0);
+    }
+
+    /**
+     * Erstellt die Daten der Detailstufen eines Models, ohne eine Cache-Datei zu schreiben.
+     *
+     * @param levels die Detailstufen des Models, beginnend mit der vollen Auflösung.
+     * @return die Detailstufen des Models in direkten Buffern.
+     */
+    public static List<MeshData> toMeshData(List<LodMesh> levels) {
+        ByteBuffer buffer = toBuffer(levels, 0, 0);
+        buffer.position(HEADER_SIZE);
+        return readLevels(buffer);
+    }
+
+    /**
+     * Schreibt Header und verschachtelte Daten aller Detailstufen in einen direkten Buffer.
+     */
+    private static ByteBuffer toBuffer(List<LodMesh> levels, long sourceSize, long sourceMtime) {
+        int size = HEADER_SIZE + 4;
+        for (LodMesh level : levels) {
+            size += LEVEL_HEADER_SIZE + (level.data().vertices().length / 3 * MeshData.VERTEX_LENGTH
+                    + level.data().indices().length) * 4;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(sourceSize).putLong(sourceMtime).putInt(levels.size());
+        for (LodMesh level : levels) {
+            ModelData data = level.data();
+            float[] positions = data.vertices();
+            float[] textureCoords = data.textureCoords();
+            float[] normals = data.normals();
+            int[] indices = data.indices();
+            int vertexCount = positions.length / 3;
+            buffer.putInt(vertexCount).putInt(indices.length).putFloat(data.furthestPoint()).putFloat(level.error());
+            FloatBuffer vertices = buffer.asFloatBuffer();
+            for (int i = 0; i < vertexCount; i++) {
+                vertices.put(positions, i * 3, 3);
+                vertices.put(textureCoords, i * 2, 2);
+                vertices.put(normals, i * 3, 3);
+            }
+            buffer.position(buffer.position() + vertices.position() * 4);
+            buffer.asIntBuffer().put(indices);
+            buffer.position(buffer.position() + indices.length * 4);
+        }
+        buffer.rewind();
+        return buffer;
+    }
+
+    /**
+     * Liest die Anzahl der Detailstufen ab der aktuellen Position und teilt den Buffer in die Vertex- und
+     * Index-Buffer aller Stufen auf.
+     *
+     * @return die Detailstufen oder null, wenn die Größe des Buffers nicht zu den Headern passt.
+     */
+    private static List<MeshData> readLevels(ByteBuffer buffer) {
+        int levelCount = buffer.getInt();
+        if (levelCount < 1) {
+            return null;
+        }
+        List<MeshData> levels = new ArrayList<MeshData>(levelCount);
+        for (int level = 0; level < levelCount; level++) {
+            if (buffer.remaining() < LEVEL_HEADER_SIZE) {
+                return null;
+            }
+            int vertexCount = buffer.getInt();
+            int indexCount = buffer.getInt();
+            float furthestPoint = buffer.getFloat();
+            float error = buffer.getFloat();
+            long levelSize = ((long) vertexCount * MeshData.VERTEX_LENGTH + indexCount) * 4L;
+            if (vertexCount < 0 || indexCount < 0 || buffer.remaining() < levelSize) {
+                return null;
+            }
+            int vertexBytes = vertexCount * MeshData.VERTEX_STRIDE;
+            FloatBuffer vertices = buffer.slice(buffer.position(), vertexBytes).order(ByteOrder.nativeOrder()).asFloatBuffer();
+            IntBuffer indices = buffer.slice(buffer.position() + vertexBytes, indexCount * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+            levels.add(new MeshData(vertices, indices, vertexCount, furthestPoint, error));
+            buffer.position(buffer.position() + (int) levelSize);
+        }
+        return buffer.hasRemaining() ? null : levels;
+    }
+
+}
@@ -0,0 +1,43 @@
+package de.gabriel.engine.converter.obj;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Dieser Record hält die Daten eines Models so, wie sie direkt in ein VAO geladen werden können: die Attribute
+ * aller Vertices verschachtelt (interleaved) in einem einzigen Buffer und die Indices in einem zweiten Buffer.
+ * Die Buffer sind direkte Buffer (z.B. aus einer Memory-Mapped Datei des {@link MeshCache}) und können ohne
+ * weiteres Kopieren an OpenGL übergeben werden.
+ * <p>
+ * Layout pro Vertex ({@link #VERTEX_LENGTH} Floats): Position (3), Textur Koordinaten (2), Normale (3).
+ * </p>
+ *
+ * @param vertices      die verschachtelten Attribute aller Vertices
+ * @param indices       die Indices des Models
+ * @param vertexCount   die Anzahl der Vertices
+ * @param furthestPoint der Abstand des am weitesten vom Ursprung entfernten Vertex (Radius der Bounding Sphere)
+ * @param error         der geometrische Fehler gegenüber dem Quellmodel, wenn es sich um eine vereinfachte
+ *                      Detailstufe handelt (sonst 0)
+ * @see OBJFileLoader#loadMesh(String)
+ * @see OBJFileLoader#loadMeshLods(String)
+ */
+public record MeshData(FloatBuffer vertices, IntBuffer indices, int vertexCount, float furthestPoint, float error) {
+
+    /**
+     * Anzahl der Floats pro Vertex (Position, Textur Koordinaten, Normale).
+     */
+    public static final int VERTEX_LENGTH = 3 + 2 + 3;
+
+    /**
+     * Der Abstand zwischen zwei Vertices im Buffer in Bytes.
+     */
+    public static final int VERTEX_STRIDE = VERTEX_LENGTH * Float.BYTES;
+
+    /**
+     * @return die Anzahl der Indices des Models.
+     */
+    public int indexCount() {
+        return indices.remaining();
+    }
+
+}
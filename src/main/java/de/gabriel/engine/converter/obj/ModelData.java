@@ -9,7 +9,7 @@ package de.gabriel.engine.converter.obj;
  * @param textureCoords die Textur Koordinaten des Models
  * @param normals       die Normalen des Models
  * @param indices       die Indices des Models
- * @param furthestPoint
+ * @param furthestPoint der Abstand des am weitesten vom Ursprung entfernten Vertex (Radius der Bounding Sphere)
  */
 public record ModelData(float[] vertices, float[] textureCoords, float[] normals, int[] indices, float furthestPoint) {
 }
\ No newline at end of file
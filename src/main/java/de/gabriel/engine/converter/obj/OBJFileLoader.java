@@ -1,12 +1,15 @@
 package de.gabriel.engine.converter.obj;
 
+import de.gabriel.engine.converter.optimize.MeshOptimizer;
+import de.gabriel.engine.converter.simplify.LodGenerator;
+import de.gabriel.engine.converter.simplify.LodMesh;
 import lombok.extern.slf4j.Slf4j;
-import org.joml.Vector2f;
-import org.joml.Vector3f;
 
 import java.io.*;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Function;
 
 import static de.gabriel.engine.Main.RESOURCES_PATH;
 
@@ -17,145 +20,127 @@ import static de.gabriel.engine.Main.RESOURCES_PATH;
 @Slf4j
 public class OBJFileLoader {
 
+    /**
+     * Der Ordner, in dem die binären Cache-Dateien der Models gespeichert werden.
+     *
+     * @see MeshCache
+     */
+    private static final String CACHE_PATH = RESOURCES_PATH + "cache/models/";
+
+    /**
+     * Lädt ein Model in voller Auflösung bevorzugt aus seiner binären Cache-Datei. Fehlt die Cache-Datei oder hat
+     * sich die OBJ Datei seitdem verändert (Größe oder Änderungszeitpunkt), wird die OBJ Datei geparst, mit dem
+     * {@link MeshOptimizer} optimiert und die Cache-Datei neu geschrieben. Detailstufen werden dabei nicht erzeugt.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return die verschachtelten Daten des Models, bereit zum Laden in ein VAO.
+     * @throws FileNotFoundException wenn die OBJ Datei nicht existiert.
+     * @see OBJFileLoader#loadMeshLods(String)
+     */
+    public static MeshData loadMesh(String objFileName) throws FileNotFoundException {
+        return load(objFileName, getCacheFile(objFileName),
+                data -> List.of(new LodMesh(MeshOptimizer.optimize(data), 0))).get(0);
+    }
+
+    /**
+     * Lädt alle Detailstufen eines Models bevorzugt aus seiner binären Cache-Datei. Fehlt die Cache-Datei oder hat
+     * sich die OBJ Datei seitdem verändert (Größe oder Änderungszeitpunkt), wird die OBJ Datei geparst, mit dem
+     * {@link MeshOptimizer} optimiert, mit dem {@link LodGenerator} vereinfacht und die Cache-Datei neu geschrieben.
+     * Optimierung und Vereinfachung fallen so nur einmal pro Änderung an. Die Detailstufen haben eine eigene
+     * Cache-Datei, damit {@link #loadMesh(String)} sie nie erzeugen muss.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return die Detailstufen des Models, beginnend mit der vollen Auflösung.
+     * @throws FileNotFoundException wenn die OBJ Datei nicht existiert.
+     * @see MeshCache
+     */
+    public static List<MeshData> loadMeshLods(String objFileName) throws FileNotFoundException {
+        return load(objFileName, Path.of(CACHE_PATH + objFileName + ".lods.mesh"),
+                data -> LodGenerator.generate(MeshOptimizer.optimize(data)));
+    }
+
+    /**
+     * Lädt die Stufen eines Models aus der Cache-Datei oder erzeugt sie aus der OBJ Datei und schreibt die
+     * Cache-Datei neu.
+     *
+     * @param process erzeugt die Stufen aus den geparsten Daten der OBJ Datei.
+     */
+    private static List<MeshData> load(String objFileName, Path cacheFile, Function<ModelData, List<LodMesh>> process)
+            throws FileNotFoundException {
+        long start = System.nanoTime();
+        Path objFile = Path.of(RESOURCES_PATH + "models/" + objFileName + ".obj");
+        long sourceSize;
+        long sourceMtime;
+        try {
+            sourceSize = Files.size(objFile);
+            sourceMtime = Files.getLastModifiedTime(objFile).toMillis();
+        } catch (IOException e) {
+            // Meldet die fehlende Datei wie bisher
+            return MeshCache.toMeshData(process.apply(loadOBJ(objFileName)));
+        }
+        try {
+            List<MeshData> cached = MeshCache.read(cacheFile, sourceSize, sourceMtime);
+            if (cached != null) {
+                log.info("Loaded mesh from cache; {[FileName={}], [Vertices={}], [Indices={}], [Levels={}], [Millis={}]}",
+                        objFileName, cached.get(0).vertexCount(), cached.get(0).indexCount(), cached.size(),
+                        (System.nanoTime() - start) / 1e6);
+                return cached;
+            }
+        } catch (IOException e) {
+            log.warn("Could not read mesh cache file, parsing OBJ file instead; {[CacheFile={}]}", cacheFile, e);
+        }
+        List<LodMesh> levels = process.apply(loadOBJ(objFileName));
+        List<MeshData> meshes;
+        try {
+            meshes = MeshCache.write(cacheFile, levels, sourceSize, sourceMtime);
+        } catch (IOException e) {
+            log.warn("Could not write mesh cache file; {[CacheFile={}]}", cacheFile, e);
+            meshes = MeshCache.toMeshData(levels);
+        }
+        log.info("Loaded mesh from OBJ file; {[FileName={}], [Vertices={}], [Indices={}], [Levels={}], [Millis={}]}",
+                objFileName, meshes.get(0).vertexCount(), meshes.get(0).indexCount(), meshes.size(),
+                (System.nanoTime() - start) / 1e6);
+        return meshes;
+    }
+
+    /**
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return die binäre Cache-Datei des Models in voller Auflösung (muss nicht existieren).
+     */
+    public static Path getCacheFile(String objFileName) {
+        return Path.of(CACHE_PATH + objFileName + ".mesh");
+    }
+
+    /**
+     * Lädt eine OBJ Datei mit dem {@link ObjParser}.
+     *
+     * @param objFileName der Name der OBJ Datei ohne Dateiendung.
+     * @return die Daten des Models.
+     * @throws FileNotFoundException wenn die OBJ Datei nicht existiert.
+     */
     public static ModelData loadOBJ(String objFileName) throws FileNotFoundException {
-        FileReader isr = null;
         File objFile = new File(RESOURCES_PATH + "models/" + objFileName + ".obj");
-        try {
-            isr = new FileReader(objFile);
-        } catch (FileNotFoundException e) {
+        if (!objFile.isFile()) {
+            FileNotFoundException e = new FileNotFoundException(objFile.getAbsolutePath());
             log.error("The file was not found! Make sure to NOT specify the file extension in the file name!;" +
                     " {[AbsolutePath={}], [FileName={}]}", objFile.getAbsolutePath(), objFileName, e);
             throw e;
         }
-        BufferedReader reader = new BufferedReader(isr);
-        String line;
-        List<Vertex> vertices = new ArrayList<Vertex>();
-        List<Vector2f> textures = new ArrayList<Vector2f>();
-        List<Vector3f> normals = new ArrayList<Vector3f>();
-        List<Integer> indices = new ArrayList<Integer>();
+        ObjGeometry geometry;
         try {
-            while (true) {
-                line = reader.readLine();
-                if (line.startsWith("v ")) {
-                    String[] currentLine = line.split(" ");
-                    Vector3f vertex = new Vector3f((float) Float.parseFloat(currentLine[1]),
-                            (float) Float.parseFloat(currentLine[2]), (float) Float.parseFloat(currentLine[3]));
-                    Vertex newVertex = new Vertex(vertices.size(), vertex);
-                    vertices.add(newVertex);
-                } else if (line.startsWith("vt ")) {
-                    String[] currentLine = line.split(" ");
-                    Vector2f texture = new Vector2f((float) Float.parseFloat(currentLine[1]),
-                            (float) Float.parseFloat(currentLine[2]));
-                    textures.add(texture);
-                } else if (line.startsWith("vn ")) {
-                    String[] currentLine = line.split(" ");
-                    Vector3f normal = new Vector3f((float) Float.parseFloat(currentLine[1]),
-                            (float) Float.parseFloat(currentLine[2]), (float) Float.parseFloat(currentLine[3]));
-                    normals.add(normal);
-                } else if (line.startsWith("f ")) {
-                    break;
-                }
-            }
-            while (line != null && line.startsWith("f ")) {
-                String[] currentLine = line.split(" ");
-                String[] vertex1 = currentLine[1].split("/");
-                String[] vertex2 = currentLine[2].split("/");
-                String[] vertex3 = currentLine[3].split("/");
-                processVertex(vertex1, vertices, indices);
-                processVertex(vertex2, vertices, indices);
-                processVertex(vertex3, vertices, indices);
-                line = reader.readLine();
-            }
-            reader.close();
+            geometry = ObjParser.parse(objFile.toPath());
         } catch (IOException e) {
             log.error("Error reading the file! Confirm you are using .obj files and check if the file was correctly created;" +
                             "{[AbsolutePath={}], [FileName={}]}",
                     objFile.getAbsolutePath(), objFileName, e);
+            throw new UncheckedIOException(e);
         }
-        removeUnusedVertices(vertices);
-        float[] verticesArray = new float[vertices.size() * 3];
-        float[] texturesArray = new float[vertices.size() * 2];
-        float[] normalsArray = new float[vertices.size() * 3];
-        float furthest = convertDataToArrays(vertices, textures, normals, verticesArray, texturesArray, normalsArray);
-        int[] indicesArray = convertIndicesListToArray(indices);
+        ModelData data = geometry.toModelData();
 
         log.info("Successfully loaded OBJ file; {[FileName={}], [VertexCoordsLength={}], [TextureCoordsLength={}], [NormalsCoordsLength={}], [IndicesLength={}]}",
-                objFileName, verticesArray.length, texturesArray.length, normalsArray.length, indicesArray.length);
-
-        return new ModelData(verticesArray, texturesArray, normalsArray, indicesArray, furthest);
-    }
-
-    private static void processVertex(String[] vertex, List<Vertex> vertices, List<Integer> indices) {
-        int index = Integer.parseInt(vertex[0]) - 1;
-        Vertex currentVertex = vertices.get(index);
-        int textureIndex = Integer.parseInt(vertex[1]) - 1;
-        int normalIndex = Integer.parseInt(vertex[2]) - 1;
-        if (currentVertex.isSet()) {
-            currentVertex.setTextureIndex(textureIndex);
-            currentVertex.setNormalIndex(normalIndex);
-            indices.add(index);
-        } else {
-            dealWithAlreadyProcessedVertex(currentVertex, textureIndex, normalIndex, indices, vertices);
-        }
-    }
-
-    private static int[] convertIndicesListToArray(List<Integer> indices) {
-        int[] indicesArray = new int[indices.size()];
-        for (int i = 0; i < indicesArray.length; i++) {
-            indicesArray[i] = indices.get(i);
-        }
-        return indicesArray;
-    }
+                objFileName, data.vertices().length, data.textureCoords().length, data.normals().length, data.indices().length);
 
-    private static float convertDataToArrays(List<Vertex> vertices, List<Vector2f> textures, List<Vector3f> normals,
-                                             float[] verticesArray, float[] texturesArray, float[] normalsArray) {
-        float furthestPoint = 0;
-        for (int i = 0; i < vertices.size(); i++) {
-            Vertex currentVertex = vertices.get(i);
-            if (currentVertex.getLength() > furthestPoint) {
-                furthestPoint = currentVertex.getLength();
-            }
-            Vector3f position = currentVertex.getPosition();
-            Vector2f textureCoord = textures.get(currentVertex.getTextureIndex());
-            Vector3f normalVector = normals.get(currentVertex.getNormalIndex());
-            verticesArray[i * 3] = position.x;
-            verticesArray[i * 3 + 1] = position.y;
-            verticesArray[i * 3 + 2] = position.z;
-            texturesArray[i * 2] = textureCoord.x;
-            texturesArray[i * 2 + 1] = 1 - textureCoord.y;
-            normalsArray[i * 3] = normalVector.x;
-            normalsArray[i * 3 + 1] = normalVector.y;
-            normalsArray[i * 3 + 2] = normalVector.z;
-        }
-        return furthestPoint;
-    }
-
-    private static void dealWithAlreadyProcessedVertex(Vertex previousVertex, int newTextureIndex, int newNormalIndex,
-                                                       List<Integer> indices, List<Vertex> vertices) {
-        if (previousVertex.hasSameTextureAndNormal(newTextureIndex, newNormalIndex)) {
-            indices.add(previousVertex.getIndex());
-        } else {
-            Vertex anotherVertex = previousVertex.getDuplicateVertex();
-            if (anotherVertex != null) {
-                dealWithAlreadyProcessedVertex(anotherVertex, newTextureIndex, newNormalIndex, indices, vertices);
-            } else {
-                Vertex duplicateVertex = new Vertex(vertices.size(), previousVertex.getPosition());
-                duplicateVertex.setTextureIndex(newTextureIndex);
-                duplicateVertex.setNormalIndex(newNormalIndex);
-                previousVertex.setDuplicateVertex(duplicateVertex);
-                vertices.add(duplicateVertex);
-                indices.add(duplicateVertex.getIndex());
-            }
-        }
-    }
-
-    private static void removeUnusedVertices(List<Vertex> vertices) {
-        for (Vertex vertex : vertices) {
-            if (vertex.isSet()) {
-                vertex.setTextureIndex(0);
-                vertex.setNormalIndex(0);
-            }
-        }
+        return data;
     }
 
 }
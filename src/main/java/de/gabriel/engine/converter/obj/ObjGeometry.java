@@ -0,0 +1,250 @@
+package de.gabriel.engine.converter.obj;
+
+import de.gabriel.engine.utils.FloatList;
+import de.gabriel.engine.utils.IntList;
+import lombok.Getter;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * Die rohe Geometrie einer OBJ Datei, wie sie vom {@link ObjParser} gelesen wurde: die Positionen, Textur
+ * Koordinaten und Normalen in der Reihenfolge der Datei sowie die Ecken aller (triangulierten) Flächen.
+ * <p>
+ * Mit {@link #toModelData()} wird daraus ein indiziertes Model erstellt. Jede Position wird dabei zu einem Vertex;
+ * wird eine Position mit verschiedenen Textur Koordinaten oder Normalen verwendet, werden zusätzliche Vertices
+ * am Ende angehängt. Die Reihenfolge entspricht damit genau der des bisherigen {@link OBJFileLoader}.
+ * </p>
+ */
+public class ObjGeometry {
+
+    /**
+     * Index für eine fehlende Textur Koordinate oder Normale (z.B. bei {@code v//vn}).
+     */
+    public static final int NO_INDEX = -1;
+
+    /**
+     * Die Positionen (x, y, z) in der Reihenfolge der Datei.
+     */
+    @Getter
+    private final FloatList positions;
+
+    /**
+     * Die Textur Koordinaten (u, v) in der Reihenfolge der Datei (nicht gespiegelt).
+     */
+    @Getter
+    private final FloatList textureCoords;
+
+    /**
+     * Die Normalen (x, y, z) in der Reihenfolge der Datei.
+     */
+    @Getter
+    private final FloatList normals;
+
+    /**
+     * Die Ecken aller Dreiecke, jeweils drei Indices ab 0 (Position, Textur Koordinate, Normale).
+     */
+    @Getter
+    private final IntList corners;
+
+    /**
+     * Die Anzahl der Vertices nach dem Indizieren.
+     */
+    private int vertexCount;
+
+    /**
+     * Der Index der Position jedes Vertex.
+     */
+    private int[] vertexPositions;
+
+    private int[] vertexTextureCoords;
+
+    private int[] vertexNormals;
+
+    /**
+     * Die Indices der Vertices für jede Ecke.
+     */
+    private int[] indices;
+
+    ObjGeometry(int estimatedValues) {
+        this.positions = new FloatList(estimatedValues);
+        this.textureCoords = new FloatList(estimatedValues);
+        this.normals = new FloatList(estimatedValues);
+        this.corners = new IntList(estimatedValues);
+    }
+
+    /**
+     * @return die Anzahl der Dreiecke.
+     */
+    public int getTriangleCount() {
+        return corners.size() / 9;
+    }
+
+    /**
+     * Erstellt die Vertices und Indices aus den Ecken der Dreiecke. Wird nur einmal ausgeführt.
+     */
+    private void index() {
+        if (indices != null) {
+            return;
+        }
+        int positionCount = positions.size() / 3;
+        int cornerCount = corners.size() / 3;
+        int capacity = Math.max(positionCount, 1);
+        vertexPositions = new int[capacity];
+        vertexTextureCoords = new int[capacity];
+        vertexNormals = new int[capacity];
+        int[] duplicates = new int[capacity];
+        boolean[] assigned = new boolean[capacity];
+        for (int i = 0; i < positionCount; i++) {
+            vertexPositions[i] = i;
+            duplicates[i] = NO_INDEX;
+        }
+        vertexCount = positionCount;
+        indices = new int[cornerCount];
+        for (int corner = 0; corner < cornerCount; corner++) {
+            int positionIndex = corners.get(corner * 3);
+            int textureIndex = corners.get(corner * 3 + 1);
+            int normalIndex = corners.get(corner * 3 + 2);
+            int vertex = positionIndex;
+            if (!assigned[vertex]) {
+                assigned[vertex] = true;
+                vertexTextureCoords[vertex] = textureIndex;
+                vertexNormals[vertex] = normalIndex;
+                indices[corner] = vertex;
+                continue;
+            }
+            // Vorhandenen Vertex mit denselben Attributen suchen oder einen neuen Vertex anhängen
+            while (vertexTextureCoords[vertex] != textureIndex || vertexNormals[vertex] != normalIndex) {
+                if (duplicates[vertex] != NO_INDEX) {
+                    vertex = duplicates[vertex];
+                    continue;
+                }
+                if (vertexCount == vertexPositions.length) {
+                    int newCapacity = vertexCount * 2;
+                    vertexPositions = Arrays.copyOf(vertexPositions, newCapacity);
+                    vertexTextureCoords = Arrays.copyOf(vertexTextureCoords, newCapacity);
+                    vertexNormals = Arrays.copyOf(vertexNormals, newCapacity);
+                    duplicates = Arrays.copyOf(duplicates, newCapacity);
+                    assigned = Arrays.copyOf(assigned, newCapacity);
+                }
+                int duplicate = vertexCount++;
+                vertexPositions[duplicate] = positionIndex;
+                vertexTextureCoords[duplicate] = textureIndex;
+                vertexNormals[duplicate] = normalIndex;
+                duplicates[duplicate] = NO_INDEX;
+                assigned[duplicate] = true;
+                duplicates[vertex] = duplicate;
+                vertex = duplicate;
+            }
+            indices[corner] = vertex;
+        }
+        for (int i = 0; i < positionCount; i++) {
+            if (!assigned[i]) { // Nicht verwendete Vertices erhalten die ersten Textur Koordinaten und Normalen
+                vertexTextureCoords[i] = 0;
+                vertexNormals[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Erstellt ein indiziertes Model. Fehlende Textur Koordinaten werden zu (0, 0), fehlende Normalen zu (0, 1, 0).
+     *
+     * @return die Daten des Models.
+     */
+    public ModelData toModelData() {
+        index();
+        float[] verticesArray = new float[vertexCount * 3];
+        float[] texturesArray = new float[vertexCount * 2];
+        float[] normalsArray = new float[vertexCount * 3];
+        float furthestPoint = 0;
+        int textureCount = textureCoords.size() / 2;
+        int normalCount = normals.size() / 3;
+        for (int i = 0; i < vertexCount; i++) {
+            int position = vertexPositions[i] * 3;
+            float x = positions.get(position);
+            float y = positions.get(position + 1);
+            float z = positions.get(position + 2);
+            furthestPoint = Math.max(furthestPoint, Vector3f.length(x, y, z));
+            verticesArray[i * 3] = x;
+            verticesArray[i * 3 + 1] = y;
+            verticesArray[i * 3 + 2] = z;
+            int texture = vertexTextureCoords[i];
+            if (texture >= 0 && texture < textureCount) {
+                texturesArray[i * 2] = textureCoords.get(texture * 2);
+                texturesArray[i * 2 + 1] = 1 - textureCoords.get(texture * 2 + 1);
+            } else {
+                texturesArray[i * 2 + 1] = 1;
+            }
+            int normal = vertexNormals[i];
+            if (normal >= 0 && normal < normalCount) {
+                normalsArray[i * 3] = normals.get(normal * 3);
+                normalsArray[i * 3 + 1] = normals.get(normal * 3 + 1);
+                normalsArray[i * 3 + 2] = normals.get(normal * 3 + 2);
+            } else {
+                normalsArray[i * 3 + 1] = 1;
+            }
+        }
+        return new ModelData(verticesArray, texturesArray, normalsArray, indices.clone(), furthestPoint);
+    }
+
+    /**
+     * Berechnet die Tangenten aller Vertices für Normal Mapping. Die Tangente jedes Dreiecks wird allen Vertices
+     * mit derselben Position hinzugefügt und anschließend normalisiert.
+     *
+     * @return die Tangenten (x, y, z) aller Vertices in derselben Reihenfolge wie {@link #toModelData()}.
+     */
+    public float[] calculateTangents() {
+        index();
+        int positionCount = positions.size() / 3;
+        float[] sums = new float[positionCount * 3];
+        int textureCount = textureCoords.size() / 2;
+        for (int corner = 0; corner + 2 < corners.size() / 3; corner += 3) {
+            int p0 = corners.get(corner * 3);
+            int p1 = corners.get(corner * 3 + 3);
+            int p2 = corners.get(corner * 3 + 6);
+            int t0 = corners.get(corner * 3 + 1);
+            int t1 = corners.get(corner * 3 + 4);
+            int t2 = corners.get(corner * 3 + 7);
+            if (t0 < 0 || t1 < 0 || t2 < 0 || t0 >= textureCount || t1 >= textureCount || t2 >= textureCount) {
+                continue; // Ohne Textur Koordinaten gibt es keine Tangente
+            }
+            float deltaPos1X = positions.get(p1 * 3) - positions.get(p0 * 3);
+            float deltaPos1Y = positions.get(p1 * 3 + 1) - positions.get(p0 * 3 + 1);
+            float deltaPos1Z = positions.get(p1 * 3 + 2) - positions.get(p0 * 3 + 2);
+            float deltaPos2X = positions.get(p2 * 3) - positions.get(p0 * 3);
+            float deltaPos2Y = positions.get(p2 * 3 + 1) - positions.get(p0 * 3 + 1);
+            float deltaPos2Z = positions.get(p2 * 3 + 2) - positions.get(p0 * 3 + 2);
+            float deltaUv1X = textureCoords.get(t1 * 2) - textureCoords.get(t0 * 2);
+            float deltaUv1Y = textureCoords.get(t1 * 2 + 1) - textureCoords.get(t0 * 2 + 1);
+            float deltaUv2X = textureCoords.get(t2 * 2) - textureCoords.get(t0 * 2);
+            float deltaUv2Y = textureCoords.get(t2 * 2 + 1) - textureCoords.get(t0 * 2 + 1);
+            float r = 1.0f / (deltaUv1X * deltaUv2Y - deltaUv1Y * deltaUv2X);
+            float tangentX = (deltaPos1X * deltaUv2Y - deltaPos2X * deltaUv1Y) * r;
+            float tangentY = (deltaPos1Y * deltaUv2Y - deltaPos2Y * deltaUv1Y) * r;
+            float tangentZ = (deltaPos1Z * deltaUv2Y - deltaPos2Z * deltaUv1Y) * r;
+            addTangent(sums, p0, tangentX, tangentY, tangentZ);
+            addTangent(sums, p1, tangentX, tangentY, tangentZ);
+            addTangent(sums, p2, tangentX, tangentY, tangentZ);
+        }
+        Vector3f tangent = new Vector3f();
+        float[] tangents = new float[vertexCount * 3];
+        for (int i = 0; i < vertexCount; i++) {
+            int position = vertexPositions[i] * 3;
+            tangent.set(sums[position], sums[position + 1], sums[position + 2]);
+            if (tangent.x != 0 || tangent.y != 0 || tangent.z != 0) {
+                tangent.normalize();
+            }
+            tangents[i * 3] = tangent.x;
+            tangents[i * 3 + 1] = tangent.y;
+            tangents[i * 3 + 2] = tangent.z;
+        }
+        return tangents;
+    }
+
+    private static void addTangent(float[] sums, int position, float x, float y, float z) {
+        sums[position * 3] += x;
+        sums[position * 3 + 1] += y;
+        sums[position * 3 + 2] += z;
+    }
+
+}
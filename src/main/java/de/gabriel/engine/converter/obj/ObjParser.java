@@ -0,0 +1,275 @@
+package de.gabriel.engine.converter.obj;
+
+import de.gabriel.engine.utils.IntList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Ein Parser für OBJ Wavefront-Dateien, der direkt auf den Bytes der Datei arbeitet. Anders als beim zeilenweisen
+ * Lesen mit {@code BufferedReader.readLine} und {@code String.split} werden dabei keine Strings und keine geboxten
+ * Werte erstellt: Floats und Integer werden an Ort und Stelle geparst und in primitive, wachsende Arrays geschrieben.
+ * <p>
+ * Unterstützt werden die Zeilen {@code v}, {@code vt}, {@code vn} und {@code f}; alle anderen Zeilen (Kommentare,
+ * Gruppen, Materialien, ...) werden übersprungen. Flächen dürfen beliebig viele Ecken haben (sie werden als Fächer
+ * trianguliert), negative (relative) Indices verwenden und Textur Koordinaten oder Normalen weglassen
+ * ({@code v}, {@code v/vt}, {@code v//vn}, {@code v/vt/vn}).
+ * </p>
+ *
+ * @see ObjGeometry
+ */
+public class ObjParser {
+
+    /**
+     * Zehnerpotenzen, die als Float exakt darstellbar sind (10^0 bis 10^10).
+     */
+    private static final float[] POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+    /**
+     * Die größte Mantisse, die als Float exakt darstellbar ist (2^24).
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 24;
+
+    private final ByteBuffer data;
+
+    private final int limit;
+
+    private final ObjGeometry geometry;
+
+    /**
+     * Die Ecken der aktuellen Fläche (jeweils Position, Textur Koordinate und Normale) vor der Triangulierung.
+     */
+    private final IntList face = new IntList(12);
+
+    /**
+     * Puffer für die seltenen Floats, die nicht exakt im schnellen Pfad geparst werden können. Wächst mit der
+     * längsten dieser Zahlen.
+     */
+    private byte[] fallback = new byte[64];
+
+    private int position;
+
+    private ObjParser(ByteBuffer data) {
+        this.data = data;
+        this.position = data.position();
+        this.limit = data.limit();
+        this.geometry = new ObjGeometry(data.remaining() / 32); // Grobe Schätzung: eine Zahl alle ~10 Bytes
+    }
+
+    /**
+     * Parst eine OBJ Datei, indem sie in den Speicher gemappt wird.
+     *
+     * @param objFile die OBJ Datei.
+     * @return die Geometrie der Datei.
+     * @throws IOException wenn die Datei nicht gelesen werden kann.
+     */
+    public static ObjGeometry parse(Path objFile) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(objFile, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return parse(mapped);
+    }
+
+    /**
+     * Parst den Inhalt einer OBJ Datei von der aktuellen Position bis zum Limit des Buffers.
+     * Die Position des Buffers wird dabei nicht verändert.
+     *
+     * @param data der Inhalt der OBJ Datei.
+     * @return die Geometrie der Datei.
+     */
+    public static ObjGeometry parse(ByteBuffer data) {
+        ObjParser parser = new ObjParser(data);
+        parser.parse();
+        return parser.geometry;
+    }
+
+    private void parse() {
+        while (position < limit) {
+            skipSpaces();
+            if (position >= limit) {
+                break;
+            }
+            byte first = data.get(position);
+            byte second = position + 1 < limit ? data.get(position + 1) : (byte) '\n';
+            if (first == 'v' && isSpace(second)) {
+                position += 2;
+                geometry.getPositions().add(parseFloat());
+                geometry.getPositions().add(parseFloat());
+                geometry.getPositions().add(parseFloat());
+            } else if (first == 'v' && second == 't' && hasSpaceAt(position + 2)) {
+                position += 3;
+                geometry.getTextureCoords().add(parseFloat());
+                geometry.getTextureCoords().add(parseFloat());
+            } else if (first == 'v' && second == 'n' && hasSpaceAt(position + 2)) {
+                position += 3;
+                geometry.getNormals().add(parseFloat());
+                geometry.getNormals().add(parseFloat());
+                geometry.getNormals().add(parseFloat());
+            } else if (first == 'f' && isSpace(second)) {
+                position += 2;
+                parseFace();
+            }
+            skipLine();
+        }
+    }
+
+    /**
+     * Parst alle Ecken einer Fläche und fügt sie als Fächer aus Dreiecken der Geometrie hinzu.
+     */
+    private void parseFace() {
+        face.clear();
+        int positionCount = geometry.getPositions().size() / 3;
+        int textureCount = geometry.getTextureCoords().size() / 2;
+        int normalCount = geometry.getNormals().size() / 3;
+        while (true) {
+            skipSpaces();
+            if (position >= limit || !isIndexStart(data.get(position))) {
+                break;
+            }
+            int positionIndex = resolveIndex(parseInt(), positionCount);
+            int textureIndex = ObjGeometry.NO_INDEX;
+            int normalIndex = ObjGeometry.NO_INDEX;
+            if (position < limit && data.get(position) == '/') {
+                position++;
+                if (position < limit && isIndexStart(data.get(position))) {
+                    textureIndex = resolveIndex(parseInt(), textureCount);
+                }
+                if (position < limit && data.get(position) == '/') {
+                    position++;
+                    normalIndex = resolveIndex(parseInt(), normalCount);
+                }
+            }
+            face.add(positionIndex);
+            face.add(textureIndex);
+            face.add(normalIndex);
+        }
+        IntList corners = geometry.getCorners();
+        for (int i = 2; i < face.size() / 3; i++) { // Fächer um die erste Ecke
+            addCorner(corners, 0);
+            addCorner(corners, i - 1);
+            addCorner(corners, i);
+        }
+    }
+
+    private void addCorner(IntList corners, int corner) {
+        corners.add(face.get(corner * 3));
+        corners.add(face.get(corner * 3 + 1));
+        corners.add(face.get(corner * 3 + 2));
+    }
+
+    /**
+     * Wandelt einen Index aus der OBJ Datei (ab 1, oder negativ relativ zum Ende) in einen Index ab 0 um.
+     */
+    private static int resolveIndex(int index, int count) {
+        return index < 0 ? count + index : index - 1;
+    }
+
+    private int parseInt() {
+        boolean negative = false;
+        byte b = data.get(position);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            position++;
+        }
+        int value = 0;
+        while (position < limit) {
+            b = data.get(position);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            value = value * 10 + (b - '0');
+            position++;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parst einen Float. Im schnellen Pfad wird die Zahl als ganzzahlige Mantisse und Anzahl der Nachkommastellen
+     * gelesen; sind beide als Float exakt darstellbar, ist eine einzige Division korrekt gerundet und liefert
+     * genau dasselbe Ergebnis wie {@link Float#parseFloat(String)}. Alle anderen Zahlen (viele Stellen,
+     * Exponenten, ...) werden über {@link Float#parseFloat(String)} geparst.
+     */
+    private float parseFloat() {
+        skipSpaces();
+        int start = position;
+        boolean negative = false;
+        if (position < limit && (data.get(position) == '-' || data.get(position) == '+')) {
+            negative = data.get(position) == '-';
+            position++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = 0;
+        boolean fraction = false;
+        boolean exact = true;
+        while (position < limit) {
+            byte b = data.get(position);
+            if (b >= '0' && b <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    if (fraction) {
+                        decimals++;
+                    }
+                } else {
+                    exact = false;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else if (isSpace(b) || isLineEnd(b)) {
+                break;
+            } else {
+                exact = false; // Exponent, NaN, Infinity, ...
+            }
+            position++;
+        }
+        if (exact && mantissa <= MAX_EXACT_MANTISSA && decimals < POWERS_OF_TEN.length) {
+            float value = (float) mantissa / POWERS_OF_TEN[decimals];
+            return negative ? -value : value;
+        }
+        int length = position - start;
+        if (length > fallback.length) {
+            fallback = new byte[Math.max(length, fallback.length * 2)];
+        }
+        data.get(start, fallback, 0, length);
+        return Float.parseFloat(new String(fallback, 0, length, StandardCharsets.US_ASCII));
+    }
+
+    private void skipSpaces() {
+        while (position < limit && isSpace(data.get(position))) {
+            position++;
+        }
+    }
+
+    private void skipLine() {
+        while (position < limit && data.get(position) != '\n') {
+            position++;
+        }
+        position++;
+    }
+
+    private boolean hasSpaceAt(int index) {
+        return index < limit && isSpace(data.get(index));
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static boolean isLineEnd(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    private static boolean isIndexStart(byte b) {
+        return (b >= '0' && b <= '9') || b == '-' || b == '+';
+    }
+
+}
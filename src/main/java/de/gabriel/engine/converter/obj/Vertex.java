@@ -1,33 +0,0 @@
-package de.gabriel.engine.converter.obj;
-
-import lombok.Getter;
-import lombok.Setter;
-import org.joml.Vector3f;
-
-@Getter
-@Setter
-public class Vertex {
-
-    private static final int NO_INDEX = -1;
-
-    private Vector3f position;
-    private int textureIndex = NO_INDEX;
-    private int normalIndex = NO_INDEX;
-    private Vertex duplicateVertex = null;
-    private int index;
-    private float length;
-
-    public Vertex(int index, Vector3f position) {
-        this.index = index;
-        this.position = position;
-        this.length = position.length();
-    }
-
-    public boolean isSet() {
-        return textureIndex == NO_INDEX || normalIndex == NO_INDEX;
-    }
-
-    public boolean hasSameTextureAndNormal(int textureIndexOther, int normalIndexOther) {
-        return textureIndexOther == textureIndex && normalIndexOther == normalIndex;
-    }
-}
@@ -0,0 +1,11 @@
+package de.gabriel.engine.converter.optimize;
+
+/**
+ * Das Ergebnis einer Simulation des Post-Transform Vertex Caches mit dem {@link VertexCacheSimulator}.
+ *
+ * @param acmr   Average Cache Miss Ratio: transformierte Vertices pro Dreieck (optimal 0.5, schlechtester Fall 3).
+ * @param atvr   Average Transformed Vertex Ratio: transformierte Vertices pro Vertex (optimal 1).
+ * @param misses die Anzahl der Cache Misses (transformierte Vertices).
+ */
+public record CacheStatistics(float acmr, float atvr, int misses) {
+}
@@ -0,0 +1,508 @@
+package de.gabriel.engine.converter.optimize;
+
+import de.gabriel.engine.converter.normals.ModelDataNM;
+import de.gabriel.engine.converter.obj.ModelData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+
+/**
+ * Optimiert Models beim Laden für die GPU. Die Stufen laufen in dieser Reihenfolge:
+ * <ol>
+ *     <li>{@link #weldVertices}: exakt gleiche Vertices (alle Attribute bitweise gleich) werden zusammengeführt.</li>
+ *     <li>{@link #optimizeVertexCache}: die Dreiecke werden für den Post-Transform Vertex Cache umsortiert
+ *     (Tom Forsyth, "Linear-Speed Vertex Cache Optimisation").</li>
+ *     <li>{@link #optimizeOverdraw}: Cluster von Dreiecken werden so sortiert, dass nach außen zeigende Flächen
+ *     zuerst gezeichnet werden (Sander et al., "Fast Triangle Reordering for Vertex Locality and Reduced
+ *     Overdraw"), solange die Cache-Effizienz dadurch höchstens um den Schwellwert schlechter wird.</li>
+ *     <li>{@link #optimizeVertexFetch}: die Vertices werden in der Reihenfolge ihrer ersten Verwendung abgelegt,
+ *     damit die GPU den Vertex Buffer möglichst linear liest.</li>
+ * </ol>
+ * Alle Stufen arbeiten auf verschachtelten Vertices (Position an Offset 0) und verändern die Arrays direkt.
+ * Die Wirkung wird mit dem {@link VertexCacheSimulator} gemessen und geloggt.
+ */
+@Slf4j
+public class MeshOptimizer {
+
+    /**
+     * Der Schwellwert für {@link #optimizeOverdraw}: ein Cluster darf einen um höchstens 5% schlechteren
+     * ACMR haben als die Cache-optimierte Reihenfolge.
+     */
+    public static final float DEFAULT_OVERDRAW_THRESHOLD = 1.05f;
+
+    /**
+     * Die Größe des LRU Caches, für den der Algorithmus von Forsyth die Scores berechnet.
+     */
+    private static final int FORSYTH_CACHE_SIZE = 32;
+
+    private static final float CACHE_DECAY_POWER = 1.5f;
+
+    private static final float LAST_TRIANGLE_SCORE = 0.75f;
+
+    private static final float VALENCE_BOOST_SCALE = 2.0f;
+
+    private static final float VALENCE_BOOST_POWER = 0.5f;
+
+    /**
+     * Optimiert ein Model aus dem {@link de.gabriel.engine.converter.obj.OBJFileLoader}.
+     *
+     * @param data die Daten des Models.
+     * @return die optimierten Daten (neue Arrays).
+     */
+    public static ModelData optimize(ModelData data) {
+        int vertexCount = data.vertices().length / 3;
+        float[] vertices = interleave(vertexCount, new float[][]{data.vertices(), data.textureCoords(), data.normals()},
+                new int[]{3, 2, 3});
+        int[] indices = data.indices().clone();
+        int optimizedCount = optimize(vertices, 8, vertexCount, indices, true);
+        float[][] attributes = deinterleave(vertices, optimizedCount, new int[]{3, 2, 3});
+        return new ModelData(attributes[0], attributes[1], attributes[2], indices, data.furthestPoint());
+    }
+
+    /**
+     * Optimiert ein Model für Normal Mapping.
+     *
+     * @param data die Daten des Models inklusive Tangenten.
+     * @return die optimierten Daten (neue Arrays).
+     */
+    public static ModelDataNM optimize(ModelDataNM data) {
+        int vertexCount = data.getVertices().length / 3;
+        float[] vertices = interleave(vertexCount,
+                new float[][]{data.getVertices(), data.getTextureCoords(), data.getNormals(), data.getTangents()},
+                new int[]{3, 2, 3, 3});
+        int[] indices = data.getIndices().clone();
+        int optimizedCount = optimize(vertices, 11, vertexCount, indices, true);
+        float[][] attributes = deinterleave(vertices, optimizedCount, new int[]{3, 2, 3, 3});
+        return new ModelDataNM(attributes[0], attributes[1], attributes[2], attributes[3], indices,
+                data.getFurthestPoint());
+    }
+
+    /**
+     * Führt alle Stufen nacheinander aus und loggt ACMR und ATVR vorher und nachher.
+     *
+     * @param vertices    die verschachtelten Vertices (Position an Offset 0).
+     * @param stride      die Anzahl der Floats pro Vertex.
+     * @param vertexCount die Anzahl der Vertices.
+     * @param indices     die Indices der Dreiecke.
+     * @param overdraw    ob die Dreiecke zusätzlich für weniger Overdraw sortiert werden sollen.
+     * @return die neue Anzahl der Vertices (die ersten {@code vertexCount * stride} Floats sind gültig).
+     */
+    public static int optimize(float[] vertices, int stride, int vertexCount, int[] indices, boolean overdraw) {
+        long start = System.nanoTime();
+        CacheStatistics before = VertexCacheSimulator.analyze(indices, vertexCount);
+        int optimizedCount = weldVertices(vertices, stride, vertexCount, indices);
+        optimizeVertexCache(indices, optimizedCount);
+        if (overdraw) {
+            optimizeOverdraw(indices, vertices, stride, optimizedCount, DEFAULT_OVERDRAW_THRESHOLD);
+        }
+        optimizedCount = optimizeVertexFetch(vertices, stride, optimizedCount, indices);
+        CacheStatistics after = VertexCacheSimulator.analyze(indices, optimizedCount);
+        log.info("Optimized mesh; {[Vertices={}], [OptimizedVertices={}], [Triangles={}], [AcmrBefore={}], [AcmrAfter={}], " +
+                        "[AtvrBefore={}], [AtvrAfter={}], [Millis={}]}",
+                vertexCount, optimizedCount, indices.length / 3, before.acmr(), after.acmr(), before.atvr(), after.atvr(),
+                (System.nanoTime() - start) / 1e6);
+        return optimizedCount;
+    }
+
+    /**
+     * Führt Vertices zusammen, deren Attribute bitweise gleich sind. Die Vertices werden dabei nach vorne
+     * zusammengeschoben und die Indices angepasst; die Reihenfolge der übrigen Vertices bleibt erhalten.
+     *
+     * @param vertices    die verschachtelten Vertices.
+     * @param stride      die Anzahl der Floats pro Vertex.
+     * @param vertexCount die Anzahl der Vertices.
+     * @param indices     die Indices der Dreiecke.
+     * @return die neue Anzahl der Vertices.
+     */
+    public static int weldVertices(float[] vertices, int stride, int vertexCount, int[] indices) {
+        // Hash Map mit offener Adressierung: Slot -> Index des (bereits verschobenen) Vertex oder -1
+        int capacity = Integer.highestOneBit(Math.max(vertexCount, 1) * 2 - 1) << 1;
+        int[] table = new int[capacity];
+        Arrays.fill(table, -1);
+        int[] remap = new int[vertexCount];
+        int weldedCount = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            int slot = hashVertex(vertices, vertex * stride, stride) & (capacity - 1);
+            while (table[slot] >= 0 && !equalVertices(vertices, table[slot] * stride, vertex * stride, stride)) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (table[slot] >= 0) {
+                remap[vertex] = table[slot];
+            } else {
+                // Der Zielindex ist nie größer als der Quellindex, daher kann direkt im Array verschoben werden
+                System.arraycopy(vertices, vertex * stride, vertices, weldedCount * stride, stride);
+                table[slot] = weldedCount;
+                remap[vertex] = weldedCount++;
+            }
+        }
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = remap[indices[i]];
+        }
+        return weldedCount;
+    }
+
+    /**
+     * Sortiert die Dreiecke für den Post-Transform Vertex Cache nach dem Algorithmus von Tom Forsyth. Es wird immer
+     * das Dreieck mit dem höchsten Score als nächstes ausgegeben; der Score eines Vertex steigt, je weiter vorne er
+     * im (simulierten LRU) Cache liegt und je weniger Dreiecke ihn noch verwenden.
+     *
+     * @param indices     die Indices der Dreiecke (werden umsortiert).
+     * @param vertexCount die Anzahl der Vertices.
+     */
+    public static void optimizeVertexCache(int[] indices, int vertexCount) {
+        int triangleCount = indices.length / 3;
+        if (triangleCount == 0) {
+            return;
+        }
+
+        // Adjazenz Vertex -> Dreiecke im CSR Format; die ersten remaining[v] Einträge sind noch nicht ausgegeben
+        int[] remaining = new int[vertexCount];
+        for (int index : indices) {
+            remaining[index]++;
+        }
+        int[] offsets = new int[vertexCount + 1];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            offsets[vertex + 1] = offsets[vertex] + remaining[vertex];
+        }
+        int[] adjacency = new int[indices.length];
+        int[] fill = Arrays.copyOf(offsets, vertexCount);
+        for (int i = 0; i < indices.length; i++) {
+            adjacency[fill[indices[i]]++] = i / 3;
+        }
+
+        int[] cachePosition = new int[vertexCount];
+        Arrays.fill(cachePosition, -1);
+        float[] vertexScore = new float[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            vertexScore[vertex] = vertexScore(-1, remaining[vertex]);
+        }
+        boolean[] emitted = new boolean[triangleCount];
+        int[] cache = new int[FORSYTH_CACHE_SIZE + 3];
+        int[] newCache = new int[FORSYTH_CACHE_SIZE + 3];
+        int cacheCount = 0;
+        int[] output = new int[indices.length];
+        int inputCursor = 0;
+        int best = 0;
+        for (int out = 0; out < triangleCount; out++) {
+            if (best < 0) {
+                // Kein Dreieck mehr am Cache: mit dem nächsten noch nicht ausgegebenen Dreieck weitermachen
+                while (emitted[inputCursor]) {
+                    inputCursor++;
+                }
+                best = inputCursor;
+            }
+            emitted[best] = true;
+            int newCount = 0;
+            for (int corner = 0; corner < 3; corner++) {
+                int vertex = indices[best * 3 + corner];
+                output[out * 3 + corner] = vertex;
+                removeAdjacentTriangle(adjacency, offsets[vertex], remaining[vertex]--, best);
+                if (!contains(newCache, newCount, vertex)) {
+                    newCache[newCount++] = vertex;
+                }
+            }
+            for (int i = 0; i < cacheCount; i++) {
+                if (!contains(newCache, newCount, cache[i])) {
+                    newCache[newCount++] = cache[i];
+                }
+            }
+
+            for (int i = 0; i < newCount; i++) {
+                int vertex = newCache[i];
+                cachePosition[vertex] = i < FORSYTH_CACHE_SIZE ? i : -1; // Über das Ende hinaus: verdrängt
+                vertexScore[vertex] = vertexScore(cachePosition[vertex], remaining[vertex]);
+            }
+            best = -1;
+            float bestScore = -1;
+            for (int i = 0; i < newCount; i++) {
+                int vertex = newCache[i];
+                for (int j = offsets[vertex]; j < offsets[vertex] + remaining[vertex]; j++) {
+                    int triangle = adjacency[j];
+                    float score = vertexScore[indices[triangle * 3]] + vertexScore[indices[triangle * 3 + 1]]
+                            + vertexScore[indices[triangle * 3 + 2]];
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = triangle;
+                    }
+                }
+            }
+
+            int[] swap = cache;
+            cache = newCache;
+            newCache = swap;
+            cacheCount = Math.min(newCount, FORSYTH_CACHE_SIZE);
+        }
+        System.arraycopy(output, 0, indices, 0, indices.length);
+    }
+
+    /**
+     * Sortiert Cluster von Dreiecken für weniger Overdraw. Die Cache-optimierte Reihenfolge wird dazu an den Stellen
+     * getrennt, an denen ein Dreieck keinen Vertex im Cache hat (harte Grenzen), und innerhalb dieser Abschnitte
+     * weiter, sobald der ACMR des laufenden Clusters den Schwellwert unterschreitet. Die Cluster werden dann absteigend
+     * danach sortiert, wie weit sie vom Mittelpunkt des Models nach außen zeigen, da außen liegende Flächen
+     * typischerweise innen liegende verdecken.
+     *
+     * @param indices     die Cache-optimierten Indices der Dreiecke (werden umsortiert).
+     * @param vertices    die verschachtelten Vertices (Position an Offset 0).
+     * @param stride      die Anzahl der Floats pro Vertex.
+     * @param vertexCount die Anzahl der Vertices.
+     * @param threshold   wie viel schlechter der ACMR eines Clusters höchstens werden darf (z.B. 1.05).
+     */
+    public static void optimizeOverdraw(int[] indices, float[] vertices, int stride, int vertexCount, float threshold) {
+        int triangleCount = indices.length / 3;
+        if (triangleCount == 0) {
+            return;
+        }
+        int cacheSize = VertexCacheSimulator.DEFAULT_CACHE_SIZE;
+        int[] timestamps = new int[vertexCount];
+        int[] timestamp = {cacheSize + 1};
+
+        // Harte Grenzen: Dreiecke, deren drei Vertices alle nicht im Cache liegen
+        int[] hardBoundaries = new int[triangleCount + 1];
+        int hardCount = 0;
+        for (int triangle = 0; triangle < triangleCount; triangle++) {
+            int misses = updateCache(indices, triangle, cacheSize, timestamps, timestamp);
+            if (triangle == 0 || misses == 3) {
+                hardBoundaries[hardCount++] = triangle;
+            }
+        }
+        hardBoundaries[hardCount] = triangleCount;
+
+        // Weiche Grenzen innerhalb der harten Abschnitte
+        int[] clusters = new int[triangleCount + 1];
+        int clusterCount = 0;
+        for (int hard = 0; hard < hardCount; hard++) {
+            int start = hardBoundaries[hard];
+            int end = hardBoundaries[hard + 1];
+            timestamp[0] += cacheSize + 1;
+            int sectionMisses = 0;
+            for (int triangle = start; triangle < end; triangle++) {
+                sectionMisses += updateCache(indices, triangle, cacheSize, timestamps, timestamp);
+            }
+            float targetAcmr = sectionMisses / (float) (end - start) * threshold;
+
+            timestamp[0] += cacheSize + 1;
+            int clusterMisses = 0;
+            int clusterStart = start;
+            clusters[clusterCount++] = start;
+            for (int triangle = start; triangle < end; triangle++) {
+                clusterMisses += updateCache(indices, triangle, cacheSize, timestamps, timestamp);
+                if (triangle + 1 < end && clusterMisses / (float) (triangle + 1 - clusterStart) <= targetAcmr) {
+                    clusters[clusterCount++] = triangle + 1;
+                    clusterStart = triangle + 1;
+                    clusterMisses = 0;
+                    timestamp[0] += cacheSize + 1; // Der nächste Cluster beginnt mit leerem Cache
+                }
+            }
+        }
+        clusters[clusterCount] = triangleCount;
+
+        // Mittelpunkt des Models und Schwerpunkt / Normale jedes Clusters (nach Fläche gewichtet)
+        float[] clusterData = new float[clusterCount * 7]; // Schwerpunkt (3), Normale (3), Fläche (1)
+        float meshX = 0, meshY = 0, meshZ = 0, meshArea = 0;
+        for (int cluster = 0; cluster < clusterCount; cluster++) {
+            int base = cluster * 7;
+            for (int triangle = clusters[cluster]; triangle < clusters[cluster + 1]; triangle++) {
+                int a = indices[triangle * 3] * stride;
+                int b = indices[triangle * 3 + 1] * stride;
+                int c = indices[triangle * 3 + 2] * stride;
+                float abx = vertices[b] - vertices[a], aby = vertices[b + 1] - vertices[a + 1], abz = vertices[b + 2] - vertices[a + 2];
+                float acx = vertices[c] - vertices[a], acy = vertices[c + 1] - vertices[a + 1], acz = vertices[c + 2] - vertices[a + 2];
+                float nx = aby * acz - abz * acy;
+                float ny = abz * acx - abx * acz;
+                float nz = abx * acy - aby * acx;
+                float area = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+                float cx = (vertices[a] + vertices[b] + vertices[c]) / 3;
+                float cy = (vertices[a + 1] + vertices[b + 1] + vertices[c + 1]) / 3;
+                float cz = (vertices[a + 2] + vertices[b + 2] + vertices[c + 2]) / 3;
+                clusterData[base] += cx * area;
+                clusterData[base + 1] += cy * area;
+                clusterData[base + 2] += cz * area;
+                clusterData[base + 3] += nx;
+                clusterData[base + 4] += ny;
+                clusterData[base + 5] += nz;
+                clusterData[base + 6] += area;
+            }
+            meshX += clusterData[base];
+            meshY += clusterData[base + 1];
+            meshZ += clusterData[base + 2];
+            meshArea += clusterData[base + 6];
+        }
+        if (meshArea > 0) {
+            meshX /= meshArea;
+            meshY /= meshArea;
+            meshZ /= meshArea;
+        }
+        float[] sortKeys = new float[clusterCount];
+        for (int cluster = 0; cluster < clusterCount; cluster++) {
+            int base = cluster * 7;
+            float area = clusterData[base + 6];
+            if (area <= 0) {
+                continue;
+            }
+            float dx = clusterData[base] / area - meshX;
+            float dy = clusterData[base + 1] / area - meshY;
+            float dz = clusterData[base + 2] / area - meshZ;
+            float nx = clusterData[base + 3], ny = clusterData[base + 4], nz = clusterData[base + 5];
+            float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+            sortKeys[cluster] = length > 0 ? (dx * nx + dy * ny + dz * nz) / length : 0;
+        }
+
+        Integer[] order = new Integer[clusterCount];
+        for (int i = 0; i < clusterCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) -> Float.compare(sortKeys[second], sortKeys[first])); // stabil, absteigend
+        int[] output = new int[indices.length];
+        int out = 0;
+        for (int cluster : order) {
+            int from = clusters[cluster] * 3;
+            int length = clusters[cluster + 1] * 3 - from;
+            System.arraycopy(indices, from, output, out, length);
+            out += length;
+        }
+        System.arraycopy(output, 0, indices, 0, indices.length);
+    }
+
+    /**
+     * Legt die Vertices in der Reihenfolge ab, in der sie zum ersten Mal von den Indices verwendet werden.
+     * Nicht verwendete Vertices werden entfernt.
+     *
+     * @param vertices    die verschachtelten Vertices.
+     * @param stride      die Anzahl der Floats pro Vertex.
+     * @param vertexCount die Anzahl der Vertices.
+     * @param indices     die Indices der Dreiecke.
+     * @return die neue Anzahl der Vertices.
+     */
+    public static int optimizeVertexFetch(float[] vertices, int stride, int vertexCount, int[] indices) {
+        int[] remap = new int[vertexCount];
+        Arrays.fill(remap, -1);
+        float[] source = Arrays.copyOf(vertices, vertexCount * stride);
+        int fetchedCount = 0;
+        for (int i = 0; i < indices.length; i++) {
+            int vertex = indices[i];
+            if (remap[vertex] < 0) {
+                System.arraycopy(source, vertex * stride, vertices, fetchedCount * stride, stride);
+                remap[vertex] = fetchedCount++;
+            }
+            indices[i] = remap[vertex];
+        }
+        return fetchedCount;
+    }
+
+    /**
+     * Der Score eines Vertex nach Forsyth.
+     *
+     * @param cachePosition     die Position im simulierten LRU Cache (-1, wenn nicht im Cache).
+     * @param remainingValence  die Anzahl der noch nicht ausgegebenen Dreiecke, die den Vertex verwenden.
+     */
+    private static float vertexScore(int cachePosition, int remainingValence) {
+        if (remainingValence == 0) {
+            return -1; // Wird von keinem Dreieck mehr verwendet
+        }
+        float score = 0;
+        if (cachePosition >= 0) {
+            if (cachePosition < 3) {
+                score = LAST_TRIANGLE_SCORE; // Vertices des letzten Dreiecks bekommen einen festen Score
+            } else {
+                float scaler = 1.0f / (FORSYTH_CACHE_SIZE - 3);
+                score = (float) Math.pow(1.0f - (cachePosition - 3) * scaler, CACHE_DECAY_POWER);
+            }
+        }
+        score += VALENCE_BOOST_SCALE * (float) Math.pow(remainingValence, -VALENCE_BOOST_POWER);
+        return score;
+    }
+
+    /**
+     * Entfernt ein Dreieck aus dem aktiven Bereich der Adjazenzliste eines Vertex.
+     */
+    private static void removeAdjacentTriangle(int[] adjacency, int offset, int remaining, int triangle) {
+        int last = offset + remaining - 1;
+        for (int i = offset; i <= last; i++) {
+            if (adjacency[i] == triangle) {
+                adjacency[i] = adjacency[last];
+                adjacency[last] = triangle;
+                return;
+            }
+        }
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Simuliert einen FIFO Cache für ein Dreieck (siehe {@link VertexCacheSimulator}).
+     *
+     * @return die Anzahl der Cache Misses des Dreiecks.
+     */
+    private static int updateCache(int[] indices, int triangle, int cacheSize, int[] timestamps, int[] timestamp) {
+        int misses = 0;
+        for (int corner = 0; corner < 3; corner++) {
+            int vertex = indices[triangle * 3 + corner];
+            if (timestamp[0] - timestamps[vertex] > cacheSize) {
+                timestamps[vertex] = timestamp[0]++;
+                misses++;
+            }
+        }
+        return misses;
+    }
+
+    private static int hashVertex(float[] vertices, int offset, int stride) {
+        int hash = 0;
+        for (int i = 0; i < stride; i++) {
+            hash = hash * 31 + Float.floatToRawIntBits(vertices[offset + i]);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equalVertices(float[] vertices, int first, int second, int stride) {
+        for (int i = 0; i < stride; i++) {
+            if (Float.floatToRawIntBits(vertices[first + i]) != Float.floatToRawIntBits(vertices[second + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static float[] interleave(int vertexCount, float[][] attributes, int[] sizes) {
+        int stride = 0;
+        for (int size : sizes) {
+            stride += size;
+        }
+        float[] vertices = new float[vertexCount * stride];
+        int offset = 0;
+        for (int attribute = 0; attribute < attributes.length; attribute++) {
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                System.arraycopy(attributes[attribute], vertex * sizes[attribute], vertices, vertex * stride + offset,
+                        sizes[attribute]);
+            }
+            offset += sizes[attribute];
+        }
+        return vertices;
+    }
+
+    private static float[][] deinterleave(float[] vertices, int vertexCount, int[] sizes) {
+        int stride = 0;
+        for (int size : sizes) {
+            stride += size;
+        }
+        float[][] attributes = new float[sizes.length][];
+        int offset = 0;
+        for (int attribute = 0; attribute < sizes.length; attribute++) {
+            attributes[attribute] = new float[vertexCount * sizes[attribute]];
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                System.arraycopy(vertices, vertex * stride + offset, attributes[attribute], vertex * sizes[attribute],
+                        sizes[attribute]);
+            }
+            offset += sizes[attribute];
+        }
+        return attributes;
+    }
+
+}
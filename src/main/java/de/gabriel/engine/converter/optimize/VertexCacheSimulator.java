@@ -0,0 +1,55 @@
+package de.gabriel.engine.converter.optimize;
+
+/**
+ * Simuliert den Post-Transform Vertex Cache einer GPU auf der CPU, damit die Wirkung der {@link MeshOptimizer}
+ * Stufen ohne GPU gemessen werden kann. Der Cache wird wie bei den meisten GPUs als FIFO modelliert: ein Vertex,
+ * der nicht im Cache liegt, wird transformiert und verdrängt den ältesten Eintrag.
+ */
+public class VertexCacheSimulator {
+
+    /**
+     * Die Standardgröße des simulierten Caches (konservativ, entspricht älteren GPUs).
+     */
+    public static final int DEFAULT_CACHE_SIZE = 16;
+
+    /**
+     * Simuliert den Cache mit der {@link #DEFAULT_CACHE_SIZE}.
+     *
+     * @see #analyze(int[], int, int)
+     */
+    public static CacheStatistics analyze(int[] indices, int vertexCount) {
+        return analyze(indices, vertexCount, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Simuliert den Cache für eine Liste von Dreiecken.
+     *
+     * @param indices     die Indices der Dreiecke.
+     * @param vertexCount die Anzahl der Vertices.
+     * @param cacheSize   die Anzahl der Einträge im Cache.
+     * @return ACMR und ATVR der Index-Reihenfolge.
+     */
+    public static CacheStatistics analyze(int[] indices, int vertexCount, int cacheSize) {
+        // Zeitstempel statt einer echten Warteschlange: ein Vertex liegt im Cache, solange seit seiner
+        // Transformation weniger als cacheSize andere Vertices transformiert wurden
+        int[] timestamps = new int[vertexCount];
+        int timestamp = cacheSize + 1;
+        int misses = 0;
+        boolean[] used = new boolean[vertexCount];
+        int usedVertices = 0;
+        for (int index : indices) {
+            if (timestamp - timestamps[index] > cacheSize) {
+                timestamps[index] = timestamp++;
+                misses++;
+            }
+            if (!used[index]) {
+                used[index] = true;
+                usedVertices++;
+            }
+        }
+        int triangles = indices.length / 3;
+        return new CacheStatistics(triangles == 0 ? 0 : misses / (float) triangles,
+                usedVertices == 0 ? 0 : misses / (float) usedVertices, misses);
+    }
+
+}
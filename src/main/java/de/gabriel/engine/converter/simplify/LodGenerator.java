@@ -0,0 +1,85 @@
+package de.gabriel.engine.converter.simplify;
+
+import de.gabriel.engine.converter.obj.ModelData;
+import de.gabriel.engine.converter.optimize.MeshOptimizer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Erzeugt beim Laden die Detailstufen (Level of Detail) eines Models mit dem {@link MeshSimplifier}. Jede Stufe
+ * wird direkt aus dem Quellmodel vereinfacht (nicht aus der vorigen Stufe), damit sich die Fehler nicht aufsummieren,
+ * und anschließend mit dem {@link MeshOptimizer} für die GPU sortiert. Dabei fallen nicht mehr verwendete Vertices weg.
+ * <p>
+ * Eine Stufe wird nur übernommen, wenn sie deutlich weniger Dreiecke hat als die vorige. Erreicht die Vereinfachung
+ * das Ziel wegen des größten erlaubten Fehlers nicht mehr, werden keine weiteren Stufen erzeugt; sehr einfache
+ * Models (z.B. Gras aus wenigen Quads) behalten daher nur ihre volle Auflösung.
+ * </p>
+ *
+ * @see de.gabriel.engine.models.LodChain
+ */
+@Slf4j
+public class LodGenerator {
+
+    /**
+     * Die Anteile der Dreiecke des Quellmodels, die die Stufen 1, 2 und 3 anstreben.
+     */
+    private static final float[] DEFAULT_RATIOS = {0.5f, 0.25f, 0.125f};
+
+    /**
+     * Der größte erlaubte geometrische Fehler einer Stufe im Verhältnis zum Radius der Bounding Sphere.
+     */
+    public static final float DEFAULT_MAX_RELATIVE_ERROR = 0.05f;
+
+    /**
+     * Eine Stufe muss höchstens diesen Anteil der Dreiecke der vorigen Stufe haben, um übernommen zu werden.
+     */
+    private static final float MIN_REDUCTION = 0.8f;
+
+    /**
+     * Erzeugt die Detailstufen eines Models mit den Standardwerten.
+     *
+     * @param data die (bereits optimierten) Daten des Quellmodels.
+     * @return die Detailstufen; die erste ist das Quellmodel selbst mit einem Fehler von 0.
+     */
+    public static List<LodMesh> generate(ModelData data) {
+        return generate(data, DEFAULT_RATIOS, DEFAULT_MAX_RELATIVE_ERROR);
+    }
+
+    /**
+     * Erzeugt die Detailstufen eines Models. Die Fehler der Stufen steigen monoton.
+     *
+     * @param data             die (bereits optimierten) Daten des Quellmodels.
+     * @param ratios           die angestrebten Anteile der Dreiecke pro Stufe (absteigend).
+     * @param maxRelativeError der größte erlaubte Fehler im Verhältnis zum Radius der Bounding Sphere.
+     * @return die Detailstufen; die erste ist das Quellmodel selbst mit einem Fehler von 0.
+     */
+    public static List<LodMesh> generate(ModelData data, float[] ratios, float maxRelativeError) {
+        List<LodMesh> levels = new ArrayList<LodMesh>();
+        levels.add(new LodMesh(data, 0));
+        int sourceTriangles = data.indices().length / 3;
+        float maxError = data.furthestPoint() * maxRelativeError;
+        for (float ratio : ratios) {
+            long start = System.nanoTime();
+            LodMesh previous = levels.get(levels.size() - 1);
+            int targetTriangles = (int) (sourceTriangles * ratio);
+            SimplifiedMesh simplified = MeshSimplifier.simplify(data.vertices(), data.indices(), targetTriangles * 3, maxError);
+            if (simplified.triangleCount() > previous.triangleCount() * MIN_REDUCTION) {
+                log.info("Stopped generating LOD levels; {[Levels={}], [TargetTriangles={}], [Triangles={}], [MaxError={}]}",
+                        levels.size(), targetTriangles, simplified.triangleCount(), maxError);
+                break;
+            }
+            ModelData level = MeshOptimizer.optimize(new ModelData(data.vertices(), data.textureCoords(), data.normals(),
+                    simplified.indices(), data.furthestPoint()));
+            float error = Math.max(simplified.error(), previous.error());
+            levels.add(new LodMesh(level, error));
+            log.info("Generated LOD level; {[Level={}], [Triangles={}], [SourceTriangles={}], [Vertices={}], [Error={}], " +
+                            "[RelativeError={}], [Millis={}]}",
+                    levels.size() - 1, simplified.triangleCount(), sourceTriangles, level.vertices().length / 3, error,
+                    error / data.furthestPoint(), (System.nanoTime() - start) / 1e6);
+        }
+        return levels;
+    }
+
+}
@@ -0,0 +1,21 @@
+package de.gabriel.engine.converter.simplify;
+
+import de.gabriel.engine.converter.obj.ModelData;
+
+/**
+ * Eine Detailstufe (Level of Detail) eines Models, erzeugt vom {@link LodGenerator}.
+ *
+ * @param data  die Daten der Detailstufe.
+ * @param error der geometrische Fehler der Detailstufe gegenüber dem Quellmodel in Modellkoordinaten
+ *              (0 für das Quellmodel selbst).
+ */
+public record LodMesh(ModelData data, float error) {
+
+    /**
+     * @return die Anzahl der Dreiecke der Detailstufe.
+     */
+    public int triangleCount() {
+        return data.indices().length / 3;
+    }
+
+}
@@ -0,0 +1,599 @@
+package de.gabriel.engine.converter.simplify;
+
+import java.util.Arrays;
+
+/**
+ * Vereinfacht Models durch Edge Collapses nach der Quadric Error Metric (Garland und Heckbert, "Surface
+ * Simplification Using Quadric Errors Metrics"). Jede Kante wird auf einen ihrer beiden Endpunkte zusammengeführt
+ * (Half-Edge Collapse), daher entstehen keine neuen Vertices und die Attribute (Textur Koordinaten, Normalen)
+ * der verbliebenen Vertices bleiben unverändert.
+ * <p>
+ * Vertices mit derselben Position, aber unterschiedlichen Attributen (z.B. an einer UV-Naht) werden als
+ * zusammengehörig erkannt. Jede Position wird vor jedem Durchgang eingeordnet:
+ * <ul>
+ *     <li>{@link #MANIFOLD}: nur ein Vertex, rundum geschlossen. Darf auf jeden Nachbarn zusammengeführt werden.</li>
+ *     <li>{@link #BORDER}: nur ein Vertex am offenen Rand. Darf nur entlang des Randes zusammengeführt werden.</li>
+ *     <li>{@link #SEAM}: genau zwei Vertices auf einer Naht. Darf nur entlang der Naht zusammengeführt werden,
+ *     wobei beide Vertices gemeinsam verschoben werden, damit die Naht geschlossen bleibt.</li>
+ *     <li>{@link #LOCKED}: alles andere (Ecken von Nähten, nicht-mannigfaltige Stellen). Wird nie verschoben.</li>
+ * </ul>
+ * Ränder und Nähte erhalten zusätzlich Ebenen senkrecht zu ihren Dreiecken in ihrer Quadrik, damit ihr Verlauf
+ * erhalten bleibt. Kollabierte Kanten, die ein benachbartes Dreieck umklappen würden, werden verworfen.
+ * </p>
+ * <p>
+ * Die Vereinfachung läuft in Durchgängen: pro Durchgang werden die Kosten aller Kanten berechnet und die
+ * günstigsten Kanten zusammengeführt, wobei jede Position nur einmal pro Durchgang beteiligt sein darf. Alle
+ * Schritte sind deterministisch; dieselbe Eingabe ergibt immer dieselben Indices. Benötigt keinen OpenGL-Context.
+ * </p>
+ *
+ * @see LodGenerator
+ */
+public class MeshSimplifier {
+
+    /**
+     * Ein Vertex im Inneren einer Fläche.
+     */
+    private static final byte MANIFOLD = 0;
+
+    /**
+     * Ein Vertex am offenen Rand des Models.
+     */
+    private static final byte BORDER = 1;
+
+    /**
+     * Ein Paar von Vertices auf einer Naht der Attribute (z.B. Textur Koordinaten).
+     */
+    private static final byte SEAM = 2;
+
+    /**
+     * Ein Vertex, der nicht verschoben werden darf.
+     */
+    private static final byte LOCKED = 3;
+
+    /**
+     * Das Gewicht der Ebenen an Rändern und Nähten im Verhältnis zu den Ebenen der Dreiecke.
+     */
+    private static final double EDGE_WEIGHT = 10;
+
+    /**
+     * Pro Durchgang werden nur Kanten zusammengeführt, deren Kosten höchstens um diesen Faktor über den Kosten
+     * der Kante liegen, mit der das Ziel des Durchgangs erreicht würde. Die Kosten weiterer Kanten sind nach den
+     * ersten Collapses des Durchgangs nicht mehr aktuell.
+     */
+    private static final double PASS_ERROR_FACTOR = 1.5;
+
+    /**
+     * Anzahl der Werte einer Quadrik: die symmetrische 3x3 Matrix (6), der Vektor (3), die Konstante und das
+     * Gesamtgewicht.
+     */
+    private static final int QUADRIC_LENGTH = 11;
+
+    private final float[] positions;
+
+    private final int vertexCount;
+
+    /**
+     * Der erste Vertex mit derselben Position wie der jeweilige Vertex. Dient als Index der Position.
+     */
+    private final int[] remap;
+
+    /**
+     * Die Quadriken pro Position (Index über {@link #remap}).
+     */
+    private final double[] quadrics;
+
+    private final int[] indices;
+
+    private int indexCount;
+
+    /**
+     * Die Half-Edges aller Vertices (CSR): die Half-Edges von Vertex {@code v} liegen in
+     * {@code [adjacencyOffsets[v], adjacencyOffsets[v + 1])}.
+     */
+    private final int[] adjacencyOffsets;
+
+    /**
+     * Der Ziel-Vertex jeder Half-Edge.
+     */
+    private final int[] edgeTargets;
+
+    /**
+     * Das Dreieck jeder Half-Edge. Damit sind gleichzeitig alle Dreiecke eines Vertex bekannt.
+     */
+    private final int[] edgeTriangles;
+
+    /**
+     * Der nächste verwendete Vertex mit derselben Position (zyklische Liste; ein einzelner Vertex verweist auf sich).
+     */
+    private final int[] wedge;
+
+    /**
+     * Der Vertex, zu dem die einzige offene ausgehende Half-Edge führt: -1 ohne offene Half-Edge, der Vertex
+     * selbst bei mehreren.
+     */
+    private final int[] openOut;
+
+    /**
+     * Der Vertex, von dem die einzige offene eingehende Half-Edge kommt (Kodierung wie {@link #openOut}).
+     */
+    private final int[] openIn;
+
+    private final byte[] kinds;
+
+    /**
+     * Das Ziel jedes Vertex im aktuellen Durchgang (der Vertex selbst, wenn er nicht zusammengeführt wird).
+     */
+    private final int[] collapseRemap;
+
+    /**
+     * Positionen, die im aktuellen Durchgang bereits an einem Collapse beteiligt waren.
+     */
+    private final boolean[] locked;
+
+    private final int[] candidateFrom;
+
+    private final int[] candidateTo;
+
+    private final float[] candidateCosts;
+
+    private final long[] candidateOrder;
+
+    /**
+     * Die größten Kosten aller bisher durchgeführten Collapses (quadratischer Abstand).
+     */
+    private double resultCost;
+
+    private MeshSimplifier(float[] positions, int[] indices) {
+        this.positions = positions;
+        this.vertexCount = positions.length / 3;
+        this.indices = indices.clone();
+        this.indexCount = indices.length;
+        this.remap = remapPositions(positions, vertexCount);
+        this.quadrics = new double[vertexCount * QUADRIC_LENGTH];
+        this.adjacencyOffsets = new int[vertexCount + 1];
+        this.edgeTargets = new int[indices.length];
+        this.edgeTriangles = new int[indices.length];
+        this.wedge = new int[vertexCount];
+        this.openOut = new int[vertexCount];
+        this.openIn = new int[vertexCount];
+        this.kinds = new byte[vertexCount];
+        this.collapseRemap = new int[vertexCount];
+        this.locked = new boolean[vertexCount];
+        this.candidateFrom = new int[indices.length];
+        this.candidateTo = new int[indices.length];
+        this.candidateCosts = new float[indices.length];
+        this.candidateOrder = new long[indices.length];
+    }
+
+    /**
+     * Vereinfacht ein Model, bis die Anzahl der Indices erreicht ist oder keine Kante mehr innerhalb des
+     * Fehlers zusammengeführt werden kann.
+     *
+     * @param positions        die Positionen der Vertices (3 Floats pro Vertex).
+     * @param indices          die Indices der Dreiecke (werden nicht verändert).
+     * @param targetIndexCount die gewünschte Anzahl der Indices.
+     * @param targetError      der größte erlaubte geometrische Fehler in Modellkoordinaten.
+     * @return die Indices der verbliebenen Dreiecke und der tatsächliche Fehler.
+     */
+    public static SimplifiedMesh simplify(float[] positions, int[] indices, int targetIndexCount, float targetError) {
+        return new MeshSimplifier(positions, indices).simplify(targetIndexCount, (double) targetError * targetError);
+    }
+
+    private SimplifiedMesh simplify(int targetIndexCount, double maxCost) {
+        updateTopology();
+        computeQuadrics();
+        while (indexCount > targetIndexCount) {
+            int candidateCount = collectCandidates();
+            if (candidateCount == 0) {
+                break;
+            }
+            int goalTriangles = (indexCount - targetIndexCount) / 3;
+            if (performCollapses(candidateCount, Math.max(goalTriangles, 1), maxCost) == 0) {
+                break;
+            }
+            applyCollapses();
+            updateTopology();
+        }
+        return new SimplifiedMesh(Arrays.copyOf(indices, indexCount), (float) Math.sqrt(resultCost));
+    }
+
+    /**
+     * Ordnet jedem Vertex den ersten Vertex mit bitweise gleicher Position zu (Hash Map mit offener Adressierung).
+     */
+    private static int[] remapPositions(float[] positions, int vertexCount) {
+        int capacity = Integer.highestOneBit(Math.max(vertexCount, 1) * 2 - 1) << 1;
+        int[] table = new int[capacity];
+        Arrays.fill(table, -1);
+        int[] remap = new int[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            int hash = 17;
+            for (int axis = 0; axis < 3; axis++) {
+                // + 0f macht aus -0 eine 0, damit beide dieselbe Position ergeben
+                hash = hash * 31 + Float.floatToIntBits(positions[vertex * 3 + axis] + 0f);
+            }
+            int slot = (hash ^ hash >>> 16) & (capacity - 1);
+            while (table[slot] >= 0 && !samePosition(positions, table[slot], vertex)) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (table[slot] < 0) {
+                table[slot] = vertex;
+            }
+            remap[vertex] = table[slot];
+        }
+        return remap;
+    }
+
+    private static boolean samePosition(float[] positions, int first, int second) {
+        return positions[first * 3] + 0f == positions[second * 3] + 0f
+                && positions[first * 3 + 1] + 0f == positions[second * 3 + 1] + 0f
+                && positions[first * 3 + 2] + 0f == positions[second * 3 + 2] + 0f;
+    }
+
+    /**
+     * Baut die Half-Edges, die Listen der Vertices mit gleicher Position und die offenen Kanten aus den aktuellen
+     * Dreiecken neu auf und ordnet jeden Vertex ein.
+     */
+    private void updateTopology() {
+        Arrays.fill(adjacencyOffsets, 0);
+        for (int i = 0; i < indexCount; i++) {
+            adjacencyOffsets[indices[i] + 1]++;
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            adjacencyOffsets[vertex + 1] += adjacencyOffsets[vertex];
+        }
+        // collapseRemap dient hier als Schreibposition pro Vertex
+        System.arraycopy(adjacencyOffsets, 0, collapseRemap, 0, vertexCount);
+        for (int triangle = 0; triangle < indexCount / 3; triangle++) {
+            for (int corner = 0; corner < 3; corner++) {
+                int from = indices[triangle * 3 + corner];
+                int position = collapseRemap[from]++;
+                edgeTargets[position] = indices[triangle * 3 + (corner + 1) % 3];
+                edgeTriangles[position] = triangle;
+            }
+        }
+
+        // Zyklische Listen der verwendeten Vertices mit derselben Position; openIn und openOut dienen dabei
+        // vorübergehend als erster und letzter Vertex jeder Liste
+        Arrays.fill(openIn, -1);
+        Arrays.fill(openOut, -1);
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            wedge[vertex] = vertex;
+            if (isUsed(vertex)) {
+                int position = remap[vertex];
+                if (openIn[position] < 0) {
+                    openIn[position] = vertex;
+                } else {
+                    wedge[openOut[position]] = vertex;
+                }
+                openOut[position] = vertex;
+            }
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            if (isUsed(vertex) && openIn[remap[vertex]] == vertex) {
+                wedge[openOut[remap[vertex]]] = vertex;
+            }
+        }
+
+        Arrays.fill(openIn, -1);
+        Arrays.fill(openOut, -1);
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            for (int edge = adjacencyOffsets[vertex]; edge < adjacencyOffsets[vertex + 1]; edge++) {
+                int target = edgeTargets[edge];
+                if (!hasEdge(target, vertex)) {
+                    openOut[vertex] = openOut[vertex] < 0 ? target : vertex;
+                    openIn[target] = openIn[target] < 0 ? vertex : target;
+                }
+            }
+        }
+
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            kinds[vertex] = classify(vertex);
+        }
+    }
+
+    private byte classify(int vertex) {
+        if (!isUsed(vertex)) {
+            return LOCKED;
+        }
+        int sibling = wedge[vertex];
+        if (sibling == vertex) {
+            if (openIn[vertex] < 0 && openOut[vertex] < 0) {
+                return MANIFOLD;
+            }
+            // Eine offene Kante, die in Positionen geschlossen ist, ist das Ende einer Naht
+            if (isSingle(openIn[vertex], vertex) && isSingle(openOut[vertex], vertex)
+                    && !hasPositionEdge(openOut[vertex], vertex) && !hasPositionEdge(vertex, openIn[vertex])) {
+                return BORDER;
+            }
+            return LOCKED;
+        }
+        if (wedge[sibling] == vertex
+                && isSingle(openIn[vertex], vertex) && isSingle(openOut[vertex], vertex)
+                && isSingle(openIn[sibling], sibling) && isSingle(openOut[sibling], sibling)
+                && remap[openIn[vertex]] == remap[openOut[sibling]]
+                && remap[openOut[vertex]] == remap[openIn[sibling]]
+                && remap[openIn[vertex]] != remap[openOut[vertex]]) {
+            return SEAM;
+        }
+        return LOCKED;
+    }
+
+    private boolean isUsed(int vertex) {
+        return adjacencyOffsets[vertex + 1] > adjacencyOffsets[vertex];
+    }
+
+    private static boolean isSingle(int open, int vertex) {
+        return open >= 0 && open != vertex;
+    }
+
+    /**
+     * @return true, wenn es die Half-Edge von {@code from} nach {@code to} gibt.
+     */
+    private boolean hasEdge(int from, int to) {
+        for (int edge = adjacencyOffsets[from]; edge < adjacencyOffsets[from + 1]; edge++) {
+            if (edgeTargets[edge] == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true, wenn es eine Half-Edge von der Position von {@code from} zur Position von {@code to} gibt,
+     * egal zwischen welchen Vertices dieser Positionen.
+     */
+    private boolean hasPositionEdge(int from, int to) {
+        int vertex = from;
+        do {
+            for (int edge = adjacencyOffsets[vertex]; edge < adjacencyOffsets[vertex + 1]; edge++) {
+                if (remap[edgeTargets[edge]] == remap[to]) {
+                    return true;
+                }
+            }
+            vertex = wedge[vertex];
+        } while (vertex != from);
+        return false;
+    }
+
+    /**
+     * Berechnet die Quadriken aller Positionen aus den Ebenen ihrer Dreiecke (gewichtet mit der Fläche) und den
+     * Ebenen entlang der Ränder und Nähte.
+     */
+    private void computeQuadrics() {
+        for (int triangle = 0; triangle < indexCount / 3; triangle++) {
+            int a = indices[triangle * 3];
+            int b = indices[triangle * 3 + 1];
+            int c = indices[triangle * 3 + 2];
+            double abX = positions[b * 3] - positions[a * 3];
+            double abY = positions[b * 3 + 1] - positions[a * 3 + 1];
+            double abZ = positions[b * 3 + 2] - positions[a * 3 + 2];
+            double acX = positions[c * 3] - positions[a * 3];
+            double acY = positions[c * 3 + 1] - positions[a * 3 + 1];
+            double acZ = positions[c * 3 + 2] - positions[a * 3 + 2];
+            double nX = abY * acZ - abZ * acY;
+            double nY = abZ * acX - abX * acZ;
+            double nZ = abX * acY - abY * acX;
+            double length = Math.sqrt(nX * nX + nY * nY + nZ * nZ);
+            if (length == 0) {
+                continue;
+            }
+            nX /= length;
+            nY /= length;
+            nZ /= length;
+            double d = -(nX * positions[a * 3] + nY * positions[a * 3 + 1] + nZ * positions[a * 3 + 2]);
+            addPlane(remap[a], nX, nY, nZ, d, length);
+            addPlane(remap[b], nX, nY, nZ, d, length);
+            addPlane(remap[c], nX, nY, nZ, d, length);
+
+            for (int corner = 0; corner < 3; corner++) {
+                int from = indices[triangle * 3 + corner];
+                int to = indices[triangle * 3 + (corner + 1) % 3];
+                if (hasEdge(to, from) || kinds[from] == LOCKED && kinds[to] == LOCKED) {
+                    continue;
+                }
+                double eX = positions[to * 3] - positions[from * 3];
+                double eY = positions[to * 3 + 1] - positions[from * 3 + 1];
+                double eZ = positions[to * 3 + 2] - positions[from * 3 + 2];
+                double edgeLength = Math.sqrt(eX * eX + eY * eY + eZ * eZ);
+                if (edgeLength == 0) {
+                    continue;
+                }
+                // Die Ebene enthält die Kante und steht senkrecht auf dem Dreieck
+                double pX = (eY * nZ - eZ * nY) / edgeLength;
+                double pY = (eZ * nX - eX * nZ) / edgeLength;
+                double pZ = (eX * nY - eY * nX) / edgeLength;
+                double pD = -(pX * positions[from * 3] + pY * positions[from * 3 + 1] + pZ * positions[from * 3 + 2]);
+                double weight = edgeLength * edgeLength * EDGE_WEIGHT;
+                addPlane(remap[from], pX, pY, pZ, pD, weight);
+                addPlane(remap[to], pX, pY, pZ, pD, weight);
+            }
+        }
+    }
+
+    private void addPlane(int position, double x, double y, double z, double d, double weight) {
+        int offset = position * QUADRIC_LENGTH;
+        quadrics[offset] += weight * x * x;
+        quadrics[offset + 1] += weight * y * y;
+        quadrics[offset + 2] += weight * z * z;
+        quadrics[offset + 3] += weight * x * y;
+        quadrics[offset + 4] += weight * x * z;
+        quadrics[offset + 5] += weight * y * z;
+        quadrics[offset + 6] += weight * x * d;
+        quadrics[offset + 7] += weight * y * d;
+        quadrics[offset + 8] += weight * z * d;
+        quadrics[offset + 9] += weight * d * d;
+        quadrics[offset + 10] += weight;
+    }
+
+    /**
+     * Der gewichtete mittlere quadratische Abstand eines Vertex zu den Ebenen einer Quadrik.
+     */
+    private double quadricError(int position, int vertex) {
+        int offset = position * QUADRIC_LENGTH;
+        double weight = quadrics[offset + 10];
+        if (weight == 0) {
+            return 0;
+        }
+        double x = positions[vertex * 3];
+        double y = positions[vertex * 3 + 1];
+        double z = positions[vertex * 3 + 2];
+        double error = quadrics[offset] * x * x + quadrics[offset + 1] * y * y + quadrics[offset + 2] * z * z
+                + 2 * (quadrics[offset + 3] * x * y + quadrics[offset + 4] * x * z + quadrics[offset + 5] * y * z)
+                + 2 * (quadrics[offset + 6] * x + quadrics[offset + 7] * y + quadrics[offset + 8] * z)
+                + quadrics[offset + 9];
+        return Math.abs(error) / weight;
+    }
+
+    /**
+     * @return true, wenn der Vertex {@code from} auf den Vertex {@code to} zusammengeführt werden darf.
+     */
+    private boolean canCollapse(int from, int to) {
+        return switch (kinds[from]) {
+            case MANIFOLD -> true;
+            case BORDER, SEAM -> (kinds[to] == kinds[from] || kinds[to] == LOCKED)
+                    && (to == openOut[from] || to == openIn[from]);
+            default -> false;
+        };
+    }
+
+    /**
+     * Sammelt für jede Kante der aktuellen Dreiecke die günstigere erlaubte Richtung und sortiert die Kanten
+     * nach ihren Kosten.
+     *
+     * @return die Anzahl der Kanten.
+     */
+    private int collectCandidates() {
+        int count = 0;
+        for (int i = 0; i < indexCount; i++) {
+            int from = indices[i];
+            int to = indices[i - i % 3 + (i + 1) % 3];
+            if (from > to && hasEdge(to, from)) {
+                continue; // Innere Kanten nur einmal betrachten
+            }
+            double forward = canCollapse(from, to) ? quadricError(remap[from], to) : Double.POSITIVE_INFINITY;
+            double backward = canCollapse(to, from) ? quadricError(remap[to], from) : Double.POSITIVE_INFINITY;
+            if (forward == Double.POSITIVE_INFINITY && backward == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            boolean reverse = backward < forward;
+            candidateFrom[count] = reverse ? to : from;
+            candidateTo[count] = reverse ? from : to;
+            candidateCosts[count] = (float) Math.min(forward, backward);
+            // Nicht negative Floats lassen sich über ihre Bits sortieren; der Index macht die Reihenfolge eindeutig
+            candidateOrder[count] = (long) Float.floatToIntBits(candidateCosts[count]) << 32 | count;
+            count++;
+        }
+        Arrays.sort(candidateOrder, 0, count);
+        return count;
+    }
+
+    /**
+     * Führt die günstigsten Kanten zusammen, bis das Ziel des Durchgangs erreicht ist.
+     *
+     * @return die Anzahl der zusammengeführten Kanten.
+     */
+    private int performCollapses(int candidateCount, int goalTriangles, double maxCost) {
+        int goalCandidate = (int) candidateOrder[Math.min(candidateCount - 1, goalTriangles / 2)];
+        double passCost = Math.min(maxCost, candidateCosts[goalCandidate] * PASS_ERROR_FACTOR);
+        Arrays.fill(locked, false);
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            collapseRemap[vertex] = vertex;
+        }
+        int collapses = 0;
+        int removedTriangles = 0;
+        for (int i = 0; i < candidateCount && removedTriangles < goalTriangles; i++) {
+            int candidate = (int) candidateOrder[i];
+            double cost = candidateCosts[candidate];
+            if (cost > passCost) {
+                break;
+            }
+            int from = candidateFrom[candidate];
+            int to = candidateTo[candidate];
+            if (locked[remap[from]] || locked[remap[to]]) {
+                continue;
+            }
+            int sibling = -1;
+            int siblingTarget = -1;
+            if (kinds[from] == SEAM) {
+                sibling = wedge[from];
+                siblingTarget = to == openOut[from] ? openIn[sibling] : openOut[sibling];
+            }
+            if (hasTriangleFlips(from, to) || sibling >= 0 && hasTriangleFlips(sibling, siblingTarget)) {
+                continue;
+            }
+            collapseRemap[from] = to;
+            if (sibling >= 0) {
+                collapseRemap[sibling] = siblingTarget;
+            }
+            int fromOffset = remap[from] * QUADRIC_LENGTH;
+            int toOffset = remap[to] * QUADRIC_LENGTH;
+            for (int value = 0; value < QUADRIC_LENGTH; value++) {
+                quadrics[toOffset + value] += quadrics[fromOffset + value];
+            }
+            locked[remap[from]] = true;
+            locked[remap[to]] = true;
+            resultCost = Math.max(resultCost, cost);
+            removedTriangles += kinds[from] == BORDER ? 1 : 2;
+            collapses++;
+        }
+        return collapses;
+    }
+
+    /**
+     * Prüft, ob eines der Dreiecke um {@code from} umklappen oder zu einer Linie entarten würde, wenn
+     * {@code from} auf {@code to} verschoben wird. Dreiecke, die {@code to} enthalten, fallen ohnehin weg.
+     */
+    private boolean hasTriangleFlips(int from, int to) {
+        for (int edge = adjacencyOffsets[from]; edge < adjacencyOffsets[from + 1]; edge++) {
+            int triangle = edgeTriangles[edge];
+            int a = collapseRemap[indices[triangle * 3]];
+            int b = collapseRemap[indices[triangle * 3 + 1]];
+            int c = collapseRemap[indices[triangle * 3 + 2]];
+            if (remap[a] == remap[to] || remap[b] == remap[to] || remap[c] == remap[to]) {
+                continue;
+            }
+            double[] before = normal(a, b, c);
+            double[] after = normal(a == from ? to : a, b == from ? to : b, c == from ? to : c);
+            if (before[0] == 0 && before[1] == 0 && before[2] == 0) {
+                continue;
+            }
+            if (before[0] * after[0] + before[1] * after[1] + before[2] * after[2] <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return die (nicht normalisierte) Normale eines Dreiecks.
+     */
+    private double[] normal(int a, int b, int c) {
+        double abX = positions[b * 3] - positions[a * 3];
+        double abY = positions[b * 3 + 1] - positions[a * 3 + 1];
+        double abZ = positions[b * 3 + 2] - positions[a * 3 + 2];
+        double acX = positions[c * 3] - positions[a * 3];
+        double acY = positions[c * 3 + 1] - positions[a * 3 + 1];
+        double acZ = positions[c * 3 + 2] - positions[a * 3 + 2];
+        return new double[]{abY * acZ - abZ * acY, abZ * acX - abX * acZ, abX * acY - abY * acX};
+    }
+
+    /**
+     * Ersetzt die zusammengeführten Vertices in den Indices und entfernt dabei Dreiecke, deren Fläche 0 geworden ist.
+     */
+    private void applyCollapses() {
+        int written = 0;
+        for (int i = 0; i < indexCount; i += 3) {
+            int a = collapseRemap[indices[i]];
+            int b = collapseRemap[indices[i + 1]];
+            int c = collapseRemap[indices[i + 2]];
+            if (remap[a] == remap[b] || remap[b] == remap[c] || remap[a] == remap[c]) {
+                continue;
+            }
+            indices[written++] = a;
+            indices[written++] = b;
+            indices[written++] = c;
+        }
+        indexCount = written;
+    }
+
+}
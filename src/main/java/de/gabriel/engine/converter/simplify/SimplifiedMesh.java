@@ -0,0 +1,22 @@
+package de.gabriel.engine.converter.simplify;
+
+/**
+ * Das Ergebnis einer Vereinfachung mit dem {@link MeshSimplifier}.
+ *
+ * @param indices die Indices der verbliebenen Dreiecke. Sie verweisen weiterhin auf die Vertices des Quellmodels;
+ *                nicht mehr verwendete Vertices werden nicht entfernt.
+ * @param error   der geometrische Fehler in Modellkoordinaten: die Wurzel der größten Kosten aller Collapses, also
+ *                des mit der Fläche gewichteten mittleren quadratischen Abstands eines verschobenen Vertex zu den
+ *                Dreiecken des Quellmodels, die er ersetzt (0, wenn nur ebene Flächen zusammengeführt wurden).
+ *                Die größte Abweichung einzelner Punkte kann darüber liegen.
+ */
+public record SimplifiedMesh(int[] indices, float error) {
+
+    /**
+     * @return die Anzahl der verbliebenen Dreiecke.
+     */
+    public int triangleCount() {
+        return indices.length / 3;
+    }
+
+}
@@ -0,0 +1,31 @@
+package de.gabriel.engine.converter.vertex;
+
+import de.gabriel.engine.models.PositionDecode;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Dieser Record hält die Daten eines Models so, wie sie der {@link VertexPacker} für ein {@link VertexLayout}
+ * gepackt hat: alle Attribute verschachtelt in einem Buffer und die Indices in der kleinsten passenden Breite.
+ *
+ * @param vertices       die verschachtelten Attribute aller Vertices.
+ * @param indices        die Indices des Models.
+ * @param indexType      der Datentyp der Indices ({@code GL_UNSIGNED_BYTE}, {@code GL_UNSIGNED_SHORT} oder
+ *                       {@code GL_UNSIGNED_INT}).
+ * @param indexCount     die Anzahl der Indices.
+ * @param vertexCount    die Anzahl der Vertices.
+ * @param layout         das Layout der Vertices.
+ * @param positionDecode die Umrechnung der quantisierten Positionen in Modellkoordinaten.
+ * @param boundingRadius der Radius der Bounding Sphere um den Ursprung, inklusive des Quantisierungsfehlers.
+ */
+public record PackedMesh(ByteBuffer vertices, ByteBuffer indices, int indexType, int indexCount, int vertexCount,
+                         VertexLayout layout, PositionDecode positionDecode, float boundingRadius) {
+
+    /**
+     * @return die Größe der Vertex- und Index-Daten in Bytes.
+     */
+    public long bytes() {
+        return (long) vertices.remaining() + indices.remaining();
+    }
+
+}
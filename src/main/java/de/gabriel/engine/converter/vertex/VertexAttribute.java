@@ -0,0 +1,11 @@
+package de.gabriel.engine.converter.vertex;
+
+/**
+ * Ein Attribut eines Vertex innerhalb eines {@link VertexLayout}s.
+ *
+ * @param location die Nummer des Attributes im VAO (bzw. die Location im Shader).
+ * @param format   das Format, in dem das Attribut gespeichert wird.
+ * @param offset   der Offset des Attributes innerhalb eines Vertex in Bytes.
+ */
+public record VertexAttribute(int location, VertexFormat format, int offset) {
+}
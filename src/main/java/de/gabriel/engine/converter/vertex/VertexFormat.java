@@ -0,0 +1,73 @@
+package de.gabriel.engine.converter.vertex;
+
+import lombok.Getter;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL33;
+
+/**
+ * Die Formate, in denen ein Attribut eines Vertex im VBO gespeichert werden kann. Jedes Format belegt ein
+ * Vielfaches von 4 Bytes, damit alle Attribute im verschachtelten Buffer an 4 Bytes ausgerichtet bleiben.
+ *
+ * @see VertexLayout
+ * @see VertexPacker
+ */
+@Getter
+public enum VertexFormat {
+
+    /**
+     * Zwei 32-Bit Floats (z.B. Textur Koordinaten ohne Quantisierung).
+     */
+    FLOAT2(2, GL11.GL_FLOAT, false, 2 * Float.BYTES),
+
+    /**
+     * Drei 32-Bit Floats (z.B. Positionen, Normalen oder Tangenten ohne Quantisierung).
+     */
+    FLOAT3(3, GL11.GL_FLOAT, false, 3 * Float.BYTES),
+
+    /**
+     * Drei normalisierte 16-Bit Integer, relativ zur Bounding Box des Models (nur für Positionen). Der Shader
+     * erhält Werte im Bereich [-1, 1], die er mit der {@link de.gabriel.engine.models.PositionDecode} zurückrechnet.
+     * Belegt 8 Bytes (2 Bytes Padding).
+     */
+    SNORM16X3(3, GL11.GL_SHORT, true, 4 * Short.BYTES),
+
+    /**
+     * Zwei 16-Bit Half Floats (z.B. Textur Koordinaten).
+     */
+    HALF2(2, GL30.GL_HALF_FLOAT, false, 2 * Short.BYTES),
+
+    /**
+     * Ein Richtungsvektor mit drei normalisierten 10-Bit Komponenten in einem 32-Bit Integer
+     * ({@code GL_INT_2_10_10_10_REV}); die 2 Bits der vierten Komponente bleiben leer (z.B. Normalen und Tangenten).
+     */
+    SNORM_2_10_10_10(4, GL33.GL_INT_2_10_10_10_REV, true, Integer.BYTES);
+
+    /**
+     * Die Anzahl der Komponenten, wie sie an {@code glVertexAttribPointer} übergeben wird.
+     */
+    private final int components;
+
+    /**
+     * Der OpenGL-Datentyp der Komponenten.
+     */
+    private final int glType;
+
+    /**
+     * Ob die Werte beim Lesen im Shader normalisiert werden.
+     */
+    private final boolean normalized;
+
+    /**
+     * Die Anzahl der Bytes, die das Attribut pro Vertex belegt.
+     */
+    private final int bytes;
+
+    VertexFormat(int components, int glType, boolean normalized, int bytes) {
+        this.components = components;
+        this.glType = glType;
+        this.normalized = normalized;
+        this.bytes = bytes;
+    }
+
+}
@@ -0,0 +1,92 @@
+package de.gabriel.engine.converter.vertex;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Beschreibt, wie die Attribute eines Vertex verschachtelt (interleaved) in einem einzigen VBO liegen. Das Attribut
+ * mit dem Index i im Layout wird an die Location i des VAOs gebunden; die Offsets ergeben sich aus der Reihenfolge.
+ * <p>
+ * Ein Layout darf höchstens ein Attribut im Format {@link VertexFormat#SNORM16X3} enthalten, da für ein Model nur
+ * eine {@link de.gabriel.engine.models.PositionDecode} existiert.
+ * </p>
+ *
+ * @see VertexPacker
+ */
+@Getter
+public class VertexLayout {
+
+    /**
+     * Position, Textur Koordinaten und Normale als 32-Bit Floats (32 Bytes pro Vertex).
+     */
+    public static final VertexLayout STANDARD = new VertexLayout(
+            VertexFormat.FLOAT3, VertexFormat.FLOAT2, VertexFormat.FLOAT3);
+
+    /**
+     * Wie {@link #STANDARD}, zusätzlich mit einer Tangente für Normal Mapping (44 Bytes pro Vertex).
+     */
+    public static final VertexLayout STANDARD_NORMAL_MAPPED = new VertexLayout(
+            VertexFormat.FLOAT3, VertexFormat.FLOAT2, VertexFormat.FLOAT3, VertexFormat.FLOAT3);
+
+    /**
+     * Quantisierte Position (16 Bit), Textur Koordinaten als Half Floats und eine gepackte Normale
+     * (16 Bytes pro Vertex).
+     */
+    public static final VertexLayout QUANTIZED = new VertexLayout(
+            VertexFormat.SNORM16X3, VertexFormat.HALF2, VertexFormat.SNORM_2_10_10_10);
+
+    /**
+     * Wie {@link #QUANTIZED}, zusätzlich mit einer gepackten Tangente für Normal Mapping (20 Bytes pro Vertex).
+     */
+    public static final VertexLayout QUANTIZED_NORMAL_MAPPED = new VertexLayout(
+            VertexFormat.SNORM16X3, VertexFormat.HALF2, VertexFormat.SNORM_2_10_10_10, VertexFormat.SNORM_2_10_10_10);
+
+    /**
+     * Die Attribute in der Reihenfolge ihrer Locations.
+     */
+    private final List<VertexAttribute> attributes;
+
+    /**
+     * Der Abstand zwischen zwei Vertices im Buffer in Bytes.
+     */
+    private final int stride;
+
+    /**
+     * @param formats die Formate der Attribute in der Reihenfolge ihrer Locations.
+     * @throws IllegalArgumentException wenn mehr als ein Attribut im Format {@link VertexFormat#SNORM16X3} vorkommt.
+     */
+    public VertexLayout(VertexFormat... formats) {
+        VertexAttribute[] attributes = new VertexAttribute[formats.length];
+        int offset = 0;
+        int quantizedPositions = 0;
+        for (int i = 0; i < formats.length; i++) {
+            attributes[i] = new VertexAttribute(i, formats[i], offset);
+            offset += formats[i].getBytes();
+            if (formats[i] == VertexFormat.SNORM16X3) {
+                quantizedPositions++;
+            }
+        }
+        if (quantizedPositions > 1) {
+            throw new IllegalArgumentException("A vertex layout may contain at most one quantized position attribute");
+        }
+        this.attributes = List.of(attributes);
+        this.stride = offset;
+    }
+
+    /**
+     * @return die Anzahl der Attribute.
+     */
+    public int size() {
+        return attributes.size();
+    }
+
+    /**
+     * @param location die Location des Attributes.
+     * @return das Attribut.
+     */
+    public VertexAttribute get(int location) {
+        return attributes.get(location);
+    }
+
+}
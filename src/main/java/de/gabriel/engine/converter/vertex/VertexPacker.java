@@ -0,0 +1,265 @@
+package de.gabriel.engine.converter.vertex;
+
+import de.gabriel.engine.converter.normals.ModelDataNM;
+import de.gabriel.engine.converter.obj.MeshData;
+import de.gabriel.engine.models.PositionDecode;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Packt die Attribute eines Models in einen verschachtelten Buffer nach einem {@link VertexLayout} und quantisiert
+ * sie dabei je nach {@link VertexFormat}:
+ * <ul>
+ *     <li>{@link VertexFormat#SNORM16X3}: Positionen relativ zur Bounding Box, Fehler höchstens eine halbe Stufe
+ *     ({@code halbeAusdehnung / 32767 / 2}) pro Achse</li>
+ *     <li>{@link VertexFormat#HALF2}: Half Floats, relativer Fehler höchstens 2<sup>-11</sup></li>
+ *     <li>{@link VertexFormat#SNORM_2_10_10_10}: normalisierte Richtungen, Fehler höchstens {@code 1 / 511 / 2}
+ *     pro Komponente</li>
+ * </ul>
+ * Die Breite der Indices wird anhand der Anzahl der Vertices gewählt. Benötigt keinen OpenGL-Context und kann
+ * daher auf einem Worker-Thread laufen.
+ *
+ * @see de.gabriel.engine.converter.Loader#loadToVAO(PackedMesh)
+ */
+public class VertexPacker {
+
+    /**
+     * Der größte Wert eines normalisierten 16-Bit Integers.
+     */
+    public static final int SNORM16_MAX = Short.MAX_VALUE;
+
+    /**
+     * Der größte Wert einer normalisierten 10-Bit Komponente.
+     */
+    public static final int SNORM10_MAX = 511;
+
+    /**
+     * Packt ein Model aus dem {@link de.gabriel.engine.converter.obj.OBJFileLoader} im Layout {@link VertexLayout#QUANTIZED}.
+     *
+     * @param data die Daten des Models.
+     * @return das gepackte Model.
+     */
+    public static PackedMesh pack(MeshData data) {
+        VertexStream[] streams = {
+                new VertexStream(data.vertices(), 0, MeshData.VERTEX_LENGTH),
+                new VertexStream(data.vertices(), 3, MeshData.VERTEX_LENGTH),
+                new VertexStream(data.vertices(), 5, MeshData.VERTEX_LENGTH)
+        };
+        return pack(VertexLayout.QUANTIZED, streams, data.vertexCount(), data.indices(), data.furthestPoint());
+    }
+
+    /**
+     * Packt ein Model für Normal Mapping im Layout {@link VertexLayout#QUANTIZED_NORMAL_MAPPED}.
+     *
+     * @param data die Daten des Models inklusive Tangenten.
+     * @return das gepackte Model.
+     */
+    public static PackedMesh pack(ModelDataNM data) {
+        VertexStream[] streams = {
+                VertexStream.of(data.getVertices(), 3),
+                VertexStream.of(data.getTextureCoords(), 2),
+                VertexStream.of(data.getNormals(), 3),
+                VertexStream.of(data.getTangents(), 3)
+        };
+        return pack(VertexLayout.QUANTIZED_NORMAL_MAPPED, streams, data.getVertices().length / 3,
+                IntBuffer.wrap(data.getIndices()), data.getFurthestPoint());
+    }
+
+    /**
+     * Packt die Attribute aller Vertices nach einem Layout.
+     *
+     * @param layout         das Layout der Vertices.
+     * @param streams        die Quelldaten, ein Eintrag pro Attribut des Layouts.
+     * @param vertexCount    die Anzahl der Vertices.
+     * @param indices        die Indices (absolut gelesen, die Position des Buffers wird nicht verändert).
+     * @param boundingRadius der Radius der Bounding Sphere der Quelldaten.
+     * @return das gepackte Model.
+     * @throws IllegalArgumentException wenn die Anzahl der Quelldaten nicht zum Layout passt.
+     */
+    public static PackedMesh pack(VertexLayout layout, VertexStream[] streams, int vertexCount, IntBuffer indices,
+                                  float boundingRadius) {
+        if (streams.length != layout.size()) {
+            throw new IllegalArgumentException("Expected " + layout.size() + " vertex streams but got " + streams.length);
+        }
+        PositionDecode decode = PositionDecode.IDENTITY;
+        float radiusError = 0;
+        for (int i = 0; i < layout.size(); i++) {
+            if (layout.get(i).format() == VertexFormat.SNORM16X3) {
+                decode = positionDecode(streams[i], vertexCount);
+                radiusError = maxPositionError(decode);
+            }
+        }
+
+        ByteBuffer vertices = BufferUtils.createByteBuffer(vertexCount * layout.getStride());
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            for (int i = 0; i < layout.size(); i++) {
+                putAttribute(vertices, layout.get(i).format(), streams[i], vertex, decode);
+            }
+        }
+        vertices.flip();
+
+        int indexType = indexType(vertexCount);
+        return new PackedMesh(vertices, packIndices(indices, indexType), indexType, indices.remaining(), vertexCount,
+                layout, decode, boundingRadius + radiusError);
+    }
+
+    /**
+     * Packt Indices in einen Buffer mit dem angegebenen Datentyp.
+     *
+     * @param indices   die Indices (absolut gelesen, die Position des Buffers wird nicht verändert).
+     * @param indexType der Datentyp der Indices ({@code GL_UNSIGNED_BYTE}, {@code GL_UNSIGNED_SHORT} oder
+     *                  {@code GL_UNSIGNED_INT}); alle Indices müssen darin darstellbar sein.
+     * @return die gepackten Indices.
+     */
+    public static ByteBuffer packIndices(IntBuffer indices, int indexType) {
+        int indexCount = indices.remaining();
+        ByteBuffer packedIndices = BufferUtils.createByteBuffer(indexCount * indexBytes(indexType));
+        for (int i = 0; i < indexCount; i++) {
+            int index = indices.get(indices.position() + i);
+            switch (indexType) {
+                case GL11.GL_UNSIGNED_BYTE -> packedIndices.put((byte) index);
+                case GL11.GL_UNSIGNED_SHORT -> packedIndices.putShort((short) index);
+                default -> packedIndices.putInt(index);
+            }
+        }
+        packedIndices.flip();
+        return packedIndices;
+    }
+
+    /**
+     * Wählt den kleinsten Datentyp, mit dem alle Vertices eines Models indiziert werden können.
+     *
+     * @param vertexCount die Anzahl der Vertices.
+     * @return {@code GL_UNSIGNED_BYTE}, {@code GL_UNSIGNED_SHORT} oder {@code GL_UNSIGNED_INT}.
+     */
+    public static int indexType(int vertexCount) {
+        if (vertexCount <= 1 << 8) {
+            return GL11.GL_UNSIGNED_BYTE;
+        }
+        if (vertexCount <= 1 << 16) {
+            return GL11.GL_UNSIGNED_SHORT;
+        }
+        return GL11.GL_UNSIGNED_INT;
+    }
+
+    /**
+     * @param indexType der Datentyp der Indices.
+     * @return die Anzahl der Bytes pro Index.
+     */
+    public static int indexBytes(int indexType) {
+        return switch (indexType) {
+            case GL11.GL_UNSIGNED_BYTE -> Byte.BYTES;
+            case GL11.GL_UNSIGNED_SHORT -> Short.BYTES;
+            default -> Integer.BYTES;
+        };
+    }
+
+    /**
+     * Quantisiert einen Wert im Bereich [-1, 1] auf einen normalisierten 16-Bit Integer.
+     */
+    public static short quantizeSnorm16(float value) {
+        return (short) Math.round(Math.max(-1f, Math.min(1f, value)) * SNORM16_MAX);
+    }
+
+    /**
+     * Rechnet einen normalisierten 16-Bit Integer so zurück, wie es OpenGL beim Lesen des Attributes tut.
+     */
+    public static float dequantizeSnorm16(short value) {
+        return Math.max(value / (float) SNORM16_MAX, -1f);
+    }
+
+    /**
+     * Packt eine Richtung in das Format {@code GL_INT_2_10_10_10_REV} (X in den Bits 0-9, Y in 10-19, Z in 20-29).
+     * Die Richtung wird vorher normalisiert; ein Nullvektor bleibt ein Nullvektor.
+     */
+    public static int packSnorm10(float x, float y, float z) {
+        float length = (float) Math.sqrt(x * x + y * y + z * z);
+        if (length > 0) {
+            x /= length;
+            y /= length;
+            z /= length;
+        }
+        return (quantizeSnorm10(x) & 0x3FF) | (quantizeSnorm10(y) & 0x3FF) << 10 | (quantizeSnorm10(z) & 0x3FF) << 20;
+    }
+
+    /**
+     * Liest eine Komponente aus einem mit {@link #packSnorm10(float, float, float)} gepackten Wert so zurück,
+     * wie es OpenGL beim Lesen des Attributes tut.
+     *
+     * @param packed    der gepackte Wert.
+     * @param component die Komponente (0 = X, 1 = Y, 2 = Z).
+     */
+    public static float unpackSnorm10(int packed, int component) {
+        int value = (packed << (22 - component * 10)) >> 22; // Vorzeichenerweiterung der 10 Bits
+        return Math.max(value / (float) SNORM10_MAX, -1f);
+    }
+
+    private static int quantizeSnorm10(float value) {
+        return Math.round(Math.max(-1f, Math.min(1f, value)) * SNORM10_MAX);
+    }
+
+    /**
+     * Berechnet Mittelpunkt und halbe Ausdehnung der Bounding Box aller Positionen.
+     */
+    private static PositionDecode positionDecode(VertexStream positions, int vertexCount) {
+        float[] min = {Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY};
+        float[] max = {Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY};
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            for (int axis = 0; axis < 3; axis++) {
+                float value = positions.get(vertex, axis);
+                min[axis] = Math.min(min[axis], value);
+                max[axis] = Math.max(max[axis], value);
+            }
+        }
+        if (vertexCount == 0) {
+            return PositionDecode.IDENTITY;
+        }
+        return new PositionDecode(
+                (min[0] + max[0]) / 2, (min[1] + max[1]) / 2, (min[2] + max[2]) / 2,
+                halfExtent(min[0], max[0]), halfExtent(min[1], max[1]), halfExtent(min[2], max[2]));
+    }
+
+    /**
+     * Die halbe Ausdehnung einer Achse. Ist das Model auf einer Achse flach, wird 1 verwendet, damit nicht
+     * durch 0 geteilt wird (alle Werte liegen dann ohnehin genau auf dem Mittelpunkt).
+     */
+    private static float halfExtent(float min, float max) {
+        float halfExtent = (max - min) / 2;
+        return halfExtent > 0 ? halfExtent : 1;
+    }
+
+    /**
+     * Der größte Abstand, um den eine quantisierte Position von ihrer Quellposition abweichen kann.
+     */
+    private static float maxPositionError(PositionDecode decode) {
+        float x = decode.scaleX() / SNORM16_MAX / 2;
+        float y = decode.scaleY() / SNORM16_MAX / 2;
+        float z = decode.scaleZ() / SNORM16_MAX / 2;
+        return (float) Math.sqrt(x * x + y * y + z * z);
+    }
+
+    /**
+     * Schreibt ein Attribut eines Vertex im angegebenen Format an die aktuelle Position des Buffers.
+     */
+    private static void putAttribute(ByteBuffer buffer, VertexFormat format, VertexStream stream, int vertex,
+                                     PositionDecode decode) {
+        switch (format) {
+            case FLOAT2 -> buffer.putFloat(stream.get(vertex, 0)).putFloat(stream.get(vertex, 1));
+            case FLOAT3 -> buffer.putFloat(stream.get(vertex, 0)).putFloat(stream.get(vertex, 1))
+                    .putFloat(stream.get(vertex, 2));
+            case SNORM16X3 -> buffer
+                    .putShort(quantizeSnorm16((stream.get(vertex, 0) - decode.offsetX()) / decode.scaleX()))
+                    .putShort(quantizeSnorm16((stream.get(vertex, 1) - decode.offsetY()) / decode.scaleY()))
+                    .putShort(quantizeSnorm16((stream.get(vertex, 2) - decode.offsetZ()) / decode.scaleZ()))
+                    .putShort((short) 0); // Padding auf 4 Bytes
+            case HALF2 -> buffer.putShort(Float.floatToFloat16(stream.get(vertex, 0)))
+                    .putShort(Float.floatToFloat16(stream.get(vertex, 1)));
+            case SNORM_2_10_10_10 -> buffer.putInt(
+                    packSnorm10(stream.get(vertex, 0), stream.get(vertex, 1), stream.get(vertex, 2)));
+        }
+    }
+
+}
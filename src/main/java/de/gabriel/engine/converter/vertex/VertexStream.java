@@ -0,0 +1,35 @@
+package de.gabriel.engine.converter.vertex;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Die Quelldaten eines Attributes für den {@link VertexPacker}: die Float-Werte aller Vertices, entweder einzeln in
+ * einem Array oder verschachtelt mit anderen Attributen in einem Buffer.
+ *
+ * @param data   die Quelldaten (absolut gelesen, die Position des Buffers wird nicht verändert).
+ * @param offset der Index der ersten Komponente des ersten Vertex.
+ * @param stride der Abstand zwischen zwei Vertices in Floats.
+ */
+public record VertexStream(FloatBuffer data, int offset, int stride) {
+
+    /**
+     * Erstellt die Quelldaten eines Attributes aus einem Array, in dem nur dieses Attribut liegt.
+     *
+     * @param data       die Werte aller Vertices.
+     * @param components die Anzahl der Komponenten pro Vertex.
+     * @return die Quelldaten.
+     */
+    public static VertexStream of(float[] data, int components) {
+        return new VertexStream(FloatBuffer.wrap(data), 0, components);
+    }
+
+    /**
+     * @param vertex    der Index des Vertex.
+     * @param component der Index der Komponente.
+     * @return der Wert der Komponente des Vertex.
+     */
+    public float get(int vertex, int component) {
+        return data.get(data.position() + offset + vertex * stride + component);
+    }
+
+}
@@ -1,6 +1,6 @@
 package de.gabriel.engine.entities;
 
-import de.gabriel.engine.terrain.Terrain;
+import de.gabriel.engine.terrain.TerrainHeights;
 import lombok.Getter;
 import lombok.Setter;
 import org.joml.Vector3f;
@@ -134,9 +134,10 @@ public class Camera {
      * Aktualisiert die Position der Kamera, was relevant für die
      * Sprungmechanik ist.
      *
-     * @param delta die Zeit, die seit dem letzten Frame vergangen ist.
+     * @param delta   die Zeit, die seit dem letzten Frame vergangen ist.
+     * @param terrain die Höhen des Bodens (ein einzelnes Terrain oder eine ganze Welt aus Kacheln).
      */
-    public void update(float delta, Terrain terrain) {
+    public void update(float delta, TerrainHeights terrain) {
         float height = terrain.getHeightOfTerrain(position.x, position.z); // Höhe des Terrains an der Position der Kamera
 
         if (isJumping) {
@@ -1,9 +1,14 @@
 package de.gabriel.engine.entities;
 
 import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.scene.Occluder;
+import de.gabriel.engine.utils.Maths;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.joml.Matrix4f;
 import org.joml.Vector3f;
+import org.joml.Vector4f;
 
 @Getter
 @Setter
@@ -36,6 +41,69 @@ public class Entity {
      */
     private int textureIndex = 0;
 
+    /**
+     * Die Detailstufe, mit der die Entity zuletzt gerendert wurde (0 = volle Auflösung). Wird von der Render Queue
+     * gesetzt und für die Hysterese beim Wechsel der Stufe verwendet.
+     *
+     * @see de.gabriel.engine.models.LodChain
+     */
+    private int lodLevel;
+
+    /**
+     * Wie weit die Entity zuletzt vom Modell zum Impostor überblendet wurde (0 = nur Modell, 1 = nur Impostor).
+     * Wird von der Render Queue gesetzt; die Shader verwerfen danach komplementäre Pixel von Modell und Impostor.
+     *
+     * @see de.gabriel.engine.models.Impostor#fade(float, float, float)
+     */
+    private float impostorFade;
+
+    /**
+     * Ob die Entity bereits zum Aktualisieren im räumlichen Index vorgemerkt ist. Wird von der Render Queue gesetzt,
+     * damit eine Entity auch bei mehreren Änderungen pro Frame nur einmal in ihrer Liste steht.
+     */
+    private boolean indexUpdatePending;
+
+    /**
+     * Wird über Änderungen des Modells und der Transformation benachrichtigt (z.B. die Render Queue,
+     * in der die Entity registriert ist). Standardmäßig gibt es keinen Listener (null).
+     */
+    private EntityListener listener;
+
+    /**
+     * Die vereinfachte Form, mit der die Entity beim Occlusion Culling andere Entities verdeckt, oder null, wenn
+     * sie nichts verdeckt (Standard). Muss vor dem Registrieren im Renderer gesetzt werden.
+     *
+     * @see de.gabriel.engine.scene.OcclusionCuller
+     */
+    private Occluder occluder;
+
+    /**
+     * Die zwischengespeicherte Transformationsmatrix der Entity. Sie wird nur neu berechnet, wenn sich die
+     * Transformation seit der letzten Abfrage geändert hat.
+     *
+     * @see Entity#getTransformationMatrix()
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Matrix4f transformationMatrix = new Matrix4f();
+
+    /**
+     * Die zwischengespeicherte Bounding Sphere der Entity im Weltkoordinatensystem (x, y, z = Mittelpunkt, w = Radius).
+     * Wird zusammen mit der Transformationsmatrix aktualisiert.
+     *
+     * @see Entity#getWorldBoundingSphere()
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Vector4f worldBoundingSphere = new Vector4f();
+
+    /**
+     * Gibt an, ob die Transformationsmatrix und die Bounding Sphere neu berechnet werden müssen.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean transformDirty = true;
+
     public Entity(TexturedModel model, Vector3f position, float rotX, float rotY, float rotZ, float scale) {
         this.model = model;
         this.position = position;
@@ -55,6 +123,115 @@ public class Entity {
         this.scale = scale;
     }
 
+    /**
+     * Setzt das texturierte Modell der Entity und benachrichtigt den {@link EntityListener}, damit die Entity
+     * in den Batch des neuen Modells verschoben werden kann.
+     *
+     * @param model das neue texturierte Modell.
+     */
+    public void setModel(TexturedModel model) {
+        TexturedModel oldModel = this.model;
+        this.model = model;
+        transformDirty = true; // Das neue Modell kann einen anderen Radius der Bounding Sphere haben
+        if (listener != null && oldModel != model) {
+            listener.onModelChanged(this, oldModel);
+        }
+    }
+
+    /**
+     * Setzt die Position der Entity.
+     *
+     * @param position die neue Position.
+     */
+    public void setPosition(Vector3f position) {
+        this.position = position;
+        transformChanged();
+    }
+
+    public void setRotX(float rotX) {
+        this.rotX = rotX;
+        transformChanged();
+    }
+
+    public void setRotY(float rotY) {
+        this.rotY = rotY;
+        transformChanged();
+    }
+
+    public void setRotZ(float rotZ) {
+        this.rotZ = rotZ;
+        transformChanged();
+    }
+
+    /**
+     * Setzt die Skalierung der Entity.
+     *
+     * @param scale die neue Skalierung.
+     */
+    public void setScale(float scale) {
+        this.scale = scale;
+        transformChanged();
+    }
+
+    /**
+     * Markiert die zwischengespeicherte Transformation als veraltet und benachrichtigt den {@link EntityListener}.
+     * <p>
+     * Wird die Position direkt über {@link #getPosition()} verändert, muss anschließend {@link #setPosition(Vector3f)}
+     * aufgerufen werden, da die Änderung sonst nicht erkannt wird.
+     * </p>
+     */
+    private void transformChanged() {
+        transformDirty = true;
+        if (listener != null) {
+            listener.onTransformChanged(this);
+        }
+    }
+
+    /**
+     * Die Transformationsmatrix der Entity. Für statische Entities wird sie nur einmal berechnet und
+     * danach in jedem Frame wiederverwendet.
+     *
+     * @return die zwischengespeicherte Transformationsmatrix (darf nicht verändert werden).
+     */
+    public Matrix4f getTransformationMatrix() {
+        updateTransform();
+        return transformationMatrix;
+    }
+
+    /**
+     * Die Bounding Sphere der Entity im Weltkoordinatensystem. Die Bounding Sphere des Modells
+     * liegt um dessen Ursprung und wird daher nur mit der Skalierung der Entity skaliert; ihr Mittelpunkt ist
+     * die Position der Entity.
+     *
+     * @return die zwischengespeicherte Bounding Sphere (x, y, z = Mittelpunkt, w = Radius; darf nicht verändert werden).
+     */
+    public Vector4f getWorldBoundingSphere() {
+        updateTransform();
+        return worldBoundingSphere;
+    }
+
+    /**
+     * Radius der Bounding Sphere der Entity im Weltkoordinatensystem.
+     *
+     * @return der Radius der Bounding Sphere der Entity.
+     * @see Entity#getWorldBoundingSphere()
+     */
+    public float getBoundingRadius() {
+        return getWorldBoundingSphere().w;
+    }
+
+    /**
+     * Berechnet die Transformationsmatrix und die Bounding Sphere neu, falls sich die Transformation geändert hat.
+     */
+    private void updateTransform() {
+        if (!transformDirty) {
+            return;
+        }
+        Maths.createTransformationMatrix(position, rotX, rotY, rotZ, scale, transformationMatrix);
+        worldBoundingSphere.set(position.x, position.y, position.z, model.boundingRadius() * scale);
+        transformDirty = false;
+    }
+
     /**
      * X Offset der Textur innerhalb des Texturatlasses.
      *
@@ -86,6 +263,7 @@ public class Entity {
         this.position.x += dx;
         this.position.y += dy;
         this.position.z += dz;
+        transformChanged();
     }
 
     /**
@@ -99,5 +277,6 @@ public class Entity {
         this.rotX += dx;
         this.rotY += dy;
         this.rotZ += dz;
+        transformChanged();
     }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package de.gabriel.engine.entities;
+
+import de.gabriel.engine.models.TexturedModel;
+
+/**
+ * Wird von einer {@link Entity} benachrichtigt, wenn sich ihr Modell oder ihre Transformation ändert.
+ * Dadurch müssen z.B. Render Queues nicht jeden Frame alle Entities neu einsortieren, sondern nur
+ * auf tatsächliche Änderungen reagieren.
+ *
+ * @see de.gabriel.engine.renderer.RenderQueue
+ */
+public interface EntityListener {
+
+    /**
+     * Wird aufgerufen, nachdem sich das texturierte Modell einer Entity geändert hat.
+     *
+     * @param entity   die Entity.
+     * @param oldModel das vorherige texturierte Modell der Entity.
+     */
+    void onModelChanged(Entity entity, TexturedModel oldModel);
+
+    /**
+     * Wird aufgerufen, nachdem sich die Position, Rotation oder Skalierung einer Entity geändert hat.
+     *
+     * @param entity die Entity.
+     */
+    void onTransformChanged(Entity entity);
+
+}
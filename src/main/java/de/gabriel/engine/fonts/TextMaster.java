@@ -42,8 +42,9 @@ public class TextMaster {
     public static void removeText(GUIText text) {
         List<GUIText> textBatch = texts.get(text.getFont());
         textBatch.remove(text);
+        loader.deleteVAO(text.getMesh()); // Das VAO des Textes wird nicht mehr benötigt
         if (textBatch.isEmpty()) {
-            texts.remove(texts.get(text.getFont()));
+            texts.remove(text.getFont());
         }
     }
 
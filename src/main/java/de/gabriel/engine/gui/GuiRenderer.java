@@ -2,17 +2,25 @@ package de.gabriel.engine.gui;
 
 import de.gabriel.engine.converter.Loader;
 import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.profiler.Profiler;
+import de.gabriel.engine.renderer.FrameStatistics;
 import de.gabriel.engine.utils.Maths;
 import org.joml.Matrix4f;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
 import org.lwjgl.opengl.GL20;
-import org.lwjgl.opengl.GL30;
 
 import java.util.List;
 
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
+
 public class GuiRenderer {
 
+    /**
+     * Die Zone des Renderers im {@link Profiler}.
+     */
+    private static final int PROFILER_ZONE = Profiler.zone("GuiRenderer", true);
+
     /**
      * Das Rechteck, auf dem die GUI Elemente als Textur gerendert werden.
      */
@@ -20,6 +28,11 @@ public class GuiRenderer {
 
     private GuiShader shader;
 
+    /**
+     * Wiederverwendete Transformationsmatrix für die GUI Elemente.
+     */
+    private final Matrix4f transformationMatrix = new Matrix4f();
+
     public GuiRenderer(Loader loader) {
         float[] positions = {-1, 1, -1, -1, 1, 1, 1, -1}; // Nutzen von Triangle Strips; Automatische Generation von Dreiecken nach Angaben der nächsten Vertex für das nächste Dreieck
         quad = loader.loadToVAO(positions, 2);
@@ -32,26 +45,29 @@ public class GuiRenderer {
      * @param guis die Texturen, die als GUI Elemente gerendert werden sollen.
      */
     public void render(List<GuiTexture> guis) {
+        Profiler.begin(PROFILER_ZONE);
         shader.start();
-        GL30.glBindVertexArray(quad.vaoID());
-        GL20.glEnableVertexAttribArray(0);
-        GL11.glEnable(GL11.GL_BLEND);
-        GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
-        GL11.glDisable(GL11.GL_DEPTH_TEST);
+        gl().bindVertexArray(quad.vaoID());
+        gl().enableVertexAttribArray(0);
+        gl().enable(GL11.GL_BLEND);
+        gl().blendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        gl().disable(GL11.GL_DEPTH_TEST);
         for (GuiTexture gui : guis) {
-            GL13.glActiveTexture(GL13.GL_TEXTURE0);
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, gui.textureID());
+            gl().activeTexture(GL13.GL_TEXTURE0);
+            gl().bindTexture(GL11.GL_TEXTURE_2D, gui.textureID());
 
-            Matrix4f matrix = Maths.createTransformationMatrix(gui.position(), gui.scale());
-            shader.loadTransformation(matrix);
+            Maths.createTransformationMatrix(gui.position(), gui.scale(), transformationMatrix);
+            shader.loadTransformation(transformationMatrix);
 
-            GL20.glDrawArrays(GL20.GL_TRIANGLE_STRIP, 0, quad.vertexCount()); // Rendert das GUI Element
+            gl().drawArrays(GL20.GL_TRIANGLE_STRIP, 0, quad.vertexCount()); // Rendert das GUI Element
+            FrameStatistics.increment(FrameStatistics.Counter.DRAW_CALLS);
         }
-        GL11.glEnable(GL11.GL_DEPTH_TEST);
-        GL11.glDisable(GL11.GL_BLEND);
-        GL20.glDisableVertexAttribArray(0);
-        GL30.glBindVertexArray(0);
+        gl().enable(GL11.GL_DEPTH_TEST);
+        gl().disable(GL11.GL_BLEND);
+        gl().disableVertexAttribArray(0);
+        gl().bindVertexArray(0);
         shader.stop();
+        Profiler.end(PROFILER_ZONE);
     }
 
     public void cleanUp() {
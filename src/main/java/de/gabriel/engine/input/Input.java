@@ -39,6 +39,18 @@ public class Input {
     private boolean isMovingRight = false;
     private boolean isJumping = false;
 
+    /**
+     * Ob das Overlay des Profilers angezeigt werden soll (umgeschaltet mit F3).
+     */
+    private boolean showProfiler = false;
+
+    /**
+     * Ob ein Chrome Trace des Profilers angefordert wurde (F4).
+     *
+     * @see #pollTraceRequest()
+     */
+    private boolean traceRequested = false;
+
     /**
      * Der Input Handler erstellt im Konstruktor die Callbacks für die Tastatur und die Maus,
      * um die Eingaben des Spielers zu verarbeiten.
@@ -83,6 +95,12 @@ public class Input {
                 if (key == GLFW_KEY_F && action == GLFW_PRESS) {
                     glfwSetWindowMonitor(window, glfwGetPrimaryMonitor(), 0, 0, WindowManager.WIDTH, WindowManager.HEIGHT, GLFW_DONT_CARE);
                 }
+                if (key == GLFW_KEY_F3 && action == GLFW_PRESS) {
+                    showProfiler = !showProfiler;
+                }
+                if (key == GLFW_KEY_F4 && action == GLFW_PRESS) {
+                    traceRequested = true;
+                }
             }
         };
 
@@ -129,6 +147,17 @@ public class Input {
         }
     }
 
+    /**
+     * Gibt zurück, ob seit dem letzten Aufruf ein Chrome Trace angefordert wurde, und setzt die Anforderung zurück.
+     *
+     * @return true, wenn F4 gedrückt wurde.
+     */
+    public boolean pollTraceRequest() {
+        boolean requested = traceRequested;
+        traceRequested = false;
+        return requested;
+    }
+
     /**
      * Gibt die Callbacks frei, um Speicherlecks zu vermeiden.
      */
@@ -0,0 +1,118 @@
+package de.gabriel.engine.models;
+
+/**
+ * Dieser Record beschreibt das Impostor eines Modells: Bilder des Modells aus mehreren Blickrichtungen (Frames), die
+ * in einem Atlas liegen. Weit entfernte Entities werden statt mit dem Modell als Quad mit dem Frame gerendert,
+ * dessen Blickrichtung der Richtung zur Kamera am nächsten liegt.
+ * <p>
+ * Die Frames liegen in einem Raster aus {@code columns} Spalten (Blickrichtungen rund um die Y-Achse, beginnend bei
+ * +Z) und {@code rows} Zeilen (Höhenwinkel von 0° bis {@link #MAX_ELEVATION}). Jedes Frame zeigt die Bounding Sphere
+ * des Impostors orthografisch, mit der Y-Achse nach oben. Rotationen der Entity um die X- und Z-Achse werden nicht
+ * berücksichtigt.
+ * </p>
+ * <p>
+ * Alle Berechnungen (Auswahl des Frames, Überblendung) verwenden kein OpenGL.
+ * </p>
+ *
+ * @param albedoTextureID die ID der Textur mit den Farben der Frames (Alpha 0 außerhalb des Modells).
+ * @param normalTextureID die ID der Textur mit den Normalen der Frames im Modellkoordinatensystem.
+ * @param u               die X Position des ersten Frames im Atlas (Texturkoordinaten).
+ * @param v               die Y Position des ersten Frames im Atlas (Texturkoordinaten).
+ * @param frameSize       die Kantenlänge eines Frames im Atlas (Texturkoordinaten).
+ * @param columns         die Anzahl der Blickrichtungen rund um die Y-Achse.
+ * @param rows            die Anzahl der Höhenwinkel.
+ * @param centerX         der Mittelpunkt der Bounding Sphere des Impostors im Modellkoordinatensystem (X).
+ * @param centerY         der Mittelpunkt der Bounding Sphere des Impostors im Modellkoordinatensystem (Y).
+ * @param centerZ         der Mittelpunkt der Bounding Sphere des Impostors im Modellkoordinatensystem (Z).
+ * @param radius          der Radius der Bounding Sphere des Impostors im Modellkoordinatensystem.
+ * @see de.gabriel.engine.renderer.ImpostorAtlas
+ */
+public record Impostor(int albedoTextureID, int normalTextureID, float u, float v, float frameSize, int columns,
+                       int rows, float centerX, float centerY, float centerZ, float radius) {
+
+    /**
+     * Der größte Höhenwinkel der Frames in Radiant (60°). Von weiter oben wird das Frame dieses Winkels verwendet.
+     */
+    public static final float MAX_ELEVATION = (float) Math.toRadians(60);
+
+    /**
+     * @return die Anzahl der Frames.
+     */
+    public int frameCount() {
+        return columns * rows;
+    }
+
+    /**
+     * Wählt das Frame, dessen Blickrichtung einer Richtung am nächsten liegt.
+     *
+     * @param x die Richtung vom Mittelpunkt zur Kamera im Modellkoordinatensystem (X, muss nicht normiert sein).
+     * @param y die Richtung vom Mittelpunkt zur Kamera im Modellkoordinatensystem (Y).
+     * @param z die Richtung vom Mittelpunkt zur Kamera im Modellkoordinatensystem (Z).
+     * @return der Index des Frames ({@code row * columns + column}).
+     */
+    public int selectFrame(float x, float y, float z) {
+        double yaw = Math.atan2(x, z);
+        if (yaw < 0) {
+            yaw += 2 * Math.PI;
+        }
+        int column = (int) Math.round(yaw * columns / (2 * Math.PI)) % columns;
+        int row = 0;
+        if (rows > 1) {
+            double elevation = Math.atan2(y, Math.sqrt(x * x + z * z));
+            row = (int) Math.round(elevation * (rows - 1) / MAX_ELEVATION);
+            row = Math.min(Math.max(row, 0), rows - 1);
+        }
+        return row * columns + column;
+    }
+
+    /**
+     * @param frame der Index des Frames.
+     * @return die X Position der linken unteren Ecke des Frames im Atlas (Texturkoordinaten).
+     */
+    public float frameU(int frame) {
+        return u + frame % columns * frameSize;
+    }
+
+    /**
+     * @param frame der Index des Frames.
+     * @return die Y Position der linken unteren Ecke des Frames im Atlas (Texturkoordinaten).
+     */
+    public float frameV(int frame) {
+        return v + frame / columns * frameSize;
+    }
+
+    /**
+     * @param frame der Index des Frames.
+     * @return der Winkel der Blickrichtung des Frames um die Y-Achse in Radiant (0 = aus Richtung +Z).
+     */
+    public float frameYaw(int frame) {
+        return (float) (frame % columns * 2 * Math.PI / columns);
+    }
+
+    /**
+     * @param frame der Index des Frames.
+     * @return der Höhenwinkel der Blickrichtung des Frames in Radiant.
+     */
+    public float frameElevation(int frame) {
+        return rows > 1 ? frame / columns * MAX_ELEVATION / (rows - 1) : 0;
+    }
+
+    /**
+     * Berechnet, wie weit eine Entity vom Modell zum Impostor überblendet ist.
+     *
+     * @param distance         der Abstand der Entity zur Kamera.
+     * @param impostorDistance der Abstand, ab dem überblendet wird.
+     * @param fadeWidth        die Strecke, über die überblendet wird.
+     * @return 0, wenn nur das Modell gerendert wird, 1, wenn nur das Impostor gerendert wird, dazwischen beide.
+     */
+    public static float fade(float distance, float impostorDistance, float fadeWidth) {
+        if (distance <= impostorDistance) {
+            return 0;
+        }
+        if (fadeWidth <= 0 || distance >= impostorDistance + fadeWidth) {
+            return 1;
+        }
+        return (distance - impostorDistance) / fadeWidth;
+    }
+
+}
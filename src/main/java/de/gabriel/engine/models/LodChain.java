@@ -0,0 +1,111 @@
+package de.gabriel.engine.models;
+
+/**
+ * Die Detailstufen (Level of Detail) eines Models, jeweils als eigenes VAO. Stufe 0 ist die volle Auflösung;
+ * jede weitere Stufe hat weniger Dreiecke und einen größeren geometrischen Fehler.
+ * <p>
+ * Die Stufe einer Entity wird anhand der projizierten Größe ihrer Bounding Sphere auf dem Bildschirm gewählt:
+ * eine Stufe ist erlaubt, solange ihr Fehler auf dem Bildschirm höchstens den tolerierten Fehler in Pixeln
+ * ausmacht. Damit eine Entity an der Grenze zwischen zwei Stufen nicht in jedem Frame wechselt, wird erst dann
+ * auf eine gröbere Stufe gewechselt, wenn deren Fehler um die {@link #HYSTERESIS} unter der Toleranz liegt.
+ * </p>
+ *
+ * @see de.gabriel.engine.converter.simplify.LodGenerator
+ * @see de.gabriel.engine.renderer.RenderQueue
+ */
+public class LodChain {
+
+    /**
+     * Auf eine gröbere Stufe wird erst gewechselt, wenn ihr projizierter Fehler höchstens diesen Anteil des
+     * tolerierten Fehlers ausmacht. Auf eine feinere Stufe wird sofort gewechselt.
+     */
+    public static final float HYSTERESIS = 0.75f;
+
+    /**
+     * Die Models der Stufen, beginnend mit der vollen Auflösung.
+     */
+    private final RawModel[] levels;
+
+    /**
+     * Der geometrische Fehler jeder Stufe in Modellkoordinaten.
+     */
+    private final float[] errors;
+
+    /**
+     * Der Fehler jeder Stufe im Verhältnis zum Durchmesser der Bounding Sphere. Multipliziert mit der projizierten
+     * Größe der Bounding Sphere ergibt sich der Fehler auf dem Bildschirm.
+     */
+    private final float[] relativeErrors;
+
+    /**
+     * @param levels die Models der Stufen, beginnend mit der vollen Auflösung.
+     * @param errors der geometrische Fehler jeder Stufe in Modellkoordinaten (aufsteigend, 0 für Stufe 0).
+     * @throws IllegalArgumentException wenn keine Stufe übergeben wird oder die Anzahl der Fehler nicht passt.
+     */
+    public LodChain(RawModel[] levels, float[] errors) {
+        if (levels.length == 0 || levels.length != errors.length) {
+            throw new IllegalArgumentException("Expected one error per level but got " + errors.length
+                    + " errors for " + levels.length + " levels");
+        }
+        this.levels = levels.clone();
+        this.errors = errors.clone();
+        this.relativeErrors = new float[errors.length];
+        float diameter = 2 * levels[0].boundingRadius();
+        for (int level = 0; level < errors.length; level++) {
+            // Ohne endliche Bounding Sphere lässt sich der Fehler nicht projizieren; dann nur die volle Auflösung
+            relativeErrors[level] = Float.isFinite(diameter) && diameter > 0 ? errors[level] / diameter
+                    : errors[level] > 0 ? Float.POSITIVE_INFINITY : 0;
+        }
+    }
+
+    /**
+     * Wählt die gröbste Stufe, deren Fehler auf dem Bildschirm höchstens dem tolerierten Fehler entspricht.
+     *
+     * @param screenSize   der projizierte Durchmesser der Bounding Sphere in Pixeln.
+     * @param pixelError   der tolerierte Fehler in Pixeln.
+     * @param currentLevel die Stufe, mit der zuletzt gerendert wurde (für die Hysterese).
+     * @return die Stufe, mit der gerendert werden soll.
+     */
+    public int selectLevel(float screenSize, float pixelError, int currentLevel) {
+        int level = 0;
+        while (level + 1 < levels.length && screenSize * relativeErrors[level + 1] <= pixelError) {
+            level++;
+        }
+        while (level > currentLevel && screenSize * relativeErrors[level] > pixelError * HYSTERESIS) {
+            level--;
+        }
+        return level;
+    }
+
+    /**
+     * @return die Anzahl der Stufen (mindestens 1).
+     */
+    public int getLevelCount() {
+        return levels.length;
+    }
+
+    /**
+     * @param level die Stufe.
+     * @return das Model der Stufe.
+     */
+    public RawModel getLevel(int level) {
+        return levels[level];
+    }
+
+    /**
+     * @param level die Stufe.
+     * @return der geometrische Fehler der Stufe in Modellkoordinaten.
+     */
+    public float getError(int level) {
+        return errors[level];
+    }
+
+    /**
+     * @param level die Stufe.
+     * @return die Anzahl der Dreiecke der Stufe.
+     */
+    public int getTriangleCount(int level) {
+        return levels[level].vertexCount() / 3;
+    }
+
+}
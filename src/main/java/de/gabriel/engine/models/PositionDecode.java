@@ -0,0 +1,24 @@
+package de.gabriel.engine.models;
+
+/**
+ * Dieser Record beschreibt, wie quantisierte Positionen eines Models im Vertex Shader wieder in
+ * Modellkoordinaten umgerechnet werden: {@code position = offset + scale * quantisiertePosition}.
+ * Die quantisierten Positionen liegen dabei normalisiert im Bereich [-1, 1] (Mittelpunkt und halbe
+ * Ausdehnung der Bounding Box des Models).
+ *
+ * @param offsetX der Mittelpunkt der Bounding Box auf der X-Achse.
+ * @param offsetY der Mittelpunkt der Bounding Box auf der Y-Achse.
+ * @param offsetZ der Mittelpunkt der Bounding Box auf der Z-Achse.
+ * @param scaleX  die halbe Ausdehnung der Bounding Box auf der X-Achse.
+ * @param scaleY  die halbe Ausdehnung der Bounding Box auf der Y-Achse.
+ * @param scaleZ  die halbe Ausdehnung der Bounding Box auf der Z-Achse.
+ * @see de.gabriel.engine.converter.vertex.VertexPacker
+ */
+public record PositionDecode(float offsetX, float offsetY, float offsetZ, float scaleX, float scaleY, float scaleZ) {
+
+    /**
+     * Die Umrechnung für nicht quantisierte Positionen (Positionen bleiben unverändert).
+     */
+    public static final PositionDecode IDENTITY = new PositionDecode(0, 0, 0, 1, 1, 1);
+
+}
@@ -1,10 +1,39 @@
 package de.gabriel.engine.models;
 
+import org.lwjgl.opengl.GL11;
+
 /**
  * Dieser Record repräsentiert ein VAO mit einer einzigartigen VAO ID und einem Vertex Count.
  *
- * @param vaoID       Die VAO ID ist die ID des VAOs, welches das Modell repräsentiert.
- * @param vertexCount Der Vertex Count gibt an, wie viele Vertices sich in dem Modell befinden.
+ * @param vaoID          Die VAO ID ist die ID des VAOs, welches das Modell repräsentiert.
+ * @param vertexCount    Der Vertex Count gibt an, wie viele Vertices sich in dem Modell befinden.
+ * @param boundingRadius Der Radius der Bounding Sphere um den Ursprung des Modells, die alle Vertices enthält.
+ *                       Wird für das Frustum Culling verwendet.
+ * @param indexType      Der Datentyp der Indices ({@code GL_UNSIGNED_BYTE}, {@code GL_UNSIGNED_SHORT} oder
+ *                       {@code GL_UNSIGNED_INT}), wie er an {@code glDrawElements} übergeben wird.
+ * @param positionDecode Die Umrechnung der (quantisierten) Positionen in Modellkoordinaten.
  */
-public record RawModel(int vaoID, int vertexCount) {
+public record RawModel(int vaoID, int vertexCount, float boundingRadius, int indexType, PositionDecode positionDecode) {
+
+    /**
+     * Erstellt ein Modell mit 32-Bit Indices und nicht quantisierten Positionen.
+     *
+     * @param vaoID          die ID des VAOs.
+     * @param vertexCount    die Anzahl der Vertices.
+     * @param boundingRadius der Radius der Bounding Sphere.
+     */
+    public RawModel(int vaoID, int vertexCount, float boundingRadius) {
+        this(vaoID, vertexCount, boundingRadius, GL11.GL_UNSIGNED_INT, PositionDecode.IDENTITY);
+    }
+
+    /**
+     * Erstellt ein Modell ohne bekannte Bounding Sphere. Ein solches Modell wird nie durch das Frustum Culling verworfen.
+     *
+     * @param vaoID       die ID des VAOs.
+     * @param vertexCount die Anzahl der Vertices.
+     */
+    public RawModel(int vaoID, int vertexCount) {
+        this(vaoID, vertexCount, Float.POSITIVE_INFINITY);
+    }
+
 }
@@ -8,6 +8,51 @@ import de.gabriel.engine.textures.ModelTexture;
  *
  * @param rawModel Das {@link RawModel} repräsentiert das VAO als Modell.
  * @param texture  Die {@link ModelTexture} repräsentiert die Textur des Modells.
+ * @param lods     Die Detailstufen des Modells, deren Stufe 0 das {@link RawModel} ist, oder null, wenn das Modell
+ *                 immer in voller Auflösung gerendert wird.
+ * @param impostor Das {@link Impostor}, mit dem weit entfernte Entities des Modells als Quad gerendert werden,
+ *                 oder null, wenn das Modell immer als Modell gerendert wird.
  */
-public record TexturedModel(RawModel rawModel, ModelTexture texture) {
+public record TexturedModel(RawModel rawModel, ModelTexture texture, LodChain lods, Impostor impostor) {
+
+    /**
+     * Erstellt ein texturiertes Modell ohne Detailstufen.
+     *
+     * @param rawModel das VAO des Modells.
+     * @param texture  die Textur des Modells.
+     */
+    public TexturedModel(RawModel rawModel, ModelTexture texture) {
+        this(rawModel, texture, null, null);
+    }
+
+    /**
+     * Erstellt ein texturiertes Modell mit Detailstufen. Ohne Detailstufen wird die volle Auflösung verwendet.
+     *
+     * @param lods    die Detailstufen des Modells.
+     * @param texture die Textur des Modells.
+     */
+    public TexturedModel(LodChain lods, ModelTexture texture) {
+        this(lods.getLevel(0), texture, lods, null);
+    }
+
+    /**
+     * Erstellt eine Kopie des Modells mit einem Impostor. Entities müssen die Kopie verwenden, damit sie in der Ferne
+     * als Impostor gerendert werden.
+     *
+     * @param impostor das Impostor des Modells.
+     * @return das texturierte Modell mit Impostor.
+     * @see de.gabriel.engine.renderer.ImpostorAtlas#bake(TexturedModel)
+     */
+    public TexturedModel withImpostor(Impostor impostor) {
+        return new TexturedModel(rawModel, texture, lods, impostor);
+    }
+
+    /**
+     * @return der Radius der Bounding Sphere des Modells (im Modellkoordinatensystem).
+     * @see RawModel#boundingRadius()
+     */
+    public float boundingRadius() {
+        return rawModel.boundingRadius();
+    }
+
 }
@@ -0,0 +1,572 @@
+package de.gabriel.engine.profiler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL33;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
+
+/**
+ * Misst die CPU-Zeit (und optional die GPU-Zeit) benannter, verschachtelter Zonen eines Frames.
+ * <p>
+ * Zonen werden einmalig mit {@link #zone(String)} registriert (typischerweise als {@code static final} Konstante)
+ * und pro Frame mit {@link #begin(int)} und {@link #end(int)} geöffnet und geschlossen. Alle Zonen eines Frames
+ * liegen in der Wurzelzone {@link #FRAME}, die von {@link #endFrame()} abgeschlossen wird. Während des Frames wird
+ * nicht allokiert: Zeitstempel landen in vorab allokierten Ring Buffern mit den letzten {@link #EVENT_CAPACITY}
+ * Zonen (für den {@link #writeChromeTrace(Path) Chrome Trace}) und den Zeiten pro Zone der letzten
+ * {@link #WINDOW_FRAMES} Frames (für die {@link #getSummaries() Perzentile}).
+ * </p>
+ * <p>
+ * Zonen, die mit {@code gpu = true} registriert wurden, werden bei aktivierter {@link #setGpuTiming(boolean)
+ * GPU-Zeitmessung} zusätzlich mit Timer Queries (glQueryCounter mit GL_TIMESTAMP) gemessen. Die Ergebnisse werden
+ * erst {@link #GPU_FRAMES_IN_FLIGHT} - 1 Frames später abgefragt, damit die CPU nicht auf die GPU wartet; liegen
+ * sie dann noch nicht vor, wird der Frame verworfen.
+ * </p>
+ * <p>
+ * Der Profiler ist standardmäßig deaktiviert; dann kosten {@link #begin(int)} und {@link #end(int)} nur eine
+ * Abfrage. Er darf nur vom Render-Thread verwendet werden.
+ * </p>
+ */
+@Slf4j
+public final class Profiler {
+
+    /**
+     * Die maximale Anzahl an registrierten Zonen.
+     */
+    public static final int MAX_ZONES = 128;
+
+    /**
+     * Die maximale Verschachtelungstiefe der Zonen.
+     */
+    public static final int MAX_DEPTH = 32;
+
+    /**
+     * Die Anzahl der Zonen im Ring Buffer für den Chrome Trace (Zweierpotenz).
+     */
+    public static final int EVENT_CAPACITY = 1 << 16;
+
+    /**
+     * Die Anzahl der Frames, über die die Perzentile berechnet werden.
+     */
+    public static final int WINDOW_FRAMES = 256;
+
+    /**
+     * Die Anzahl der Frames, deren Timer Queries gleichzeitig ausstehen.
+     */
+    public static final int GPU_FRAMES_IN_FLIGHT = 3;
+
+    /**
+     * Die maximale Anzahl an GPU-Zonen pro Frame; weitere werden nur auf der CPU gemessen.
+     */
+    public static final int MAX_GPU_ZONES = 64;
+
+    private static final int EVENT_MASK = EVENT_CAPACITY - 1;
+
+    /**
+     * Die Anzahl der GPU-Zonen im Ring Buffer für den Chrome Trace (Zweierpotenz).
+     */
+    private static final int GPU_EVENT_CAPACITY = 1 << 14;
+
+    private static final int GPU_EVENT_MASK = GPU_EVENT_CAPACITY - 1;
+
+    /**
+     * Der Abstand in Frames, in dem die Zeitbasis der GPU neu mit der der CPU abgeglichen wird.
+     */
+    private static final int GPU_CALIBRATION_FRAMES = 256;
+
+    // Registrierte Zonen
+
+    private static final String[] names = new String[MAX_ZONES];
+    private static final boolean[] gpuZones = new boolean[MAX_ZONES];
+    private static int zoneCount;
+
+    /**
+     * Die Wurzelzone eines Frames, von einem {@link #endFrame()} zum nächsten.
+     */
+    public static final int FRAME = zone("Frame");
+
+    // Offene Zonen
+
+    private static final int[] stackZone = new int[MAX_DEPTH];
+    private static final long[] stackStart = new long[MAX_DEPTH];
+    private static final int[] stackGpu = new int[MAX_DEPTH];
+    private static int depth;
+
+    // Ring Buffer der abgeschlossenen Zonen (CPU)
+
+    private static final int[] eventZone = new int[EVENT_CAPACITY];
+    private static final long[] eventStart = new long[EVENT_CAPACITY];
+    private static final long[] eventEnd = new long[EVENT_CAPACITY];
+    private static long eventHead;
+
+    // Zeiten pro Zone
+
+    private static final long[] frameTime = new long[MAX_ZONES];
+    private static final int[] frameCalls = new int[MAX_ZONES];
+    private static final int[] lastCalls = new int[MAX_ZONES];
+    private static final long[][] cpuWindow = new long[MAX_ZONES][WINDOW_FRAMES];
+    private static long frames;
+
+    /**
+     * Die Zonen in der Reihenfolge, in der sie zum ersten Mal geöffnet wurden (Eltern vor Kindern), und ihre Tiefe
+     * unter {@link #FRAME}.
+     */
+    private static final int[] order = new int[MAX_ZONES];
+    private static final int[] zoneDepth = new int[MAX_ZONES];
+    private static final boolean[] seen = new boolean[MAX_ZONES];
+    private static int orderCount;
+
+    // GPU-Zeitmessung
+
+    private static final int[][] gpuQueries = new int[GPU_FRAMES_IN_FLIGHT][];
+    private static final int[][] gpuQueryZone = new int[GPU_FRAMES_IN_FLIGHT][MAX_GPU_ZONES];
+    private static final int[] gpuQueryCount = new int[GPU_FRAMES_IN_FLIGHT];
+    private static int gpuSlot;
+    private static final long[] gpuFrameTime = new long[MAX_ZONES];
+    private static final long[][] gpuWindow = new long[MAX_ZONES][WINDOW_FRAMES];
+    private static long gpuFrames;
+    private static long gpuDroppedFrames;
+
+    /**
+     * Die Differenz zwischen der {@link #clock Uhr} und dem Zeitstempel der GPU.
+     */
+    private static long gpuOffset;
+
+    private static final int[] gpuEventZone = new int[GPU_EVENT_CAPACITY];
+    private static final long[] gpuEventStart = new long[GPU_EVENT_CAPACITY];
+    private static final long[] gpuEventEnd = new long[GPU_EVENT_CAPACITY];
+    private static long gpuEventHead;
+
+    // Schalter; Änderungen werden erst mit dem nächsten Frame wirksam
+
+    private static boolean enabled;
+    private static boolean gpuTiming;
+    private static boolean pendingEnabled;
+    private static boolean pendingGpuTiming;
+
+    /**
+     * Die Uhr aller Zeitstempel in Nanosekunden; in Tests durch eine Uhr mit bekannten Zeiten ersetzbar.
+     */
+    static LongSupplier clock = System::nanoTime;
+
+    /**
+     * Der Zeitpunkt, ab dem die Zeitstempel des Chrome Trace gezählt werden.
+     */
+    private static long epoch = clock.getAsLong();
+    private static long frameStart = epoch;
+
+    private Profiler() {
+    }
+
+    /**
+     * Registriert eine Zone, die nur auf der CPU gemessen wird.
+     *
+     * @param name der Name der Zone.
+     * @return die ID der Zone für {@link #begin(int)} und {@link #end(int)}.
+     */
+    public static int zone(String name) {
+        return zone(name, false);
+    }
+
+    /**
+     * Registriert eine Zone.
+     *
+     * @param name der Name der Zone.
+     * @param gpu  ob die Zone bei aktivierter GPU-Zeitmessung auch auf der GPU gemessen wird (für Zonen, die
+     *             rendern).
+     * @return die ID der Zone für {@link #begin(int)} und {@link #end(int)}.
+     * @throws IllegalStateException wenn bereits {@link #MAX_ZONES} Zonen registriert sind.
+     */
+    public static synchronized int zone(String name, boolean gpu) {
+        if (zoneCount == MAX_ZONES) {
+            throw new IllegalStateException("Too many profiler zones: " + MAX_ZONES);
+        }
+        names[zoneCount] = name;
+        gpuZones[zoneCount] = gpu;
+        return zoneCount++;
+    }
+
+    /**
+     * Öffnet eine Zone im aktuellen Frame.
+     *
+     * @param zone die ID der Zone.
+     * @throws IllegalStateException wenn bereits {@link #MAX_DEPTH} Zonen offen sind.
+     */
+    public static void begin(int zone) {
+        if (!enabled) {
+            return;
+        }
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("Profiler zones nested too deeply: " + names[zone]);
+        }
+        if (!seen[zone]) {
+            seen[zone] = true;
+            zoneDepth[zone] = depth + 1;
+            order[orderCount++] = zone;
+        }
+        stackZone[depth] = zone;
+        stackGpu[depth] = -1;
+        if (gpuTiming && gpuZones[zone] && gpuQueryCount[gpuSlot] < MAX_GPU_ZONES) {
+            int query = gpuQueryCount[gpuSlot]++;
+            gpuQueryZone[gpuSlot][query] = zone;
+            gl().queryCounter(gpuQueries[gpuSlot][query * 2], GL33.GL_TIMESTAMP);
+            stackGpu[depth] = query;
+        }
+        stackStart[depth++] = clock.getAsLong();
+    }
+
+    /**
+     * Schließt die zuletzt geöffnete Zone.
+     *
+     * @param zone die ID der Zone; muss der zuletzt geöffneten Zone entsprechen.
+     * @throws IllegalStateException wenn die Zone nicht die zuletzt geöffnete ist.
+     */
+    public static void end(int zone) {
+        if (!enabled) {
+            return;
+        }
+        long end = clock.getAsLong();
+        if (depth == 0 || stackZone[depth - 1] != zone) {
+            throw new IllegalStateException("Unbalanced profiler zone: " + names[zone]);
+        }
+        depth--;
+        record(zone, stackStart[depth], end);
+        if (stackGpu[depth] >= 0) {
+            gl().queryCounter(gpuQueries[gpuSlot][stackGpu[depth] * 2 + 1], GL33.GL_TIMESTAMP);
+        }
+    }
+
+    /**
+     * Schließt den aktuellen Frame ab: schreibt die Zeiten pro Zone in das Fenster der Perzentile, fragt die Timer
+     * Queries des ältesten ausstehenden Frames ab und übernimmt geänderte Schalter. Muss einmal pro Frame außerhalb
+     * aller Zonen aufgerufen werden.
+     *
+     * @throws IllegalStateException wenn noch eine Zone offen ist.
+     */
+    public static void endFrame() {
+        long now = clock.getAsLong();
+        if (enabled) {
+            if (depth != 0) {
+                throw new IllegalStateException("Profiler zone not closed: " + names[stackZone[depth - 1]]);
+            }
+            record(FRAME, frameStart, now);
+            int column = (int) (frames++ % WINDOW_FRAMES);
+            for (int zone = 0; zone < zoneCount; zone++) {
+                cpuWindow[zone][column] = frameTime[zone];
+                lastCalls[zone] = frameCalls[zone];
+                frameTime[zone] = 0;
+                frameCalls[zone] = 0;
+            }
+            if (gpuTiming) {
+                gpuSlot = (gpuSlot + 1) % GPU_FRAMES_IN_FLIGHT;
+                collectGpuFrame(gpuSlot); // Der älteste Frame; sein Slot wird im nächsten Frame neu beschrieben
+                if (frames % GPU_CALIBRATION_FRAMES == 0) {
+                    calibrateGpu();
+                }
+            }
+        }
+        if ((pendingEnabled && pendingGpuTiming) != gpuTiming) {
+            startGpuTiming(pendingEnabled && pendingGpuTiming);
+        }
+        if (pendingEnabled != enabled) {
+            if (pendingEnabled) {
+                discardOpenZones(); // Zonen, die vor dem Ausschalten offen blieben, gehören zu keinem Frame mehr
+            }
+            enabled = pendingEnabled;
+            log.info("{} profiler; {[GpuTiming={}]}", enabled ? "Enabled" : "Disabled", gpuTiming);
+        }
+        frameStart = clock.getAsLong();
+    }
+
+    /**
+     * Schaltet den Profiler ein oder aus. Wirkt ab dem nächsten Frame.
+     *
+     * @param enabled ob Zonen gemessen werden.
+     */
+    public static void setEnabled(boolean enabled) {
+        pendingEnabled = enabled;
+    }
+
+    /**
+     * @return ob Zonen gemessen werden.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Schaltet die GPU-Zeitmessung mit Timer Queries ein oder aus. Wirkt ab dem nächsten Frame und benötigt einen
+     * OpenGL 3.3 Context.
+     *
+     * @param gpuTiming ob GPU-Zonen auch auf der GPU gemessen werden.
+     */
+    public static void setGpuTiming(boolean gpuTiming) {
+        pendingGpuTiming = gpuTiming;
+    }
+
+    /**
+     * @return die Anzahl der Frames, deren GPU-Zeiten verworfen wurden, weil die Timer Queries nicht rechtzeitig
+     * vorlagen.
+     */
+    public static long getGpuDroppedFrames() {
+        return gpuDroppedFrames;
+    }
+
+    /**
+     * Verwirft alle gemessenen Zeiten, z.B. zwischen zwei Messungen eines Benchmarks. Noch offene Zonen werden
+     * ebenfalls verworfen, etwa wenn eine Exception zwischen {@link #begin(int)} und {@link #end(int)} geworfen
+     * wurde; {@link #endFrame()} wirft danach nicht mehr. Die Zeitstempel des Chrome Trace beginnen wieder bei 0.
+     */
+    public static void reset() {
+        discardOpenZones();
+        eventHead = 0;
+        gpuEventHead = 0;
+        frames = 0;
+        gpuFrames = 0;
+        gpuDroppedFrames = 0;
+        orderCount = 0;
+        Arrays.fill(seen, false);
+        Arrays.fill(frameTime, 0);
+        Arrays.fill(frameCalls, 0);
+        Arrays.fill(gpuFrameTime, 0);
+        Arrays.fill(gpuQueryCount, 0);
+        epoch = frameStart = clock.getAsLong();
+    }
+
+    /**
+     * Löscht die Timer Queries.
+     */
+    public static void cleanUp() {
+        for (int slot = 0; slot < GPU_FRAMES_IN_FLIGHT; slot++) {
+            if (gpuQueries[slot] != null) {
+                for (int query : gpuQueries[slot]) {
+                    gl().deleteQueries(query);
+                }
+                gpuQueries[slot] = null;
+            }
+        }
+        gpuTiming = pendingGpuTiming = false;
+    }
+
+    /**
+     * Fasst die Zeiten aller bisher geöffneten Zonen über die letzten {@link #WINDOW_FRAMES} Frames zusammen.
+     *
+     * @return die Zusammenfassungen in der Reihenfolge, in der die Zonen zum ersten Mal geöffnet wurden, beginnend
+     * mit {@link #FRAME}.
+     */
+    public static List<ZoneSummary> getSummaries() {
+        int cpuSamples = (int) Math.min(frames, WINDOW_FRAMES);
+        int gpuSamples = (int) Math.min(gpuFrames, WINDOW_FRAMES);
+        long[] sorted = new long[WINDOW_FRAMES];
+        List<ZoneSummary> summaries = new ArrayList<ZoneSummary>(orderCount + 1);
+        if (cpuSamples == 0) {
+            return summaries;
+        }
+        summaries.add(summarize(FRAME, 0, sorted, cpuSamples, 0));
+        for (int i = 0; i < orderCount; i++) {
+            int zone = order[i];
+            summaries.add(summarize(zone, zoneDepth[zone], sorted, cpuSamples, gpuZones[zone] ? gpuSamples : 0));
+        }
+        return summaries;
+    }
+
+    /**
+     * Schreibt die Zonen im Ring Buffer (die letzten {@link #EVENT_CAPACITY} CPU- und {@link #GPU_EVENT_CAPACITY}
+     * GPU-Zonen) als Chrome {@code trace_event} JSON, das sich in {@code chrome://tracing} oder Perfetto öffnen
+     * lässt. CPU-Zonen liegen im Thread "Main", GPU-Zonen im Thread "GPU".
+     *
+     * @param path die Datei, die geschrieben wird.
+     * @throws IOException wenn die Datei nicht geschrieben werden kann.
+     */
+    public static void writeChromeTrace(Path path) throws IOException {
+        long events = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+            writer.write("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":1,\"args\":{\"name\":\"Engine\"}},\n");
+            writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":1,\"args\":{\"name\":\"Main\"}},\n");
+            writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":2,\"args\":{\"name\":\"GPU\"}}");
+            for (long i = Math.max(0, eventHead - EVENT_CAPACITY); i < eventHead; i++) {
+                int event = (int) (i & EVENT_MASK);
+                writeEvent(writer, eventZone[event], 1, eventStart[event], eventEnd[event]);
+                events++;
+            }
+            for (long i = Math.max(0, gpuEventHead - GPU_EVENT_CAPACITY); i < gpuEventHead; i++) {
+                int event = (int) (i & GPU_EVENT_MASK);
+                writeEvent(writer, gpuEventZone[event], 2, gpuEventStart[event], gpuEventEnd[event]);
+                events++;
+            }
+            writer.write("\n]}\n");
+        }
+        log.info("Wrote chrome trace; {[Path={}], [Events={}]}", path, events);
+    }
+
+    /**
+     * Die Zeiten einer Zone über die letzten Frames.
+     *
+     * @param name  der Name der Zone.
+     * @param depth die Tiefe der Zone unter {@link #FRAME} (0 für {@link #FRAME}).
+     * @param calls wie oft die Zone im letzten Frame geöffnet wurde.
+     * @param cpuP50 der Median der CPU-Zeit pro Frame in Millisekunden.
+     * @param cpuP95 das 95. Perzentil der CPU-Zeit pro Frame in Millisekunden.
+     * @param cpuP99 das 99. Perzentil der CPU-Zeit pro Frame in Millisekunden.
+     * @param gpuP50 der Median der GPU-Zeit pro Frame in Millisekunden oder {@link Float#NaN}, wenn die Zone nicht
+     *               auf der GPU gemessen wurde.
+     * @param gpuP95 das 95. Perzentil der GPU-Zeit pro Frame in Millisekunden oder {@link Float#NaN}.
+     * @param gpuP99 das 99. Perzentil der GPU-Zeit pro Frame in Millisekunden oder {@link Float#NaN}.
+     */
+    public record ZoneSummary(String name, int depth, int calls, float cpuP50, float cpuP95, float cpuP99,
+                              float gpuP50, float gpuP95, float gpuP99) {
+
+        /**
+         * @return ob die Zone auf der GPU gemessen wurde.
+         */
+        public boolean hasGpu() {
+            return !Float.isNaN(gpuP50);
+        }
+
+    }
+
+    /**
+     * Verwirft die offenen Zonen und die Aufrufe des letzten Frames.
+     */
+    private static void discardOpenZones() {
+        depth = 0;
+        Arrays.fill(lastCalls, 0);
+    }
+
+    /**
+     * Speichert eine abgeschlossene Zone im Ring Buffer und addiert ihre Dauer zum aktuellen Frame.
+     */
+    private static void record(int zone, long start, long end) {
+        int event = (int) (eventHead++ & EVENT_MASK);
+        eventZone[event] = zone;
+        eventStart[event] = start;
+        eventEnd[event] = end;
+        frameTime[zone] += end - start;
+        frameCalls[zone]++;
+    }
+
+    /**
+     * Liest die Timer Queries eines Slots und schreibt die GPU-Zeiten pro Zone in das Fenster der Perzentile.
+     */
+    private static void collectGpuFrame(int slot) {
+        int count = gpuQueryCount[slot];
+        gpuQueryCount[slot] = 0;
+        if (count == 0) {
+            return;
+        }
+        int[] queries = gpuQueries[slot];
+        if (gl().getQueryObjecti(queries[count * 2 - 1], GL15.GL_QUERY_RESULT_AVAILABLE) == GL11.GL_FALSE) {
+            gpuDroppedFrames++; // Die GPU liegt mehr als GPU_FRAMES_IN_FLIGHT - 1 Frames zurück
+            return;
+        }
+        for (int query = 0; query < count; query++) {
+            int zone = gpuQueryZone[slot][query];
+            long start = gl().getQueryObjectui64(queries[query * 2], GL15.GL_QUERY_RESULT);
+            long end = gl().getQueryObjectui64(queries[query * 2 + 1], GL15.GL_QUERY_RESULT);
+            gpuFrameTime[zone] += end - start;
+            int event = (int) (gpuEventHead++ & GPU_EVENT_MASK);
+            gpuEventZone[event] = zone;
+            gpuEventStart[event] = start + gpuOffset;
+            gpuEventEnd[event] = end + gpuOffset;
+        }
+        int column = (int) (gpuFrames++ % WINDOW_FRAMES);
+        for (int zone = 0; zone < zoneCount; zone++) {
+            gpuWindow[zone][column] = gpuFrameTime[zone];
+            gpuFrameTime[zone] = 0;
+        }
+    }
+
+    /**
+     * Erstellt beim ersten Einschalten die Timer Queries und verwirft beim Umschalten ausstehende Ergebnisse.
+     */
+    private static void startGpuTiming(boolean gpuTiming) {
+        Arrays.fill(gpuQueryCount, 0);
+        if (gpuTiming && gpuQueries[0] == null) {
+            for (int slot = 0; slot < GPU_FRAMES_IN_FLIGHT; slot++) {
+                gpuQueries[slot] = new int[MAX_GPU_ZONES * 2];
+                for (int query = 0; query < gpuQueries[slot].length; query++) {
+                    gpuQueries[slot][query] = gl().genQueries();
+                }
+            }
+            log.info("Created profiler timer queries; {[Queries={}], [FramesInFlight={}]}",
+                    GPU_FRAMES_IN_FLIGHT * MAX_GPU_ZONES * 2, GPU_FRAMES_IN_FLIGHT);
+        }
+        if (gpuTiming) {
+            calibrateGpu();
+        }
+        Profiler.gpuTiming = gpuTiming;
+    }
+
+    /**
+     * Gleicht die Zeitbasis der GPU mit der {@link #clock Uhr} ab, damit GPU-Zonen im Chrome Trace neben den
+     * CPU-Zonen liegen. Die Abfrage wartet nicht auf die GPU, sondern liefert den Zeitstempel, den die GPU gerade
+     * erreicht hat.
+     */
+    private static void calibrateGpu() {
+        gpuOffset = clock.getAsLong() - gl().getInteger64(GL33.GL_TIMESTAMP);
+    }
+
+    private static ZoneSummary summarize(int zone, int depth, long[] sorted, int cpuSamples, int gpuSamples) {
+        System.arraycopy(cpuWindow[zone], 0, sorted, 0, cpuSamples);
+        Arrays.sort(sorted, 0, cpuSamples);
+        float cpuP50 = percentile(sorted, cpuSamples, 0.50f);
+        float cpuP95 = percentile(sorted, cpuSamples, 0.95f);
+        float cpuP99 = percentile(sorted, cpuSamples, 0.99f);
+        float gpuP50 = Float.NaN;
+        float gpuP95 = Float.NaN;
+        float gpuP99 = Float.NaN;
+        if (gpuSamples > 0) {
+            System.arraycopy(gpuWindow[zone], 0, sorted, 0, gpuSamples);
+            Arrays.sort(sorted, 0, gpuSamples);
+            gpuP50 = percentile(sorted, gpuSamples, 0.50f);
+            gpuP95 = percentile(sorted, gpuSamples, 0.95f);
+            gpuP99 = percentile(sorted, gpuSamples, 0.99f);
+        }
+        return new ZoneSummary(names[zone], depth, lastCalls[zone], cpuP50, cpuP95, cpuP99, gpuP50, gpuP95, gpuP99);
+    }
+
+    /**
+     * Bestimmt ein Perzentil nach dem Nearest-Rank-Verfahren.
+     *
+     * @return das Perzentil in Millisekunden.
+     */
+    private static float percentile(long[] sorted, int count, float percentile) {
+        int rank = (int) Math.ceil(percentile * count);
+        return sorted[Math.max(rank, 1) - 1] / 1e6f;
+    }
+
+    private static void writeEvent(BufferedWriter writer, int zone, int thread, long start, long end) throws IOException {
+        writer.write(",\n{\"name\":\"");
+        writer.write(escape(names[zone]));
+        writer.write(String.format(Locale.ROOT, "\",\"ph\":\"X\",\"pid\":1,\"tid\":%d,\"ts\":%.3f,\"dur\":%.3f}",
+                thread, (start - epoch) / 1e3, (end - start) / 1e3));
+    }
+
+    private static String escape(String name) {
+        StringBuilder escaped = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format(Locale.ROOT, "\\u%04x", (int) c)); // Steuerzeichen sind in JSON nicht erlaubt
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+}
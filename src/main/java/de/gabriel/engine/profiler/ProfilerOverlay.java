@@ -0,0 +1,139 @@
+package de.gabriel.engine.profiler;
+
+import de.gabriel.engine.fonts.mesh.FontType;
+import de.gabriel.engine.fonts.mesh.GUIText;
+import lombok.Getter;
+import org.joml.Vector2f;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Zeigt die {@link Profiler#getSummaries() Zusammenfassungen des Profilers} als Texte des
+ * {@link de.gabriel.engine.fonts.TextMaster} in der linken oberen Ecke an: eine Zeile pro Zone, eingerückt nach
+ * ihrer Tiefe, mit p50/p95/p99 der CPU-Zeit und, falls gemessen, der GPU-Zeit in Millisekunden.
+ * <p>
+ * Da jeder Text ein eigenes VAO hat, werden die Zeilen nur alle {@link #REFRESH_INTERVAL} Sekunden neu erstellt.
+ * </p>
+ */
+public class ProfilerOverlay {
+
+    /**
+     * Der Abstand in Sekunden, in dem die Zeilen neu erstellt werden.
+     */
+    private static final float REFRESH_INTERVAL = 0.5f;
+
+    /**
+     * Die Schriftgröße der Zeilen.
+     */
+    private static final float FONT_SIZE = 0.8f;
+
+    /**
+     * Die Höhe einer Zeile in Bildschirmkoordinaten (entspricht der Zeilenhöhe des
+     * {@link de.gabriel.engine.fonts.mesh.TextMeshCreator}).
+     */
+    private static final float LINE_HEIGHT = 0.03f * FONT_SIZE;
+
+    /**
+     * Der Abstand zum Rand des Fensters in Bildschirmkoordinaten.
+     */
+    private static final float MARGIN = 0.01f;
+
+    private final FontType font;
+
+    /**
+     * Die angezeigten Zeilen.
+     */
+    private final List<GUIText> lines = new ArrayList<GUIText>();
+
+    /**
+     * Ob das Overlay angezeigt wird.
+     */
+    @Getter
+    private boolean visible;
+
+    /**
+     * Die Zeit seit dem letzten Erstellen der Zeilen in Sekunden.
+     */
+    private float timeSinceRefresh;
+
+    public ProfilerOverlay(FontType font) {
+        this.font = font;
+    }
+
+    /**
+     * Blendet das Overlay ein oder aus.
+     *
+     * @param visible ob das Overlay angezeigt wird.
+     */
+    public void setVisible(boolean visible) {
+        if (this.visible == visible) {
+            return;
+        }
+        this.visible = visible;
+        if (visible) {
+            refresh();
+        } else {
+            clear();
+        }
+    }
+
+    /**
+     * Erstellt die Zeilen neu, wenn das Overlay angezeigt wird und das {@link #REFRESH_INTERVAL} abgelaufen ist.
+     *
+     * @param delta die Zeit, die seit dem letzten Frame vergangen ist.
+     */
+    public void update(float delta) {
+        if (!visible) {
+            return;
+        }
+        timeSinceRefresh += delta;
+        if (timeSinceRefresh >= REFRESH_INTERVAL) {
+            refresh();
+        }
+    }
+
+    /**
+     * Entfernt die Zeilen.
+     */
+    public void cleanUp() {
+        clear();
+    }
+
+    private void refresh() {
+        timeSinceRefresh = 0;
+        clear();
+        List<Profiler.ZoneSummary> summaries = Profiler.getSummaries();
+        if (summaries.isEmpty()) {
+            addLine(0, Profiler.isEnabled() ? "Profiler: waiting for frames"
+                    : "Profiler disabled (-Dengine.profiler=cpu|gpu)");
+            return;
+        }
+        addLine(0, "Zone  CPU p50/p95/p99 ms  GPU p50/p95/p99 ms");
+        for (Profiler.ZoneSummary summary : summaries) {
+            String line = "  ".repeat(summary.depth()) + summary.name()
+                    + String.format(Locale.ROOT, " x%d  %.2f/%.2f/%.2f", summary.calls(),
+                    summary.cpuP50(), summary.cpuP95(), summary.cpuP99());
+            if (summary.hasGpu()) {
+                line += String.format(Locale.ROOT, "  %.2f/%.2f/%.2f",
+                        summary.gpuP50(), summary.gpuP95(), summary.gpuP99());
+            }
+            addLine(lines.size(), line);
+        }
+    }
+
+    private void addLine(int index, String line) {
+        GUIText text = new GUIText(line, FONT_SIZE, font, new Vector2f(MARGIN, MARGIN + index * LINE_HEIGHT), 1f, false);
+        text.setColor(1, 1, 0);
+        lines.add(text);
+    }
+
+    private void clear() {
+        for (GUIText line : lines) {
+            line.remove();
+        }
+        lines.clear();
+    }
+
+}
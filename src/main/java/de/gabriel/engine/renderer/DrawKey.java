@@ -0,0 +1,143 @@
+package de.gabriel.engine.renderer;
+
+/**
+ * Baut 64-Bit Schlüssel, nach denen Draw Calls sortiert werden (siehe {@link DrawList}). Die Reihenfolge der Felder
+ * bestimmt, welche Zustandswechsel beim Rendern am seltensten vorkommen:
+ * <pre>
+ * undurchsichtig: [0][Shader 3][Material 16][VAO 16][Tiefe 24][frei 4]
+ * transparent:    [1][Shader 3][Tiefe (invertiert) 24][Material 16][VAO 16][frei 4]
+ * </pre>
+ * Undurchsichtige Draw Calls werden damit nach Zustand gruppiert und innerhalb desselben Zustands von vorne nach
+ * hinten sortiert (weniger Overdraw durch den frühen Tiefentest). Transparente Draw Calls kommen danach und werden
+ * von hinten nach vorne sortiert, damit sie richtig überblendet werden; der Zustand ist dort zweitrangig.
+ * <p>
+ * Material und VAO werden auf 16 Bit gekürzt. Kollisionen verschlechtern nur die Gruppierung, nicht das Ergebnis, da
+ * jeder Draw Call seinen Zustand trotzdem selbst setzt. Die Tiefe ist der (quadrierte) Abstand zur Kamera; die
+ * oberen 24 Bit eines nicht-negativen Floats sind monoton und brauchen daher keine Far Plane zum Normieren.
+ * </p>
+ */
+public final class DrawKey {
+
+    /**
+     * Der Shader der Entities ({@link EntityRenderer} und {@link InstancedEntityRenderer}).
+     */
+    public static final int SHADER_ENTITY = 0;
+
+    /**
+     * Der Shader der Entities mit Normal Mapping.
+     */
+    public static final int SHADER_NORMAL_MAPPING = 1;
+
+    /**
+     * Der Shader der Terrains.
+     */
+    public static final int SHADER_TERRAIN = 2;
+
+    private static final int SHADER_BITS = 3;
+
+    private static final int MATERIAL_BITS = 16;
+
+    private static final int VAO_BITS = 16;
+
+    private static final int DEPTH_BITS = 24;
+
+    private static final int TRANSLUCENT_SHIFT = 63;
+
+    private static final int SHADER_SHIFT = TRANSLUCENT_SHIFT - SHADER_BITS;
+
+    private static final int OPAQUE_MATERIAL_SHIFT = SHADER_SHIFT - MATERIAL_BITS;
+
+    private static final int OPAQUE_VAO_SHIFT = OPAQUE_MATERIAL_SHIFT - VAO_BITS;
+
+    private static final int OPAQUE_DEPTH_SHIFT = OPAQUE_VAO_SHIFT - DEPTH_BITS;
+
+    private static final int TRANSLUCENT_DEPTH_SHIFT = SHADER_SHIFT - DEPTH_BITS;
+
+    private static final int TRANSLUCENT_MATERIAL_SHIFT = TRANSLUCENT_DEPTH_SHIFT - MATERIAL_BITS;
+
+    private static final int TRANSLUCENT_VAO_SHIFT = TRANSLUCENT_MATERIAL_SHIFT - VAO_BITS;
+
+    private static final long SHADER_MASK = (1L << SHADER_BITS) - 1;
+
+    private static final long MATERIAL_MASK = (1L << MATERIAL_BITS) - 1;
+
+    private static final long VAO_MASK = (1L << VAO_BITS) - 1;
+
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+
+    private DrawKey() {
+    }
+
+    /**
+     * Baut den Schlüssel eines undurchsichtigen Draw Calls (nach Zustand, dann von vorne nach hinten).
+     *
+     * @param shader   der Shader ({@link #SHADER_ENTITY} usw.).
+     * @param material das Material, z.B. die ID der Textur.
+     * @param vao      die ID des VAOs.
+     * @param depth    der (quadrierte) Abstand zur Kamera.
+     * @return der Schlüssel.
+     */
+    public static long opaque(int shader, int material, int vao, float depth) {
+        return (shader & SHADER_MASK) << SHADER_SHIFT
+                | (material & MATERIAL_MASK) << OPAQUE_MATERIAL_SHIFT
+                | (vao & VAO_MASK) << OPAQUE_VAO_SHIFT
+                | depthBits(depth) << OPAQUE_DEPTH_SHIFT;
+    }
+
+    /**
+     * Baut den Schlüssel eines transparenten Draw Calls (nach allen undurchsichtigen, von hinten nach vorne).
+     *
+     * @param shader   der Shader ({@link #SHADER_ENTITY} usw.).
+     * @param material das Material, z.B. die ID der Textur.
+     * @param vao      die ID des VAOs.
+     * @param depth    der (quadrierte) Abstand zur Kamera.
+     * @return der Schlüssel.
+     */
+    public static long translucent(int shader, int material, int vao, float depth) {
+        return 1L << TRANSLUCENT_SHIFT
+                | (shader & SHADER_MASK) << SHADER_SHIFT
+                | (DEPTH_MASK - depthBits(depth)) << TRANSLUCENT_DEPTH_SHIFT
+                | (material & MATERIAL_MASK) << TRANSLUCENT_MATERIAL_SHIFT
+                | (vao & VAO_MASK) << TRANSLUCENT_VAO_SHIFT;
+    }
+
+    /**
+     * @param key der Schlüssel.
+     * @return true, wenn der Schlüssel zu einem transparenten Draw Call gehört.
+     */
+    public static boolean isTranslucent(long key) {
+        return key < 0;
+    }
+
+    /**
+     * @param key der Schlüssel.
+     * @return der Shader des Draw Calls.
+     */
+    public static int shader(long key) {
+        return (int) (key >>> SHADER_SHIFT & SHADER_MASK);
+    }
+
+    /**
+     * @param key der Schlüssel.
+     * @return das (auf 16 Bit gekürzte) Material des Draw Calls.
+     */
+    public static int material(long key) {
+        return (int) (key >>> (isTranslucent(key) ? TRANSLUCENT_MATERIAL_SHIFT : OPAQUE_MATERIAL_SHIFT) & MATERIAL_MASK);
+    }
+
+    /**
+     * @param key der Schlüssel.
+     * @return das (auf 16 Bit gekürzte) VAO des Draw Calls.
+     */
+    public static int vao(long key) {
+        return (int) (key >>> (isTranslucent(key) ? TRANSLUCENT_VAO_SHIFT : OPAQUE_VAO_SHIFT) & VAO_MASK);
+    }
+
+    /**
+     * Die oberen 24 Bit (ohne Vorzeichen) eines nicht-negativen Floats, die mit dem Wert monoton steigen.
+     */
+    private static long depthBits(float depth) {
+        return Float.floatToRawIntBits(Math.max(depth, 0f)) >>> (Float.SIZE - 1 - DEPTH_BITS);
+    }
+
+}
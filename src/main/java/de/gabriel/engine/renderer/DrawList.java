@@ -0,0 +1,134 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.utils.RadixSort;
+
+import java.util.Arrays;
+
+/**
+ * Eine wiederverwendete Liste von Draw Calls, die nach ihrem {@link DrawKey} per {@link RadixSort} sortiert wird.
+ * Jeder Eintrag besteht aus dem Schlüssel und einem Wert, über den der Renderer seinen Draw Call wiederfindet
+ * (z.B. der Index in einer Liste von Entities). Die Liste verwendet kein OpenGL und legt nach dem Aufwärmen keine
+ * Objekte mehr an.
+ */
+public class DrawList {
+
+    private long[] keys;
+
+    private int[] values;
+
+    private long[] keyBuffer;
+
+    private int[] valueBuffer;
+
+    private final int[] histograms = new int[RadixSort.histogramLength()];
+
+    private int size;
+
+    public DrawList() {
+        this(64);
+    }
+
+    /**
+     * @param capacity die anfängliche Kapazität der Liste.
+     */
+    public DrawList(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.keyBuffer = new long[capacity];
+        this.valueBuffer = new int[capacity];
+    }
+
+    /**
+     * Hängt einen Draw Call an.
+     *
+     * @param key   der Schlüssel des Draw Calls.
+     * @param value der Wert, über den der Renderer den Draw Call wiederfindet.
+     */
+    public void add(long key, int value) {
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            keyBuffer = new long[capacity];
+            valueBuffer = new int[capacity];
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Sortiert die Draw Calls aufsteigend nach ihrem Schlüssel (stabil).
+     */
+    public void sort() {
+        RadixSort.sort(keys, values, size, keyBuffer, valueBuffer, histograms);
+    }
+
+    /**
+     * @param index der Index des Draw Calls.
+     * @return der Schlüssel des Draw Calls.
+     */
+    public long getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @param index der Index des Draw Calls.
+     * @return der Wert des Draw Calls.
+     */
+    public int getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return der Index des ersten transparenten Draw Calls nach dem Sortieren (bzw. {@link #size()}, wenn es keinen gibt).
+     */
+    public int firstTranslucent() {
+        int low = 0;
+        int high = size;
+        while (low < high) { // Transparente Schlüssel sind vorzeichenlos größer und liegen daher am Ende
+            int middle = (low + high) >>> 1;
+            if (DrawKey.isTranslucent(keys[middle])) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Zählt, wie oft sich Shader, Material oder VAO zwischen zwei aufeinanderfolgenden Draw Calls in der aktuellen
+     * Reihenfolge ändern (inklusive des ersten). So lässt sich ohne OpenGL prüfen, wie viele Wechsel das Sortieren
+     * spart.
+     *
+     * @return die Anzahl der Zustandswechsel.
+     */
+    public int countStateChanges() {
+        int changes = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || DrawKey.shader(keys[i]) != DrawKey.shader(keys[i - 1])
+                    || DrawKey.material(keys[i]) != DrawKey.material(keys[i - 1])
+                    || DrawKey.vao(keys[i]) != DrawKey.vao(keys[i - 1])) {
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * @return die Anzahl der Draw Calls.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Leert die Liste, ohne die Arrays zu verkleinern.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+}
@@ -0,0 +1,94 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.textures.ModelTexture;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Die sichtbaren Entities aller Batches eines Frames in der Reihenfolge ihrer {@link DrawKey Sortierschlüssel}:
+ * zuerst die undurchsichtigen, gruppiert nach Textur und VAO und innerhalb davon von vorne nach hinten, danach die
+ * mit transparenter Textur von hinten nach vorne. Die Listen werden pro Frame wiederverwendet.
+ *
+ * @see EntityRenderer
+ * @see NormalMappingRenderer
+ */
+class EntityDrawList {
+
+    private final DrawList drawList = new DrawList();
+
+    private final List<Entity> entities = new ArrayList<Entity>();
+
+    private final List<TexturedModel> models = new ArrayList<TexturedModel>();
+
+    /**
+     * Sammelt und sortiert die sichtbaren Entities der Batches.
+     *
+     * @param batches        die Batches mit den sichtbaren Entities.
+     * @param shader         der Shader der Entities ({@link DrawKey#SHADER_ENTITY} usw.).
+     * @param cameraPosition die Position der Kamera.
+     */
+    void build(List<RenderBatch> batches, int shader, Vector3f cameraPosition) {
+        drawList.clear();
+        entities.clear();
+        models.clear();
+        for (int i = 0; i < batches.size(); i++) {
+            RenderBatch batch = batches.get(i);
+            TexturedModel model = batch.getModel();
+            RawModel rawModel = model.rawModel();
+            ModelTexture texture = model.texture();
+            List<Entity> visible = batch.getVisibleEntities();
+            for (int j = 0; j < visible.size(); j++) {
+                Entity entity = visible.get(j);
+                float depth = distanceSquared(entity.getWorldBoundingSphere(), cameraPosition);
+                long key = texture.isHasTransparency()
+                        ? DrawKey.translucent(shader, texture.getTextureID(), rawModel.vaoID(), depth)
+                        : DrawKey.opaque(shader, texture.getTextureID(), rawModel.vaoID(), depth);
+                drawList.add(key, entities.size());
+                entities.add(entity);
+                models.add(model);
+            }
+        }
+        drawList.sort();
+    }
+
+    /**
+     * @return die Anzahl der Entities.
+     */
+    int size() {
+        return drawList.size();
+    }
+
+    /**
+     * @param index die Position in der sortierten Reihenfolge.
+     * @return die Entity an der Position.
+     */
+    Entity getEntity(int index) {
+        return entities.get(drawList.getValue(index));
+    }
+
+    /**
+     * @param index die Position in der sortierten Reihenfolge.
+     * @return das texturierte Modell (bzw. die Detailstufe), mit dem die Entity an der Position gerendert wird.
+     */
+    TexturedModel getModel(int index) {
+        return models.get(drawList.getValue(index));
+    }
+
+    /**
+     * Der quadrierte Abstand der Kamera zum Mittelpunkt einer Bounding Sphere. Reicht für die Sortierung aus und
+     * spart die Wurzel.
+     */
+    static float distanceSquared(Vector4f sphere, Vector3f cameraPosition) {
+        float dx = sphere.x - cameraPosition.x;
+        float dy = sphere.y - cameraPosition.y;
+        float dz = sphere.z - cameraPosition.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+}
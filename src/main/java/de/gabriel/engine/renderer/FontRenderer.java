@@ -2,17 +2,23 @@ package de.gabriel.engine.renderer;
 
 import de.gabriel.engine.fonts.mesh.FontType;
 import de.gabriel.engine.fonts.mesh.GUIText;
+import de.gabriel.engine.profiler.Profiler;
 import de.gabriel.engine.shaders.FontShader;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
-import org.lwjgl.opengl.GL20;
-import org.lwjgl.opengl.GL30;
 
 import java.util.List;
 import java.util.Map;
 
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
+
 public class FontRenderer {
 
+    /**
+     * Die Zone des Renderers im {@link Profiler}.
+     */
+    private static final int PROFILER_ZONE = Profiler.zone("FontRenderer", true);
+
     private FontShader shader;
 
     public FontRenderer() {
@@ -20,15 +26,17 @@ public class FontRenderer {
     }
 
     public void render(Map<FontType, List<GUIText>> texts) {
+        Profiler.begin(PROFILER_ZONE);
         prepare();
         for (FontType font : texts.keySet()) {
-            GL13.glActiveTexture(GL13.GL_TEXTURE0);
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, font.getTextureAtlas());
+            gl().activeTexture(GL13.GL_TEXTURE0);
+            gl().bindTexture(GL11.GL_TEXTURE_2D, font.getTextureAtlas());
             for (GUIText text : texts.get(font)) {
                 renderText(text);
             }
         }
         endRendering();
+        Profiler.end(PROFILER_ZONE);
     }
 
     public void cleanUp() {
@@ -36,28 +44,29 @@ public class FontRenderer {
     }
 
     private void prepare() {
-        GL11.glEnable(GL11.GL_BLEND);
-        GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
-        GL11.glDisable(GL11.GL_DEPTH_TEST);
+        gl().enable(GL11.GL_BLEND);
+        gl().blendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        gl().disable(GL11.GL_DEPTH_TEST);
         shader.start();
     }
 
     private void renderText(GUIText text) {
-        GL30.glBindVertexArray(text.getMesh());
-        GL20.glEnableVertexAttribArray(0);
-        GL20.glEnableVertexAttribArray(1);
+        gl().bindVertexArray(text.getMesh());
+        gl().enableVertexAttribArray(0);
+        gl().enableVertexAttribArray(1);
         shader.loadColor(text.getColor());
         shader.loadTranslation(text.getPosition());
-        GL11.glDrawArrays(GL11.GL_TRIANGLES, 0, text.getVertexCount());
-        GL20.glDisableVertexAttribArray(0);
-        GL20.glDisableVertexAttribArray(1);
-        GL30.glBindVertexArray(0);
+        gl().drawArrays(GL11.GL_TRIANGLES, 0, text.getVertexCount());
+        FrameStatistics.increment(FrameStatistics.Counter.DRAW_CALLS);
+        gl().disableVertexAttribArray(0);
+        gl().disableVertexAttribArray(1);
+        gl().bindVertexArray(0);
     }
 
     private void endRendering() {
         shader.stop();
-        GL11.glDisable(GL11.GL_BLEND);
-        GL11.glEnable(GL11.GL_DEPTH_TEST);
+        gl().disable(GL11.GL_BLEND);
+        gl().enable(GL11.GL_DEPTH_TEST);
     }
 
 }
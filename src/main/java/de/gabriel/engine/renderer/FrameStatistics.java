@@ -0,0 +1,163 @@
+package de.gabriel.engine.renderer;
+
+import java.util.Arrays;
+
+/**
+ * Sammelt Zähler über die Arbeit, die pro Frame an OpenGL übergeben wird (z.B. Draw Calls).
+ * Während eines Frames werden die Zähler mit {@link #increment(Counter)} erhöht. Mit
+ * {@link #endFrame()} werden die Werte des abgeschlossenen Frames gesichert und die Zähler zurückgesetzt,
+ * sodass {@link #get(Counter)} immer die Werte des letzten vollständigen Frames zurückgibt.
+ */
+public class FrameStatistics {
+
+    /**
+     * Die verschiedenen Zähler, die pro Frame erfasst werden.
+     */
+    public enum Counter {
+
+        /**
+         * Anzahl der Aufrufe von glDrawElements, glDrawArrays und glDrawElementsInstanced.
+         */
+        DRAW_CALLS,
+
+        /**
+         * Anzahl der Entities, die über instanziertes Rendern gezeichnet wurden.
+         */
+        INSTANCES,
+
+        /**
+         * Anzahl der Entities, die das Frustum Culling passiert haben und gerendert werden.
+         */
+        VISIBLE_ENTITIES,
+
+        /**
+         * Anzahl der Entities, die durch das Frustum Culling verworfen wurden.
+         */
+        CULLED_ENTITIES,
+
+        /**
+         * Anzahl der sichtbaren Entities, die mit einer vereinfachten Detailstufe gerendert werden.
+         */
+        LOD_REDUCED_ENTITIES,
+
+        /**
+         * Anzahl der Chunks der Terrains, die das Frustum Culling passiert haben und gerendert werden.
+         */
+        VISIBLE_TERRAIN_CHUNKS,
+
+        /**
+         * Anzahl der Chunks der Terrains, die durch das Frustum Culling verworfen wurden.
+         */
+        CULLED_TERRAIN_CHUNKS,
+
+        /**
+         * Anzahl der Dreiecke, die für die sichtbaren Chunks der Terrains gezeichnet werden.
+         */
+        TERRAIN_TRIANGLES,
+
+        /**
+         * Anzahl der Zustandswechsel (VAO, Textur, Culling), die der {@link GlStateCache} an OpenGL weitergegeben hat.
+         */
+        STATE_CHANGES,
+
+        /**
+         * Anzahl der Zustandswechsel, die der {@link GlStateCache} verworfen hat, weil der Zustand bereits gesetzt war.
+         */
+        STATE_CHANGES_AVOIDED,
+
+        /**
+         * Anzahl der Aufrufe von glUniform*, die ein Shader Programm an OpenGL weitergegeben hat.
+         */
+        UNIFORM_UPLOADS,
+
+        /**
+         * Anzahl der Aufrufe von glUniform*, die übersprungen wurden, weil der Wert bereits im Programm gesetzt war.
+         */
+        UNIFORM_UPLOADS_AVOIDED,
+
+        /**
+         * Anzahl der Uploads in den gemeinsamen Uniform Buffer mit den Daten pro Frame.
+         */
+        UNIFORM_BUFFER_UPLOADS,
+
+        /**
+         * Anzahl der Entities, die das Frustum Culling passiert haben, aber durch das Occlusion Culling verworfen wurden.
+         */
+        OCCLUDED_ENTITIES,
+
+        /**
+         * Anzahl der Dreiecke, die als Verdecker in den Tiefenpuffer des Occlusion Cullings gerastert wurden.
+         */
+        OCCLUDER_TRIANGLES,
+
+        /**
+         * Anzahl der Entities, die (auch) als Impostor gerendert werden.
+         */
+        IMPOSTORS,
+
+        /**
+         * Anzahl der Dreiecke, die durch vollständig überblendete Impostors nicht gezeichnet werden (Dreiecke der
+         * gewählten Detailstufe abzüglich der zwei Dreiecke des Impostors).
+         */
+        IMPOSTOR_TRIANGLES_REMOVED,
+        /**
+         * Anzahl der Chunks, deren Vegetation gezeichnet wird (pro Vegetation gezählt).
+         */
+        VEGETATION_CHUNKS,
+        /**
+         * Anzahl der gezeichneten Instanzen der Vegetation (vor der Überblendung im Shader).
+         */
+        VEGETATION_INSTANCES
+
+    }
+
+    /**
+     * Die Zähler des aktuellen Frames.
+     */
+    private static final int[] current = new int[Counter.values().length];
+
+    /**
+     * Die Zähler des letzten vollständigen Frames.
+     */
+    private static final int[] last = new int[Counter.values().length];
+
+    /**
+     * Erhöht einen Zähler des aktuellen Frames um 1.
+     *
+     * @param counter der Zähler, der erhöht werden soll.
+     */
+    public static void increment(Counter counter) {
+        current[counter.ordinal()]++;
+    }
+
+    /**
+     * Erhöht einen Zähler des aktuellen Frames um den angegebenen Wert.
+     *
+     * @param counter der Zähler, der erhöht werden soll.
+     * @param amount  der Wert, um den der Zähler erhöht werden soll.
+     */
+    public static void add(Counter counter, int amount) {
+        current[counter.ordinal()] += amount;
+    }
+
+    /**
+     * Gibt den Wert eines Zählers im letzten vollständigen Frame zurück.
+     *
+     * @param counter der Zähler.
+     * @return der Wert des Zählers im letzten Frame.
+     */
+    public static int get(Counter counter) {
+        return last[counter.ordinal()];
+    }
+
+    /**
+     * Schließt den aktuellen Frame ab. Muss einmal pro Frame aufgerufen werden.
+     *
+     * @see WindowManager#update()
+     */
+    public static void endFrame() {
+        System.arraycopy(current, 0, last, 0, current.length);
+        Arrays.fill(current, 0);
+    }
+
+}
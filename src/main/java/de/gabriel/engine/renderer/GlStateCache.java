@@ -0,0 +1,125 @@
+package de.gabriel.engine.renderer;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+
+import java.util.Arrays;
+
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
+
+/**
+ * Merkt sich den zuletzt gesetzten OpenGL-Zustand (gebundenes VAO, aktive Texture Unit, gebundene Texturen und
+ * Backface Culling) und gibt nur Änderungen an OpenGL weiter. Redundante Aufrufe werden verworfen und in
+ * {@link FrameStatistics.Counter#STATE_CHANGES_AVOIDED} gezählt.
+ * <p>
+ * Der Cache kennt nur Zustand, der über ihn gesetzt wurde. Code, der denselben Zustand direkt über OpenGL ändert
+ * (z.B. der {@link de.gabriel.engine.converter.Loader} beim Erstellen eines VAOs oder die GUI), muss danach
+ * {@link #invalidate()} aufrufen. {@link MasterRenderer#prepare()} tut das zu Beginn jedes Frames.
+ * </p>
+ */
+public class GlStateCache {
+
+    /**
+     * Die Anzahl der Texture Units, deren Texturen verfolgt werden. Höhere Units werden immer gebunden.
+     */
+    private static final int TEXTURE_UNITS = 16;
+
+    /**
+     * Markiert einen unbekannten Zustand, der beim nächsten Setzen immer an OpenGL weitergegeben wird.
+     */
+    private static final int UNKNOWN = -1;
+
+    private static int boundVao = UNKNOWN;
+
+    private static int activeTextureUnit = UNKNOWN;
+
+    private static final int[] boundTextures = new int[TEXTURE_UNITS];
+
+    /**
+     * Der Zustand des Backface Cullings (1 = aktiviert, 0 = deaktiviert).
+     */
+    private static int culling = UNKNOWN;
+
+    static {
+        invalidate();
+    }
+
+    /**
+     * Vergisst den gesamten bekannten Zustand, sodass er beim nächsten Setzen wieder an OpenGL weitergegeben wird.
+     */
+    public static void invalidate() {
+        boundVao = UNKNOWN;
+        activeTextureUnit = UNKNOWN;
+        Arrays.fill(boundTextures, UNKNOWN);
+        culling = UNKNOWN;
+    }
+
+    /**
+     * Bindet ein VAO, wenn es nicht bereits gebunden ist.
+     *
+     * @param vao die ID des VAOs.
+     */
+    public static void bindVertexArray(int vao) {
+        if (boundVao == vao) {
+            avoided();
+            return;
+        }
+        boundVao = vao;
+        gl().bindVertexArray(vao);
+        changed();
+    }
+
+    /**
+     * Bindet eine 2D-Textur an eine Texture Unit, wenn sie dort nicht bereits gebunden ist. Die aktive Texture Unit
+     * wird nur gewechselt, wenn tatsächlich gebunden werden muss.
+     *
+     * @param unit    die Texture Unit (0 für {@code GL_TEXTURE0}).
+     * @param texture die ID der Textur.
+     */
+    public static void bindTexture(int unit, int texture) {
+        boolean tracked = unit < TEXTURE_UNITS;
+        if (tracked && boundTextures[unit] == texture) {
+            avoided();
+            return;
+        }
+        if (activeTextureUnit != unit) {
+            activeTextureUnit = unit;
+            gl().activeTexture(GL13.GL_TEXTURE0 + unit);
+            changed();
+        }
+        gl().bindTexture(GL11.GL_TEXTURE_2D, texture);
+        changed();
+        if (tracked) {
+            boundTextures[unit] = texture;
+        }
+    }
+
+    /**
+     * Aktiviert oder deaktiviert das Backface Culling, wenn es nicht bereits in diesem Zustand ist.
+     *
+     * @param enabled true, um das Culling zu aktivieren.
+     */
+    public static void setCulling(boolean enabled) {
+        int state = enabled ? 1 : 0;
+        if (culling == state) {
+            avoided();
+            return;
+        }
+        culling = state;
+        if (enabled) {
+            gl().enable(GL11.GL_CULL_FACE);
+        } else {
+            gl().disable(GL11.GL_CULL_FACE);
+        }
+        changed();
+    }
+
+    private static void changed() {
+        FrameStatistics.increment(FrameStatistics.Counter.STATE_CHANGES);
+    }
+
+    private static void avoided() {
+        FrameStatistics.increment(FrameStatistics.Counter.STATE_CHANGES_AVOIDED);
+    }
+
+}
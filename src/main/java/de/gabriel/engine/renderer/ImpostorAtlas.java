@@ -0,0 +1,252 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.models.Impostor;
+import de.gabriel.engine.models.PositionDecode;
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.shaders.ImpostorBakeShader;
+import de.gabriel.engine.textures.ModelTexture;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.joml.Matrix4f;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL12;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+
+import java.nio.ByteBuffer;
+
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
+
+/**
+ * Backt die Frames der {@link Impostor Impostors} in einen gemeinsamen Atlas aus zwei Texturen: eine mit den Farben
+ * (Alpha 0 außerhalb des Modells) und eine mit den Normalen im Modellkoordinatensystem, damit die Impostors wie das
+ * Modell von den Lichtquellen beleuchtet werden.
+ * <p>
+ * Jedes Modell belegt einen Block aus {@link #COLUMNS} × {@link #ROWS} Frames zu je {@link #FRAME_PIXELS} Pixeln. Die
+ * Blöcke werden zeilenweise von links unten vergeben. Da alle Impostors denselben Atlas verwenden, rendert der
+ * {@link ImpostorRenderer} sie mit einem einzigen Draw Call. Die Mipmaps reichen nur bis zur Stufe, in der ein Frame
+ * einen Pixel groß ist, damit benachbarte Frames nicht ineinander verlaufen.
+ * </p>
+ *
+ * @see TexturedModel#withImpostor(Impostor)
+ */
+@Slf4j
+public class ImpostorAtlas {
+
+    /**
+     * Die Kantenlänge des Atlas in Pixeln.
+     */
+    public static final int ATLAS_PIXELS = 2048;
+
+    /**
+     * Die Kantenlänge eines Frames in Pixeln.
+     */
+    public static final int FRAME_PIXELS = 128;
+
+    /**
+     * Die Anzahl der Blickrichtungen rund um die Y-Achse pro Modell.
+     */
+    public static final int COLUMNS = 8;
+
+    /**
+     * Die Anzahl der Höhenwinkel pro Modell.
+     */
+    public static final int ROWS = 3;
+
+    /**
+     * Der Abstand der Kamera eines Frames zum Mittelpunkt der Bounding Sphere, in Radien.
+     */
+    private static final float CAMERA_DISTANCE = 2;
+
+    /**
+     * Die ID der Textur mit den Farben der Frames.
+     */
+    @Getter
+    private final int albedoTextureID;
+
+    /**
+     * Die ID der Textur mit den Normalen der Frames.
+     */
+    @Getter
+    private final int normalTextureID;
+
+    private final int fbo;
+
+    private final int depthBuffer;
+
+    private final ImpostorBakeShader shader = new ImpostorBakeShader();
+
+    /**
+     * Die Position des nächsten freien Blocks in Pixeln.
+     */
+    private int nextX, nextY;
+
+    private final Matrix4f projectionMatrix = new Matrix4f();
+
+    private final Matrix4f viewMatrix = new Matrix4f();
+
+    /**
+     * Erstellt den Atlas mit seinem Framebuffer. Benötigt einen OpenGL-Context.
+     *
+     * @throws IllegalStateException wenn der Framebuffer nicht vollständig ist.
+     */
+    public ImpostorAtlas() {
+        albedoTextureID = createTexture();
+        normalTextureID = createTexture();
+        fbo = gl().genFramebuffers();
+        gl().bindFramebuffer(GL30.GL_FRAMEBUFFER, fbo);
+        gl().framebufferTexture2D(GL30.GL_FRAMEBUFFER, GL30.GL_COLOR_ATTACHMENT0, GL11.GL_TEXTURE_2D, albedoTextureID, 0);
+        gl().framebufferTexture2D(GL30.GL_FRAMEBUFFER, GL30.GL_COLOR_ATTACHMENT1, GL11.GL_TEXTURE_2D, normalTextureID, 0);
+        depthBuffer = gl().genRenderbuffers();
+        gl().bindRenderbuffer(GL30.GL_RENDERBUFFER, depthBuffer);
+        gl().renderbufferStorage(GL30.GL_RENDERBUFFER, GL30.GL_DEPTH_COMPONENT24, ATLAS_PIXELS, ATLAS_PIXELS);
+        gl().framebufferRenderbuffer(GL30.GL_FRAMEBUFFER, GL30.GL_DEPTH_ATTACHMENT, GL30.GL_RENDERBUFFER, depthBuffer);
+        gl().drawBuffers(new int[]{GL30.GL_COLOR_ATTACHMENT0, GL30.GL_COLOR_ATTACHMENT1});
+        int status = gl().checkFramebufferStatus(GL30.GL_FRAMEBUFFER);
+        gl().bindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+        if (status != GL30.GL_FRAMEBUFFER_COMPLETE) {
+            throw new IllegalStateException("Impostor framebuffer is incomplete: " + status);
+        }
+        log.info("Created impostor atlas; {[Size={}], [FramePixels={}], [Columns={}], [Rows={}], [Capacity={}]}",
+                ATLAS_PIXELS, FRAME_PIXELS, COLUMNS, ROWS, capacity());
+    }
+
+    /**
+     * Erstellt eine leere RGBA Textur in der Größe des Atlas.
+     */
+    private static int createTexture() {
+        int texture = gl().genTextures();
+        gl().bindTexture(GL11.GL_TEXTURE_2D, texture);
+        gl().texImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA8, ATLAS_PIXELS, ATLAS_PIXELS, 0, GL11.GL_RGBA,
+                GL11.GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        gl().texParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR_MIPMAP_LINEAR);
+        gl().texParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+        gl().texParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
+        gl().texParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
+        // Bis zur Stufe, in der ein Frame einen Pixel groß ist (log2 der Frame-Größe)
+        gl().texParameteri(GL11.GL_TEXTURE_2D, GL12.GL_TEXTURE_MAX_LEVEL, Integer.numberOfTrailingZeros(FRAME_PIXELS));
+        gl().bindTexture(GL11.GL_TEXTURE_2D, 0);
+        return texture;
+    }
+
+    /**
+     * @return die Anzahl der Modelle, deren Frames in den Atlas passen.
+     */
+    public static int capacity() {
+        return (ATLAS_PIXELS / (COLUMNS * FRAME_PIXELS)) * (ATLAS_PIXELS / (ROWS * FRAME_PIXELS));
+    }
+
+    /**
+     * Backt die Frames eines Modells in den nächsten freien Block des Atlas. Gebacken wird die Detailstufe 0 mit der
+     * ersten Textur eines Texturatlasses.
+     *
+     * @param model das texturierte Modell.
+     * @return das Impostor des Modells.
+     * @throws IllegalStateException wenn der Atlas voll ist.
+     */
+    public Impostor bake(TexturedModel model) {
+        int blockWidth = COLUMNS * FRAME_PIXELS;
+        int blockHeight = ROWS * FRAME_PIXELS;
+        if (nextX + blockWidth > ATLAS_PIXELS) {
+            nextX = 0;
+            nextY += blockHeight;
+        }
+        if (nextY + blockHeight > ATLAS_PIXELS) {
+            throw new IllegalStateException("Impostor atlas is full: " + capacity());
+        }
+        RawModel rawModel = model.rawModel();
+        PositionDecode decode = rawModel.positionDecode();
+        Impostor impostor;
+        float u = (float) nextX / ATLAS_PIXELS;
+        float v = (float) nextY / ATLAS_PIXELS;
+        float frameSize = (float) FRAME_PIXELS / ATLAS_PIXELS;
+        if (decode.equals(PositionDecode.IDENTITY)) {
+            // Nicht quantisiert: Bounding Sphere um den Ursprung
+            impostor = new Impostor(albedoTextureID, normalTextureID, u, v, frameSize, COLUMNS, ROWS, 0, 0, 0,
+                    rawModel.boundingRadius());
+        } else {
+            // Quantisiert: Umkugel der Bounding Box
+            float radius = (float) Math.sqrt(decode.scaleX() * decode.scaleX() + decode.scaleY() * decode.scaleY()
+                    + decode.scaleZ() * decode.scaleZ());
+            impostor = new Impostor(albedoTextureID, normalTextureID, u, v, frameSize, COLUMNS, ROWS,
+                    decode.offsetX(), decode.offsetY(), decode.offsetZ(), radius);
+        }
+
+        int[] viewport = new int[4];
+        gl().getIntegerv(GL11.GL_VIEWPORT, viewport);
+        float[] clearColor = new float[4];
+        gl().getFloatv(GL11.GL_COLOR_CLEAR_VALUE, clearColor);
+        gl().bindFramebuffer(GL30.GL_FRAMEBUFFER, fbo);
+        gl().enable(GL11.GL_DEPTH_TEST);
+        gl().enable(GL11.GL_SCISSOR_TEST);
+        gl().clearColor(0, 0, 0, 0);
+
+        shader.start();
+        ModelTexture texture = model.texture();
+        gl().bindVertexArray(rawModel.vaoID());
+        gl().activeTexture(GL20.GL_TEXTURE0);
+        gl().bindTexture(GL11.GL_TEXTURE_2D, texture.getTextureID());
+        if (texture.isHasTransparency()) {
+            gl().disable(GL11.GL_CULL_FACE);
+        } else {
+            gl().enable(GL11.GL_CULL_FACE);
+        }
+        shader.loadPositionDecode(decode);
+        shader.loadNumberOfRows(texture.getNumberOfRows());
+        shader.loadFakeLightingVariable(texture.isUseFakeLighting());
+        float radius = impostor.radius();
+        projectionMatrix.setOrtho(-radius, radius, -radius, radius, (CAMERA_DISTANCE - 1.5f) * radius,
+                (CAMERA_DISTANCE + 1.5f) * radius);
+        shader.loadProjectionMatrix(projectionMatrix);
+        for (int frame = 0; frame < impostor.frameCount(); frame++) {
+            double yaw = impostor.frameYaw(frame);
+            double elevation = impostor.frameElevation(frame);
+            float distance = CAMERA_DISTANCE * radius;
+            float eyeX = impostor.centerX() + (float) (Math.cos(elevation) * Math.sin(yaw)) * distance;
+            float eyeY = impostor.centerY() + (float) Math.sin(elevation) * distance;
+            float eyeZ = impostor.centerZ() + (float) (Math.cos(elevation) * Math.cos(yaw)) * distance;
+            viewMatrix.setLookAt(eyeX, eyeY, eyeZ, impostor.centerX(), impostor.centerY(), impostor.centerZ(), 0, 1, 0);
+            shader.loadViewMatrix(viewMatrix);
+            int x = nextX + frame % COLUMNS * FRAME_PIXELS;
+            int y = nextY + frame / COLUMNS * FRAME_PIXELS;
+            gl().viewport(x, y, FRAME_PIXELS, FRAME_PIXELS);
+            gl().scissor(x, y, FRAME_PIXELS, FRAME_PIXELS);
+            gl().clear(GL11.GL_COLOR_BUFFER_BIT | GL11.GL_DEPTH_BUFFER_BIT);
+            gl().drawElements(GL11.GL_TRIANGLES, rawModel.vertexCount(), rawModel.indexType(), 0);
+        }
+        shader.stop();
+
+        gl().bindVertexArray(0);
+        gl().disable(GL11.GL_SCISSOR_TEST);
+        gl().clearColor(clearColor[0], clearColor[1], clearColor[2], clearColor[3]);
+        gl().bindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+        gl().viewport(viewport[0], viewport[1], viewport[2], viewport[3]);
+        generateMipmaps(albedoTextureID);
+        generateMipmaps(normalTextureID);
+        GlStateCache.invalidate(); // VAO, Textur und Culling wurden an OpenGL vorbei gesetzt
+        nextX += blockWidth;
+
+        log.info("Baked impostor; {[VaoId={}], [Frames={}], [Radius={}], [U={}], [V={}]}",
+                rawModel.vaoID(), impostor.frameCount(), radius, impostor.u(), impostor.v());
+        return impostor;
+    }
+
+    private static void generateMipmaps(int texture) {
+        gl().bindTexture(GL11.GL_TEXTURE_2D, texture);
+        gl().generateMipmap(GL11.GL_TEXTURE_2D);
+        gl().bindTexture(GL11.GL_TEXTURE_2D, 0);
+    }
+
+    /**
+     * Löscht Texturen, Framebuffer und Shader des Atlas.
+     */
+    public void cleanUp() {
+        shader.cleanUp();
+        gl().deleteFramebuffers(fbo);
+        gl().deleteRenderbuffers(depthBuffer);
+        gl().deleteTextures(albedoTextureID);
+        gl().deleteTextures(normalTextureID);
+    }
+
+}
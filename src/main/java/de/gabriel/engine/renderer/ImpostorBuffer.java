@@ -0,0 +1,205 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.models.Impostor;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Erzeugt die Quads der Impostors eines Frames und packt ihre Vertices in einen Float-Buffer, der anschließend in
+ * das VBO des {@link ImpostorRenderer} geladen wird.
+ * <p>
+ * Jedes Quad steht im Mittelpunkt der Bounding Sphere des Impostors, ist der Kamera zugewandt und so groß wie die
+ * Bounding Sphere. Die Achsen des Quads entsprechen denen der Kamera, mit der die Frames gebacken wurden (rechts =
+ * Y-Achse × Richtung zur Kamera, oben = Richtung zur Kamera × rechts). Das Frame wird nach der Richtung zur Kamera
+ * im Modellkoordinatensystem gewählt, wofür nur die Rotation der Entity um die Y-Achse berücksichtigt wird.
+ * </p>
+ * <p>
+ * Wie beim {@link InstanceBuffer} wird kein OpenGL-Context benötigt. Layout pro Vertex (7 Floats):
+ * <ul>
+ *     <li>Position in Weltkoordinaten: 3 Floats</li>
+ *     <li>Texturkoordinaten im Atlas: 2 Floats</li>
+ *     <li>Überblendung zum Impostor und Rotation der Entity um die Y-Achse (Radiant): 2 Floats</li>
+ * </ul>
+ * Die Ecken eines Quads liegen gegen den Uhrzeigersinn (links unten, rechts unten, rechts oben, links oben).
+ * </p>
+ *
+ * @see ImpostorRenderer
+ */
+public class ImpostorBuffer {
+
+    /**
+     * Anzahl der Floats pro Vertex.
+     */
+    public static final int VERTEX_LENGTH = 7;
+
+    /**
+     * Anzahl der Vertices pro Impostor.
+     */
+    public static final int VERTICES_PER_IMPOSTOR = 4;
+
+    /**
+     * Anzahl der Indices pro Impostor (zwei Dreiecke).
+     */
+    public static final int INDICES_PER_IMPOSTOR = 6;
+
+    /**
+     * Die Richtungen der Ecken eines Quads entlang der Achsen rechts und oben.
+     */
+    private static final float[] CORNER_X = {-1, 1, 1, -1};
+    private static final float[] CORNER_Y = {-1, -1, 1, 1};
+
+    /**
+     * Der wiederverwendete Buffer mit den Vertices aller Impostors.
+     */
+    private final FloatBuffer buffer;
+
+    /**
+     * Die maximale Anzahl an Impostors, die der Buffer gleichzeitig aufnehmen kann.
+     */
+    private final int maxImpostors;
+
+    /**
+     * Die Anzahl der Impostors im Buffer.
+     */
+    private int size;
+
+    public ImpostorBuffer(int maxImpostors) {
+        this.maxImpostors = maxImpostors;
+        this.buffer = BufferUtils.createFloatBuffer(maxImpostors * VERTICES_PER_IMPOSTOR * VERTEX_LENGTH);
+    }
+
+    /**
+     * Erstellt den Index-Buffer für die Quads: zwei Dreiecke (0, 1, 2) und (2, 3, 0) pro Impostor.
+     *
+     * @param maxImpostors die Anzahl der Impostors.
+     * @return die Indices.
+     */
+    public static int[] createIndices(int maxImpostors) {
+        int[] indices = new int[maxImpostors * INDICES_PER_IMPOSTOR];
+        for (int i = 0; i < maxImpostors; i++) {
+            int vertex = i * VERTICES_PER_IMPOSTOR;
+            int index = i * INDICES_PER_IMPOSTOR;
+            indices[index] = vertex;
+            indices[index + 1] = vertex + 1;
+            indices[index + 2] = vertex + 2;
+            indices[index + 3] = vertex + 2;
+            indices[index + 4] = vertex + 3;
+            indices[index + 5] = vertex;
+        }
+        return indices;
+    }
+
+    /**
+     * Leert den Buffer für die nächsten Impostors.
+     */
+    public void clear() {
+        buffer.clear();
+        size = 0;
+    }
+
+    /**
+     * Fügt das Quad einer Entity hinzu.
+     *
+     * @param entity         die Entity.
+     * @param impostor       das Impostor des Modells der Entity.
+     * @param cameraPosition die Position der Kamera.
+     * @throws IllegalStateException wenn der Buffer voll ist.
+     */
+    public void add(Entity entity, Impostor impostor, Vector3f cameraPosition) {
+        if (isFull()) {
+            throw new IllegalStateException("Impostor buffer is full: " + maxImpostors);
+        }
+        Matrix4f transformation = entity.getTransformationMatrix();
+        float x = impostor.centerX();
+        float y = impostor.centerY();
+        float z = impostor.centerZ();
+        float centerX = transformation.m00() * x + transformation.m10() * y + transformation.m20() * z + transformation.m30();
+        float centerY = transformation.m01() * x + transformation.m11() * y + transformation.m21() * z + transformation.m31();
+        float centerZ = transformation.m02() * x + transformation.m12() * y + transformation.m22() * z + transformation.m32();
+        float halfSize = impostor.radius() * entity.getScale();
+
+        float toCameraX = cameraPosition.x - centerX;
+        float toCameraY = cameraPosition.y - centerY;
+        float toCameraZ = cameraPosition.z - centerZ;
+        float distance = (float) Math.sqrt(toCameraX * toCameraX + toCameraY * toCameraY + toCameraZ * toCameraZ);
+        if (distance == 0) {
+            toCameraZ = distance = 1;
+        }
+        toCameraX /= distance;
+        toCameraY /= distance;
+        toCameraZ /= distance;
+        // Rechts = (0, 1, 0) × Richtung zur Kamera; senkrecht von oben gibt es keine eindeutige Richtung
+        float rightX = toCameraZ;
+        float rightZ = -toCameraX;
+        float rightLength = (float) Math.sqrt(rightX * rightX + rightZ * rightZ);
+        if (rightLength < 1e-6f) {
+            rightX = 1;
+            rightZ = 0;
+        } else {
+            rightX /= rightLength;
+            rightZ /= rightLength;
+        }
+        // Oben = Richtung zur Kamera × rechts
+        float upX = toCameraY * rightZ;
+        float upY = toCameraZ * rightX - toCameraX * rightZ;
+        float upZ = -toCameraY * rightX;
+
+        float rotation = (float) Math.toRadians(entity.getRotY());
+        float cos = (float) Math.cos(rotation);
+        float sin = (float) Math.sin(rotation);
+        // Richtung zur Kamera im Modellkoordinatensystem (Rotation um die Y-Achse rückgängig machen)
+        int frame = impostor.selectFrame(cos * toCameraX - sin * toCameraZ, toCameraY, sin * toCameraX + cos * toCameraZ);
+        float u = impostor.frameU(frame);
+        float v = impostor.frameV(frame);
+        float frameSize = impostor.frameSize();
+        float fade = entity.getImpostorFade();
+
+        for (int corner = 0; corner < VERTICES_PER_IMPOSTOR; corner++) {
+            float cornerX = CORNER_X[corner] * halfSize;
+            float cornerY = CORNER_Y[corner] * halfSize;
+            buffer.put(centerX + cornerX * rightX + cornerY * upX);
+            buffer.put(centerY + cornerY * upY);
+            buffer.put(centerZ + cornerX * rightZ + cornerY * upZ);
+            buffer.put(u + (CORNER_X[corner] + 1) * 0.5f * frameSize);
+            buffer.put(v + (CORNER_Y[corner] + 1) * 0.5f * frameSize);
+            buffer.put(fade);
+            buffer.put(rotation);
+        }
+        size++;
+    }
+
+    /**
+     * @return true, wenn kein weiteres Impostor in den Buffer passt.
+     */
+    public boolean isFull() {
+        return size >= maxImpostors;
+    }
+
+    /**
+     * @return die Anzahl der Impostors im Buffer.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schließt das Packen ab. Vor weiteren Impostors muss der Buffer mit {@link #clear()} geleert werden.
+     *
+     * @return der Buffer mit den Vertices der hinzugefügten Impostors (bereit zum Lesen).
+     */
+    public FloatBuffer flip() {
+        return buffer.flip();
+    }
+
+    /**
+     * @return die maximale Anzahl an Impostors pro Draw Call.
+     */
+    public int getMaxImpostors() {
+        return maxImpostors;
+    }
+
+}
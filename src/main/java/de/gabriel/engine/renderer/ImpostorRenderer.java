@@ -0,0 +1,137 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.converter.Loader;
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.models.Impostor;
+import de.gabriel.engine.profiler.Profiler;
+import de.gabriel.engine.shaders.ImpostorShader;
+import lombok.extern.slf4j.Slf4j;
+import org.joml.Vector3f;
+import org.lwjgl.opengl.GL11;
+
+import java.util.List;
+
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
+
+/**
+ * Rendert die {@link RenderBatch#getImpostorEntities() Impostors} aller Batches als Quads, die zur Kamera zeigen.
+ * Da sich alle Impostors den {@link ImpostorAtlas} teilen, werden die Quads aller Batches in den
+ * {@link ImpostorBuffer} gepackt und mit einem einzigen Draw Call gerendert (bzw. einem pro
+ * {@link #MAX_IMPOSTORS} Impostors).
+ *
+ * @see RenderQueue#getImpostorDistance()
+ */
+@Slf4j
+public class ImpostorRenderer {
+
+    /**
+     * Die Zone des Renderers im {@link Profiler}.
+     */
+    private static final int PROFILER_ZONE = Profiler.zone("ImpostorRenderer", true);
+
+    /**
+     * Die maximale Anzahl an Impostors pro Draw Call.
+     */
+    private static final int MAX_IMPOSTORS = 4096;
+
+    private final ImpostorShader shader = new ImpostorShader();
+
+    /**
+     * Packt die Quads der Impostors.
+     */
+    private final ImpostorBuffer buffer = new ImpostorBuffer(MAX_IMPOSTORS);
+
+    /**
+     * Der Loader, mit dem das VBO beschrieben wird.
+     */
+    private final Loader loader;
+
+    /**
+     * Die ID des VBOs mit den Vertices der Quads, das jeden Frame neu beschrieben wird.
+     */
+    private final int vbo;
+
+    /**
+     * Die ID des VAOs mit dem VBO und dem statischen Index-Buffer der Quads.
+     */
+    private final int vao;
+
+    /**
+     * Die ID der Textur mit den Farben des Atlas, aus dem die gepackten Impostors stammen.
+     */
+    private int albedoTextureID;
+
+    /**
+     * Die ID der Textur mit den Normalen des Atlas, aus dem die gepackten Impostors stammen.
+     */
+    private int normalTextureID;
+
+    public ImpostorRenderer(Loader loader) {
+        this.loader = loader;
+        this.vbo = loader.createEmptyVbo(MAX_IMPOSTORS * ImpostorBuffer.VERTICES_PER_IMPOSTOR * ImpostorBuffer.VERTEX_LENGTH);
+        this.vao = loader.loadDynamicVAO(vbo, new int[]{3, 2, 2}, ImpostorBuffer.createIndices(MAX_IMPOSTORS));
+        log.info("Created impostor renderer; {[MaxImpostors={}], [VaoId={}], [VboId={}]}", MAX_IMPOSTORS, vao, vbo);
+    }
+
+    /**
+     * Rendert die Impostors aller Batches.
+     *
+     * @param batches        die Batches mit den Impostors des aktuellen Frames.
+     * @param cameraPosition die Position der Kamera.
+     */
+    public void render(List<RenderBatch> batches, Vector3f cameraPosition) {
+        Profiler.begin(PROFILER_ZONE);
+        boolean started = false;
+        for (int i = 0; i < batches.size(); i++) {
+            List<Entity> impostorEntities = batches.get(i).getImpostorEntities();
+            if (impostorEntities.isEmpty()) {
+                continue;
+            }
+            Impostor impostor = batches.get(i).getModel().impostor();
+            if (!started) {
+                shader.start();
+                shader.connectTextureUnits();
+                GlStateCache.setCulling(true);
+                buffer.clear();
+                started = true;
+            }
+            if (impostor.albedoTextureID() != albedoTextureID || impostor.normalTextureID() != normalTextureID) {
+                flush(); // Impostors aus einem anderen Atlas
+                albedoTextureID = impostor.albedoTextureID();
+                normalTextureID = impostor.normalTextureID();
+            }
+            for (int j = 0; j < impostorEntities.size(); j++) {
+                if (buffer.isFull()) {
+                    flush();
+                }
+                buffer.add(impostorEntities.get(j), impostor, cameraPosition);
+            }
+        }
+        if (started) {
+            flush();
+            shader.stop();
+        }
+        Profiler.end(PROFILER_ZONE);
+    }
+
+    /**
+     * Rendert die gepackten Impostors mit einem Draw Call und leert den Buffer.
+     */
+    private void flush() {
+        if (buffer.size() == 0) {
+            return;
+        }
+        loader.updateVbo(vbo, buffer.flip());
+        GlStateCache.bindVertexArray(vao);
+        GlStateCache.bindTexture(0, albedoTextureID);
+        GlStateCache.bindTexture(1, normalTextureID);
+        gl().drawElements(GL11.GL_TRIANGLES, buffer.size() * ImpostorBuffer.INDICES_PER_IMPOSTOR, GL11.GL_UNSIGNED_INT, 0);
+        FrameStatistics.increment(FrameStatistics.Counter.DRAW_CALLS);
+        buffer.clear();
+    }
+
+    public void cleanUp() {
+        shader.cleanUp();
+    }
+
+}
@@ -0,0 +1,107 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.entities.Entity;
+import org.joml.Matrix4f;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+/**
+ * Packt die Daten pro Instanz (Transformationsmatrix, Offset im Texturatlas und Überblendung zum Impostor) eines Batches
+ * in einen Float-Buffer, der anschließend in das Instanz-VBO geladen wird.
+ * <p>
+ * Das Packen benötigt keinen OpenGL-Context, da nur ein Float-Buffer im Arbeitsspeicher beschrieben wird.
+ * Der Buffer wird einmalig erstellt und für jeden Batch wiederverwendet.
+ * </p>
+ * <p>
+ * Layout pro Instanz (19 Floats):
+ * <ul>
+ *     <li>Transformationsmatrix: 16 Floats (spaltenweise, wie von {@link Matrix4f#get(int, FloatBuffer)})</li>
+ *     <li>Offset im Texturatlas: 2 Floats</li>
+ *     <li>Überblendung zum Impostor: 1 Float</li>
+ * </ul>
+ * </p>
+ *
+ * @see InstancedEntityRenderer
+ */
+public class InstanceBuffer {
+
+    /**
+     * Anzahl der Floats einer Transformationsmatrix.
+     */
+    public static final int MATRIX_LENGTH = 16;
+
+    /**
+     * Anzahl der Floats pro Instanz (Transformationsmatrix + Offset + Überblendung).
+     */
+    public static final int INSTANCE_DATA_LENGTH = MATRIX_LENGTH + 3;
+
+    /**
+     * Der wiederverwendete Buffer mit den Daten aller Instanzen.
+     */
+    private final FloatBuffer buffer;
+
+    /**
+     * Die maximale Anzahl an Instanzen, die der Buffer gleichzeitig aufnehmen kann.
+     */
+    private final int maxInstances;
+
+    public InstanceBuffer(int maxInstances) {
+        this.maxInstances = maxInstances;
+        this.buffer = BufferUtils.createFloatBuffer(maxInstances * INSTANCE_DATA_LENGTH);
+    }
+
+    /**
+     * Packt die Instanzdaten der Entities ab dem angegebenen Index in den Buffer. Passen nicht alle Entities
+     * in den Buffer, werden nur so viele gepackt wie möglich; der Rest muss mit einem weiteren Aufruf
+     * (und Draw Call) verarbeitet werden.
+     *
+     * @param entities die Entities eines Batches.
+     * @param from     der Index der ersten Entity, die gepackt werden soll.
+     * @return die Anzahl der gepackten Instanzen.
+     */
+    public int pack(List<Entity> entities, int from) {
+        int count = Math.min(entities.size() - from, maxInstances);
+        buffer.clear();
+        for (int i = 0; i < count; i++) {
+            Entity entity = entities.get(from + i);
+            putInstance(entity.getTransformationMatrix(), entity.getTextureXOffset(), entity.getTextureYOffset(),
+                    entity.getImpostorFade());
+        }
+        buffer.flip();
+        return count;
+    }
+
+    /**
+     * Schreibt die Daten einer einzelnen Instanz an die aktuelle Position des Buffers.
+     *
+     * @param transformationMatrix die Transformationsmatrix der Instanz.
+     * @param xOffset              der X Offset der Textur innerhalb des Texturatlasses.
+     * @param yOffset              der Y Offset der Textur innerhalb des Texturatlasses.
+     * @param impostorFade         die Überblendung zum Impostor.
+     */
+    private void putInstance(Matrix4f transformationMatrix, float xOffset, float yOffset, float impostorFade) {
+        int position = buffer.position();
+        transformationMatrix.get(position, buffer); // Verändert die Position des Buffers nicht
+        buffer.position(position + MATRIX_LENGTH);
+        buffer.put(xOffset);
+        buffer.put(yOffset);
+        buffer.put(impostorFade);
+    }
+
+    /**
+     * @return der Buffer mit den zuletzt gepackten Instanzdaten (bereit zum Lesen).
+     */
+    public FloatBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return die maximale Anzahl an Instanzen pro Draw Call.
+     */
+    public int getMaxInstances() {
+        return maxInstances;
+    }
+
+}
@@ -0,0 +1,218 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.converter.Loader;
+import de.gabriel.engine.entities.Camera;
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.profiler.Profiler;
+import de.gabriel.engine.shaders.InstancedShader;
+import de.gabriel.engine.textures.ModelTexture;
+import lombok.extern.slf4j.Slf4j;
+import org.joml.Vector3f;
+import org.lwjgl.opengl.GL11;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
+import static de.gabriel.engine.shaders.InstancedShader.IMPOSTOR_FADE_ATTRIBUTE;
+import static de.gabriel.engine.shaders.InstancedShader.OFFSET_ATTRIBUTE;
+import static de.gabriel.engine.shaders.InstancedShader.TRANSFORMATION_MATRIX_ATTRIBUTE;
+
+/**
+ * Rendert alle Entities eines {@link TexturedModel} mit einem einzigen Draw Call ({@code glDrawElementsInstanced}).
+ * Die Transformationsmatrizen und Offsets im Texturatlas werden dafür pro Batch mit dem {@link InstanceBuffer} gepackt
+ * und in ein einziges, wiederverwendetes Instanz-VBO geladen, anstatt sie pro Entity als Uniform Variablen hochzuladen.
+ *
+ * @see EntityRenderer
+ */
+@Slf4j
+public class InstancedEntityRenderer {
+
+    /**
+     * Die Zone des Renderers im {@link Profiler}.
+     */
+    private static final int PROFILER_ZONE = Profiler.zone("InstancedEntityRenderer", true);
+
+    /**
+     * Die maximale Anzahl an Instanzen pro Draw Call. Größere Batches werden auf mehrere Draw Calls aufgeteilt.
+     */
+    private static final int MAX_INSTANCES = 10000;
+
+    /**
+     * Das Shader Programm für instanziert gerenderte Entities.
+     */
+    private final InstancedShader shader = new InstancedShader();
+
+    /**
+     * Packt die Daten pro Instanz eines Batches.
+     */
+    private final InstanceBuffer instanceBuffer = new InstanceBuffer(MAX_INSTANCES);
+
+    /**
+     * Der Loader, mit dem das Instanz-VBO beschrieben wird.
+     */
+    private final Loader loader;
+
+    /**
+     * Die ID des Instanz-VBOs, das für alle Batches wiederverwendet wird.
+     */
+    private final int vbo;
+
+    /**
+     * Die IDs der VAOs, denen die Attribute pro Instanz bereits hinzugefügt wurden. Ein BitSet statt eines
+     * Set&lt;Integer&gt;, damit die Abfrage pro Batch und Frame kein Autoboxing benötigt. Wird ein VAO gelöscht (z.B.
+     * beim Freigeben des Models), wird sein Bit zurückgesetzt, da OpenGL die ID für ein neues VAO wiederverwenden kann.
+     */
+    private final BitSet preparedVaos = new BitSet();
+
+    /**
+     * Die nicht leeren Batches des aktuellen Frames in der Reihenfolge, in der sie gerendert werden.
+     */
+    private final DrawList batchOrder = new DrawList();
+
+    /**
+     * Die Reihenfolge der Instanzen eines transparenten Batches.
+     */
+    private final DrawList instanceOrder = new DrawList();
+
+    /**
+     * Die Instanzen eines transparenten Batches, von hinten nach vorne sortiert.
+     */
+    private final List<Entity> sortedInstances = new ArrayList<Entity>();
+
+    public InstancedEntityRenderer(Loader loader) {
+        this.loader = loader;
+        this.vbo = loader.createEmptyVbo(MAX_INSTANCES * InstanceBuffer.INSTANCE_DATA_LENGTH);
+        loader.addVaoDeletionListener(preparedVaos::clear);
+        log.info("Created instanced entity renderer; {[MaxInstances={}], [InstanceDataLength={}], [InstanceVboId={}]}",
+                MAX_INSTANCES, InstanceBuffer.INSTANCE_DATA_LENGTH, vbo);
+    }
+
+    /**
+     * Rendert die Entities, die dasselbe {@link TexturedModel} verwenden, mit einem Draw Call pro Batch. Die Batches
+     * werden nach ihrem {@link DrawKey Sortierschlüssel} gerendert: undurchsichtige nach Textur und VAO gruppiert und
+     * von vorne nach hinten (nach ihrer nächsten Entity), transparente danach von hinten nach vorne (nach ihrer
+     * fernsten Entity). Die Instanzen eines transparenten Batches werden ebenfalls von hinten nach vorne gepackt.
+     *
+     * @param batches die Batches mit den sichtbaren Entities und ihrem texturierten Modell.
+     * @param camera  die Kamera in der Szene.
+     */
+    public void render(List<RenderBatch> batches, Camera camera) {
+        Profiler.begin(PROFILER_ZONE);
+        shader.start();
+        sortBatches(batches, camera.getPosition());
+        for (int i = 0; i < batchOrder.size(); i++) {
+            RenderBatch renderBatch = batches.get(batchOrder.getValue(i));
+            TexturedModel model = renderBatch.getModel();
+            prepareTexturedModel(model);
+            List<Entity> batch = DrawKey.isTranslucent(batchOrder.getKey(i))
+                    ? sortBackToFront(renderBatch.getVisibleEntities(), camera.getPosition())
+                    : renderBatch.getVisibleEntities();
+            int rendered = 0;
+            while (rendered < batch.size()) {
+                int count = instanceBuffer.pack(batch, rendered); // Instanzdaten des (Teil-)Batches packen
+                loader.updateVbo(vbo, instanceBuffer.getBuffer());
+                gl().drawElementsInstanced(GL11.GL_TRIANGLES, model.rawModel().vertexCount(), model.rawModel().indexType(), 0, count);
+                FrameStatistics.increment(FrameStatistics.Counter.DRAW_CALLS);
+                FrameStatistics.add(FrameStatistics.Counter.INSTANCES, count);
+                rendered += count;
+            }
+        }
+        shader.stop();
+        Profiler.end(PROFILER_ZONE);
+    }
+
+    /**
+     * Sortiert die nicht leeren Batches in {@link #batchOrder}.
+     */
+    private void sortBatches(List<RenderBatch> batches, Vector3f cameraPosition) {
+        batchOrder.clear();
+        for (int i = 0; i < batches.size(); i++) {
+            RenderBatch batch = batches.get(i);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            ModelTexture texture = batch.getModel().texture();
+            int vao = batch.getModel().rawModel().vaoID();
+            boolean translucent = texture.isHasTransparency();
+            List<Entity> visible = batch.getVisibleEntities();
+            float depth = translucent ? 0 : Float.POSITIVE_INFINITY;
+            for (int j = 0; j < visible.size(); j++) {
+                float distance = EntityDrawList.distanceSquared(visible.get(j).getWorldBoundingSphere(), cameraPosition);
+                depth = translucent ? Math.max(depth, distance) : Math.min(depth, distance);
+            }
+            batchOrder.add(translucent
+                    ? DrawKey.translucent(DrawKey.SHADER_ENTITY, texture.getTextureID(), vao, depth)
+                    : DrawKey.opaque(DrawKey.SHADER_ENTITY, texture.getTextureID(), vao, depth), i);
+        }
+        batchOrder.sort();
+    }
+
+    /**
+     * Sortiert die Entities eines transparenten Batches von hinten nach vorne.
+     *
+     * @return die wiederverwendete Liste mit den sortierten Entities.
+     */
+    private List<Entity> sortBackToFront(List<Entity> entities, Vector3f cameraPosition) {
+        instanceOrder.clear();
+        for (int i = 0; i < entities.size(); i++) {
+            float distance = EntityDrawList.distanceSquared(entities.get(i).getWorldBoundingSphere(), cameraPosition);
+            instanceOrder.add(DrawKey.translucent(DrawKey.SHADER_ENTITY, 0, 0, distance), i);
+        }
+        instanceOrder.sort();
+        sortedInstances.clear();
+        for (int i = 0; i < instanceOrder.size(); i++) {
+            sortedInstances.add(entities.get(instanceOrder.getValue(i)));
+        }
+        return sortedInstances;
+    }
+
+    /**
+     * Bereitet das texturierte Modell zum instanzierten Rendern vor. Beim ersten Rendern eines Modells werden dem
+     * VAO die Attribute pro Instanz hinzugefügt, die auf das Instanz-VBO zeigen.
+     *
+     * @param model das texturierte Modell, das zum Rendern vorbereitet werden soll.
+     */
+    private void prepareTexturedModel(TexturedModel model) {
+        RawModel rawModel = model.rawModel();
+        if (!preparedVaos.get(rawModel.vaoID())) {
+            preparedVaos.set(rawModel.vaoID());
+            addInstancedAttributes(rawModel.vaoID());
+            GlStateCache.invalidate(); // Der Loader hat das VAO an OpenGL vorbei gebunden
+        }
+        GlStateCache.bindVertexArray(rawModel.vaoID());
+        shader.loadPositionDecode(rawModel.positionDecode());
+        ModelTexture texture = model.texture();
+        shader.loadNumberOfRows(texture.getNumberOfRows());
+        // Backface Culling für Objekte mit transparenten Texturen deaktivieren
+        GlStateCache.setCulling(!texture.isHasTransparency());
+        shader.loadFakeLightingVariable(texture.isUseFakeLighting());
+        shader.loadShineVariables(texture.getShineDamper(), texture.getReflectivity());
+        GlStateCache.bindTexture(0, texture.getTextureID());
+    }
+
+    /**
+     * Fügt dem VAO die Attribute pro Instanz hinzu: die vier Spalten der Transformationsmatrix, den Offset im
+     * Texturatlas und die Überblendung zum Impostor.
+     *
+     * @param vao die ID des VAOs.
+     */
+    private void addInstancedAttributes(int vao) {
+        for (int column = 0; column < 4; column++) {
+            loader.addInstancedAttribute(vao, vbo, TRANSFORMATION_MATRIX_ATTRIBUTE + column, 4,
+                    InstanceBuffer.INSTANCE_DATA_LENGTH, column * 4);
+        }
+        loader.addInstancedAttribute(vao, vbo, OFFSET_ATTRIBUTE, 2,
+                InstanceBuffer.INSTANCE_DATA_LENGTH, InstanceBuffer.MATRIX_LENGTH);
+        loader.addInstancedAttribute(vao, vbo, IMPOSTOR_FADE_ATTRIBUTE, 1,
+                InstanceBuffer.INSTANCE_DATA_LENGTH, InstanceBuffer.MATRIX_LENGTH + 2);
+    }
+
+    public void cleanUp() {
+        shader.cleanUp();
+    }
+
+}
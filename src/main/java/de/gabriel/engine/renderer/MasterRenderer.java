@@ -1,29 +1,39 @@
 package de.gabriel.engine.renderer;
 
+import de.gabriel.engine.converter.AssetManager;
 import de.gabriel.engine.converter.Loader;
 import de.gabriel.engine.entities.Camera;
 import de.gabriel.engine.entities.Entity;
 import de.gabriel.engine.entities.Light;
+import de.gabriel.engine.models.Impostor;
 import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.profiler.Profiler;
+import de.gabriel.engine.scene.LooseOctree;
+import de.gabriel.engine.scene.OcclusionCuller;
+import de.gabriel.engine.shaders.FrameUniformBuffer;
 import de.gabriel.engine.shaders.StaticShader;
 import de.gabriel.engine.shaders.TerrainShader;
 import de.gabriel.engine.skybox.SkyboxRenderer;
 import de.gabriel.engine.skybox.time.TimeCycle;
 import de.gabriel.engine.terrain.Terrain;
+import de.gabriel.engine.terrain.TerrainChunkGrid;
+import de.gabriel.engine.terrain.TerrainWorld;
+import de.gabriel.engine.utils.Frustum;
+import de.gabriel.engine.utils.Maths;
+import de.gabriel.engine.vegetation.VegetationField;
+import de.gabriel.engine.vegetation.VegetationRenderer;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
-import org.lwjgl.BufferUtils;
-import org.lwjgl.glfw.GLFW;
 import org.lwjgl.opengl.GL11;
 
-import java.nio.IntBuffer;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
-import static org.lwjgl.glfw.GLFW.glfwGetWindowSize;
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
 
 /**
  * Der MasterRenderer ist zuständig für das gesamte Rendern der Szene.
@@ -73,6 +83,11 @@ public class MasterRenderer {
      */
     private final EntityRenderer renderer;
 
+    /**
+     * Renderer für Entities in der Szene, der alle Entities eines Batches mit einem Draw Call rendert.
+     */
+    private final InstancedEntityRenderer instancedRenderer;
+
     /**
      * Renderer für Terrain in der Szene.
      */
@@ -84,25 +99,82 @@ public class MasterRenderer {
     private final TerrainShader terrainShader = new TerrainShader();
 
     /**
-     * Eine Map mit texturierten Modellen und den dazugehörigen Entities als Liste.
+     * Der Mittelpunkt des räumlichen Index der Render Queues. Entities außerhalb des Index werden
+     * weiterhin gerendert, aber einzeln gegen das Frustum getestet.
+     */
+    private static final Vector3f WORLD_CENTER = new Vector3f(0, 0, 0);
+
+    /**
+     * Die halbe Kantenlänge des räumlichen Index der Render Queues.
+     */
+    private static final float WORLD_HALF_SIZE = 1024;
+
+    /**
+     * Die maximale Tiefe des räumlichen Index der Render Queues.
+     */
+    private static final int WORLD_MAX_DEPTH = 7;
+
+    /**
+     * Die Breite des Tiefenpuffers des Occlusion Cullings in Pixeln. Die Höhe ergibt sich aus dem Seitenverhältnis
+     * des Fensters.
+     */
+    private static final int OCCLUSION_BUFFER_WIDTH = 256;
+
+    /**
+     * Die Zonen der Culling-Schritte im {@link Profiler}; die Renderer haben eigene Zonen.
+     */
+    private static final int TERRAIN_CULLING_ZONE = Profiler.zone("TerrainCulling");
+    private static final int OCCLUSION_CULLING_ZONE = Profiler.zone("OcclusionCulling");
+    private static final int ENTITY_CULLING_ZONE = Profiler.zone("EntityCulling");
+
+    /**
+     * Die dauerhafte Render Queue mit den Entities in der Szene, gruppiert in Batches nach texturiertem Modell.
      * Dadurch können alle Entities eines texturierten Modells gerendert werden, ohne
-     * dass jedes texturierte Modell aufs neue verarbeitet werden muss.
+     * dass die Batches pro Frame neu aufgebaut werden müssen.
      *
      * @see TexturedModel
      * @see Entity
      */
-    private final Map<TexturedModel, List<Entity>> entities = new HashMap<TexturedModel, List<Entity>>();
+    private final RenderQueue entities = new RenderQueue(new LooseOctree(WORLD_CENTER, WORLD_HALF_SIZE, WORLD_MAX_DEPTH));
 
-    private final Map<TexturedModel, List<Entity>> normalMapEntities = new HashMap<TexturedModel, List<Entity>>();
+    /**
+     * Die dauerhafte Render Queue mit den Entities, die mit Normal Mapping gerendert werden.
+     */
+    private final RenderQueue normalMapEntities = new RenderQueue(new LooseOctree(WORLD_CENTER, WORLD_HALF_SIZE, WORLD_MAX_DEPTH));
 
     /**
      * Eine Liste mit allen Terrains in der Szene. Die Terrains in der Szene sind einzelne Tiles, die
      * jeweils eine feste Größe und Vertex Count haben. Zusammengesetzt werden sie in einem Grid und
-     * bilden so das gesamte Terrain.
+     * bilden so das gesamte Terrain. Terrains bleiben registriert, bis sie entfernt werden.
      *
      * @see Terrain
      */
     private final List<Terrain> terrains = new ArrayList<Terrain>();
+
+    /**
+     * Meldet die Kacheln einer {@link TerrainWorld} in {@link #terrains} an und ab.
+     */
+    @Getter
+    private final TerrainWorld.Listener terrainListener = new TerrainListListener(terrains);
+
+    /**
+     * Die registrierten Entities mit einem {@link de.gabriel.engine.scene.Occluder}, die beim Occlusion Culling
+     * andere Entities verdecken.
+     */
+    private final List<Entity> occluders = new ArrayList<Entity>();
+
+    /**
+     * Verwirft Entities, die hinter Terrains oder den {@link #occluders} liegen.
+     */
+    private final OcclusionCuller occlusionCuller;
+
+    /**
+     * Gibt an, ob Entities im Frustum zusätzlich gegen Terrains und {@link #occluders} getestet werden.
+     * Standardmäßig aktiviert (true).
+     */
+    @Setter
+    @Getter
+    private boolean occlusionCulling = true;
     /**
      * Renderer für die Skybox in der Szene.
      */
@@ -115,29 +187,112 @@ public class MasterRenderer {
 
     private NormalMappingRenderer normalMappingRenderer;
 
-    public MasterRenderer(Loader loader, TimeCycle timeCycle) {
+    /**
+     * Renderer für die Impostors weit entfernter Entities.
+     */
+    private final ImpostorRenderer impostorRenderer;
+
+    /**
+     * Der Atlas, in den die Impostors gebacken werden. Wird beim ersten {@link #bakeImpostor(TexturedModel)} erstellt.
+     */
+    private ImpostorAtlas impostorAtlas;
+
+    /**
+     * Renderer für die Vegetation des {@link #vegetation Vegetationsfeldes}.
+     */
+    private final VegetationRenderer vegetationRenderer;
+
+    /**
+     * Die Vegetation, die auf den Terrains gerendert wird, oder null, wenn keine gerendert wird. Das Feld wird nur
+     * gerendert; das Laden der Chunks um die Kamera ({@link VegetationField#update(float, float)}) übernimmt der Aufrufer.
+     */
+    @Setter
+    @Getter
+    private VegetationField vegetation;
+
+    /**
+     * Das View Frustum der Kamera im aktuellen Frame. Entities außerhalb des Frustums werden nicht gerendert.
+     *
+     * @see MasterRenderer#updateFrustum(Camera)
+     */
+    @Getter
+    private final Frustum frustum = new Frustum();
+
+    /**
+     * Das Produkt aus Projektionsmatrix und View Matrix, aus dem das Frustum gewonnen wird.
+     */
+    private final Matrix4f projectionViewMatrix = new Matrix4f();
+
+    /**
+     * Wiederverwendete View Matrix der Kamera, aus der das Frustum gewonnen wird und die in den
+     * {@link #frameUniforms} geladen wird.
+     */
+    private final Matrix4f viewMatrix = new Matrix4f();
+
+    /**
+     * Der Uniform Buffer mit den Daten pro Frame (Matrizen, Himmelsfarbe, Lichter), den sich die Shader der
+     * Entities und Terrains teilen.
+     */
+    private final FrameUniformBuffer frameUniforms = new FrameUniformBuffer();
+
+    /**
+     * Wiederverwendete Himmelsfarbe für die {@link #frameUniforms}.
+     */
+    private final Vector3f skyColor = new Vector3f();
+
+    /**
+     * Gibt an, ob Entities instanziert ({@link InstancedEntityRenderer}) oder einzeln ({@link EntityRenderer}) gerendert werden.
+     * Standardmäßig werden Entities einzeln gerendert (false).
+     */
+    @Setter
+    @Getter
+    private boolean instancedRendering = false;
+
+    /**
+     * Der tolerierte Fehler der Detailstufen in Pixeln. Je größer der Wert, desto früher werden Entities und
+     * Chunks der Terrains mit vereinfachten Detailstufen gerendert.
+     *
+     * @see de.gabriel.engine.models.LodChain
+     * @see TerrainChunkGrid
+     */
+    @Setter
+    @Getter
+    private float lodPixelError = 1;
+
+    /**
+     * Der Durchmesser in Pixeln, den ein Objekt mit Durchmesser 1 im Abstand 1 auf dem Bildschirm einnimmt.
+     * Wird aus der Projektionsmatrix berechnet und für die Wahl der Detailstufen verwendet.
+     */
+    private float screenScale;
+
+    public MasterRenderer(Loader loader, AssetManager assets, TimeCycle timeCycle) {
         this.loader = loader;
+        gl().cullFace(GL11.GL_BACK);
         enableCulling();
         createProjectionMatrix();
-        renderer = new EntityRenderer(shader, projectionMatrix);
-        terrainRenderer = new TerrainRenderer(terrainShader, projectionMatrix);
-        skyboxRenderer = new SkyboxRenderer(this.loader, projectionMatrix, timeCycle);
-        normalMappingRenderer = new NormalMappingRenderer(projectionMatrix);
+        int occlusionHeight = Math.max(Math.round(OCCLUSION_BUFFER_WIDTH * projectionMatrix.m00() / projectionMatrix.m11()), 1);
+        occlusionCuller = new OcclusionCuller(OCCLUSION_BUFFER_WIDTH, occlusionHeight, ForkJoinPool.commonPool());
+        renderer = new EntityRenderer(shader);
+        instancedRenderer = new InstancedEntityRenderer(loader);
+        terrainRenderer = new TerrainRenderer(terrainShader);
+        skyboxRenderer = new SkyboxRenderer(this.loader, assets, projectionMatrix, timeCycle);
+        normalMappingRenderer = new NormalMappingRenderer();
+        impostorRenderer = new ImpostorRenderer(loader);
+        vegetationRenderer = new VegetationRenderer();
     }
 
     /**
      * Aktiviert das Culling, sodass nur die Vorderseite der Dreiecke (die dessen Normalvektor zur Kamera zeigt) gerendert wird.
      */
     public static void enableCulling() {
-        GL11.glEnable(GL11.GL_CULL_FACE);
-        GL11.glCullFace(GL11.GL_BACK);
+        GlStateCache.setCulling(true);
     }
 
     /**
      * Deaktiviert das Culling, sodass die Vorder- und Rückseite der Dreiecke gerendert wird.
      */
     public static void disableCulling() {
-        GL11.glDisable(GL11.GL_CULL_FACE);
+        GlStateCache.setCulling(false);
     }
 
     /**
@@ -148,28 +303,43 @@ public class MasterRenderer {
      */
     public void render(List<Light> lights, Camera camera) {
         prepare();
-        shader.start();
-        shader.loadSkyColor(RED, GREEN, BLUE);
-        shader.loadLights(lights);
-        shader.loadViewMatrix(camera);
-        renderer.render(entities);
-        shader.stop();
-        normalMappingRenderer.render(normalMapEntities, lights, camera);
+        updateFrustum(camera);
+        skyColor.set(RED, GREEN, BLUE);
+        frameUniforms.update(projectionMatrix, viewMatrix, skyColor, lights);
+        Profiler.begin(TERRAIN_CULLING_ZONE);
+        cullTerrains(camera);
+        Profiler.end(TERRAIN_CULLING_ZONE);
+        OcclusionCuller occlusion = null;
+        if (occlusionCulling) {
+            Profiler.begin(OCCLUSION_CULLING_ZONE);
+            occlusionCuller.update(projectionMatrix, viewMatrix, terrains, occluders);
+            Profiler.end(OCCLUSION_CULLING_ZONE);
+            occlusion = occlusionCuller;
+        }
+        Profiler.begin(ENTITY_CULLING_ZONE);
+        entities.cull(frustum, camera.getPosition(), screenScale, lodPixelError, occlusion);
+        normalMapEntities.cull(frustum, camera.getPosition(), screenScale, lodPixelError, occlusion);
+        Profiler.end(ENTITY_CULLING_ZONE);
+        if (instancedRendering) {
+            instancedRenderer.render(entities.getBatches(), camera);
+        } else {
+            shader.start();
+            renderer.render(entities.getBatches(), camera.getPosition());
+            shader.stop();
+        }
+        impostorRenderer.render(entities.getBatches(), camera.getPosition());
+        if (vegetation != null) {
+            vegetationRenderer.render(vegetation, frustum, camera.getPosition());
+        }
+        normalMappingRenderer.render(normalMapEntities.getBatches(), camera);
         terrainShader.start();
-        terrainShader.loadSkyColor(RED, GREEN, BLUE);
-        terrainShader.loadLights(lights);
-        terrainShader.loadViewMatrix(camera);
-        terrainRenderer.render(terrains);
+        terrainRenderer.render(terrains, camera.getPosition());
         terrainShader.stop();
         skyboxRenderer.render(camera, RED, GREEN, BLUE);
-        terrains.clear();
-        entities.clear();
-        normalMapEntities.clear();
     }
 
     /**
-     * Fügt ein Terrain der Liste von Terrains hinzu.
-     * d
+     * Fügt ein Terrain der Liste von Terrains hinzu. Das Terrain wird ab jetzt in jedem Frame gerendert.
      *
      * @param terrain das Terrain, das hinzugefügt werden soll.
      * @see MasterRenderer#terrains
@@ -179,32 +349,155 @@ public class MasterRenderer {
     }
 
     /**
-     * Fügt eine Entity der Entities Map hinzu.
+     * Entfernt ein Terrain aus der Liste von Terrains.
+     *
+     * @param terrain das Terrain, das entfernt werden soll.
+     */
+    public void removeTerrain(Terrain terrain) {
+        terrains.remove(terrain);
+    }
+
+    /**
+     * Bestimmt die sichtbaren Chunks und ihre Detailstufen für alle Terrains. Die Stufen werden über die Kanten
+     * aneinandergrenzender Terrains hinweg angeglichen, daher laufen die Schritte für alle Terrains gemeinsam.
      *
-     * @param Entity die Entity, die hinzugefügt werden soll.
+     * @param camera die Kamera in der Szene.
+     */
+    private void cullTerrains(Camera camera) {
+        for (Terrain terrain : terrains) {
+            terrain.getChunkGrid().selectLevels(camera.getPosition(), screenScale, lodPixelError);
+        }
+        boolean refined = true;
+        while (refined) {
+            refined = false;
+            for (Terrain terrain : terrains) {
+                refined |= terrain.getChunkGrid().limitNeighborLevels();
+            }
+        }
+        for (Terrain terrain : terrains) {
+            TerrainChunkGrid chunkGrid = terrain.getChunkGrid();
+            chunkGrid.collectVisible(frustum);
+            FrameStatistics.add(FrameStatistics.Counter.VISIBLE_TERRAIN_CHUNKS, chunkGrid.getVisibleChunks().size());
+            FrameStatistics.add(FrameStatistics.Counter.CULLED_TERRAIN_CHUNKS,
+                    chunkGrid.getChunkCount() - chunkGrid.getVisibleChunks().size());
+            FrameStatistics.add(FrameStatistics.Counter.TERRAIN_TRIANGLES, chunkGrid.getTriangleCount());
+        }
+    }
+
+
+    /**
+     * Aktualisiert das View Frustum für die aktuelle Position und Rotation der Kamera. Wird von
+     * {@link #render(List, Camera)} vor der Frustum-Abfrage der Render Queues aufgerufen.
+     *
+     * @param camera die Kamera in der Szene.
+     */
+    private void updateFrustum(Camera camera) {
+        Maths.createViewMatrix(camera, viewMatrix);
+        projectionMatrix.mul(viewMatrix, projectionViewMatrix);
+        frustum.update(projectionViewMatrix);
+    }
+
+    /**
+     * Registriert eine Entity, die ab jetzt in jedem Frame gerendert wird, in dem sie im View Frustum liegt.
+     * Änderungen an ihrem Modell oder ihrer Transformation werden automatisch übernommen.
+     *
+     * @param entity die Entity, die hinzugefügt werden soll.
      * @see MasterRenderer#entities
      */
-    public void processEntity(Entity Entity) {
-        TexturedModel entityModel = Entity.getModel(); // Das texturierte Modell der Entity
-        List<Entity> batch = entities.get(entityModel); // Batch mit Entities, die dasselbe texturierte Modell verwenden
-        if (batch != null) {
-            batch.add(Entity); // Entity zum Batch hinzufügen, wenn Batch mit texturiertem Modell existiert
-        } else {
-            List<Entity> newBatch = new ArrayList<Entity>(); // Neuen Batch erstellen, wenn Batch mit texturiertem Modell noch nicht existiert
-            newBatch.add(Entity); // Entity zum neuen Batch hinzufügen
-            entities.put(entityModel, newBatch); // Neuen Batch der Entities Map hinzufügen
+    public void addEntity(Entity entity) {
+        entities.add(entity);
+        addOccluder(entity);
+    }
+
+    /**
+     * Entfernt eine registrierte Entity.
+     *
+     * @param entity die Entity, die entfernt werden soll.
+     * @return true, wenn die Entity registriert war.
+     */
+    public boolean removeEntity(Entity entity) {
+        occluders.remove(entity);
+        return entities.remove(entity);
+    }
+
+    /**
+     * Registriert eine Entity, die mit Normal Mapping gerendert wird.
+     *
+     * @param entity die Entity, die hinzugefügt werden soll.
+     * @see MasterRenderer#normalMapEntities
+     */
+    public void addNormalMapEntity(Entity entity) {
+        normalMapEntities.add(entity);
+        addOccluder(entity);
+    }
+
+    /**
+     * Entfernt eine registrierte Entity, die mit Normal Mapping gerendert wird.
+     *
+     * @param entity die Entity, die entfernt werden soll.
+     * @return true, wenn die Entity registriert war.
+     */
+    public boolean removeNormalMapEntity(Entity entity) {
+        occluders.remove(entity);
+        return normalMapEntities.remove(entity);
+    }
+
+    /**
+     * Backt die Frames eines texturierten Modells in den {@link ImpostorAtlas}. Entities mit dem zurückgegebenen
+     * Modell werden ab der {@link #getImpostorDistance() Impostor-Distanz} als Impostor gerendert.
+     *
+     * @param model das texturierte Modell.
+     * @return das Modell mit seinem Impostor.
+     * @throws IllegalStateException wenn der Atlas voll ist.
+     */
+    public TexturedModel bakeImpostor(TexturedModel model) {
+        if (impostorAtlas == null) {
+            impostorAtlas = new ImpostorAtlas();
         }
+        Impostor impostor = impostorAtlas.bake(model);
+        return model.withImpostor(impostor);
     }
 
-    public void processNormalMapEntity(Entity Entity) {
-        TexturedModel entityModel = Entity.getModel(); // Das texturierte Modell der Entity
-        List<Entity> batch = normalMapEntities.get(entityModel); // Batch mit Entities, die dasselbe texturierte Modell verwenden
-        if (batch != null) {
-            batch.add(Entity); // Entity zum Batch hinzufügen, wenn Batch mit texturiertem Modell existiert
-        } else {
-            List<Entity> newBatch = new ArrayList<Entity>(); // Neuen Batch erstellen, wenn Batch mit texturiertem Modell noch nicht existiert
-            newBatch.add(Entity); // Entity zum neuen Batch hinzufügen
-            normalMapEntities.put(entityModel, newBatch); // Neuen Batch der Entities Map hinzufügen
+    /**
+     * @return der Abstand zur Kamera, ab dem Entities mit Impostor überblendet werden.
+     * @see RenderQueue#getImpostorDistance()
+     */
+    public float getImpostorDistance() {
+        return entities.getImpostorDistance();
+    }
+
+    /**
+     * Setzt den Abstand zur Kamera, ab dem Entities mit Impostor überblendet werden.
+     *
+     * @param impostorDistance der Abstand ({@link Float#POSITIVE_INFINITY} schaltet die Impostors ab).
+     */
+    public void setImpostorDistance(float impostorDistance) {
+        entities.setImpostorDistance(impostorDistance);
+    }
+
+    /**
+     * @return die Strecke, über die vom Modell zum Impostor überblendet wird.
+     * @see RenderQueue#getImpostorFadeWidth()
+     */
+    public float getImpostorFadeWidth() {
+        return entities.getImpostorFadeWidth();
+    }
+
+    /**
+     * Setzt die Strecke, über die vom Modell zum Impostor überblendet wird.
+     *
+     * @param impostorFadeWidth die Strecke (0 wechselt ohne Überblendung).
+     */
+    public void setImpostorFadeWidth(float impostorFadeWidth) {
+        entities.setImpostorFadeWidth(impostorFadeWidth);
+    }
+
+    /**
+     * Merkt sich eine Entity als Verdecker, wenn sie einen {@link de.gabriel.engine.scene.Occluder} hat.
+     */
+    private void addOccluder(Entity entity) {
+        if (entity.getOccluder() != null) {
+            occluders.add(entity);
         }
     }
 
@@ -215,19 +508,28 @@ public class MasterRenderer {
      * @see TerrainShader#cleanUp()
      */
     public void cleanUp() {
+        frameUniforms.cleanUp();
+        instancedRenderer.cleanUp();
+        impostorRenderer.cleanUp();
+        vegetationRenderer.cleanUp();
+        if (impostorAtlas != null) {
+            impostorAtlas.cleanUp();
+        }
         normalMappingRenderer.cleanUp();
         shader.cleanUp();
         terrainShader.cleanUp();
     }
 
     /**
-     * Bereitet die Szene für das Rendern vor.
+     * Bereitet die Szene für das Rendern vor. Da zwischen zwei Frames auch an OpenGL vorbei gerendert und geladen
+     * wird (GUI, Texte, Uploads des {@link AssetManager}), beginnt jeder Frame mit einem leeren {@link GlStateCache}.
      */
     public void prepare() {
+        GlStateCache.invalidate();
         updateSkyColor();
-        GL11.glEnable(GL11.GL_DEPTH_TEST); // Test um die Tiefenwerte zu vergleichen, sodass die Dreiecke in der richtigen Reihenfolge gerendert werden.
-        GL11.glClear(GL11.GL_COLOR_BUFFER_BIT | GL11.GL_DEPTH_BUFFER_BIT);
-        GL11.glClearColor(RED, GREEN, BLUE, 1);
+        gl().enable(GL11.GL_DEPTH_TEST); // Test um die Tiefenwerte zu vergleichen, sodass die Dreiecke in der richtigen Reihenfolge gerendert werden.
+        gl().clear(GL11.GL_COLOR_BUFFER_BIT | GL11.GL_DEPTH_BUFFER_BIT);
+        gl().clearColor(RED, GREEN, BLUE, 1);
     }
 
     private void updateSkyColor() {
@@ -242,29 +544,40 @@ public class MasterRenderer {
      * Initialisiert die Projektionsmatrix {@link #projectionMatrix}.
      */
     private void createProjectionMatrix() {
-        long window = GLFW.glfwGetCurrentContext();
+        int[] windowSize = new int[2];
+        gl().getWindowSize(windowSize);
+        int width = windowSize[0];
+        int height = windowSize[1];
 
-        IntBuffer w = BufferUtils.createIntBuffer(1);
-        IntBuffer h = BufferUtils.createIntBuffer(1);
-        glfwGetWindowSize(window, w, h);
-        int width = w.get(0);
-        int height = h.get(0);
+        projectionMatrix = createProjectionMatrix(width, height);
+        screenScale = projectionMatrix.m11() * height / 2f;
 
+        log.info("Created projection matrix; {[WindowWidth={}], [WindowHeight={}], [FrustumLength={}], [NearPlane={}], [FarPlane={}], [AspectRatio={}]}",
+                width, height, FAR_PLANE - NEAR_PLANE, NEAR_PLANE, FAR_PLANE, (float) width / (float) height);
+    }
+
+    /**
+     * Erstellt die Projektionsmatrix für ein Fenster der angegebenen Größe. Das {@link #FOV Sichtfeld} gilt dabei
+     * horizontal.
+     *
+     * @param width  die Breite des Fensters in Pixeln.
+     * @param height die Höhe des Fensters in Pixeln.
+     * @return die Projektionsmatrix.
+     */
+    static Matrix4f createProjectionMatrix(int width, int height) {
         float aspectRatio = (float) width / (float) height;
         float y_scale = (float) ((1f / Math.tan(Math.toRadians(FOV / 2f))) * aspectRatio);
         float x_scale = y_scale / aspectRatio;
         float frustum_length = FAR_PLANE - NEAR_PLANE;
 
-        projectionMatrix = new Matrix4f();
+        Matrix4f projectionMatrix = new Matrix4f();
         projectionMatrix.m00(x_scale);
         projectionMatrix.m11(y_scale);
         projectionMatrix.m22(-((FAR_PLANE + NEAR_PLANE) / frustum_length));
         projectionMatrix.m23(-1);
         projectionMatrix.m32(-((2 * NEAR_PLANE * FAR_PLANE) / frustum_length));
         projectionMatrix.m33(0);
-
-        log.info("Created projection matrix; {[WindowWidth={}], [WindowHeight={}], [FrustumLength={}], [NearPlane={}], [FarPlane={}], [AspectRatio={}]}",
-                width, height, frustum_length, NEAR_PLANE, FAR_PLANE, aspectRatio);
+        return projectionMatrix;
     }
 
 
@@ -0,0 +1,87 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.models.TexturedModel;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ein dauerhafter Batch aller Entities, die dasselbe {@link TexturedModel} verwenden. Anders als die früheren
+ * Batches in einer pro Frame neu aufgebauten Map bleibt ein Batch über alle Frames bestehen; pro Frame wird nur
+ * die (wiederverwendete) Liste der sichtbaren Entities geleert und neu befüllt.
+ *
+ * @see RenderQueue
+ */
+@Getter
+public class RenderBatch {
+
+    /**
+     * Das texturierte Modell, das alle Entities des Batches verwenden.
+     */
+    private final TexturedModel model;
+
+    /**
+     * Alle im Batch registrierten Entities.
+     */
+    private final List<Entity> entities = new ArrayList<Entity>();
+
+    /**
+     * Die Entities des Batches, die im aktuellen Frame sichtbar sind.
+     */
+    private final List<Entity> visibleEntities = new ArrayList<Entity>();
+
+    /**
+     * Die Entities des Batches, die im aktuellen Frame (auch) als {@link de.gabriel.engine.models.Impostor}
+     * gerendert werden. Wird nur im Batch der vollen Auflösung befüllt.
+     */
+    private final List<Entity> impostorEntities = new ArrayList<Entity>();
+
+    /**
+     * Die Batches der vereinfachten Detailstufen des Modells (Index = Stufe, Index 0 bleibt leer). Sie werden
+     * erst angelegt, wenn eine Entity des Batches mit der Stufe gerendert wird, und enthalten nur sichtbare Entities.
+     *
+     * @see de.gabriel.engine.models.LodChain
+     */
+    @Getter(AccessLevel.NONE)
+    private RenderBatch[] lodBatches;
+
+    RenderBatch(TexturedModel model) {
+        this.model = model;
+    }
+
+    /**
+     * @param level die Detailstufe.
+     * @return der Batch, in dem die sichtbaren Entities dieser Stufe gesammelt werden (dieser Batch für Stufe 0),
+     * oder null, wenn er noch nicht angelegt wurde.
+     */
+    RenderBatch getLodBatch(int level) {
+        if (level == 0) {
+            return this;
+        }
+        return lodBatches != null && level < lodBatches.length ? lodBatches[level] : null;
+    }
+
+    /**
+     * Legt den Batch einer vereinfachten Detailstufe fest.
+     *
+     * @param level    die Detailstufe (größer 0).
+     * @param lodBatch der Batch der Stufe.
+     */
+    void setLodBatch(int level, RenderBatch lodBatch) {
+        if (lodBatches == null) {
+            lodBatches = new RenderBatch[model.lods().getLevelCount()];
+        }
+        lodBatches[level] = lodBatch;
+    }
+
+    /**
+     * @return true, wenn im aktuellen Frame keine Entity des Batches sichtbar ist.
+     */
+    public boolean isEmpty() {
+        return visibleEntities.isEmpty();
+    }
+
+}
@@ -0,0 +1,327 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.entities.EntityListener;
+import de.gabriel.engine.models.Impostor;
+import de.gabriel.engine.models.LodChain;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.scene.LooseOctree;
+import de.gabriel.engine.scene.OcclusionCuller;
+import de.gabriel.engine.utils.Frustum;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Eine dauerhafte Render Queue (Retained Mode). Entities werden einmalig mit {@link #add(Entity)} registriert
+ * und bleiben so lange in ihrem {@link RenderBatch}, bis sie entfernt werden oder ihr Modell wechseln.
+ * Ändert sich die Transformation einer Entity, wird sie nur als "dirty" markiert und vor der nächsten
+ * Frustum-Abfrage im räumlichen Index aktualisiert.
+ * <p>
+ * Pro Frame werden nur die wiederverwendeten Listen der sichtbaren Entities geleert und neu befüllt. Für
+ * statische Inhalte entstehen dadurch keine Allokationen und kein Hashing mehr auf dem CPU-Pfad bis zum Renderer.
+ * </p>
+ * <p>
+ * Hat das Modell eines Batches Detailstufen ({@link LodChain}), wird für jede sichtbare Entity anhand ihrer
+ * projizierten Größe eine Stufe gewählt. Entities einer vereinfachten Stufe landen im Batch dieser Stufe, der
+ * beim ersten Bedarf angelegt wird; die Renderer sehen ihn wie jeden anderen Batch.
+ * </p>
+ * <p>
+ * Hat das Modell ein {@link Impostor}, werden Entities ab {@link #impostorDistance} über {@link #impostorFadeWidth}
+ * vom Modell zum Impostor überblendet ({@link Entity#getImpostorFade()}). Überblendete Entities stehen in beiden
+ * Listen des Batches; vollständig überblendete nur noch in {@link RenderBatch#getImpostorEntities()}.
+ * </p>
+ *
+ * @see RenderBatch
+ * @see LooseOctree
+ */
+@Slf4j
+public class RenderQueue implements EntityListener {
+
+    /**
+     * Die Batches in der Reihenfolge, in der sie gerendert werden.
+     */
+    private final List<RenderBatch> batches = new ArrayList<RenderBatch>();
+
+    /**
+     * Die Batches nach ihrem texturierten Modell. Wird nur beim Registrieren und bei Modellwechseln verwendet.
+     */
+    private final Map<TexturedModel, RenderBatch> batchesByModel = new HashMap<TexturedModel, RenderBatch>();
+
+    /**
+     * Der Batch, in dem jede registrierte Entity liegt.
+     */
+    private final Map<Entity, RenderBatch> entityBatches = new IdentityHashMap<Entity, RenderBatch>();
+
+    /**
+     * Entities, deren Transformation sich seit der letzten Frustum-Abfrage geändert hat. Jede Entity steht nur
+     * einmal in der Liste ({@link Entity#isIndexUpdatePending()}), die per Index durchlaufen wird.
+     */
+    private final List<Entity> dirtyEntities = new ArrayList<Entity>();
+
+    /**
+     * Wiederverwendete Liste für die Ergebnisse der Frustum-Abfrage.
+     */
+    private final List<Entity> visibleEntities = new ArrayList<Entity>();
+
+    /**
+     * Der räumliche Index mit allen registrierten Entities.
+     */
+    private final LooseOctree index;
+
+    /**
+     * Der Abstand zur Kamera, ab dem Entities mit {@link Impostor} zum Impostor überblendet werden. Standardmäßig
+     * unendlich (keine Impostors).
+     */
+    @Getter
+    @Setter
+    private float impostorDistance = Float.POSITIVE_INFINITY;
+
+    /**
+     * Die Strecke hinter {@link #impostorDistance}, über die vom Modell zum Impostor überblendet wird.
+     */
+    @Getter
+    @Setter
+    private float impostorFadeWidth = 20;
+
+    /**
+     * @param index der (leere) räumliche Index, in dem die registrierten Entities gespeichert werden.
+     */
+    public RenderQueue(LooseOctree index) {
+        this.index = index;
+    }
+
+    /**
+     * Registriert eine Entity in der Render Queue. Die Entity wird ab jetzt in jedem Frame gerendert,
+     * in dem sie im View Frustum liegt.
+     *
+     * @param entity die Entity, die hinzugefügt werden soll.
+     * @throws IllegalStateException wenn die Entity bereits in einer Render Queue registriert ist.
+     */
+    public void add(Entity entity) {
+        if (entity.getListener() != null) {
+            throw new IllegalStateException("Entity is already registered in a render queue");
+        }
+        RenderBatch batch = getOrCreateBatch(entity.getModel());
+        batch.getEntities().add(entity);
+        entityBatches.put(entity, batch);
+        index.insert(entity);
+        entity.setListener(this);
+    }
+
+    /**
+     * Entfernt eine Entity aus der Render Queue.
+     *
+     * @param entity die Entity, die entfernt werden soll.
+     * @return true, wenn die Entity registriert war.
+     */
+    public boolean remove(Entity entity) {
+        RenderBatch batch = entityBatches.remove(entity);
+        if (batch == null) {
+            return false;
+        }
+        batch.getEntities().remove(entity);
+        visibleBatch(batch, entity).getVisibleEntities().remove(entity);
+        batch.getImpostorEntities().remove(entity);
+        if (entity.isIndexUpdatePending()) {
+            dirtyEntities.remove(entity);
+            entity.setIndexUpdatePending(false);
+        }
+        index.remove(entity);
+        entity.setListener(null);
+        entity.setLodLevel(0);
+        entity.setImpostorFade(0);
+        return true;
+    }
+
+    @Override
+    public void onModelChanged(Entity entity, TexturedModel oldModel) {
+        RenderBatch oldBatch = entityBatches.get(entity);
+        oldBatch.getEntities().remove(entity);
+        visibleBatch(oldBatch, entity).getVisibleEntities().remove(entity);
+        oldBatch.getImpostorEntities().remove(entity);
+        entity.setLodLevel(0); // Die Stufen des neuen Modells sind unabhängig von denen des alten
+        entity.setImpostorFade(0);
+        RenderBatch newBatch = getOrCreateBatch(entity.getModel());
+        newBatch.getEntities().add(entity);
+        entityBatches.put(entity, newBatch);
+        markDirty(entity); // Das neue Modell kann eine andere Bounding Sphere haben
+    }
+
+    @Override
+    public void onTransformChanged(Entity entity) {
+        markDirty(entity);
+    }
+
+    private void markDirty(Entity entity) {
+        if (!entity.isIndexUpdatePending()) {
+            entity.setIndexUpdatePending(true);
+            dirtyEntities.add(entity);
+        }
+    }
+
+    /**
+     * Aktualisiert die geänderten Entities im räumlichen Index und befüllt die Listen der sichtbaren
+     * Entities aller Batches für das aktuelle Frame neu. Entities mit Detailstufen werden dabei dem Batch
+     * ihrer Stufe zugeordnet, Entities jenseits von {@link #impostorDistance} den Impostors ihres Batches.
+     *
+     * @param frustum        das View Frustum der Kamera im aktuellen Frame.
+     * @param cameraPosition die Position der Kamera.
+     * @param screenScale    der Durchmesser in Pixeln, den ein Objekt mit Durchmesser 1 im Abstand 1 auf dem
+     *                       Bildschirm einnimmt.
+     * @param pixelError     der tolerierte Fehler der Detailstufen in Pixeln.
+     * @param occlusion      verwirft Entities im Frustum, die hinter Verdeckern liegen, oder null ohne Occlusion Culling.
+     */
+    public void cull(Frustum frustum, Vector3f cameraPosition, float screenScale, float pixelError,
+                     OcclusionCuller occlusion) {
+        for (int i = 0; i < dirtyEntities.size(); i++) {
+            Entity entity = dirtyEntities.get(i);
+            entity.setIndexUpdatePending(false);
+            index.update(entity);
+        }
+        dirtyEntities.clear();
+        for (int i = 0; i < batches.size(); i++) {
+            batches.get(i).getVisibleEntities().clear();
+            batches.get(i).getImpostorEntities().clear();
+        }
+        visibleEntities.clear();
+        index.queryFrustum(frustum, visibleEntities);
+        int entitiesInFrustum = visibleEntities.size();
+        if (occlusion != null) {
+            removeOccluded(occlusion);
+        }
+        int reducedEntities = 0;
+        int impostors = 0;
+        int removedTriangles = 0;
+        for (int i = 0; i < visibleEntities.size(); i++) {
+            Entity entity = visibleEntities.get(i);
+            RenderBatch batch = entityBatches.get(entity);
+            TexturedModel model = batch.getModel();
+            Vector4f sphere = entity.getWorldBoundingSphere();
+            float distance = distance(sphere, cameraPosition);
+            int level = 0;
+            LodChain lods = model.lods();
+            if (lods != null) {
+                level = lods.selectLevel(projectedSize(sphere, distance, screenScale), pixelError, entity.getLodLevel());
+                entity.setLodLevel(level);
+            }
+            float fade = model.impostor() != null ? Impostor.fade(distance, impostorDistance, impostorFadeWidth) : 0;
+            entity.setImpostorFade(fade);
+            if (fade > 0) {
+                batch.getImpostorEntities().add(entity);
+                impostors++;
+                if (fade >= 1) {
+                    int triangles = lods != null ? lods.getTriangleCount(level) : model.rawModel().vertexCount() / 3;
+                    removedTriangles += triangles - 2; // Das Impostor selbst besteht aus zwei Dreiecken
+                    continue;
+                }
+            }
+            if (level > 0) {
+                batch = getOrCreateLodBatch(batch, level);
+                reducedEntities++;
+            }
+            batch.getVisibleEntities().add(entity);
+        }
+        FrameStatistics.add(FrameStatistics.Counter.VISIBLE_ENTITIES, visibleEntities.size());
+        FrameStatistics.add(FrameStatistics.Counter.CULLED_ENTITIES, index.size() - entitiesInFrustum);
+        FrameStatistics.add(FrameStatistics.Counter.OCCLUDED_ENTITIES, entitiesInFrustum - visibleEntities.size());
+        FrameStatistics.add(FrameStatistics.Counter.LOD_REDUCED_ENTITIES, reducedEntities);
+        FrameStatistics.add(FrameStatistics.Counter.IMPOSTORS, impostors);
+        FrameStatistics.add(FrameStatistics.Counter.IMPOSTOR_TRIANGLES_REMOVED, removedTriangles);
+    }
+
+    /**
+     * Entfernt die verdeckten Entities aus {@link #visibleEntities}, ohne die Reihenfolge der übrigen zu ändern.
+     */
+    private void removeOccluded(OcclusionCuller occlusion) {
+        int kept = 0;
+        for (int i = 0; i < visibleEntities.size(); i++) {
+            Entity entity = visibleEntities.get(i);
+            if (!occlusion.isOccluded(entity)) {
+                visibleEntities.set(kept++, entity);
+            }
+        }
+        visibleEntities.subList(kept, visibleEntities.size()).clear();
+    }
+
+    /**
+     * Der Abstand vom Mittelpunkt einer Bounding Sphere zur Kamera.
+     */
+    private static float distance(Vector4f sphere, Vector3f cameraPosition) {
+        float dx = sphere.x - cameraPosition.x;
+        float dy = sphere.y - cameraPosition.y;
+        float dz = sphere.z - cameraPosition.z;
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * Der projizierte Durchmesser einer Bounding Sphere in Pixeln. Liegt die Kamera innerhalb der Sphere,
+     * ist die Größe unendlich (volle Auflösung).
+     */
+    private static float projectedSize(Vector4f sphere, float distance, float screenScale) {
+        if (distance <= sphere.w) {
+            return Float.POSITIVE_INFINITY;
+        }
+        return 2 * sphere.w * screenScale / distance;
+    }
+
+    /**
+     * Der Batch, in dessen Liste der sichtbaren Entities die Entity im letzten Frame eingetragen wurde.
+     */
+    private static RenderBatch visibleBatch(RenderBatch batch, Entity entity) {
+        RenderBatch lodBatch = batch.getLodBatch(entity.getLodLevel());
+        return lodBatch != null ? lodBatch : batch;
+    }
+
+    /**
+     * Liefert den Batch einer vereinfachten Detailstufe und legt ihn beim ersten Bedarf an.
+     */
+    private RenderBatch getOrCreateLodBatch(RenderBatch batch, int level) {
+        RenderBatch lodBatch = batch.getLodBatch(level);
+        if (lodBatch == null) {
+            TexturedModel model = batch.getModel();
+            lodBatch = new RenderBatch(new TexturedModel(model.lods().getLevel(level), model.texture()));
+            batch.setLodBatch(level, lodBatch);
+            batches.add(lodBatch);
+            log.info("Created LOD render batch; {[Batches={}], [VaoId={}], [Level={}], [Triangles={}], [Error={}]}",
+                    batches.size(), lodBatch.getModel().rawModel().vaoID(), level,
+                    model.lods().getTriangleCount(level), model.lods().getError(level));
+        }
+        return lodBatch;
+    }
+
+    private RenderBatch getOrCreateBatch(TexturedModel model) {
+        RenderBatch batch = batchesByModel.get(model);
+        if (batch == null) {
+            batch = new RenderBatch(model);
+            batchesByModel.put(model, batch);
+            batches.add(batch);
+            log.info("Created render batch; {[Batches={}], [VaoId={}], [TextureId={}]}",
+                    batches.size(), model.rawModel().vaoID(), model.texture().getTextureID());
+        }
+        return batch;
+    }
+
+    /**
+     * @return die Batches der Render Queue. Leere Batches bleiben erhalten und werden beim Rendern übersprungen.
+     */
+    public List<RenderBatch> getBatches() {
+        return batches;
+    }
+
+    /**
+     * @return die Anzahl der registrierten Entities.
+     */
+    public int size() {
+        return entityBatches.size();
+    }
+
+}
@@ -0,0 +1,35 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.terrain.Terrain;
+import de.gabriel.engine.terrain.TerrainWorld;
+
+import java.util.List;
+
+/**
+ * Hält eine Liste von Terrains (die des {@link MasterRenderer}s) mit den residenten Kacheln einer
+ * {@link TerrainWorld} synchron: geladene Kacheln werden angehängt, verworfene entfernt.
+ *
+ * @see MasterRenderer#getTerrainListener()
+ */
+class TerrainListListener implements TerrainWorld.Listener {
+
+    private final List<Terrain> terrains;
+
+    /**
+     * @param terrains die Liste, in der die residenten Kacheln stehen sollen.
+     */
+    TerrainListListener(List<Terrain> terrains) {
+        this.terrains = terrains;
+    }
+
+    @Override
+    public void onTileLoaded(Terrain terrain) {
+        terrains.add(terrain);
+    }
+
+    @Override
+    public void onTileEvicted(Terrain terrain) {
+        terrains.remove(terrain);
+    }
+
+}
@@ -1,70 +1,129 @@
 package de.gabriel.engine.renderer;
 
+import de.gabriel.engine.converter.vertex.VertexPacker;
 import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.profiler.Profiler;
 import de.gabriel.engine.shaders.TerrainShader;
+import de.gabriel.engine.terrain.GeoMipmap;
 import de.gabriel.engine.terrain.Terrain;
+import de.gabriel.engine.terrain.TerrainChunk;
+import de.gabriel.engine.terrain.TerrainChunkGrid;
 import de.gabriel.engine.textures.TerrainTexturePack;
 import de.gabriel.engine.utils.Maths;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import org.lwjgl.opengl.GL11;
-import org.lwjgl.opengl.GL13;
-import org.lwjgl.opengl.GL20;
-import org.lwjgl.opengl.GL30;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
+
 
 /**
- * Rendert ein Terrain in der Szene.
+ * Rendert die Terrains in der Szene.
  */
 public class TerrainRenderer {
 
+    /**
+     * Die Zone des Renderers im {@link Profiler}.
+     */
+    private static final int PROFILER_ZONE = Profiler.zone("TerrainRenderer", true);
+
     /**
      * Shader Programm zum Rendern des Terrains.
      */
     private final TerrainShader shader;
 
-    public TerrainRenderer(TerrainShader shader, Matrix4f projectionMatrix) {
+    /**
+     * Die sichtbaren Chunks aller Terrains des aktuellen Frames in der Reihenfolge, in der sie gerendert werden.
+     * Die Werte sind Indizes in {@link #drawTerrains} und {@link #drawChunks}.
+     */
+    private final DrawList drawList = new DrawList();
+
+    private final List<Terrain> drawTerrains = new ArrayList<Terrain>();
+
+    private final List<TerrainChunk> drawChunks = new ArrayList<TerrainChunk>();
+
+    public TerrainRenderer(TerrainShader shader) {
         this.shader = shader;
         shader.start();
-        shader.loadProjectionMatrix(projectionMatrix);
         shader.connectTextureUnits();
         shader.stop();
     }
 
     /**
-     * Rendert eine Liste an Terrains in der Szene.
+     * Rendert die im letzten {@link TerrainChunkGrid#collectVisible Culling} sichtbaren Chunks einer Liste an
+     * Terrains. Die Chunks aller Terrains werden nach ihrem {@link DrawKey Sortierschlüssel} gerendert, also nach
+     * Texturen und VAO gruppiert und innerhalb eines Terrains von vorne nach hinten. Jeder Chunk wird mit einem Draw
+     * Call gezeichnet, der die Variante seiner Stufe im gemeinsamen Index-Buffer mit dem Base Vertex des Chunks
+     * verwendet.
      *
-     * @param terrains die Terrains, die gerendert werden sollen.
+     * @param terrains       die Terrains, die gerendert werden sollen.
+     * @param cameraPosition die Position der Kamera.
      */
-    public void render(List<Terrain> terrains) {
-        for (Terrain terrain : terrains) {
-            prepareTerrain(terrain);
-            loadModelMatrix(terrain);
-            GL11.glDrawElements(GL11.GL_TRIANGLES, terrain.getModel().vertexCount(), GL11.GL_UNSIGNED_INT, 0);
-            unbindTexturedModel();
+    public void render(List<Terrain> terrains, Vector3f cameraPosition) {
+        Profiler.begin(PROFILER_ZONE);
+        sortChunks(terrains, cameraPosition);
+        GlStateCache.setCulling(true);
+        shader.loadShineVariables(1, 0);
+        Terrain preparedTerrain = null;
+        for (int i = 0; i < drawList.size(); i++) {
+            int index = drawList.getValue(i);
+            Terrain terrain = drawTerrains.get(index);
+            if (terrain != preparedTerrain) {
+                prepareTerrain(terrain);
+                preparedTerrain = terrain;
+            }
+            TerrainChunk chunk = drawChunks.get(index);
+            RawModel model = terrain.getModel();
+            GeoMipmap geoMipmap = terrain.getChunkGrid().getGeoMipmap();
+            gl().drawElementsBaseVertex(GL11.GL_TRIANGLES, geoMipmap.getCount(chunk.getLevel(), chunk.getStitchMask()),
+                    model.indexType(), (long) geoMipmap.getOffset(chunk.getLevel(), chunk.getStitchMask())
+                            * VertexPacker.indexBytes(model.indexType()),
+                    chunk.getBaseVertex());
+            FrameStatistics.increment(FrameStatistics.Counter.DRAW_CALLS);
         }
+        Profiler.end(PROFILER_ZONE);
     }
 
     /**
-     * Bereitet das Terrain zum Rendern vor.
+     * Sammelt die sichtbaren Chunks aller Terrains und sortiert sie in {@link #drawList}.
+     */
+    private void sortChunks(List<Terrain> terrains, Vector3f cameraPosition) {
+        drawList.clear();
+        drawTerrains.clear();
+        drawChunks.clear();
+        for (int i = 0; i < terrains.size(); i++) {
+            Terrain terrain = terrains.get(i);
+            int material = terrain.getTexturePack().backgroundTexture().textureID();
+            int vao = terrain.getModel().vaoID();
+            List<TerrainChunk> visibleChunks = terrain.getChunkGrid().getVisibleChunks();
+            for (int j = 0; j < visibleChunks.size(); j++) {
+                TerrainChunk chunk = visibleChunks.get(j);
+                float distance = chunk.distanceTo(cameraPosition.x, cameraPosition.y, cameraPosition.z);
+                drawList.add(DrawKey.opaque(DrawKey.SHADER_TERRAIN, material, vao, distance * distance), drawChunks.size());
+                drawTerrains.add(terrain);
+                drawChunks.add(chunk);
+            }
+        }
+        drawList.sort();
+    }
+
+    /**
+     * Bereitet das Terrain zum Rendern vor. Die Attribute des VAOs sind bereits beim Laden aktiviert worden.
      *
      * @param terrain das Terrain, das zum Rendern vorbereitet werden soll.
      */
     private void prepareTerrain(Terrain terrain) {
-        RawModel rawModel = terrain.getModel();
-        GL30.glBindVertexArray(rawModel.vaoID());
-        GL20.glEnableVertexAttribArray(0);
-        GL20.glEnableVertexAttribArray(1);
-        GL20.glEnableVertexAttribArray(2);
+        GlStateCache.bindVertexArray(terrain.getModel().vaoID());
         bindTextures(terrain);
-        shader.loadShineVariables(1, 0);
-
+        loadModelMatrix(terrain);
     }
 
     /**
-     * Bindet die Texturen des Terrains (inklusive der Blend Map) in den OpenGL-Context.
+     * Bindet die Texturen des Terrains (inklusive der Blend Map) über den {@link GlStateCache} in den
+     * OpenGL-Context. Teilen sich benachbarte Terrains ein Texture Pack, werden nur die geänderten Texturen gebunden.
      *
      * <p>
      * Dabei werden die Texturen wie folgt an die Texture Units gebunden:
@@ -82,26 +141,11 @@ public class TerrainRenderer {
     private void bindTextures(Terrain terrain) {
         TerrainTexturePack texturePack = terrain.getTexturePack(); // Texturen des Terrains
         // Binden der einzelnen Texturen zu den Texture Units
-        GL13.glActiveTexture(GL13.GL_TEXTURE0);
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texturePack.backgroundTexture().textureID());
-        GL13.glActiveTexture(GL13.GL_TEXTURE1);
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texturePack.rTexture().textureID());
-        GL13.glActiveTexture(GL13.GL_TEXTURE2);
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texturePack.gTexture().textureID());
-        GL13.glActiveTexture(GL13.GL_TEXTURE3);
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texturePack.bTexture().textureID());
-        GL13.glActiveTexture(GL13.GL_TEXTURE4);
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, terrain.getBlendMap().textureID());
-    }
-
-    /**
-     * Entfernt das texturierte Modell aus dem OpenGL-Context.
-     */
-    private void unbindTexturedModel() {
-        GL20.glDisableVertexAttribArray(0);
-        GL20.glDisableVertexAttribArray(1);
-        GL20.glDisableVertexAttribArray(2);
-        GL30.glBindVertexArray(0);
+        GlStateCache.bindTexture(0, texturePack.backgroundTexture().textureID());
+        GlStateCache.bindTexture(1, texturePack.rTexture().textureID());
+        GlStateCache.bindTexture(2, texturePack.gTexture().textureID());
+        GlStateCache.bindTexture(3, texturePack.bTexture().textureID());
+        GlStateCache.bindTexture(4, terrain.getBlendMap().textureID());
     }
 
     /**
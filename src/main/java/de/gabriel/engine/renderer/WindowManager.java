@@ -6,9 +6,9 @@ import org.lwjgl.glfw.GLFWErrorCallback;
 import org.lwjgl.glfw.GLFWWindowSizeCallback;
 import org.lwjgl.opengl.GL;
 
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
 import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.opengl.GL11.GL_TRUE;
-import static org.lwjgl.opengl.GL11.glViewport;
 
 @Slf4j
 @Getter
@@ -86,7 +86,7 @@ public class WindowManager {
 
         glfwSetInputMode(window, GLFW_CURSOR, GLFW_CURSOR_DISABLED);
 
-        glViewport(0, 0, WIDTH, HEIGHT);
+        gl().viewport(0, 0, WIDTH, HEIGHT);
 
         log.info("Successfully created the window; {[Width={}], [Height={}], [FpsCap={}], [Title={}], [VSync={}]}",
                 WIDTH, HEIGHT, FPS_CAP, TITLE, V_SYNC);
@@ -105,7 +105,7 @@ public class WindowManager {
             public void invoke(long window, int width, int height) {
                 WIDTH = width;
                 HEIGHT = height;
-                glViewport(0, 0, WIDTH, HEIGHT);
+                gl().viewport(0, 0, WIDTH, HEIGHT);
                 glfwInit();
                 log.trace("Viewport successfully updated to new size; [Width={}], [Height={}]", WIDTH, HEIGHT);
             }
@@ -116,11 +116,13 @@ public class WindowManager {
 
     /**
      * Tauscht Front und Back Buffer des Fensters aus und ruft
-     * die Events ab. Muss pro Frame aufgerufen werden.
+     * die Events ab. Muss pro Frame aufgerufen werden. Dabei wird auch der Frame
+     * in den {@link FrameStatistics} abgeschlossen.
      */
     public void update() {
         glfwSwapBuffers(window);
         glfwPollEvents();
+        FrameStatistics.endFrame();
     }
 
     /**
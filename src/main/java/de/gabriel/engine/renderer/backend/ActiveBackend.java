@@ -0,0 +1,13 @@
+package de.gabriel.engine.renderer.backend;
+
+/**
+ * Hält das aktive {@link RenderBackend}. Interfaces können keine veränderlichen statischen Felder haben.
+ */
+final class ActiveBackend {
+
+    static RenderBackend backend = new LwjglBackend();
+
+    private ActiveBackend() {
+    }
+
+}
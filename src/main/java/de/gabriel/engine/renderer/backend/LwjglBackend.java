@@ -0,0 +1,428 @@
+package de.gabriel.engine.renderer.backend;
+
+import org.lwjgl.glfw.GLFW;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GL33;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Das {@link RenderBackend}, das jeden Aufruf unverändert an OpenGL über LWJGL weitergibt. Benötigt einen aktuellen
+ * OpenGL-Context auf dem aufrufenden Thread.
+ */
+public class LwjglBackend implements RenderBackend {
+
+    private final int[] width = new int[1];
+    private final int[] height = new int[1];
+
+    @Override
+    public void getWindowSize(int[] size) {
+        GLFW.glfwGetWindowSize(GLFW.glfwGetCurrentContext(), width, height);
+        size[0] = width[0];
+        size[1] = height[0];
+    }
+
+    @Override
+    public int genBuffers() {
+        return GL15.glGenBuffers();
+    }
+
+    @Override
+    public void deleteBuffers(int buffer) {
+        GL15.glDeleteBuffers(buffer);
+    }
+
+    @Override
+    public void bindBuffer(int target, int buffer) {
+        GL15.glBindBuffer(target, buffer);
+    }
+
+    @Override
+    public void bindBufferBase(int target, int index, int buffer) {
+        GL30.glBindBufferBase(target, index, buffer);
+    }
+
+    @Override
+    public void bufferData(int target, long size, int usage) {
+        GL15.glBufferData(target, size, usage);
+    }
+
+    @Override
+    public void bufferData(int target, ByteBuffer data, int usage) {
+        GL15.glBufferData(target, data, usage);
+    }
+
+    @Override
+    public void bufferData(int target, FloatBuffer data, int usage) {
+        GL15.glBufferData(target, data, usage);
+    }
+
+    @Override
+    public void bufferData(int target, int[] data, int usage) {
+        GL15.glBufferData(target, data, usage);
+    }
+
+    @Override
+    public void bufferSubData(int target, long offset, FloatBuffer data) {
+        GL15.glBufferSubData(target, offset, data);
+    }
+
+    @Override
+    public int genVertexArrays() {
+        return GL30.glGenVertexArrays();
+    }
+
+    @Override
+    public void deleteVertexArrays(int array) {
+        GL30.glDeleteVertexArrays(array);
+    }
+
+    @Override
+    public void bindVertexArray(int array) {
+        GL30.glBindVertexArray(array);
+    }
+
+    @Override
+    public void vertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+        GL20.glVertexAttribPointer(index, size, type, normalized, stride, pointer);
+    }
+
+    @Override
+    public void enableVertexAttribArray(int index) {
+        GL20.glEnableVertexAttribArray(index);
+    }
+
+    @Override
+    public void disableVertexAttribArray(int index) {
+        GL20.glDisableVertexAttribArray(index);
+    }
+
+    @Override
+    public void vertexAttribDivisor(int index, int divisor) {
+        GL33.glVertexAttribDivisor(index, divisor);
+    }
+
+    @Override
+    public int genTextures() {
+        return GL11.glGenTextures();
+    }
+
+    @Override
+    public void deleteTextures(int texture) {
+        GL11.glDeleteTextures(texture);
+    }
+
+    @Override
+    public void activeTexture(int texture) {
+        GL13.glActiveTexture(texture);
+    }
+
+    @Override
+    public void bindTexture(int target, int texture) {
+        GL11.glBindTexture(target, texture);
+    }
+
+    @Override
+    public void texImage2D(int target, int level, int internalFormat, int width, int height, int border, int format,
+                           int type, ByteBuffer pixels) {
+        GL11.glTexImage2D(target, level, internalFormat, width, height, border, format, type, pixels);
+    }
+
+    @Override
+    public void texParameteri(int target, int pname, int param) {
+        GL11.glTexParameteri(target, pname, param);
+    }
+
+    @Override
+    public void texParameterf(int target, int pname, float param) {
+        GL11.glTexParameterf(target, pname, param);
+    }
+
+    @Override
+    public void generateMipmap(int target) {
+        GL30.glGenerateMipmap(target);
+    }
+
+    @Override
+    public void pixelStorei(int pname, int param) {
+        GL11.glPixelStorei(pname, param);
+    }
+
+    @Override
+    public int genFramebuffers() {
+        return GL30.glGenFramebuffers();
+    }
+
+    @Override
+    public void deleteFramebuffers(int framebuffer) {
+        GL30.glDeleteFramebuffers(framebuffer);
+    }
+
+    @Override
+    public void bindFramebuffer(int target, int framebuffer) {
+        GL30.glBindFramebuffer(target, framebuffer);
+    }
+
+    @Override
+    public void framebufferTexture2D(int target, int attachment, int textureTarget, int texture, int level) {
+        GL30.glFramebufferTexture2D(target, attachment, textureTarget, texture, level);
+    }
+
+    @Override
+    public int genRenderbuffers() {
+        return GL30.glGenRenderbuffers();
+    }
+
+    @Override
+    public void deleteRenderbuffers(int renderbuffer) {
+        GL30.glDeleteRenderbuffers(renderbuffer);
+    }
+
+    @Override
+    public void bindRenderbuffer(int target, int renderbuffer) {
+        GL30.glBindRenderbuffer(target, renderbuffer);
+    }
+
+    @Override
+    public void renderbufferStorage(int target, int internalFormat, int width, int height) {
+        GL30.glRenderbufferStorage(target, internalFormat, width, height);
+    }
+
+    @Override
+    public void framebufferRenderbuffer(int target, int attachment, int renderbufferTarget, int renderbuffer) {
+        GL30.glFramebufferRenderbuffer(target, attachment, renderbufferTarget, renderbuffer);
+    }
+
+    @Override
+    public void drawBuffers(int[] buffers) {
+        GL20.glDrawBuffers(buffers);
+    }
+
+    @Override
+    public int checkFramebufferStatus(int target) {
+        return GL30.glCheckFramebufferStatus(target);
+    }
+
+    @Override
+    public int createShader(int type) {
+        return GL20.glCreateShader(type);
+    }
+
+    @Override
+    public void shaderSource(int shader, CharSequence source) {
+        GL20.glShaderSource(shader, source);
+    }
+
+    @Override
+    public void compileShader(int shader) {
+        GL20.glCompileShader(shader);
+    }
+
+    @Override
+    public int getShaderi(int shader, int pname) {
+        return GL20.glGetShaderi(shader, pname);
+    }
+
+    @Override
+    public String getShaderInfoLog(int shader, int maxLength) {
+        return GL20.glGetShaderInfoLog(shader, maxLength);
+    }
+
+    @Override
+    public void deleteShader(int shader) {
+        GL20.glDeleteShader(shader);
+    }
+
+    @Override
+    public int createProgram() {
+        return GL20.glCreateProgram();
+    }
+
+    @Override
+    public void attachShader(int program, int shader) {
+        GL20.glAttachShader(program, shader);
+    }
+
+    @Override
+    public void detachShader(int program, int shader) {
+        GL20.glDetachShader(program, shader);
+    }
+
+    @Override
+    public void bindAttribLocation(int program, int index, CharSequence name) {
+        GL20.glBindAttribLocation(program, index, name);
+    }
+
+    @Override
+    public void linkProgram(int program) {
+        GL20.glLinkProgram(program);
+    }
+
+    @Override
+    public void validateProgram(int program) {
+        GL20.glValidateProgram(program);
+    }
+
+    @Override
+    public void deleteProgram(int program) {
+        GL20.glDeleteProgram(program);
+    }
+
+    @Override
+    public void useProgram(int program) {
+        GL20.glUseProgram(program);
+    }
+
+    @Override
+    public int getUniformLocation(int program, CharSequence name) {
+        return GL20.glGetUniformLocation(program, name);
+    }
+
+    @Override
+    public int getUniformBlockIndex(int program, CharSequence name) {
+        return GL31.glGetUniformBlockIndex(program, name);
+    }
+
+    @Override
+    public void uniformBlockBinding(int program, int blockIndex, int binding) {
+        GL31.glUniformBlockBinding(program, blockIndex, binding);
+    }
+
+    @Override
+    public void uniform1f(int location, float value) {
+        GL20.glUniform1f(location, value);
+    }
+
+    @Override
+    public void uniform1i(int location, int value) {
+        GL20.glUniform1i(location, value);
+    }
+
+    @Override
+    public void uniform2f(int location, float x, float y) {
+        GL20.glUniform2f(location, x, y);
+    }
+
+    @Override
+    public void uniform3f(int location, float x, float y, float z) {
+        GL20.glUniform3f(location, x, y, z);
+    }
+
+    @Override
+    public void uniform4f(int location, float x, float y, float z, float w) {
+        GL20.glUniform4f(location, x, y, z, w);
+    }
+
+    @Override
+    public void uniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+        GL20.glUniformMatrix4fv(location, transpose, value);
+    }
+
+    @Override
+    public void enable(int capability) {
+        GL11.glEnable(capability);
+    }
+
+    @Override
+    public void disable(int capability) {
+        GL11.glDisable(capability);
+    }
+
+    @Override
+    public void cullFace(int mode) {
+        GL11.glCullFace(mode);
+    }
+
+    @Override
+    public void blendFunc(int sourceFactor, int destinationFactor) {
+        GL11.glBlendFunc(sourceFactor, destinationFactor);
+    }
+
+    @Override
+    public void viewport(int x, int y, int width, int height) {
+        GL11.glViewport(x, y, width, height);
+    }
+
+    @Override
+    public void scissor(int x, int y, int width, int height) {
+        GL11.glScissor(x, y, width, height);
+    }
+
+    @Override
+    public void clearColor(float red, float green, float blue, float alpha) {
+        GL11.glClearColor(red, green, blue, alpha);
+    }
+
+    @Override
+    public void clear(int mask) {
+        GL11.glClear(mask);
+    }
+
+    @Override
+    public void getIntegerv(int pname, int[] params) {
+        GL11.glGetIntegerv(pname, params);
+    }
+
+    @Override
+    public void getFloatv(int pname, float[] params) {
+        GL11.glGetFloatv(pname, params);
+    }
+
+    @Override
+    public long getInteger64(int pname) {
+        return GL32.glGetInteger64(pname);
+    }
+
+    @Override
+    public int genQueries() {
+        return GL15.glGenQueries();
+    }
+
+    @Override
+    public void deleteQueries(int query) {
+        GL15.glDeleteQueries(query);
+    }
+
+    @Override
+    public void queryCounter(int query, int target) {
+        GL33.glQueryCounter(query, target);
+    }
+
+    @Override
+    public int getQueryObjecti(int query, int pname) {
+        return GL15.glGetQueryObjecti(query, pname);
+    }
+
+    @Override
+    public long getQueryObjectui64(int query, int pname) {
+        return GL33.glGetQueryObjectui64(query, pname);
+    }
+
+    @Override
+    public void drawArrays(int mode, int first, int count) {
+        GL11.glDrawArrays(mode, first, count);
+    }
+
+    @Override
+    public void drawElements(int mode, int count, int type, long indices) {
+        GL11.glDrawElements(mode, count, type, indices);
+    }
+
+    @Override
+    public void drawElementsInstanced(int mode, int count, int type, long indices, int instances) {
+        GL31.glDrawElementsInstanced(mode, count, type, indices, instances);
+    }
+
+    @Override
+    public void drawElementsBaseVertex(int mode, int count, int type, long indices, int baseVertex) {
+        GL32.glDrawElementsBaseVertex(mode, count, type, indices, baseVertex);
+    }
+
+}
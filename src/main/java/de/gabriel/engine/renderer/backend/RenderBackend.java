@@ -0,0 +1,224 @@
+package de.gabriel.engine.renderer.backend;
+
+import de.gabriel.engine.renderer.GlStateCache;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Die Schnittstelle zwischen der Engine und der Grafik-API. Sie umfasst genau die OpenGL-Aufrufe, die die Engine
+ * verwendet; jede Methode entspricht der gleichnamigen {@code gl}-Funktion mit denselben Parametern und
+ * Konstanten (z.B. {@link #bindBuffer(int, int)} für {@code glBindBuffer}).
+ * <p>
+ * Alle Renderer, Shader und der {@link de.gabriel.engine.converter.Loader} rufen OpenGL über {@link #gl()} auf.
+ * Standardmäßig ist das der {@link LwjglBackend}; der {@code NullBackend} der Tests zeichnet stattdessen nur auf,
+ * sodass der gesamte Weg vom {@link de.gabriel.engine.renderer.MasterRenderer} bis zum Draw Call ohne Grafikkarte
+ * läuft.
+ * Da in einem Programm praktisch nur eine Implementierung geladen wird, kann die JVM die Aufrufe direkt
+ * an sie binden.
+ * </p>
+ */
+public interface RenderBackend {
+
+    /**
+     * @return das aktive Backend.
+     */
+    static RenderBackend gl() {
+        return ActiveBackend.backend;
+    }
+
+    /**
+     * Setzt das aktive Backend. Muss vor dem Erstellen von Fenstern, Shadern und Modellen aufgerufen werden, da
+     * deren IDs nur im Backend gültig sind, das sie erstellt hat.
+     *
+     * @param backend das Backend.
+     */
+    static void use(RenderBackend backend) {
+        ActiveBackend.backend = backend;
+        GlStateCache.invalidate();
+    }
+
+    // Fenster
+
+    /**
+     * Schreibt die Größe des Fensters des aktuellen Contexts in Pixeln in {@code size} ({@code [0]} Breite,
+     * {@code [1]} Höhe).
+     */
+    void getWindowSize(int[] size);
+
+    // Buffer
+
+    int genBuffers();
+
+    void deleteBuffers(int buffer);
+
+    void bindBuffer(int target, int buffer);
+
+    void bindBufferBase(int target, int index, int buffer);
+
+    void bufferData(int target, long size, int usage);
+
+    void bufferData(int target, ByteBuffer data, int usage);
+
+    void bufferData(int target, FloatBuffer data, int usage);
+
+    void bufferData(int target, int[] data, int usage);
+
+    void bufferSubData(int target, long offset, FloatBuffer data);
+
+    // Vertex Arrays
+
+    int genVertexArrays();
+
+    void deleteVertexArrays(int array);
+
+    void bindVertexArray(int array);
+
+    void vertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer);
+
+    void enableVertexAttribArray(int index);
+
+    void disableVertexAttribArray(int index);
+
+    void vertexAttribDivisor(int index, int divisor);
+
+    // Texturen
+
+    int genTextures();
+
+    void deleteTextures(int texture);
+
+    void activeTexture(int texture);
+
+    void bindTexture(int target, int texture);
+
+    void texImage2D(int target, int level, int internalFormat, int width, int height, int border, int format,
+                    int type, ByteBuffer pixels);
+
+    void texParameteri(int target, int pname, int param);
+
+    void texParameterf(int target, int pname, float param);
+
+    void generateMipmap(int target);
+
+    void pixelStorei(int pname, int param);
+
+    // Framebuffer
+
+    int genFramebuffers();
+
+    void deleteFramebuffers(int framebuffer);
+
+    void bindFramebuffer(int target, int framebuffer);
+
+    void framebufferTexture2D(int target, int attachment, int textureTarget, int texture, int level);
+
+    int genRenderbuffers();
+
+    void deleteRenderbuffers(int renderbuffer);
+
+    void bindRenderbuffer(int target, int renderbuffer);
+
+    void renderbufferStorage(int target, int internalFormat, int width, int height);
+
+    void framebufferRenderbuffer(int target, int attachment, int renderbufferTarget, int renderbuffer);
+
+    void drawBuffers(int[] buffers);
+
+    int checkFramebufferStatus(int target);
+
+    // Shader Programme
+
+    int createShader(int type);
+
+    void shaderSource(int shader, CharSequence source);
+
+    void compileShader(int shader);
+
+    int getShaderi(int shader, int pname);
+
+    String getShaderInfoLog(int shader, int maxLength);
+
+    void deleteShader(int shader);
+
+    int createProgram();
+
+    void attachShader(int program, int shader);
+
+    void detachShader(int program, int shader);
+
+    void bindAttribLocation(int program, int index, CharSequence name);
+
+    void linkProgram(int program);
+
+    void validateProgram(int program);
+
+    void deleteProgram(int program);
+
+    void useProgram(int program);
+
+    int getUniformLocation(int program, CharSequence name);
+
+    int getUniformBlockIndex(int program, CharSequence name);
+
+    void uniformBlockBinding(int program, int blockIndex, int binding);
+
+    void uniform1f(int location, float value);
+
+    void uniform1i(int location, int value);
+
+    void uniform2f(int location, float x, float y);
+
+    void uniform3f(int location, float x, float y, float z);
+
+    void uniform4f(int location, float x, float y, float z, float w);
+
+    void uniformMatrix4fv(int location, boolean transpose, FloatBuffer value);
+
+    // Zustand
+
+    void enable(int capability);
+
+    void disable(int capability);
+
+    void cullFace(int mode);
+
+    void blendFunc(int sourceFactor, int destinationFactor);
+
+    void viewport(int x, int y, int width, int height);
+
+    void scissor(int x, int y, int width, int height);
+
+    void clearColor(float red, float green, float blue, float alpha);
+
+    void clear(int mask);
+
+    void getIntegerv(int pname, int[] params);
+
+    void getFloatv(int pname, float[] params);
+
+    long getInteger64(int pname);
+
+    // Queries
+
+    int genQueries();
+
+    void deleteQueries(int query);
+
+    void queryCounter(int query, int target);
+
+    int getQueryObjecti(int query, int pname);
+
+    long getQueryObjectui64(int query, int pname);
+
+    // Draw Calls
+
+    void drawArrays(int mode, int first, int count);
+
+    void drawElements(int mode, int count, int type, long indices);
+
+    void drawElementsInstanced(int mode, int count, int type, long indices, int instances);
+
+    void drawElementsBaseVertex(int mode, int count, int type, long indices, int baseVertex);
+
+}
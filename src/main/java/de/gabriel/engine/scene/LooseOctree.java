@@ -0,0 +1,460 @@
+package de.gabriel.engine.scene;
+
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.utils.Frustum;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ein räumlicher Index für Entities als "loser" Octree (Loose Octree). Jeder Knoten teilt seinen Würfel in acht
+ * Kinder auf; die Grenzen eines Knotens werden zum Testen jedoch auf die doppelte Größe erweitert. Dadurch kann
+ * jede Entity allein anhand ihres Mittelpunkts und Radius in genau einen Knoten einsortiert werden, ohne
+ * Knotengrenzen schneiden zu müssen.
+ * <p>
+ * Abfragen (Frustum, Kugel, AABB) verwerfen ganze Teilbäume, die außerhalb des gesuchten Bereichs liegen.
+ * Liegt ein Knoten vollständig innerhalb des Frustums, werden alle Entities des Teilbaums ohne weitere Tests
+ * übernommen. Die Kosten einer Abfrage hängen daher hauptsächlich von der Anzahl der sichtbaren Entities ab und
+ * nicht von der Gesamtanzahl der Entities in der Szene.
+ * </p>
+ * <p>
+ * Entities, deren Mittelpunkt außerhalb des Wurzelknotens liegt oder deren Bounding Sphere größer als der Würfel des
+ * Wurzelknotens oder unbekannt (unendlich) ist, werden in einer separaten Liste gehalten und bei jeder Abfrage einzeln
+ * getestet. Knoten, die durch Entfernen oder Verschieben von Entities leer werden, werden wieder aus dem Baum entfernt.
+ * </p>
+ */
+@Slf4j
+public class LooseOctree {
+
+    /**
+     * Die Knoten des Octrees. Die Grenzen eines Knotens sind der Würfel um {@code center} mit halber Kantenlänge
+     * {@code halfSize}; zum Testen wird die doppelte halbe Kantenlänge (lose Grenzen) verwendet.
+     */
+    private static final class Node {
+
+        private final float centerX, centerY, centerZ;
+        private final float halfSize;
+        private final int depth;
+        private final List<Entity> entities = new ArrayList<Entity>();
+        private Node[] children;
+
+        /**
+         * Anzahl der Entities in diesem Knoten und allen Kindern.
+         */
+        private int subtreeSize;
+
+        private Node(float centerX, float centerY, float centerZ, float halfSize, int depth) {
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.centerZ = centerZ;
+            this.halfSize = halfSize;
+            this.depth = depth;
+        }
+
+        /**
+         * @return der Index des Kindes (0 bis 7), in dessen Würfel der Punkt liegt.
+         */
+        private int childIndex(float x, float y, float z) {
+            int index = 0;
+            if (x >= centerX) index |= 1;
+            if (y >= centerY) index |= 2;
+            if (z >= centerZ) index |= 4;
+            return index;
+        }
+
+        private Node child(int index) {
+            if (children == null) {
+                children = new Node[8];
+            }
+            Node child = children[index];
+            if (child == null) {
+                float quarter = halfSize / 2f;
+                child = new Node(
+                        centerX + ((index & 1) != 0 ? quarter : -quarter),
+                        centerY + ((index & 2) != 0 ? quarter : -quarter),
+                        centerZ + ((index & 4) != 0 ? quarter : -quarter),
+                        quarter, depth + 1);
+                children[index] = child;
+            }
+            return child;
+        }
+
+        private boolean isEmpty() {
+            if (children != null) {
+                for (Node child : children) {
+                    if (child != null) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private boolean contains(float x, float y, float z) {
+            return x >= centerX - halfSize && x <= centerX + halfSize
+                    && y >= centerY - halfSize && y <= centerY + halfSize
+                    && z >= centerZ - halfSize && z <= centerZ + halfSize;
+        }
+
+    }
+
+    /**
+     * Der Wurzelknoten, der den gesamten Bereich der Szene umfasst.
+     */
+    private final Node root;
+
+    /**
+     * Die maximale Tiefe des Octrees.
+     */
+    private final int maxDepth;
+
+    /**
+     * Entities, die nicht in den Wurzelknoten passen und daher bei jeder Abfrage einzeln getestet werden.
+     */
+    private final List<Entity> outside = new ArrayList<Entity>();
+
+    /**
+     * Der Knoten, in dem jede Entity gespeichert ist ({@code null} für Entities in {@link #outside}).
+     * Ermöglicht das Entfernen und Aktualisieren einer Entity ohne Suche im Baum.
+     */
+    private final Map<Entity, Node> nodes = new IdentityHashMap<Entity, Node>();
+
+    /**
+     * Die Pfade vom Wurzelknoten zum Knoten einer Entity werden beim Einfügen und Entfernen zum Aktualisieren
+     * der {@link Node#subtreeSize} durchlaufen; dafür wird dieser Stack wiederverwendet.
+     */
+    private final Node[] path;
+
+    /**
+     * Anzahl der Knoten, die bei der letzten Abfrage besucht wurden.
+     */
+    @Getter
+    private int lastVisitedNodes;
+
+    /**
+     * Erstellt einen leeren Octree.
+     *
+     * @param center   der Mittelpunkt des Bereichs der Szene.
+     * @param halfSize die halbe Kantenlänge des würfelförmigen Bereichs der Szene.
+     * @param maxDepth die maximale Tiefe des Octrees.
+     */
+    public LooseOctree(Vector3f center, float halfSize, int maxDepth) {
+        this.root = new Node(center.x, center.y, center.z, halfSize, 0);
+        this.maxDepth = maxDepth;
+        this.path = new Node[maxDepth + 1];
+        log.info("Created loose octree; {[Center={}], [HalfSize={}], [MaxDepth={}]}", center, halfSize, maxDepth);
+    }
+
+    /**
+     * Fügt eine Entity in den Octree ein.
+     *
+     * @param entity die Entity, die eingefügt werden soll.
+     */
+    public void insert(Entity entity) {
+        if (nodes.containsKey(entity)) {
+            update(entity);
+            return;
+        }
+        Vector4f bounds = entity.getWorldBoundingSphere();
+        float radius = bounds.w;
+        if (!fitsRoot(bounds)) {
+            outside.add(entity);
+            nodes.put(entity, null);
+            return;
+        }
+        int length = findPath(bounds.x, bounds.y, bounds.z, radius);
+        Node node = path[length - 1];
+        node.entities.add(entity);
+        for (int i = 0; i < length; i++) {
+            path[i].subtreeSize++;
+        }
+        nodes.put(entity, node);
+    }
+
+    /**
+     * Entfernt eine Entity aus dem Octree.
+     *
+     * @param entity die Entity, die entfernt werden soll.
+     * @return true, wenn die Entity im Octree enthalten war.
+     */
+    public boolean remove(Entity entity) {
+        if (!nodes.containsKey(entity)) {
+            return false;
+        }
+        Node node = nodes.remove(entity);
+        if (node == null) {
+            outside.remove(entity);
+            return true;
+        }
+        node.entities.remove(entity);
+        // Pfad über die Mittelpunkte des Knotens neu bestimmen, da dieser eindeutig zum Knoten führt
+        Node current = root;
+        while (current != node) {
+            current.subtreeSize--;
+            int index = current.childIndex(node.centerX, node.centerY, node.centerZ);
+            Node child = current.children[index];
+            if (child.subtreeSize == 1) {
+                // Der Teilbaum des Kindes enthält nur diese Entity und wird leer; er wird vollständig entfernt
+                current.children[index] = null;
+                if (current.isEmpty()) {
+                    current.children = null;
+                }
+                return true;
+            }
+            current = child;
+        }
+        node.subtreeSize--;
+        return true;
+    }
+
+    /**
+     * Aktualisiert die Lage einer Entity, nachdem sich ihre Position, Skalierung oder ihr Modell geändert hat.
+     * Passt die Entity weiterhin in denselben Knoten, wird der Octree nicht verändert.
+     *
+     * @param entity die Entity, die aktualisiert werden soll.
+     */
+    public void update(Entity entity) {
+        if (!nodes.containsKey(entity)) {
+            insert(entity);
+            return;
+        }
+        Node node = nodes.get(entity);
+        Vector4f bounds = entity.getWorldBoundingSphere();
+        float radius = bounds.w;
+        if (node != null && fitsRoot(bounds)) {
+            int length = findPath(bounds.x, bounds.y, bounds.z, radius);
+            if (path[length - 1] == node) {
+                return; // Entity liegt weiterhin im selben Knoten
+            }
+        }
+        remove(entity);
+        insert(entity);
+    }
+
+    /**
+     * Prüft, ob eine Bounding Sphere in die losen Grenzen des Wurzelknotens passt: ihr Mittelpunkt muss im Würfel
+     * des Wurzelknotens liegen und ihr Radius darf höchstens dessen halbe Kantenlänge betragen.
+     */
+    private boolean fitsRoot(Vector4f bounds) {
+        return bounds.w <= root.halfSize && root.contains(bounds.x, bounds.y, bounds.z);
+    }
+
+    /**
+     * Bestimmt den Pfad vom Wurzelknoten zum tiefsten Knoten, in dessen losen Grenzen die Kugel vollständig liegt,
+     * und speichert ihn in {@link #path}. Ein Kind mit halber Kantenlänge h hat lose Grenzen mit halber Kantenlänge 2h;
+     * liegt der Mittelpunkt der Kugel im Würfel des Kindes, passt sie daher hinein, solange ihr Radius höchstens h ist.
+     *
+     * @return die Länge des Pfades.
+     */
+    private int findPath(float x, float y, float z, float radius) {
+        Node node = root;
+        int length = 0;
+        path[length++] = node;
+        while (node.depth < maxDepth && radius <= node.halfSize / 2f) {
+            node = node.child(node.childIndex(x, y, z));
+            path[length++] = node;
+        }
+        return length;
+    }
+
+    /**
+     * Sammelt alle Entities, deren Bounding Sphere (zumindest teilweise) im Frustum liegt.
+     *
+     * @param frustum das Frustum der Kamera.
+     * @param result  die Liste, der die sichtbaren Entities hinzugefügt werden.
+     */
+    public void queryFrustum(Frustum frustum, List<Entity> result) {
+        lastVisitedNodes = 0;
+        queryFrustum(root, frustum, result);
+        for (int i = 0; i < outside.size(); i++) { // Indexbasiert, damit pro Frame kein Iterator erzeugt wird
+            Entity entity = outside.get(i);
+            Vector4f bounds = entity.getWorldBoundingSphere();
+            if (frustum.testSphere(bounds.x, bounds.y, bounds.z, bounds.w)) {
+                result.add(entity);
+            }
+        }
+    }
+
+    private void queryFrustum(Node node, Frustum frustum, List<Entity> result) {
+        if (node.subtreeSize == 0) {
+            return;
+        }
+        lastVisitedNodes++;
+        float loose = node.halfSize * 2f;
+        int intersection = frustum.intersectAabb(node.centerX - loose, node.centerY - loose, node.centerZ - loose,
+                node.centerX + loose, node.centerY + loose, node.centerZ + loose);
+        if (intersection == Frustum.OUTSIDE) {
+            return;
+        }
+        if (intersection == Frustum.INSIDE) {
+            collect(node, result); // Gesamter Teilbaum ist sichtbar
+            return;
+        }
+        List<Entity> entities = node.entities;
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            Vector4f bounds = entity.getWorldBoundingSphere();
+            if (frustum.testSphere(bounds.x, bounds.y, bounds.z, bounds.w)) {
+                result.add(entity);
+            }
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                if (child != null) {
+                    queryFrustum(child, frustum, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sammelt alle Entities, deren Bounding Sphere die angegebene Kugel schneidet.
+     *
+     * @param x      die X Position des Mittelpunkts der Kugel.
+     * @param y      die Y Position des Mittelpunkts der Kugel.
+     * @param z      die Z Position des Mittelpunkts der Kugel.
+     * @param radius der Radius der Kugel.
+     * @param result die Liste, der die gefundenen Entities hinzugefügt werden.
+     */
+    public void querySphere(float x, float y, float z, float radius, List<Entity> result) {
+        lastVisitedNodes = 0;
+        queryBox(root, x - radius, y - radius, z - radius, x + radius, y + radius, z + radius,
+                x, y, z, radius, result);
+        for (Entity entity : outside) {
+            if (sphereIntersectsSphere(entity, x, y, z, radius)) {
+                result.add(entity);
+            }
+        }
+    }
+
+    /**
+     * Sammelt alle Entities, deren Bounding Sphere die angegebene achsenparallele Box (AABB) schneidet.
+     *
+     * @param result die Liste, der die gefundenen Entities hinzugefügt werden.
+     */
+    public void queryAabb(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, List<Entity> result) {
+        lastVisitedNodes = 0;
+        queryBox(root, minX, minY, minZ, maxX, maxY, maxZ, 0, 0, 0, -1, result);
+        for (Entity entity : outside) {
+            if (sphereIntersectsBox(entity, minX, minY, minZ, maxX, maxY, maxZ)) {
+                result.add(entity);
+            }
+        }
+    }
+
+    /**
+     * Durchläuft alle Knoten, deren lose Grenzen die Box schneiden. Ist {@code radius} nicht negativ, wird jede Entity
+     * zusätzlich gegen die Kugel getestet, ansonsten gegen die Box.
+     */
+    private void queryBox(Node node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+                          float x, float y, float z, float radius, List<Entity> result) {
+        if (node.subtreeSize == 0) {
+            return;
+        }
+        lastVisitedNodes++;
+        float loose = node.halfSize * 2f;
+        if (node.centerX - loose > maxX || node.centerX + loose < minX
+                || node.centerY - loose > maxY || node.centerY + loose < minY
+                || node.centerZ - loose > maxZ || node.centerZ + loose < minZ) {
+            return;
+        }
+        List<Entity> entities = node.entities;
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            boolean hit = radius >= 0
+                    ? sphereIntersectsSphere(entity, x, y, z, radius)
+                    : sphereIntersectsBox(entity, minX, minY, minZ, maxX, maxY, maxZ);
+            if (hit) {
+                result.add(entity);
+            }
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                if (child != null) {
+                    queryBox(child, minX, minY, minZ, maxX, maxY, maxZ, x, y, z, radius, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fügt alle Entities eines Teilbaums ohne weitere Tests dem Ergebnis hinzu.
+     */
+    private void collect(Node node, List<Entity> result) {
+        if (node.subtreeSize == 0) {
+            return;
+        }
+        List<Entity> entities = node.entities;
+        for (int i = 0; i < entities.size(); i++) { // addAll würde über toArray() ein temporäres Array erzeugen
+            result.add(entities.get(i));
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                if (child != null) {
+                    collect(child, result);
+                }
+            }
+        }
+    }
+
+    private static boolean sphereIntersectsSphere(Entity entity, float x, float y, float z, float radius) {
+        Vector4f bounds = entity.getWorldBoundingSphere();
+        float dx = bounds.x - x;
+        float dy = bounds.y - y;
+        float dz = bounds.z - z;
+        float distance = radius + bounds.w;
+        return dx * dx + dy * dy + dz * dz <= distance * distance;
+    }
+
+    private static boolean sphereIntersectsBox(Entity entity, float minX, float minY, float minZ,
+                                               float maxX, float maxY, float maxZ) {
+        Vector4f bounds = entity.getWorldBoundingSphere();
+        // Abstand des Mittelpunkts zum nächsten Punkt der Box
+        float dx = Math.max(Math.max(minX - bounds.x, 0), bounds.x - maxX);
+        float dy = Math.max(Math.max(minY - bounds.y, 0), bounds.y - maxY);
+        float dz = Math.max(Math.max(minZ - bounds.z, 0), bounds.z - maxZ);
+        float radius = bounds.w;
+        return dx * dx + dy * dy + dz * dz <= radius * radius;
+    }
+
+    /**
+     * @return die Anzahl der Entities im Octree.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @return die Anzahl der Knoten im Octree einschließlich des Wurzelknotens.
+     */
+    int nodeCount() {
+        return countNodes(root);
+    }
+
+    private static int countNodes(Node node) {
+        int count = 1;
+        if (node.children != null) {
+            for (Node child : node.children) {
+                if (child != null) {
+                    count += countNodes(child);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param entity die Entity.
+     * @return true, wenn die Entity im Octree enthalten ist.
+     */
+    public boolean contains(Entity entity) {
+        return nodes.containsKey(entity);
+    }
+
+}
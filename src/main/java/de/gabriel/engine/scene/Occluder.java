@@ -0,0 +1,46 @@
+package de.gabriel.engine.scene;
+
+/**
+ * Eine vereinfachte Form einer Entity, mit der sie im {@link OcclusionCuller} andere Entities verdeckt. Die Form
+ * muss vollständig innerhalb der sichtbaren Geometrie liegen, sonst werden dahinter sichtbare Entities verworfen.
+ *
+ * @param positions die Positionen der Vertices (x, y, z) im Modellkoordinatensystem.
+ * @param indices   je drei Indizes pro Dreieck.
+ */
+public record Occluder(float[] positions, int[] indices) {
+
+    /**
+     * Die Dreiecke der sechs Seiten einer Box mit den Ecken 0 bis 7 (Bit 0 = X, Bit 1 = Y, Bit 2 = Z).
+     */
+    private static final int[] BOX_INDICES = {
+            0, 2, 1, 1, 2, 3, // -Z
+            4, 5, 6, 5, 7, 6, // +Z
+            0, 4, 2, 2, 4, 6, // -X
+            1, 3, 5, 3, 7, 5, // +X
+            0, 1, 4, 1, 5, 4, // -Y
+            2, 6, 3, 3, 6, 7  // +Y
+    };
+
+    /**
+     * Erstellt einen Occluder in Form einer achsenparallelen Box.
+     *
+     * @return der Occluder mit 8 Vertices und 12 Dreiecken.
+     */
+    public static Occluder box(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        float[] positions = new float[8 * 3];
+        for (int corner = 0; corner < 8; corner++) {
+            positions[corner * 3] = (corner & 1) == 0 ? minX : maxX;
+            positions[corner * 3 + 1] = (corner & 2) == 0 ? minY : maxY;
+            positions[corner * 3 + 2] = (corner & 4) == 0 ? minZ : maxZ;
+        }
+        return new Occluder(positions, BOX_INDICES.clone());
+    }
+
+    /**
+     * @return die Anzahl der Dreiecke.
+     */
+    public int triangleCount() {
+        return indices.length / 3;
+    }
+
+}
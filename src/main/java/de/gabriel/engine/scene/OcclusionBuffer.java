@@ -0,0 +1,495 @@
+package de.gabriel.engine.scene;
+
+import de.gabriel.engine.utils.IntList;
+import lombok.Getter;
+import org.joml.Matrix4f;
+import org.joml.Vector4f;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Ein kleiner Tiefenpuffer auf der CPU, in den pro Frame eine grobe Auswahl an Verdeckern (Occluder) gerastert
+ * wird, um danach Bounding Spheres gegen die Verdecker zu testen (Occlusion Culling).
+ * <p>
+ * Ablauf pro Frame: {@link #begin(Matrix4f, Matrix4f)}, beliebig viele Dreiecke mit
+ * {@link #addTriangle(float, float, float, float, float, float, float, float, float)} hinzufügen,
+ * {@link #rasterize()} und danach {@link #isOccluded(Vector4f)} für jede Bounding Sphere.
+ * </p>
+ * <p>
+ * Die Dreiecke werden beim Hinzufügen transformiert, an der Near Plane geschnitten und in Kacheln von
+ * {@link #TILE_SIZE} Pixeln einsortiert. Die Kacheln werden danach unabhängig voneinander mit Fork/Join gerastert.
+ * Jedes Pixel wird nur von seiner Kachel geschrieben, seine Kantenfunktionen werden direkt (nicht inkrementell)
+ * ausgewertet und die Tiefe wird per Minimum kombiniert; das Ergebnis ist daher unabhängig von der Anzahl der
+ * Threads und der Reihenfolge der Dreiecke bitgenau gleich.
+ * </p>
+ * <p>
+ * Aus dem Tiefenpuffer wird eine Hierarchie (Hi-Z) aufgebaut, in der jedes Texel die größte Tiefe der vier Texel
+ * der vorherigen Stufe enthält. Eine Bounding Sphere wird auf der Stufe getestet, auf der ihr Rechteck auf dem
+ * Bildschirm höchstens 2 · 2 Texel abdeckt; sie ist verdeckt, wenn ihr nächster Punkt hinter der größten Tiefe
+ * aller dieser Texel liegt. Eine Hierarchie der kleinsten Tiefen wird nicht aufgebaut, da sie nur zum Erkennen
+ * vollständig sichtbarer Objekte dient; stattdessen wird nur die kleinste Tiefe des ganzen Puffers für einen
+ * schnellen Ausstieg gemerkt.
+ * </p>
+ * <p>
+ * Tiefen sind die Tiefen in NDC auf 0 (Near Plane) bis 1 (Far Plane) abgebildet; Pixel ohne Verdecker haben die
+ * Tiefe 1. Die Klasse verwendet kein OpenGL.
+ * </p>
+ */
+public final class OcclusionBuffer {
+
+    /**
+     * Die Kantenlänge einer Kachel in Pixeln.
+     */
+    public static final int TILE_SIZE = 32;
+
+    /**
+     * Die Anzahl der Kacheln, ab der eine Aufgabe nicht weiter geteilt wird.
+     */
+    private static final int TILES_PER_TASK = 2;
+
+    /**
+     * Die Anzahl der Floats eines Dreiecks in Bildschirmkoordinaten (x, y, Tiefe pro Vertex).
+     */
+    private static final int TRIANGLE_FLOATS = 9;
+
+    /**
+     * Die Breite des Puffers in Pixeln.
+     */
+    @Getter
+    private final int width;
+
+    /**
+     * Die Höhe des Puffers in Pixeln.
+     */
+    @Getter
+    private final int height;
+
+    private final int tilesX, tilesY;
+
+    /**
+     * Die größten Tiefen jeder Stufe der Hierarchie, zeilenweise; Stufe 0 ist der Tiefenpuffer selbst.
+     */
+    private final float[][] levels;
+
+    private final int[] levelWidths, levelHeights;
+
+    /**
+     * Die Indizes der Dreiecke, die jede Kachel berühren.
+     */
+    private final IntList[] bins;
+
+    private final ForkJoinPool pool;
+
+    private final Matrix4f view = new Matrix4f();
+
+    private final Matrix4f projection = new Matrix4f();
+
+    private final Matrix4f projectionView = new Matrix4f();
+
+    /**
+     * Die Dreiecke des aktuellen Frames in Bildschirmkoordinaten.
+     */
+    private float[] triangles = new float[256 * TRIANGLE_FLOATS];
+
+    /**
+     * Die Anzahl der Dreiecke, die nach dem Schneiden an der Near Plane gerastert werden.
+     */
+    @Getter
+    private int triangleCount;
+
+    /**
+     * Der Abstand der Near Plane der aktuellen Projektionsmatrix.
+     */
+    private float nearPlane;
+
+    /**
+     * Die kleinste Tiefe im ganzen Puffer nach dem Rastern.
+     */
+    private float nearestDepth;
+
+    /**
+     * Die Vertices eines Dreiecks in Clip Space (x, y, z, w) und das Polygon nach dem Schneiden an der Near Plane.
+     */
+    private final float[] clipTriangle = new float[3 * 4];
+    private final float[] clipPolygon = new float[4 * 4];
+
+    /**
+     * @param width  die Breite in Pixeln.
+     * @param height die Höhe in Pixeln.
+     * @param pool   der Pool, auf dem die Kacheln parallel gerastert werden.
+     * @throws IllegalArgumentException wenn die Größe nicht positiv ist.
+     */
+    public OcclusionBuffer(int width, int height, ForkJoinPool pool) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Invalid occlusion buffer size: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.pool = pool;
+        this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        this.tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+        this.bins = new IntList[tilesX * tilesY];
+        for (int i = 0; i < bins.length; i++) {
+            bins[i] = new IntList();
+        }
+        int levelCount = 1;
+        for (int size = Math.max(width, height); size > 1; size = (size + 1) / 2) {
+            levelCount++;
+        }
+        levels = new float[levelCount][];
+        levelWidths = new int[levelCount];
+        levelHeights = new int[levelCount];
+        int levelWidth = width;
+        int levelHeight = height;
+        for (int level = 0; level < levelCount; level++) {
+            levels[level] = new float[levelWidth * levelHeight];
+            levelWidths[level] = levelWidth;
+            levelHeights[level] = levelHeight;
+            levelWidth = (levelWidth + 1) / 2;
+            levelHeight = (levelHeight + 1) / 2;
+        }
+        begin(projection, view);
+    }
+
+    /**
+     * Beginnt einen neuen Frame: verwirft die Dreiecke des letzten Frames und übernimmt die Matrizen der Kamera.
+     *
+     * @param projection die Projektionsmatrix (perspektivisch, wie in OpenGL).
+     * @param view       die View Matrix der Kamera.
+     */
+    public void begin(Matrix4f projection, Matrix4f view) {
+        this.projection.set(projection);
+        this.view.set(view);
+        projection.mul(view, projectionView);
+        // Für eine perspektivische Projektion gilt m22 = -(f + n) / (f - n) und m32 = -2fn / (f - n)
+        nearPlane = projection.m32() / (projection.m22() - 1);
+        triangleCount = 0;
+        for (IntList bin : bins) {
+            bin.clear();
+        }
+    }
+
+    /**
+     * Fügt ein Dreieck in Weltkoordinaten als Verdecker hinzu. Dreiecke werden von beiden Seiten gerastert.
+     */
+    public void addTriangle(float x0, float y0, float z0, float x1, float y1, float z1, float x2, float y2, float z2) {
+        toClip(x0, y0, z0, 0);
+        toClip(x1, y1, z1, 4);
+        toClip(x2, y2, z2, 8);
+        float[] v = clipTriangle;
+        boolean inside0 = v[2] + v[3] >= 0; // Near Plane in Clip Space: z >= -w
+        boolean inside1 = v[6] + v[7] >= 0;
+        boolean inside2 = v[10] + v[11] >= 0;
+        if (inside0 && inside1 && inside2) {
+            addClipTriangle(v, 0, 4, 8);
+            return;
+        }
+        if (!inside0 && !inside1 && !inside2) {
+            return;
+        }
+        // Sutherland-Hodgman an einer einzigen Ebene: aus einem Dreieck wird ein Dreieck oder Viereck
+        int vertices = 0;
+        for (int i = 0; i < 3; i++) {
+            int current = i * 4;
+            int next = (i + 1) % 3 * 4;
+            float currentDistance = v[current + 2] + v[current + 3];
+            float nextDistance = v[next + 2] + v[next + 3];
+            if (currentDistance >= 0) {
+                System.arraycopy(v, current, clipPolygon, vertices * 4, 4);
+                vertices++;
+            }
+            if ((currentDistance >= 0) != (nextDistance >= 0)) {
+                float t = currentDistance / (currentDistance - nextDistance);
+                for (int c = 0; c < 4; c++) {
+                    clipPolygon[vertices * 4 + c] = v[current + c] + t * (v[next + c] - v[current + c]);
+                }
+                vertices++;
+            }
+        }
+        addClipTriangle(clipPolygon, 0, 4, 8);
+        if (vertices == 4) {
+            addClipTriangle(clipPolygon, 0, 8, 12);
+        }
+    }
+
+    /**
+     * Fügt ein Netz aus Dreiecken als Verdecker hinzu.
+     *
+     * @param positions die Positionen der Vertices (x, y, z) im Modellkoordinatensystem.
+     * @param indices   je drei Indizes pro Dreieck.
+     * @param transform die Transformation in Weltkoordinaten.
+     */
+    public void addMesh(float[] positions, int[] indices, Matrix4f transform) {
+        float[] world = new float[9];
+        for (int i = 0; i + 2 < indices.length; i += 3) {
+            for (int corner = 0; corner < 3; corner++) {
+                int index = indices[i + corner] * 3;
+                float x = positions[index];
+                float y = positions[index + 1];
+                float z = positions[index + 2];
+                world[corner * 3] = transform.m00() * x + transform.m10() * y + transform.m20() * z + transform.m30();
+                world[corner * 3 + 1] = transform.m01() * x + transform.m11() * y + transform.m21() * z + transform.m31();
+                world[corner * 3 + 2] = transform.m02() * x + transform.m12() * y + transform.m22() * z + transform.m32();
+            }
+            addTriangle(world[0], world[1], world[2], world[3], world[4], world[5], world[6], world[7], world[8]);
+        }
+    }
+
+    private void toClip(float x, float y, float z, int offset) {
+        Matrix4f m = projectionView;
+        clipTriangle[offset] = m.m00() * x + m.m10() * y + m.m20() * z + m.m30();
+        clipTriangle[offset + 1] = m.m01() * x + m.m11() * y + m.m21() * z + m.m31();
+        clipTriangle[offset + 2] = m.m02() * x + m.m12() * y + m.m22() * z + m.m32();
+        clipTriangle[offset + 3] = m.m03() * x + m.m13() * y + m.m23() * z + m.m33();
+    }
+
+    /**
+     * Projiziert ein Dreieck aus Clip Space (vollständig vor der Near Plane) auf den Bildschirm und sortiert es in
+     * die Kacheln ein, die seine Bounding Box berührt.
+     */
+    private void addClipTriangle(float[] v, int a, int b, int c) {
+        if (triangles.length < (triangleCount + 1) * TRIANGLE_FLOATS) {
+            triangles = Arrays.copyOf(triangles, triangles.length * 2);
+        }
+        int offset = triangleCount * TRIANGLE_FLOATS;
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+        int[] corners = {a, b, c};
+        for (int corner = 0; corner < 3; corner++) {
+            int vertex = corners[corner];
+            float inverseW = 1 / v[vertex + 3];
+            float x = (v[vertex] * inverseW * 0.5f + 0.5f) * width;
+            float y = (v[vertex + 1] * inverseW * 0.5f + 0.5f) * height;
+            triangles[offset + corner * 3] = x;
+            triangles[offset + corner * 3 + 1] = y;
+            triangles[offset + corner * 3 + 2] = v[vertex + 2] * inverseW * 0.5f + 0.5f;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+        // Die Pixel, deren Mittelpunkte in der Bounding Box liegen
+        int fromX = Math.max((int) Math.ceil(minX - 0.5f), 0);
+        int fromY = Math.max((int) Math.ceil(minY - 0.5f), 0);
+        int toX = Math.min((int) Math.floor(maxX - 0.5f), width - 1);
+        int toY = Math.min((int) Math.floor(maxY - 0.5f), height - 1);
+        if (fromX > toX || fromY > toY) {
+            return; // Außerhalb des Bildschirms oder zwischen den Pixelmittelpunkten
+        }
+        for (int tileY = fromY / TILE_SIZE; tileY <= toY / TILE_SIZE; tileY++) {
+            for (int tileX = fromX / TILE_SIZE; tileX <= toX / TILE_SIZE; tileX++) {
+                bins[tileY * tilesX + tileX].add(triangleCount);
+            }
+        }
+        triangleCount++;
+    }
+
+    /**
+     * Rastert alle Dreiecke des Frames parallel pro Kachel und baut danach die Hierarchie auf.
+     */
+    public void rasterize() {
+        pool.invoke(new TileTask(0, bins.length));
+        buildHierarchy();
+    }
+
+    /**
+     * Rastert einen Bereich von Kacheln; größere Bereiche werden halbiert und parallel gerastert.
+     */
+    private final class TileTask extends RecursiveAction {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int fromTile, toTile;
+
+        private TileTask(int fromTile, int toTile) {
+            this.fromTile = fromTile;
+            this.toTile = toTile;
+        }
+
+        @Override
+        protected void compute() {
+            if (toTile - fromTile > TILES_PER_TASK) {
+                int middle = (fromTile + toTile) >>> 1;
+                invokeAll(new TileTask(fromTile, middle), new TileTask(middle, toTile));
+                return;
+            }
+            for (int tile = fromTile; tile < toTile; tile++) {
+                rasterizeTile(tile);
+            }
+        }
+
+    }
+
+    private void rasterizeTile(int tile) {
+        float[] depth = levels[0];
+        int tileFromX = tile % tilesX * TILE_SIZE;
+        int tileFromY = tile / tilesX * TILE_SIZE;
+        int tileToX = Math.min(tileFromX + TILE_SIZE, width) - 1;
+        int tileToY = Math.min(tileFromY + TILE_SIZE, height) - 1;
+        for (int y = tileFromY; y <= tileToY; y++) {
+            Arrays.fill(depth, y * width + tileFromX, y * width + tileToX + 1, 1);
+        }
+        IntList bin = bins[tile];
+        for (int i = 0; i < bin.size(); i++) {
+            int offset = bin.get(i) * TRIANGLE_FLOATS;
+            float x0 = triangles[offset], y0 = triangles[offset + 1], z0 = triangles[offset + 2];
+            float x1 = triangles[offset + 3], y1 = triangles[offset + 4], z1 = triangles[offset + 5];
+            float x2 = triangles[offset + 6], y2 = triangles[offset + 7], z2 = triangles[offset + 8];
+            float area = (x1 - x0) * (y2 - y0) - (x2 - x0) * (y1 - y0);
+            if (area == 0) {
+                continue;
+            }
+            if (area < 0) { // Beide Seiten rastern: gegen den Uhrzeigersinn umdrehen
+                float swap = x1; x1 = x2; x2 = swap;
+                swap = y1; y1 = y2; y2 = swap;
+                swap = z1; z1 = z2; z2 = swap;
+                area = -area;
+            }
+            float inverseArea = 1 / area;
+            int fromX = Math.max((int) Math.ceil(Math.min(x0, Math.min(x1, x2)) - 0.5f), tileFromX);
+            int fromY = Math.max((int) Math.ceil(Math.min(y0, Math.min(y1, y2)) - 0.5f), tileFromY);
+            int toX = Math.min((int) Math.floor(Math.max(x0, Math.max(x1, x2)) - 0.5f), tileToX);
+            int toY = Math.min((int) Math.floor(Math.max(y0, Math.max(y1, y2)) - 0.5f), tileToY);
+            for (int y = fromY; y <= toY; y++) {
+                float py = y + 0.5f;
+                int row = y * width;
+                for (int x = fromX; x <= toX; x++) {
+                    float px = x + 0.5f;
+                    // Kantenfunktionen = baryzentrische Gewichte der gegenüberliegenden Vertices (mal Fläche)
+                    float w0 = (x2 - x1) * (py - y1) - (y2 - y1) * (px - x1);
+                    float w1 = (x0 - x2) * (py - y2) - (y0 - y2) * (px - x2);
+                    float w2 = (x1 - x0) * (py - y0) - (y1 - y0) * (px - x0);
+                    if (w0 >= 0 && w1 >= 0 && w2 >= 0) {
+                        float z = (w0 * z0 + w1 * z1 + w2 * z2) * inverseArea;
+                        if (z < depth[row + x]) {
+                            depth[row + x] = z;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Baut die Stufen der Hierarchie aus dem Tiefenpuffer auf. Jedes Texel enthält die größte Tiefe der (bis zu)
+     * vier Texel der vorherigen Stufe.
+     */
+    private void buildHierarchy() {
+        float nearest = 1;
+        for (float depth : levels[0]) {
+            nearest = Math.min(nearest, depth);
+        }
+        nearestDepth = nearest;
+        for (int level = 1; level < levels.length; level++) {
+            float[] source = levels[level - 1];
+            int sourceWidth = levelWidths[level - 1];
+            int sourceHeight = levelHeights[level - 1];
+            float[] target = levels[level];
+            int targetWidth = levelWidths[level];
+            for (int y = 0; y < levelHeights[level]; y++) {
+                int y0 = 2 * y * sourceWidth;
+                int y1 = Math.min(2 * y + 1, sourceHeight - 1) * sourceWidth;
+                for (int x = 0; x < targetWidth; x++) {
+                    int x0 = 2 * x;
+                    int x1 = Math.min(2 * x + 1, sourceWidth - 1);
+                    target[y * targetWidth + x] = Math.max(Math.max(source[y0 + x0], source[y0 + x1]),
+                            Math.max(source[y1 + x0], source[y1 + x1]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Testet, ob eine Bounding Sphere vollständig hinter den Verdeckern liegt. Der Test ist konservativ: Spheres,
+     * die die Near Plane schneiden oder den Bildschirm verlassen, gelten als sichtbar.
+     *
+     * @param sphere die Bounding Sphere in Weltkoordinaten (x, y, z = Mittelpunkt, w = Radius).
+     * @return true, wenn die Sphere verdeckt ist.
+     */
+    public boolean isOccluded(Vector4f sphere) {
+        float radius = sphere.w;
+        if (!Float.isFinite(radius)) {
+            return false;
+        }
+        Matrix4f v = view;
+        float viewX = v.m00() * sphere.x + v.m10() * sphere.y + v.m20() * sphere.z + v.m30();
+        float viewY = v.m01() * sphere.x + v.m11() * sphere.y + v.m21() * sphere.z + v.m31();
+        float viewZ = v.m02() * sphere.x + v.m12() * sphere.y + v.m22() * sphere.z + v.m32();
+        float nearestDistance = -viewZ - radius; // Die Kamera blickt entlang -Z
+        if (nearestDistance <= nearPlane) {
+            return false;
+        }
+        float depth = depthAt(nearestDistance);
+        if (depth <= nearestDepth) {
+            return false; // Vor allen Verdeckern
+        }
+        // Rechteck auf dem Bildschirm: Projektion der 8 Ecken der Bounding Box der Sphere (im View Space)
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+        Matrix4f p = projection;
+        for (int corner = 0; corner < 8; corner++) {
+            float x = (corner & 1) == 0 ? viewX - radius : viewX + radius;
+            float y = (corner & 2) == 0 ? viewY - radius : viewY + radius;
+            float z = (corner & 4) == 0 ? viewZ - radius : viewZ + radius;
+            float inverseW = 1 / (p.m03() * x + p.m13() * y + p.m23() * z + p.m33());
+            float ndcX = (p.m00() * x + p.m10() * y + p.m20() * z + p.m30()) * inverseW;
+            float ndcY = (p.m01() * x + p.m11() * y + p.m21() * z + p.m31()) * inverseW;
+            minX = Math.min(minX, ndcX);
+            minY = Math.min(minY, ndcY);
+            maxX = Math.max(maxX, ndcX);
+            maxY = Math.max(maxY, ndcY);
+        }
+        if (minX < -1 || minY < -1 || maxX > 1 || maxY > 1) {
+            return false; // Teilweise außerhalb des Puffers, dort gibt es keine Information über Verdecker
+        }
+        int fromX = Math.min((int) ((minX * 0.5f + 0.5f) * width), width - 1);
+        int fromY = Math.min((int) ((minY * 0.5f + 0.5f) * height), height - 1);
+        int toX = Math.min((int) ((maxX * 0.5f + 0.5f) * width), width - 1);
+        int toY = Math.min((int) ((maxY * 0.5f + 0.5f) * height), height - 1);
+        int level = 0;
+        while (level < levels.length - 1 && ((toX >> level) - (fromX >> level) > 1 || (toY >> level) - (fromY >> level) > 1)) {
+            level++;
+        }
+        float[] maxDepths = levels[level];
+        int levelWidth = levelWidths[level];
+        for (int y = fromY >> level; y <= toY >> level; y++) {
+            for (int x = fromX >> level; x <= toX >> level; x++) {
+                if (depth <= maxDepths[y * levelWidth + x]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Die Tiefe (0 bis 1) eines Punktes mit dem angegebenen Abstand entlang der Blickrichtung.
+     */
+    private float depthAt(float distance) {
+        Matrix4f p = projection;
+        float clipZ = -p.m22() * distance + p.m32();
+        float clipW = -p.m23() * distance + p.m33();
+        return clipZ / clipW * 0.5f + 0.5f;
+    }
+
+    /**
+     * @param x die X Position des Pixels (0 = links).
+     * @param y die Y Position des Pixels (0 = unten).
+     * @return die Tiefe des nächsten Verdeckers im Pixel (1, wenn es keinen gibt).
+     */
+    public float getDepth(int x, int y) {
+        return levels[0][y * width + x];
+    }
+
+    /**
+     * @return die Anzahl der Stufen der Hierarchie (inklusive des Tiefenpuffers).
+     */
+    public int getLevelCount() {
+        return levels.length;
+    }
+
+}
@@ -0,0 +1,114 @@
+package de.gabriel.engine.scene;
+
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.renderer.FrameStatistics;
+import de.gabriel.engine.terrain.HeightField;
+import de.gabriel.engine.terrain.Terrain;
+import de.gabriel.engine.terrain.TerrainChunk;
+import de.gabriel.engine.terrain.TerrainChunkGrid;
+import lombok.Getter;
+import org.joml.Matrix4f;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Verwirft Entities, die hinter Terrains oder großen Entities liegen (Occlusion Culling auf der CPU).
+ * <p>
+ * Pro Frame werden die sichtbaren Chunks der Terrains in einer groben Auflösung und die {@link Occluder} der
+ * markierten Entities in einen {@link OcclusionBuffer} gerastert. Die groben Chunks werden um den Fehler ihrer
+ * Stufe und der Quantisierung der Höhen abgesenkt, sodass sie nie über dem gerenderten Terrain liegen und keine
+ * sichtbaren Entities verdecken.
+ * </p>
+ */
+public class OcclusionCuller {
+
+    /**
+     * Die Stufe der Chunks, mit der Terrains als Verdecker gerastert werden (jedes 2^n-te Vertex).
+     */
+    private static final int TERRAIN_LEVEL = 3;
+
+    /**
+     * Der Tiefenpuffer, in den die Verdecker gerastert werden.
+     */
+    @Getter
+    private final OcclusionBuffer buffer;
+
+    /**
+     * @param width  die Breite des Tiefenpuffers in Pixeln.
+     * @param height die Höhe des Tiefenpuffers in Pixeln.
+     * @param pool   der Pool, auf dem die Kacheln des Tiefenpuffers parallel gerastert werden.
+     */
+    public OcclusionCuller(int width, int height, ForkJoinPool pool) {
+        this.buffer = new OcclusionBuffer(width, height, pool);
+    }
+
+    /**
+     * Rastert die Verdecker des Frames. Muss nach dem Frustum Culling der Terrains aufgerufen werden, da nur ihre
+     * sichtbaren Chunks gerastert werden.
+     *
+     * @param projection die Projektionsmatrix.
+     * @param view       die View Matrix der Kamera.
+     * @param terrains   die Terrains in der Szene.
+     * @param occluders  die Entities mit einem {@link Occluder}.
+     */
+    public void update(Matrix4f projection, Matrix4f view, List<Terrain> terrains, List<Entity> occluders) {
+        buffer.begin(projection, view);
+        for (int i = 0; i < terrains.size(); i++) {
+            addTerrain(terrains.get(i));
+        }
+        for (int i = 0; i < occluders.size(); i++) {
+            Entity entity = occluders.get(i);
+            Occluder occluder = entity.getOccluder();
+            if (occluder != null) {
+                buffer.addMesh(occluder.positions(), occluder.indices(), entity.getTransformationMatrix());
+            }
+        }
+        buffer.rasterize();
+        FrameStatistics.add(FrameStatistics.Counter.OCCLUDER_TRIANGLES, buffer.getTriangleCount());
+    }
+
+    /**
+     * Fügt die sichtbaren Chunks eines Terrains mit der Stufe {@link #TERRAIN_LEVEL} hinzu. Die Quadrate werden
+     * wie beim Rendern in die Dreiecke (oben links, unten links, oben rechts) und (oben rechts, unten links,
+     * unten rechts) geteilt.
+     */
+    private void addTerrain(Terrain terrain) {
+        TerrainChunkGrid chunkGrid = terrain.getChunkGrid();
+        HeightField heightField = terrain.getHeightField();
+        int chunkQuads = chunkGrid.getGeoMipmap().getChunkQuads();
+        int level = Math.min(TERRAIN_LEVEL, chunkGrid.getGeoMipmap().getLevelCount() - 1);
+        int step = 1 << level;
+        float cellSize = heightField.getCellSize();
+        List<TerrainChunk> visibleChunks = chunkGrid.getVisibleChunks();
+        for (int i = 0; i < visibleChunks.size(); i++) {
+            TerrainChunk chunk = visibleChunks.get(i);
+            float lowering = chunk.getError(level) + heightField.getQuantizationError();
+            int fromX = chunk.getGridX() * chunkQuads;
+            int fromZ = chunk.getGridZ() * chunkQuads;
+            for (int z = fromZ; z < fromZ + chunkQuads; z += step) {
+                float topZ = heightField.getOriginZ() + z * cellSize;
+                float bottomZ = heightField.getOriginZ() + (z + step) * cellSize;
+                for (int x = fromX; x < fromX + chunkQuads; x += step) {
+                    float leftX = heightField.getOriginX() + x * cellSize;
+                    float rightX = heightField.getOriginX() + (x + step) * cellSize;
+                    float topLeft = heightField.getHeight(x, z) - lowering;
+                    float topRight = heightField.getHeight(x + step, z) - lowering;
+                    float bottomLeft = heightField.getHeight(x, z + step) - lowering;
+                    float bottomRight = heightField.getHeight(x + step, z + step) - lowering;
+                    buffer.addTriangle(leftX, topLeft, topZ, leftX, bottomLeft, bottomZ, rightX, topRight, topZ);
+                    buffer.addTriangle(rightX, topRight, topZ, leftX, bottomLeft, bottomZ, rightX, bottomRight, bottomZ);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param entity die Entity.
+     * @return true, wenn die Bounding Sphere der Entity im aktuellen Frame vollständig verdeckt ist.
+     */
+    public boolean isOccluded(Entity entity) {
+        return buffer.isOccluded(entity.getWorldBoundingSphere());
+    }
+
+}
@@ -0,0 +1,149 @@
+package de.gabriel.engine.shaders;
+
+import de.gabriel.engine.entities.Light;
+import de.gabriel.engine.renderer.FrameStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL31;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
+
+/**
+ * Ein Uniform Buffer mit den Daten, die sich pro Frame ändern und von allen Shader Programmen der Szene geteilt
+ * werden: Projektions- und View Matrix, Himmelsfarbe (Nebel) und die Lichtquellen. Der Buffer wird einmal pro Frame
+ * beschrieben und bleibt an {@link #BINDING} gebunden; jedes Programm, das den Uniform Block {@link #BLOCK_NAME}
+ * deklariert, liest daraus (siehe {@link ShaderProgram}). Das ersetzt 21 einzelne Uniform-Uploads pro Programm und
+ * Frame.
+ * <p>
+ * Der Block hat das Layout std140, in dem jedes vec3 wie ein vec4 16 Bytes belegt:
+ * <pre>
+ * layout(std140) uniform FrameData {
+ *     mat4 projectionMatrix;  // Offset   0
+ *     mat4 viewMatrix;        // Offset  64
+ *     vec4 skyColor;          // Offset 128 (xyz)
+ *     vec4 lightPosition[6];  // Offset 144 (xyz, Weltkoordinaten)
+ *     vec4 lightColor[6];     // Offset 240 (xyz)
+ *     vec4 attenuation[6];    // Offset 336 (xyz)
+ * };
+ * </pre>
+ * </p>
+ */
+@Slf4j
+public class FrameUniformBuffer {
+
+    /**
+     * Der Name des Uniform Blocks in den Shadern.
+     */
+    public static final String BLOCK_NAME = "FrameData";
+
+    /**
+     * Der Binding Point, an dem der Buffer gebunden ist.
+     */
+    public static final int BINDING = 0;
+
+    /**
+     * Die Anzahl der Lichtquellen im Block (muss mit den Shadern übereinstimmen).
+     */
+    public static final int MAX_LIGHTS = 6;
+
+    /**
+     * Die Größe des Blocks in Floats.
+     */
+    public static final int FLOATS = 16 + 16 + 4 + 3 * MAX_LIGHTS * 4;
+
+    /**
+     * Der Inhalt des Buffers, der pro Frame neu gepackt wird.
+     */
+    private final FloatBuffer data = BufferUtils.createFloatBuffer(FLOATS);
+
+    private final int ubo;
+
+    public FrameUniformBuffer() {
+        ubo = gl().genBuffers();
+        gl().bindBuffer(GL31.GL_UNIFORM_BUFFER, ubo);
+        gl().bufferData(GL31.GL_UNIFORM_BUFFER, (long) FLOATS * Float.BYTES, GL15.GL_DYNAMIC_DRAW);
+        gl().bindBuffer(GL31.GL_UNIFORM_BUFFER, 0);
+        gl().bindBufferBase(GL31.GL_UNIFORM_BUFFER, BINDING, ubo);
+        log.info("Created frame uniform buffer; {[UboId={}], [Binding={}], [Bytes={}]}",
+                ubo, BINDING, FLOATS * Float.BYTES);
+    }
+
+    /**
+     * Packt die Daten des Frames und lädt sie mit einem Aufruf in den Buffer.
+     *
+     * @param projectionMatrix die Projektionsmatrix.
+     * @param viewMatrix       die View Matrix der Kamera.
+     * @param skyColor         die Farbe des Himmels, mit der der Nebel gemischt wird.
+     * @param lights           die Lichtquellen in der Szene (nur die ersten {@link #MAX_LIGHTS} werden verwendet).
+     */
+    public void update(Matrix4f projectionMatrix, Matrix4f viewMatrix, Vector3f skyColor, List<Light> lights) {
+        pack(data, projectionMatrix, viewMatrix, skyColor, lights);
+        gl().bindBuffer(GL31.GL_UNIFORM_BUFFER, ubo);
+        gl().bufferSubData(GL31.GL_UNIFORM_BUFFER, 0, data);
+        gl().bindBuffer(GL31.GL_UNIFORM_BUFFER, 0);
+        FrameStatistics.increment(FrameStatistics.Counter.UNIFORM_BUFFER_UPLOADS);
+    }
+
+    /**
+     * Packt die Daten eines Frames im Layout std140 in einen Buffer. Lichtquellen, die nicht belegt sind, werden
+     * schwarz und ohne Dämpfung (1, 0, 0) geschrieben, damit die Shader nicht durch 0 teilen.
+     *
+     * @param buffer           der Buffer mit Platz für {@link #FLOATS} Floats; wird ab Position 0 beschrieben und
+     *                         danach für das Lesen vorbereitet.
+     * @param projectionMatrix die Projektionsmatrix.
+     * @param viewMatrix       die View Matrix der Kamera.
+     * @param skyColor         die Farbe des Himmels.
+     * @param lights           die Lichtquellen in der Szene.
+     */
+    public static void pack(FloatBuffer buffer, Matrix4f projectionMatrix, Matrix4f viewMatrix, Vector3f skyColor,
+                            List<Light> lights) {
+        buffer.clear();
+        projectionMatrix.get(0, buffer);
+        viewMatrix.get(16, buffer);
+        buffer.position(32);
+        put(buffer, skyColor.x, skyColor.y, skyColor.z);
+        for (int i = 0; i < MAX_LIGHTS; i++) {
+            if (i < lights.size()) {
+                Vector3f position = lights.get(i).getPosition();
+                put(buffer, position.x, position.y, position.z);
+            } else {
+                put(buffer, 0, 0, 0);
+            }
+        }
+        for (int i = 0; i < MAX_LIGHTS; i++) {
+            if (i < lights.size()) {
+                Vector3f color = lights.get(i).getColor();
+                put(buffer, color.x, color.y, color.z);
+            } else {
+                put(buffer, 0, 0, 0);
+            }
+        }
+        for (int i = 0; i < MAX_LIGHTS; i++) {
+            if (i < lights.size()) {
+                Vector3f attenuation = lights.get(i).getAttenuation();
+                put(buffer, attenuation.x, attenuation.y, attenuation.z);
+            } else {
+                put(buffer, 1, 0, 0);
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Schreibt ein vec3 als vec4 (std140).
+     */
+    private static void put(FloatBuffer buffer, float x, float y, float z) {
+        buffer.put(x).put(y).put(z).put(0);
+    }
+
+    public void cleanUp() {
+        gl().deleteBuffers(ubo);
+    }
+
+}
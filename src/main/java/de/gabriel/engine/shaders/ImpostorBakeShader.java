@@ -0,0 +1,133 @@
+package de.gabriel.engine.shaders;
+
+import de.gabriel.engine.models.PositionDecode;
+import lombok.extern.slf4j.Slf4j;
+import org.joml.Matrix4f;
+
+import static de.gabriel.engine.Main.SHADER_PATH;
+
+/**
+ * Shader zum Backen der Frames eines Impostors. Schreibt Farbe und Normale (im Modellkoordinatensystem) in zwei
+ * Texturen des Atlas. Projektions- und View Matrix sind die der Frames, nicht die der Kamera, und werden daher nicht
+ * aus dem {@link FrameUniformBuffer} gelesen.
+ *
+ * @see de.gabriel.engine.renderer.ImpostorAtlas
+ */
+@Slf4j
+public class ImpostorBakeShader extends ShaderProgram {
+
+    /**
+     * Dateipfad des Vertex Shaders.
+     */
+    private static final String VERTEX_FILE = SHADER_PATH + "impostor/" + "impostorBakeVertexShader.glsl";
+
+    /**
+     * Dateipfad des Fragment Shaders.
+     */
+    private static final String FRAGMENT_FILE = SHADER_PATH + "impostor/" + "impostorBakeFragmentShader.glsl";
+
+    /**
+     * Die ID der Uniform Variable der Projektionsmatrix.
+     */
+    private int location_projectionMatrix;
+
+    /**
+     * Die ID der Uniform Variable der View Matrix.
+     */
+    private int location_viewMatrix;
+
+    /**
+     * Die ID der Uniform Variable, die angibt, ob Fake Lighting verwendet werden soll.
+     */
+    private int location_useFakeLighting;
+
+    /**
+     * Die ID der Uniform Variable der Anzahl der Reihen eines Texturatlasses.
+     */
+    private int location_numberOfRows;
+
+    /**
+     * Die ID der Uniform Variable des Mittelpunkts der Bounding Box (zum Dekodieren quantisierter Positionen).
+     */
+    private int location_positionOffset;
+
+    /**
+     * Die ID der Uniform Variable der halben Ausdehnung der Bounding Box (zum Dekodieren quantisierter Positionen).
+     */
+    private int location_positionScale;
+
+    public ImpostorBakeShader() {
+        super(VERTEX_FILE, FRAGMENT_FILE);
+    }
+
+    /**
+     * Binden der verschiedenen Attribute des VAOs an bestimmte Variablen
+     * im Shader Programm.
+     */
+    @Override
+    protected void bindAttributes() {
+        super.bindAttribute(0, "position");
+        super.bindAttribute(1, "textureCoordinates");
+        super.bindAttribute(2, "normal");
+    }
+
+    /**
+     * Laden der IDs aller Uniform Variablen.
+     */
+    @Override
+    protected void getAllUniformLocations() {
+        location_projectionMatrix = super.getUniformLocation("projectionMatrix");
+        location_viewMatrix = super.getUniformLocation("viewMatrix");
+        location_useFakeLighting = super.getUniformLocation("useFakeLighting");
+        location_numberOfRows = super.getUniformLocation("numberOfRows");
+        location_positionOffset = super.getUniformLocation("positionOffset");
+        location_positionScale = super.getUniformLocation("positionScale");
+    }
+
+    /**
+     * Diese Methode lädt die Projektionsmatrix eines Frames in die Uniform Variable im Shader.
+     *
+     * @param matrix die orthografische Projektion der Bounding Sphere des Impostors.
+     */
+    public void loadProjectionMatrix(Matrix4f matrix) {
+        super.loadMatrix(location_projectionMatrix, matrix);
+    }
+
+    /**
+     * Diese Methode lädt die View Matrix eines Frames in die Uniform Variable im Shader.
+     *
+     * @param matrix die View Matrix aus der Blickrichtung des Frames.
+     */
+    public void loadViewMatrix(Matrix4f matrix) {
+        super.loadMatrix(location_viewMatrix, matrix);
+    }
+
+    /**
+     * Diese Methode lädt die Anzahl der Reihen eines Texturatlasses in die Uniform Variable im Shader.
+     *
+     * @param numberOfRows die Anzahl der Reihen eines Texturatlasses.
+     */
+    public void loadNumberOfRows(int numberOfRows) {
+        super.loadFloat(location_numberOfRows, numberOfRows);
+    }
+
+    /**
+     * Diese Methode lädt die Variable, die angibt, ob Fake Lighting verwendet werden soll, in die Uniform Variable im Shader.
+     *
+     * @param useFake gibt an, ob Fake Lighting verwendet werden soll.
+     */
+    public void loadFakeLightingVariable(boolean useFake) {
+        super.loadBoolean(location_useFakeLighting, useFake);
+    }
+
+    /**
+     * Diese Methode lädt die Umrechnung der (quantisierten) Positionen eines Modells in die Uniform Variablen im Shader.
+     *
+     * @param decode die Umrechnung der Positionen des Modells.
+     */
+    public void loadPositionDecode(PositionDecode decode) {
+        super.loadVector(location_positionOffset, decode.offsetX(), decode.offsetY(), decode.offsetZ());
+        super.loadVector(location_positionScale, decode.scaleX(), decode.scaleY(), decode.scaleZ());
+    }
+
+}
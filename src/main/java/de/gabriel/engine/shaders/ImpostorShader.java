@@ -0,0 +1,69 @@
+package de.gabriel.engine.shaders;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static de.gabriel.engine.Main.SHADER_PATH;
+
+/**
+ * Shader zum Rendern der Impostors als Quads. Die Vertices liegen bereits in Weltkoordinaten vor; Projektions- und
+ * View Matrix, Himmelsfarbe und Lichter liest er aus dem {@link FrameUniformBuffer}.
+ *
+ * @see de.gabriel.engine.renderer.ImpostorRenderer
+ */
+@Slf4j
+public class ImpostorShader extends ShaderProgram {
+
+    /**
+     * Dateipfad des Vertex Shaders.
+     */
+    private static final String VERTEX_FILE = SHADER_PATH + "impostor/" + "impostorVertexShader.glsl";
+
+    /**
+     * Dateipfad des Fragment Shaders.
+     */
+    private static final String FRAGMENT_FILE = SHADER_PATH + "impostor/" + "impostorFragmentShader.glsl";
+
+    /**
+     * Die ID der Uniform Variable der Textur mit den Farben der Frames.
+     */
+    private int location_albedoTexture;
+
+    /**
+     * Die ID der Uniform Variable der Textur mit den Normalen der Frames.
+     */
+    private int location_normalTexture;
+
+    public ImpostorShader() {
+        super(VERTEX_FILE, FRAGMENT_FILE);
+    }
+
+    /**
+     * Binden der verschiedenen Attribute des VAOs an bestimmte Variablen
+     * im Shader Programm.
+     */
+    @Override
+    protected void bindAttributes() {
+        super.bindAttribute(0, "position");
+        super.bindAttribute(1, "textureCoordinates");
+        super.bindAttribute(2, "impostorData");
+    }
+
+    /**
+     * Laden der IDs aller Uniform Variablen.
+     */
+    @Override
+    protected void getAllUniformLocations() {
+        location_albedoTexture = super.getUniformLocation("albedoTexture");
+        location_normalTexture = super.getUniformLocation("normalTexture");
+    }
+
+    /**
+     * Diese Methode lädt die IDs der Texture Units in die Uniform Variablen im Shader: die Farben liegen in
+     * Texture Unit 0, die Normalen in Texture Unit 1.
+     */
+    public void connectTextureUnits() {
+        super.loadInt(location_albedoTexture, 0);
+        super.loadInt(location_normalTexture, 1);
+    }
+
+}
@@ -0,0 +1,56 @@
+package de.gabriel.engine.shaders;
+
+import static de.gabriel.engine.Main.SHADER_PATH;
+
+/**
+ * Shader für statische Objekte, die instanziert gerendert werden. Die Transformationsmatrix und der
+ * Offset im Texturatlas (und die Überblendung zum Impostor) sind keine Uniform Variablen, sondern Attribute pro Instanz. Alle anderen
+ * Uniform Variablen entsprechen denen des {@link StaticShader}.
+ *
+ * @see de.gabriel.engine.renderer.InstancedEntityRenderer
+ */
+public class InstancedShader extends StaticShader {
+
+    /**
+     * Dateipfad des instanzierten Vertex Shaders.
+     */
+    private static final String VERTEX_FILE = SHADER_PATH + "instanced/instancedVertexShader.glsl";
+
+    /**
+     * Dateipfad des Fragment Shaders (derselbe wie beim {@link StaticShader}).
+     */
+    private static final String FRAGMENT_FILE = SHADER_PATH + "fragmentShader.glsl";
+
+    /**
+     * Das erste Attribut der Transformationsmatrix. Eine mat4 belegt vier aufeinanderfolgende Attribute (3 bis 6).
+     */
+    public static final int TRANSFORMATION_MATRIX_ATTRIBUTE = 3;
+
+    /**
+     * Das Attribut des Offsets im Texturatlas.
+     */
+    public static final int OFFSET_ATTRIBUTE = 7;
+
+    /**
+     * Das Attribut der Überblendung zum Impostor.
+     */
+    public static final int IMPOSTOR_FADE_ATTRIBUTE = 8;
+
+    public InstancedShader() {
+        super(VERTEX_FILE, FRAGMENT_FILE);
+    }
+
+    /**
+     * Binden der Attribute des VAOs sowie der Attribute pro Instanz an die Variablen im Shader Programm.
+     */
+    @Override
+    protected void bindAttributes() {
+        super.bindAttribute(0, "position");
+        super.bindAttribute(1, "textureCoordinates");
+        super.bindAttribute(2, "normal");
+        super.bindAttribute(TRANSFORMATION_MATRIX_ATTRIBUTE, "transformationMatrix");
+        super.bindAttribute(OFFSET_ATTRIBUTE, "offset");
+        super.bindAttribute(IMPOSTOR_FADE_ATTRIBUTE, "impostorFade");
+    }
+
+}
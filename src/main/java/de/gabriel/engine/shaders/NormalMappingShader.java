@@ -1,19 +1,16 @@
 package de.gabriel.engine.shaders;
 
-import de.gabriel.engine.entities.Light;
+import de.gabriel.engine.models.PositionDecode;
 import org.joml.Matrix4f;
-import org.joml.Vector2f;
-import org.joml.Vector3f;
-import org.joml.Vector4f;
-
-import java.util.List;
 
 import static de.gabriel.engine.Main.SHADER_PATH;
 
+/**
+ * Shader für Objekte mit Normal Mapping. Projektions- und View Matrix, Himmelsfarbe und Lichter liest er aus dem
+ * {@link FrameUniformBuffer}; die Lichter werden erst im Vertex Shader in den View Space transformiert.
+ */
 public class NormalMappingShader extends ShaderProgram {
 
-    private static final int MAX_LIGHTS = 6;
-
     /**
      * Dateipfad des Vertex Shaders.
      */
@@ -25,16 +22,12 @@ public class NormalMappingShader extends ShaderProgram {
     private static final String FRAGMENT_FILE = SHADER_PATH + "normals/normalMapFragmentShader.glsl";
 
     private int location_transformationMatrix;
-    private int location_projectionMatrix;
-    private int location_viewMatrix;
-    private int[] location_lightPositionEyeSpace;
-    private int[] location_lightColor;
-    private int[] location_attenuation;
     private int location_shineDamper;
     private int location_reflectivity;
-    private int location_skyColor;
     private int location_numberOfRows;
     private int location_offset;
+    private int location_positionOffset;
+    private int location_positionScale;
     private int location_modelTexture;
     private int location_normalMapSampler;
 
@@ -53,25 +46,14 @@ public class NormalMappingShader extends ShaderProgram {
     @Override
     protected void getAllUniformLocations() {
         location_transformationMatrix = super.getUniformLocation("transformationMatrix");
-        location_projectionMatrix = super.getUniformLocation("projectionMatrix");
-        location_viewMatrix = super.getUniformLocation("viewMatrix");
         location_shineDamper = super.getUniformLocation("shineDamper");
         location_reflectivity = super.getUniformLocation("reflectivity");
-        location_skyColor = super.getUniformLocation("skyColor");
         location_numberOfRows = super.getUniformLocation("numberOfRows");
         location_offset = super.getUniformLocation("offset");
+        location_positionOffset = super.getUniformLocation("positionOffset");
+        location_positionScale = super.getUniformLocation("positionScale");
         location_modelTexture = super.getUniformLocation("modelTexture");
         location_normalMapSampler = super.getUniformLocation("normalMap");
-
-        location_lightPositionEyeSpace = new int[MAX_LIGHTS];
-        location_lightColor = new int[MAX_LIGHTS];
-        location_attenuation = new int[MAX_LIGHTS];
-
-        for (int i = 0; i < MAX_LIGHTS; i++) {
-            location_lightPositionEyeSpace[i] = super.getUniformLocation("lightPositionEyeSpace[" + i + "]");
-            location_lightColor[i] = super.getUniformLocation("lightColor[" + i + "]");
-            location_attenuation[i] = super.getUniformLocation("attenuation[" + i + "]");
-        }
     }
 
     public void connectTextureUnits() {
@@ -84,11 +66,12 @@ public class NormalMappingShader extends ShaderProgram {
     }
 
     public void loadOffset(float x, float y) {
-        super.loadVector(location_offset, new Vector2f(x, y));
+        super.loadVector(location_offset, x, y);
     }
 
-    public void loadSkyColor(float r, float g, float b) {
-        super.loadVector(location_skyColor, new Vector3f(r, g, b));
+    public void loadPositionDecode(PositionDecode decode) {
+        super.loadVector(location_positionOffset, decode.offsetX(), decode.offsetY(), decode.offsetZ());
+        super.loadVector(location_positionScale, decode.scaleX(), decode.scaleY(), decode.scaleZ());
     }
 
     public void loadShineVariables(float damper, float reflectivity) {
@@ -100,33 +83,4 @@ public class NormalMappingShader extends ShaderProgram {
         super.loadMatrix(location_transformationMatrix, matrix);
     }
 
-    public void loadLights(List<Light> lights, Matrix4f viewMatrix) {
-        for (int i = 0; i < MAX_LIGHTS; i++) {
-            if (i < lights.size()) {
-                super.loadVector(location_lightPositionEyeSpace[i], getEyeSpacePosition(lights.get(i), viewMatrix));
-                super.loadVector(location_lightColor[i], lights.get(i).getColor());
-                super.loadVector(location_attenuation[i], lights.get(i).getAttenuation());
-            } else {
-                super.loadVector(location_lightPositionEyeSpace[i], new Vector3f(0, 0, 0));
-                super.loadVector(location_lightColor[i], new Vector3f(0, 0, 0));
-                super.loadVector(location_attenuation[i], new Vector3f(1, 0, 0));
-            }
-        }
-    }
-
-    public void loadViewMatrix(Matrix4f viewMatrix) {
-        super.loadMatrix(location_viewMatrix, viewMatrix);
-    }
-
-    public void loadProjectionMatrix(Matrix4f projection) {
-        super.loadMatrix(location_projectionMatrix, projection);
-    }
-
-    private Vector3f getEyeSpacePosition(Light light, Matrix4f viewMatrix) {
-        Vector3f position = light.getPosition();
-        Vector4f eyeSpacePos = new Vector4f(position.x, position.y, position.z, 1f);
-        eyeSpacePos = viewMatrix.transform(eyeSpacePos);
-        return new Vector3f(eyeSpacePos.x, eyeSpacePos.y, eyeSpacePos.z);
-    }
-
 }
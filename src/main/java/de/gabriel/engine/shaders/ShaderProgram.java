@@ -1,5 +1,7 @@
 package de.gabriel.engine.shaders;
 
+import de.gabriel.engine.renderer.FrameStatistics;
+import de.gabriel.engine.utils.IntList;
 import lombok.extern.slf4j.Slf4j;
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
@@ -8,15 +10,23 @@ import org.joml.Vector4f;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL31;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.nio.FloatBuffer;
 
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
+
 /**
  * Generische Klasse zum Repräsentieren eines Shader Programmes.
  * Für ein spezifischeres Shader Programm muss diese Klasse erweitert werden.
+ * <p>
+ * Die load-Methoden vergleichen jeden Wert mit dem zuletzt hochgeladenen ({@link UniformShadow}) und rufen
+ * {@code glUniform*} nur bei Änderungen auf. Verwendet ein Shader den Uniform Block {@code FrameData}, wird er
+ * beim Linken an den gemeinsamen {@link FrameUniformBuffer} gebunden.
+ * </p>
  *
  * @see StaticShader
  * @see TerrainShader
@@ -29,6 +39,21 @@ public abstract class ShaderProgram {
     private final int vertexShaderID;
     private final int fragmentShaderID;
 
+    /**
+     * Die Locations der Uniform Variablen im Programm, nach der ID, die {@link #getUniformLocation(String)} vergibt.
+     */
+    private final IntList uniformLocations = new IntList();
+
+    /**
+     * Die zuletzt hochgeladenen Werte der Uniform Variablen, nach derselben ID.
+     */
+    private final UniformShadow shadow = new UniformShadow();
+
+    /**
+     * Wiederverwendetes Array zum Vergleichen von Matrizen mit der Schattenkopie.
+     */
+    private final float[] matrixValues = new float[16];
+
     /**
      * Erstellt ein Shader Programm mit den angegebenen Shadern,
      * um sie ans Programm zu binden und dieses zu linken und
@@ -40,15 +65,27 @@ public abstract class ShaderProgram {
     public ShaderProgram(String vertexFile, String fragmentFile) {
         vertexShaderID = loadShader(vertexFile, GL20.GL_VERTEX_SHADER);
         fragmentShaderID = loadShader(fragmentFile, GL20.GL_FRAGMENT_SHADER);
-        programID = GL20.glCreateProgram();
-        GL20.glAttachShader(programID, vertexShaderID);
-        GL20.glAttachShader(programID, fragmentShaderID);
+        programID = gl().createProgram();
+        gl().attachShader(programID, vertexShaderID);
+        gl().attachShader(programID, fragmentShaderID);
         bindAttributes();
-        GL20.glLinkProgram(programID);
-        GL20.glValidateProgram(programID);
+        gl().linkProgram(programID);
+        gl().validateProgram(programID);
+        bindFrameUniformBlock();
         getAllUniformLocations();
     }
 
+    /**
+     * Bindet den Uniform Block mit den Daten pro Frame an den Binding Point des {@link FrameUniformBuffer},
+     * falls der Shader ihn verwendet.
+     */
+    private void bindFrameUniformBlock() {
+        int blockIndex = gl().getUniformBlockIndex(programID, FrameUniformBuffer.BLOCK_NAME);
+        if (blockIndex != GL31.GL_INVALID_INDEX) {
+            gl().uniformBlockBinding(programID, blockIndex, FrameUniformBuffer.BINDING);
+        }
+    }
+
     /**
      * Diese Methode lädt einen Shader aus einer Datei und kompiliert diesen Shader nach
      * dem Auslesen dann mit dem angegebenen Typ.
@@ -72,11 +109,11 @@ public abstract class ShaderProgram {
             log.error("Could not read file!", e);
             System.exit(-1);
         }
-        int shaderID = GL20.glCreateShader(type);
-        GL20.glShaderSource(shaderID, shaderSource);
-        GL20.glCompileShader(shaderID);
-        if (GL20.glGetShaderi(shaderID, GL20.GL_COMPILE_STATUS) == GL11.GL_FALSE) {
-            log.error(GL20.glGetShaderInfoLog(shaderID, 500));
+        int shaderID = gl().createShader(type);
+        gl().shaderSource(shaderID, shaderSource);
+        gl().compileShader(shaderID);
+        if (gl().getShaderi(shaderID, GL20.GL_COMPILE_STATUS) == GL11.GL_FALSE) {
+            log.error(gl().getShaderInfoLog(shaderID, 500));
             System.exit(-1);
         }
         log.trace("Read shader file; {[ShaderFile={}], [ShaderId={}]}",
@@ -92,20 +129,43 @@ public abstract class ShaderProgram {
     protected abstract void getAllUniformLocations();
 
     /**
-     * Diese Methode gibt die ID einer Uniform Variable im Shader zurück.
+     * Diese Methode gibt die ID einer Uniform Variable im Shader zurück, über die ihr Wert mit den load-Methoden
+     * gesetzt wird. Die ID ist ein Index in die Schattenkopie der Werte, nicht die Location in OpenGL.
      *
      * @param uniformName der Name der Uniform Variable.
      * @return die ID der Uniform Variable.
      */
     protected int getUniformLocation(String uniformName) {
-        return GL20.glGetUniformLocation(programID, uniformName);
+        uniformLocations.add(gl().getUniformLocation(programID, uniformName));
+        return shadow.add();
+    }
+
+    /**
+     * Gibt die Location einer Uniform Variable in OpenGL zurück, wenn ihr Wert hochgeladen werden muss, und zählt
+     * das Hochladen bzw. Überspringen in den {@link FrameStatistics}.
+     *
+     * @param id      die ID der Uniform Variable.
+     * @param changed ob sich der Wert gegenüber der Schattenkopie geändert hat.
+     * @return die Location, oder -1, wenn nichts hochgeladen werden muss.
+     */
+    private int uploadLocation(int id, boolean changed) {
+        int location = uniformLocations.get(id);
+        if (location == -1) {
+            return -1; // Vom Compiler entfernt oder nicht vorhanden; OpenGL würde den Aufruf ignorieren
+        }
+        if (!changed) {
+            FrameStatistics.increment(FrameStatistics.Counter.UNIFORM_UPLOADS_AVOIDED);
+            return -1;
+        }
+        FrameStatistics.increment(FrameStatistics.Counter.UNIFORM_UPLOADS);
+        return location;
     }
 
     /**
      * Nutzen des Programms als Teil des Rendering-Prozesses.
      */
     public void start() {
-        GL20.glUseProgram(programID);
+        gl().useProgram(programID);
     }
 
     /**
@@ -113,7 +173,7 @@ public abstract class ShaderProgram {
      * Referenzieren ein invaliden Programmes, wodurch die Ergebnisse der Shader undefiniert sind.
      */
     public void stop() {
-        GL20.glUseProgram(0);
+        gl().useProgram(0);
     }
 
     /**
@@ -121,11 +181,11 @@ public abstract class ShaderProgram {
      */
     public void cleanUp() {
         stop();
-        GL20.glDetachShader(programID, vertexShaderID);
-        GL20.glDetachShader(programID, fragmentShaderID);
-        GL20.glDeleteShader(vertexShaderID);
-        GL20.glDeleteShader(fragmentShaderID);
-        GL20.glDeleteProgram(programID);
+        gl().detachShader(programID, vertexShaderID);
+        gl().detachShader(programID, fragmentShaderID);
+        gl().deleteShader(vertexShaderID);
+        gl().deleteShader(fragmentShaderID);
+        gl().deleteProgram(programID);
 
         log.info("Cleaned up shader program; {[ShaderProgramId={}], [VertexShaderId={}], [FragmentShaderId={}]}",
                 programID, vertexShaderID, fragmentShaderID);
@@ -145,7 +205,7 @@ public abstract class ShaderProgram {
      * @param variableName der Name des Attributes an das der Wert im Shader gebunden werden soll.
      */
     protected void bindAttribute(int attribute, String variableName) {
-        GL20.glBindAttribLocation(programID, attribute, variableName);
+        gl().bindAttribLocation(programID, attribute, variableName);
     }
 
     /**
@@ -155,7 +215,10 @@ public abstract class ShaderProgram {
      * @param value    der Float Wert, der in die Uniform Variable geladen werden soll.
      */
     protected void loadFloat(int location, float value) {
-        GL20.glUniform1f(location, value);
+        int glLocation = uploadLocation(location, shadow.update(location, value));
+        if (glLocation != -1) {
+            gl().uniform1f(glLocation, value);
+        }
     }
 
     /**
@@ -165,7 +228,10 @@ public abstract class ShaderProgram {
      * @param value    der Integer Wert, der in die Uniform Variable geladen werden soll.
      */
     protected void loadInt(int location, int value) {
-        GL20.glUniform1i(location, value);
+        int glLocation = uploadLocation(location, shadow.update(location, value));
+        if (glLocation != -1) {
+            gl().uniform1i(glLocation, value);
+        }
     }
 
     /**
@@ -175,7 +241,10 @@ public abstract class ShaderProgram {
      * @param vector   der Vektor, der in die Uniform Variable geladen werden soll.
      */
     protected void loadVector(int location, Vector4f vector) {
-        GL20.glUniform4f(location, vector.x, vector.y, vector.z, vector.w);
+        int glLocation = uploadLocation(location, shadow.update(location, vector.x, vector.y, vector.z, vector.w));
+        if (glLocation != -1) {
+            gl().uniform4f(glLocation, vector.x, vector.y, vector.z, vector.w);
+        }
     }
 
     /**
@@ -185,7 +254,22 @@ public abstract class ShaderProgram {
      * @param vector   der Vektor, der in die Uniform Variable geladen werden soll.
      */
     protected void loadVector(int location, Vector3f vector) {
-        GL20.glUniform3f(location, vector.x, vector.y, vector.z);
+        loadVector(location, vector.x, vector.y, vector.z);
+    }
+
+    /**
+     * Diese Methode lädt einen Vektor aus seinen Komponenten in eine Uniform Variable im Shader.
+     *
+     * @param location die ID der Uniform Variable.
+     * @param x        die X Komponente des Vektors.
+     * @param y        die Y Komponente des Vektors.
+     * @param z        die Z Komponente des Vektors.
+     */
+    protected void loadVector(int location, float x, float y, float z) {
+        int glLocation = uploadLocation(location, shadow.update(location, x, y, z));
+        if (glLocation != -1) {
+            gl().uniform3f(glLocation, x, y, z);
+        }
     }
 
     /**
@@ -195,7 +279,21 @@ public abstract class ShaderProgram {
      * @param vector   der Vektor, der in die Uniform Variable geladen werden soll.
      */
     protected void loadVector(int location, Vector2f vector) {
-        GL20.glUniform2f(location, vector.x, vector.y);
+        loadVector(location, vector.x, vector.y);
+    }
+
+    /**
+     * Diese Methode lädt einen 2 dimensionalen Vektor aus seinen Komponenten in eine Uniform Variable im Shader.
+     *
+     * @param location die ID der Uniform Variable.
+     * @param x        die X Komponente des Vektors.
+     * @param y        die Y Komponente des Vektors.
+     */
+    protected void loadVector(int location, float x, float y) {
+        int glLocation = uploadLocation(location, shadow.update(location, x, y));
+        if (glLocation != -1) {
+            gl().uniform2f(glLocation, x, y);
+        }
     }
 
     /**
@@ -215,7 +313,7 @@ public abstract class ShaderProgram {
         if (value) {
             toLoad = 1;
         }
-        GL20.glUniform1f(location, toLoad);
+        loadFloat(location, toLoad);
     }
 
     /**
@@ -225,8 +323,12 @@ public abstract class ShaderProgram {
      * @param matrix   die Matrix, die in die Uniform Variable geladen werden soll.
      */
     protected void loadMatrix(int location, Matrix4f matrix) {
-        matrix.get(matrixBuffer);
-        GL20.glUniformMatrix4fv(location, false, matrixBuffer);
+        matrix.get(matrixValues);
+        int glLocation = uploadLocation(location, shadow.update(location, matrixValues));
+        if (glLocation != -1) {
+            matrixBuffer.put(matrixValues).flip();
+            gl().uniformMatrix4fv(glLocation, false, matrixBuffer);
+        }
     }
 
 }
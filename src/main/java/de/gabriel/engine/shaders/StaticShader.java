@@ -1,29 +1,18 @@
 package de.gabriel.engine.shaders;
 
-import de.gabriel.engine.entities.Camera;
-import de.gabriel.engine.entities.Light;
-import de.gabriel.engine.utils.Maths;
+import de.gabriel.engine.models.PositionDecode;
 import lombok.extern.slf4j.Slf4j;
 import org.joml.Matrix4f;
-import org.joml.Vector2f;
-import org.joml.Vector3f;
-
-import java.util.List;
 
 import static de.gabriel.engine.Main.SHADER_PATH;
 
 /**
- * Shader für statische Objekte.
+ * Shader für statische Objekte. Projektions- und View Matrix, Himmelsfarbe und Lichter liest er aus dem
+ * {@link FrameUniformBuffer}.
  */
 @Slf4j
 public class StaticShader extends ShaderProgram {
 
-    /**
-     * Maximale Anzahl an Lichtern, die ein Entity beeinflussen können.
-     * Findet sich wieder in den Shadern unter resources/shaders.
-     */
-    private static final int MAX_LIGHTS = 6;
-
     /**
      * Dateipfad des Vertex Shaders.
      */
@@ -39,31 +28,6 @@ public class StaticShader extends ShaderProgram {
      */
     private int location_transformationMatrix;
 
-    /**
-     * Die ID der Uniform Variable der Projektionsmatrix.
-     */
-    private int location_projectionMatrix;
-
-    /**
-     * Die ID der Uniform Variable der View Matrix.
-     */
-    private int location_viewMatrix;
-
-    /**
-     * Die ID der Uniform Variable der Position des Lichts.
-     */
-    private int[] location_lightPosition;
-
-    /**
-     * Die ID der Uniform Variable der Farbe bzw. Intensität des Lichts.
-     */
-    private int[] location_lightColor;
-
-    /**
-     * Die ID der Uniform Variable der Dämpfung des Lichts.
-     */
-    private int[] location_attenuation;
-
     /**
      * Die ID der Uniform Variable des Glanzfaktors.
      */
@@ -79,11 +43,6 @@ public class StaticShader extends ShaderProgram {
      */
     private int location_useFakeLighting;
 
-    /**
-     * Die ID der Uniform Variable der Himmelsfarbe.
-     */
-    private int location_skyColor;
-
     /**
      * Die ID der Uniform Variable der Anzahl der Reihen eines Texturatlasses.
      */
@@ -94,10 +53,37 @@ public class StaticShader extends ShaderProgram {
      */
     private int location_offset;
 
+    /**
+     * Die ID der Uniform Variable des Mittelpunkts der Bounding Box (zum Dekodieren quantisierter Positionen).
+     */
+    private int location_positionOffset;
+
+    /**
+     * Die ID der Uniform Variable der halben Ausdehnung der Bounding Box (zum Dekodieren quantisierter Positionen).
+     */
+    private int location_positionScale;
+
+    /**
+     * Die ID der Uniform Variable der Überblendung zum Impostor.
+     */
+    private int location_impostorFade;
+
     public StaticShader() {
         super(VERTEX_FILE, FRAGMENT_FILE);
     }
 
+    /**
+     * Erstellt einen Shader für statische Objekte mit eigenen Shader-Dateien, die dieselben
+     * Uniform Variablen verwenden.
+     *
+     * @param vertexFile   der Dateipfad des Vertex Shaders.
+     * @param fragmentFile der Dateipfad des Fragment Shaders.
+     * @see InstancedShader
+     */
+    protected StaticShader(String vertexFile, String fragmentFile) {
+        super(vertexFile, fragmentFile);
+    }
+
     /**
      * Binden der verschiedenen Attribute des VAOs an bestimmte Variablen
      * im Shader Programm.
@@ -105,7 +91,7 @@ public class StaticShader extends ShaderProgram {
     @Override
     protected void bindAttributes() {
         super.bindAttribute(0, "position");
-        super.bindAttribute(1, "textureCoords");
+        super.bindAttribute(1, "textureCoordinates");
         super.bindAttribute(2, "normal");
     }
 
@@ -115,24 +101,14 @@ public class StaticShader extends ShaderProgram {
     @Override
     protected void getAllUniformLocations() {
         location_transformationMatrix = super.getUniformLocation("transformationMatrix");
-        location_projectionMatrix = super.getUniformLocation("projectionMatrix");
-        location_viewMatrix = super.getUniformLocation("viewMatrix");
         location_shineDamper = super.getUniformLocation("shineDamper");
         location_reflectivity = super.getUniformLocation("reflectivity");
         location_useFakeLighting = super.getUniformLocation("useFakeLighting");
-        location_skyColor = super.getUniformLocation("skyColor");
         location_numberOfRows = super.getUniformLocation("numberOfRows");
         location_offset = super.getUniformLocation("offset");
-
-        location_lightPosition = new int[MAX_LIGHTS];
-        location_lightColor = new int[MAX_LIGHTS];
-        location_attenuation = new int[MAX_LIGHTS];
-
-        for (int i = 0; i < MAX_LIGHTS; i++) {
-            location_lightPosition[i] = super.getUniformLocation("lightPosition[" + i + "]");
-            location_lightColor[i] = super.getUniformLocation("lightColor[" + i + "]");
-            location_attenuation[i] = super.getUniformLocation("attenuation[" + i + "]");
-        }
+        location_positionOffset = super.getUniformLocation("positionOffset");
+        location_positionScale = super.getUniformLocation("positionScale");
+        location_impostorFade = super.getUniformLocation("impostorFade");
     }
 
     /**
@@ -151,18 +127,7 @@ public class StaticShader extends ShaderProgram {
      * @param y der Y Offset der Textur innerhalb des Texturatlasses.
      */
     public void loadOffset(float x, float y) {
-        super.loadVector(location_offset, new Vector2f(x, y));
-    }
-
-    /**
-     * Diese Methode lädt die Himmelsfarbe in die Uniform Variable im Shader.
-     *
-     * @param r der Rotanteil der Himmelsfarbe.
-     * @param g der Grünanteil der Himmelsfarbe.
-     * @param b der Blauanteil der Himmelsfarbe.
-     */
-    public void loadSkyColor(float r, float g, float b) {
-        super.loadVector(location_skyColor, new Vector3f(r, g, b));
+        super.loadVector(location_offset, x, y);
     }
 
     /**
@@ -186,52 +151,32 @@ public class StaticShader extends ShaderProgram {
     }
 
     /**
-     * Diese Methode lädt eine Transformationsmatrix in die Uniform Variable im Shader.
+     * Diese Methode lädt die Umrechnung der (quantisierten) Positionen eines Modells in die Uniform Variablen im Shader.
      *
-     * @param matrix die Transformationsmatrix, die in die Uniform Variable geladen werden soll.
+     * @param decode die Umrechnung der Positionen des Modells.
      */
-    public void loadTransformationMatrix(Matrix4f matrix) {
-        super.loadMatrix(location_transformationMatrix, matrix);
-    }
-
-
-    /**
-     * Diese Methode lädt die Position und Farbe (bzw. Intensität) der Lichter in die Uniform Variablen im Shader.
-     *
-     * @param light die Liste an Lichtern, dessen Position und Farbe (bzw. Intensität) in die Uniform Variablen geladen werden soll.
-     */
-    public void loadLights(List<Light> light) {
-        for (int i = 0; i < MAX_LIGHTS; i++) {
-            if (i < light.size()) { // Nur Lichter, die in der Szene vorhanden sind, werden geladen.
-                super.loadVector(location_lightPosition[i], light.get(i).getPosition());
-                super.loadVector(location_lightColor[i], light.get(i).getColor());
-                super.loadVector(location_attenuation[i], light.get(i).getAttenuation());
-            } else { // Leere Lichter werden mit Position (0, 0, 0) und Farbe (0, 0, 0) geladen.
-                super.loadVector(location_lightPosition[i], new Vector3f(0, 0, 0));
-                super.loadVector(location_lightColor[i], new Vector3f(0, 0, 0));
-                super.loadVector(location_attenuation[i], new Vector3f(1, 0, 0));
-            }
-        }
+    public void loadPositionDecode(PositionDecode decode) {
+        super.loadVector(location_positionOffset, decode.offsetX(), decode.offsetY(), decode.offsetZ());
+        super.loadVector(location_positionScale, decode.scaleX(), decode.scaleY(), decode.scaleZ());
     }
 
     /**
-     * Diese Methode erstellt eine View Matrix und lädt diese in die Uniform Variable im Shader.
+     * Diese Methode lädt die Überblendung einer Entity zum Impostor in die Uniform Variable im Shader.
      *
-     * @param camera die Kamera, für die die View Matrix erstellt werden soll.
-     * @see Maths#createViewMatrix(Camera)
+     * @param fade die Überblendung (0 = nur Modell, 1 = nur Impostor).
+     * @see de.gabriel.engine.entities.Entity#getImpostorFade()
      */
-    public void loadViewMatrix(Camera camera) {
-        Matrix4f viewMatrix = Maths.createViewMatrix(camera);
-        super.loadMatrix(location_viewMatrix, viewMatrix);
+    public void loadImpostorFade(float fade) {
+        super.loadFloat(location_impostorFade, fade);
     }
 
     /**
-     * Diese Methode lädt eine Projektionsmatrix in die Uniform Variable im Shader.
+     * Diese Methode lädt eine Transformationsmatrix in die Uniform Variable im Shader.
      *
-     * @param projection die Projektionsmatrix, die in die Uniform Variable geladen werden soll.
+     * @param matrix die Transformationsmatrix, die in die Uniform Variable geladen werden soll.
      */
-    public void loadProjectionMatrix(Matrix4f projection) {
-        super.loadMatrix(location_projectionMatrix, projection);
+    public void loadTransformationMatrix(Matrix4f matrix) {
+        super.loadMatrix(location_transformationMatrix, matrix);
     }
 
 }
@@ -0,0 +1,160 @@
+package de.gabriel.engine.shaders;
+
+import java.util.Arrays;
+
+/**
+ * Merkt sich die zuletzt hochgeladenen Werte der Uniform Variablen eines Shader Programms, damit unveränderte
+ * Werte nicht erneut an OpenGL übergeben werden. Uniform Variablen behalten ihre Werte im Programm, solange es
+ * nicht neu gelinkt wird; die Schattenkopie bleibt daher über alle Frames gültig.
+ * <p>
+ * Werte werden bitweise als Integer verglichen, sodass z.B. -0 und 0 als unterschiedlich gelten und NaN als
+ * gleich. Die Klasse verwendet kein OpenGL.
+ * </p>
+ *
+ * @see ShaderProgram
+ */
+public class UniformShadow {
+
+    /**
+     * Die maximale Anzahl an Komponenten einer Uniform Variable (4 · 4 Matrix).
+     */
+    public static final int MAX_COMPONENTS = 16;
+
+    /**
+     * Die Bits der Werte, {@link #MAX_COMPONENTS} pro Uniform Variable.
+     */
+    private int[] values = new int[8 * MAX_COMPONENTS];
+
+    /**
+     * Ob für eine Uniform Variable bereits ein Wert hochgeladen wurde.
+     */
+    private boolean[] known = new boolean[8];
+
+    private int count;
+
+    /**
+     * Fügt eine Uniform Variable hinzu, deren Wert noch unbekannt ist.
+     *
+     * @return der Index der Uniform Variable in der Schattenkopie.
+     */
+    public int add() {
+        if (count == known.length) {
+            known = Arrays.copyOf(known, count * 2);
+            values = Arrays.copyOf(values, count * 2 * MAX_COMPONENTS);
+        }
+        return count++;
+    }
+
+    /**
+     * Übernimmt einen Wert, wenn er sich vom zuletzt übernommenen unterscheidet.
+     *
+     * @param index der Index der Uniform Variable.
+     * @param x     der Wert.
+     * @return true, wenn der Wert hochgeladen werden muss.
+     */
+    public boolean update(int index, int x) {
+        int offset = index * MAX_COMPONENTS;
+        if (known[index] && values[offset] == x) {
+            return false;
+        }
+        known[index] = true;
+        values[offset] = x;
+        return true;
+    }
+
+    /**
+     * @see #update(int, int)
+     */
+    public boolean update(int index, float x) {
+        return update(index, Float.floatToRawIntBits(x));
+    }
+
+    /**
+     * @see #update(int, int)
+     */
+    public boolean update(int index, float x, float y) {
+        int offset = index * MAX_COMPONENTS;
+        int bitsX = Float.floatToRawIntBits(x);
+        int bitsY = Float.floatToRawIntBits(y);
+        if (known[index] && values[offset] == bitsX && values[offset + 1] == bitsY) {
+            return false;
+        }
+        known[index] = true;
+        values[offset] = bitsX;
+        values[offset + 1] = bitsY;
+        return true;
+    }
+
+    /**
+     * @see #update(int, int)
+     */
+    public boolean update(int index, float x, float y, float z) {
+        int offset = index * MAX_COMPONENTS;
+        int bitsX = Float.floatToRawIntBits(x);
+        int bitsY = Float.floatToRawIntBits(y);
+        int bitsZ = Float.floatToRawIntBits(z);
+        if (known[index] && values[offset] == bitsX && values[offset + 1] == bitsY && values[offset + 2] == bitsZ) {
+            return false;
+        }
+        known[index] = true;
+        values[offset] = bitsX;
+        values[offset + 1] = bitsY;
+        values[offset + 2] = bitsZ;
+        return true;
+    }
+
+    /**
+     * @see #update(int, int)
+     */
+    public boolean update(int index, float x, float y, float z, float w) {
+        int offset = index * MAX_COMPONENTS;
+        int bitsX = Float.floatToRawIntBits(x);
+        int bitsY = Float.floatToRawIntBits(y);
+        int bitsZ = Float.floatToRawIntBits(z);
+        int bitsW = Float.floatToRawIntBits(w);
+        if (known[index] && values[offset] == bitsX && values[offset + 1] == bitsY && values[offset + 2] == bitsZ
+                && values[offset + 3] == bitsW) {
+            return false;
+        }
+        known[index] = true;
+        values[offset] = bitsX;
+        values[offset + 1] = bitsY;
+        values[offset + 2] = bitsZ;
+        values[offset + 3] = bitsW;
+        return true;
+    }
+
+    /**
+     * Übernimmt mehrere Komponenten (z.B. eine Matrix), wenn sich mindestens eine unterscheidet.
+     *
+     * @param index      der Index der Uniform Variable.
+     * @param components die Komponenten (höchstens {@link #MAX_COMPONENTS}).
+     * @return true, wenn der Wert hochgeladen werden muss.
+     */
+    public boolean update(int index, float[] components) {
+        int offset = index * MAX_COMPONENTS;
+        boolean changed = !known[index];
+        for (int i = 0; i < components.length; i++) {
+            int bits = Float.floatToRawIntBits(components[i]);
+            changed |= values[offset + i] != bits;
+            values[offset + i] = bits;
+        }
+        known[index] = true;
+        return changed;
+    }
+
+    /**
+     * Vergisst alle Werte, sodass sie beim nächsten Mal wieder hochgeladen werden.
+     */
+    public void invalidate() {
+        Arrays.fill(known, false);
+    }
+
+    /**
+     * @return die Anzahl der Uniform Variablen.
+     */
+    public int size() {
+        return count;
+    }
+
+}
@@ -1,18 +1,28 @@
 package de.gabriel.engine.skybox;
 
+import de.gabriel.engine.converter.AssetManager;
 import de.gabriel.engine.converter.Loader;
 import de.gabriel.engine.entities.Camera;
 import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.profiler.Profiler;
+import de.gabriel.engine.renderer.FrameStatistics;
 import de.gabriel.engine.skybox.time.TimeCycle;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
-import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
-import org.lwjgl.opengl.GL20;
 import org.lwjgl.opengl.GL30;
 
+import java.util.concurrent.CompletableFuture;
+
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
+
 public class SkyboxRenderer {
 
+    /**
+     * Die Zone des Renderers im {@link Profiler}.
+     */
+    private static final int PROFILER_ZONE = Profiler.zone("SkyboxRenderer", true);
+
     /**
      * Die Größe der Skybox.
      */
@@ -76,10 +86,13 @@ public class SkyboxRenderer {
     private final Vector3f NIGHT_COLOR;
     private final Vector3f MORNING_COLOR;
 
-    public SkyboxRenderer(Loader loader, Matrix4f projectionMatrix, TimeCycle timeCycle) {
+    public SkyboxRenderer(Loader loader, AssetManager assets, Matrix4f projectionMatrix, TimeCycle timeCycle) {
+        // Die 12 Seiten der Cube Maps werden parallel dekodiert, während der Würfel hochgeladen wird
+        CompletableFuture<Integer> dayCubeMap = assets.loadCubeMap(TEXTURE_FILES);
+        CompletableFuture<Integer> nightCubeMap = assets.loadCubeMap(NIGHT_TEXTURE_FILES);
         cube = loader.loadToVAO(VERTICES, 3);
-        texture = loader.loadCubeMap(TEXTURE_FILES);
-        nightTexture = loader.loadCubeMap(NIGHT_TEXTURE_FILES);
+        texture = assets.await(dayCubeMap);
+        nightTexture = assets.await(nightCubeMap);
 
         MORNING_COLOR = new Vector3f(0.3f, 0.4f, 0.5f);
         NIGHT_COLOR = new Vector3f(0, 0, 0);
@@ -93,16 +106,19 @@ public class SkyboxRenderer {
     }
 
     public void render(Camera camera, float r, float g, float b) {
+        Profiler.begin(PROFILER_ZONE);
         shader.start();
         shader.loadViewMatrix(camera);
         shader.loadFogColor(r, g, b);
-        GL30.glBindVertexArray(cube.vaoID());
-        GL20.glEnableVertexAttribArray(0);
+        gl().bindVertexArray(cube.vaoID());
+        gl().enableVertexAttribArray(0);
         bindTextures();
-        GL30.glDrawArrays(GL30.GL_TRIANGLES, 0, cube.vertexCount());
-        GL20.glDisableVertexAttribArray(0);
-        GL30.glBindVertexArray(0);
+        gl().drawArrays(GL30.GL_TRIANGLES, 0, cube.vertexCount());
+        FrameStatistics.increment(FrameStatistics.Counter.DRAW_CALLS);
+        gl().disableVertexAttribArray(0);
+        gl().bindVertexArray(0);
         shader.stop();
+        Profiler.end(PROFILER_ZONE);
     }
 
     /**
@@ -117,10 +133,10 @@ public class SkyboxRenderer {
      * </p>
      */
     private void bindTextures() {
-        GL13.glActiveTexture(GL13.GL_TEXTURE0);
-        GL11.glBindTexture(GL13.GL_TEXTURE_CUBE_MAP, texture);
-        GL13.glActiveTexture(GL13.GL_TEXTURE1);
-        GL11.glBindTexture(GL13.GL_TEXTURE_CUBE_MAP, nightTexture);
+        gl().activeTexture(GL13.GL_TEXTURE0);
+        gl().bindTexture(GL13.GL_TEXTURE_CUBE_MAP, texture);
+        gl().activeTexture(GL13.GL_TEXTURE1);
+        gl().bindTexture(GL13.GL_TEXTURE_CUBE_MAP, nightTexture);
         shader.loadBlendFactor(timeCycle.getTime());
     }
 
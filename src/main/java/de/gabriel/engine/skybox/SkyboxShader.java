@@ -32,6 +32,11 @@ public class SkyboxShader extends ShaderProgram {
 
     private float rotation = 0;
 
+    /**
+     * Wiederverwendete View Matrix, damit beim Laden pro Frame keine neue Matrix erstellt wird.
+     */
+    private final Matrix4f viewMatrix = new Matrix4f();
+
     public SkyboxShader() {
         super(VERTEX_FILE, FRAGMENT_FILE);
     }
@@ -41,14 +46,14 @@ public class SkyboxShader extends ShaderProgram {
     }
 
     public void loadViewMatrix(Camera camera) {
-        Matrix4f matrix = Maths.createViewMatrix(camera);
+        Matrix4f matrix = Maths.createViewMatrix(camera, viewMatrix);
         // Translation auf 0 setzen
         matrix.m30(0);
         matrix.m31(0);
         matrix.m32(0);
         // Rotieren der Skybox
         rotation += ROTATION_SPEED * Main.getDeltaTime();
-        matrix.rotate((float) Math.toRadians(rotation), new Vector3f(0, 1, 0));
+        matrix.rotateY((float) Math.toRadians(rotation));
         super.loadMatrix(location_viewMatrix, matrix);
     }
 
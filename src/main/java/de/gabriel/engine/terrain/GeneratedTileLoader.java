@@ -0,0 +1,54 @@
+package de.gabriel.engine.terrain;
+
+import de.gabriel.engine.converter.AssetManager;
+import de.gabriel.engine.converter.Loader;
+import de.gabriel.engine.textures.TerrainTexture;
+import de.gabriel.engine.textures.TerrainTexturePack;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lädt die Kacheln einer {@link TerrainWorld} aus einer {@link HeightSource}. Generiert wird auf den
+ * Worker-Threads des {@link AssetManager}s, hochgeladen über seine Warteschlange auf dem Thread mit dem
+ * OpenGL-Context.
+ */
+public class GeneratedTileLoader implements TerrainTileLoader {
+
+    private final AssetManager assets;
+
+    private final Loader loader;
+
+    private final HeightSource heightSource;
+
+    private final TerrainTexturePack texturePack;
+
+    private final TerrainTexture blendMap;
+
+    /**
+     * @param assets       der Asset Manager, auf dessen Worker-Threads generiert wird.
+     * @param loader       der Loader, mit dem hochgeladen und freigegeben wird.
+     * @param heightSource liefert die Höhen der Kacheln.
+     * @param texturePack  die Texturen aller Kacheln.
+     * @param blendMap     die Blend Map aller Kacheln.
+     */
+    public GeneratedTileLoader(AssetManager assets, Loader loader, HeightSource heightSource,
+                               TerrainTexturePack texturePack, TerrainTexture blendMap) {
+        this.assets = assets;
+        this.loader = loader;
+        this.heightSource = heightSource;
+        this.texturePack = texturePack;
+        this.blendMap = blendMap;
+    }
+
+    @Override
+    public CompletableFuture<Terrain> load(int gridX, int gridZ) {
+        return assets.submit(() -> Terrain.generate(gridX, gridZ, heightSource),
+                data -> new Terrain(data, loader, texturePack, blendMap));
+    }
+
+    @Override
+    public void unload(Terrain terrain) {
+        loader.deleteVAO(terrain.getModel().vaoID());
+    }
+
+}
@@ -0,0 +1,200 @@
+package de.gabriel.engine.terrain;
+
+import de.gabriel.engine.utils.IntList;
+
+/**
+ * Die Index-Buffer der Detailstufen (Geomipmapping) eines quadratischen Chunks mit {@code chunkQuads × chunkQuads}
+ * Quadraten. Stufe {@code l} verwendet nur jeden {@code 2^l}-ten Vertex, die letzte Stufe besteht aus zwei Dreiecken.
+ * <p>
+ * Damit zwischen Chunks unterschiedlicher Stufen keine Risse entstehen, gibt es jede Stufe in 16 Varianten: Für
+ * jede Seite, deren Nachbar eine Stufe gröber ist ({@link #STITCH_NORTH} usw.), wird jeder zweite Vertex der Kante
+ * auf seinen Vorgänger entlang der Kante verschoben. Die Kante besteht dann aus genau den Segmenten des Nachbarn;
+ * dabei entartete Dreiecke fallen weg. Benachbarte Chunks dürfen sich daher um höchstens eine Stufe unterscheiden.
+ * </p>
+ * <p>
+ * Die Indices sind lokal zu einem Chunk mit {@code (chunkQuads + 1)²} Vertices (zeilenweise, Zeile = Z), sodass alle
+ * Chunks denselben Index-Buffer über einen Base Vertex verwenden. Die Klasse verwendet kein OpenGL.
+ * </p>
+ */
+public class GeoMipmap {
+
+    /**
+     * Die Kante mit Z = 0 ist an einen gröberen Nachbarn angepasst.
+     */
+    public static final int STITCH_NORTH = 1;
+
+    /**
+     * Die Kante mit X = chunkQuads ist an einen gröberen Nachbarn angepasst.
+     */
+    public static final int STITCH_EAST = 2;
+
+    /**
+     * Die Kante mit Z = chunkQuads ist an einen gröberen Nachbarn angepasst.
+     */
+    public static final int STITCH_SOUTH = 4;
+
+    /**
+     * Die Kante mit X = 0 ist an einen gröberen Nachbarn angepasst.
+     */
+    public static final int STITCH_WEST = 8;
+
+    /**
+     * Anzahl der Varianten pro Stufe (alle Kombinationen der vier Seiten).
+     */
+    public static final int VARIANTS = 16;
+
+    /**
+     * Die Anzahl der Quadrate pro Seite eines Chunks (eine Zweierpotenz).
+     */
+    private final int chunkQuads;
+
+    /**
+     * Die Anzahl der Vertices pro Seite eines Chunks.
+     */
+    private final int verticesPerSide;
+
+    /**
+     * Die Anzahl der Stufen.
+     */
+    private final int levelCount;
+
+    /**
+     * Die Indices aller Varianten hintereinander.
+     */
+    private final int[] indices;
+
+    /**
+     * Der Offset (in Indices) jeder Variante, Index {@code level * VARIANTS + stitchMask}.
+     */
+    private final int[] offsets;
+
+    /**
+     * Die Anzahl der Indices jeder Variante, Index {@code level * VARIANTS + stitchMask}.
+     */
+    private final int[] counts;
+
+    /**
+     * Erstellt die Index-Buffer aller Stufen und Varianten.
+     *
+     * @param chunkQuads die Anzahl der Quadrate pro Seite eines Chunks.
+     * @throws IllegalArgumentException wenn {@code chunkQuads} keine Zweierpotenz ist.
+     */
+    public GeoMipmap(int chunkQuads) {
+        if (chunkQuads < 1 || Integer.bitCount(chunkQuads) != 1) {
+            throw new IllegalArgumentException("Chunk size must be a power of two: " + chunkQuads);
+        }
+        this.chunkQuads = chunkQuads;
+        this.verticesPerSide = chunkQuads + 1;
+        this.levelCount = Integer.numberOfTrailingZeros(chunkQuads) + 1;
+        this.offsets = new int[levelCount * VARIANTS];
+        this.counts = new int[levelCount * VARIANTS];
+        IntList list = new IntList(chunkQuads * chunkQuads * 6 * VARIANTS * 2);
+        for (int level = 0; level < levelCount; level++) {
+            for (int mask = 0; mask < VARIANTS; mask++) {
+                offsets[level * VARIANTS + mask] = list.size();
+                emitLevel(list, level, mask);
+                counts[level * VARIANTS + mask] = list.size() - offsets[level * VARIANTS + mask];
+            }
+        }
+        this.indices = list.toArray();
+    }
+
+    /**
+     * Fügt die Dreiecke einer Variante an die Liste an. Die Dreiecke haben dieselbe Orientierung wie das
+     * ursprüngliche Terrain (oben links, unten links, oben rechts).
+     */
+    private void emitLevel(IntList list, int level, int mask) {
+        int step = 1 << level;
+        for (int z = 0; z < chunkQuads; z += step) {
+            for (int x = 0; x < chunkQuads; x += step) {
+                int topLeft = vertex(x, z, step, mask);
+                int topRight = vertex(x + step, z, step, mask);
+                int bottomLeft = vertex(x, z + step, step, mask);
+                int bottomRight = vertex(x + step, z + step, step, mask);
+                emitTriangle(list, topLeft, bottomLeft, topRight);
+                emitTriangle(list, topRight, bottomLeft, bottomRight);
+            }
+        }
+    }
+
+    /**
+     * Gibt den lokalen Index eines Vertex zurück. Liegt der Vertex auf einer angepassten Kante und nicht auf dem
+     * Raster der gröberen Stufe, wird er auf seinen Vorgänger entlang der Kante verschoben.
+     */
+    private int vertex(int x, int z, int step, int mask) {
+        int coarseStep = step * 2;
+        if ((z == 0 && (mask & STITCH_NORTH) != 0) || (z == chunkQuads && (mask & STITCH_SOUTH) != 0)) {
+            x -= x % coarseStep;
+        }
+        if ((x == 0 && (mask & STITCH_WEST) != 0) || (x == chunkQuads && (mask & STITCH_EAST) != 0)) {
+            z -= z % coarseStep;
+        }
+        return z * verticesPerSide + x;
+    }
+
+    /**
+     * Fügt ein Dreieck an, sofern es nicht durch das Verschieben eines Vertex entartet ist.
+     */
+    private static void emitTriangle(IntList list, int a, int b, int c) {
+        if (a == b || b == c || a == c) {
+            return;
+        }
+        list.add(a);
+        list.add(b);
+        list.add(c);
+    }
+
+    /**
+     * @return die Anzahl der Quadrate pro Seite eines Chunks.
+     */
+    public int getChunkQuads() {
+        return chunkQuads;
+    }
+
+    /**
+     * @return die Anzahl der Vertices pro Seite eines Chunks.
+     */
+    public int getVerticesPerSide() {
+        return verticesPerSide;
+    }
+
+    /**
+     * @return die Anzahl der Vertices eines Chunks, also der Abstand der Base Vertices zweier Chunks.
+     */
+    public int getVerticesPerChunk() {
+        return verticesPerSide * verticesPerSide;
+    }
+
+    /**
+     * @return die Anzahl der Stufen (Stufe 0 hat die volle Auflösung).
+     */
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    /**
+     * @return die Indices aller Varianten hintereinander (nicht kopiert).
+     */
+    public int[] getIndices() {
+        return indices;
+    }
+
+    /**
+     * @param level      die Stufe.
+     * @param stitchMask die angepassten Seiten ({@link #STITCH_NORTH} usw.).
+     * @return der Offset der Variante im Index-Buffer (in Indices).
+     */
+    public int getOffset(int level, int stitchMask) {
+        return offsets[level * VARIANTS + stitchMask];
+    }
+
+    /**
+     * @param level      die Stufe.
+     * @param stitchMask die angepassten Seiten ({@link #STITCH_NORTH} usw.).
+     * @return die Anzahl der Indices der Variante.
+     */
+    public int getCount(int level, int stitchMask) {
+        return counts[level * VARIANTS + stitchMask];
+    }
+
+}
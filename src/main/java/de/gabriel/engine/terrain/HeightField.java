@@ -0,0 +1,285 @@
+package de.gabriel.engine.terrain;
+
+import lombok.Getter;
+
+/**
+ * Die Höhen eines quadratischen Rasters von Vertices in einem flachen Array (zeilenweise, Zeile = Z), wahlweise
+ * als 32-Bit Floats oder auf 16 Bit quantisiert. Die quantisierte Form speichert jede Höhe als Anteil am Bereich
+ * zwischen der kleinsten und größten Höhe und braucht nur halb so viel Speicher; der Fehler beträgt höchstens
+ * {@link #getQuantizationError()}.
+ * <p>
+ * Abfragen zwischen den Vertices interpolieren auf denselben Dreiecken, mit denen das Terrain gerendert wird
+ * (oben links, unten links, oben rechts), und legen keine Objekte an. Für viele Punkte auf einmal (z.B. beim
+ * Verteilen von Vegetation) gibt es mit {@link #heightsAt(float[], float[], float[])} eine Abfrage über Arrays,
+ * deren Schleife ohne Verzweigung pro Punkt auskommt.
+ * </p>
+ */
+public class HeightField {
+
+    /**
+     * Der größte Wert eines vorzeichenlosen 16-Bit Integers.
+     */
+    private static final int QUANTIZATION_LEVELS = 0xFFFF;
+
+    /**
+     * Die Anzahl der Vertices pro Seite.
+     */
+    @Getter
+    private final int size;
+
+    /**
+     * Die X Position des ersten Vertex in Weltkoordinaten.
+     */
+    @Getter
+    private final float originX;
+
+    /**
+     * Die Z Position des ersten Vertex in Weltkoordinaten.
+     */
+    @Getter
+    private final float originZ;
+
+    /**
+     * Der Abstand zweier benachbarter Vertices.
+     */
+    @Getter
+    private final float cellSize;
+
+    /**
+     * Die Höhen als Floats, oder null, wenn sie quantisiert gespeichert sind.
+     */
+    private final float[] heights;
+
+    /**
+     * Die quantisierten Höhen (vorzeichenlos gelesen), oder null, wenn sie als Floats gespeichert sind.
+     */
+    private final short[] quantizedHeights;
+
+    /**
+     * Die Höhe, die dem quantisierten Wert 0 entspricht.
+     */
+    private final float minHeight;
+
+    /**
+     * Der Höhenunterschied zwischen zwei aufeinanderfolgenden quantisierten Werten.
+     */
+    private final float quantizationStep;
+
+    /**
+     * Erstellt ein Height Field mit Höhen als Floats.
+     *
+     * @param heights  die Höhen, zeilenweise ({@code heights[z * size + x]}); das Array wird nicht kopiert.
+     * @param size     die Anzahl der Vertices pro Seite.
+     * @param originX  die X Position des ersten Vertex in Weltkoordinaten.
+     * @param originZ  die Z Position des ersten Vertex in Weltkoordinaten.
+     * @param cellSize der Abstand zweier benachbarter Vertices.
+     * @throws IllegalArgumentException wenn die Anzahl der Höhen nicht zur Größe passt.
+     */
+    public HeightField(float[] heights, int size, float originX, float originZ, float cellSize) {
+        this(requireSize(heights, size), null, size, originX, originZ, cellSize, 0, 0);
+    }
+
+    private HeightField(float[] heights, short[] quantizedHeights, int size, float originX, float originZ,
+                        float cellSize, float minHeight, float quantizationStep) {
+        this.heights = heights;
+        this.quantizedHeights = quantizedHeights;
+        this.size = size;
+        this.originX = originX;
+        this.originZ = originZ;
+        this.cellSize = cellSize;
+        this.minHeight = minHeight;
+        this.quantizationStep = quantizationStep;
+    }
+
+    private static float[] requireSize(float[] heights, int size) {
+        if (size < 2 || heights.length != size * size) {
+            throw new IllegalArgumentException("Expected " + size + "x" + size + " heights but got " + heights.length);
+        }
+        return heights;
+    }
+
+    /**
+     * Erstellt eine auf 16 Bit quantisierte Kopie. Ist das Height Field bereits quantisiert, wird es selbst
+     * zurückgegeben.
+     *
+     * @return das quantisierte Height Field.
+     */
+    public HeightField quantize() {
+        if (isQuantized()) {
+            return this;
+        }
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (float height : heights) {
+            min = Math.min(min, height);
+            max = Math.max(max, height);
+        }
+        float step = max > min ? (max - min) / QUANTIZATION_LEVELS : 0;
+        float inverseStep = step > 0 ? 1 / step : 0;
+        short[] quantized = new short[heights.length];
+        for (int i = 0; i < heights.length; i++) {
+            quantized[i] = (short) Math.round((heights[i] - min) * inverseStep);
+        }
+        return new HeightField(null, quantized, size, originX, originZ, cellSize, min, step);
+    }
+
+    /**
+     * @return true, wenn die Höhen auf 16 Bit quantisiert gespeichert sind.
+     */
+    public boolean isQuantized() {
+        return quantizedHeights != null;
+    }
+
+    /**
+     * @return der größte Unterschied zwischen einer gespeicherten und der ursprünglichen Höhe (0 ohne Quantisierung).
+     */
+    public float getQuantizationError() {
+        return quantizationStep / 2;
+    }
+
+    /**
+     * @return der Speicher, den die Höhen belegen, in Bytes.
+     */
+    public long getMemoryBytes() {
+        return isQuantized() ? quantizedHeights.length * 2L : heights.length * 4L;
+    }
+
+    /**
+     * @return die Länge einer Seite in Weltkoordinaten.
+     */
+    public float getWorldSize() {
+        return (size - 1) * cellSize;
+    }
+
+    /**
+     * Gibt die Höhe eines Vertex zurück.
+     *
+     * @param x die X Position des Vertex im Raster.
+     * @param z die Z Position des Vertex im Raster.
+     * @return die Höhe des Vertex.
+     * @throws ArrayIndexOutOfBoundsException wenn der Vertex außerhalb des Rasters liegt.
+     */
+    public float getHeight(int x, int z) {
+        return height(z * size + x);
+    }
+
+    /**
+     * Gibt die Höhe an einer Position in Weltkoordinaten zurück.
+     *
+     * @param worldX die X Position.
+     * @param worldZ die Z Position.
+     * @return die interpolierte Höhe, oder 0 außerhalb des Height Fields.
+     */
+    public float heightAt(float worldX, float worldZ) {
+        float inverseCellSize = 1 / cellSize;
+        float gridX = (worldX - originX) * inverseCellSize;
+        float gridZ = (worldZ - originZ) * inverseCellSize;
+        int cellX = (int) Math.floor(gridX); // Quadrat, in dem sich der Punkt befindet
+        int cellZ = (int) Math.floor(gridZ);
+        if (cellX < 0 || cellZ < 0 || cellX >= size - 1 || cellZ >= size - 1) {
+            return 0;
+        }
+        int topLeft = cellZ * size + cellX;
+        return interpolate(height(topLeft), height(topLeft + 1), height(topLeft + size), height(topLeft + size + 1),
+                gridX - cellX, gridZ - cellZ);
+    }
+
+    /**
+     * Gibt die Höhen an vielen Positionen auf einmal zurück. Die Schleife verarbeitet die Punkte unabhängig
+     * voneinander und ohne Verzweigung pro Punkt (Punkte außerhalb werden auf den Rand geklemmt und danach auf 0
+     * gesetzt), sodass sie sich später direkt auf Vektorbefehle übertragen lässt.
+     *
+     * @param xs  die X Positionen in Weltkoordinaten.
+     * @param zs  die Z Positionen in Weltkoordinaten.
+     * @param out das Array, in das die Höhen geschrieben werden (0 außerhalb des Height Fields).
+     * @throws IllegalArgumentException wenn die Arrays unterschiedlich lang sind.
+     */
+    public void heightsAt(float[] xs, float[] zs, float[] out) {
+        if (xs.length != zs.length || xs.length != out.length) {
+            throw new IllegalArgumentException("Expected arrays of equal length but got " + xs.length + ", "
+                    + zs.length + " and " + out.length);
+        }
+        if (isQuantized()) {
+            heightsAtQuantized(xs, zs, out);
+        } else {
+            heightsAtFloat(xs, zs, out);
+        }
+    }
+
+    private void heightsAtFloat(float[] xs, float[] zs, float[] out) {
+        float inverseCellSize = 1 / cellSize;
+        int maxCell = size - 2;
+        for (int i = 0; i < xs.length; i++) {
+            float gridX = (xs[i] - originX) * inverseCellSize;
+            float gridZ = (zs[i] - originZ) * inverseCellSize;
+            int floorX = floor(gridX);
+            int floorZ = floor(gridZ);
+            int cellX = Math.min(Math.max(floorX, 0), maxCell);
+            int cellZ = Math.min(Math.max(floorZ, 0), maxCell);
+            int topLeft = cellZ * size + cellX;
+            float height = interpolateBranchless(heights[topLeft], heights[topLeft + 1], heights[topLeft + size],
+                    heights[topLeft + size + 1], gridX - floorX, gridZ - floorZ);
+            out[i] = floorX == cellX && floorZ == cellZ ? height : 0;
+        }
+    }
+
+    private void heightsAtQuantized(float[] xs, float[] zs, float[] out) {
+        float inverseCellSize = 1 / cellSize;
+        int maxCell = size - 2;
+        for (int i = 0; i < xs.length; i++) {
+            float gridX = (xs[i] - originX) * inverseCellSize;
+            float gridZ = (zs[i] - originZ) * inverseCellSize;
+            int floorX = floor(gridX);
+            int floorZ = floor(gridZ);
+            int cellX = Math.min(Math.max(floorX, 0), maxCell);
+            int cellZ = Math.min(Math.max(floorZ, 0), maxCell);
+            int topLeft = cellZ * size + cellX;
+            // Die Interpolation ist linear; die Umrechnung der quantisierten Werte erfolgt daher erst am Ende
+            float quantized = interpolateBranchless(quantizedHeights[topLeft] & 0xFFFF,
+                    quantizedHeights[topLeft + 1] & 0xFFFF, quantizedHeights[topLeft + size] & 0xFFFF,
+                    quantizedHeights[topLeft + size + 1] & 0xFFFF, gridX - floorX, gridZ - floorZ);
+            out[i] = floorX == cellX && floorZ == cellZ ? minHeight + quantized * quantizationStep : 0;
+        }
+    }
+
+    /**
+     * Rundet ab, ohne wie {@link Math#floor(double)} über einen Double zu gehen.
+     */
+    private static int floor(float value) {
+        int truncated = (int) value;
+        return value < truncated ? truncated - 1 : truncated;
+    }
+
+    /**
+     * Interpoliert die Höhe innerhalb eines Quadrats auf dem Dreieck, in dem der Punkt liegt. Das Quadrat ist wie
+     * beim Rendern in die Dreiecke (oben links, unten links, oben rechts) und (oben rechts, unten links, unten rechts)
+     * geteilt.
+     *
+     * @param u die X Position innerhalb des Quadrats (0 bis 1).
+     * @param v die Z Position innerhalb des Quadrats (0 bis 1).
+     */
+    private static float interpolate(float topLeft, float topRight, float bottomLeft, float bottomRight,
+                                     float u, float v) {
+        return u <= 1 - v
+                ? topLeft + u * (topRight - topLeft) + v * (bottomLeft - topLeft)
+                : bottomRight + (1 - u) * (bottomLeft - bottomRight) + (1 - v) * (topRight - bottomRight);
+    }
+
+    /**
+     * Wie {@link #interpolate}, berechnet aber beide Dreiecke und wählt danach, sodass keine Verzweigung entsteht.
+     */
+    private static float interpolateBranchless(float topLeft, float topRight, float bottomLeft, float bottomRight,
+                                               float u, float v) {
+        float upperLeft = topLeft + u * (topRight - topLeft) + v * (bottomLeft - topLeft);
+        float lowerRight = bottomRight + (1 - u) * (bottomLeft - bottomRight) + (1 - v) * (topRight - bottomRight);
+        return u <= 1 - v ? upperLeft : lowerRight;
+    }
+
+    /**
+     * Die Höhe an einem Index des Arrays.
+     */
+    private float height(int index) {
+        return quantizedHeights != null ? minHeight + (quantizedHeights[index] & 0xFFFF) * quantizationStep : heights[index];
+    }
+
+}
@@ -0,0 +1,67 @@
+package de.gabriel.engine.terrain;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+/**
+ * Liefert die Höhen aus einer einzigen Height Map, die sich über alle Kacheln wiederholt.
+ * <p>
+ * Damit die Kanten benachbarter Kacheln zusammenpassen, wird die Height Map für jede zweite Spalte bzw. Zeile von
+ * Kacheln gespiegelt: Zwei benachbarte Kacheln haben an ihrer gemeinsamen Kante dann dieselben Höhen. Die Kachel
+ * (-1, -1) verwendet die Height Map ungespiegelt. Die vier Varianten werden einmalig beim Erstellen angelegt und
+ * danach nur noch gelesen.
+ * </p>
+ */
+public class HeightMapSource implements HeightSource {
+
+    /**
+     * Die Height Map in allen vier Spiegelungen, Index {@code (mirrorZ ? 2 : 0) + (mirrorX ? 1 : 0)}.
+     */
+    private final BufferedImage[] heightMaps = new BufferedImage[4];
+
+    /**
+     * @param heightMapFileName der Name der Height Map in den Ressourcen.
+     */
+    public HeightMapSource(String heightMapFileName) {
+        this(Terrain.readHeightMap(heightMapFileName));
+    }
+
+    /**
+     * @param heightMap die Height Map.
+     */
+    public HeightMapSource(BufferedImage heightMap) {
+        for (int i = 0; i < heightMaps.length; i++) {
+            heightMaps[i] = mirror(heightMap, (i & 1) != 0, (i & 2) != 0);
+        }
+    }
+
+    @Override
+    public HeightField generate(int gridX, int gridZ) {
+        // Ungerade Kacheln (wie die Kachel -1) bleiben ungespiegelt
+        BufferedImage heightMap = heightMaps[((gridZ & 1) == 0 ? 2 : 0) + ((gridX & 1) == 0 ? 1 : 0)];
+        return Terrain.decodeHeights(heightMap, gridX * Terrain.SIZE, gridZ * Terrain.SIZE);
+    }
+
+    /**
+     * Erstellt eine gespiegelte Kopie eines Bildes mit demselben Color Model.
+     */
+    private static BufferedImage mirror(BufferedImage image, boolean mirrorX, boolean mirrorZ) {
+        if (!mirrorX && !mirrorZ) {
+            return image;
+        }
+        Raster source = image.getRaster();
+        WritableRaster target = source.createCompatibleWritableRaster();
+        int width = source.getWidth();
+        int height = source.getHeight();
+        Object pixel = null;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                pixel = source.getDataElements(x, y, pixel);
+                target.setDataElements(mirrorX ? width - 1 - x : x, mirrorZ ? height - 1 - y : y, pixel);
+            }
+        }
+        return new BufferedImage(image.getColorModel(), target, image.isAlphaPremultiplied(), null);
+    }
+
+}
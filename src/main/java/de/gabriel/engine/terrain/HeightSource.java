@@ -0,0 +1,24 @@
+package de.gabriel.engine.terrain;
+
+/**
+ * Liefert die Höhen der Kacheln, aus denen {@link Terrain#generate(int, int, HeightSource)} ein Terrain generiert.
+ * Das Ergebnis muss nur von der Position der Kachel abhängen, und da Kacheln parallel auf Worker-Threads
+ * generiert werden, muss eine Implementierung von mehreren Threads gleichzeitig verwendet werden können.
+ *
+ * @see HeightMapSource
+ * @see NoiseHeightSource
+ */
+@FunctionalInterface
+public interface HeightSource {
+
+    /**
+     * Erzeugt die Höhen einer Kachel. Das Height Field beginnt bei {@code (gridX · SIZE, gridZ · SIZE)}, deckt
+     * {@link Terrain#SIZE} ab und hat pro Seite ein Vielfaches der Chunk-Größe plus 1 Vertices.
+     *
+     * @param gridX die X Position der Kachel im Raster der Terrains.
+     * @param gridZ die Z Position der Kachel im Raster der Terrains.
+     * @return die Höhe jedes Vertex (als Floats).
+     */
+    HeightField generate(int gridX, int gridZ);
+
+}
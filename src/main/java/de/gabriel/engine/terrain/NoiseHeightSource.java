@@ -0,0 +1,251 @@
+package de.gabriel.engine.terrain;
+
+import lombok.Getter;
+
+import java.io.Serial;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Liefert die Höhen aus fraktalem Gradient Noise mit Domain Warping, sodass sich beliebig viele Kacheln ohne
+ * Height Maps generieren lassen.
+ * <p>
+ * Die Höhe an einer Position ist die Summe mehrerer Oktaven Gradient Noise (jede mit doppelter Frequenz und halber
+ * Amplitude der vorherigen). Vorher wird die Position um zwei weitere, gröbere Noise-Summen verschoben (Domain
+ * Warping), wodurch gewundene Täler und Grate statt gleichmäßiger Hügel entstehen. Die Gradienten der Gitterpunkte
+ * werden aus Seed und Position gehasht statt aus einer Permutationstabelle gelesen; das Muster wiederholt sich
+ * daher nicht nach 256 Gitterzellen.
+ * </p>
+ * <p>
+ * Jede Höhe hängt nur von Seed und Position ab. Die Zeilen einer Kachel werden mit Fork/Join parallel berechnet,
+ * und das Ergebnis ist unabhängig von der Anzahl der Threads bitgenau gleich. Benachbarte Kacheln berechnen ihre
+ * gemeinsame Kante an denselben Positionen und passen daher ohne Spiegeln zusammen.
+ * </p>
+ */
+public class NoiseHeightSource implements HeightSource {
+
+    /**
+     * Die Anzahl der Zeilen, ab der eine Aufgabe nicht weiter geteilt wird.
+     */
+    private static final int ROWS_PER_TASK = 8;
+
+    /**
+     * Die Oktaven der Noise-Summen, um die beim Domain Warping verschoben wird.
+     */
+    private static final int WARP_OCTAVES = 3;
+
+    /**
+     * Die X und Z Komponenten der 8 Gradienten (Achsen und Diagonalen, alle mit Länge 1).
+     */
+    private static final double[] GRADIENT_X = {1, -1, 0, 0, 0.70710678, -0.70710678, 0.70710678, -0.70710678};
+    private static final double[] GRADIENT_Z = {0, 0, 1, -1, 0.70710678, 0.70710678, -0.70710678, -0.70710678};
+
+    /**
+     * Der Faktor, der den Wertebereich von 2D Gradient Noise mit Gradienten der Länge 1 (±√0.5) auf ±1 bringt.
+     */
+    private static final double NOISE_SCALE = Math.sqrt(2);
+
+    /**
+     * Der Seed; gleiche Seeds ergeben gleiche Terrains.
+     */
+    @Getter
+    private final long seed;
+
+    /**
+     * Die Anzahl der Quadrate pro Seite einer Kachel (ein Vielfaches der Chunk-Größe).
+     */
+    @Getter
+    private final int quads;
+
+    /**
+     * Die Anzahl der Oktaven der Höhe.
+     */
+    @Getter
+    private final int octaves;
+
+    /**
+     * Die Wellenlänge der gröbsten Oktave in Weltkoordinaten.
+     */
+    @Getter
+    private final float wavelength;
+
+    /**
+     * Die größtmögliche Höhe (bzw. Tiefe).
+     */
+    @Getter
+    private final float amplitude;
+
+    /**
+     * Wie weit eine Position beim Domain Warping höchstens verschoben wird, in Weltkoordinaten.
+     */
+    @Getter
+    private final float warpStrength;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Erstellt eine Quelle mit derselben Auflösung und Höhe wie die Height Map der Szene.
+     *
+     * @param seed der Seed.
+     */
+    public NoiseHeightSource(long seed) {
+        this(seed, 256, 6, 600, Terrain.MAX_HEIGHT, 150, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param seed         der Seed.
+     * @param quads        die Anzahl der Quadrate pro Seite einer Kachel (ein Vielfaches der Chunk-Größe).
+     * @param octaves      die Anzahl der Oktaven der Höhe.
+     * @param wavelength   die Wellenlänge der gröbsten Oktave in Weltkoordinaten.
+     * @param amplitude    die größtmögliche Höhe (bzw. Tiefe).
+     * @param warpStrength wie weit eine Position beim Domain Warping höchstens verschoben wird (0 schaltet es ab).
+     * @param pool         der Pool, auf dem die Zeilen einer Kachel parallel berechnet werden.
+     * @throws IllegalArgumentException wenn eine Anzahl oder die Wellenlänge nicht positiv ist.
+     */
+    public NoiseHeightSource(long seed, int quads, int octaves, float wavelength, float amplitude, float warpStrength,
+                             ForkJoinPool pool) {
+        if (quads < 1 || octaves < 1 || wavelength <= 0) {
+            throw new IllegalArgumentException("Invalid noise: quads=" + quads + ", octaves=" + octaves
+                    + ", wavelength=" + wavelength);
+        }
+        this.seed = seed;
+        this.quads = quads;
+        this.octaves = octaves;
+        this.wavelength = wavelength;
+        this.amplitude = amplitude;
+        this.warpStrength = warpStrength;
+        this.pool = pool;
+    }
+
+    @Override
+    public HeightField generate(int gridX, int gridZ) {
+        int size = quads + 1;
+        float[] heights = new float[size * size];
+        pool.invoke(new RowTask(heights, gridX, gridZ, 0, size));
+        return new HeightField(heights, size, gridX * Terrain.SIZE, gridZ * Terrain.SIZE, Terrain.SIZE / quads);
+    }
+
+    /**
+     * Berechnet einen Bereich von Zeilen einer Kachel; größere Bereiche werden halbiert und parallel berechnet.
+     */
+    private final class RowTask extends RecursiveAction {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final float[] heights;
+
+        private final int gridX, gridZ;
+
+        private final int fromRow, toRow;
+
+        private RowTask(float[] heights, int gridX, int gridZ, int fromRow, int toRow) {
+            this.heights = heights;
+            this.gridX = gridX;
+            this.gridZ = gridZ;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow > ROWS_PER_TASK) {
+                int middle = (fromRow + toRow) >>> 1;
+                invokeAll(new RowTask(heights, gridX, gridZ, fromRow, middle),
+                        new RowTask(heights, gridX, gridZ, middle, toRow));
+                return;
+            }
+            int size = quads + 1;
+            for (int row = fromRow; row < toRow; row++) {
+                // Erst multiplizieren, dann teilen: die letzte Zeile liegt so exakt auf der ersten der Nachbarkachel
+                double worldZ = (double) gridZ * Terrain.SIZE + (double) row * Terrain.SIZE / quads;
+                for (int column = 0; column < size; column++) {
+                    double worldX = (double) gridX * Terrain.SIZE + (double) column * Terrain.SIZE / quads;
+                    heights[row * size + column] = heightAt(worldX, worldZ);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Berechnet die Höhe an einer Position. Hängt nur von Seed und Position ab.
+     *
+     * @param worldX die X Position in Weltkoordinaten.
+     * @param worldZ die Z Position in Weltkoordinaten.
+     * @return die Höhe.
+     */
+    public float heightAt(double worldX, double worldZ) {
+        double x = worldX / wavelength;
+        double z = worldZ / wavelength;
+        double warp = warpStrength / wavelength;
+        // Die Verschiebung in X und Z verwendet eigene Seeds, damit sie nicht mit der Höhe korreliert
+        double warpX = warp * fractalNoise(seed + 1, x, z, WARP_OCTAVES);
+        double warpZ = warp * fractalNoise(seed + 2, x, z, WARP_OCTAVES);
+        return (float) (amplitude * fractalNoise(seed, x + warpX, z + warpZ, octaves));
+    }
+
+    /**
+     * Summiert Oktaven Gradient Noise mit jeweils doppelter Frequenz und halber Amplitude.
+     *
+     * @return die Summe, normiert auf ±1.
+     */
+    private static double fractalNoise(long seed, double x, double z, int octaves) {
+        double sum = 0;
+        double amplitude = 1;
+        double totalAmplitude = 0;
+        for (int octave = 0; octave < octaves; octave++) {
+            // Jede Oktave mit eigenem Seed, damit die Gitterpunkte aller Oktaven im Ursprung nicht zusammenfallen
+            sum += amplitude * noise(seed + octave * 0x9E3779B97F4A7C15L, x, z);
+            totalAmplitude += amplitude;
+            x *= 2;
+            z *= 2;
+            amplitude *= 0.5;
+        }
+        return sum / totalAmplitude;
+    }
+
+    /**
+     * 2D Gradient Noise: interpoliert die Skalarprodukte der Gradienten der vier umliegenden Gitterpunkte mit dem
+     * Abstand zum Punkt.
+     *
+     * @return der Wert zwischen -1 und 1; 0 auf allen Gitterpunkten.
+     */
+    private static double noise(long seed, double x, double z) {
+        double floorX = Math.floor(x);
+        double floorZ = Math.floor(z);
+        long cellX = (long) floorX;
+        long cellZ = (long) floorZ;
+        double fx = x - floorX;
+        double fz = z - floorZ;
+        double n00 = gradient(seed, cellX, cellZ, fx, fz);
+        double n10 = gradient(seed, cellX + 1, cellZ, fx - 1, fz);
+        double n01 = gradient(seed, cellX, cellZ + 1, fx, fz - 1);
+        double n11 = gradient(seed, cellX + 1, cellZ + 1, fx - 1, fz - 1);
+        double u = fade(fx);
+        double v = fade(fz);
+        double top = n00 + u * (n10 - n00);
+        double bottom = n01 + u * (n11 - n01);
+        return NOISE_SCALE * (top + v * (bottom - top));
+    }
+
+    /**
+     * Das Skalarprodukt des gehashten Gradienten eines Gitterpunktes mit dem Abstand zum Punkt.
+     */
+    private static double gradient(long seed, long cellX, long cellZ, double dx, double dz) {
+        long hash = seed ^ cellX * 0xC2B2AE3D27D4EB4FL ^ cellZ * 0x165667B19E3779F9L;
+        // Finalizer von SplitMix64, damit benachbarte Gitterpunkte unkorrelierte Gradienten bekommen
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        int index = (int) (hash >>> 61);
+        return GRADIENT_X[index] * dx + GRADIENT_Z[index] * dz;
+    }
+
+    /**
+     * Die Überblendkurve {@code 6t⁵ - 15t⁴ + 10t³}, deren erste und zweite Ableitung an den Gitterpunkten 0 ist.
+     */
+    private static double fade(double t) {
+        return t * t * t * (t * (t * 6 - 15) + 10);
+    }
+
+}
@@ -2,38 +2,62 @@ package de.gabriel.engine.terrain;
 
 
 import de.gabriel.engine.converter.Loader;
+import de.gabriel.engine.converter.obj.ModelData;
+import de.gabriel.engine.converter.vertex.PackedMesh;
+import de.gabriel.engine.converter.vertex.VertexLayout;
+import de.gabriel.engine.converter.vertex.VertexPacker;
+import de.gabriel.engine.converter.vertex.VertexStream;
 import de.gabriel.engine.models.RawModel;
 import de.gabriel.engine.textures.TerrainTexture;
 import de.gabriel.engine.textures.TerrainTexturePack;
-import de.gabriel.engine.utils.Maths;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.joml.Vector2f;
-import org.joml.Vector3f;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
 import java.io.File;
 import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.stream.IntStream;
 
 import static de.gabriel.engine.Main.RESOURCES_PATH;
 
 /**
- * Repräsentiert ein Terrain in der Szene.
+ * Repräsentiert ein Terrain in der Szene. Die Daten eines Terrains werden mit
+ * {@link #generate(int, int, HeightSource)} ohne OpenGL generiert (z.B. auf einem Worker-Thread) und danach mit
+ * {@link #Terrain(TerrainData, Loader, TerrainTexturePack, TerrainTexture)} hochgeladen.
  */
 @Getter
 @Slf4j
-public class Terrain {
+public class Terrain implements TerrainHeights {
 
     /**
-     * Größe des Terrains.
+     * Größe des Terrains, also die Länge einer Seite einer Kachel der {@link TerrainWorld}.
      */
-    private static final float SIZE = 800;
+    public static final float SIZE = 800;
 
     /**
-     * Die maximale Höhe des Terrains als Angabe für die Height Map.
+     * Die Anzahl der Quadrate pro Seite eines Chunks.
      */
-    private static final int MAX_HEIGHT = 40;
+    private static final int CHUNK_QUADS = 32;
+
+    /**
+     * Die Index-Buffer der Detailstufen eines Chunks, die alle Terrains gemeinsam verwenden.
+     */
+    private static final GeoMipmap GEO_MIPMAP = new GeoMipmap(CHUNK_QUADS);
+
+    /**
+     * Die Anzahl der Zeilen bzw. Spalten, die beim Generieren als ein Band parallel verarbeitet werden.
+     */
+    private static final int BAND_SIZE = 64;
+
+    /**
+     * Die maximale Höhe des Terrains als Angabe für die Height Map (und Standard-Amplitude für Noise).
+     */
+    public static final int MAX_HEIGHT = 40;
 
     /**
      * Die maximale Farbe eines Pixels auf der Height Map.
@@ -67,27 +91,86 @@ public class Terrain {
     private final TerrainTexture blendMap;
 
     /**
-     * Eine Tabelle mit der Höhe jeder Vertex.
+     * Die Höhe jeder Vertex, auf 16 Bit quantisiert. Wird für Abfragen der Höhe verwendet.
+     */
+    private final HeightField heightField;
+
+    /**
+     * Die Chunks des Terrains, die einzeln gecullt und mit eigener Detailstufe gerendert werden.
+     */
+    private final TerrainChunkGrid chunkGrid;
+
+    /**
+     * Der Speicher, den das Terrain belegt: die hochgeladenen Vertices und Indices sowie das Height Field.
      */
-    private float[][] heights;
+    private final long memoryBytes;
 
     public Terrain(int gridX, int gridZ, Loader loader, TerrainTexturePack texturePack, TerrainTexture blendMap, String heightMapFileName) {
+        this(generate(gridX, gridZ, (tileX, tileZ) -> decodeHeights(readHeightMap(heightMapFileName), tileX * SIZE, tileZ * SIZE)),
+                loader, texturePack, blendMap);
+    }
+
+    /**
+     * Lädt ein generiertes Terrain hoch. Muss auf dem Thread mit dem OpenGL-Context aufgerufen werden.
+     *
+     * @param data        die mit {@link #generate(int, int, HeightSource)} generierten Daten.
+     * @param loader      der Loader, mit dem die Vertices hochgeladen werden.
+     * @param texturePack die Texturen des Terrains.
+     * @param blendMap    die Blend Map des Terrains.
+     */
+    public Terrain(TerrainData data, Loader loader, TerrainTexturePack texturePack, TerrainTexture blendMap) {
+        this(data, loader.loadToVAO(data.mesh()), texturePack, blendMap);
+    }
+
+    /**
+     * Erstellt ein Terrain aus generierten Daten und einem bereits hochgeladenen Modell.
+     *
+     * @param data        die mit {@link #generate(int, int, HeightSource)} generierten Daten.
+     * @param model       das Modell mit den Vertices aus {@link TerrainData#mesh()}.
+     * @param texturePack die Texturen des Terrains.
+     * @param blendMap    die Blend Map des Terrains.
+     */
+    public Terrain(TerrainData data, RawModel model, TerrainTexturePack texturePack, TerrainTexture blendMap) {
+        this.x = data.gridX() * SIZE;
+        this.z = data.gridZ() * SIZE;
+        this.model = model;
         this.texturePack = texturePack;
         this.blendMap = blendMap;
-        this.x = gridX * SIZE;
-        this.z = gridZ * SIZE;
-        this.model = generateTerrain(loader, heightMapFileName);
+        this.heightField = data.heightField();
+        this.chunkGrid = data.chunkGrid();
+        this.memoryBytes = data.mesh().bytes() + heightField.getMemoryBytes();
     }
 
     /**
-     * Generiert ein Terrain Modell.
+     * Generiert die Daten eines Terrains, ohne OpenGL zu verwenden. Die Vertices werden bereits in ihr
+     * Vertex-Layout gepackt, sodass auf dem Thread mit dem OpenGL-Context nur noch das Hochladen bleibt.
      *
-     * @param loader            der Loader der final verwendet wird, um ein Modell zu laden.
-     * @param heightMapFileName der Name der Height Map, die verwendet werden soll.
-     * @return das generierte Terrain Modell.
+     * @param gridX        die X Position des Terrains im Raster der Terrains.
+     * @param gridZ        die Z Position des Terrains im Raster der Terrains.
+     * @param heightSource liefert die Höhen des Terrains (z.B. aus einer Height Map oder aus Noise).
+     * @return die Daten des Terrains.
+     * @throws IllegalArgumentException wenn sich die Höhen nicht in ganze Chunks teilen lassen.
      */
-    private RawModel generateTerrain(Loader loader, String heightMapFileName) {
+    public static TerrainData generate(int gridX, int gridZ, HeightSource heightSource) {
+        long start = System.nanoTime();
+        // Generiert wird aus den Floats; für Abfragen wird nur die halb so große quantisierte Kopie behalten
+        HeightField heights = heightSource.generate(gridX, gridZ);
+        TerrainChunkGrid chunkGrid = new TerrainChunkGrid(heights, GEO_MIPMAP);
+        ModelData mesh = generateMesh(heights, chunkGrid);
+        PackedMesh packed = packTerrain(mesh);
+        log.info("Generated terrain; {[GridX={}], [GridZ={}], [VertexCount={}], [Chunks={}], [ChunkQuads={}], [LodLevels={}], [IndicesLength={}], [Millis={}]}",
+                gridX, gridZ, mesh.vertices().length / 3, chunkGrid.getChunkCount(), CHUNK_QUADS,
+                GEO_MIPMAP.getLevelCount(), mesh.indices().length, (System.nanoTime() - start) / 1e6);
+        return new TerrainData(gridX, gridZ, heights.quantize(), chunkGrid, packed);
+    }
 
+    /**
+     * Lädt die Height Map aus den Ressourcen.
+     *
+     * @param heightMapFileName der Name der Height Map, die verwendet werden soll.
+     * @return die Height Map.
+     */
+    public static BufferedImage readHeightMap(String heightMapFileName) {
         BufferedImage image = null;
         try {
             String absolutePath = RESOURCES_PATH + "textures/" + heightMapFileName + ".png";
@@ -97,115 +180,229 @@ public class Terrain {
         } catch (IOException e) {
             e.printStackTrace();
         }
-        int VERTEX_COUNT = image.getHeight(); // Vertices einer Reihe entsprechen der Höhe der Height Map (in Pixeln)
+        return image;
+    }
+
+    /**
+     * Dekodiert eine Height Map einmalig in ein Array primitiver Höhen und tastet sie auf ein Raster ab, das sich in
+     * ganze Chunks teilen lässt. Hat die Height Map bereits {@code n · CHUNK_QUADS + 1} Pixel pro Seite, entspricht
+     * jeder Vertex genau einem Pixel; sonst wird zwischen den Pixeln bilinear interpoliert. Beide Schritte laufen
+     * parallel über Bänder von Zeilen.
+     *
+     * @param image die Height Map.
+     * @param x     die X Position des Terrains.
+     * @param z     die Z Position des Terrains.
+     * @return die Höhe jedes Vertex (als Floats).
+     */
+    public static HeightField decodeHeights(BufferedImage image, float x, float z) {
+        int imageSize = image.getHeight();
+        float[] pixels = new float[imageSize * imageSize];
+        boolean rasterReadable = isRgb8(image.getColorModel());
+        IntStream.range(0, bandCount(imageSize)).parallel().forEach(band -> {
+            int[] samples = new int[imageSize * image.getRaster().getNumBands()];
+            int[] rgb = new int[imageSize];
+            for (int row = band * BAND_SIZE; row < Math.min((band + 1) * BAND_SIZE, imageSize); row++) {
+                if (rasterReadable) {
+                    decodeRgb8Row(image, row, samples, rgb);
+                } else {
+                    image.getRGB(0, row, imageSize, 1, rgb, 0, imageSize);
+                }
+                for (int column = 0; column < imageSize; column++) {
+                    pixels[row * imageSize + column] = toHeight(rgb[column]);
+                }
+            }
+        });
+
+        int quads = (imageSize - 2 + CHUNK_QUADS) / CHUNK_QUADS * CHUNK_QUADS; // Auf ganze Chunks aufrunden
+        int vertexCount = quads + 1;
+        float scale = (float) (imageSize - 1) / quads; // Pixel pro Vertex
+        float[] heights = new float[vertexCount * vertexCount];
+        IntStream.range(0, bandCount(vertexCount)).parallel().forEach(band -> {
+            for (int i = band * BAND_SIZE; i < Math.min((band + 1) * BAND_SIZE, vertexCount); i++) {
+                for (int j = 0; j < vertexCount; j++) {
+                    heights[i * vertexCount + j] = sampleHeight(pixels, imageSize, j * scale, i * scale);
+                }
+            }
+        });
+        return new HeightField(heights, vertexCount, x, z, SIZE / quads);
+    }
+
+    /**
+     * Anzahl der Bänder aus {@link #BAND_SIZE} Zeilen, in die eine Seite zerlegt wird.
+     */
+    private static int bandCount(int size) {
+        return (size + BAND_SIZE - 1) / BAND_SIZE;
+    }
+
+    /**
+     * Prüft, ob die Farbe eines Pixels direkt aus den 8-Bit RGB(A) Samples des Rasters gelesen werden kann, ohne
+     * dass sich das Ergebnis von {@link BufferedImage#getRGB(int, int)} unterscheidet.
+     */
+    private static boolean isRgb8(ColorModel colorModel) {
+        if (colorModel instanceof IndexColorModel || !colorModel.getColorSpace().isCS_sRGB()
+                || colorModel.getNumColorComponents() != 3 || colorModel.isAlphaPremultiplied()) {
+            return false;
+        }
+        for (int component = 0; component < colorModel.getNumComponents(); component++) {
+            if (colorModel.getComponentSize(component) != 8) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        heights = new float[VERTEX_COUNT][VERTEX_COUNT];
+    /**
+     * Liest eine Zeile einer Height Map mit 8-Bit RGB(A) Samples als ARGB, wie {@link BufferedImage#getRGB}.
+     */
+    private static void decodeRgb8Row(BufferedImage image, int row, int[] samples, int[] rgb) {
+        Raster raster = image.getRaster();
+        int bands = raster.getNumBands();
+        raster.getPixels(0, row, rgb.length, 1, samples);
+        for (int column = 0, sample = 0; column < rgb.length; column++, sample += bands) {
+            int alpha = bands > 3 ? samples[sample + 3] : 0xFF;
+            rgb[column] = alpha << 24 | samples[sample] << 16 | samples[sample + 1] << 8 | samples[sample + 2];
+        }
+    }
 
-        int count = VERTEX_COUNT * VERTEX_COUNT;
+    /**
+     * Generiert die Vertices des Terrains. Die Vertices werden Chunk für Chunk abgelegt (die Kanten benachbarter
+     * Chunks doppelt), sodass alle Chunks den Index-Buffer des {@link GeoMipmap}s mit ihrem Base Vertex verwenden.
+     * Jede Zeile von Chunks wird parallel direkt in die Arrays geschrieben.
+     *
+     * @param heightField die Höhe jedes Vertex.
+     * @param chunkGrid   die Chunks des Terrains.
+     * @return die Daten des Terrains; die Indices sind die des {@link GeoMipmap}s (lokal zu einem Chunk).
+     */
+    public static ModelData generateMesh(HeightField heightField, TerrainChunkGrid chunkGrid) {
+        int VERTEX_COUNT = heightField.getSize();
+        GeoMipmap geoMipmap = chunkGrid.getGeoMipmap();
+        int chunkQuads = geoMipmap.getChunkQuads();
+        int verticesPerSide = geoMipmap.getVerticesPerSide();
+        int chunksPerSide = chunkGrid.getChunksPerSide();
+        int verticesPerChunkRow = chunksPerSide * geoMipmap.getVerticesPerChunk();
+        int count = chunkGrid.getChunkCount() * geoMipmap.getVerticesPerChunk();
         float[] vertices = new float[count * 3];
         float[] normals = new float[count * 3];
         float[] textureCoords = new float[count * 2];
-        int[] indices = new int[6 * (VERTEX_COUNT - 1) * (VERTEX_COUNT - 1)];
-        int vertexPointer = 0;
-        for (int i = 0; i < VERTEX_COUNT; i++) {
-            for (int j = 0; j < VERTEX_COUNT; j++) {
-                vertices[vertexPointer * 3] = (float) j / ((float) VERTEX_COUNT - 1) * SIZE;
-                float height = getHeight(j, i, image); // Höhe des Punktes mithilfe der Height Map bestimmen
-                heights[j][i] = height;
-                vertices[vertexPointer * 3 + 1] = height;
-                vertices[vertexPointer * 3 + 2] = (float) i / ((float) VERTEX_COUNT - 1) * SIZE;
-                Vector3f normal = calculateNormal(j, i, image); // Normal des Vertex berechnen, der durch die Height Map beeinflusst wird
-                normals[vertexPointer * 3] = normal.x;
-                normals[vertexPointer * 3 + 1] = normal.y;
-                normals[vertexPointer * 3 + 2] = normal.z;
-                textureCoords[vertexPointer * 2] = (float) j / ((float) VERTEX_COUNT - 1);
-                textureCoords[vertexPointer * 2 + 1] = (float) i / ((float) VERTEX_COUNT - 1);
-                vertexPointer++;
-            }
-        }
-        int pointer = 0;
-        for (int gz = 0; gz < VERTEX_COUNT - 1; gz++) {
-            for (int gx = 0; gx < VERTEX_COUNT - 1; gx++) {
-                int topLeft = (gz * VERTEX_COUNT) + gx;
-                int topRight = topLeft + 1;
-                int bottomLeft = ((gz + 1) * VERTEX_COUNT) + gx;
-                int bottomRight = bottomLeft + 1;
-                indices[pointer++] = topLeft;
-                indices[pointer++] = bottomLeft;
-                indices[pointer++] = topRight;
-                indices[pointer++] = topRight;
-                indices[pointer++] = bottomLeft;
-                indices[pointer++] = bottomRight;
+        IntStream.range(0, chunksPerSide).parallel().forEach(chunkZ -> {
+            int vertexPointer = chunkZ * verticesPerChunkRow;
+            for (int chunkX = 0; chunkX < chunksPerSide; chunkX++) {
+                for (int row = 0; row < verticesPerSide; row++) {
+                    int i = chunkZ * chunkQuads + row;
+                    for (int column = 0; column < verticesPerSide; column++) {
+                        int j = chunkX * chunkQuads + column;
+                        vertices[vertexPointer * 3] = (float) j / ((float) VERTEX_COUNT - 1) * SIZE;
+                        vertices[vertexPointer * 3 + 1] = heightField.getHeight(j, i);
+                        vertices[vertexPointer * 3 + 2] = (float) i / ((float) VERTEX_COUNT - 1) * SIZE;
+                        // Normal des Vertex aus den Höhen der Nachbarn berechnen, ohne einen Vector3f anzulegen
+                        float normalX = getHeight(heightField, j - 1, i) - getHeight(heightField, j + 1, i);
+                        float normalZ = getHeight(heightField, j, i - 1) - getHeight(heightField, j, i + 1);
+                        float invLength = 1.0f / (float) Math.sqrt(normalX * normalX + 4f + normalZ * normalZ);
+                        normals[vertexPointer * 3] = normalX * invLength;
+                        normals[vertexPointer * 3 + 1] = 2f * invLength;
+                        normals[vertexPointer * 3 + 2] = normalZ * invLength;
+                        textureCoords[vertexPointer * 2] = (float) j / ((float) VERTEX_COUNT - 1);
+                        textureCoords[vertexPointer * 2 + 1] = (float) i / ((float) VERTEX_COUNT - 1);
+                        vertexPointer++;
+                    }
+                }
             }
+        });
+        float maxHeight = 0; // Die Höhen hängen von der Quelle ab; die Bounding Boxes der Chunks enthalten sie bereits
+        for (int chunk = 0; chunk < chunkGrid.getChunkCount(); chunk++) {
+            TerrainChunk terrainChunk = chunkGrid.getChunk(chunk % chunksPerSide, chunk / chunksPerSide);
+            maxHeight = Math.max(maxHeight, Math.max(Math.abs(terrainChunk.getMinY()), Math.abs(terrainChunk.getMaxY())));
         }
-        log.info("Generated terrain; {[VertexCount={}], [TextureCoordsLength={}], [NormalsCoordsLength={}], [IndicesLength={}]}",
-                vertices.length, textureCoords.length, normals.length, indices.length);
-        return loader.loadToVAO(vertices, textureCoords, normals, indices);
+        float boundingRadius = (float) Math.sqrt(2 * SIZE * SIZE + maxHeight * maxHeight);
+        return new ModelData(vertices, textureCoords, normals, geoMipmap.getIndices(), boundingRadius);
     }
 
     /**
-     * Gibt die neuen Normals des durch die Heightmap
-     * beeinflussten Terrains zurück.
+     * Packt die Daten des Terrains in ihr Vertex-Layout. Die Indices sind lokal zu einem Chunk und passen daher in
+     * einen kleineren Datentyp als alle Vertices.
      *
-     * @param x     die X Position der Vertex, für die die Normal berechnet werden soll.
-     * @param y     die Y Position der Vertex, für die die Normal berechnet werden soll.
-     * @param image die Height Map.
-     * @return die neue Normal des Vertex.
-     */
-    private Vector3f calculateNormal(int x, int y, BufferedImage image) {
-        float heightL = getHeight(x - 1, y, image); // Höhe des Punktes links von dem Vertex
-        float heightR = getHeight(x + 1, y, image); // Höhe des Punktes rechts von dem Vertex
-        float heightD = getHeight(x, y - 1, image); // Höhe des Punktes unter dem Vertex
-        float heightU = getHeight(x, y + 1, image); // Höhe des Punktes über dem Vertex
-        Vector3f normal = new Vector3f(heightL - heightR, 2f, heightD - heightU);
-        normal.normalize(); // Einheitsvektor
-        return normal;
+     * @param mesh die mit {@link #generateMesh(HeightField, TerrainChunkGrid)} generierten Daten.
+     * @return die gepackten Daten, bereit zum Hochladen.
+     */
+    private static PackedMesh packTerrain(ModelData mesh) {
+        int count = mesh.vertices().length / 3;
+        VertexStream[] streams = {
+                VertexStream.of(mesh.vertices(), 3), VertexStream.of(mesh.textureCoords(), 2),
+                VertexStream.of(mesh.normals(), 3)
+        };
+        PackedMesh vertexData = VertexPacker.pack(VertexLayout.STANDARD, streams, count, IntBuffer.allocate(0),
+                mesh.furthestPoint());
+        int indexType = VertexPacker.indexType(GEO_MIPMAP.getVerticesPerChunk());
+        int[] indices = mesh.indices();
+        return new PackedMesh(vertexData.vertices(), VertexPacker.packIndices(IntBuffer.wrap(indices), indexType),
+                indexType, indices.length, count, VertexLayout.STANDARD, vertexData.positionDecode(), mesh.furthestPoint());
     }
 
     /**
-     * Gibt die Höhe eines von dem Pixel auf der Height Map
-     * dargestellten Punktes zurück.
+     * Gibt die Höhe eines Vertex zurück. Außerhalb des Terrains wird am Rand gespiegelt, sodass die Normalen an
+     * der Kante zweier Kacheln, deren Height Maps gespiegelt aneinander anschließen (siehe
+     * {@link HeightMapSource}), auf beiden Seiten gleich sind.
      *
-     * @param x     die X Position des Punktes auf der Height Map.
-     * @param y     die Y Position des Punktes auf der Height Map.
-     * @param image die Height Map.
-     * @return die Höhe des Punktes, basierend auf der Farbe des Pixels auf der Height Map.
+     * @param heightField die Höhe jedes Vertex.
+     * @param x           die X Position des Vertex.
+     * @param z           die Z Position des Vertex.
+     * @return die Höhe des Vertex.
      */
-    private float getHeight(int x, int y, BufferedImage image) {
-        if (x < 0 || x >= image.getHeight() || y < 0 || y >= image.getHeight()) { // Positionen befinden sich außerhalb der Height Map
-            return 0;
-        }
-        float height = image.getRGB(x, y);
+    private static float getHeight(HeightField heightField, int x, int z) {
+        int last = heightField.getSize() - 1;
+        x = x < 0 ? -x : x > last ? 2 * last - x : x;
+        z = z < 0 ? -z : z > last ? 2 * last - z : z;
+        return heightField.getHeight(x, z);
+    }
+
+    /**
+     * Tastet die dekodierte Height Map an einer Position zwischen den Pixeln bilinear ab.
+     *
+     * @param pixels    die Höhe jedes Pixels, zeilenweise.
+     * @param imageSize die Anzahl der Pixel pro Seite.
+     * @param x         die X Position auf der Height Map (in Pixeln).
+     * @param y         die Y Position auf der Height Map (in Pixeln).
+     * @return die interpolierte Höhe.
+     */
+    private static float sampleHeight(float[] pixels, int imageSize, float x, float y) {
+        int x0 = Math.min((int) x, imageSize - 1);
+        int y0 = Math.min((int) y, imageSize - 1);
+        int x1 = Math.min(x0 + 1, imageSize - 1);
+        int y1 = Math.min(y0 + 1, imageSize - 1);
+        float fx = x - x0;
+        float fy = y - y0;
+        float top = pixels[y0 * imageSize + x0];
+        float bottom = pixels[y1 * imageSize + x0];
+        top += fx * (pixels[y0 * imageSize + x1] - top);
+        bottom += fx * (pixels[y1 * imageSize + x1] - bottom);
+        return top + fy * (bottom - top);
+    }
+
+    /**
+     * Rechnet die Farbe eines Pixels auf der Height Map in die Höhe des von ihm dargestellten Punktes um.
+     *
+     * @param rgb die Farbe des Pixels (wie von {@link BufferedImage#getRGB(int, int)}).
+     * @return die Höhe des Punktes.
+     */
+    private static float toHeight(int rgb) {
+        float height = rgb;
         height += MAX_PIXEL_COLOR / 2f;
         height /= MAX_PIXEL_COLOR / 2f; // Damit die Höhe zwischen 0 und 1 liegt
         height *= MAX_HEIGHT; // Damit die Höhe nicht zu groß ist
         return height;
     }
 
+    /**
+     * Gibt die Höhe des Terrains an einer Position zurück, ohne dabei Objekte anzulegen.
+     *
+     * @param worldX die X Position in Weltkoordinaten.
+     * @param worldZ die Z Position in Weltkoordinaten.
+     * @return die Höhe des Terrains, oder 0 außerhalb des Terrains.
+     * @see HeightField#heightsAt(float[], float[], float[])
+     */
+    @Override
     public float getHeightOfTerrain(float worldX, float worldZ) {
-        float terrainX = worldX - this.x;
-        float terrainZ = worldZ - this.z;
-        float gridSquareSize = SIZE / ((float) heights.length - 1); // Länge einer Seite eines Quadrats des Terrains
-        int gridX = (int) Math.floor(terrainX / gridSquareSize); // X Position des Quadrats, in dem sich der Punkt befindet
-        int gridZ = (int) Math.floor(terrainZ / gridSquareSize); // Z Position des Quadrats, in dem sich der Punkt befindet
-        if (gridX + 1 >= heights.length || gridZ + 1 >= heights.length || gridX < 0 || gridZ < 0) {
-            return 0;
-        }
-        float xCoord = (terrainX % gridSquareSize) / gridSquareSize; // X Position des Punktes innerhalb des Quadrats
-        float zCoord = (terrainZ % gridSquareSize) / gridSquareSize; // Z Position des Punktes innerhalb des Quadrats
-        float answer;
-        if (xCoord <= (1 - zCoord)) {
-            answer = Maths
-                    .barryCentric(new Vector3f(0, heights[gridX][gridZ], 0), new Vector3f(1,
-                            heights[gridX + 1][gridZ], 0), new Vector3f(0,
-                            heights[gridX][gridZ + 1], 1), new Vector2f(xCoord, zCoord));
-        } else {
-            answer = Maths
-                    .barryCentric(new Vector3f(1, heights[gridX + 1][gridZ], 0), new Vector3f(1,
-                            heights[gridX + 1][gridZ + 1], 1), new Vector3f(0,
-                            heights[gridX][gridZ + 1], 1), new Vector2f(xCoord, zCoord));
-        }
-        return answer;
+        return heightField.heightAt(worldX, worldZ);
     }
 
-}
\ No newline at end of file
+}
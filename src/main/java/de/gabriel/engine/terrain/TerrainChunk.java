@@ -0,0 +1,90 @@
+package de.gabriel.engine.terrain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Ein quadratischer Ausschnitt eines {@link Terrain}s, der einzeln durch das Frustum Culling verworfen und mit einer
+ * eigenen Detailstufe ({@link GeoMipmap}) gerendert wird. Die Vertices eines Chunks liegen zusammenhängend im VBO
+ * des Terrains ab {@link #getBaseVertex()}.
+ *
+ * @see TerrainChunkGrid
+ */
+@Getter
+public class TerrainChunk {
+
+    /**
+     * Die X Position des Chunks im Raster der Chunks des Terrains.
+     */
+    private final int gridX;
+
+    /**
+     * Die Z Position des Chunks im Raster der Chunks des Terrains.
+     */
+    private final int gridZ;
+
+    /**
+     * Der Index des ersten Vertex des Chunks im VBO des Terrains.
+     */
+    private final int baseVertex;
+
+    /**
+     * Die achsenparallele Bounding Box des Chunks in Weltkoordinaten.
+     */
+    private final float minX, minY, minZ, maxX, maxY, maxZ;
+
+    /**
+     * Der größte vertikale Abstand eines Vertex der vollen Auflösung zur Oberfläche jeder Stufe (monoton steigend,
+     * 0 für Stufe 0).
+     */
+    @Getter(AccessLevel.NONE)
+    private final float[] errors;
+
+    /**
+     * Die Stufe, mit der der Chunk im letzten Frame gewählt wurde.
+     */
+    int level;
+
+    /**
+     * Die an gröbere Nachbarn angepassten Seiten ({@link GeoMipmap#STITCH_NORTH} usw.) im letzten Frame.
+     */
+    int stitchMask;
+
+    TerrainChunk(int gridX, int gridZ, int baseVertex, float minX, float minY, float minZ,
+                 float maxX, float maxY, float maxZ, float[] errors) {
+        this.gridX = gridX;
+        this.gridZ = gridZ;
+        this.baseVertex = baseVertex;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.errors = errors;
+    }
+
+    /**
+     * @param level die Stufe.
+     * @return der größte vertikale Fehler der Stufe in Weltkoordinaten.
+     */
+    public float getError(int level) {
+        return errors[level];
+    }
+
+    /**
+     * Der Abstand eines Punktes zur Bounding Box des Chunks (0, wenn der Punkt innerhalb liegt).
+     *
+     * @param x die X Position des Punktes.
+     * @param y die Y Position des Punktes.
+     * @param z die Z Position des Punktes.
+     * @return der Abstand zum nächsten Punkt der Bounding Box.
+     */
+    public float distanceTo(float x, float y, float z) {
+        float dx = Math.max(Math.max(minX - x, x - maxX), 0);
+        float dy = Math.max(Math.max(minY - y, y - maxY), 0);
+        float dz = Math.max(Math.max(minZ - z, z - maxZ), 0);
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+}
@@ -0,0 +1,313 @@
+package de.gabriel.engine.terrain;
+
+import de.gabriel.engine.models.LodChain;
+import de.gabriel.engine.utils.Frustum;
+import lombok.Getter;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Das Raster der {@link TerrainChunk}s eines Terrains. In jedem Frame werden mit
+ * {@link #cull(Frustum, Vector3f, float, float)} die sichtbaren Chunks bestimmt und für jeden Chunk eine Stufe des
+ * {@link GeoMipmap}s gewählt.
+ * <p>
+ * Die Stufe eines Chunks ist die gröbste, deren vertikaler Fehler im Abstand der Kamera zur Bounding Box höchstens
+ * den tolerierten Fehler in Pixeln ausmacht (mit derselben Hysterese wie {@link LodChain}). Danach werden die Stufen
+ * so weit verfeinert, dass sich benachbarte Chunks um höchstens eine Stufe unterscheiden, und die Kanten zu gröberen
+ * Nachbarn angepasst. Die Stufen werden für alle Chunks gewählt (auch für verworfene), damit die Kanten sichtbarer
+ * Chunks immer zu ihren Nachbarn passen. Mit {@link #setNeighbor(int, int, TerrainChunkGrid)} verbundene Raster
+ * angrenzender Terrains gelten dabei über die gemeinsame Kante hinweg als Nachbarn.
+ * </p>
+ * <p>
+ * Die Klasse verwendet kein OpenGL; Auswahl und Anzahl der Dreiecke lassen sich daher ohne Fenster prüfen.
+ * </p>
+ */
+public class TerrainChunkGrid {
+
+    /**
+     * Die Index-Buffer der Stufen, die alle Chunks verwenden.
+     */
+    @Getter
+    private final GeoMipmap geoMipmap;
+
+    /**
+     * Die Anzahl der Chunks pro Seite.
+     */
+    @Getter
+    private final int chunksPerSide;
+
+    /**
+     * Alle Chunks, zeilenweise (Zeile = Z).
+     */
+    private final TerrainChunk[] chunks;
+
+    /**
+     * Die im letzten Frame sichtbaren Chunks.
+     */
+    @Getter
+    private final List<TerrainChunk> visibleChunks = new ArrayList<TerrainChunk>();
+
+    /**
+     * Die Anzahl der Dreiecke aller im letzten Frame sichtbaren Chunks.
+     */
+    @Getter
+    private int triangleCount;
+
+    /**
+     * Die Raster der angrenzenden Terrains (Norden, Osten, Süden, Westen), oder null, wo es keinen Nachbarn gibt.
+     */
+    private final TerrainChunkGrid[] neighbors = new TerrainChunkGrid[4];
+
+    /**
+     * Erstellt die Chunks eines Terrains und berechnet ihre Bounding Boxes und die Fehler ihrer Stufen.
+     *
+     * @param heightField die Höhe jedes Vertex; pro Seite ein Vielfaches der Chunk-Größe plus 1 Vertices.
+     * @param geoMipmap   die Index-Buffer der Stufen.
+     * @throws IllegalArgumentException wenn sich das Terrain nicht in ganze Chunks teilen lässt.
+     */
+    public TerrainChunkGrid(HeightField heightField, GeoMipmap geoMipmap) {
+        int quads = heightField.getSize() - 1;
+        int chunkQuads = geoMipmap.getChunkQuads();
+        if (quads <= 0 || quads % chunkQuads != 0) {
+            throw new IllegalArgumentException("Terrain with " + quads + " quads per side cannot be split into chunks of "
+                    + chunkQuads + " quads");
+        }
+        this.geoMipmap = geoMipmap;
+        this.chunksPerSide = quads / chunkQuads;
+        this.chunks = new TerrainChunk[chunksPerSide * chunksPerSide];
+        float x = heightField.getOriginX();
+        float z = heightField.getOriginZ();
+        float quadSize = heightField.getCellSize();
+        // Die Chunks sind unabhängig voneinander; ihre Bounding Boxes und Fehler werden parallel berechnet
+        IntStream.range(0, chunks.length).parallel().forEach(index -> {
+            int gridX = index % chunksPerSide;
+            int gridZ = index / chunksPerSide;
+            int startX = gridX * chunkQuads;
+            int startZ = gridZ * chunkQuads;
+            float minY = Float.POSITIVE_INFINITY;
+            float maxY = Float.NEGATIVE_INFINITY;
+            for (int j = 0; j <= chunkQuads; j++) {
+                for (int i = 0; i <= chunkQuads; i++) {
+                    float height = heightField.getHeight(startX + i, startZ + j);
+                    minY = Math.min(minY, height);
+                    maxY = Math.max(maxY, height);
+                }
+            }
+            chunks[index] = new TerrainChunk(gridX, gridZ, index * geoMipmap.getVerticesPerChunk(),
+                    x + startX * quadSize, minY, z + startZ * quadSize,
+                    x + (startX + chunkQuads) * quadSize, maxY, z + (startZ + chunkQuads) * quadSize,
+                    calculateErrors(heightField, startX, startZ));
+        });
+    }
+
+    /**
+     * Berechnet für jede Stufe den größten vertikalen Abstand eines Vertex der vollen Auflösung zu den Dreiecken
+     * der Stufe. Die Fehler werden monoton gemacht, damit eine gröbere Stufe nie als genauer gilt.
+     */
+    private float[] calculateErrors(HeightField heightField, int startX, int startZ) {
+        int chunkQuads = geoMipmap.getChunkQuads();
+        float[] errors = new float[geoMipmap.getLevelCount()];
+        for (int level = 1; level < errors.length; level++) {
+            int step = 1 << level;
+            float inverseStep = 1f / step;
+            float error = errors[level - 1];
+            for (int cellZ = startZ; cellZ < startZ + chunkQuads; cellZ += step) {
+                for (int cellX = startX; cellX < startX + chunkQuads; cellX += step) {
+                    float topLeft = heightField.getHeight(cellX, cellZ);
+                    float topRight = heightField.getHeight(cellX + step, cellZ);
+                    float bottomLeft = heightField.getHeight(cellX, cellZ + step);
+                    float bottomRight = heightField.getHeight(cellX + step, cellZ + step);
+                    // Alle Vertices des Quadrats (inklusive der Kanten, die auf beiden Seiten gleich interpoliert werden)
+                    for (int j = 0; j <= step; j++) {
+                        float v = j * inverseStep;
+                        for (int i = 0; i <= step; i++) {
+                            float u = i * inverseStep;
+                            float interpolated = u + v <= 1
+                                    ? topLeft + u * (topRight - topLeft) + v * (bottomLeft - topLeft)
+                                    : bottomRight + (1 - u) * (bottomLeft - bottomRight) + (1 - v) * (topRight - bottomRight);
+                            error = Math.max(error, Math.abs(heightField.getHeight(cellX + i, cellZ + j) - interpolated));
+                        }
+                    }
+                }
+            }
+            errors[level] = error;
+        }
+        return errors;
+    }
+
+    /**
+     * Wählt die Stufen aller Chunks, passt ihre Kanten an und sammelt die Chunks, die im View Frustum liegen.
+     * Angrenzende Raster ({@link #setNeighbor(int, int, TerrainChunkGrid)}) werden dabei nicht verändert; für
+     * mehrere Terrains müssen die drei Schritte daher für alle Raster gemeinsam ausgeführt werden (siehe
+     * {@link #selectLevels(Vector3f, float, float)}).
+     *
+     * @param frustum        das aktuelle View Frustum.
+     * @param cameraPosition die Position der Kamera.
+     * @param screenScale    der Durchmesser in Pixeln, den ein Objekt mit Durchmesser 1 im Abstand 1 einnimmt.
+     * @param pixelError     der tolerierte Fehler in Pixeln.
+     */
+    public void cull(Frustum frustum, Vector3f cameraPosition, float screenScale, float pixelError) {
+        selectLevels(cameraPosition, screenScale, pixelError);
+        limitNeighborLevels();
+        collectVisible(frustum);
+    }
+
+    /**
+     * Erster Schritt des Cullings: Wählt für jeden Chunk unabhängig von seinen Nachbarn die gröbste Stufe, deren
+     * Fehler auf dem Bildschirm tolerierbar ist. Für aneinandergrenzende Terrains wird danach
+     * {@link #limitNeighborLevels()} für alle Raster wiederholt, bis sich keine Stufe mehr ändert, und zuletzt
+     * {@link #collectVisible(Frustum)} aufgerufen.
+     *
+     * @param cameraPosition die Position der Kamera.
+     * @param screenScale    der Durchmesser in Pixeln, den ein Objekt mit Durchmesser 1 im Abstand 1 einnimmt.
+     * @param pixelError     der tolerierte Fehler in Pixeln.
+     */
+    public void selectLevels(Vector3f cameraPosition, float screenScale, float pixelError) {
+        for (TerrainChunk chunk : chunks) {
+            float distance = chunk.distanceTo(cameraPosition.x, cameraPosition.y, cameraPosition.z);
+            chunk.level = selectLevel(chunk, distance, screenScale, pixelError);
+        }
+    }
+
+    /**
+     * Letzter Schritt des Cullings: Passt die Kanten zu gröberen Nachbarn an und sammelt die Chunks, die im View
+     * Frustum liegen.
+     *
+     * @param frustum das aktuelle View Frustum.
+     */
+    public void collectVisible(Frustum frustum) {
+        visibleChunks.clear();
+        triangleCount = 0;
+        for (TerrainChunk chunk : chunks) {
+            chunk.stitchMask = stitchMask(chunk);
+            if (frustum.intersectAabb(chunk.getMinX(), chunk.getMinY(), chunk.getMinZ(),
+                    chunk.getMaxX(), chunk.getMaxY(), chunk.getMaxZ()) != Frustum.OUTSIDE) {
+                visibleChunks.add(chunk);
+                triangleCount += geoMipmap.getCount(chunk.level, chunk.stitchMask) / 3;
+            }
+        }
+    }
+
+    /**
+     * Wählt die gröbste Stufe eines Chunks, deren Fehler auf dem Bildschirm höchstens dem tolerierten Fehler
+     * entspricht. Auf eine gröbere Stufe als im letzten Frame wird erst mit der {@link LodChain#HYSTERESIS}
+     * gewechselt.
+     */
+    private int selectLevel(TerrainChunk chunk, float distance, float screenScale, float pixelError) {
+        int levelCount = geoMipmap.getLevelCount();
+        int level = 0;
+        while (level + 1 < levelCount && chunk.getError(level + 1) * screenScale <= pixelError * distance) {
+            level++;
+        }
+        while (level > chunk.level && chunk.getError(level) * screenScale > pixelError * LodChain.HYSTERESIS * distance) {
+            level--;
+        }
+        return level;
+    }
+
+    /**
+     * Verfeinert die Stufen, bis sich benachbarte Chunks um höchstens eine Stufe unterscheiden. Da Stufen nur
+     * verringert werden, endet die Schleife nach höchstens so vielen Durchläufen, wie es Stufen gibt. Die Stufen
+     * angrenzender Raster werden nur gelesen.
+     *
+     * @return true, wenn dabei eine Stufe verringert wurde (die angrenzenden Raster müssen dann erneut geprüft werden).
+     */
+    public boolean limitNeighborLevels() {
+        boolean refined = false;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (TerrainChunk chunk : chunks) {
+                int limit = Math.min(Math.min(neighborLevel(chunk, 0, -1), neighborLevel(chunk, 1, 0)),
+                        Math.min(neighborLevel(chunk, 0, 1), neighborLevel(chunk, -1, 0))) + 1;
+                if (chunk.level > limit) {
+                    chunk.level = limit;
+                    changed = true;
+                    refined = true;
+                }
+            }
+        }
+        return refined;
+    }
+
+    /**
+     * Bestimmt die Seiten eines Chunks, deren Nachbar (genau eine Stufe) gröber ist.
+     */
+    private int stitchMask(TerrainChunk chunk) {
+        int mask = 0;
+        if (neighborLevel(chunk, 0, -1) > chunk.level) {
+            mask |= GeoMipmap.STITCH_NORTH;
+        }
+        if (neighborLevel(chunk, 1, 0) > chunk.level) {
+            mask |= GeoMipmap.STITCH_EAST;
+        }
+        if (neighborLevel(chunk, 0, 1) > chunk.level) {
+            mask |= GeoMipmap.STITCH_SOUTH;
+        }
+        if (neighborLevel(chunk, -1, 0) > chunk.level) {
+            mask |= GeoMipmap.STITCH_WEST;
+        }
+        return mask;
+    }
+
+    /**
+     * Die Stufe eines Nachbarn. Am Rand des Terrains liegt der Nachbar im angrenzenden Raster; gibt es keins (oder
+     * ist es anders aufgeteilt), wird die Stufe des Chunks selbst zurückgegeben, sodass die Kante weder angepasst
+     * wird noch die Stufe begrenzt.
+     */
+    private int neighborLevel(TerrainChunk chunk, int dx, int dz) {
+        int x = chunk.getGridX() + dx;
+        int z = chunk.getGridZ() + dz;
+        if (x < 0 || z < 0 || x >= chunksPerSide || z >= chunksPerSide) {
+            TerrainChunkGrid neighbor = neighbors[side(dx, dz)];
+            if (neighbor == null || neighbor.chunksPerSide != chunksPerSide) {
+                return chunk.level;
+            }
+            return neighbor.chunks[Math.floorMod(z, chunksPerSide) * chunksPerSide + Math.floorMod(x, chunksPerSide)].level;
+        }
+        return chunks[z * chunksPerSide + x].level;
+    }
+
+    /**
+     * Setzt das Raster des Terrains, das in einer Richtung an dieses angrenzt, damit die Stufen und Kanten der
+     * Chunks an der gemeinsamen Kante zueinander passen. Die Verbindung wird nur in eine Richtung gesetzt.
+     *
+     * @param dx       -1 für Westen, 1 für Osten, sonst 0.
+     * @param dz       -1 für Norden, 1 für Süden, sonst 0.
+     * @param neighbor das angrenzende Raster, oder null, um die Verbindung zu entfernen.
+     * @throws IllegalArgumentException wenn die Richtung keine der vier Seiten ist.
+     */
+    public void setNeighbor(int dx, int dz, TerrainChunkGrid neighbor) {
+        if (Math.abs(dx) + Math.abs(dz) != 1) {
+            throw new IllegalArgumentException("Expected one of the four sides but got (" + dx + ", " + dz + ")");
+        }
+        neighbors[side(dx, dz)] = neighbor;
+    }
+
+    /**
+     * Der Index einer Seite in {@link #neighbors}.
+     */
+    private static int side(int dx, int dz) {
+        return dz < 0 ? 0 : dx > 0 ? 1 : dz > 0 ? 2 : 3;
+    }
+
+    /**
+     * @param gridX die X Position des Chunks im Raster.
+     * @param gridZ die Z Position des Chunks im Raster.
+     * @return der Chunk.
+     */
+    public TerrainChunk getChunk(int gridX, int gridZ) {
+        return chunks[gridZ * chunksPerSide + gridX];
+    }
+
+    /**
+     * @return die Anzahl aller Chunks.
+     */
+    public int getChunkCount() {
+        return chunks.length;
+    }
+
+}
@@ -0,0 +1,16 @@
+package de.gabriel.engine.terrain;
+
+import de.gabriel.engine.converter.vertex.PackedMesh;
+
+/**
+ * Die Daten eines {@link Terrain}s, die ohne OpenGL generiert werden (siehe {@link Terrain#generate}). Sie entstehen
+ * auf einem Worker-Thread und werden danach auf dem Thread mit dem OpenGL-Context hochgeladen.
+ *
+ * @param gridX       die X Position des Terrains im Raster der Terrains.
+ * @param gridZ       die Z Position des Terrains im Raster der Terrains.
+ * @param heightField die quantisierten Höhen für Abfragen.
+ * @param chunkGrid   die Chunks des Terrains.
+ * @param mesh        die gepackten Vertices (Chunk für Chunk) und die Indices des {@link GeoMipmap}s.
+ */
+public record TerrainData(int gridX, int gridZ, HeightField heightField, TerrainChunkGrid chunkGrid, PackedMesh mesh) {
+}
@@ -0,0 +1,18 @@
+package de.gabriel.engine.terrain;
+
+/**
+ * Liefert die Höhe des Bodens an einer Position, z.B. für die Kamera. Wird von einem einzelnen {@link Terrain} und
+ * von einer {@link TerrainWorld} aus vielen Terrains implementiert.
+ */
+public interface TerrainHeights {
+
+    /**
+     * Gibt die Höhe des Terrains an einer Position zurück.
+     *
+     * @param worldX die X Position in Weltkoordinaten.
+     * @param worldZ die Z Position in Weltkoordinaten.
+     * @return die Höhe des Terrains, oder 0, wo es kein Terrain gibt.
+     */
+    float getHeightOfTerrain(float worldX, float worldZ);
+
+}
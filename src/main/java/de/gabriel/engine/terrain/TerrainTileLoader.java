@@ -0,0 +1,32 @@
+package de.gabriel.engine.terrain;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Erzeugt die Kacheln einer {@link TerrainWorld} und gibt sie wieder frei. Die {@link TerrainWorld} entscheidet nur,
+ * welche Kacheln geladen und verworfen werden; wie eine Kachel entsteht, bleibt dem Loader überlassen. So lassen
+ * sich die Entscheidungen auch ohne OpenGL mit einem Loader prüfen, der die Futures selbst erfüllt.
+ *
+ * @see HeightMapTileLoader
+ */
+public interface TerrainTileLoader {
+
+    /**
+     * Startet das Laden einer Kachel. Wird auf dem Thread mit dem OpenGL-Context aufgerufen und darf nicht
+     * blockieren.
+     *
+     * @param gridX die X Position der Kachel im Raster der Terrains.
+     * @param gridZ die Z Position der Kachel im Raster der Terrains.
+     * @return die Kachel, sobald sie hochgeladen wurde.
+     */
+    CompletableFuture<Terrain> load(int gridX, int gridZ);
+
+    /**
+     * Gibt eine geladene Kachel frei, die nicht mehr gebraucht wird. Wird auf dem Thread mit dem OpenGL-Context
+     * aufgerufen.
+     *
+     * @param terrain die Kachel.
+     */
+    void unload(Terrain terrain);
+
+}
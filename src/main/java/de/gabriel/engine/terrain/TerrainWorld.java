@@ -0,0 +1,447 @@
+package de.gabriel.engine.terrain;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Eine Welt aus Kacheln ({@link Terrain}s mit der Seitenlänge {@link Terrain#SIZE}), die um die Kamera herum
+ * nachgeladen und hinter ihr wieder verworfen werden.
+ * <p>
+ * {@link #update(float, float)} wird einmal pro Frame auf dem Thread mit dem OpenGL-Context aufgerufen. Alle
+ * Kacheln, deren Abstand zur Kachel der Kamera (in Kacheln, Chebyshev-Distanz) höchstens {@link #loadRadius}
+ * beträgt, werden über den {@link TerrainTileLoader} angefordert, die nächsten zuerst und höchstens
+ * {@link #maxPendingLoads} gleichzeitig. Verworfen werden erst Kacheln mit einem Abstand größer als
+ * {@link #evictRadius}, damit eine Kamera an der Grenze zweier Kacheln nicht ständig lädt und verwirft. Kacheln,
+ * die während des Ladens verworfen werden, gibt die Welt frei, sobald sie fertig sind.
+ * </p>
+ * <p>
+ * Abfragen der Höhe finden die Kachel über ihre Position in einer Hash Map und benötigen daher konstante Zeit, auch
+ * über die Kanten von Kacheln hinweg. Da aufeinanderfolgende Abfragen meist dieselbe Kachel treffen, wird die zuletzt
+ * gefundene Kachel vorher direkt verglichen; dann entsteht auch kein geboxter Schlüssel. Die Welt verwendet selbst
+ * kein OpenGL; Residenz und Verwerfen lassen sich daher mit einem {@link TerrainTileLoader} prüfen, der seine Futures
+ * selbst erfüllt.
+ * </p>
+ */
+@Slf4j
+public class TerrainWorld implements TerrainHeights {
+
+    /**
+     * Wird benachrichtigt, wenn eine Kachel resident wird oder verworfen wird, z.B. um sie beim Renderer an- und
+     * abzumelden.
+     */
+    public interface Listener {
+
+        /**
+         * Eine Kachel wurde geladen und kann ab jetzt gerendert werden.
+         *
+         * @param terrain die Kachel.
+         */
+        void onTileLoaded(Terrain terrain);
+
+        /**
+         * Eine Kachel wird verworfen und direkt danach freigegeben.
+         *
+         * @param terrain die Kachel.
+         */
+        void onTileEvicted(Terrain terrain);
+
+    }
+
+    /**
+     * Eine angeforderte Kachel; {@link #terrain} ist null, solange sie geladen wird.
+     */
+    private static final class Tile {
+
+        private final int gridX;
+
+        private final int gridZ;
+
+        private final CompletableFuture<Terrain> future;
+
+        private final long requestNanos;
+
+        private Terrain terrain;
+
+        private Tile(int gridX, int gridZ, CompletableFuture<Terrain> future, long requestNanos) {
+            this.gridX = gridX;
+            this.gridZ = gridZ;
+            this.future = future;
+            this.requestNanos = requestNanos;
+        }
+
+    }
+
+    private final TerrainTileLoader tileLoader;
+
+    /**
+     * Der Abstand in Kacheln, bis zu dem Kacheln um die Kamera geladen werden.
+     */
+    @Getter
+    private final int loadRadius;
+
+    /**
+     * Der Abstand in Kacheln, ab dem (exklusive) Kacheln verworfen werden.
+     */
+    @Getter
+    private final int evictRadius;
+
+    /**
+     * Die Anzahl der Kacheln, die höchstens gleichzeitig geladen werden.
+     */
+    @Getter
+    private final int maxPendingLoads;
+
+    /**
+     * Alle angeforderten Kacheln (geladen oder noch ladend), nach {@link #key(int, int)}.
+     */
+    private final Map<Long, Tile> tiles = new HashMap<Long, Tile>();
+
+    /**
+     * Kacheln, deren Laden fehlgeschlagen ist. Sie werden nicht erneut angefordert.
+     */
+    private final Set<Long> failedTiles = new HashSet<Long>();
+
+    /**
+     * Verworfene Kacheln, die noch geladen werden und freigegeben werden, sobald sie fertig sind.
+     */
+    private final List<Tile> abandonedTiles = new ArrayList<Tile>();
+
+    /**
+     * Die zuletzt abgefragte geladene Kachel, oder null.
+     */
+    private Tile lastTile;
+
+    @Setter
+    private Listener listener;
+
+    /**
+     * Die Anzahl der geladenen Kacheln.
+     */
+    @Getter
+    private int residentTiles;
+
+    /**
+     * Die Anzahl der Kacheln, die gerade geladen werden (inklusive der bereits verworfenen).
+     */
+    @Getter
+    private int pendingLoads;
+
+    /**
+     * Der Speicher aller geladenen Kacheln in Bytes (siehe {@link Terrain#getMemoryBytes()}).
+     */
+    @Getter
+    private long residentBytes;
+
+    /**
+     * Die Anzahl der seit dem Erstellen geladenen Kacheln.
+     */
+    @Getter
+    private int loadedTiles;
+
+    /**
+     * Die Anzahl der seit dem Erstellen verworfenen Kacheln.
+     */
+    @Getter
+    private int evictedTiles;
+
+    /**
+     * Die Zeit vom Anfordern bis zum Hochladen aller bisher geladenen Kacheln zusammen bzw. der längsten.
+     */
+    private long totalLoadNanos, maxLoadNanos;
+
+    /**
+     * @param tileLoader      erzeugt und entfernt die Kacheln.
+     * @param loadRadius      der Abstand in Kacheln, bis zu dem Kacheln geladen werden.
+     * @param evictRadius     der Abstand in Kacheln, ab dem (exklusive) Kacheln verworfen werden.
+     * @param maxPendingLoads die Anzahl der Kacheln, die höchstens gleichzeitig geladen werden.
+     * @throws IllegalArgumentException wenn der Radius zum Verwerfen kleiner als der zum Laden ist oder nie eine
+     *                                  Kachel geladen werden dürfte.
+     */
+    public TerrainWorld(TerrainTileLoader tileLoader, int loadRadius, int evictRadius, int maxPendingLoads) {
+        if (loadRadius < 0 || evictRadius < loadRadius || maxPendingLoads < 1) {
+            throw new IllegalArgumentException("Invalid residency: loadRadius=" + loadRadius + ", evictRadius="
+                    + evictRadius + ", maxPendingLoads=" + maxPendingLoads);
+        }
+        this.tileLoader = tileLoader;
+        this.loadRadius = loadRadius;
+        this.evictRadius = evictRadius;
+        this.maxPendingLoads = maxPendingLoads;
+    }
+
+    /**
+     * Übernimmt fertig geladene Kacheln, verwirft Kacheln außerhalb von {@link #evictRadius} und fordert fehlende
+     * Kacheln innerhalb von {@link #loadRadius} an. Muss auf dem Thread mit dem OpenGL-Context aufgerufen werden.
+     *
+     * @param cameraX die X Position der Kamera.
+     * @param cameraZ die Z Position der Kamera.
+     */
+    public void update(float cameraX, float cameraZ) {
+        int centerX = toGrid(cameraX);
+        int centerZ = toGrid(cameraZ);
+        collectLoadedTiles();
+        evictDistantTiles(centerX, centerZ);
+        requestMissingTiles(centerX, centerZ);
+    }
+
+    /**
+     * Übernimmt alle Kacheln, deren Laden abgeschlossen ist, und gibt fertige verworfene Kacheln frei.
+     */
+    private void collectLoadedTiles() {
+        for (Iterator<Tile> iterator = tiles.values().iterator(); iterator.hasNext(); ) {
+            Tile tile = iterator.next();
+            if (tile.terrain != null || !tile.future.isDone()) {
+                continue;
+            }
+            pendingLoads--;
+            Terrain terrain = joinQuietly(tile.future, tile.gridX, tile.gridZ);
+            if (terrain == null) {
+                iterator.remove();
+                failedTiles.add(key(tile.gridX, tile.gridZ));
+                continue;
+            }
+            tile.terrain = terrain;
+            long latency = System.nanoTime() - tile.requestNanos;
+            totalLoadNanos += latency;
+            maxLoadNanos = Math.max(maxLoadNanos, latency);
+            loadedTiles++;
+            residentTiles++;
+            residentBytes += terrain.getMemoryBytes();
+            link(tile, true);
+            if (listener != null) {
+                listener.onTileLoaded(terrain);
+            }
+            log.info("Loaded terrain tile; {[GridX={}], [GridZ={}], [Millis={}], [ResidentTiles={}], [ResidentBytes={}]}",
+                    tile.gridX, tile.gridZ, latency / 1e6, residentTiles, residentBytes);
+        }
+        for (Iterator<Tile> iterator = abandonedTiles.iterator(); iterator.hasNext(); ) {
+            Tile tile = iterator.next();
+            if (tile.future.isDone()) {
+                iterator.remove();
+                pendingLoads--;
+                Terrain terrain = joinQuietly(tile.future, tile.gridX, tile.gridZ);
+                if (terrain != null) {
+                    tileLoader.unload(terrain);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verwirft alle Kacheln, die weiter als {@link #evictRadius} von der Kachel der Kamera entfernt sind.
+     */
+    private void evictDistantTiles(int centerX, int centerZ) {
+        for (Iterator<Tile> iterator = tiles.values().iterator(); iterator.hasNext(); ) {
+            Tile tile = iterator.next();
+            if (distance(tile.gridX - centerX, tile.gridZ - centerZ) <= evictRadius) {
+                continue;
+            }
+            iterator.remove();
+            if (tile.terrain == null) {
+                abandonedTiles.add(tile); // Wird freigegeben, sobald das Laden abgeschlossen ist
+                continue;
+            }
+            evict(tile);
+        }
+    }
+
+    /**
+     * Meldet eine geladene Kachel ab und gibt sie frei.
+     */
+    private void evict(Tile tile) {
+        if (tile == lastTile) {
+            lastTile = null;
+        }
+        link(tile, false);
+        residentTiles--;
+        residentBytes -= tile.terrain.getMemoryBytes();
+        evictedTiles++;
+        if (listener != null) {
+            listener.onTileEvicted(tile.terrain);
+        }
+        tileLoader.unload(tile.terrain);
+        log.info("Evicted terrain tile; {[GridX={}], [GridZ={}], [ResidentTiles={}], [ResidentBytes={}]}",
+                tile.gridX, tile.gridZ, residentTiles, residentBytes);
+    }
+
+    /**
+     * Fordert fehlende Kacheln innerhalb von {@link #loadRadius} an, Ring für Ring von der Kachel der Kamera aus,
+     * bis {@link #maxPendingLoads} Kacheln gleichzeitig geladen werden.
+     */
+    private void requestMissingTiles(int centerX, int centerZ) {
+        for (int ring = 0; ring <= loadRadius; ring++) {
+            for (int dz = -ring; dz <= ring; dz++) {
+                // Innerhalb des Rings nur die Kanten; das Innere gehört zu kleineren Ringen
+                int stepX = dz == -ring || dz == ring ? 1 : Math.max(2 * ring, 1);
+                for (int dx = -ring; dx <= ring; dx += stepX) {
+                    if (pendingLoads >= maxPendingLoads) {
+                        return;
+                    }
+                    int gridX = centerX + dx;
+                    int gridZ = centerZ + dz;
+                    long key = key(gridX, gridZ);
+                    if (!tiles.containsKey(key) && !failedTiles.contains(key)) {
+                        tiles.put(key, new Tile(gridX, gridZ, tileLoader.load(gridX, gridZ), System.nanoTime()));
+                        pendingLoads++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Verbindet die Chunk-Raster einer Kachel mit denen ihrer geladenen Nachbarn (in beide Richtungen) oder löst
+     * die Verbindungen wieder.
+     */
+    private void link(Tile tile, boolean connect) {
+        TerrainChunkGrid grid = tile.terrain.getChunkGrid();
+        for (int side = 0; side < 4; side++) {
+            int dx = side == 1 ? 1 : side == 3 ? -1 : 0;
+            int dz = side == 0 ? -1 : side == 2 ? 1 : 0;
+            Terrain neighbor = getTerrain(tile.gridX + dx, tile.gridZ + dz);
+            if (neighbor != null) {
+                grid.setNeighbor(dx, dz, connect ? neighbor.getChunkGrid() : null);
+                neighbor.getChunkGrid().setNeighbor(-dx, -dz, connect ? grid : null);
+            }
+        }
+    }
+
+    /**
+     * Gibt das Ergebnis eines abgeschlossenen Ladens zurück, oder null (mit Log), wenn es fehlgeschlagen ist.
+     */
+    private static Terrain joinQuietly(CompletableFuture<Terrain> future, int gridX, int gridZ) {
+        try {
+            return future.join();
+        } catch (RuntimeException e) {
+            log.error("Failed to load terrain tile; {[GridX={}], [GridZ={}]}", gridX, gridZ, e);
+            return null;
+        }
+    }
+
+    /**
+     * Gibt eine geladene Kachel zurück.
+     *
+     * @param gridX die X Position der Kachel im Raster der Terrains.
+     * @param gridZ die Z Position der Kachel im Raster der Terrains.
+     * @return die Kachel, oder null, wenn sie nicht (oder noch nicht) geladen ist.
+     */
+    public Terrain getTerrain(int gridX, int gridZ) {
+        Tile tile = lastTile;
+        if (tile != null && tile.gridX == gridX && tile.gridZ == gridZ) {
+            return tile.terrain;
+        }
+        tile = tiles.get(key(gridX, gridZ));
+        if (tile == null || tile.terrain == null) {
+            return null;
+        }
+        lastTile = tile;
+        return tile.terrain;
+    }
+
+    /**
+     * Gibt die Kachel an einer Position in Weltkoordinaten zurück.
+     *
+     * @param worldX die X Position.
+     * @param worldZ die Z Position.
+     * @return die Kachel, oder null, wenn sie nicht (oder noch nicht) geladen ist.
+     */
+    public Terrain getTerrainAt(float worldX, float worldZ) {
+        return getTerrain(toGrid(worldX), toGrid(worldZ));
+    }
+
+    /**
+     * Gibt die Höhe an einer Position zurück; die Kachel wird in konstanter Zeit gefunden.
+     *
+     * @param worldX die X Position in Weltkoordinaten.
+     * @param worldZ die Z Position in Weltkoordinaten.
+     * @return die Höhe, oder 0, wenn die Kachel an der Position nicht geladen ist.
+     */
+    @Override
+    public float getHeightOfTerrain(float worldX, float worldZ) {
+        Terrain terrain = getTerrainAt(worldX, worldZ);
+        return terrain != null ? terrain.getHeightOfTerrain(worldX, worldZ) : 0;
+    }
+
+    /**
+     * @return alle geladenen Kacheln.
+     */
+    public List<Terrain> getTerrains() {
+        List<Terrain> terrains = new ArrayList<Terrain>(residentTiles);
+        for (Tile tile : tiles.values()) {
+            if (tile.terrain != null) {
+                terrains.add(tile.terrain);
+            }
+        }
+        return terrains;
+    }
+
+    /**
+     * @param gridX die X Position der Kachel im Raster der Terrains.
+     * @param gridZ die Z Position der Kachel im Raster der Terrains.
+     * @return true, wenn die Kachel geladen ist oder gerade geladen wird.
+     */
+    public boolean isRequested(int gridX, int gridZ) {
+        return tiles.containsKey(key(gridX, gridZ));
+    }
+
+    /**
+     * @return die durchschnittliche Zeit vom Anfordern bis zum Hochladen einer Kachel in Millisekunden.
+     */
+    public double getAverageLoadMillis() {
+        return loadedTiles > 0 ? totalLoadNanos / 1e6 / loadedTiles : 0;
+    }
+
+    /**
+     * @return die längste Zeit vom Anfordern bis zum Hochladen einer Kachel in Millisekunden.
+     */
+    public double getMaxLoadMillis() {
+        return maxLoadNanos / 1e6;
+    }
+
+    /**
+     * Verwirft alle geladenen Kacheln. Kacheln, die noch geladen werden, werden in späteren Aufrufen von
+     * {@link #update(float, float)} freigegeben.
+     */
+    public void cleanUp() {
+        for (Iterator<Tile> iterator = tiles.values().iterator(); iterator.hasNext(); ) {
+            Tile tile = iterator.next();
+            iterator.remove();
+            if (tile.terrain == null) {
+                abandonedTiles.add(tile);
+            } else {
+                evict(tile);
+            }
+        }
+    }
+
+    /**
+     * Die Position der Kachel, in der eine Koordinate liegt.
+     */
+    private static int toGrid(float coordinate) {
+        return (int) Math.floor(coordinate / Terrain.SIZE);
+    }
+
+    /**
+     * Der Abstand zweier Kacheln in Kacheln (Chebyshev-Distanz).
+     */
+    private static int distance(int dx, int dz) {
+        return Math.max(Math.abs(dx), Math.abs(dz));
+    }
+
+    /**
+     * Packt die Position einer Kachel in einen Schlüssel.
+     */
+    private static long key(int gridX, int gridZ) {
+        return (long) gridX << 32 | (gridZ & 0xFFFFFFFFL);
+    }
+
+}
@@ -0,0 +1,70 @@
+package de.gabriel.engine.utils;
+
+import java.util.Arrays;
+
+/**
+ * Eine wachsende Liste primitiver Floats. Anders als eine {@code List<Float>} wird dabei kein Wert
+ * geboxt; die Werte liegen direkt in einem Array, das bei Bedarf vergrößert wird.
+ */
+public class FloatList {
+
+    private float[] values;
+
+    private int size;
+
+    public FloatList() {
+        this(16);
+    }
+
+    /**
+     * @param capacity die anfängliche Kapazität der Liste.
+     */
+    public FloatList(int capacity) {
+        this.values = new float[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Hängt einen Wert an das Ende der Liste an.
+     *
+     * @param value der Wert, der angehängt werden soll.
+     */
+    public void add(float value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    public float get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return values[index];
+    }
+
+    public void set(int index, float value) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        values[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Leert die Liste, ohne das Array zu verkleinern.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return eine Kopie der Werte mit genau der Länge der Liste.
+     */
+    public float[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+}
@@ -0,0 +1,120 @@
+package de.gabriel.engine.utils;
+
+import org.joml.Matrix4f;
+
+/**
+ * Repräsentiert das View Frustum der Kamera als sechs Ebenen. Die Ebenen werden direkt aus der
+ * kombinierten Projektions- und View Matrix (Projektion · View) gewonnen (Gribb/Hartmann), wodurch das
+ * Frustum immer genau dem entspricht, was auch tatsächlich auf dem Bildschirm dargestellt wird.
+ * <p>
+ * Jede Ebene wird als (a, b, c, d) mit normalisiertem Normalvektor (a, b, c) gespeichert, der in das Frustum zeigt.
+ * Ein Punkt p liegt also innerhalb einer Ebene, wenn a·p.x + b·p.y + c·p.z + d ≥ 0 gilt.
+ * </p>
+ *
+ * @see Maths#createViewMatrix(de.gabriel.engine.entities.Camera)
+ */
+public class Frustum {
+
+    /**
+     * Ergebnis von {@link #intersectAabb}: die Box liegt vollständig außerhalb des Frustums.
+     */
+    public static final int OUTSIDE = 0;
+
+    /**
+     * Ergebnis von {@link #intersectAabb}: die Box schneidet mindestens eine Ebene des Frustums.
+     */
+    public static final int INTERSECT = 1;
+
+    /**
+     * Ergebnis von {@link #intersectAabb}: die Box liegt vollständig innerhalb des Frustums.
+     */
+    public static final int INSIDE = 2;
+
+    /**
+     * Anzahl der Ebenen des Frustums (links, rechts, unten, oben, nah, fern).
+     */
+    private static final int PLANE_COUNT = 6;
+
+    /**
+     * Die Ebenen des Frustums, jeweils 4 Floats (a, b, c, d) pro Ebene.
+     */
+    private final float[] planes = new float[PLANE_COUNT * 4];
+
+    /**
+     * Aktualisiert die Ebenen des Frustums aus der kombinierten Projektions- und View Matrix.
+     *
+     * @param projectionViewMatrix das Produkt aus Projektionsmatrix und View Matrix (Projektion · View).
+     */
+    public void update(Matrix4f projectionViewMatrix) {
+        Matrix4f m = projectionViewMatrix;
+        // JOML speichert Matrizen spaltenweise (mSpalteZeile); Zeile i ist daher (m0i, m1i, m2i, m3i)
+        setPlane(0, m.m03() + m.m00(), m.m13() + m.m10(), m.m23() + m.m20(), m.m33() + m.m30()); // Links
+        setPlane(1, m.m03() - m.m00(), m.m13() - m.m10(), m.m23() - m.m20(), m.m33() - m.m30()); // Rechts
+        setPlane(2, m.m03() + m.m01(), m.m13() + m.m11(), m.m23() + m.m21(), m.m33() + m.m31()); // Unten
+        setPlane(3, m.m03() - m.m01(), m.m13() - m.m11(), m.m23() - m.m21(), m.m33() - m.m31()); // Oben
+        setPlane(4, m.m03() + m.m02(), m.m13() + m.m12(), m.m23() + m.m22(), m.m33() + m.m32()); // Nah
+        setPlane(5, m.m03() - m.m02(), m.m13() - m.m12(), m.m23() - m.m22(), m.m33() - m.m32()); // Fern
+    }
+
+    /**
+     * Speichert eine Ebene mit normalisiertem Normalvektor.
+     */
+    private void setPlane(int plane, float a, float b, float c, float d) {
+        float length = (float) Math.sqrt(a * a + b * b + c * c);
+        int i = plane * 4;
+        planes[i] = a / length;
+        planes[i + 1] = b / length;
+        planes[i + 2] = c / length;
+        planes[i + 3] = d / length;
+    }
+
+    /**
+     * Prüft, ob eine Kugel (zumindest teilweise) innerhalb des Frustums liegt.
+     *
+     * @param x      die X Position des Mittelpunkts der Kugel.
+     * @param y      die Y Position des Mittelpunkts der Kugel.
+     * @param z      die Z Position des Mittelpunkts der Kugel.
+     * @param radius der Radius der Kugel.
+     * @return true, wenn die Kugel sichtbar sein kann, false, wenn sie vollständig außerhalb liegt.
+     */
+    public boolean testSphere(float x, float y, float z, float radius) {
+        for (int i = 0; i < PLANE_COUNT * 4; i += 4) {
+            if (planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3] < -radius) {
+                return false; // Vollständig hinter einer Ebene
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bestimmt die Lage einer achsenparallelen Box (AABB) relativ zum Frustum. Für jede Ebene werden dafür nur
+     * die beiden Ecken der Box geprüft, die am weitesten in bzw. gegen die Richtung des Normalvektors liegen.
+     *
+     * @return {@link #OUTSIDE}, {@link #INTERSECT} oder {@link #INSIDE}.
+     */
+    public int intersectAabb(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        int result = INSIDE;
+        for (int i = 0; i < PLANE_COUNT * 4; i += 4) {
+            float a = planes[i];
+            float b = planes[i + 1];
+            float c = planes[i + 2];
+            float d = planes[i + 3];
+            // Ecke, die am weitesten in Richtung des Normalvektors liegt
+            float px = a >= 0 ? maxX : minX;
+            float py = b >= 0 ? maxY : minY;
+            float pz = c >= 0 ? maxZ : minZ;
+            if (a * px + b * py + c * pz + d < 0) {
+                return OUTSIDE;
+            }
+            // Ecke, die am weitesten gegen die Richtung des Normalvektors liegt
+            float nx = a >= 0 ? minX : maxX;
+            float ny = b >= 0 ? minY : maxY;
+            float nz = c >= 0 ? minZ : maxZ;
+            if (a * nx + b * ny + c * nz + d < 0) {
+                result = INTERSECT;
+            }
+        }
+        return result;
+    }
+
+}
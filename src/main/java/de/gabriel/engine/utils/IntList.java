@@ -0,0 +1,70 @@
+package de.gabriel.engine.utils;
+
+import java.util.Arrays;
+
+/**
+ * Eine wachsende Liste primitiver Integer. Anders als eine {@code List<Integer>} wird dabei kein Wert
+ * geboxt; die Werte liegen direkt in einem Array, das bei Bedarf vergrößert wird.
+ */
+public class IntList {
+
+    private int[] values;
+
+    private int size;
+
+    public IntList() {
+        this(16);
+    }
+
+    /**
+     * @param capacity die anfängliche Kapazität der Liste.
+     */
+    public IntList(int capacity) {
+        this.values = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Hängt einen Wert an das Ende der Liste an.
+     *
+     * @param value der Wert, der angehängt werden soll.
+     */
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return values[index];
+    }
+
+    public void set(int index, int value) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        values[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Leert die Liste, ohne das Array zu verkleinern.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return eine Kopie der Werte mit genau der Länge der Liste.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+}
@@ -4,6 +4,7 @@ import de.gabriel.engine.entities.Camera;
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
+import org.joml.Vector3fc;
 
 /**
  * Eine Klasse zum Umgehen mit Matrizen.
@@ -15,6 +16,12 @@ public class Maths {
      */
     private static final int PLAYER_HEIGHT = 7;
 
+    /**
+     * Die Achse, um die mit dem Parameter rz rotiert wird. Sie ist absichtlich nicht normalisiert, damit sich
+     * das Ergebnis gegenüber den bisherigen Transformationsmatrizen nicht ändert.
+     */
+    private static final Vector3fc ROTATION_AXIS_Z = new Vector3f(1, 0, 1);
+
     /**
      * Erstellt eine Transformationsmatrix mit den angegebenen Parametern in der Reihenfolge der Parameter.
      *
@@ -24,16 +31,29 @@ public class Maths {
      * @param rz          die Rotation um die z-Achse.
      * @param scale       der Skalierungsfaktor auf allen Achsen (x, y, z).
      * @return die erstellte Transformationsmatrix.
+     * @see Maths#createTransformationMatrix(Vector3f, float, float, float, float, Matrix4f)
      */
     public static Matrix4f createTransformationMatrix(Vector3f translation, float rx, float ry, float rz, float scale) {
-        Matrix4f matrix = new Matrix4f();
-        matrix.identity();
-        matrix.translate(translation);
-        matrix.rotate((float) Math.toRadians(rx), new Vector3f(1, 0, 0));
-        matrix.rotate((float) Math.toRadians(ry), new Vector3f(0, 1, 0));
-        matrix.rotate((float) Math.toRadians(rz), new Vector3f(1, 0, 1));
-        matrix.scale(new Vector3f(scale, scale, scale));
-        return matrix;
+        return createTransformationMatrix(translation, rx, ry, rz, scale, new Matrix4f());
+    }
+
+    /**
+     * Schreibt eine Transformationsmatrix mit den angegebenen Parametern in die Zielmatrix, ohne neue Objekte zu erstellen.
+     *
+     * @param translation die Translation, um die der Vertex verschoben werden soll.
+     * @param rx          die Rotation um die x-Achse.
+     * @param ry          die Rotation um die y-Achse.
+     * @param rz          die Rotation um die z-Achse.
+     * @param scale       der Skalierungsfaktor auf allen Achsen (x, y, z).
+     * @param dest        die Matrix, in die das Ergebnis geschrieben wird.
+     * @return die Zielmatrix (dest).
+     */
+    public static Matrix4f createTransformationMatrix(Vector3f translation, float rx, float ry, float rz, float scale, Matrix4f dest) {
+        return dest.translation(translation)
+                .rotateX((float) Math.toRadians(rx))
+                .rotateY((float) Math.toRadians(ry))
+                .rotate((float) Math.toRadians(rz), ROTATION_AXIS_Z)
+                .scale(scale);
     }
 
     /**
@@ -42,13 +62,23 @@ public class Maths {
      * @param translation die Translation, um die der Vertex verschoben werden soll.
      * @param scale       der Skalierungsfaktor auf den Achsen x und y.
      * @return die erstellte Transformationsmatrix.
+     * @see Maths#createTransformationMatrix(Vector2f, Vector2f, Matrix4f)
      */
     public static Matrix4f createTransformationMatrix(Vector2f translation, Vector2f scale) {
-        Matrix4f matrix = new Matrix4f();
-        matrix.identity();
-        matrix.translate(new Vector3f(translation.x, translation.y, 0f));
-        matrix.scale(new Vector3f(scale.x, scale.y, 1f));
-        return matrix;
+        return createTransformationMatrix(translation, scale, new Matrix4f());
+    }
+
+    /**
+     * Schreibt eine 2D-Transformationsmatrix in die Zielmatrix, ohne neue Objekte zu erstellen.
+     *
+     * @param translation die Translation, um die der Vertex verschoben werden soll.
+     * @param scale       der Skalierungsfaktor auf den Achsen x und y.
+     * @param dest        die Matrix, in die das Ergebnis geschrieben wird.
+     * @return die Zielmatrix (dest).
+     */
+    public static Matrix4f createTransformationMatrix(Vector2f translation, Vector2f scale, Matrix4f dest) {
+        return dest.translation(translation.x, translation.y, 0f)
+                .scale(scale.x, scale.y, 1f);
     }
 
     /**
@@ -56,31 +86,55 @@ public class Maths {
      *
      * @param camera die Kamera, für die die View Matrix erstellt werden soll.
      * @return die erstellte View Matrix.
+     * @see Maths#createViewMatrix(Camera, Matrix4f)
      */
     public static Matrix4f createViewMatrix(Camera camera) {
-        Matrix4f viewMatrix = new Matrix4f();
-        viewMatrix.identity();
-        viewMatrix.rotate((float) Math.toRadians(camera.getPitch()), new Vector3f(1, 0, 0));
-        viewMatrix.rotate((float) Math.toRadians(camera.getYaw()), new Vector3f(0, 1, 0));
+        return createViewMatrix(camera, new Matrix4f());
+    }
+
+    /**
+     * Schreibt die View Matrix der Kamera in die Zielmatrix, ohne neue Objekte zu erstellen.
+     *
+     * @param camera die Kamera, für die die View Matrix erstellt werden soll.
+     * @param dest   die Matrix, in die das Ergebnis geschrieben wird.
+     * @return die Zielmatrix (dest).
+     */
+    public static Matrix4f createViewMatrix(Camera camera, Matrix4f dest) {
         Vector3f cameraPos = camera.getPosition();
-        Vector3f negativeCameraPos = new Vector3f(-cameraPos.x, -cameraPos.y - PLAYER_HEIGHT, -cameraPos.z); // Negative Kamera-Position, um die Welt in die entgegengesetzte Richtung zu bewegen, um Bewegung simulieren.
-        viewMatrix.translate(negativeCameraPos);
-        return viewMatrix;
+        return dest.rotationX((float) Math.toRadians(camera.getPitch()))
+                .rotateY((float) Math.toRadians(camera.getYaw()))
+                // Negative Kamera-Position, um die Welt in die entgegengesetzte Richtung zu bewegen, um Bewegung simulieren.
+                .translate(-cameraPos.x, -cameraPos.y - PLAYER_HEIGHT, -cameraPos.z);
     }
 
     /**
-     * @param p1
-     * @param p2
-     * @param p3
-     * @param pos
-     * @return
+     * Interpoliert die Höhe (y) an einer Position innerhalb eines Dreiecks mithilfe baryzentrischer Koordinaten.
+     *
+     * @param p1  der erste Eckpunkt des Dreiecks.
+     * @param p2  der zweite Eckpunkt des Dreiecks.
+     * @param p3  der dritte Eckpunkt des Dreiecks.
+     * @param pos die Position (x, z) innerhalb des Dreiecks.
+     * @return die interpolierte Höhe.
+     * @see Maths#barryCentric(float, float, float, float, float, float, float, float, float, float, float)
      */
     public static float barryCentric(Vector3f p1, Vector3f p2, Vector3f p3, Vector2f pos) {
-        float det = (p2.z - p3.z) * (p1.x - p3.x) + (p3.x - p2.x) * (p1.z - p3.z);
-        float l1 = ((p2.z - p3.z) * (pos.x - p3.x) + (p3.x - p2.x) * (pos.y - p3.z)) / det;
-        float l2 = ((p3.z - p1.z) * (pos.x - p3.x) + (p1.x - p3.x) * (pos.y - p3.z)) / det;
+        return barryCentric(p1.x, p1.y, p1.z, p2.x, p2.y, p2.z, p3.x, p3.y, p3.z, pos.x, pos.y);
+    }
+
+    /**
+     * Interpoliert die Höhe (y) an einer Position innerhalb eines Dreiecks mithilfe baryzentrischer Koordinaten.
+     * Anders als {@link #barryCentric(Vector3f, Vector3f, Vector3f, Vector2f)} werden die Eckpunkte direkt als
+     * Floats übergeben, sodass der Aufrufer keine Vektoren erstellen muss.
+     *
+     * @return die interpolierte Höhe an der Position (posX, posZ).
+     */
+    public static float barryCentric(float p1x, float p1y, float p1z, float p2x, float p2y, float p2z,
+                                     float p3x, float p3y, float p3z, float posX, float posZ) {
+        float det = (p2z - p3z) * (p1x - p3x) + (p3x - p2x) * (p1z - p3z);
+        float l1 = ((p2z - p3z) * (posX - p3x) + (p3x - p2x) * (posZ - p3z)) / det;
+        float l2 = ((p3z - p1z) * (posX - p3x) + (p1x - p3x) * (posZ - p3z)) / det;
         float l3 = 1.0f - l1 - l2;
-        return l1 * p1.y + l2 * p2.y + l3 * p3.y;
+        return l1 * p1y + l2 * p2y + l3 * p3y;
     }
 
 }
@@ -0,0 +1,86 @@
+package de.gabriel.engine.utils;
+
+import java.util.Arrays;
+
+/**
+ * Sortiert 64-Bit Schlüssel (vorzeichenlos) zusammen mit einem Wert pro Schlüssel per LSD Radix Sort in 8 Durchläufen
+ * zu je 8 Bit. Die Histogramme aller Durchläufe werden in einem einzigen Lesedurchlauf erstellt; Durchläufe, in denen
+ * alle Schlüssel dieselbe Ziffer haben (z.B. ungenutzte hohe Bits), werden übersprungen. Die Sortierung ist stabil
+ * und legt keine Objekte an.
+ */
+public final class RadixSort {
+
+    private static final int RADIX_BITS = 8;
+
+    private static final int BUCKETS = 1 << RADIX_BITS;
+
+    private static final int PASSES = Long.SIZE / RADIX_BITS;
+
+    private RadixSort() {
+    }
+
+    /**
+     * Sortiert die ersten {@code count} Schlüssel aufsteigend (vorzeichenlos) und ordnet die Werte gleich um.
+     *
+     * @param keys        die Schlüssel.
+     * @param values      der Wert zu jedem Schlüssel.
+     * @param count       die Anzahl der zu sortierenden Einträge.
+     * @param keyBuffer   ein Puffer mit mindestens {@code count} Einträgen.
+     * @param valueBuffer ein Puffer mit mindestens {@code count} Einträgen.
+     * @param histograms  ein Puffer mit mindestens {@code 8 · 256} Einträgen für die Histogramme.
+     */
+    public static void sort(long[] keys, int[] values, int count, long[] keyBuffer, int[] valueBuffer, int[] histograms) {
+        if (count < 2) {
+            return;
+        }
+        Arrays.fill(histograms, 0, PASSES * BUCKETS, 0);
+        for (int i = 0; i < count; i++) {
+            long key = keys[i];
+            for (int pass = 0; pass < PASSES; pass++) {
+                histograms[pass * BUCKETS + ((int) (key >>> (pass * RADIX_BITS)) & (BUCKETS - 1))]++;
+            }
+        }
+        long[] sourceKeys = keys;
+        int[] sourceValues = values;
+        long[] targetKeys = keyBuffer;
+        int[] targetValues = valueBuffer;
+        for (int pass = 0; pass < PASSES; pass++) {
+            int offset = pass * BUCKETS;
+            int shift = pass * RADIX_BITS;
+            if (histograms[offset + ((int) (sourceKeys[0] >>> shift) & (BUCKETS - 1))] == count) {
+                continue; // Alle Schlüssel haben dieselbe Ziffer
+            }
+            // Histogramm in Startpositionen umrechnen
+            int position = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                int bucketCount = histograms[offset + bucket];
+                histograms[offset + bucket] = position;
+                position += bucketCount;
+            }
+            for (int i = 0; i < count; i++) {
+                long key = sourceKeys[i];
+                int target = histograms[offset + ((int) (key >>> shift) & (BUCKETS - 1))]++;
+                targetKeys[target] = key;
+                targetValues[target] = sourceValues[i];
+            }
+            long[] swapKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swapKeys;
+            int[] swapValues = sourceValues;
+            sourceValues = targetValues;
+            targetValues = swapValues;
+        }
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, count);
+            System.arraycopy(sourceValues, 0, values, 0, count);
+        }
+    }
+
+    /**
+     * @return die Anzahl der Einträge, die der Puffer für die Histogramme mindestens haben muss.
+     */
+    public static int histogramLength() {
+        return PASSES * BUCKETS;
+    }
+
+}
@@ -0,0 +1,78 @@
+package de.gabriel.engine.vegetation;
+
+import de.gabriel.engine.textures.TextureData;
+
+/**
+ * Eine Kopie der Blend Map im Hauptspeicher, aus der die Dichte der Vegetation gelesen wird. Die Blend Map spannt
+ * wie im Terrain Shader genau eine Kachel auf: die Texturkoordinaten (0, 0) liegen am Ursprung der Kachel, (1, 1) an
+ * der gegenüberliegenden Ecke. Da alle Kacheln dieselbe Blend Map verwenden, wiederholt sie sich mit jeder Kachel.
+ * <p>
+ * Gespeichert werden nur die Farbkanäle (3 Bytes pro Pixel). Abfragen legen keine Objekte an und können von
+ * mehreren Threads gleichzeitig gestellt werden.
+ * </p>
+ */
+public class DensityMap {
+
+    private final byte[] pixels;
+
+    private final int width;
+
+    private final int height;
+
+    /**
+     * @param pixels die Farbkanäle (RGB) der Pixel, zeilenweise; das Array wird nicht kopiert.
+     * @param width  die Breite in Pixeln.
+     * @param height die Höhe in Pixeln.
+     * @throws IllegalArgumentException wenn die Anzahl der Bytes nicht zur Größe passt.
+     */
+    public DensityMap(byte[] pixels, int width, int height) {
+        if (width < 1 || height < 1 || pixels.length != width * height * 3) {
+            throw new IllegalArgumentException("Expected " + width + "x" + height + " RGB pixels but got "
+                    + pixels.length + " bytes");
+        }
+        this.pixels = pixels;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Kopiert die Farbkanäle eines dekodierten Bildes (RGBA, 4 Bytes pro Pixel).
+     *
+     * @param image das dekodierte Bild.
+     * @return die Density Map.
+     * @see de.gabriel.engine.converter.AssetManager#decodeTexture(String)
+     */
+    public static DensityMap of(TextureData image) {
+        byte[] pixels = new byte[image.width() * image.height() * 3];
+        for (int i = 0; i < image.width() * image.height(); i++) {
+            pixels[i * 3] = image.buffer().get(i * 4);
+            pixels[i * 3 + 1] = image.buffer().get(i * 4 + 1);
+            pixels[i * 3 + 2] = image.buffer().get(i * 4 + 2);
+        }
+        return new DensityMap(pixels, image.width(), image.height());
+    }
+
+    /**
+     * Gibt die Dichte einer Vegetation an einer Stelle der Blend Map zurück (nächster Pixel).
+     *
+     * @param layer die Vegetation.
+     * @param u     die X Position auf der Blend Map (0 bis 1, wird geklemmt).
+     * @param v     die Y Position auf der Blend Map (0 bis 1, wird geklemmt).
+     * @return die Anzahl an Instanzen pro Quadrateinheit.
+     */
+    public float density(VegetationLayer layer, float u, float v) {
+        int x = Math.min(Math.max((int) (u * width), 0), width - 1);
+        int y = Math.min(Math.max((int) (v * height), 0), height - 1);
+        int pixel = (y * width + x) * 3;
+        return layer.density((pixels[pixel] & 0xFF) / 255f, (pixels[pixel + 1] & 0xFF) / 255f,
+                (pixels[pixel + 2] & 0xFF) / 255f);
+    }
+
+    /**
+     * @return der Speicher, den die Pixel belegen, in Bytes.
+     */
+    public long getMemoryBytes() {
+        return pixels.length;
+    }
+
+}
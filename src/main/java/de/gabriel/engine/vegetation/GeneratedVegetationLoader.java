@@ -0,0 +1,62 @@
+package de.gabriel.engine.vegetation;
+
+import de.gabriel.engine.converter.AssetManager;
+import de.gabriel.engine.converter.Loader;
+import de.gabriel.engine.terrain.HeightField;
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Erzeugt die Chunks eines {@link VegetationField}s mit einem {@link VegetationGenerator} auf den Worker-Threads des
+ * {@link AssetManager}s und lädt die Instanzen jeder Vegetation über seine Warteschlange in ein eigenes Instanz-VBO.
+ */
+public class GeneratedVegetationLoader implements VegetationChunkLoader {
+
+    private final AssetManager assets;
+
+    private final Loader loader;
+
+    private final VegetationGenerator generator;
+
+    /**
+     * @param assets    der Asset Manager, auf dessen Worker-Threads erzeugt wird.
+     * @param loader    der Loader, mit dem hochgeladen und freigegeben wird.
+     * @param generator verteilt die Instanzen.
+     */
+    public GeneratedVegetationLoader(AssetManager assets, Loader loader, VegetationGenerator generator) {
+        this.assets = assets;
+        this.loader = loader;
+        this.generator = generator;
+    }
+
+    @Override
+    public CompletableFuture<VegetationChunk> load(int chunkX, int chunkZ, HeightField heights) {
+        return assets.submit(() -> generator.generate(chunkX, chunkZ, heights), this::upload);
+    }
+
+    private VegetationChunk upload(VegetationChunk chunk) {
+        for (int layer = 0; layer < chunk.getLayerCount(); layer++) {
+            VegetationInstances instances = chunk.getInstances(layer);
+            if (instances.getCount() == 0) {
+                continue;
+            }
+            ByteBuffer buffer = BufferUtils.createByteBuffer(instances.getCount() * VegetationInstances.BYTES_PER_INSTANCE);
+            instances.put(buffer);
+            chunk.setVbo(layer, loader.loadStaticVbo(buffer.flip()));
+        }
+        return chunk;
+    }
+
+    @Override
+    public void unload(VegetationChunk chunk) {
+        for (int layer = 0; layer < chunk.getLayerCount(); layer++) {
+            if (chunk.getVbo(layer) != 0) {
+                loader.deleteVbo(chunk.getVbo(layer));
+                chunk.setVbo(layer, 0);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+package de.gabriel.engine.vegetation;
+
+import lombok.Getter;
+
+/**
+ * Ein quadratischer Ausschnitt der Welt mit der Seitenlänge {@link #SIZE} und den Instanzen aller Vegetationen darin.
+ * Ein Chunk liegt immer vollständig in einer Kachel des Terrains, da {@link #SIZE} die Seitenlänge einer Kachel
+ * teilt.
+ * <p>
+ * Die Instanzen einer Vegetation werden einmal in ein eigenes Instanz-VBO geladen und danach mit einem Draw Call pro
+ * Chunk gerendert, ohne pro Frame Daten hochzuladen.
+ * </p>
+ *
+ * @see VegetationGenerator
+ */
+public class VegetationChunk {
+
+    /**
+     * Die Seitenlänge eines Chunks in Weltkoordinaten.
+     */
+    public static final float SIZE = 50;
+
+    /**
+     * Die X Position des Chunks im Raster der Chunks.
+     */
+    @Getter
+    private final int chunkX;
+
+    /**
+     * Die Z Position des Chunks im Raster der Chunks.
+     */
+    @Getter
+    private final int chunkZ;
+
+    /**
+     * Die Instanzen pro Vegetation, in der Reihenfolge der Vegetationen im {@link VegetationGenerator}.
+     */
+    private final VegetationInstances[] layers;
+
+    /**
+     * Die IDs der Instanz-VBOs pro Vegetation, oder 0, solange sie nicht hochgeladen sind (oder keine Instanzen hat).
+     */
+    private final int[] vbos;
+
+    /**
+     * Die kleinste und größte Höhe des Bodens unter den Instanzen.
+     */
+    @Getter
+    private final float minY, maxY;
+
+    /**
+     * @param chunkX die X Position des Chunks im Raster der Chunks.
+     * @param chunkZ die Z Position des Chunks im Raster der Chunks.
+     * @param layers die Instanzen pro Vegetation; das Array wird nicht kopiert.
+     */
+    public VegetationChunk(int chunkX, int chunkZ, VegetationInstances[] layers) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.layers = layers;
+        this.vbos = new int[layers.length];
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (VegetationInstances instances : layers) {
+            if (instances.getCount() > 0) {
+                min = Math.min(min, instances.getDecode().offsetY() - instances.getDecode().scaleY());
+                max = Math.max(max, instances.getDecode().offsetY() + instances.getDecode().scaleY());
+            }
+        }
+        this.minY = min <= max ? min : 0;
+        this.maxY = min <= max ? max : 0;
+    }
+
+    /**
+     * @param layer der Index der Vegetation.
+     * @return die Instanzen der Vegetation in diesem Chunk.
+     */
+    public VegetationInstances getInstances(int layer) {
+        return layers[layer];
+    }
+
+    /**
+     * @return die Anzahl der Vegetationen.
+     */
+    public int getLayerCount() {
+        return layers.length;
+    }
+
+    /**
+     * @param layer der Index der Vegetation.
+     * @return die ID des Instanz-VBOs der Vegetation, oder 0, wenn es keines gibt.
+     */
+    public int getVbo(int layer) {
+        return vbos[layer];
+    }
+
+    /**
+     * @param layer der Index der Vegetation.
+     * @param vbo   die ID des Instanz-VBOs der Vegetation.
+     */
+    public void setVbo(int layer, int vbo) {
+        vbos[layer] = vbo;
+    }
+
+    /**
+     * @return die X Position der Ecke mit den kleinsten Koordinaten in Weltkoordinaten.
+     */
+    public float getOriginX() {
+        return chunkX * SIZE;
+    }
+
+    /**
+     * @return die Z Position der Ecke mit den kleinsten Koordinaten in Weltkoordinaten.
+     */
+    public float getOriginZ() {
+        return chunkZ * SIZE;
+    }
+
+    /**
+     * @return die Anzahl der Instanzen aller Vegetationen.
+     */
+    public int getInstanceCount() {
+        int count = 0;
+        for (VegetationInstances instances : layers) {
+            count += instances.getCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return der Speicher, den die Instanzen im Hauptspeicher belegen, in Bytes.
+     */
+    public long getMemoryBytes() {
+        long bytes = 0;
+        for (VegetationInstances instances : layers) {
+            bytes += instances.getMemoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Der horizontale Abstand einer Position zum Chunk (0 innerhalb).
+     *
+     * @param x die X Position in Weltkoordinaten.
+     * @param z die Z Position in Weltkoordinaten.
+     * @return der Abstand in der XZ-Ebene.
+     */
+    public float distanceTo(float x, float z) {
+        return distance(chunkX, chunkZ, x, z);
+    }
+
+    /**
+     * Der horizontale Abstand einer Position zu einem Chunk im Raster (0 innerhalb).
+     *
+     * @param chunkX die X Position des Chunks im Raster der Chunks.
+     * @param chunkZ die Z Position des Chunks im Raster der Chunks.
+     * @param x      die X Position in Weltkoordinaten.
+     * @param z      die Z Position in Weltkoordinaten.
+     * @return der Abstand in der XZ-Ebene.
+     */
+    public static float distance(int chunkX, int chunkZ, float x, float z) {
+        float dx = Math.max(Math.max(chunkX * SIZE - x, x - (chunkX + 1) * SIZE), 0);
+        float dz = Math.max(Math.max(chunkZ * SIZE - z, z - (chunkZ + 1) * SIZE), 0);
+        return (float) Math.sqrt(dx * dx + dz * dz);
+    }
+
+    /**
+     * Die Position des Chunks im Raster, in dem eine Koordinate liegt.
+     *
+     * @param coordinate die X oder Z Position in Weltkoordinaten.
+     * @return die Position im Raster der Chunks.
+     */
+    public static int toGrid(float coordinate) {
+        return (int) Math.floor(coordinate / SIZE);
+    }
+
+}
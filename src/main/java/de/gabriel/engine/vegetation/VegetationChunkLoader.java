@@ -0,0 +1,35 @@
+package de.gabriel.engine.vegetation;
+
+import de.gabriel.engine.terrain.HeightField;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Erzeugt die Chunks eines {@link VegetationField}s und gibt sie wieder frei. Wie bei den Kacheln des Terrains
+ * entscheidet das Feld nur, welche Chunks geladen und verworfen werden; so lassen sich die Entscheidungen auch ohne
+ * OpenGL mit einem Loader prüfen, der die Futures selbst erfüllt.
+ *
+ * @see de.gabriel.engine.terrain.TerrainTileLoader
+ */
+public interface VegetationChunkLoader {
+
+    /**
+     * Startet das Erzeugen eines Chunks. Wird auf dem Thread mit dem OpenGL-Context aufgerufen und darf nicht
+     * blockieren.
+     *
+     * @param chunkX  die X Position des Chunks im Raster der Chunks.
+     * @param chunkZ  die Z Position des Chunks im Raster der Chunks.
+     * @param heights die Höhen der Kachel, in der der Chunk liegt.
+     * @return der Chunk, sobald er hochgeladen wurde.
+     */
+    CompletableFuture<VegetationChunk> load(int chunkX, int chunkZ, HeightField heights);
+
+    /**
+     * Gibt einen geladenen Chunk frei, der nicht mehr gebraucht wird. Wird auf dem Thread mit dem OpenGL-Context
+     * aufgerufen.
+     *
+     * @param chunk der Chunk.
+     */
+    void unload(VegetationChunk chunk);
+
+}
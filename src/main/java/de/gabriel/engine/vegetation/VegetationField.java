@@ -0,0 +1,304 @@
+package de.gabriel.engine.vegetation;
+
+import de.gabriel.engine.terrain.Terrain;
+import de.gabriel.engine.terrain.TerrainWorld;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Die Vegetation um die Kamera, aufgeteilt in {@link VegetationChunk}s, die bei Bedarf erzeugt und hinter der Kamera
+ * wieder verworfen werden.
+ * <p>
+ * {@link #update(float, float)} wird einmal pro Frame auf dem Thread mit dem OpenGL-Context aufgerufen. Alle Chunks,
+ * deren horizontaler Abstand zur Kamera höchstens {@link #loadRadius} beträgt (die größte
+ * {@link VegetationLayer#drawDistance()}), werden über den {@link VegetationChunkLoader} angefordert, Ring für Ring von
+ * der Kamera aus und höchstens {@link #maxPendingLoads} gleichzeitig. Ein Chunk wird erst angefordert, wenn die Kachel
+ * des Terrains, in der er liegt, geladen ist. Verworfen werden Chunks erst ab einem Abstand von
+ * {@link #evictRadius}, damit eine Kamera an der Grenze nicht ständig lädt und verwirft.
+ * </p>
+ * <p>
+ * Wie die {@link TerrainWorld} verwendet das Feld selbst kein OpenGL.
+ * </p>
+ */
+@Slf4j
+public class VegetationField {
+
+    /**
+     * Ein angeforderter Chunk; {@link #chunk} ist null, solange er erzeugt wird.
+     */
+    private static final class Slot {
+
+        private final int chunkX;
+
+        private final int chunkZ;
+
+        private final CompletableFuture<VegetationChunk> future;
+
+        private VegetationChunk chunk;
+
+        private Slot(int chunkX, int chunkZ, CompletableFuture<VegetationChunk> future) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.future = future;
+        }
+
+    }
+
+    /**
+     * Die Vegetationen in der Reihenfolge der Instanzen in den Chunks.
+     */
+    @Getter
+    private final List<VegetationLayer> layers;
+
+    private final VegetationChunkLoader chunkLoader;
+
+    /**
+     * Die Welt, aus deren Kacheln die Höhen der Chunks stammen.
+     */
+    private final TerrainWorld world;
+
+    /**
+     * Der horizontale Abstand zur Kamera, bis zu dem Chunks geladen werden.
+     */
+    @Getter
+    private final float loadRadius;
+
+    /**
+     * Der horizontale Abstand zur Kamera, ab dem (exklusive) Chunks verworfen werden.
+     */
+    @Getter
+    private final float evictRadius;
+
+    /**
+     * Die Anzahl der Chunks, die höchstens gleichzeitig erzeugt werden.
+     */
+    @Getter
+    private final int maxPendingLoads;
+
+    /**
+     * Alle angeforderten Chunks (geladen oder noch ladend), nach {@link #key(int, int)}.
+     */
+    private final Map<Long, Slot> slots = new HashMap<Long, Slot>();
+
+    /**
+     * Chunks, deren Erzeugen fehlgeschlagen ist. Sie werden nicht erneut angefordert.
+     */
+    private final Set<Long> failedChunks = new HashSet<Long>();
+
+    /**
+     * Die geladenen Chunks; eine Liste, damit der Renderer pro Frame nicht über die Map iterieren muss.
+     */
+    private final List<VegetationChunk> chunks = new ArrayList<VegetationChunk>();
+
+    /**
+     * Verworfene Chunks, die noch erzeugt werden und freigegeben werden, sobald sie fertig sind.
+     */
+    private final List<Slot> abandonedSlots = new ArrayList<Slot>();
+
+    /**
+     * Die Anzahl der Chunks, die gerade erzeugt werden (inklusive der bereits verworfenen).
+     */
+    @Getter
+    private int pendingLoads;
+
+    /**
+     * Die Anzahl der Instanzen aller geladenen Chunks.
+     */
+    @Getter
+    private long residentInstances;
+
+    /**
+     * Der Speicher der Instanzen aller geladenen Chunks in Bytes (siehe {@link VegetationChunk#getMemoryBytes()}).
+     */
+    @Getter
+    private long residentBytes;
+
+    /**
+     * @param layers          die Vegetationen in der Reihenfolge der Instanzen in den Chunks.
+     * @param chunkLoader     erzeugt und entfernt die Chunks.
+     * @param world           die Welt, aus deren Kacheln die Höhen der Chunks stammen.
+     * @param maxPendingLoads die Anzahl der Chunks, die höchstens gleichzeitig erzeugt werden.
+     * @throws IllegalArgumentException wenn es keine Vegetation gibt oder nie ein Chunk erzeugt werden dürfte.
+     */
+    public VegetationField(List<VegetationLayer> layers, VegetationChunkLoader chunkLoader, TerrainWorld world,
+                           int maxPendingLoads) {
+        if (layers.isEmpty() || maxPendingLoads < 1) {
+            throw new IllegalArgumentException("Invalid vegetation field: layers=" + layers.size()
+                    + ", maxPendingLoads=" + maxPendingLoads);
+        }
+        this.layers = List.copyOf(layers);
+        this.chunkLoader = chunkLoader;
+        this.world = world;
+        this.maxPendingLoads = maxPendingLoads;
+        float drawDistance = 0;
+        for (VegetationLayer layer : layers) {
+            drawDistance = Math.max(drawDistance, layer.drawDistance());
+        }
+        this.loadRadius = drawDistance;
+        this.evictRadius = drawDistance + VegetationChunk.SIZE;
+    }
+
+    /**
+     * Übernimmt fertig erzeugte Chunks, verwirft Chunks außerhalb von {@link #evictRadius} und fordert fehlende
+     * Chunks innerhalb von {@link #loadRadius} an. Muss auf dem Thread mit dem OpenGL-Context aufgerufen werden.
+     *
+     * @param cameraX die X Position der Kamera.
+     * @param cameraZ die Z Position der Kamera.
+     */
+    public void update(float cameraX, float cameraZ) {
+        collectLoadedChunks();
+        evictDistantChunks(cameraX, cameraZ);
+        requestMissingChunks(cameraX, cameraZ);
+    }
+
+    /**
+     * Übernimmt alle Chunks, deren Erzeugen abgeschlossen ist, und gibt fertige verworfene Chunks frei.
+     */
+    private void collectLoadedChunks() {
+        for (Iterator<Slot> iterator = slots.values().iterator(); iterator.hasNext(); ) {
+            Slot slot = iterator.next();
+            if (slot.chunk != null || !slot.future.isDone()) {
+                continue;
+            }
+            pendingLoads--;
+            VegetationChunk chunk = joinQuietly(slot);
+            if (chunk == null) {
+                iterator.remove();
+                failedChunks.add(key(slot.chunkX, slot.chunkZ));
+                continue;
+            }
+            slot.chunk = chunk;
+            chunks.add(chunk);
+            residentInstances += chunk.getInstanceCount();
+            residentBytes += chunk.getMemoryBytes();
+        }
+        for (Iterator<Slot> iterator = abandonedSlots.iterator(); iterator.hasNext(); ) {
+            Slot slot = iterator.next();
+            if (slot.future.isDone()) {
+                iterator.remove();
+                pendingLoads--;
+                VegetationChunk chunk = joinQuietly(slot);
+                if (chunk != null) {
+                    chunkLoader.unload(chunk);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verwirft alle Chunks, die weiter als {@link #evictRadius} von der Kamera entfernt sind.
+     */
+    private void evictDistantChunks(float cameraX, float cameraZ) {
+        for (Iterator<Slot> iterator = slots.values().iterator(); iterator.hasNext(); ) {
+            Slot slot = iterator.next();
+            if (VegetationChunk.distance(slot.chunkX, slot.chunkZ, cameraX, cameraZ) <= evictRadius) {
+                continue;
+            }
+            iterator.remove();
+            if (slot.chunk == null) {
+                abandonedSlots.add(slot); // Wird freigegeben, sobald das Erzeugen abgeschlossen ist
+                continue;
+            }
+            evict(slot.chunk);
+        }
+    }
+
+    /**
+     * Meldet einen geladenen Chunk ab und gibt ihn frei.
+     */
+    private void evict(VegetationChunk chunk) {
+        chunks.remove(chunk);
+        residentInstances -= chunk.getInstanceCount();
+        residentBytes -= chunk.getMemoryBytes();
+        chunkLoader.unload(chunk);
+    }
+
+    /**
+     * Fordert fehlende Chunks innerhalb von {@link #loadRadius} an, Ring für Ring vom Chunk der Kamera aus, bis
+     * {@link #maxPendingLoads} Chunks gleichzeitig erzeugt werden.
+     */
+    private void requestMissingChunks(float cameraX, float cameraZ) {
+        int centerX = VegetationChunk.toGrid(cameraX);
+        int centerZ = VegetationChunk.toGrid(cameraZ);
+        int rings = (int) Math.ceil(loadRadius / VegetationChunk.SIZE);
+        for (int ring = 0; ring <= rings; ring++) {
+            for (int dz = -ring; dz <= ring; dz++) {
+                // Innerhalb des Rings nur die Kanten; das Innere gehört zu kleineren Ringen
+                int stepX = dz == -ring || dz == ring ? 1 : Math.max(2 * ring, 1);
+                for (int dx = -ring; dx <= ring; dx += stepX) {
+                    if (pendingLoads >= maxPendingLoads) {
+                        return;
+                    }
+                    int chunkX = centerX + dx;
+                    int chunkZ = centerZ + dz;
+                    long key = key(chunkX, chunkZ);
+                    if (slots.containsKey(key) || failedChunks.contains(key)
+                            || VegetationChunk.distance(chunkX, chunkZ, cameraX, cameraZ) > loadRadius) {
+                        continue;
+                    }
+                    // Die Mitte des Chunks liegt sicher in der Kachel, zu der der Chunk gehört
+                    Terrain terrain = world.getTerrainAt((chunkX + 0.5f) * VegetationChunk.SIZE,
+                            (chunkZ + 0.5f) * VegetationChunk.SIZE);
+                    if (terrain == null) {
+                        continue; // Wird angefordert, sobald die Kachel geladen ist
+                    }
+                    slots.put(key, new Slot(chunkX, chunkZ, chunkLoader.load(chunkX, chunkZ, terrain.getHeightField())));
+                    pendingLoads++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gibt das Ergebnis eines abgeschlossenen Erzeugens zurück, oder null (mit Log), wenn es fehlgeschlagen ist.
+     */
+    private static VegetationChunk joinQuietly(Slot slot) {
+        try {
+            return slot.future.join();
+        } catch (RuntimeException e) {
+            log.error("Failed to generate vegetation chunk; {[ChunkX={}], [ChunkZ={}]}", slot.chunkX, slot.chunkZ, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return die geladenen Chunks (nicht veränderbar).
+     */
+    public List<VegetationChunk> getChunks() {
+        return Collections.unmodifiableList(chunks);
+    }
+
+    /**
+     * Verwirft alle geladenen Chunks. Chunks, die noch erzeugt werden, werden in späteren Aufrufen von
+     * {@link #update(float, float)} freigegeben.
+     */
+    public void cleanUp() {
+        for (Iterator<Slot> iterator = slots.values().iterator(); iterator.hasNext(); ) {
+            Slot slot = iterator.next();
+            iterator.remove();
+            if (slot.chunk == null) {
+                abandonedSlots.add(slot);
+            } else {
+                evict(slot.chunk);
+            }
+        }
+    }
+
+    /**
+     * Der Schlüssel eines Chunks in {@link #slots}.
+     */
+    private static long key(int chunkX, int chunkZ) {
+        return (long) chunkX << 32 | (chunkZ & 0xFFFFFFFFL);
+    }
+
+}
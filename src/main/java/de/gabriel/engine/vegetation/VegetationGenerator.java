@@ -0,0 +1,149 @@
+package de.gabriel.engine.vegetation;
+
+import de.gabriel.engine.converter.vertex.VertexPacker;
+import de.gabriel.engine.models.PositionDecode;
+import de.gabriel.engine.terrain.HeightField;
+import de.gabriel.engine.terrain.Terrain;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Verteilt die Instanzen aller Vegetationen in einem {@link VegetationChunk}.
+ * <p>
+ * Jeder Chunk wird in ein Raster aus Zellen geteilt, in dem jede Zelle im Mittel eine Instanz bei der größten Dichte
+ * der Vegetation enthält. Pro Zelle wird eine zufällige Position gewählt und mit der Wahrscheinlichkeit
+ * {@code Dichte · Zellfläche} angenommen; die Dichte stammt aus der {@link DensityMap}. Dadurch liegen Instanzen
+ * gleichmäßiger verteilt als bei rein zufälligen Positionen und es gibt nie mehr Kandidaten als Zellen. Die Höhen
+ * aller angenommenen Positionen werden mit einer einzigen Abfrage an das {@link HeightField} bestimmt.
+ * </p>
+ * <p>
+ * Die Zufallszahlen eines Chunks hängen nur vom Seed, der Position des Chunks und dem Index der Vegetation ab. Chunks
+ * lassen sich daher in beliebiger Reihenfolge und parallel erzeugen, verwerfen und erneut erzeugen, und ergeben
+ * immer dieselben Instanzen. Der Generator verwendet kein OpenGL.
+ * </p>
+ */
+public class VegetationGenerator {
+
+    /**
+     * Der Seed; gleiche Seeds ergeben gleiche Vegetation.
+     */
+    @Getter
+    private final long seed;
+
+    /**
+     * Die Dichten der Vegetationen.
+     */
+    private final DensityMap densityMap;
+
+    /**
+     * Die Vegetationen.
+     */
+    @Getter
+    private final List<VegetationLayer> layers;
+
+    /**
+     * @param seed       der Seed.
+     * @param densityMap die Kopie der Blend Map, aus der die Dichten gelesen werden.
+     * @param layers     die Vegetationen.
+     */
+    public VegetationGenerator(long seed, DensityMap densityMap, List<VegetationLayer> layers) {
+        this.seed = seed;
+        this.densityMap = densityMap;
+        this.layers = List.copyOf(layers);
+    }
+
+    /**
+     * Erzeugt die Instanzen aller Vegetationen eines Chunks. Kann von mehreren Threads gleichzeitig aufgerufen werden.
+     *
+     * @param chunkX  die X Position des Chunks im Raster der Chunks.
+     * @param chunkZ  die Z Position des Chunks im Raster der Chunks.
+     * @param heights die Höhen der Kachel, in der der Chunk liegt.
+     * @return der Chunk.
+     */
+    public VegetationChunk generate(int chunkX, int chunkZ, HeightField heights) {
+        VegetationInstances[] instances = new VegetationInstances[layers.size()];
+        for (int layer = 0; layer < instances.length; layer++) {
+            instances[layer] = generate(layer, chunkX, chunkZ, heights);
+        }
+        return new VegetationChunk(chunkX, chunkZ, instances);
+    }
+
+    private VegetationInstances generate(int layerIndex, int chunkX, int chunkZ, HeightField heights) {
+        VegetationLayer layer = layers.get(layerIndex);
+        float maxDensity = layer.maxDensity();
+        if (maxDensity <= 0) {
+            return VegetationInstances.EMPTY;
+        }
+        int cells = Math.max(Math.round(VegetationChunk.SIZE * (float) Math.sqrt(maxDensity)), 1); // Zellen pro Seite
+        float cellSize = VegetationChunk.SIZE / cells;
+        float cellArea = cellSize * cellSize;
+        float originX = chunkX * VegetationChunk.SIZE;
+        float originZ = chunkZ * VegetationChunk.SIZE;
+        // Die Blend Map wiederholt sich mit jeder Kachel
+        float tileX = (float) Math.floor(originX / Terrain.SIZE) * Terrain.SIZE;
+        float tileZ = (float) Math.floor(originZ / Terrain.SIZE) * Terrain.SIZE;
+        int variants = layer.variants();
+
+        SplittableRandom random = new SplittableRandom(chunkSeed(seed, chunkX, chunkZ, layerIndex));
+        float[] xs = new float[cells * cells];
+        float[] zs = new float[cells * cells];
+        byte[] attributes = new byte[cells * cells * 3];
+        int count = 0;
+        for (int cellZ = 0; cellZ < cells; cellZ++) {
+            for (int cellX = 0; cellX < cells; cellX++) {
+                float x = originX + (cellX + (float) random.nextDouble()) * cellSize;
+                float z = originZ + (cellZ + (float) random.nextDouble()) * cellSize;
+                float density = densityMap.density(layer, (x - tileX) / Terrain.SIZE, (z - tileZ) / Terrain.SIZE);
+                if (random.nextDouble() >= density * cellArea) {
+                    continue;
+                }
+                xs[count] = x;
+                zs[count] = z;
+                attributes[count * 3] = (byte) random.nextInt(256); // Rotation
+                attributes[count * 3 + 1] = (byte) random.nextInt(256); // Skalierung
+                attributes[count * 3 + 2] = (byte) random.nextInt(variants); // Textur im Texturatlas
+                count++;
+            }
+        }
+        if (count == 0) {
+            return VegetationInstances.EMPTY;
+        }
+        xs = Arrays.copyOf(xs, count);
+        zs = Arrays.copyOf(zs, count);
+        float[] ys = new float[count];
+        heights.heightsAt(xs, zs, ys);
+
+        float minY = Float.POSITIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        float half = VegetationChunk.SIZE / 2;
+        // Auf flachem Boden würde die halbe Ausdehnung 0; eine Einheit hält die Umrechnung definiert
+        PositionDecode decode = new PositionDecode(originX + half, (minY + maxY) / 2, originZ + half,
+                half, Math.max((maxY - minY) / 2, 1), half);
+        short[] positions = new short[count * 3];
+        for (int i = 0; i < count; i++) {
+            positions[i * 3] = VertexPacker.quantizeSnorm16((xs[i] - decode.offsetX()) / decode.scaleX());
+            positions[i * 3 + 1] = VertexPacker.quantizeSnorm16((ys[i] - decode.offsetY()) / decode.scaleY());
+            positions[i * 3 + 2] = VertexPacker.quantizeSnorm16((zs[i] - decode.offsetZ()) / decode.scaleZ());
+        }
+        return new VegetationInstances(count, positions, Arrays.copyOf(attributes, count * 3), decode);
+    }
+
+    /**
+     * Bildet den Seed der Zufallszahlen einer Vegetation in einem Chunk.
+     */
+    private static long chunkSeed(long seed, int chunkX, int chunkZ, int layer) {
+        long hash = seed ^ chunkX * 0xC2B2AE3D27D4EB4FL ^ chunkZ * 0x165667B19E3779F9L ^ layer * 0x9E3779B97F4A7C15L;
+        // Finalizer von SplitMix64, damit benachbarte Chunks unkorrelierte Zufallszahlen bekommen
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+}
@@ -0,0 +1,144 @@
+package de.gabriel.engine.vegetation;
+
+import de.gabriel.engine.converter.vertex.VertexPacker;
+import de.gabriel.engine.models.PositionDecode;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Die Instanzen einer {@link VegetationLayer Vegetation} in einem {@link VegetationChunk}, gespeichert in zwei
+ * primitiven Arrays statt als einzelne Entities:
+ * <ul>
+ *     <li>die Positionen als 16-Bit SNORM relativ zur Bounding Box des Chunks (3 Shorts pro Instanz), die mit
+ *     {@link #getDecode()} wie die quantisierten Positionen eines Modells umgerechnet werden,</li>
+ *     <li>Rotation um die Y-Achse, Skalierung zwischen {@link VegetationLayer#minScale()} und
+ *     {@link VegetationLayer#maxScale()} und Textur im Texturatlas (3 Bytes pro Instanz).</li>
+ * </ul>
+ * Eine Instanz belegt so 9 Bytes im Hauptspeicher und {@link #BYTES_PER_INSTANCE} Bytes im Instanz-VBO.
+ */
+public class VegetationInstances {
+
+    /**
+     * Die Anzahl der Bytes pro Instanz im Instanz-VBO: 4 Shorts (Position und ein ungenutzter Short) und 4 Bytes
+     * (Rotation, Skalierung, Textur und ein ungenutztes Byte), damit jedes Attribut an 4 Bytes ausgerichtet ist.
+     */
+    public static final int BYTES_PER_INSTANCE = 12;
+
+    /**
+     * Keine Instanzen.
+     */
+    public static final VegetationInstances EMPTY = new VegetationInstances(0, new short[0], new byte[0],
+            PositionDecode.IDENTITY);
+
+    /**
+     * Die Anzahl der Instanzen.
+     */
+    @Getter
+    private final int count;
+
+    /**
+     * Die quantisierten Positionen (X, Y, Z pro Instanz).
+     */
+    private final short[] positions;
+
+    /**
+     * Rotation, Skalierung und Textur pro Instanz, jeweils vorzeichenlos gelesen.
+     */
+    private final byte[] attributes;
+
+    /**
+     * Die Umrechnung der quantisierten Positionen in Weltkoordinaten.
+     */
+    @Getter
+    private final PositionDecode decode;
+
+    /**
+     * @param count      die Anzahl der Instanzen.
+     * @param positions  die quantisierten Positionen (3 pro Instanz); das Array wird nicht kopiert.
+     * @param attributes Rotation, Skalierung und Textur (3 pro Instanz); das Array wird nicht kopiert.
+     * @param decode     die Umrechnung der quantisierten Positionen in Weltkoordinaten.
+     */
+    public VegetationInstances(int count, short[] positions, byte[] attributes, PositionDecode decode) {
+        this.count = count;
+        this.positions = positions;
+        this.attributes = attributes;
+        this.decode = decode;
+    }
+
+    /**
+     * @param instance der Index der Instanz.
+     * @return die X Position in Weltkoordinaten.
+     */
+    public float getX(int instance) {
+        return decode.offsetX() + decode.scaleX() * VertexPacker.dequantizeSnorm16(positions[instance * 3]);
+    }
+
+    /**
+     * @param instance der Index der Instanz.
+     * @return die Y Position in Weltkoordinaten.
+     */
+    public float getY(int instance) {
+        return decode.offsetY() + decode.scaleY() * VertexPacker.dequantizeSnorm16(positions[instance * 3 + 1]);
+    }
+
+    /**
+     * @param instance der Index der Instanz.
+     * @return die Z Position in Weltkoordinaten.
+     */
+    public float getZ(int instance) {
+        return decode.offsetZ() + decode.scaleZ() * VertexPacker.dequantizeSnorm16(positions[instance * 3 + 2]);
+    }
+
+    /**
+     * @param instance der Index der Instanz.
+     * @return die Rotation um die Y-Achse in Radiant.
+     */
+    public float getRotation(int instance) {
+        return (attributes[instance * 3] & 0xFF) / 255f * (float) (2 * Math.PI);
+    }
+
+    /**
+     * @param instance der Index der Instanz.
+     * @param layer    die Vegetation der Instanzen.
+     * @return die Skalierung.
+     */
+    public float getScale(int instance, VegetationLayer layer) {
+        float t = (attributes[instance * 3 + 1] & 0xFF) / 255f;
+        return layer.minScale() + t * (layer.maxScale() - layer.minScale());
+    }
+
+    /**
+     * @param instance der Index der Instanz.
+     * @return der Index der Textur im Texturatlas.
+     */
+    public int getTextureIndex(int instance) {
+        return attributes[instance * 3 + 2] & 0xFF;
+    }
+
+    /**
+     * Schreibt die Instanzen im Layout des Instanz-VBOs in einen Buffer.
+     *
+     * @param buffer der Buffer mit mindestens {@code count * BYTES_PER_INSTANCE} freien Bytes.
+     */
+    public void put(ByteBuffer buffer) {
+        for (int i = 0; i < count; i++) {
+            buffer.putShort(positions[i * 3]);
+            buffer.putShort(positions[i * 3 + 1]);
+            buffer.putShort(positions[i * 3 + 2]);
+            buffer.putShort((short) 0);
+            buffer.put(attributes[i * 3]);
+            buffer.put(attributes[i * 3 + 1]);
+            buffer.put(attributes[i * 3 + 2]);
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * @return der Speicher, den die Instanzen im Hauptspeicher belegen, in Bytes.
+     */
+    public long getMemoryBytes() {
+        return positions.length * 2L + attributes.length;
+    }
+
+}
@@ -0,0 +1,55 @@
+package de.gabriel.engine.vegetation;
+
+import de.gabriel.engine.models.TexturedModel;
+
+/**
+ * Dieser Record beschreibt eine Art von Vegetation (z.B. Gras oder Farne): ihr Modell, wie dicht sie abhängig von der
+ * Blend Map wächst und bis zu welchem Abstand zur Kamera sie gerendert wird.
+ * <p>
+ * Die Dichte an einer Position ergibt sich aus den Anteilen der Kanäle der Blend Map an dieser Stelle, gewichtet mit
+ * den Dichten pro Kanal. Der Hintergrund ist der Anteil, der weder rot, grün noch blau ist (wie im Terrain Shader).
+ * </p>
+ *
+ * @param model             das texturierte Modell. Bei einem Texturatlas wird jede Instanz zufällig mit einer seiner
+ *                          Texturen gerendert.
+ * @param backgroundDensity die Anzahl an Instanzen pro Quadrateinheit, wo die Blend Map schwarz ist.
+ * @param redDensity        die Anzahl an Instanzen pro Quadrateinheit, wo die Blend Map rot ist.
+ * @param greenDensity      die Anzahl an Instanzen pro Quadrateinheit, wo die Blend Map grün ist.
+ * @param blueDensity       die Anzahl an Instanzen pro Quadrateinheit, wo die Blend Map blau ist.
+ * @param minScale          die kleinste Skalierung einer Instanz.
+ * @param maxScale          die größte Skalierung einer Instanz.
+ * @param drawDistance      der Abstand zur Kamera, bis zu dem Instanzen gerendert werden.
+ * @param fadeWidth         die Strecke vor {@code drawDistance}, über die Instanzen ausgeblendet werden.
+ */
+public record VegetationLayer(TexturedModel model, float backgroundDensity, float redDensity, float greenDensity,
+                              float blueDensity, float minScale, float maxScale, float drawDistance, float fadeWidth) {
+
+    /**
+     * @return die größte Dichte aller Kanäle.
+     */
+    public float maxDensity() {
+        return Math.max(Math.max(backgroundDensity, redDensity), Math.max(greenDensity, blueDensity));
+    }
+
+    /**
+     * Berechnet die Dichte aus den Anteilen der Kanäle der Blend Map.
+     *
+     * @param red   der rote Anteil (0 bis 1).
+     * @param green der grüne Anteil (0 bis 1).
+     * @param blue  der blaue Anteil (0 bis 1).
+     * @return die Anzahl an Instanzen pro Quadrateinheit.
+     */
+    public float density(float red, float green, float blue) {
+        float background = Math.max(1 - red - green - blue, 0);
+        return background * backgroundDensity + red * redDensity + green * greenDensity + blue * blueDensity;
+    }
+
+    /**
+     * @return die Anzahl der Texturen im Texturatlas des Modells.
+     */
+    public int variants() {
+        int rows = model.texture().getNumberOfRows();
+        return rows * rows;
+    }
+
+}
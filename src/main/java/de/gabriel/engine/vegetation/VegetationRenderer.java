@@ -0,0 +1,134 @@
+package de.gabriel.engine.vegetation;
+
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.profiler.Profiler;
+import de.gabriel.engine.renderer.FrameStatistics;
+import de.gabriel.engine.renderer.GlStateCache;
+import de.gabriel.engine.textures.ModelTexture;
+import de.gabriel.engine.utils.Frustum;
+import lombok.extern.slf4j.Slf4j;
+import org.joml.Vector3f;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+
+import java.util.List;
+
+import static de.gabriel.engine.renderer.backend.RenderBackend.gl;
+import static de.gabriel.engine.vegetation.VegetationShader.INSTANCE_DATA_ATTRIBUTE;
+import static de.gabriel.engine.vegetation.VegetationShader.INSTANCE_POSITION_ATTRIBUTE;
+
+/**
+ * Rendert die Vegetation eines {@link VegetationField}s mit einem Draw Call ({@code glDrawElementsInstanced}) pro
+ * Vegetation und Chunk. Die Instanzen liegen bereits in den Instanz-VBOs der Chunks; pro Draw Call werden nur die
+ * Attribute pro Instanz auf das VBO des Chunks umgebogen. Chunks außerhalb des Frustums oder der Sichtweite der
+ * Vegetation werden übersprungen; innerhalb der Sichtweite blendet der Shader Instanzen zum Rand hin aus.
+ */
+@Slf4j
+public class VegetationRenderer {
+
+    /**
+     * Die Zone des Renderers im {@link Profiler}.
+     */
+    private static final int PROFILER_ZONE = Profiler.zone("VegetationRenderer", true);
+
+    private final VegetationShader shader = new VegetationShader();
+
+    /**
+     * Rendert alle geladenen Chunks eines Feldes.
+     *
+     * @param field          die Vegetation.
+     * @param frustum        das View Frustum der Kamera im aktuellen Frame.
+     * @param cameraPosition die Position der Kamera.
+     */
+    public void render(VegetationField field, Frustum frustum, Vector3f cameraPosition) {
+        List<VegetationChunk> chunks = field.getChunks();
+        if (chunks.isEmpty()) {
+            return;
+        }
+        Profiler.begin(PROFILER_ZONE);
+        shader.start();
+        List<VegetationLayer> layers = field.getLayers();
+        for (int layer = 0; layer < layers.size(); layer++) {
+            renderLayer(layer, layers.get(layer), chunks, frustum, cameraPosition);
+        }
+        shader.stop();
+        Profiler.end(PROFILER_ZONE);
+    }
+
+    private void renderLayer(int layerIndex, VegetationLayer layer, List<VegetationChunk> chunks, Frustum frustum,
+                             Vector3f cameraPosition) {
+        RawModel rawModel = layer.model().rawModel();
+        float reach = rawModel.boundingRadius() * layer.maxScale(); // So weit ragt eine Instanz über ihre Position hinaus
+        boolean prepared = false;
+        int drawnChunks = 0;
+        int instances = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            VegetationChunk chunk = chunks.get(i);
+            int vbo = chunk.getVbo(layerIndex);
+            if (vbo == 0 || chunk.distanceTo(cameraPosition.x, cameraPosition.z) > layer.drawDistance()) {
+                continue;
+            }
+            float minX = chunk.getOriginX();
+            float minZ = chunk.getOriginZ();
+            if (frustum.intersectAabb(minX - reach, chunk.getMinY() - reach, minZ - reach,
+                    minX + VegetationChunk.SIZE + reach, chunk.getMaxY() + reach,
+                    minZ + VegetationChunk.SIZE + reach) == Frustum.OUTSIDE) {
+                continue;
+            }
+            if (!prepared) {
+                prepareLayer(layer);
+                prepared = true;
+            }
+            VegetationInstances chunkInstances = chunk.getInstances(layerIndex);
+            shader.loadInstanceDecode(chunkInstances.getDecode());
+            bindInstances(vbo);
+            gl().drawElementsInstanced(GL11.GL_TRIANGLES, rawModel.vertexCount(), rawModel.indexType(), 0,
+                    chunkInstances.getCount());
+            FrameStatistics.increment(FrameStatistics.Counter.DRAW_CALLS);
+            drawnChunks++;
+            instances += chunkInstances.getCount();
+        }
+        if (prepared) {
+            // Das VAO des Modells wird auch von anderen Renderern verwendet, die diese Attribute nicht kennen
+            gl().disableVertexAttribArray(INSTANCE_POSITION_ATTRIBUTE);
+            gl().disableVertexAttribArray(INSTANCE_DATA_ATTRIBUTE);
+        }
+        FrameStatistics.add(FrameStatistics.Counter.VEGETATION_CHUNKS, drawnChunks);
+        FrameStatistics.add(FrameStatistics.Counter.VEGETATION_INSTANCES, instances);
+    }
+
+    /**
+     * Bindet das Modell und die Textur einer Vegetation und aktiviert die Attribute pro Instanz in seinem VAO.
+     */
+    private void prepareLayer(VegetationLayer layer) {
+        RawModel rawModel = layer.model().rawModel();
+        GlStateCache.bindVertexArray(rawModel.vaoID());
+        gl().enableVertexAttribArray(INSTANCE_POSITION_ATTRIBUTE);
+        gl().enableVertexAttribArray(INSTANCE_DATA_ATTRIBUTE);
+        gl().vertexAttribDivisor(INSTANCE_POSITION_ATTRIBUTE, 1); // Attribute wechseln pro Instanz statt pro Vertex
+        gl().vertexAttribDivisor(INSTANCE_DATA_ATTRIBUTE, 1);
+        shader.loadPositionDecode(rawModel.positionDecode());
+        shader.loadLayer(layer);
+        ModelTexture texture = layer.model().texture();
+        // Backface Culling für Objekte mit transparenten Texturen deaktivieren
+        GlStateCache.setCulling(!texture.isHasTransparency());
+        GlStateCache.bindTexture(0, texture.getTextureID());
+    }
+
+    /**
+     * Lässt die Attribute pro Instanz im gebundenen VAO aus dem Instanz-VBO eines Chunks lesen.
+     */
+    private static void bindInstances(int vbo) {
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        gl().vertexAttribPointer(INSTANCE_POSITION_ATTRIBUTE, 4, GL11.GL_SHORT, true,
+                VegetationInstances.BYTES_PER_INSTANCE, 0);
+        gl().vertexAttribPointer(INSTANCE_DATA_ATTRIBUTE, 4, GL11.GL_UNSIGNED_BYTE, true,
+                VegetationInstances.BYTES_PER_INSTANCE, 4L * Short.BYTES);
+        gl().bindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+
+    public void cleanUp() {
+        shader.cleanUp();
+    }
+
+}
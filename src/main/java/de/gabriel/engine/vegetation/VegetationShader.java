@@ -0,0 +1,112 @@
+package de.gabriel.engine.vegetation;
+
+import de.gabriel.engine.models.PositionDecode;
+import de.gabriel.engine.shaders.ShaderProgram;
+
+import static de.gabriel.engine.Main.SHADER_PATH;
+
+/**
+ * Shader zum instanzierten Rendern der Vegetation. Die Daten pro Instanz liest er aus dem Instanz-VBO eines
+ * {@link VegetationChunk}s; Projektions- und View Matrix, Himmelsfarbe und Lichter aus dem
+ * {@link de.gabriel.engine.shaders.FrameUniformBuffer}.
+ */
+public class VegetationShader extends ShaderProgram {
+
+    /**
+     * Die Location des Attributes mit der Position pro Instanz. Hinter den Attributen des
+     * {@link de.gabriel.engine.shaders.InstancedShader}, da beide Shader dieselben VAOs verwenden können.
+     */
+    public static final int INSTANCE_POSITION_ATTRIBUTE = 9;
+
+    /**
+     * Die Location des Attributes mit Rotation, Skalierung und Textur pro Instanz.
+     */
+    public static final int INSTANCE_DATA_ATTRIBUTE = 10;
+
+    /**
+     * Dateipfad des Vertex Shaders.
+     */
+    private static final String VERTEX_FILE = SHADER_PATH + "vegetation/" + "vegetationVertexShader.glsl";
+
+    /**
+     * Dateipfad des Fragment Shaders.
+     */
+    private static final String FRAGMENT_FILE = SHADER_PATH + "vegetation/" + "vegetationFragmentShader.glsl";
+
+    private int location_useFakeLighting;
+    private int location_numberOfRows;
+    private int location_positionOffset;
+    private int location_positionScale;
+    private int location_instanceOffset;
+    private int location_instanceScale;
+    private int location_scaleRange;
+    private int location_fadeRange;
+
+    public VegetationShader() {
+        super(VERTEX_FILE, FRAGMENT_FILE);
+    }
+
+    /**
+     * Binden der verschiedenen Attribute des VAOs an bestimmte Variablen
+     * im Shader Programm.
+     */
+    @Override
+    protected void bindAttributes() {
+        super.bindAttribute(0, "position");
+        super.bindAttribute(1, "textureCoordinates");
+        super.bindAttribute(2, "normal");
+        super.bindAttribute(INSTANCE_POSITION_ATTRIBUTE, "instancePosition");
+        super.bindAttribute(INSTANCE_DATA_ATTRIBUTE, "instanceData");
+    }
+
+    /**
+     * Laden der IDs aller Uniform Variablen.
+     */
+    @Override
+    protected void getAllUniformLocations() {
+        location_useFakeLighting = super.getUniformLocation("useFakeLighting");
+        location_numberOfRows = super.getUniformLocation("numberOfRows");
+        location_positionOffset = super.getUniformLocation("positionOffset");
+        location_positionScale = super.getUniformLocation("positionScale");
+        location_instanceOffset = super.getUniformLocation("instanceOffset");
+        location_instanceScale = super.getUniformLocation("instanceScale");
+        location_scaleRange = super.getUniformLocation("scaleRange");
+        location_fadeRange = super.getUniformLocation("fadeRange");
+    }
+
+    /**
+     * Diese Methode lädt die Eigenschaften einer Vegetation in die Uniform Variablen im Shader: Texturatlas,
+     * Fake Lighting, Skalierung und Sichtweite.
+     *
+     * @param layer die Vegetation.
+     */
+    public void loadLayer(VegetationLayer layer) {
+        super.loadFloat(location_numberOfRows, layer.model().texture().getNumberOfRows());
+        super.loadBoolean(location_useFakeLighting, layer.model().texture().isUseFakeLighting());
+        super.loadVector(location_scaleRange, layer.minScale(), layer.maxScale());
+        super.loadVector(location_fadeRange, layer.drawDistance(), layer.fadeWidth());
+    }
+
+    /**
+     * Diese Methode lädt die Umrechnung der (quantisierten) Positionen eines Modells in die Uniform Variablen im Shader.
+     *
+     * @param decode die Umrechnung der Positionen des Modells.
+     */
+    public void loadPositionDecode(PositionDecode decode) {
+        super.loadVector(location_positionOffset, decode.offsetX(), decode.offsetY(), decode.offsetZ());
+        super.loadVector(location_positionScale, decode.scaleX(), decode.scaleY(), decode.scaleZ());
+    }
+
+    /**
+     * Diese Methode lädt die Umrechnung der quantisierten Positionen der Instanzen eines Chunks in die Uniform
+     * Variablen im Shader.
+     *
+     * @param decode die Umrechnung der Positionen der Instanzen.
+     * @see VegetationInstances#getDecode()
+     */
+    public void loadInstanceDecode(PositionDecode decode) {
+        super.loadVector(location_instanceOffset, decode.offsetX(), decode.offsetY(), decode.offsetZ());
+        super.loadVector(location_instanceScale, decode.scaleX(), decode.scaleY(), decode.scaleZ());
+    }
+
+}
@@ -8,19 +8,33 @@ in vec3 surfaceNormal; // Eingehende Normalen vom Vertex Shader
 in vec3 toLightVector[6]; // Eingehender Vektor vom Vertex zur Lichtquelle vom Vertex Shader
 in vec3 toCameraVector; // Eingehender Vektor vom Vertex zur Kamera vom Vertex Shader
 in float visibility; // Eingehende Sichtbarkeit vom Vertex Shader
+flat in float pass_impostorFade; // Überblendung zum Impostor (0 = nur Modell, 1 = nur Impostor)
 
 // OUTPUT (Farbe des Pixels, RGBA)
 out vec4 out_Color;
 
 uniform sampler2D modelTexture; // Textur
-uniform vec3 lightColor[6]; // Farbe und Intensität des Lichts
-uniform vec3 attenuation[6];
+// Daten pro Frame, die sich alle Shader Programme teilen (FrameUniformBuffer, Layout std140; vec3 werden als vec4 gespeichert)
+layout(std140) uniform FrameData {
+	mat4 projectionMatrix; // Projektionsmatrix mit Infos über die Kamera
+	mat4 viewMatrix; // View Matrix zum Bewegen der Welt für eine Illusion der Kamera-Bewegung
+	vec4 skyColor; // Farbe des Himmels (xyz)
+	vec4 lightPosition[6]; // Position der Lichtquellen in Weltkoordinaten (xyz)
+	vec4 lightColor[6]; // Farbe und Intensität der Lichtquellen (xyz)
+	vec4 attenuation[6]; // Dämpfung der Lichtquellen (xyz)
+};
 uniform float shineDamper; // Uniform Variable die den Glanz des Objekts bestimmt
 uniform float reflectivity; // Uniform Variable die die Reflektivität des Objekts bestimmt
-uniform vec3 skyColor; // Uniform Variable die die Farbe des Himmels bestimmt
+
+// 4x4 Bayer-Matrix; dieselbe wie im Impostor Shader, damit Modell und Impostor komplementäre Pixel verwerfen
+const float bayer[16] = float[](0, 8, 2, 10, 12, 4, 14, 6, 3, 11, 1, 9, 15, 7, 13, 5);
 
 void main(void){
 
+	if(pass_impostorFade > 0 && (bayer[int(gl_FragCoord.y) % 4 * 4 + int(gl_FragCoord.x) % 4] + 0.5) / 16 < pass_impostorFade){
+		discard; // Beim Überblenden zum Impostor zeichnet das Impostor diesen Pixel
+	}
+
 	vec3 unitNormal = normalize(surfaceNormal); // Vertex Normal als Einheitsvektor
 	vec3 unitVectorToCamera = normalize(toCameraVector); // Vektor zur Kamera als Einheitsvektor
 
@@ -38,8 +52,8 @@ void main(void){
     	float specularFactor = dot(reflectedLightDirection, unitVectorToCamera); // Skalarprodukt zwischen dem reflektierten Licht und dem Vektor zur Kamera
     	specularFactor = max(specularFactor,0.0); // specularFactor > 0
     	float dampedFactor = pow(specularFactor, shineDamper); // Glanz des Objekts
-    	totalDiffuse = totalDiffuse + (brightness * lightColor[i]) / attenuationFactor; // Finale "Helligkeit" des Pixels
-    	totalSpecular = totalSpecular + (dampedFactor * reflectivity * lightColor[i]) / attenuationFactor; // Finale Reflektion
+    	totalDiffuse = totalDiffuse + (brightness * lightColor[i].xyz) / attenuationFactor; // Finale "Helligkeit" des Pixels
+    	totalSpecular = totalSpecular + (dampedFactor * reflectivity * lightColor[i].xyz) / attenuationFactor; // Finale Reflektion
 	}
 	totalDiffuse = max(totalDiffuse, 0.35); // Helligkeit zwischen 35 und 100 %; brightness > 0.35, dadurch Ambient Lighting
 
@@ -49,6 +63,6 @@ void main(void){
 	}
 
 	out_Color = vec4(totalDiffuse, 1) * textureColor + vec4(totalSpecular, 1) ;
-	out_Color = mix(vec4(skyColor,1),out_Color,visibility); // Mixen der Farbe des Pixels mit der Farbe des Himmels, abhängig von der Sichtbarkeit
+	out_Color = mix(vec4(skyColor.xyz,1),out_Color,visibility); // Mixen der Farbe des Pixels mit der Farbe des Himmels, abhängig von der Sichtbarkeit
 	
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+//FRAGMENT SHADER (IMPOSTOR BACKEN)
+
+#version 400 core // GLSL Version 4.0
+
+// INPUTS (Output vom Vertex Shader)
+in vec2 pass_textureCoordinates; // Eingehende Textur Koordinaten vom Vertex Shader
+in vec3 pass_normal; // Eingehende Normalen im Modellkoordinatensystem
+
+// OUTPUTS (Farbe und Normale des Pixels im Atlas)
+layout(location = 0) out vec4 out_Albedo;
+layout(location = 1) out vec4 out_Normal;
+
+uniform sampler2D modelTexture; // Textur
+
+void main(void){
+
+	vec4 textureColor = texture(modelTexture, pass_textureCoordinates);
+	if(textureColor.a < 0.5){
+		discard; // Außerhalb des Modells bleibt der Atlas transparent (Alpha 0)
+	}
+
+	out_Albedo = vec4(textureColor.rgb, 1);
+	out_Normal = vec4(normalize(pass_normal) * 0.5 + 0.5, 1); // Normale von -1 bis 1 auf 0 bis 1 abbilden
+
+}
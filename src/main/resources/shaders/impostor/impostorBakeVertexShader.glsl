@@ -0,0 +1,28 @@
+//VERTEX SHADER (IMPOSTOR BACKEN)
+
+#version 400 core // GLSL Version 4.0
+
+// INPUTS (VAO)
+in vec3 position; // Vertex-Position
+in vec2 textureCoordinates; // Textur Koordinaten
+in vec3 normal; // Vertex-Normals
+
+// OUTPUTS
+out vec2 pass_textureCoordinates; // Ausgehende Textur Koordinaten
+out vec3 pass_normal; // Ausgehende Normalen im Modellkoordinatensystem
+
+uniform mat4 projectionMatrix; // Orthografische Projektion der Bounding Sphere des Impostors
+uniform mat4 viewMatrix; // Blickrichtung des Frames
+uniform float useFakeLighting; // Gibt an, ob die Normals "gefaked" werden sollen
+uniform float numberOfRows; // Anzahl der Textur Reihen für Texturatlasse (gebacken wird die erste Textur)
+uniform vec3 positionOffset; // Mittelpunkt der Bounding Box des Modells (zum Dekodieren quantisierter Positionen)
+uniform vec3 positionScale; // Halbe Ausdehnung der Bounding Box des Modells (zum Dekodieren quantisierter Positionen)
+
+void main(void){
+
+	vec3 modelPosition = positionOffset + positionScale * position; // Quantisierte Position (-1 bis 1) in Modellkoordinaten umrechnen
+	gl_Position = projectionMatrix * viewMatrix * vec4(modelPosition, 1.0); // Position im Frame
+	pass_textureCoordinates = textureCoordinates / numberOfRows;
+	pass_normal = useFakeLighting > 0.5 ? vec3(0, 1, 0) : normal; // Normals zeigen bei Fake Lighting nach oben (y-Achse)
+
+}
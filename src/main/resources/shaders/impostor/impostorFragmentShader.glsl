@@ -0,0 +1,58 @@
+//FRAGMENT SHADER (IMPOSTOR)
+
+#version 400 core // GLSL Version 4.0
+
+// INPUTS (Output vom Vertex Shader)
+in vec2 pass_textureCoordinates; // Eingehende Textur Koordinaten im Atlas
+flat in float pass_impostorFade; // Überblendung zum Impostor (0 = nur Modell, 1 = nur Impostor)
+flat in vec2 pass_rotation; // Kosinus und Sinus der Rotation um die Y-Achse
+in vec3 toLightVector[6]; // Eingehender Vektor vom Vertex zur Lichtquelle vom Vertex Shader
+in float visibility; // Eingehende Sichtbarkeit vom Vertex Shader
+
+// OUTPUT (Farbe des Pixels, RGBA)
+out vec4 out_Color;
+
+uniform sampler2D albedoTexture; // Farben der Frames
+uniform sampler2D normalTexture; // Normalen der Frames im Modellkoordinatensystem
+// Daten pro Frame, die sich alle Shader Programme teilen (FrameUniformBuffer, Layout std140; vec3 werden als vec4 gespeichert)
+layout(std140) uniform FrameData {
+	mat4 projectionMatrix; // Projektionsmatrix mit Infos über die Kamera
+	mat4 viewMatrix; // View Matrix zum Bewegen der Welt für eine Illusion der Kamera-Bewegung
+	vec4 skyColor; // Farbe des Himmels (xyz)
+	vec4 lightPosition[6]; // Position der Lichtquellen in Weltkoordinaten (xyz)
+	vec4 lightColor[6]; // Farbe und Intensität der Lichtquellen (xyz)
+	vec4 attenuation[6]; // Dämpfung der Lichtquellen (xyz)
+};
+
+// 4x4 Bayer-Matrix; dieselbe wie im Shader der Entities, damit Modell und Impostor komplementäre Pixel verwerfen
+const float bayer[16] = float[](0, 8, 2, 10, 12, 4, 14, 6, 3, 11, 1, 9, 15, 7, 13, 5);
+
+void main(void){
+
+	if((bayer[int(gl_FragCoord.y) % 4 * 4 + int(gl_FragCoord.x) % 4] + 0.5) / 16 >= pass_impostorFade){
+		discard; // Beim Überblenden zeichnet das Modell diesen Pixel
+	}
+
+	vec4 textureColor = texture(albedoTexture, pass_textureCoordinates);
+	if(textureColor.a < 0.5){
+		discard; // Außerhalb des Modells
+	}
+
+	vec3 modelNormal = texture(normalTexture, pass_textureCoordinates).xyz * 2 - 1; // Normale von 0 bis 1 auf -1 bis 1 abbilden
+	// Rotation der Entity um die Y-Achse auf die Normale anwenden (wie die Transformationsmatrix)
+	vec3 unitNormal = normalize(vec3(pass_rotation.x * modelNormal.x + pass_rotation.y * modelNormal.z, modelNormal.y,
+			-pass_rotation.y * modelNormal.x + pass_rotation.x * modelNormal.z));
+
+	vec3 totalDiffuse = vec3(0.0); // Summe der Diffusen Beleuchtungen (von mehreren Lichtquellen)
+	for(int i = 0; i < 6; i++){ // Für alle Lichtquellen ausführen
+		float distance = length(toLightVector[i]); // Abstand zur Lichtquelle
+		float attenuationFactor = attenuation[i].x + (attenuation[i].y * distance) + (attenuation[i].z * distance * distance); // Attenuation, "Lichtdämpfung"
+		float brightness = max(dot(unitNormal, normalize(toLightVector[i])), 0.0);
+		totalDiffuse = totalDiffuse + (brightness * lightColor[i].xyz) / attenuationFactor;
+	}
+	totalDiffuse = max(totalDiffuse, 0.35); // Ambient Lighting wie beim Modell; Glanzlichter werden nicht gebacken
+
+	out_Color = vec4(totalDiffuse, 1) * vec4(textureColor.rgb, 1);
+	out_Color = mix(vec4(skyColor.xyz,1),out_Color,visibility); // Mixen der Farbe des Pixels mit der Farbe des Himmels, abhängig von der Sichtbarkeit
+
+}
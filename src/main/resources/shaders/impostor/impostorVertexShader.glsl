@@ -0,0 +1,45 @@
+//VERTEX SHADER (IMPOSTOR)
+
+#version 400 core // GLSL Version 4.0
+
+// INPUTS (VAO, pro Frame auf der CPU erzeugt)
+in vec3 position; // Ecke des Quads in Weltkoordinaten
+in vec2 textureCoordinates; // Textur Koordinaten im Atlas
+in vec2 impostorData; // Überblendung zum Impostor (x) und Rotation der Entity um die Y-Achse in Radiant (y)
+
+// OUTPUTS
+out vec2 pass_textureCoordinates; // Ausgehende Textur Koordinaten
+flat out float pass_impostorFade; // Überblendung zum Impostor (0 = nur Modell, 1 = nur Impostor)
+flat out vec2 pass_rotation; // Kosinus und Sinus der Rotation um die Y-Achse (zum Drehen der Normalen aus dem Atlas)
+out vec3 toLightVector[6]; // Ausgehender Vektoren zur Lichtquelle
+out float visibility; // Sichtbarkeit der Vertex (abhängig von der Distanz zur Kamera); Simuliert Nebel
+
+// Daten pro Frame, die sich alle Shader Programme teilen (FrameUniformBuffer, Layout std140; vec3 werden als vec4 gespeichert)
+layout(std140) uniform FrameData {
+	mat4 projectionMatrix; // Projektionsmatrix mit Infos über die Kamera
+	mat4 viewMatrix; // View Matrix zum Bewegen der Welt für eine Illusion der Kamera-Bewegung
+	vec4 skyColor; // Farbe des Himmels (xyz)
+	vec4 lightPosition[6]; // Position der Lichtquellen in Weltkoordinaten (xyz)
+	vec4 lightColor[6]; // Farbe und Intensität der Lichtquellen (xyz)
+	vec4 attenuation[6]; // Dämpfung der Lichtquellen (xyz)
+};
+
+const float density = 0.003; // Dichte des Nebels (wie beim Modell)
+const float gradient = 6; // Gradient des Nebels (wie beim Modell)
+
+void main(void){
+
+	vec4 positionRelativeToCam = viewMatrix * vec4(position, 1.0); // Vertex Position relativ zur Kamera
+	gl_Position = projectionMatrix * positionRelativeToCam;
+	pass_textureCoordinates = textureCoordinates;
+	pass_impostorFade = impostorData.x;
+	pass_rotation = vec2(cos(impostorData.y), sin(impostorData.y));
+
+	for(int i = 0; i < 6; i++){ // Für alle Lichtquellen ausführen
+		toLightVector[i] = lightPosition[i].xyz - position; // Vektor von der Vertex-Position zur Lichtquelle
+	}
+
+	float distance = length(positionRelativeToCam.xyz); // Distanz vom Vertex zur Kamera
+	visibility = clamp(exp(-pow((distance*density),gradient)), 0, 1); // Sichtbarkeit nimmt mit steigender Entfernung zur Kamera ab
+
+}
@@ -9,11 +9,17 @@ out vec4 out_Color;
 
 uniform sampler2D modelTexture;
 uniform sampler2D normalMap;
-uniform vec3 lightColor[6];
-uniform vec3 attenuation[6];
+// Daten pro Frame, die sich alle Shader Programme teilen (FrameUniformBuffer, Layout std140; vec3 werden als vec4 gespeichert)
+layout(std140) uniform FrameData {
+	mat4 projectionMatrix; // Projektionsmatrix mit Infos über die Kamera
+	mat4 viewMatrix; // View Matrix zum Bewegen der Welt für eine Illusion der Kamera-Bewegung
+	vec4 skyColor; // Farbe des Himmels (xyz)
+	vec4 lightPosition[6]; // Position der Lichtquellen in Weltkoordinaten (xyz)
+	vec4 lightColor[6]; // Farbe und Intensität der Lichtquellen (xyz)
+	vec4 attenuation[6]; // Dämpfung der Lichtquellen (xyz)
+};
 uniform float shineDamper;
 uniform float reflectivity;
-uniform vec3 skyColor;
 
 void main(void){
 
@@ -36,8 +42,8 @@ void main(void){
 		float specularFactor = dot(reflectedLightDirection , unitVectorToCamera);
 		specularFactor = max(specularFactor,0.0);
 		float dampedFactor = pow(specularFactor,shineDamper);
-		totalDiffuse = totalDiffuse + (brightness * lightColor[i])/attFactor;
-		totalSpecular = totalSpecular + (dampedFactor * reflectivity * lightColor[i])/attFactor;
+		totalDiffuse = totalDiffuse + (brightness * lightColor[i].xyz)/attFactor;
+		totalSpecular = totalSpecular + (dampedFactor * reflectivity * lightColor[i].xyz)/attFactor;
 	}
 	totalDiffuse = max(totalDiffuse, 0.2);
 	
@@ -47,6 +53,6 @@ void main(void){
 	}
 
 	out_Color =  vec4(totalDiffuse,1.0) * textureColor + vec4(totalSpecular,1.0);
-	out_Color = mix(vec4(skyColor,1.0),out_Color, visibility);
+	out_Color = mix(vec4(skyColor.xyz,1.0),out_Color, visibility);
 
 }
\ No newline at end of file
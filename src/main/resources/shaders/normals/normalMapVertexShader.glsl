@@ -11,21 +11,30 @@ out vec3 toCameraVector;
 out float visibility;
 
 uniform mat4 transformationMatrix;
-uniform mat4 projectionMatrix;
-uniform mat4 viewMatrix;
-uniform vec3 lightPositionEyeSpace[6];
+// Daten pro Frame, die sich alle Shader Programme teilen (FrameUniformBuffer, Layout std140; vec3 werden als vec4 gespeichert)
+layout(std140) uniform FrameData {
+	mat4 projectionMatrix; // Projektionsmatrix mit Infos über die Kamera
+	mat4 viewMatrix; // View Matrix zum Bewegen der Welt für eine Illusion der Kamera-Bewegung
+	vec4 skyColor; // Farbe des Himmels (xyz)
+	vec4 lightPosition[6]; // Position der Lichtquellen in Weltkoordinaten (xyz)
+	vec4 lightColor[6]; // Farbe und Intensität der Lichtquellen (xyz)
+	vec4 attenuation[6]; // Dämpfung der Lichtquellen (xyz)
+};
 
 uniform float numberOfRows;
 uniform vec2 offset;
+uniform vec3 positionOffset;
+uniform vec3 positionScale;
 
 const float density = 0;
 const float gradient = 5.0;
 
 void main(void){
 
-	vec4 worldPosition = transformationMatrix * vec4(position,1.0);
+	vec3 modelPosition = positionOffset + positionScale * position;
+	vec4 worldPosition = transformationMatrix * vec4(modelPosition,1.0);
 	mat4 modelViewMatrix = viewMatrix * transformationMatrix;
-	vec4 positionRelativeToCam = modelViewMatrix * vec4(position,1.0);
+	vec4 positionRelativeToCam = modelViewMatrix * vec4(modelPosition,1.0);
 	gl_Position = projectionMatrix * positionRelativeToCam;
 
 	pass_textureCoordinates = (textureCoordinates/numberOfRows) + offset;
@@ -44,7 +53,7 @@ void main(void){
     );
 
     for(int i=0;i<6;i++){
-    	toLightVector[i] = toTangentSpace * (lightPositionEyeSpace[i] - positionRelativeToCam.xyz);
+    	toLightVector[i] = toTangentSpace * ((viewMatrix * vec4(lightPosition[i].xyz, 1.0)).xyz - positionRelativeToCam.xyz);
     }
     toCameraVector = toTangentSpace * (-positionRelativeToCam.xyz);
 
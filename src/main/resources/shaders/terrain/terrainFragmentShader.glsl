@@ -15,11 +15,17 @@ uniform sampler2D gTexture;
 uniform sampler2D bTexture;
 uniform sampler2D blendMap;
 
-uniform vec3 lightColor[6];
-uniform vec3 attenuation[6];
+// Daten pro Frame, die sich alle Shader Programme teilen (FrameUniformBuffer, Layout std140; vec3 werden als vec4 gespeichert)
+layout(std140) uniform FrameData {
+	mat4 projectionMatrix; // Projektionsmatrix mit Infos über die Kamera
+	mat4 viewMatrix; // View Matrix zum Bewegen der Welt für eine Illusion der Kamera-Bewegung
+	vec4 skyColor; // Farbe des Himmels (xyz)
+	vec4 lightPosition[6]; // Position der Lichtquellen in Weltkoordinaten (xyz)
+	vec4 lightColor[6]; // Farbe und Intensität der Lichtquellen (xyz)
+	vec4 attenuation[6]; // Dämpfung der Lichtquellen (xyz)
+};
 uniform float shineDamper;
 uniform float reflectivity;
-uniform vec3 skyColor;
 
 void main(void){
 
@@ -57,12 +63,12 @@ void main(void){
     	float specularFactor = dot(reflectedLightDirection , unitVectorToCamera);
     	specularFactor = max(specularFactor,0.0);
     	float dampedFactor = pow(specularFactor,shineDamper);
-    	totalDiffuse = totalDiffuse + (brightness * lightColor[i]) / attenuationFactor;
-    	totalSpecular = totalSpecular + (dampedFactor * reflectivity * lightColor[i]) / attenuationFactor;
+    	totalDiffuse = totalDiffuse + (brightness * lightColor[i].xyz) / attenuationFactor;
+    	totalSpecular = totalSpecular + (dampedFactor * reflectivity * lightColor[i].xyz) / attenuationFactor;
 	}
 	totalDiffuse = max(totalDiffuse, 0.35); // Helligkeit zwischen 35 und 100 %; brightness > 0.35, dadurch Ambient Lighting
 
     out_Color =  vec4(totalDiffuse,1.0) * totalColor + vec4(totalSpecular,1.0);
-	out_Color = mix(vec4(skyColor,1),out_Color,visibility);
+	out_Color = mix(vec4(skyColor.xyz,1),out_Color,visibility);
 
 }
\ No newline at end of file
@@ -11,9 +11,15 @@ out vec3 toCameraVector;
 out float visibility;
 
 uniform mat4 transformationMatrix;
-uniform mat4 projectionMatrix;
-uniform mat4 viewMatrix;
-uniform vec3 lightPosition[6];
+// Daten pro Frame, die sich alle Shader Programme teilen (FrameUniformBuffer, Layout std140; vec3 werden als vec4 gespeichert)
+layout(std140) uniform FrameData {
+	mat4 projectionMatrix; // Projektionsmatrix mit Infos über die Kamera
+	mat4 viewMatrix; // View Matrix zum Bewegen der Welt für eine Illusion der Kamera-Bewegung
+	vec4 skyColor; // Farbe des Himmels (xyz)
+	vec4 lightPosition[6]; // Position der Lichtquellen in Weltkoordinaten (xyz)
+	vec4 lightColor[6]; // Farbe und Intensität der Lichtquellen (xyz)
+	vec4 attenuation[6]; // Dämpfung der Lichtquellen (xyz)
+};
 
 const float density = 0.0025;
 const float gradient = 5;
@@ -28,7 +34,7 @@ void main(void){
 	surfaceNormal = (transformationMatrix * vec4(normal, 0.0)).xyz;
 
 	for(int i = 0; i < 6; i++){
-	    toLightVector[i] = lightPosition[i] - worldPosition.xyz;
+	    toLightVector[i] = lightPosition[i].xyz - worldPosition.xyz;
 	}
 
 	toCameraVector = (inverse(viewMatrix) * vec4(0,0,0,1)).xyz - worldPosition.xyz;
@@ -0,0 +1,76 @@
+//VERTEX SHADER (VEGETATION)
+
+#version 400 core // GLSL Version 4.0
+
+// INPUTS (VAO)
+in vec3 position; // Vertex-Position
+in vec2 textureCoordinates; // Textur Koordinaten
+in vec3 normal; // Vertex-Normals
+in vec4 instancePosition; // Position der Instanz im Chunk pro Instanz (quantisiert, -1 bis 1; w ungenutzt)
+in vec4 instanceData; // Rotation (x), Skalierung (y) und Textur im Texturatlas (z) pro Instanz, jeweils 0 bis 1
+
+// OUTPUTS
+out vec2 pass_textureCoordinates; // Ausgehende Textur Koordinaten
+out vec3 surfaceNormal; // Ausgehende Vertex-Normals
+out vec3 toLightVector[6]; // Ausgehender Vektoren zur Lichtquelle
+out float visibility; // Sichtbarkeit der Vertex (abhängig von der Distanz zur Kamera); Simuliert Nebel
+flat out float pass_fade; // Sichtbarkeit der Instanz (1 = vollständig, 0 = ausgeblendet)
+
+// Daten pro Frame, die sich alle Shader Programme teilen (FrameUniformBuffer, Layout std140; vec3 werden als vec4 gespeichert)
+layout(std140) uniform FrameData {
+	mat4 projectionMatrix; // Projektionsmatrix mit Infos über die Kamera
+	mat4 viewMatrix; // View Matrix zum Bewegen der Welt für eine Illusion der Kamera-Bewegung
+	vec4 skyColor; // Farbe des Himmels (xyz)
+	vec4 lightPosition[6]; // Position der Lichtquellen in Weltkoordinaten (xyz)
+	vec4 lightColor[6]; // Farbe und Intensität der Lichtquellen (xyz)
+	vec4 attenuation[6]; // Dämpfung der Lichtquellen (xyz)
+};
+
+uniform float useFakeLighting; // Gibt an, ob die Normals "gefaked" werden sollen
+uniform float numberOfRows; // Anzahl der Textur Reihen für Texturatlasse
+uniform vec3 positionOffset; // Mittelpunkt der Bounding Box des Modells (zum Dekodieren quantisierter Positionen)
+uniform vec3 positionScale; // Halbe Ausdehnung der Bounding Box des Modells (zum Dekodieren quantisierter Positionen)
+uniform vec3 instanceOffset; // Mittelpunkt der Bounding Box der Instanzen des Chunks
+uniform vec3 instanceScale; // Halbe Ausdehnung der Bounding Box der Instanzen des Chunks
+uniform vec2 scaleRange; // Kleinste und größte Skalierung einer Instanz
+uniform vec2 fadeRange; // Abstand, bis zu dem gerendert wird (x), und Strecke, über die davor ausgeblendet wird (y)
+
+const float density = 0.003; // Dichte des Nebels
+const float gradient = 6; // Gradient des Nebels
+
+void main(void){
+
+	vec3 origin = instanceOffset + instanceScale * instancePosition.xyz; // Position der Instanz in Weltkoordinaten
+	vec4 originRelativeToCam = viewMatrix * vec4(origin, 1.0);
+	pass_fade = clamp((fadeRange.x - length(originRelativeToCam.xyz)) / max(fadeRange.y, 0.001), 0, 1);
+	if(pass_fade <= 0){
+		gl_Position = vec4(2, 2, 2, 1); // Außerhalb des Clip Space; die Dreiecke der Instanz werden verworfen
+		return;
+	}
+
+	float rotation = instanceData.x * 6.2831853; // Rotation um die Y-Achse in Radiant
+	float c = cos(rotation);
+	float s = sin(rotation);
+	float scale = mix(scaleRange.x, scaleRange.y, instanceData.y);
+	vec3 modelPosition = positionOffset + positionScale * position; // Quantisierte Position (-1 bis 1) in Modellkoordinaten umrechnen
+	// Rotation um die Y-Achse wie bei der Transformationsmatrix einer Entity
+	vec3 worldPosition = origin + scale * vec3(c * modelPosition.x + s * modelPosition.z, modelPosition.y, -s * modelPosition.x + c * modelPosition.z);
+	vec4 positionRelativeToCam = viewMatrix * vec4(worldPosition, 1.0);
+	gl_Position = projectionMatrix * positionRelativeToCam;
+
+	int rows = int(numberOfRows);
+	int textureIndex = int(round(instanceData.z * 255)); // Index der Textur im Texturatlas (vorzeichenloses Byte)
+	vec2 offset = vec2(textureIndex % rows, textureIndex / rows) / numberOfRows;
+	pass_textureCoordinates = (textureCoordinates / numberOfRows) + offset;
+
+	vec3 actualNormal = useFakeLighting > 0.5 ? vec3(0, 1, 0) : vec3(c * normal.x + s * normal.z, normal.y, -s * normal.x + c * normal.z);
+	surfaceNormal = actualNormal;
+
+	for(int i = 0; i < 6; i++){ // Für alle Lichtquellen ausführen
+		toLightVector[i] = lightPosition[i].xyz - worldPosition; // Vektor von der Vertex-Position zur Lichtquelle
+	}
+
+	float distance = length(positionRelativeToCam.xyz); // Distanz vom Vertex zur Kamera
+	visibility = clamp(exp(-pow((distance*density),gradient)), 0, 1); // Sichtbarkeit nimmt mit steigender Entfernung zur Kamera ab
+
+}
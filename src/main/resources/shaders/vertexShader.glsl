@@ -14,15 +14,25 @@ out vec3 surfaceNormal; // Ausgehende Vertex-Normals
 out vec3 toLightVector[6]; // Ausgehender Vektoren zur Lichtquelle (Entity kann von 6 Lichtquellen beeinflusst werden)
 out vec3 toCameraVector; // Vektor von der Vertex-Position zur Kamera
 out float visibility; // Sichtbarkeit der Vertex (abhängig von der Distanz zur Kamera); Simuliert Nebel
+flat out float pass_impostorFade; // Überblendung zum Impostor (0 = nur Modell, 1 = nur Impostor)
 
 uniform mat4 transformationMatrix; // Entity spezielle Transformation Matrix
-uniform mat4 projectionMatrix; // Projektionsmatrix mit Infos über die Kamera
-uniform mat4 viewMatrix; // View Matrix zum Bewegen der Welt für eine Illusion der Kamera-Bewegung
-uniform vec3 lightPosition[6]; // Position der Lichtquellen
+uniform float impostorFade; // Überblendung der Entity zum Impostor
+// Daten pro Frame, die sich alle Shader Programme teilen (FrameUniformBuffer, Layout std140; vec3 werden als vec4 gespeichert)
+layout(std140) uniform FrameData {
+	mat4 projectionMatrix; // Projektionsmatrix mit Infos über die Kamera
+	mat4 viewMatrix; // View Matrix zum Bewegen der Welt für eine Illusion der Kamera-Bewegung
+	vec4 skyColor; // Farbe des Himmels (xyz)
+	vec4 lightPosition[6]; // Position der Lichtquellen in Weltkoordinaten (xyz)
+	vec4 lightColor[6]; // Farbe und Intensität der Lichtquellen (xyz)
+	vec4 attenuation[6]; // Dämpfung der Lichtquellen (xyz)
+};
 
 uniform float useFakeLighting; // Gibt an, ob die Normals "gefaked" werden sollen
 
 uniform float numberOfRows; // Anzahl der Textur Reihen für Texturatlasse
+uniform vec3 positionOffset; // Mittelpunkt der Bounding Box des Modells (zum Dekodieren quantisierter Positionen)
+uniform vec3 positionScale; // Halbe Ausdehnung der Bounding Box des Modells (zum Dekodieren quantisierter Positionen)
 uniform vec2 offset; // Offset für die Textur im Texturatlas
 
 const float density = 0.003; // Dichte des Nebels
@@ -30,7 +40,8 @@ const float gradient = 6; // Gradient des Nebels
 
 void main(void){
 
-	vec4 worldPosition = transformationMatrix * vec4(position,1.0); // Homogene Koordinate 1, da Position; Transformation der Positionen mit der Transformation Matrix -> Position im Weltkoordinatensystem
+	vec3 modelPosition = positionOffset + positionScale * position; // Quantisierte Position (-1 bis 1) in Modellkoordinaten umrechnen
+	vec4 worldPosition = transformationMatrix * vec4(modelPosition,1.0); // Homogene Koordinate 1, da Position; Transformation der Positionen mit der Transformation Matrix -> Position im Weltkoordinatensystem
 	vec4 positionRelativeToCam = viewMatrix * worldPosition; // Vertex Position relativ zur Kamera
 	gl_Position = projectionMatrix * positionRelativeToCam;  // Position der zu rendernden Vertex
 	pass_textureCoordinates = (textureCoordinates/numberOfRows) + offset; // Eingehende Textur Koordinaten an Fragment Shader weitergeben (werden dabei interpoliert); Textur Koordinaten für Texturatlasse (wenn nötig) berechnen
@@ -44,12 +55,13 @@ void main(void){
 	surfaceNormal = (transformationMatrix * vec4(actualNormal, 0.0)).xyz; // Homogene Koordinate 0, da Normalen ein Richtungsvektor sind; Transformation der Normalen mit der Transformation Matrix
 
 	for(int i = 0; i < 6; i++){ // Für alle Lichtquellen ausführen
-        toLightVector[i] = lightPosition[i] - worldPosition.xyz; // Vektor von der Vertex-Position zur Lichtquelle
+        toLightVector[i] = lightPosition[i].xyz - worldPosition.xyz; // Vektor von der Vertex-Position zur Lichtquelle
     }
 	toCameraVector = (inverse(viewMatrix) * vec4(0,0,0,1)).xyz - worldPosition.xyz; // Invertieren der View Matrix um die Kamera Position (Projektionsmatrix) zu erhalten, dann abziehen von der Vertex-Position im Weltkoordinatensystem, um den Vektor zur Kamera zu erhalten
 
 	float distance = length(positionRelativeToCam.xyz); // Distanz vom Vertex zur Kamera
 	visibility = exp(-pow((distance*density),gradient)); // Sichtbarkeit der Vertex berechnen; Sichtbarkeit nimmt mit steigender Entfernung zur Kamera ab
 	visibility = clamp(visibility,0,1); // Sichtbarkeit auf einen Wert von 0 bis 1 begrenzen
+	pass_impostorFade = impostorFade; // Überblendung zum Impostor an den Fragment Shader weitergeben
 	
 }
\ No newline at end of file
@@ -0,0 +1,176 @@
+package de.gabriel.engine.converter;
+
+import de.gabriel.engine.converter.obj.MeshData;
+import de.gabriel.engine.converter.obj.OBJFileLoader;
+import de.gabriel.engine.renderer.backend.NullBackend;
+import de.gabriel.engine.renderer.backend.RenderBackend;
+import de.gabriel.engine.textures.TextureData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.stb.STBImage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Prüft den {@link AssetManager} ohne OpenGL-Context: die CPU-Stufen (Parsen der Models, Dekodieren der Texturen)
+ * laufen auf den Worker-Threads, ohne einen einzigen Aufruf an das aktive {@link RenderBackend} (hier ein
+ * {@link NullBackend}, das alle Aufrufe zählt), und die Upload-Warteschlange hält ihr Zeitbudget pro Frame ein.
+ */
+class AssetManagerTest {
+
+    private static final Path MODELS = Path.of("src/main/resources/models");
+
+    /**
+     * Die Dauer einer simulierten Upload-Aufgabe in der Warteschlange.
+     */
+    private static final long UPLOAD_NANOS = 2_000_000;
+
+    private final NullBackend backend = new NullBackend(1280, 720);
+    private AssetManager assets;
+
+    @BeforeEach
+    void createAssetManager() {
+        RenderBackend.use(backend);
+        assets = new AssetManager(new Loader(), 4);
+    }
+
+    @AfterEach
+    void shutDown() {
+        assets.cleanUp();
+    }
+
+    @Test
+    void parsesBundledModelsOnWorkersWithoutGl() throws IOException {
+        List<String> models = bundledModels();
+        List<CompletableFuture<MeshData>> meshes = new ArrayList<CompletableFuture<MeshData>>();
+        for (String model : models) {
+            meshes.add(assets.parseMesh(model));
+        }
+        CompletableFuture<List<MeshData>> lods = assets.parseMeshLods("pine");
+        CompletableFuture<MeshData> missing = assets.parseMesh("does-not-exist");
+
+        for (int i = 0; i < models.size(); i++) {
+            MeshData parsed = meshes.get(i).join();
+            MeshData expected = OBJFileLoader.loadMesh(models.get(i));
+            assertEquals(expected.vertexCount(), parsed.vertexCount(), models.get(i));
+            assertEquals(expected.vertices(), parsed.vertices(), models.get(i));
+            assertEquals(expected.indices(), parsed.indices(), models.get(i));
+        }
+        List<MeshData> levels = lods.join();
+        assertTrue(levels.size() > 1);
+        assertEquals(OBJFileLoader.loadMesh("pine").vertices(), levels.get(0).vertices());
+        assertThrows(CompletionException.class, missing::join);
+
+        assertEquals(0, assets.getPendingAssets());
+        assertEquals(0, totalCommands(), "GL calls during the CPU stages");
+    }
+
+    @Test
+    void decodesTexturesOnWorkersWithoutGl() {
+        assumeTrue(stbAvailable(), "stb_image natives for this platform are not on the classpath");
+        String[] files = {"grass", "mud", "flowers", "path", "blendMap"};
+        List<CompletableFuture<TextureData>> textures = new ArrayList<CompletableFuture<TextureData>>();
+        for (String file : files) {
+            textures.add(assets.decodeTexture(file));
+        }
+        for (int i = 0; i < files.length; i++) {
+            TextureData image = textures.get(i).join();
+            assertNotNull(image.buffer(), files[i]);
+            assertTrue(image.width() > 0 && image.height() > 0, files[i]);
+            assertEquals(image.width() * image.height() * 4, image.buffer().remaining(), files[i]);
+            STBImage.stbi_image_free(image.buffer());
+        }
+        assertEquals(0, totalCommands(), "GL calls during the CPU stages");
+    }
+
+    @Test
+    void uploadsRunOnCallingThreadWithinBudget() {
+        int count = 12;
+        Thread glThread = Thread.currentThread();
+        List<CompletableFuture<Integer>> results = new ArrayList<CompletableFuture<Integer>>();
+        List<Thread> uploadThreads = new ArrayList<Thread>();
+        for (int i = 0; i < count; i++) {
+            int value = i;
+            results.add(assets.submit(() -> value, generated -> {
+                uploadThreads.add(Thread.currentThread());
+                long start = System.nanoTime();
+                while (System.nanoTime() - start < UPLOAD_NANOS) {
+                    Thread.onSpinWait(); // Simuliert glBufferData
+                }
+                return generated * 2;
+            }));
+        }
+        assertEquals(count, assets.getPendingAssets());
+        for (CompletableFuture<Integer> result : results) {
+            assertFalse(result.isDone(), "Upload ran before the queue was processed");
+        }
+
+        // Ohne Budget wird pro Frame höchstens eine wartende Aufgabe ausgeführt
+        int processed = 0;
+        while (processed < 3) {
+            int frame = assets.processUploads(0);
+            assertTrue(frame <= 1, "Uploads in a frame without budget: " + frame);
+            processed += frame;
+        }
+        // Mit 5 ms Budget und 2 ms pro Aufgabe ist das Budget spätestens nach der dritten Aufgabe aufgebraucht
+        while (processed < count) {
+            int frame = assets.processUploads(5_000_000);
+            assertTrue(frame <= 3, "Uploads in a frame with 5 ms budget: " + frame);
+            processed += frame;
+        }
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(i * 2, results.get(i).join());
+        }
+        assertEquals(count, uploadThreads.size());
+        for (Thread thread : uploadThreads) {
+            assertSame(glThread, thread);
+        }
+        assertEquals(0, assets.getPendingAssets());
+        assertEquals(0, assets.processUploads(5_000_000));
+    }
+
+    private long totalCommands() {
+        long total = 0;
+        for (NullBackend.Kind kind : NullBackend.Kind.values()) {
+            total += backend.getCount(kind);
+        }
+        return total;
+    }
+
+    private static boolean stbAvailable() {
+        try {
+            STBImage.stbi_failure_reason();
+            return true;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    private static List<String> bundledModels() throws IOException {
+        try (Stream<Path> files = Files.list(MODELS)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(".obj"))
+                    .map(name -> name.substring(0, name.length() - ".obj".length()))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+}
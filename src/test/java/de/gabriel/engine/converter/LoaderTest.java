@@ -0,0 +1,98 @@
+package de.gabriel.engine.converter;
+
+import de.gabriel.engine.models.LodChain;
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.renderer.backend.NullBackend;
+import de.gabriel.engine.renderer.backend.RenderBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft die Caches des {@link Loader}s ohne OpenGL-Context auf einem {@link NullBackend}: Referenzzählung, das
+ * Löschen bei der letzten Freigabe und die Statistiken (Treffer, Fehlschläge, belegte Bytes).
+ */
+class LoaderTest {
+
+    private final NullBackend backend = new NullBackend(1280, 720);
+    private Loader loader;
+
+    @BeforeEach
+    void createLoader() {
+        RenderBackend.use(backend);
+        loader = new Loader();
+    }
+
+    @Test
+    void modelIsReferenceCountedAndDeletedOnLastRelease() {
+        ResourceCache<RawModel> cache = loader.getModelCache();
+        RawModel first = loader.loadModel("barrel");
+        RawModel second = loader.loadModel("barrel");
+
+        assertSame(first, second);
+        assertEquals(1, backend.getCount(NullBackend.Command.GEN_VERTEX_ARRAYS), "Model uploaded twice");
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getReferences(first));
+        long bytes = cache.getBytesResident();
+        assertTrue(bytes > 0);
+
+        loader.releaseModel(first);
+        assertTrue(cache.contains(first));
+        assertEquals(1, cache.getReferences(first));
+        assertEquals(bytes, cache.getBytesResident());
+        assertEquals(0, backend.getCount(NullBackend.Command.DELETE_VERTEX_ARRAYS));
+
+        loader.releaseModel(second);
+        assertFalse(cache.contains(first));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytesResident());
+        assertEquals(1, backend.getCount(NullBackend.Command.DELETE_VERTEX_ARRAYS));
+        assertEquals(2, backend.getCount(NullBackend.Command.DELETE_BUFFERS), "Vertex and index VBO");
+        assertThrows(IllegalArgumentException.class, () -> loader.releaseModel(first));
+
+        RawModel reloaded = loader.loadModel("barrel");
+        assertNotEquals(first.vaoID(), reloaded.vaoID());
+        assertEquals(2, cache.getMisses());
+        assertEquals(bytes, cache.getBytesResident());
+    }
+
+    @Test
+    void lodChainIsSharedAndDeletesAllLevels() {
+        ResourceCache<LodChain> cache = loader.getLodCache();
+        List<Integer> deletedVaos = new ArrayList<Integer>();
+        loader.addVaoDeletionListener(deletedVaos::add);
+
+        LodChain first = loader.loadLodChain("pine");
+        long vaos = backend.getCount(NullBackend.Command.GEN_VERTEX_ARRAYS);
+        LodChain second = loader.loadLodChain("pine");
+
+        assertSame(first, second);
+        assertEquals(first.getLevelCount(), vaos);
+        assertEquals(vaos, backend.getCount(NullBackend.Command.GEN_VERTEX_ARRAYS));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, loader.getModelCache().size(), "LOD chains have their own cache");
+
+        loader.releaseLodChain(first);
+        assertTrue(deletedVaos.isEmpty());
+        loader.releaseLodChain(second);
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int level = 0; level < first.getLevelCount(); level++) {
+            expected.add(first.getLevel(level).vaoID());
+        }
+        assertEquals(expected, deletedVaos);
+        assertEquals(0, cache.getBytesResident());
+    }
+
+}
@@ -0,0 +1,191 @@
+package de.gabriel.engine.converter.obj;
+
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Vergleicht den {@link ObjParser} mit dem früheren zeilenbasierten Loader ({@code BufferedReader.readLine} und
+ * {@code String.split}), der hier als {@link LineBasedLoader} erhalten bleibt: für jedes mitgelieferte Model müssen
+ * die Daten bitgenau übereinstimmen.
+ */
+class ObjParserTest {
+
+    private static final Path MODELS = Path.of("src/main/resources/models");
+
+    @Test
+    void matchesLineBasedLoaderOnBundledModels() throws IOException {
+        List<Path> objFiles;
+        try (Stream<Path> files = Files.list(MODELS)) {
+            objFiles = files.filter(file -> file.toString().endsWith(".obj")).sorted().toList();
+        }
+        assertFalse(objFiles.isEmpty());
+        for (Path objFile : objFiles) {
+            ModelData expected = LineBasedLoader.load(objFile);
+            ModelData actual = ObjParser.parse(objFile).toModelData();
+            String name = objFile.getFileName().toString();
+            assertArrayEquals(expected.vertices(), actual.vertices(), name);
+            assertArrayEquals(expected.textureCoords(), actual.textureCoords(), name);
+            assertArrayEquals(expected.normals(), actual.normals(), name);
+            assertArrayEquals(expected.indices(), actual.indices(), name);
+            assertEquals(expected.furthestPoint(), actual.furthestPoint(), name);
+        }
+    }
+
+    @Test
+    void parsesFloatsLongerThanFallbackBuffer() {
+        String longFloat = "0." + "3".repeat(200);
+        String longExponent = "1" + "0".repeat(100) + "e-100";
+        ObjGeometry geometry = parse("v " + longFloat + " " + longExponent + " -2.5E2\n"
+                + "v " + longExponent + " " + longFloat + " 1\n");
+        assertEquals(6, geometry.getPositions().size());
+        assertEquals(Float.parseFloat(longFloat), geometry.getPositions().get(0));
+        assertEquals(Float.parseFloat(longExponent), geometry.getPositions().get(1));
+        assertEquals(-250f, geometry.getPositions().get(2));
+        assertEquals(Float.parseFloat(longExponent), geometry.getPositions().get(3));
+        assertEquals(Float.parseFloat(longFloat), geometry.getPositions().get(4));
+    }
+
+    private static ObjGeometry parse(String obj) {
+        return ObjParser.parse(ByteBuffer.wrap(obj.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Der frühere Loader von <a href="https://github.com/TheThinMatrix">TheThinMatrix</a>, nur zum Vergleich.
+     * Er erwartet Dreiecke im Format {@code v/vt/vn}, nach allen Vertex-Daten.
+     */
+    private static final class LineBasedLoader {
+
+        private static final int NO_INDEX = -1;
+
+        private static final class Vertex {
+
+            private final Vector3f position;
+            private final int index;
+            private final float length;
+            private int textureIndex = NO_INDEX;
+            private int normalIndex = NO_INDEX;
+            private Vertex duplicateVertex;
+
+            private Vertex(int index, Vector3f position) {
+                this.index = index;
+                this.position = position;
+                this.length = position.length();
+            }
+
+            private boolean isSet() {
+                return textureIndex == NO_INDEX || normalIndex == NO_INDEX;
+            }
+
+        }
+
+        static ModelData load(Path objFile) throws IOException {
+            List<Vertex> vertices = new ArrayList<Vertex>();
+            List<Vector2f> textures = new ArrayList<Vector2f>();
+            List<Vector3f> normals = new ArrayList<Vector3f>();
+            List<Integer> indices = new ArrayList<Integer>();
+            try (BufferedReader reader = Files.newBufferedReader(objFile, StandardCharsets.US_ASCII)) {
+                String line;
+                while (true) {
+                    line = reader.readLine();
+                    if (line.startsWith("v ")) {
+                        String[] currentLine = line.split(" ");
+                        vertices.add(new Vertex(vertices.size(), new Vector3f(Float.parseFloat(currentLine[1]),
+                                Float.parseFloat(currentLine[2]), Float.parseFloat(currentLine[3]))));
+                    } else if (line.startsWith("vt ")) {
+                        String[] currentLine = line.split(" ");
+                        textures.add(new Vector2f(Float.parseFloat(currentLine[1]), Float.parseFloat(currentLine[2])));
+                    } else if (line.startsWith("vn ")) {
+                        String[] currentLine = line.split(" ");
+                        normals.add(new Vector3f(Float.parseFloat(currentLine[1]),
+                                Float.parseFloat(currentLine[2]), Float.parseFloat(currentLine[3])));
+                    } else if (line.startsWith("f ")) {
+                        break;
+                    }
+                }
+                while (line != null && line.startsWith("f ")) {
+                    String[] currentLine = line.split(" ");
+                    processVertex(currentLine[1].split("/"), vertices, indices);
+                    processVertex(currentLine[2].split("/"), vertices, indices);
+                    processVertex(currentLine[3].split("/"), vertices, indices);
+                    line = reader.readLine();
+                }
+            }
+            for (Vertex vertex : vertices) {
+                if (vertex.isSet()) {
+                    vertex.textureIndex = 0;
+                    vertex.normalIndex = 0;
+                }
+            }
+            float[] verticesArray = new float[vertices.size() * 3];
+            float[] texturesArray = new float[vertices.size() * 2];
+            float[] normalsArray = new float[vertices.size() * 3];
+            float furthestPoint = 0;
+            for (int i = 0; i < vertices.size(); i++) {
+                Vertex vertex = vertices.get(i);
+                furthestPoint = Math.max(furthestPoint, vertex.length);
+                Vector2f textureCoord = textures.get(vertex.textureIndex);
+                Vector3f normal = normals.get(vertex.normalIndex);
+                verticesArray[i * 3] = vertex.position.x;
+                verticesArray[i * 3 + 1] = vertex.position.y;
+                verticesArray[i * 3 + 2] = vertex.position.z;
+                texturesArray[i * 2] = textureCoord.x;
+                texturesArray[i * 2 + 1] = 1 - textureCoord.y;
+                normalsArray[i * 3] = normal.x;
+                normalsArray[i * 3 + 1] = normal.y;
+                normalsArray[i * 3 + 2] = normal.z;
+            }
+            int[] indicesArray = new int[indices.size()];
+            for (int i = 0; i < indicesArray.length; i++) {
+                indicesArray[i] = indices.get(i);
+            }
+            return new ModelData(verticesArray, texturesArray, normalsArray, indicesArray, furthestPoint);
+        }
+
+        private static void processVertex(String[] corner, List<Vertex> vertices, List<Integer> indices) {
+            int index = Integer.parseInt(corner[0]) - 1;
+            Vertex vertex = vertices.get(index);
+            int textureIndex = Integer.parseInt(corner[1]) - 1;
+            int normalIndex = Integer.parseInt(corner[2]) - 1;
+            if (vertex.isSet()) {
+                vertex.textureIndex = textureIndex;
+                vertex.normalIndex = normalIndex;
+                indices.add(index);
+            } else {
+                dealWithAlreadyProcessedVertex(vertex, textureIndex, normalIndex, indices, vertices);
+            }
+        }
+
+        private static void dealWithAlreadyProcessedVertex(Vertex previous, int textureIndex, int normalIndex,
+                                                           List<Integer> indices, List<Vertex> vertices) {
+            if (previous.textureIndex == textureIndex && previous.normalIndex == normalIndex) {
+                indices.add(previous.index);
+            } else if (previous.duplicateVertex != null) {
+                dealWithAlreadyProcessedVertex(previous.duplicateVertex, textureIndex, normalIndex, indices, vertices);
+            } else {
+                Vertex duplicate = new Vertex(vertices.size(), previous.position);
+                duplicate.textureIndex = textureIndex;
+                duplicate.normalIndex = normalIndex;
+                previous.duplicateVertex = duplicate;
+                vertices.add(duplicate);
+                indices.add(duplicate.index);
+            }
+        }
+
+    }
+
+}
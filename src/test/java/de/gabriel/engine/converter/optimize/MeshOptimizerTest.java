@@ -0,0 +1,154 @@
+package de.gabriel.engine.converter.optimize;
+
+import de.gabriel.engine.converter.obj.ModelData;
+import de.gabriel.engine.converter.obj.ObjParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft mit dem {@link VertexCacheSimulator}, dass die Sortierung nach Forsyth im {@link MeshOptimizer} den ACMR
+ * (transformierte Vertices pro Dreieck) und den ATVR (transformierte Vertices pro Vertex) senkt, ohne Dreiecke zu
+ * verlieren oder ihre Orientierung zu ändern.
+ */
+class MeshOptimizerTest {
+
+    private static final String[] MODELS = {"barrel", "fern", "lamp", "pine", "player", "stall"};
+
+    @Test
+    void forsythImprovesAcmrOfShuffledGrid() {
+        int size = 64;
+        int[] indices = shuffledGrid(size, new Random(42));
+        int vertexCount = (size + 1) * (size + 1);
+        int[] optimized = indices.clone();
+        MeshOptimizer.optimizeVertexCache(optimized, vertexCount);
+
+        CacheStatistics before = VertexCacheSimulator.analyze(indices, vertexCount);
+        CacheStatistics after = VertexCacheSimulator.analyze(optimized, vertexCount);
+        assertTrue(before.acmr() > 2.5f, "Shuffled grid should thrash the cache: " + before.acmr());
+        assertTrue(after.acmr() < 0.8f, "ACMR after optimization: " + after.acmr());
+        assertArrayEquals(canonicalTriangles(indices), canonicalTriangles(optimized));
+    }
+
+    @Test
+    void optimizeKeepsTrianglesAndDoesNotWorsenCacheOfBundledModels() throws IOException {
+        for (String model : MODELS) {
+            ModelData source = ObjParser.parse(Path.of("src/main/resources/models/" + model + ".obj")).toModelData();
+            ModelData optimized = MeshOptimizer.optimize(source);
+            CacheStatistics before = VertexCacheSimulator.analyze(source.indices(), source.vertices().length / 3);
+            CacheStatistics after = VertexCacheSimulator.analyze(optimized.indices(), optimized.vertices().length / 3);
+            assertEquals(source.indices().length, optimized.indices().length, model);
+            assertTrue(after.acmr() <= before.acmr(), model + ": ACMR " + before.acmr() + " -> " + after.acmr());
+            assertTrue(after.atvr() <= before.atvr(), model + ": ATVR " + before.atvr() + " -> " + after.atvr());
+            assertTrue(after.misses() <= before.misses(), model);
+            assertArrayEquals(resolvedTriangles(source), resolvedTriangles(optimized), model);
+        }
+    }
+
+    @Test
+    void emptyAndSingleTriangleMeshesAreUnchanged() {
+        int[] empty = {};
+        MeshOptimizer.optimizeVertexCache(empty, 0);
+        assertEquals(0, empty.length);
+        int[] triangle = {2, 0, 1};
+        MeshOptimizer.optimizeVertexCache(triangle, 3);
+        assertArrayEquals(canonicalTriangles(new int[]{2, 0, 1}), canonicalTriangles(triangle));
+    }
+
+    /**
+     * Ein Gitter aus size x size Quads (je zwei Dreiecke) in zufälliger Reihenfolge.
+     */
+    private static int[] shuffledGrid(int size, Random random) {
+        int[] indices = new int[size * size * 6];
+        int i = 0;
+        for (int z = 0; z < size; z++) {
+            for (int x = 0; x < size; x++) {
+                int topLeft = z * (size + 1) + x;
+                int bottomLeft = topLeft + size + 1;
+                indices[i++] = topLeft;
+                indices[i++] = bottomLeft;
+                indices[i++] = topLeft + 1;
+                indices[i++] = topLeft + 1;
+                indices[i++] = bottomLeft;
+                indices[i++] = bottomLeft + 1;
+            }
+        }
+        for (int triangle = indices.length / 3 - 1; triangle > 0; triangle--) {
+            int other = random.nextInt(triangle + 1);
+            for (int corner = 0; corner < 3; corner++) {
+                int swap = indices[triangle * 3 + corner];
+                indices[triangle * 3 + corner] = indices[other * 3 + corner];
+                indices[other * 3 + corner] = swap;
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Die Dreiecke mit den Bits ihrer Vertex-Attribute statt Indices, sortiert. Das Zusammenführen und Umsortieren
+     * der Vertices ändert die Indices, aber nicht die Dreiecke, die sie beschreiben. Jedes Dreieck wird so rotiert,
+     * dass es lexikographisch am kleinsten ist; die Orientierung bleibt dabei erhalten.
+     */
+    private static String[] resolvedTriangles(ModelData data) {
+        int[] indices = data.indices();
+        String[] triangles = new String[indices.length / 3];
+        for (int triangle = 0; triangle < triangles.length; triangle++) {
+            String a = vertexBits(data, indices[triangle * 3]);
+            String b = vertexBits(data, indices[triangle * 3 + 1]);
+            String c = vertexBits(data, indices[triangle * 3 + 2]);
+            String smallest = a + b + c;
+            for (String rotation : new String[]{b + c + a, c + a + b}) {
+                if (rotation.compareTo(smallest) < 0) {
+                    smallest = rotation;
+                }
+            }
+            triangles[triangle] = smallest;
+        }
+        Arrays.sort(triangles);
+        return triangles;
+    }
+
+    private static String vertexBits(ModelData data, int vertex) {
+        StringBuilder bits = new StringBuilder("(");
+        for (int i = 0; i < 3; i++) {
+            bits.append(Float.floatToRawIntBits(data.vertices()[vertex * 3 + i])).append(',');
+        }
+        for (int i = 0; i < 2; i++) {
+            bits.append(Float.floatToRawIntBits(data.textureCoords()[vertex * 2 + i])).append(',');
+        }
+        for (int i = 0; i < 3; i++) {
+            bits.append(Float.floatToRawIntBits(data.normals()[vertex * 3 + i])).append(',');
+        }
+        return bits.append(')').toString();
+    }
+
+    /**
+     * Die Dreiecke als sortierte Schlüssel, wobei jedes Dreieck so rotiert wird, dass sein kleinster Index vorne
+     * steht. Die Orientierung bleibt dabei erhalten.
+     */
+    private static long[] canonicalTriangles(int[] indices) {
+        long[] keys = new long[indices.length / 3];
+        for (int triangle = 0; triangle < keys.length; triangle++) {
+            int a = indices[triangle * 3];
+            int b = indices[triangle * 3 + 1];
+            int c = indices[triangle * 3 + 2];
+            while (a > b || a > c) {
+                int first = a;
+                a = b;
+                b = c;
+                c = first;
+            }
+            keys[triangle] = ((long) a << 42) | ((long) b << 21) | c;
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+}
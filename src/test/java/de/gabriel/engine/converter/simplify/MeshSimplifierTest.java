@@ -0,0 +1,76 @@
+package de.gabriel.engine.converter.simplify;
+
+import de.gabriel.engine.converter.obj.ModelData;
+import de.gabriel.engine.converter.obj.ObjParser;
+import de.gabriel.engine.converter.optimize.MeshOptimizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft die Fehler der Quadric Error Metric im {@link MeshSimplifier} und in den Detailstufen des
+ * {@link LodGenerator} an den mitgelieferten Models: je weniger Dreiecke übrig bleiben, desto größer (oder gleich)
+ * ist der Fehler, und der erlaubte Fehler wird nie überschritten.
+ */
+class MeshSimplifierTest {
+
+    private static final String[] MODELS = {"barrel", "fern", "lamp", "pine", "player", "stall"};
+
+    @Test
+    void errorGrowsAsTargetShrinks() throws IOException {
+        for (String model : MODELS) {
+            ModelData data = load(model);
+            int sourceTriangles = data.indices().length / 3;
+            float previousError = 0;
+            for (int step = 1; step < 20; step++) {
+                int targetTriangles = sourceTriangles * (20 - step) / 20;
+                SimplifiedMesh simplified = MeshSimplifier.simplify(data.vertices(), data.indices(),
+                        targetTriangles * 3, Float.MAX_VALUE);
+                assertTrue(simplified.error() >= previousError,
+                        model + ": error " + simplified.error() + " at " + targetTriangles + " triangles is below "
+                                + previousError);
+                previousError = simplified.error();
+            }
+            assertTrue(previousError > 0, model + " should have been simplified");
+        }
+    }
+
+    @Test
+    void errorStaysWithinTargetError() throws IOException {
+        for (String model : MODELS) {
+            ModelData data = load(model);
+            float maxError = data.furthestPoint() * 0.01f;
+            SimplifiedMesh simplified = MeshSimplifier.simplify(data.vertices(), data.indices(), 0, maxError);
+            assertTrue(simplified.error() <= maxError, model + ": error " + simplified.error() + " > " + maxError);
+            assertTrue(simplified.triangleCount() <= data.indices().length / 3);
+        }
+    }
+
+    @Test
+    void lodLevelsHaveMonotonicErrorAndFewerTriangles() throws IOException {
+        for (String model : MODELS) {
+            ModelData data = load(model);
+            List<LodMesh> levels = LodGenerator.generate(data);
+            assertEquals(0, levels.get(0).error());
+            assertEquals(data.indices().length / 3, levels.get(0).triangleCount());
+            float maxError = data.furthestPoint() * LodGenerator.DEFAULT_MAX_RELATIVE_ERROR;
+            for (int level = 1; level < levels.size(); level++) {
+                LodMesh previous = levels.get(level - 1);
+                LodMesh current = levels.get(level);
+                assertTrue(current.error() >= previous.error(), model + " level " + level);
+                assertTrue(current.triangleCount() < previous.triangleCount(), model + " level " + level);
+                assertTrue(current.error() <= maxError, model + " level " + level);
+            }
+        }
+    }
+
+    private static ModelData load(String model) throws IOException {
+        return MeshOptimizer.optimize(ObjParser.parse(Path.of("src/main/resources/models/" + model + ".obj")).toModelData());
+    }
+
+}
@@ -0,0 +1,231 @@
+package de.gabriel.engine.converter.vertex;
+
+import de.gabriel.engine.converter.obj.ModelData;
+import de.gabriel.engine.converter.obj.ObjParser;
+import de.gabriel.engine.models.PositionDecode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft die Fehlerschranken des {@link VertexPacker} im Layout {@link VertexLayout#QUANTIZED}: Positionen weichen
+ * höchstens eine halbe Quantisierungsstufe ab, gepackte Normalen höchstens um den Winkel, den der Rundungsfehler
+ * aller drei Komponenten ergibt, und Half-Float Textur Koordinaten höchstens um ihre relative Genauigkeit. Die
+ * Schranken gelten für zufällige Vertices und für jedes mitgelieferte Model, das im Layout {@link VertexLayout#QUANTIZED}
+ * halb so viele Vertex-Bytes wie im Layout {@link VertexLayout#STANDARD} belegt.
+ */
+class VertexPackerTest {
+
+    private static final Path MODELS = Path.of("src/main/resources/models");
+
+    private static final int VERTICES = 20_000;
+
+    /**
+     * Der größte relative Rundungsfehler eines Half Floats (halbe Stufe bei 10 Bit Mantisse).
+     */
+    private static final float HALF_RELATIVE_ERROR = 0x1p-11f;
+
+    /**
+     * Der größte absolute Rundungsfehler eines Half Floats im subnormalen Bereich.
+     */
+    private static final float HALF_SUBNORMAL_ERROR = 0x1p-25f;
+
+    private final Random random = new Random(42);
+    private final float[] positions = new float[VERTICES * 3];
+    private final float[] textureCoords = new float[VERTICES * 2];
+    private final float[] normals = new float[VERTICES * 3];
+
+    @Test
+    void positionsDecodeWithinHalfAStep() {
+        fillVertices();
+        assertPositions(pack(), positions, "random");
+    }
+
+    @Test
+    void packedNormalsWithinAngleBound() {
+        fillVertices();
+        assertNormals(pack(), normals, "random");
+    }
+
+    @Test
+    void halfFloatTextureCoordsWithinRelativeError() {
+        fillVertices();
+        textureCoords[0] = 0;
+        textureCoords[1] = 1;
+        textureCoords[2] = 1e-6f; // Subnormal als Half Float
+        textureCoords[3] = -0.999f;
+        PackedMesh mesh = pack();
+        assertTextureCoords(mesh, textureCoords, "random");
+        ByteBuffer vertices = mesh.vertices();
+        int attributeOffset = mesh.layout().get(1).offset();
+        assertEquals(0f, Float.float16ToFloat(vertices.getShort(attributeOffset)));
+        assertEquals(1f, Float.float16ToFloat(vertices.getShort(attributeOffset + Short.BYTES)));
+    }
+
+    @Test
+    void bundledModelsWithinErrorBoundsAtHalfTheSize() throws IOException {
+        List<Path> objFiles;
+        try (Stream<Path> files = Files.list(MODELS)) {
+            objFiles = files.filter(file -> file.toString().endsWith(".obj")).sorted().toList();
+        }
+        assertFalse(objFiles.isEmpty());
+        for (Path objFile : objFiles) {
+            String name = objFile.getFileName().toString();
+            ModelData data = ObjParser.parse(objFile).toModelData();
+            PackedMesh quantized = pack(VertexLayout.QUANTIZED, data);
+            PackedMesh standard = pack(VertexLayout.STANDARD, data);
+
+            assertPositions(quantized, data.vertices(), name);
+            assertTextureCoords(quantized, data.textureCoords(), name);
+            assertNormals(quantized, data.normals(), name);
+
+            int vertexCount = data.vertices().length / 3;
+            assertEquals(vertexCount * 32, standard.vertices().remaining(), name);
+            assertEquals(vertexCount * 16, quantized.vertices().remaining(), name);
+            assertEquals(standard.indices().remaining(), quantized.indices().remaining(), name);
+        }
+    }
+
+    /**
+     * Positionen weichen höchstens eine halbe Quantisierungsstufe ab und liegen in der Bounding Sphere.
+     */
+    private static void assertPositions(PackedMesh mesh, float[] positions, String name) {
+        PositionDecode decode = mesh.positionDecode();
+        float[] scale = {decode.scaleX(), decode.scaleY(), decode.scaleZ()};
+        float[] offset = {decode.offsetX(), decode.offsetY(), decode.offsetZ()};
+        ByteBuffer vertices = mesh.vertices();
+        int stride = mesh.layout().getStride();
+        int attributeOffset = mesh.layout().get(0).offset();
+        float maxRadius = 0;
+        for (int vertex = 0; vertex < mesh.vertexCount(); vertex++) {
+            float lengthSquared = 0;
+            for (int axis = 0; axis < 3; axis++) {
+                short quantized = vertices.getShort(vertex * stride + attributeOffset + axis * Short.BYTES);
+                float decoded = VertexPacker.dequantizeSnorm16(quantized) * scale[axis] + offset[axis];
+                float source = positions[vertex * 3 + axis];
+                float halfStep = scale[axis] / VertexPacker.SNORM16_MAX / 2;
+                float rounding = 4 * Math.ulp(Math.abs(source) + scale[axis]); // Float-Arithmetik beim Dekodieren
+                assertTrue(Math.abs(decoded - source) <= halfStep + rounding,
+                        name + " vertex " + vertex + " axis " + axis + ": " + source + " -> " + decoded);
+                lengthSquared += decoded * decoded;
+            }
+            maxRadius = Math.max(maxRadius, (float) Math.sqrt(lengthSquared));
+        }
+        assertTrue(mesh.boundingRadius() >= maxRadius, name + ": bounding radius must contain all decoded positions");
+    }
+
+    /**
+     * Jede Komponente einer gepackten Normale weicht höchstens eine halbe Stufe von der normalisierten Quelle ab,
+     * die Richtung höchstens um den Winkel, den dieser Fehler in allen drei Komponenten ergibt.
+     */
+    private static void assertNormals(PackedMesh mesh, float[] normals, String name) {
+        ByteBuffer vertices = mesh.vertices();
+        int stride = mesh.layout().getStride();
+        int attributeOffset = mesh.layout().get(2).offset();
+        float componentError = 0.5f / VertexPacker.SNORM10_MAX;
+        double maxAngle = Math.asin(Math.sqrt(3) * componentError);
+        double worstAngle = 0;
+        for (int vertex = 0; vertex < mesh.vertexCount(); vertex++) {
+            int packed = vertices.getInt(vertex * stride + attributeOffset);
+            float nx = normals[vertex * 3];
+            float ny = normals[vertex * 3 + 1];
+            float nz = normals[vertex * 3 + 2];
+            float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+            float[] source = {nx / length, ny / length, nz / length};
+            float[] decoded = new float[3];
+            for (int component = 0; component < 3; component++) {
+                decoded[component] = VertexPacker.unpackSnorm10(packed, component);
+                assertTrue(Math.abs(decoded[component] - source[component]) <= componentError + 1e-6f,
+                        name + " vertex " + vertex + " component " + component);
+            }
+            double dot = (source[0] * decoded[0] + source[1] * decoded[1] + source[2] * decoded[2])
+                    / Math.sqrt(decoded[0] * decoded[0] + decoded[1] * decoded[1] + decoded[2] * decoded[2]);
+            worstAngle = Math.max(worstAngle, Math.acos(Math.min(1, dot)));
+        }
+        assertTrue(worstAngle <= maxAngle + 1e-6, name + ": worst normal angle " + Math.toDegrees(worstAngle) + " degrees");
+    }
+
+    /**
+     * Half-Float Textur Koordinaten weichen höchstens um ihre relative Genauigkeit ab.
+     */
+    private static void assertTextureCoords(PackedMesh mesh, float[] textureCoords, String name) {
+        ByteBuffer vertices = mesh.vertices();
+        int stride = mesh.layout().getStride();
+        int attributeOffset = mesh.layout().get(1).offset();
+        for (int vertex = 0; vertex < mesh.vertexCount(); vertex++) {
+            for (int component = 0; component < 2; component++) {
+                short half = vertices.getShort(vertex * stride + attributeOffset + component * Short.BYTES);
+                float decoded = Float.float16ToFloat(half);
+                float source = textureCoords[vertex * 2 + component];
+                float bound = Math.max(Math.abs(source) * HALF_RELATIVE_ERROR, HALF_SUBNORMAL_ERROR);
+                assertTrue(Math.abs(decoded - source) <= bound,
+                        name + " vertex " + vertex + ": " + source + " -> " + decoded);
+            }
+        }
+    }
+
+    /**
+     * Füllt die Attribute mit zufälligen Werten: Positionen in einer flachen, verschobenen Box, Textur Koordinaten
+     * auch außerhalb von [0, 1] (Kacheln) und nicht normalisierte Normalen.
+     */
+    private void fillVertices() {
+        for (int vertex = 0; vertex < VERTICES; vertex++) {
+            positions[vertex * 3] = -3 + random.nextFloat() * 20;
+            positions[vertex * 3 + 1] = random.nextFloat() * 0.5f;
+            positions[vertex * 3 + 2] = -100 + random.nextFloat() * 80;
+            textureCoords[vertex * 2] = random.nextFloat();
+            textureCoords[vertex * 2 + 1] = random.nextFloat() * 8 - 4;
+            float nx;
+            float ny;
+            float nz;
+            do {
+                nx = random.nextFloat() * 2 - 1;
+                ny = random.nextFloat() * 2 - 1;
+                nz = random.nextFloat() * 2 - 1;
+            } while (nx * nx + ny * ny + nz * nz < 1e-4f);
+            float length = 0.5f + random.nextFloat() * 2;
+            normals[vertex * 3] = nx * length;
+            normals[vertex * 3 + 1] = ny * length;
+            normals[vertex * 3 + 2] = nz * length;
+        }
+    }
+
+    private static PackedMesh pack(VertexLayout layout, ModelData data) {
+        VertexStream[] streams = {
+                VertexStream.of(data.vertices(), 3),
+                VertexStream.of(data.textureCoords(), 2),
+                VertexStream.of(data.normals(), 3)
+        };
+        return VertexPacker.pack(layout, streams, data.vertices().length / 3, IntBuffer.wrap(data.indices()),
+                data.furthestPoint());
+    }
+
+    private PackedMesh pack() {
+        VertexStream[] streams = {
+                VertexStream.of(positions, 3),
+                VertexStream.of(textureCoords, 2),
+                VertexStream.of(normals, 3)
+        };
+        float furthestPoint = 0;
+        for (int vertex = 0; vertex < VERTICES; vertex++) {
+            float x = positions[vertex * 3];
+            float y = positions[vertex * 3 + 1];
+            float z = positions[vertex * 3 + 2];
+            furthestPoint = Math.max(furthestPoint, (float) Math.sqrt(x * x + y * y + z * z));
+        }
+        return VertexPacker.pack(VertexLayout.QUANTIZED, streams, VERTICES, IntBuffer.wrap(new int[]{0, 1, 2}),
+                furthestPoint);
+    }
+
+}
@@ -0,0 +1,90 @@
+package de.gabriel.engine.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft die Auswahl der Frames eines {@link Impostor}s: die Blickrichtung jedes Frames wählt das Frame selbst, jede
+ * andere Richtung ein Frame, das in Gier- und Höhenwinkel höchstens einen halben Schritt entfernt liegt, und
+ * Richtungen außerhalb der gebackenen Höhenwinkel das nächste Frame am Rand.
+ */
+class ImpostorTest {
+
+    private static final int COLUMNS = 8;
+    private static final int ROWS = 3;
+
+    private final Impostor impostor = new Impostor(1, 2, 0.25f, 0.5f, 1 / 32f, COLUMNS, ROWS, 0, 1, 0, 2);
+
+    @Test
+    void frameDirectionsSelectTheirFrame() {
+        for (int frame = 0; frame < impostor.frameCount(); frame++) {
+            double yaw = impostor.frameYaw(frame);
+            double elevation = impostor.frameElevation(frame);
+            float length = 0.5f + frame; // Die Richtung muss nicht normiert sein
+            float x = (float) (Math.sin(yaw) * Math.cos(elevation)) * length;
+            float y = (float) Math.sin(elevation) * length;
+            float z = (float) (Math.cos(yaw) * Math.cos(elevation)) * length;
+            assertEquals(frame, impostor.selectFrame(x, y, z), "Frame " + frame);
+        }
+        assertEquals(0, impostor.selectFrame(0, 0, 1), "+Z is the first column");
+        assertEquals(2, impostor.selectFrame(1, 0, 0), "+X is a quarter turn");
+        assertEquals(4, impostor.selectFrame(0, 0, -1));
+        assertEquals(6, impostor.selectFrame(-1, 0, 0));
+    }
+
+    @Test
+    void randomDirectionsSelectNearestYawAndElevation() {
+        Random random = new Random(42);
+        double yawStep = 2 * Math.PI / COLUMNS;
+        double elevationStep = Impostor.MAX_ELEVATION / (ROWS - 1);
+        for (int i = 0; i < 10_000; i++) {
+            double yaw = random.nextDouble() * 2 * Math.PI;
+            double elevation = random.nextDouble() * Impostor.MAX_ELEVATION;
+            float x = (float) (Math.sin(yaw) * Math.cos(elevation));
+            float y = (float) Math.sin(elevation);
+            float z = (float) (Math.cos(yaw) * Math.cos(elevation));
+            int frame = impostor.selectFrame(x, y, z);
+
+            double yawError = Math.abs(yaw - impostor.frameYaw(frame));
+            yawError = Math.min(yawError, 2 * Math.PI - yawError); // Über 0° hinweg
+            assertTrue(yawError <= yawStep / 2 + 1e-5, "Yaw " + Math.toDegrees(yaw) + " -> frame " + frame);
+            double elevationError = Math.abs(elevation - impostor.frameElevation(frame));
+            assertTrue(elevationError <= elevationStep / 2 + 1e-5,
+                    "Elevation " + Math.toDegrees(elevation) + " -> frame " + frame);
+        }
+    }
+
+    @Test
+    void elevationOutsideBakedRangeIsClamped() {
+        assertEquals(ROWS - 1, impostor.selectFrame(0, 1, 0) / COLUMNS, "Straight from above");
+        assertEquals(ROWS - 1, impostor.selectFrame(0.1f, 1, 0.2f) / COLUMNS);
+        assertEquals(0, impostor.selectFrame(0, -1, 1) / COLUMNS, "From below the horizon");
+        assertEquals(0, impostor.selectFrame(0, -1, 0) / COLUMNS);
+
+        Impostor singleRow = new Impostor(1, 2, 0, 0, 0.125f, 4, 1, 0, 0, 0, 1);
+        assertEquals(1, singleRow.selectFrame(1, 5, 0));
+        assertEquals(0, singleRow.frameElevation(1));
+    }
+
+    @Test
+    void framesTileTheAtlasRegion() {
+        for (int frame = 0; frame < impostor.frameCount(); frame++) {
+            assertEquals(0.25f + frame % COLUMNS / 32f, impostor.frameU(frame), "Frame " + frame);
+            assertEquals(0.5f + frame / COLUMNS / 32f, impostor.frameV(frame), "Frame " + frame);
+        }
+    }
+
+    @Test
+    void fadeRampsOverFadeWidth() {
+        assertEquals(0, Impostor.fade(100, 150, 30));
+        assertEquals(0, Impostor.fade(150, 150, 30));
+        assertEquals(0.5f, Impostor.fade(165, 150, 30));
+        assertEquals(1, Impostor.fade(180, 150, 30));
+        assertEquals(1, Impostor.fade(151, 150, 0));
+    }
+
+}
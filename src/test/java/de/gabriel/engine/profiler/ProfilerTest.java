@@ -0,0 +1,368 @@
+package de.gabriel.engine.profiler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft den {@link Profiler} mit einer Uhr, deren Zeit der Test vorgibt: die Perzentile nach dem Nearest-Rank-Verfahren,
+ * das Fenster der letzten {@link Profiler#WINDOW_FRAMES} Frames, die Prüfung verschachtelter Zonen, {@link Profiler#reset()}
+ * nach einer offen gebliebenen Zone, den Chrome Trace als JSON und dass ein Frame ohne Allokationen gemessen wird.
+ */
+class ProfilerTest {
+
+    private static final long MILLISECOND = 1_000_000;
+
+    private static final int OUTER = Profiler.zone("Outer");
+
+    /**
+     * Anführungszeichen, Backslash und Tab müssen im Chrome Trace escaped werden.
+     */
+    private static final int INNER = Profiler.zone("Inner \"zone\" \\ \t");
+
+    private long now = 5_000 * MILLISECOND;
+
+    @BeforeEach
+    void installClock() {
+        Profiler.clock = () -> now;
+        Profiler.setEnabled(true);
+        Profiler.endFrame();
+        Profiler.reset();
+    }
+
+    @AfterEach
+    void restoreClock() {
+        Profiler.setEnabled(false);
+        Profiler.reset();
+        Profiler.endFrame();
+        Profiler.clock = System::nanoTime;
+    }
+
+    @Test
+    void percentilesUseNearestRank() {
+        // Die Dauern 1 bis 100 ms in vertauschter Reihenfolge, damit die Perzentile sortieren müssen
+        for (int frame = 0; frame < 100; frame++) {
+            nestedFrame((frame * 37) % 100 + 1);
+        }
+
+        List<Profiler.ZoneSummary> summaries = Profiler.getSummaries();
+        assertEquals(3, summaries.size());
+        // INNER läuft zweimal pro Frame (2, 4, ..., 200 ms), OUTER und der Frame 1 ms länger
+        assertSummary(summaries.get(0), "Frame", 0, 1, 101, 191, 199);
+        assertSummary(summaries.get(1), "Outer", 1, 1, 101, 191, 199);
+        assertSummary(summaries.get(2), "Inner \"zone\" \\ \t", 2, 2, 100, 190, 198);
+        assertFalse(summaries.get(0).hasGpu());
+    }
+
+    @Test
+    void percentilesOnlyCoverLastWindow() {
+        for (int frame = 0; frame < 300; frame++) {
+            singleFrame(1_000);
+        }
+        // Überschreibt jede Spalte des Fensters genau einmal mit 1 bis 256 ms
+        for (int frame = 0; frame < Profiler.WINDOW_FRAMES; frame++) {
+            singleFrame((frame * 101) % Profiler.WINDOW_FRAMES + 1);
+        }
+
+        Profiler.ZoneSummary outer = Profiler.getSummaries().get(1);
+        assertSummary(outer, "Outer", 1, 1, 128, 244, 254);
+    }
+
+    @Test
+    void unbalancedZonesThrow() {
+        assertThrows(IllegalStateException.class, () -> Profiler.end(OUTER), "End without begin");
+
+        Profiler.begin(OUTER);
+        assertThrows(IllegalStateException.class, () -> Profiler.end(INNER), "End of a zone that is not on top");
+        Profiler.begin(INNER);
+        Profiler.end(INNER);
+        Profiler.end(OUTER);
+        Profiler.endFrame();
+
+        for (int i = 0; i < Profiler.MAX_DEPTH; i++) {
+            Profiler.begin(i % 2 == 0 ? OUTER : INNER);
+        }
+        assertThrows(IllegalStateException.class, () -> Profiler.begin(OUTER), "Nested deeper than MAX_DEPTH");
+    }
+
+    @Test
+    void resetDiscardsOpenZones() {
+        nestedFrame(1);
+        Profiler.begin(OUTER);
+        Profiler.begin(INNER); // Eine Exception verlässt den Frame, bevor die Zonen geschlossen werden
+
+        assertThrows(IllegalStateException.class, Profiler::endFrame);
+        assertThrows(IllegalStateException.class, Profiler::endFrame, "Still open in the next frame");
+
+        Profiler.reset();
+        assertTrue(Profiler.getSummaries().isEmpty());
+        nestedFrame(3);
+        List<Profiler.ZoneSummary> summaries = Profiler.getSummaries();
+        assertSummary(summaries.get(1), "Outer", 1, 1, 7, 7, 7);
+        assertEquals(2, summaries.get(2).calls());
+    }
+
+    @Test
+    void enablingAgainDiscardsCallsOfLastFrame() {
+        nestedFrame(1);
+        Profiler.setEnabled(false);
+        Profiler.endFrame();
+        assertFalse(Profiler.isEnabled());
+        Profiler.begin(OUTER); // Wird bei deaktiviertem Profiler ignoriert
+        Profiler.setEnabled(true);
+        Profiler.endFrame();
+
+        assertTrue(Profiler.isEnabled());
+        List<Profiler.ZoneSummary> summaries = Profiler.getSummaries();
+        assertEquals(0, summaries.get(1).calls());
+        assertEquals(0, summaries.get(2).calls());
+        nestedFrame(1);
+        assertEquals(2, Profiler.getSummaries().get(2).calls());
+    }
+
+    @Test
+    void chromeTraceIsValidJson(@TempDir Path directory) throws IOException {
+        now += 1_500; // 1,5 µs nach dem reset() beginnt die erste Zone
+        Profiler.begin(OUTER);
+        now += MILLISECOND;
+        Profiler.begin(INNER);
+        now += 2_500_250;
+        Profiler.end(INNER);
+        now += 250;
+        Profiler.end(OUTER);
+        Profiler.endFrame();
+
+        Path trace = directory.resolve("trace.json");
+        Profiler.writeChromeTrace(trace);
+        Map<?, ?> root = (Map<?, ?>) new JsonParser(Files.readString(trace)).parse();
+
+        assertEquals("ms", root.get("displayTimeUnit"));
+        List<?> events = (List<?>) root.get("traceEvents");
+        assertEquals(6, events.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("M", ((Map<?, ?>) events.get(i)).get("ph"));
+        }
+        assertEquals("Main", ((Map<?, ?>) ((Map<?, ?>) events.get(1)).get("args")).get("name"));
+        // Zonen in der Reihenfolge, in der sie geschlossen wurden; Zeiten in Mikrosekunden ab dem reset()
+        assertEvent(events.get(3), "Inner \"zone\" \\ \t", 1001.5, 2500.25);
+        assertEvent(events.get(4), "Outer", 1.5, 3500.5);
+        assertEvent(events.get(5), "Frame", 0, 3502);
+    }
+
+    @Test
+    void warmFrameDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int frame = 0; frame < 200; frame++) { // Aufwärmen: der JIT kompiliert
+            nestedFrame(frame % 10);
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        // Das kleinste Ergebnis mehrerer Runden: eine Deoptimierung des JIT kann einzelne Objekte anlegen, die
+        // sonst per Escape Analysis wegfallen; eine Allokation pro Frame zeigt sich dagegen in jeder Runde
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 5 && allocated > 0; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int frame = 0; frame < 100; frame++) {
+                nestedFrame(frame % 10);
+            }
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(threadId) - before);
+        }
+
+        assertEquals(0, allocated, "Bytes allocated by 100 warm frames");
+    }
+
+    /**
+     * Ein Frame mit OUTER, das 1 ms selbst und zweimal INNER mit je {@code innerMillis} ms enthält.
+     */
+    private void nestedFrame(int innerMillis) {
+        Profiler.begin(OUTER);
+        now += MILLISECOND;
+        for (int i = 0; i < 2; i++) {
+            Profiler.begin(INNER);
+            now += innerMillis * MILLISECOND;
+            Profiler.end(INNER);
+        }
+        Profiler.end(OUTER);
+        Profiler.endFrame();
+    }
+
+    private void singleFrame(int millis) {
+        Profiler.begin(OUTER);
+        now += millis * MILLISECOND;
+        Profiler.end(OUTER);
+        Profiler.endFrame();
+    }
+
+    private static void assertSummary(Profiler.ZoneSummary summary, String name, int depth, int calls,
+                                      float p50, float p95, float p99) {
+        assertEquals(name, summary.name());
+        assertEquals(depth, summary.depth(), "Depth of " + name);
+        assertEquals(calls, summary.calls(), "Calls of " + name);
+        assertEquals(p50, summary.cpuP50(), 1e-3f, "p50 of " + name);
+        assertEquals(p95, summary.cpuP95(), 1e-3f, "p95 of " + name);
+        assertEquals(p99, summary.cpuP99(), 1e-3f, "p99 of " + name);
+    }
+
+    private static void assertEvent(Object event, String name, double ts, double dur) {
+        Map<?, ?> fields = (Map<?, ?>) event;
+        assertEquals(name, fields.get("name"));
+        assertEquals("X", fields.get("ph"));
+        assertEquals(1.0, fields.get("tid"));
+        assertEquals(ts, (Double) fields.get("ts"), 1e-9, "ts of " + name);
+        assertEquals(dur, (Double) fields.get("dur"), 1e-9, "dur of " + name);
+    }
+
+    /**
+     * Ein strikter JSON-Parser für den Chrome Trace: Objekte, Arrays, Strings mit Escapes und Zahlen; alles andere
+     * (auch ein Komma nach dem letzten Element) schlägt fehl.
+     */
+    private static final class JsonParser {
+
+        private final String json;
+        private int position;
+
+        JsonParser(String json) {
+            this.json = json;
+        }
+
+        Object parse() {
+            Object value = value();
+            skipWhitespace();
+            if (position != json.length()) {
+                throw error("Trailing characters");
+            }
+            return value;
+        }
+
+        private Object value() {
+            skipWhitespace();
+            if (position == json.length()) {
+                throw error("Unexpected end");
+            }
+            char c = json.charAt(position);
+            if (c == '{') {
+                return object();
+            } else if (c == '[') {
+                return array();
+            } else if (c == '"') {
+                return string();
+            } else if (c == '-' || c >= '0' && c <= '9') {
+                return number();
+            }
+            throw error("Unexpected character '" + c + "'");
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> object = new LinkedHashMap<String, Object>();
+            expect('{');
+            skipWhitespace();
+            if (json.charAt(position) == '}') {
+                position++;
+                return object;
+            }
+            do {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                if (object.put(key, value()) != null) {
+                    throw error("Duplicate key " + key);
+                }
+                skipWhitespace();
+            } while (json.charAt(position++) == ',');
+            if (json.charAt(position - 1) != '}') {
+                throw error("Expected '}'");
+            }
+            return object;
+        }
+
+        private List<Object> array() {
+            List<Object> array = new ArrayList<Object>();
+            expect('[');
+            skipWhitespace();
+            if (json.charAt(position) == ']') {
+                position++;
+                return array;
+            }
+            do {
+                array.add(value());
+                skipWhitespace();
+            } while (json.charAt(position++) == ',');
+            if (json.charAt(position - 1) != ']') {
+                throw error("Expected ']'");
+            }
+            return array;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder string = new StringBuilder();
+            while (true) {
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return string.toString();
+                } else if (c < 0x20) {
+                    throw error("Unescaped control character");
+                } else if (c != '\\') {
+                    string.append(c);
+                    continue;
+                }
+                char escaped = json.charAt(position++);
+                switch (escaped) {
+                    case '"', '\\', '/' -> string.append(escaped);
+                    case 'b' -> string.append('\b');
+                    case 'f' -> string.append('\f');
+                    case 'n' -> string.append('\n');
+                    case 'r' -> string.append('\r');
+                    case 't' -> string.append('\t');
+                    case 'u' -> {
+                        string.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                        position += 4;
+                    }
+                    default -> throw error("Invalid escape '\\" + escaped + "'");
+                }
+            }
+        }
+
+        private Double number() {
+            int start = position;
+            while (position < json.length() && "+-0123456789.eE".indexOf(json.charAt(position)) >= 0) {
+                position++;
+            }
+            return Double.valueOf(json.substring(start, position));
+        }
+
+        private void expect(char expected) {
+            if (json.charAt(position++) != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at " + position);
+        }
+
+    }
+
+}
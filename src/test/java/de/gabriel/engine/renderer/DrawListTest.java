@@ -0,0 +1,106 @@
+package de.gabriel.engine.renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft die Reihenfolge, die sich aus den {@link DrawKey Sortierschlüsseln} nach dem Sortieren einer
+ * {@link DrawList} ergibt: undurchsichtige Draw Calls nach Shader, Material und VAO gruppiert und innerhalb davon
+ * von vorne nach hinten, danach alle transparenten von hinten nach vorne.
+ */
+class DrawListTest {
+
+    @Test
+    void keysRoundTripTheirFields() {
+        long opaque = DrawKey.opaque(DrawKey.SHADER_NORMAL_MAPPING, 1234, 567, 42.5f);
+        assertFalse(DrawKey.isTranslucent(opaque));
+        assertEquals(DrawKey.SHADER_NORMAL_MAPPING, DrawKey.shader(opaque));
+        assertEquals(1234, DrawKey.material(opaque));
+        assertEquals(567, DrawKey.vao(opaque));
+
+        long translucent = DrawKey.translucent(DrawKey.SHADER_TERRAIN, 0x1_FFFF, 3, 1e9f);
+        assertTrue(DrawKey.isTranslucent(translucent));
+        assertEquals(DrawKey.SHADER_TERRAIN, DrawKey.shader(translucent));
+        assertEquals(0xFFFF, DrawKey.material(translucent), "Material is truncated to 16 bits");
+        assertEquals(3, DrawKey.vao(translucent));
+    }
+
+    @Test
+    void depthOrderWithinSameState() {
+        DrawList list = new DrawList();
+        float[] depths = {50, 0, 1e6f, 0.25f, 3, -1};
+        for (int i = 0; i < depths.length; i++) {
+            list.add(DrawKey.opaque(DrawKey.SHADER_ENTITY, 1, 1, depths[i]), i);
+            list.add(DrawKey.translucent(DrawKey.SHADER_ENTITY, 1, 1, depths[i]), depths.length + i);
+        }
+        list.sort();
+
+        // Negative Tiefen zählen als 0 und bleiben (stabil) hinter der echten 0
+        int[] frontToBack = {1, 5, 3, 4, 0, 2};
+        int[] backToFront = {2, 0, 4, 3, 1, 5};
+        int firstTranslucent = list.firstTranslucent();
+        assertEquals(depths.length, firstTranslucent);
+        for (int i = 0; i < depths.length; i++) {
+            assertEquals(frontToBack[i], list.getValue(i), "Opaque at " + i);
+            assertEquals(depths.length + backToFront[i], list.getValue(firstTranslucent + i), "Translucent at " + i);
+        }
+    }
+
+    @Test
+    void opaqueGroupedByStateThenTranslucentBackToFront() {
+        DrawList list = new DrawList(4); // Wächst beim Hinzufügen
+        Random random = new Random(42);
+        int count = 2_000;
+        for (int i = 0; i < count; i++) {
+            int shader = random.nextInt(3);
+            int material = random.nextInt(8);
+            int vao = random.nextInt(8);
+            float depth = random.nextFloat() * 10_000;
+            list.add(random.nextInt(4) == 0
+                    ? DrawKey.translucent(shader, material, vao, depth)
+                    : DrawKey.opaque(shader, material, vao, depth), i);
+        }
+        int changesBefore = list.countStateChanges();
+        list.sort();
+
+        assertEquals(count, list.size());
+        int firstTranslucent = list.firstTranslucent();
+        for (int i = 0; i < count; i++) {
+            assertEquals(i >= firstTranslucent, DrawKey.isTranslucent(list.getKey(i)), "Draw call " + i);
+        }
+        for (int i = 1; i < firstTranslucent; i++) {
+            long previous = list.getKey(i - 1);
+            long current = list.getKey(i);
+            int order = Integer.compare(DrawKey.shader(previous), DrawKey.shader(current));
+            if (order == 0) {
+                order = Integer.compare(DrawKey.material(previous), DrawKey.material(current));
+            }
+            if (order == 0) {
+                order = Integer.compare(DrawKey.vao(previous), DrawKey.vao(current));
+            }
+            assertTrue(order <= 0, "Opaque draw call " + i + " is out of state order");
+            if (order == 0) {
+                assertTrue(Long.compareUnsigned(previous, current) <= 0, "Opaque draw call " + i + " is behind");
+            }
+        }
+        for (int i = firstTranslucent + 1; i < count; i++) {
+            long previous = list.getKey(i - 1);
+            long current = list.getKey(i);
+            assertTrue(DrawKey.shader(previous) <= DrawKey.shader(current), "Translucent draw call " + i);
+            if (DrawKey.shader(previous) == DrawKey.shader(current)) {
+                assertTrue(Long.compareUnsigned(previous, current) <= 0, "Translucent draw call " + i);
+            }
+        }
+        // 3 Shader x 8 Materialien x 8 VAOs undurchsichtig, transparent höchstens ein Wechsel pro Draw Call
+        int opaqueStates = 3 * 8 * 8;
+        assertTrue(list.countStateChanges() <= opaqueStates + (count - firstTranslucent));
+        assertTrue(list.countStateChanges() < changesBefore / 2,
+                "State changes " + changesBefore + " -> " + list.countStateChanges());
+    }
+
+}
@@ -0,0 +1,103 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.models.Impostor;
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.textures.ModelTexture;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft die Quads des {@link ImpostorBuffer}s ohne OpenGL-Context: das Frame wird nach der Richtung zur Kamera im
+ * Modellkoordinatensystem der (um die Y-Achse rotierten) Entity gewählt, und das Quad steht im Mittelpunkt der
+ * Bounding Sphere, ist der Kamera zugewandt und so groß wie die Sphere.
+ */
+class ImpostorBufferTest {
+
+    private static final float EPSILON = 1e-4f;
+
+    private final Impostor impostor = new Impostor(1, 2, 0, 0, 1 / 8f, 8, 3, 0, 1.5f, 0.5f, 2);
+    private final TexturedModel model = new TexturedModel(new RawModel(1, 36, 2), new ModelTexture(1));
+
+    @Test
+    void selectsFrameFromCameraDirectionInModelSpace() {
+        Random random = new Random(42);
+        ImpostorBuffer buffer = new ImpostorBuffer(1);
+        Matrix4f inverse = new Matrix4f();
+        Vector3f center = new Vector3f();
+        Vector3f toCamera = new Vector3f();
+        for (int i = 0; i < 1_000; i++) {
+            Entity entity = new Entity(model, new Vector3f(random.nextFloat() * 100, random.nextFloat() * 10,
+                    random.nextFloat() * 100), 0, random.nextFloat() * 720 - 360, 0, 0.5f + random.nextFloat() * 2);
+            Vector3f camera = new Vector3f(random.nextFloat() * 400 - 200, random.nextFloat() * 80,
+                    random.nextFloat() * 400 - 200);
+            buffer.clear();
+            buffer.add(entity, impostor, camera);
+
+            // Erwartet: die Richtung zur Kamera mit der inversen Transformation ins Modell zurückgedreht
+            entity.getTransformationMatrix().transformPosition(impostor.centerX(), impostor.centerY(),
+                    impostor.centerZ(), center);
+            entity.getTransformationMatrix().invert(inverse).transformDirection(camera.sub(center, toCamera));
+            int expected = impostor.selectFrame(toCamera.x, toCamera.y, toCamera.z);
+
+            FloatBuffer vertices = buffer.flip();
+            assertEquals(impostor.frameU(expected), vertices.get(3), EPSILON, "Frame of quad " + i);
+            assertEquals(impostor.frameV(expected), vertices.get(4), EPSILON, "Frame of quad " + i);
+        }
+    }
+
+    @Test
+    void quadFacesCameraAtSphereCenter() {
+        Entity entity = new Entity(model, new Vector3f(10, 0, -20), 0, 30, 0, 1.5f);
+        entity.setImpostorFade(0.75f);
+        Vector3f camera = new Vector3f(-40, 25, 60);
+        ImpostorBuffer buffer = new ImpostorBuffer(2);
+        buffer.add(entity, impostor, camera);
+        FloatBuffer vertices = buffer.flip();
+
+        Vector3f center = entity.getTransformationMatrix().transformPosition(impostor.centerX(), impostor.centerY(),
+                impostor.centerZ(), new Vector3f());
+        Vector3f[] corners = new Vector3f[ImpostorBuffer.VERTICES_PER_IMPOSTOR];
+        Vector3f sum = new Vector3f();
+        for (int corner = 0; corner < corners.length; corner++) {
+            int offset = corner * ImpostorBuffer.VERTEX_LENGTH;
+            corners[corner] = new Vector3f(vertices.get(offset), vertices.get(offset + 1), vertices.get(offset + 2));
+            sum.add(corners[corner]);
+            assertEquals(0.75f, vertices.get(offset + 5), "Fade");
+            assertEquals((float) Math.toRadians(30), vertices.get(offset + 6), EPSILON, "Rotation");
+        }
+        assertTrue(sum.div(corners.length).distance(center) < EPSILON, "Quad centered on the sphere");
+
+        float halfSize = impostor.radius() * entity.getScale();
+        Vector3f right = corners[1].sub(corners[0], new Vector3f());
+        Vector3f up = corners[3].sub(corners[0], new Vector3f());
+        assertEquals(2 * halfSize, right.length(), EPSILON);
+        assertEquals(2 * halfSize, up.length(), EPSILON);
+        assertEquals(0, right.dot(up), EPSILON);
+        assertEquals(0, right.y, EPSILON, "Right axis stays horizontal");
+        Vector3f normal = right.cross(up, new Vector3f()).normalize();
+        Vector3f toCamera = camera.sub(center, new Vector3f()).normalize();
+        assertEquals(1, normal.dot(toCamera), EPSILON, "Counter-clockwise quad faces the camera");
+    }
+
+    @Test
+    void rejectsImpostorsBeyondCapacity() {
+        ImpostorBuffer buffer = new ImpostorBuffer(1);
+        Entity entity = new Entity(model, new Vector3f(), 0, 0, 0, 1);
+        buffer.add(entity, impostor, new Vector3f(0, 0, 10));
+        assertTrue(buffer.isFull());
+        assertThrows(IllegalStateException.class, () -> buffer.add(entity, impostor, new Vector3f(0, 0, 10)));
+        buffer.clear();
+        assertEquals(0, buffer.size());
+    }
+
+}
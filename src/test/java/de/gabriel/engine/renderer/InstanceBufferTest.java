@@ -0,0 +1,106 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.textures.ModelTexture;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prüft das Layout des {@link InstanceBuffer}s ohne OpenGL-Context: pro Instanz 19 Floats aus spaltenweiser
+ * Transformationsmatrix, Offset im Texturatlas und Überblendung zum Impostor, sowie das Aufteilen eines Batches auf
+ * mehrere Aufrufe.
+ */
+class InstanceBufferTest {
+
+    private final List<Entity> entities = new ArrayList<Entity>();
+
+    InstanceBufferTest() {
+        ModelTexture texture = new ModelTexture(1);
+        texture.setNumberOfRows(4);
+        TexturedModel model = new TexturedModel(new RawModel(1, 36, 2), texture);
+        entities.add(createEntity(model, 0, new Vector3f(1, 2, 3), 0, 0, 0, 1, 0));
+        entities.add(createEntity(model, 6, new Vector3f(-10, 5, 20), 30, 45, 60, 2.5f, 0.4f));
+        entities.add(createEntity(model, 15, new Vector3f(100, -3, -50), 0, 270, 0, 0.5f, 1));
+    }
+
+    @Test
+    void packWritesNineteenFloatsPerInstance() {
+        InstanceBuffer instances = new InstanceBuffer(8);
+
+        assertEquals(3, instances.pack(entities, 0));
+
+        FloatBuffer buffer = instances.getBuffer();
+        assertEquals(0, buffer.position());
+        assertEquals(3 * 19, buffer.limit());
+        assertInstance(buffer, 0, entities.get(0), 0, 0, 0);
+        assertInstance(buffer, 1, entities.get(1), 0.5f, 0.25f, 0.4f); // Index 6: Spalte 2, Zeile 1
+        assertInstance(buffer, 2, entities.get(2), 0.75f, 0.75f, 1); // Index 15: Spalte 3, Zeile 3
+        // Die Translation liegt in der letzten Spalte
+        assertEquals(-10, buffer.get(19 + 12));
+        assertEquals(5, buffer.get(19 + 13));
+        assertEquals(20, buffer.get(19 + 14));
+    }
+
+    @Test
+    void packSplitsBatchAtMaxInstances() {
+        InstanceBuffer instances = new InstanceBuffer(2);
+
+        assertEquals(2, instances.pack(entities, 0));
+        assertEquals(2 * InstanceBuffer.INSTANCE_DATA_LENGTH, instances.getBuffer().limit());
+        assertInstance(instances.getBuffer(), 0, entities.get(0), 0, 0, 0);
+        assertInstance(instances.getBuffer(), 1, entities.get(1), 0.5f, 0.25f, 0.4f);
+
+        assertEquals(1, instances.pack(entities, 2));
+        assertEquals(InstanceBuffer.INSTANCE_DATA_LENGTH, instances.getBuffer().limit());
+        assertInstance(instances.getBuffer(), 0, entities.get(2), 0.75f, 0.75f, 1);
+
+        assertEquals(2, instances.pack(entities, 1));
+        assertInstance(instances.getBuffer(), 0, entities.get(1), 0.5f, 0.25f, 0.4f);
+        assertInstance(instances.getBuffer(), 1, entities.get(2), 0.75f, 0.75f, 1);
+    }
+
+    @Test
+    void packWithoutEntitiesLeavesBufferEmpty() {
+        InstanceBuffer instances = new InstanceBuffer(2);
+        instances.pack(entities, 0);
+
+        assertEquals(0, instances.pack(new ArrayList<Entity>(), 0));
+        assertEquals(0, instances.getBuffer().limit());
+
+        instances.pack(entities, 0);
+        assertEquals(0, instances.pack(entities, entities.size()));
+        assertEquals(0, instances.getBuffer().limit());
+    }
+
+    private static Entity createEntity(TexturedModel model, int textureIndex, Vector3f position, float rotX,
+                                       float rotY, float rotZ, float scale, float impostorFade) {
+        Entity entity = new Entity(model, textureIndex, position, rotX, rotY, rotZ, scale);
+        entity.setImpostorFade(impostorFade);
+        return entity;
+    }
+
+    private static void assertInstance(FloatBuffer buffer, int instance, Entity entity, float xOffset, float yOffset,
+                                       float impostorFade) {
+        int offset = instance * InstanceBuffer.INSTANCE_DATA_LENGTH;
+        Matrix4f matrix = entity.getTransformationMatrix();
+        for (int column = 0; column < 4; column++) {
+            for (int row = 0; row < 4; row++) {
+                assertEquals(matrix.get(column, row), buffer.get(offset + column * 4 + row),
+                        "Instance " + instance + ", column " + column + ", row " + row);
+            }
+        }
+        assertEquals(xOffset, buffer.get(offset + 16), "X offset of instance " + instance);
+        assertEquals(yOffset, buffer.get(offset + 17), "Y offset of instance " + instance);
+        assertEquals(impostorFade, buffer.get(offset + 18), "Impostor fade of instance " + instance);
+    }
+
+}
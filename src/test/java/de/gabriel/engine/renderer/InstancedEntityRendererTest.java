@@ -0,0 +1,58 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.converter.Loader;
+import de.gabriel.engine.entities.Camera;
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.renderer.backend.NullBackend;
+import de.gabriel.engine.renderer.backend.RenderBackend;
+import de.gabriel.engine.textures.ModelTexture;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prüft, dass der {@link InstancedEntityRenderer} die Attribute pro Instanz erneut hinzufügt, wenn OpenGL die ID
+ * eines freigegebenen VAOs für ein neues VAO wiederverwendet.
+ */
+class InstancedEntityRendererTest {
+
+    /**
+     * Die Anzahl der Attribute pro Instanz: vier Spalten der Matrix, Offset im Texturatlas und Überblendung.
+     */
+    private static final int INSTANCED_ATTRIBUTES = 6;
+
+    @Test
+    void releasedVaoIsPreparedAgainWhenItsIdIsReused() {
+        NullBackend backend = new NullBackend(1280, 720);
+        RenderBackend.use(backend);
+        Loader loader = new Loader();
+        InstancedEntityRenderer renderer = new InstancedEntityRenderer(loader);
+        Camera camera = new Camera();
+
+        RawModel released = loader.loadModel("barrel");
+        render(renderer, camera, released);
+        render(renderer, camera, released);
+        assertEquals(INSTANCED_ATTRIBUTES, backend.getCount(NullBackend.Command.VERTEX_ATTRIB_DIVISOR));
+
+        loader.releaseModel(released);
+        // Der NullBackend vergibt IDs nie doppelt; ein Treiber kann die ID des gelöschten VAOs sofort wiederverwenden
+        RawModel reused = new RawModel(released.vaoID(), released.vertexCount(), released.boundingRadius(),
+                released.indexType(), released.positionDecode());
+        render(renderer, camera, reused);
+        assertEquals(2 * INSTANCED_ATTRIBUTES, backend.getCount(NullBackend.Command.VERTEX_ATTRIB_DIVISOR));
+        renderer.cleanUp();
+    }
+
+    private static void render(InstancedEntityRenderer renderer, Camera camera, RawModel rawModel) {
+        TexturedModel model = new TexturedModel(rawModel, new ModelTexture(1));
+        RenderBatch batch = new RenderBatch(model);
+        batch.getVisibleEntities().add(new Entity(model, new Vector3f(-400, 0, -20), 0, 0, 0, 1));
+        renderer.render(List.of(batch), camera);
+    }
+
+}
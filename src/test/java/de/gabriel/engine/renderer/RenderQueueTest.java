@@ -0,0 +1,280 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.entities.Camera;
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.scene.LooseOctree;
+import de.gabriel.engine.textures.ModelTexture;
+import de.gabriel.engine.utils.Frustum;
+import de.gabriel.engine.utils.Maths;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft das Frustum Culling der {@link RenderQueue} ohne OpenGL-Context mit der View Matrix der Engine
+ * ({@link Maths#createViewMatrix(Camera)}) und der Projektionsmatrix des {@link MasterRenderer} gegen Entities, die
+ * knapp innerhalb bzw. außerhalb der Ebenen des Frustums liegen, und vergleicht die Entities, die der einzelne ({@link EntityRenderer}) und der instanzierte
+ * ({@link InstancedEntityRenderer}) Pfad aus den Batches zeichnen. Außerdem wird geprüft, dass ein Frame mit
+ * bewegten Entities nach dem Aufwärmen keinen Speicher allokiert.
+ */
+class RenderQueueTest {
+
+    private static final float GRID_HALF_SIZE = 100;
+    private static final float GRID_SPACING = 10;
+
+    /**
+     * Die Projektionsmatrix des {@link MasterRenderer} für ein Fenster mit 1280x720 Pixeln: horizontal 110° Sichtfeld
+     * (tan(55°) = 1,4281), vertikal tan(halbes Sichtfeld) = 1 / (cot(55°) · 16/9) = 0,8033.
+     */
+    private final Matrix4f projectionMatrix = MasterRenderer.createProjectionMatrix(1280, 720);
+    private final Camera camera = new Camera();
+    private final Frustum frustum = new Frustum();
+    private final List<Entity> entities = new ArrayList<Entity>();
+    private RenderQueue queue;
+
+    @BeforeEach
+    void createScene() {
+        TexturedModel opaque = new TexturedModel(new RawModel(1, 36, 1), new ModelTexture(1));
+        ModelTexture grassTexture = new ModelTexture(2);
+        grassTexture.setHasTransparency(true);
+        TexturedModel translucent = new TexturedModel(new RawModel(2, 12, 0.5f), grassTexture);
+        queue = new RenderQueue(new LooseOctree(new Vector3f(), 1024, 7));
+        int i = 0;
+        for (float x = -GRID_HALF_SIZE; x <= GRID_HALF_SIZE; x += GRID_SPACING) {
+            for (float z = -GRID_HALF_SIZE; z <= GRID_HALF_SIZE; z += GRID_SPACING) {
+                Entity entity = new Entity(i++ % 2 == 0 ? opaque : translucent, new Vector3f(x, 0, z), 0, 0, 0, 2);
+                entities.add(entity);
+                queue.add(entity);
+            }
+        }
+        FrameStatistics.endFrame();
+    }
+
+    @Test
+    void entitiesJustInsideAndOutsideEachPlane() {
+        // Kamera im Ursprung, Blick entlang -z; das Auge liegt Maths.PLAYER_HEIGHT = 7 über der Position. In 100
+        // Einheiten Abstand liegen die Seitenebenen bei x = ±142,8, die obere bei y = 87,3 und die untere bei
+        // y = -73,3. Die Sonden haben Radius 1 und liegen jeweils rund 1 Einheit (senkrecht zur Ebene) innerhalb
+        // bzw. 2 Einheiten außerhalb.
+        RenderQueue probes = probeQueue();
+        Entity leftInside = probe(probes, -141, 7, -100);
+        Entity leftOutside = probe(probes, -146, 7, -100);
+        Entity rightInside = probe(probes, 141, 7, -100);
+        Entity rightOutside = probe(probes, 146, 7, -100);
+        Entity bottomInside = probe(probes, 0, -72, -100);
+        Entity bottomOutside = probe(probes, 0, -76, -100);
+        Entity topInside = probe(probes, 0, 86, -100);
+        Entity topOutside = probe(probes, 0, 90, -100);
+        Entity nearInside = probe(probes, 0, 7, -1);
+        Entity nearOutside = probe(probes, 0, 7, 2);
+        Entity farInside = probe(probes, 0, 7, -997);
+        Entity farOutside = probe(probes, 0, 7, -1004);
+
+        Set<Entity> visible = cullProbes(probes, 0, 0, 0, 0, 0);
+
+        assertTrue(visible.contains(leftInside), "left inside");
+        assertFalse(visible.contains(leftOutside), "left outside");
+        assertTrue(visible.contains(rightInside), "right inside");
+        assertFalse(visible.contains(rightOutside), "right outside");
+        assertTrue(visible.contains(bottomInside), "bottom inside");
+        assertFalse(visible.contains(bottomOutside), "bottom outside");
+        assertTrue(visible.contains(topInside), "top inside");
+        assertFalse(visible.contains(topOutside), "top outside");
+        assertTrue(visible.contains(nearInside), "near inside");
+        assertFalse(visible.contains(nearOutside), "near outside");
+        assertTrue(visible.contains(farInside), "far inside");
+        assertFalse(visible.contains(farOutside), "far outside");
+        assertEquals(6, visible.size());
+        assertEquals(6, FrameStatistics.get(FrameStatistics.Counter.VISIBLE_ENTITIES));
+        assertEquals(6, FrameStatistics.get(FrameStatistics.Counter.CULLED_ENTITIES));
+    }
+
+    @Test
+    void viewMatrixFollowsCameraYawAndPitch() {
+        RenderQueue probes = probeQueue();
+        Entity east = probe(probes, 100, 7, 0);
+        Entity west = probe(probes, -100, 7, 0);
+        Entity northBelow = probe(probes, 0, -43, -50);
+        Entity northAbove = probe(probes, 0, 57, -50);
+
+        // Yaw 90°: Camera#moveForward bewegt in +x, die Kamera blickt also nach Osten
+        Set<Entity> visible = cullProbes(probes, 0, 0, 0, 0, 90);
+        assertTrue(visible.contains(east));
+        assertFalse(visible.contains(west));
+        assertFalse(visible.contains(northBelow));
+        assertFalse(visible.contains(northAbove));
+
+        // Positiver Pitch neigt den Blick nach unten: 45° unter dem Horizont liegt in der Bildmitte, 45° darüber
+        // 90° vom Blick entfernt
+        visible = cullProbes(probes, 0, 0, 0, 45, 0);
+        assertTrue(visible.contains(northBelow));
+        assertFalse(visible.contains(northAbove));
+        assertFalse(visible.contains(east));
+        assertFalse(visible.contains(west));
+    }
+
+    @Test
+    void cameraBeyondGridLookingAwaySeesNothing() {
+        cull(0, 0, 200, 0, 180);
+        FrameStatistics.endFrame();
+        assertEquals(0, countVisible());
+        assertEquals(0, FrameStatistics.get(FrameStatistics.Counter.VISIBLE_ENTITIES));
+        assertEquals(entities.size(), FrameStatistics.get(FrameStatistics.Counter.CULLED_ENTITIES));
+    }
+
+    @Test
+    void instancedAndPerEntityPathsDrawSameEntities() {
+        float[][] poses = { // x, y, z, Pitch, Yaw
+                {0, 0, 0, 0, 0},
+                {-80, 0, -80, 0, 135},
+                {0, 53, 0, 90, 0}
+        };
+        EntityDrawList drawList = new EntityDrawList();
+        InstanceBuffer instanceBuffer = new InstanceBuffer(7); // Klein, damit große Batches aufgeteilt werden
+        for (float[] pose : poses) {
+            cull(pose[0], pose[1], pose[2], pose[3], pose[4]);
+            List<RenderBatch> batches = queue.getBatches();
+
+            drawList.build(batches, DrawKey.SHADER_ENTITY, camera.getPosition());
+            Set<Entity> perEntity = identitySet();
+            for (int i = 0; i < drawList.size(); i++) {
+                perEntity.add(drawList.getEntity(i));
+            }
+
+            Set<Entity> instanced = identitySet();
+            int instances = 0;
+            for (RenderBatch batch : batches) {
+                List<Entity> visible = batch.getVisibleEntities();
+                int rendered = 0;
+                while (rendered < visible.size()) {
+                    int count = instanceBuffer.pack(visible, rendered);
+                    assertEquals(count * InstanceBuffer.INSTANCE_DATA_LENGTH, instanceBuffer.getBuffer().remaining());
+                    instanced.addAll(visible.subList(rendered, rendered + count));
+                    instances += count;
+                    rendered += count;
+                }
+            }
+
+            assertEquals(drawList.size(), perEntity.size(), "Entity drawn twice by the per-entity path");
+            assertEquals(instances, instanced.size(), "Entity drawn twice by the instanced path");
+            assertEquals(perEntity, instanced);
+            assertEquals(bruteForceVisible(), perEntity);
+            assertTrue(instances > 0);
+        }
+    }
+
+    @Test
+    void warmCullDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Entity rotating = entities.get(0);
+        Entity moving = entities.get(entities.size() / 2);
+        cull(0, 0, 0, 0, 0);
+        Vector3f cameraPosition = camera.getPosition();
+        for (int frame = 0; frame < 200; frame++) { // Aufwärmen: Listen wachsen, JIT kompiliert
+            cullFrame(frame, rotating, moving, cameraPosition);
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        // Das kleinste Ergebnis mehrerer Runden: eine Deoptimierung des JIT kann einzelne Objekte anlegen, die
+        // sonst per Escape Analysis wegfallen; eine Allokation pro Frame zeigt sich dagegen in jeder Runde
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 5 && allocated > 0; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int frame = 0; frame < 100; frame++) {
+                cullFrame(frame, rotating, moving, cameraPosition);
+            }
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(threadId) - before);
+        }
+
+        assertEquals(0, allocated, "Bytes allocated by 100 warm frames");
+        assertFalse(rotating.isIndexUpdatePending());
+        assertFalse(moving.isIndexUpdatePending());
+    }
+
+    private void cullFrame(int frame, Entity rotating, Entity moving, Vector3f camera) {
+        rotating.increaseRotation(0, 1, 0);
+        rotating.increaseRotation(0, 1, 0); // Zweimal pro Frame geändert, aber nur einmal aktualisiert
+        moving.increasePosition(frame % 2 == 0 ? 10 : -10, 0, 0);
+        queue.cull(frustum, camera, 1000, 1, null);
+        FrameStatistics.endFrame();
+    }
+
+    /**
+     * Setzt die Kamera (das Auge liegt Maths.PLAYER_HEIGHT über der Position) und aktualisiert das Frustum wie der
+     * {@link MasterRenderer} aus Projektionsmatrix und {@link Maths#createViewMatrix(Camera)}.
+     */
+    private void updateFrustum(float x, float y, float z, float pitch, float yaw) {
+        camera.setPosition(new Vector3f(x, y, z));
+        camera.setPitch(pitch);
+        camera.setYaw(yaw);
+        frustum.update(new Matrix4f(projectionMatrix).mul(Maths.createViewMatrix(camera)));
+    }
+
+    private void cull(float x, float y, float z, float pitch, float yaw) {
+        updateFrustum(x, y, z, pitch, yaw);
+        queue.cull(frustum, camera.getPosition(), 1000, 1, null);
+    }
+
+    private Set<Entity> cullProbes(RenderQueue probes, float x, float y, float z, float pitch, float yaw) {
+        updateFrustum(x, y, z, pitch, yaw);
+        probes.cull(frustum, camera.getPosition(), 1000, 1, null);
+        FrameStatistics.endFrame();
+        Set<Entity> visible = identitySet();
+        for (RenderBatch batch : probes.getBatches()) {
+            visible.addAll(batch.getVisibleEntities());
+        }
+        return visible;
+    }
+
+    private static RenderQueue probeQueue() {
+        return new RenderQueue(new LooseOctree(new Vector3f(), 2048, 7));
+    }
+
+    /**
+     * Fügt eine Sonde mit einer Bounding Sphere vom Radius 1 an der angegebenen Position hinzu.
+     */
+    private static Entity probe(RenderQueue probes, float x, float y, float z) {
+        Entity entity = new Entity(new TexturedModel(new RawModel(3, 36, 1), new ModelTexture(3)), new Vector3f(x, y, z), 0, 0, 0, 1);
+        probes.add(entity);
+        return entity;
+    }
+
+    private Set<Entity> bruteForceVisible() {
+        Set<Entity> visible = identitySet();
+        for (Entity entity : entities) {
+            Vector4f sphere = entity.getWorldBoundingSphere();
+            if (frustum.testSphere(sphere.x, sphere.y, sphere.z, sphere.w)) {
+                visible.add(entity);
+            }
+        }
+        return visible;
+    }
+
+    private int countVisible() {
+        int visible = 0;
+        for (RenderBatch batch : queue.getBatches()) {
+            visible += batch.getVisibleEntities().size();
+        }
+        return visible;
+    }
+
+    private static Set<Entity> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<Entity, Boolean>());
+    }
+
+}
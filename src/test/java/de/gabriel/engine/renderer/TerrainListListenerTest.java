@@ -0,0 +1,40 @@
+package de.gabriel.engine.renderer;
+
+import de.gabriel.engine.terrain.FakeTileLoader;
+import de.gabriel.engine.terrain.Terrain;
+import de.gabriel.engine.terrain.TerrainWorld;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prüft ohne OpenGL-Context, dass der {@link TerrainListListener} geladene Kacheln einer {@link TerrainWorld} in
+ * die Liste der Terrains des Renderers einträgt und verworfene wieder entfernt.
+ */
+class TerrainListListenerTest {
+
+    @Test
+    void loadedTilesAreRenderedAndEvictedTilesRemoved() {
+        FakeTileLoader loader = new FakeTileLoader();
+        List<Terrain> terrains = new ArrayList<Terrain>();
+        TerrainWorld world = new TerrainWorld(loader, 0, 0, 1);
+        world.setListener(new TerrainListListener(terrains));
+
+        world.update(0, 0);
+        assertEquals(List.of(), terrains, "Tiles are only rendered once loaded");
+        Terrain first = loader.complete(0, 0);
+        world.update(0, 0);
+        assertEquals(List.of(first), terrains);
+
+        world.update(Terrain.SIZE, 0);
+        assertEquals(List.of(), terrains);
+        Terrain second = loader.complete(1, 0);
+        world.update(Terrain.SIZE, 0);
+        assertEquals(List.of(second), terrains);
+        assertEquals(List.of(first), loader.getUnloaded());
+    }
+
+}
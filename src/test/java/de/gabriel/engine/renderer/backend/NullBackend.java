@@ -0,0 +1,701 @@
+package de.gabriel.engine.renderer.backend;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ein {@link RenderBackend} ohne Grafikkarte: Aufrufe werden nicht ausgeführt, sondern gezählt und auf Wunsch
+ * aufgezeichnet. Damit lässt sich der CPU-Anteil eines Frames messen und der Befehlsstrom eines Frames vergleichen,
+ * z.B. auf Build-Agents ohne GPU.
+ * <p>
+ * Damit die Engine unverändert läuft, verhält sich das Backend wie ein fehlerfreier Treiber: Objekte erhalten
+ * fortlaufende IDs, Shader kompilieren, Framebuffer sind vollständig und jede Uniform Variable hat eine eigene
+ * Location. Viewport und Clear Color werden gespeichert und von {@link #getIntegerv(int, int[])} bzw.
+ * {@link #getFloatv(int, float[])} zurückgegeben. Queries sind sofort verfügbar; alle anderen Abfragen (auch
+ * Zeitstempel) liefern 0.
+ * </p>
+ */
+public class NullBackend implements RenderBackend {
+
+    /**
+     * Die Art eines Befehls, nach der die Befehle zusammengefasst gezählt werden.
+     */
+    public enum Kind {
+        /**
+         * Erstellen, Kompilieren und Löschen von Objekten.
+         */
+        RESOURCE,
+        /**
+         * Binden von Objekten (Buffer, VAOs, Texturen, Programme, Framebuffer) und Wechsel der Texture Unit.
+         */
+        BIND,
+        /**
+         * Hochladen von Daten in Buffer und Texturen.
+         */
+        UPLOAD,
+        /**
+         * Setzen von Uniform Variablen.
+         */
+        UNIFORM,
+        /**
+         * Änderungen am übrigen Zustand (Capabilities, Attribute, Parameter, Viewport, Clear).
+         */
+        STATE,
+        /**
+         * Abfragen an den Treiber.
+         */
+        QUERY,
+        /**
+         * Draw Calls.
+         */
+        DRAW
+    }
+
+    /**
+     * Ein Befehl pro Methode des {@link RenderBackend} (Überladungen zählen als ein Befehl).
+     */
+    public enum Command {
+        GET_WINDOW_SIZE(Kind.QUERY),
+        GEN_BUFFERS(Kind.RESOURCE),
+        DELETE_BUFFERS(Kind.RESOURCE),
+        BIND_BUFFER(Kind.BIND),
+        BIND_BUFFER_BASE(Kind.BIND),
+        BUFFER_DATA(Kind.UPLOAD),
+        BUFFER_SUB_DATA(Kind.UPLOAD),
+        GEN_VERTEX_ARRAYS(Kind.RESOURCE),
+        DELETE_VERTEX_ARRAYS(Kind.RESOURCE),
+        BIND_VERTEX_ARRAY(Kind.BIND),
+        VERTEX_ATTRIB_POINTER(Kind.STATE),
+        ENABLE_VERTEX_ATTRIB_ARRAY(Kind.STATE),
+        DISABLE_VERTEX_ATTRIB_ARRAY(Kind.STATE),
+        VERTEX_ATTRIB_DIVISOR(Kind.STATE),
+        GEN_TEXTURES(Kind.RESOURCE),
+        DELETE_TEXTURES(Kind.RESOURCE),
+        ACTIVE_TEXTURE(Kind.BIND),
+        BIND_TEXTURE(Kind.BIND),
+        TEX_IMAGE_2D(Kind.UPLOAD),
+        TEX_PARAMETER(Kind.STATE),
+        GENERATE_MIPMAP(Kind.UPLOAD),
+        PIXEL_STORE(Kind.STATE),
+        GEN_FRAMEBUFFERS(Kind.RESOURCE),
+        DELETE_FRAMEBUFFERS(Kind.RESOURCE),
+        BIND_FRAMEBUFFER(Kind.BIND),
+        FRAMEBUFFER_TEXTURE_2D(Kind.STATE),
+        GEN_RENDERBUFFERS(Kind.RESOURCE),
+        DELETE_RENDERBUFFERS(Kind.RESOURCE),
+        BIND_RENDERBUFFER(Kind.BIND),
+        RENDERBUFFER_STORAGE(Kind.RESOURCE),
+        FRAMEBUFFER_RENDERBUFFER(Kind.STATE),
+        DRAW_BUFFERS(Kind.STATE),
+        CHECK_FRAMEBUFFER_STATUS(Kind.QUERY),
+        CREATE_SHADER(Kind.RESOURCE),
+        SHADER_SOURCE(Kind.RESOURCE),
+        COMPILE_SHADER(Kind.RESOURCE),
+        GET_SHADER(Kind.QUERY),
+        DELETE_SHADER(Kind.RESOURCE),
+        CREATE_PROGRAM(Kind.RESOURCE),
+        ATTACH_SHADER(Kind.RESOURCE),
+        DETACH_SHADER(Kind.RESOURCE),
+        BIND_ATTRIB_LOCATION(Kind.RESOURCE),
+        LINK_PROGRAM(Kind.RESOURCE),
+        VALIDATE_PROGRAM(Kind.RESOURCE),
+        DELETE_PROGRAM(Kind.RESOURCE),
+        USE_PROGRAM(Kind.BIND),
+        GET_UNIFORM_LOCATION(Kind.QUERY),
+        UNIFORM_BLOCK_BINDING(Kind.STATE),
+        UNIFORM(Kind.UNIFORM),
+        ENABLE(Kind.STATE),
+        DISABLE(Kind.STATE),
+        CULL_FACE(Kind.STATE),
+        BLEND_FUNC(Kind.STATE),
+        VIEWPORT(Kind.STATE),
+        SCISSOR(Kind.STATE),
+        CLEAR_COLOR(Kind.STATE),
+        CLEAR(Kind.STATE),
+        GET(Kind.QUERY),
+        GEN_QUERIES(Kind.RESOURCE),
+        DELETE_QUERIES(Kind.RESOURCE),
+        QUERY_COUNTER(Kind.QUERY),
+        GET_QUERY_OBJECT(Kind.QUERY),
+        DRAW_ARRAYS(Kind.DRAW),
+        DRAW_ELEMENTS(Kind.DRAW),
+        DRAW_ELEMENTS_INSTANCED(Kind.DRAW),
+        DRAW_ELEMENTS_BASE_VERTEX(Kind.DRAW);
+
+        @Getter
+        private final Kind kind;
+
+        Command(Kind kind) {
+            this.kind = kind;
+        }
+    }
+
+    private static final Command[] COMMANDS = Command.values();
+
+    private final int width;
+    private final int height;
+
+    /**
+     * Gibt an, ob die Befehle zusätzlich zu den Zählern in ihrer Reihenfolge aufgezeichnet werden.
+     * Standardmäßig werden nur die Zähler geführt (false).
+     */
+    @Setter
+    @Getter
+    private boolean recording;
+
+    private final long[] commandCounts = new long[COMMANDS.length];
+    private final long[] kindCounts = new long[Kind.values().length];
+
+    /**
+     * Die aufgezeichneten Befehle als Ordinal von {@link Command}.
+     */
+    private int[] recorded = new int[1024];
+    private int recordedCount;
+
+    /**
+     * Die Anzahl der Bytes, die mit Daten in Buffer und Texturen hochgeladen wurden.
+     */
+    @Getter
+    private long uploadedBytes;
+
+    /**
+     * Die Anzahl der Vertices aller Draw Calls (bei instanzierten Draw Calls mal der Anzahl der Instanzen).
+     */
+    @Getter
+    private long drawnVertices;
+
+    /**
+     * Die nächste vergebene ID, für alle Arten von Objekten gemeinsam.
+     */
+    private int nextId = 1;
+
+    private final int[] viewport = new int[4];
+    private final float[] clearColor = new float[4];
+
+    /**
+     * @param width  die Breite des simulierten Fensters in Pixeln.
+     * @param height die Höhe des simulierten Fensters in Pixeln.
+     */
+    public NullBackend(int width, int height) {
+        this.width = width;
+        this.height = height;
+        viewport[2] = width;
+        viewport[3] = height;
+    }
+
+    /**
+     * Setzt alle Zähler zurück und verwirft die aufgezeichneten Befehle. Vergebene IDs bleiben gültig.
+     */
+    public void reset() {
+        Arrays.fill(commandCounts, 0);
+        Arrays.fill(kindCounts, 0);
+        recordedCount = 0;
+        uploadedBytes = 0;
+        drawnVertices = 0;
+    }
+
+    /**
+     * @param command der Befehl.
+     * @return wie oft der Befehl seit dem letzten {@link #reset()} aufgerufen wurde.
+     */
+    public long getCount(Command command) {
+        return commandCounts[command.ordinal()];
+    }
+
+    /**
+     * @param kind die Art der Befehle.
+     * @return wie oft Befehle dieser Art seit dem letzten {@link #reset()} aufgerufen wurden.
+     */
+    public long getCount(Kind kind) {
+        return kindCounts[kind.ordinal()];
+    }
+
+    /**
+     * @return die Anzahl der Draw Calls seit dem letzten {@link #reset()}.
+     */
+    public long getDrawCalls() {
+        return getCount(Kind.DRAW);
+    }
+
+    /**
+     * @return die Anzahl der Bind-Befehle seit dem letzten {@link #reset()}.
+     */
+    public long getBinds() {
+        return getCount(Kind.BIND);
+    }
+
+    /**
+     * @return die aufgezeichneten Befehle seit dem letzten {@link #reset()} in ihrer Reihenfolge (leer, wenn nicht
+     * {@link #isRecording() aufgezeichnet} wird).
+     */
+    public List<Command> getCommands() {
+        List<Command> commands = new ArrayList<Command>(recordedCount);
+        for (int i = 0; i < recordedCount; i++) {
+            commands.add(COMMANDS[recorded[i]]);
+        }
+        return commands;
+    }
+
+    private void record(Command command) {
+        commandCounts[command.ordinal()]++;
+        kindCounts[command.getKind().ordinal()]++;
+        if (recording) {
+            if (recordedCount == recorded.length) {
+                recorded = Arrays.copyOf(recorded, recorded.length * 2);
+            }
+            recorded[recordedCount++] = command.ordinal();
+        }
+    }
+
+    private int create(Command command) {
+        record(command);
+        return nextId++;
+    }
+
+    private void upload(Command command, long bytes) {
+        record(command);
+        uploadedBytes += bytes;
+    }
+
+    private void draw(Command command, long vertices) {
+        record(command);
+        drawnVertices += vertices;
+    }
+
+    @Override
+    public void getWindowSize(int[] size) {
+        record(Command.GET_WINDOW_SIZE);
+        size[0] = width;
+        size[1] = height;
+    }
+
+    @Override
+    public int genBuffers() {
+        return create(Command.GEN_BUFFERS);
+    }
+
+    @Override
+    public void deleteBuffers(int buffer) {
+        record(Command.DELETE_BUFFERS);
+    }
+
+    @Override
+    public void bindBuffer(int target, int buffer) {
+        record(Command.BIND_BUFFER);
+    }
+
+    @Override
+    public void bindBufferBase(int target, int index, int buffer) {
+        record(Command.BIND_BUFFER_BASE);
+    }
+
+    @Override
+    public void bufferData(int target, long size, int usage) {
+        upload(Command.BUFFER_DATA, 0); // Reserviert nur Speicher
+    }
+
+    @Override
+    public void bufferData(int target, ByteBuffer data, int usage) {
+        upload(Command.BUFFER_DATA, data.remaining());
+    }
+
+    @Override
+    public void bufferData(int target, FloatBuffer data, int usage) {
+        upload(Command.BUFFER_DATA, (long) data.remaining() * Float.BYTES);
+    }
+
+    @Override
+    public void bufferData(int target, int[] data, int usage) {
+        upload(Command.BUFFER_DATA, (long) data.length * Integer.BYTES);
+    }
+
+    @Override
+    public void bufferSubData(int target, long offset, FloatBuffer data) {
+        upload(Command.BUFFER_SUB_DATA, (long) data.remaining() * Float.BYTES);
+    }
+
+    @Override
+    public int genVertexArrays() {
+        return create(Command.GEN_VERTEX_ARRAYS);
+    }
+
+    @Override
+    public void deleteVertexArrays(int array) {
+        record(Command.DELETE_VERTEX_ARRAYS);
+    }
+
+    @Override
+    public void bindVertexArray(int array) {
+        record(Command.BIND_VERTEX_ARRAY);
+    }
+
+    @Override
+    public void vertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+        record(Command.VERTEX_ATTRIB_POINTER);
+    }
+
+    @Override
+    public void enableVertexAttribArray(int index) {
+        record(Command.ENABLE_VERTEX_ATTRIB_ARRAY);
+    }
+
+    @Override
+    public void disableVertexAttribArray(int index) {
+        record(Command.DISABLE_VERTEX_ATTRIB_ARRAY);
+    }
+
+    @Override
+    public void vertexAttribDivisor(int index, int divisor) {
+        record(Command.VERTEX_ATTRIB_DIVISOR);
+    }
+
+    @Override
+    public int genTextures() {
+        return create(Command.GEN_TEXTURES);
+    }
+
+    @Override
+    public void deleteTextures(int texture) {
+        record(Command.DELETE_TEXTURES);
+    }
+
+    @Override
+    public void activeTexture(int texture) {
+        record(Command.ACTIVE_TEXTURE);
+    }
+
+    @Override
+    public void bindTexture(int target, int texture) {
+        record(Command.BIND_TEXTURE);
+    }
+
+    @Override
+    public void texImage2D(int target, int level, int internalFormat, int width, int height, int border, int format,
+                           int type, ByteBuffer pixels) {
+        upload(Command.TEX_IMAGE_2D, pixels != null ? pixels.remaining() : 0);
+    }
+
+    @Override
+    public void texParameteri(int target, int pname, int param) {
+        record(Command.TEX_PARAMETER);
+    }
+
+    @Override
+    public void texParameterf(int target, int pname, float param) {
+        record(Command.TEX_PARAMETER);
+    }
+
+    @Override
+    public void generateMipmap(int target) {
+        upload(Command.GENERATE_MIPMAP, 0);
+    }
+
+    @Override
+    public void pixelStorei(int pname, int param) {
+        record(Command.PIXEL_STORE);
+    }
+
+    @Override
+    public int genFramebuffers() {
+        return create(Command.GEN_FRAMEBUFFERS);
+    }
+
+    @Override
+    public void deleteFramebuffers(int framebuffer) {
+        record(Command.DELETE_FRAMEBUFFERS);
+    }
+
+    @Override
+    public void bindFramebuffer(int target, int framebuffer) {
+        record(Command.BIND_FRAMEBUFFER);
+    }
+
+    @Override
+    public void framebufferTexture2D(int target, int attachment, int textureTarget, int texture, int level) {
+        record(Command.FRAMEBUFFER_TEXTURE_2D);
+    }
+
+    @Override
+    public int genRenderbuffers() {
+        return create(Command.GEN_RENDERBUFFERS);
+    }
+
+    @Override
+    public void deleteRenderbuffers(int renderbuffer) {
+        record(Command.DELETE_RENDERBUFFERS);
+    }
+
+    @Override
+    public void bindRenderbuffer(int target, int renderbuffer) {
+        record(Command.BIND_RENDERBUFFER);
+    }
+
+    @Override
+    public void renderbufferStorage(int target, int internalFormat, int width, int height) {
+        record(Command.RENDERBUFFER_STORAGE);
+    }
+
+    @Override
+    public void framebufferRenderbuffer(int target, int attachment, int renderbufferTarget, int renderbuffer) {
+        record(Command.FRAMEBUFFER_RENDERBUFFER);
+    }
+
+    @Override
+    public void drawBuffers(int[] buffers) {
+        record(Command.DRAW_BUFFERS);
+    }
+
+    @Override
+    public int checkFramebufferStatus(int target) {
+        record(Command.CHECK_FRAMEBUFFER_STATUS);
+        return GL30.GL_FRAMEBUFFER_COMPLETE;
+    }
+
+    @Override
+    public int createShader(int type) {
+        return create(Command.CREATE_SHADER);
+    }
+
+    @Override
+    public void shaderSource(int shader, CharSequence source) {
+        record(Command.SHADER_SOURCE);
+    }
+
+    @Override
+    public void compileShader(int shader) {
+        record(Command.COMPILE_SHADER);
+    }
+
+    @Override
+    public int getShaderi(int shader, int pname) {
+        record(Command.GET_SHADER);
+        return GL11.GL_TRUE; // Kompiliert immer fehlerfrei
+    }
+
+    @Override
+    public String getShaderInfoLog(int shader, int maxLength) {
+        record(Command.GET_SHADER);
+        return "";
+    }
+
+    @Override
+    public void deleteShader(int shader) {
+        record(Command.DELETE_SHADER);
+    }
+
+    @Override
+    public int createProgram() {
+        return create(Command.CREATE_PROGRAM);
+    }
+
+    @Override
+    public void attachShader(int program, int shader) {
+        record(Command.ATTACH_SHADER);
+    }
+
+    @Override
+    public void detachShader(int program, int shader) {
+        record(Command.DETACH_SHADER);
+    }
+
+    @Override
+    public void bindAttribLocation(int program, int index, CharSequence name) {
+        record(Command.BIND_ATTRIB_LOCATION);
+    }
+
+    @Override
+    public void linkProgram(int program) {
+        record(Command.LINK_PROGRAM);
+    }
+
+    @Override
+    public void validateProgram(int program) {
+        record(Command.VALIDATE_PROGRAM);
+    }
+
+    @Override
+    public void deleteProgram(int program) {
+        record(Command.DELETE_PROGRAM);
+    }
+
+    @Override
+    public void useProgram(int program) {
+        record(Command.USE_PROGRAM);
+    }
+
+    @Override
+    public int getUniformLocation(int program, CharSequence name) {
+        return create(Command.GET_UNIFORM_LOCATION); // Nie -1, sonst würden Uploads übersprungen
+    }
+
+    @Override
+    public int getUniformBlockIndex(int program, CharSequence name) {
+        record(Command.GET_UNIFORM_LOCATION);
+        return 0;
+    }
+
+    @Override
+    public void uniformBlockBinding(int program, int blockIndex, int binding) {
+        record(Command.UNIFORM_BLOCK_BINDING);
+    }
+
+    @Override
+    public void uniform1f(int location, float value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniform1i(int location, int value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniform2f(int location, float x, float y) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniform3f(int location, float x, float y, float z) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniform4f(int location, float x, float y, float z, float w) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void enable(int capability) {
+        record(Command.ENABLE);
+    }
+
+    @Override
+    public void disable(int capability) {
+        record(Command.DISABLE);
+    }
+
+    @Override
+    public void cullFace(int mode) {
+        record(Command.CULL_FACE);
+    }
+
+    @Override
+    public void blendFunc(int sourceFactor, int destinationFactor) {
+        record(Command.BLEND_FUNC);
+    }
+
+    @Override
+    public void viewport(int x, int y, int width, int height) {
+        record(Command.VIEWPORT);
+        viewport[0] = x;
+        viewport[1] = y;
+        viewport[2] = width;
+        viewport[3] = height;
+    }
+
+    @Override
+    public void scissor(int x, int y, int width, int height) {
+        record(Command.SCISSOR);
+    }
+
+    @Override
+    public void clearColor(float red, float green, float blue, float alpha) {
+        record(Command.CLEAR_COLOR);
+        clearColor[0] = red;
+        clearColor[1] = green;
+        clearColor[2] = blue;
+        clearColor[3] = alpha;
+    }
+
+    @Override
+    public void clear(int mask) {
+        record(Command.CLEAR);
+    }
+
+    @Override
+    public void getIntegerv(int pname, int[] params) {
+        record(Command.GET);
+        if (pname == GL11.GL_VIEWPORT) {
+            System.arraycopy(viewport, 0, params, 0, viewport.length);
+        } else {
+            Arrays.fill(params, 0);
+        }
+    }
+
+    @Override
+    public void getFloatv(int pname, float[] params) {
+        record(Command.GET);
+        if (pname == GL11.GL_COLOR_CLEAR_VALUE) {
+            System.arraycopy(clearColor, 0, params, 0, clearColor.length);
+        } else {
+            Arrays.fill(params, 0);
+        }
+    }
+
+    @Override
+    public long getInteger64(int pname) {
+        record(Command.GET);
+        return 0;
+    }
+
+    @Override
+    public int genQueries() {
+        return create(Command.GEN_QUERIES);
+    }
+
+    @Override
+    public void deleteQueries(int query) {
+        record(Command.DELETE_QUERIES);
+    }
+
+    @Override
+    public void queryCounter(int query, int target) {
+        record(Command.QUERY_COUNTER);
+    }
+
+    @Override
+    public int getQueryObjecti(int query, int pname) {
+        record(Command.GET_QUERY_OBJECT);
+        return GL11.GL_TRUE; // Ergebnisse sind sofort verfügbar
+    }
+
+    @Override
+    public long getQueryObjectui64(int query, int pname) {
+        record(Command.GET_QUERY_OBJECT);
+        return 0;
+    }
+
+    @Override
+    public void drawArrays(int mode, int first, int count) {
+        draw(Command.DRAW_ARRAYS, count);
+    }
+
+    @Override
+    public void drawElements(int mode, int count, int type, long indices) {
+        draw(Command.DRAW_ELEMENTS, count);
+    }
+
+    @Override
+    public void drawElementsInstanced(int mode, int count, int type, long indices, int instances) {
+        draw(Command.DRAW_ELEMENTS_INSTANCED, (long) count * instances);
+    }
+
+    @Override
+    public void drawElementsBaseVertex(int mode, int count, int type, long indices, int baseVertex) {
+        draw(Command.DRAW_ELEMENTS_BASE_VERTEX, count);
+    }
+
+}
@@ -0,0 +1,77 @@
+package de.gabriel.engine.scene;
+
+import de.gabriel.engine.entities.Entity;
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.textures.ModelTexture;
+import de.gabriel.engine.utils.Frustum;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft, dass der {@link LooseOctree} Entities, deren Bounding Sphere nicht in die losen Grenzen des Wurzelknotens
+ * passt, nicht fälschlich verwirft, und dass leer gewordene Knoten wieder entfernt werden.
+ */
+class LooseOctreeTest {
+
+    private static final TexturedModel MODEL = new TexturedModel(new RawModel(1, 36, 1), new ModelTexture(1));
+
+    @Test
+    void entityLargerThanRootIsNotCulled() {
+        LooseOctree octree = new LooseOctree(new Vector3f(), 100, 5);
+        // Mittelpunkt im Wurzelknoten, Radius 300: die Kugel reicht weit über die losen Grenzen (±200) hinaus
+        Entity huge = new Entity(MODEL, new Vector3f(90, 0, 0), 0, 0, 0, 300);
+        octree.insert(huge);
+
+        // Kamera bei x = 400 blickt in +x: sie sieht nur den Rand der Kugel jenseits der losen Grenzen
+        Frustum frustum = new Frustum();
+        frustum.update(new Matrix4f().perspective((float) Math.toRadians(70), 1, 0.1f, 1000)
+                .lookAt(new Vector3f(250, 0, 0), new Vector3f(251, 0, 0), new Vector3f(0, 1, 0)));
+        List<Entity> visible = new ArrayList<Entity>();
+        octree.queryFrustum(frustum, visible);
+        assertEquals(List.of(huge), visible);
+
+        // Wächst eine Entity über die Wurzel hinaus, wird sie ebenfalls außerhalb des Baums gehalten
+        Entity growing = new Entity(MODEL, new Vector3f(-90, 0, 0), 0, 0, 0, 1);
+        octree.insert(growing);
+        growing.setScale(300);
+        octree.update(growing);
+        visible.clear();
+        frustum.update(new Matrix4f().perspective((float) Math.toRadians(70), 1, 0.1f, 1000)
+                .lookAt(new Vector3f(-250, 0, 0), new Vector3f(-251, 0, 0), new Vector3f(0, 1, 0)));
+        octree.queryFrustum(frustum, visible);
+        assertTrue(visible.contains(growing));
+        assertEquals(2, octree.size());
+    }
+
+    @Test
+    void emptyNodesArePrunedWhenEntitiesMove() {
+        LooseOctree octree = new LooseOctree(new Vector3f(), 1024, 7);
+        Entity moving = new Entity(MODEL, new Vector3f(), 0, 0, 0, 1);
+        octree.insert(moving);
+        int nodes = octree.nodeCount();
+        assertEquals(8, nodes); // Wurzel und ein Pfad bis zur maximalen Tiefe
+
+        for (int i = 1; i <= 100; i++) {
+            moving.setPosition(new Vector3f(i * 17f - 800, (i % 7) * 40f, -i * 9f));
+            octree.update(moving);
+            assertEquals(nodes, octree.nodeCount(), "Nodes after move " + i);
+        }
+
+        Entity resting = new Entity(MODEL, new Vector3f(500, 0, 500), 0, 0, 0, 1);
+        octree.insert(resting);
+        octree.remove(moving);
+        assertEquals(nodes, octree.nodeCount());
+        octree.remove(resting);
+        assertEquals(1, octree.nodeCount());
+        assertEquals(0, octree.size());
+    }
+
+}
@@ -0,0 +1,131 @@
+package de.gabriel.engine.scene;
+
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft, dass der Hi-Z Test des {@link OcclusionBuffer}s konservativ ist: eine Sphere, die als verdeckt gilt, darf
+ * an keinem Punkt ihrer Oberfläche vor dem gerasterten Verdecker im selben Pixel liegen. Als Verdecker dienen
+ * Wände parallel zur Bildebene, deren Tiefe in jedem Pixel exakt gleich ist.
+ */
+class OcclusionBufferTest {
+
+    private static final int WIDTH = 256;
+    private static final int HEIGHT = 128;
+
+    /**
+     * Die Anzahl der Punkte, an denen die Oberfläche jeder Sphere geprüft wird.
+     */
+    private static final int SURFACE_SAMPLES = 400;
+
+    private final Matrix4f projection = new Matrix4f().perspective((float) Math.toRadians(70), 2, 0.1f, 1000);
+    private final Matrix4f view = new Matrix4f().lookAt(new Vector3f(3, 1, 2), new Vector3f(3, 1, -1),
+            new Vector3f(0, 1, 0));
+    private final Matrix4f projectionView = new Matrix4f(projection).mul(view);
+    private final Random random = new Random(42);
+    private OcclusionBuffer buffer;
+
+    @BeforeEach
+    void createBuffer() {
+        buffer = new OcclusionBuffer(WIDTH, HEIGHT, ForkJoinPool.commonPool());
+        buffer.begin(projection, view);
+    }
+
+    @Test
+    void occludedSpheresAreHiddenAtEverySurfacePoint() {
+        for (int wall = 0; wall < 12; wall++) {
+            float distance = 10 + random.nextFloat() * 90;
+            float halfWidth = 2 + random.nextFloat() * distance * 0.4f;
+            float halfHeight = 2 + random.nextFloat() * distance * 0.2f;
+            addWall(3 + (random.nextFloat() * 2 - 1) * distance, 1 + (random.nextFloat() * 2 - 1) * distance * 0.5f,
+                    2 - distance, halfWidth, halfHeight);
+        }
+        buffer.rasterize();
+
+        Vector4f sphere = new Vector4f();
+        int occluded = 0;
+        for (int i = 0; i < 5_000; i++) {
+            float distance = 5 + random.nextFloat() * 200;
+            sphere.set(3 + (random.nextFloat() * 2 - 1) * distance * 1.2f,
+                    1 + (random.nextFloat() * 2 - 1) * distance * 0.6f,
+                    2 - distance, 0.1f + random.nextFloat() * distance * 0.05f);
+            if (buffer.isOccluded(sphere)) {
+                occluded++;
+                assertHiddenAtEverySurfacePoint(sphere);
+            }
+        }
+        assertTrue(occluded > 500, "Too few occluded spheres to be meaningful: " + occluded);
+    }
+
+    @Test
+    void sphereBehindWallIsOccludedAndInFrontIsNot() {
+        addWall(3, 1, -18, 20, 20);
+        buffer.rasterize();
+
+        assertTrue(buffer.isOccluded(new Vector4f(3, 1, -40, 2)));
+        assertFalse(buffer.isOccluded(new Vector4f(3, 1, -10, 2)), "In front of the wall");
+        assertFalse(buffer.isOccluded(new Vector4f(3, 1, -19, 2)), "Intersects the wall");
+        assertFalse(buffer.isOccluded(new Vector4f(3, 1, -500, 300)), "Larger than the screen");
+        assertFalse(buffer.isOccluded(new Vector4f(3, 1, 2, 1)), "Contains the camera");
+        assertFalse(buffer.isOccluded(new Vector4f(3, 1, -40, Float.POSITIVE_INFINITY)));
+    }
+
+    @Test
+    void emptyBufferOccludesNothing() {
+        buffer.rasterize();
+        for (int level = 0; level < buffer.getLevelCount(); level++) {
+            assertFalse(buffer.isOccluded(new Vector4f(3, 1, -900, 0.5f)));
+        }
+        assertEquals(1, buffer.getDepth(0, 0));
+        assertEquals(1, buffer.getDepth(WIDTH - 1, HEIGHT - 1));
+    }
+
+    /**
+     * Prüft Punkte gleichmäßig auf der Oberfläche (Fibonacci-Spirale): jeder muss auf dem Bildschirm liegen und
+     * hinter dem Verdecker in seinem Pixel.
+     */
+    private void assertHiddenAtEverySurfacePoint(Vector4f sphere) {
+        Vector4f point = new Vector4f();
+        for (int sample = 0; sample < SURFACE_SAMPLES; sample++) {
+            float y = 1 - 2 * (sample + 0.5f) / SURFACE_SAMPLES;
+            float ring = (float) Math.sqrt(1 - y * y);
+            double angle = sample * Math.PI * (3 - Math.sqrt(5));
+            point.set(sphere.x + sphere.w * ring * (float) Math.cos(angle), sphere.y + sphere.w * y,
+                    sphere.z + sphere.w * ring * (float) Math.sin(angle), 1);
+            projectionView.transform(point);
+            float ndcX = point.x / point.w;
+            float ndcY = point.y / point.w;
+            float depth = point.z / point.w * 0.5f + 0.5f;
+            int pixelX = (int) Math.floor((ndcX * 0.5f + 0.5f) * WIDTH);
+            int pixelY = (int) Math.floor((ndcY * 0.5f + 0.5f) * HEIGHT);
+            assertTrue(point.w > 0 && pixelX >= 0 && pixelX < WIDTH && pixelY >= 0 && pixelY < HEIGHT,
+                    "Occluded sphere " + sphere + " leaves the screen");
+            float occluderDepth = buffer.getDepth(pixelX, pixelY);
+            assertTrue(occluderDepth <= depth + 1e-6f, "Sphere " + sphere + " is visible in pixel " + pixelX + ", "
+                    + pixelY + ": occluder " + occluderDepth + ", sphere " + depth);
+        }
+    }
+
+    /**
+     * Fügt eine Wand parallel zur Bildebene (konstantes Z) als zwei Dreiecke hinzu.
+     */
+    private void addWall(float centerX, float centerY, float z, float halfWidth, float halfHeight) {
+        float left = centerX - halfWidth;
+        float right = centerX + halfWidth;
+        float bottom = centerY - halfHeight;
+        float top = centerY + halfHeight;
+        buffer.addTriangle(left, bottom, z, right, bottom, z, right, top, z);
+        buffer.addTriangle(left, bottom, z, right, top, z, left, top, z);
+    }
+
+}
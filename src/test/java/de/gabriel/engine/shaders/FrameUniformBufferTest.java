@@ -0,0 +1,100 @@
+package de.gabriel.engine.shaders;
+
+import de.gabriel.engine.entities.Light;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prüft, dass {@link FrameUniformBuffer#pack} den Uniform Block im Layout std140 schreibt: Matrizen spaltenweise,
+ * jedes vec3 auf 16 Bytes ausgerichtet und unbelegte Lichtquellen schwarz ohne Dämpfung.
+ */
+class FrameUniformBufferTest {
+
+    private static final int PROJECTION = 0;
+    private static final int VIEW = 16;
+    private static final int SKY_COLOR = 32;
+    private static final int LIGHT_POSITION = 36;
+    private static final int LIGHT_COLOR = LIGHT_POSITION + 4 * FrameUniformBuffer.MAX_LIGHTS;
+    private static final int ATTENUATION = LIGHT_COLOR + 4 * FrameUniformBuffer.MAX_LIGHTS;
+
+    @Test
+    void blockHasStd140Size() {
+        assertEquals(108, FrameUniformBuffer.FLOATS);
+        assertEquals(432, FrameUniformBuffer.FLOATS * Float.BYTES);
+        assertEquals(FrameUniformBuffer.FLOATS, ATTENUATION + 4 * FrameUniformBuffer.MAX_LIGHTS);
+    }
+
+    @Test
+    void packWritesEveryMemberAtItsOffset() {
+        Matrix4f projection = new Matrix4f().setPerspective(1.2f, 16 / 9f, 0.1f, 1000);
+        Matrix4f view = new Matrix4f().translate(1, 2, 3).rotateY(0.5f);
+        Vector3f skyColor = new Vector3f(0.5f, 0.6f, 0.7f);
+        List<Light> lights = List.of(
+                new Light(new Vector3f(10, 20, 30), new Vector3f(1, 0.5f, 0.25f)),
+                new Light(new Vector3f(-1, -2, -3), new Vector3f(0, 1, 0), new Vector3f(1, 0.01f, 0.002f)));
+        FloatBuffer buffer = BufferUtils.createFloatBuffer(FrameUniformBuffer.FLOATS);
+
+        FrameUniformBuffer.pack(buffer, projection, view, skyColor, lights);
+
+        assertEquals(0, buffer.position());
+        assertEquals(FrameUniformBuffer.FLOATS, buffer.limit());
+        assertMatrix(projection, buffer, PROJECTION);
+        assertMatrix(view, buffer, VIEW);
+        assertVec4(buffer, SKY_COLOR, 0.5f, 0.6f, 0.7f);
+        assertVec4(buffer, LIGHT_POSITION, 10, 20, 30);
+        assertVec4(buffer, LIGHT_POSITION + 4, -1, -2, -3);
+        assertVec4(buffer, LIGHT_COLOR, 1, 0.5f, 0.25f);
+        assertVec4(buffer, LIGHT_COLOR + 4, 0, 1, 0);
+        assertVec4(buffer, ATTENUATION, 1, 0, 0);
+        assertVec4(buffer, ATTENUATION + 4, 1, 0.01f, 0.002f);
+        for (int light = 2; light < FrameUniformBuffer.MAX_LIGHTS; light++) {
+            assertVec4(buffer, LIGHT_POSITION + 4 * light, 0, 0, 0);
+            assertVec4(buffer, LIGHT_COLOR + 4 * light, 0, 0, 0);
+            assertVec4(buffer, ATTENUATION + 4 * light, 1, 0, 0);
+        }
+    }
+
+    @Test
+    void packUsesOnlyFirstLights() {
+        Light[] lights = new Light[FrameUniformBuffer.MAX_LIGHTS + 2];
+        for (int i = 0; i < lights.length; i++) {
+            lights[i] = new Light(new Vector3f(i, i, i), new Vector3f(i, 0, 0));
+        }
+        FloatBuffer buffer = BufferUtils.createFloatBuffer(FrameUniformBuffer.FLOATS);
+
+        FrameUniformBuffer.pack(buffer, new Matrix4f(), new Matrix4f(), new Vector3f(), List.of(lights));
+
+        assertEquals(FrameUniformBuffer.FLOATS, buffer.limit());
+        for (int light = 0; light < FrameUniformBuffer.MAX_LIGHTS; light++) {
+            assertVec4(buffer, LIGHT_POSITION + 4 * light, light, light, light);
+            assertVec4(buffer, LIGHT_COLOR + 4 * light, light, 0, 0);
+        }
+    }
+
+    private static void assertMatrix(Matrix4f expected, FloatBuffer buffer, int offset) {
+        for (int column = 0; column < 4; column++) {
+            for (int row = 0; row < 4; row++) {
+                assertEquals(expected.get(column, row), buffer.get(offset + column * 4 + row),
+                        "Column " + column + ", row " + row + " at " + offset);
+            }
+        }
+    }
+
+    /**
+     * Prüft ein vec3, das im Layout std140 wie ein vec4 mit w = 0 belegt ist.
+     */
+    private static void assertVec4(FloatBuffer buffer, int offset, float x, float y, float z) {
+        assertEquals(x, buffer.get(offset), "x at " + offset);
+        assertEquals(y, buffer.get(offset + 1), "y at " + offset);
+        assertEquals(z, buffer.get(offset + 2), "z at " + offset);
+        assertEquals(0, buffer.get(offset + 3), "Padding at " + offset);
+    }
+
+}
@@ -0,0 +1,101 @@
+package de.gabriel.engine.shaders;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft, dass die {@link UniformShadow} einen Wert nur dann hochladen lässt, wenn sich seine Bits geändert haben:
+ * gleiche Werte werden übersprungen, -0 und 0 gelten als unterschiedlich und dasselbe NaN als gleich.
+ */
+class UniformShadowTest {
+
+    @Test
+    void unknownValueIsUploadedOnce() {
+        UniformShadow shadow = new UniformShadow();
+        int uniform = shadow.add();
+
+        assertTrue(shadow.update(uniform, 0), "Initial value must be uploaded, even if it is 0");
+        assertFalse(shadow.update(uniform, 0));
+        assertTrue(shadow.update(uniform, 1));
+        assertFalse(shadow.update(uniform, 1));
+    }
+
+    @Test
+    void floatsAreComparedBitwise() {
+        UniformShadow shadow = new UniformShadow();
+        int uniform = shadow.add();
+
+        assertTrue(shadow.update(uniform, 0.0f));
+        assertTrue(shadow.update(uniform, -0.0f), "-0 differs from 0");
+        assertFalse(shadow.update(uniform, -0.0f));
+        assertTrue(shadow.update(uniform, 0.0f));
+
+        assertTrue(shadow.update(uniform, Float.NaN));
+        assertFalse(shadow.update(uniform, Float.NaN), "The same NaN is unchanged");
+        assertTrue(shadow.update(uniform, Float.intBitsToFloat(0x7fc00001)), "A NaN with other bits is a change");
+        assertTrue(shadow.update(uniform, 1.5f));
+        assertFalse(shadow.update(uniform, 1.5f));
+    }
+
+    @Test
+    void vectorChangesInEveryComponent() {
+        UniformShadow shadow = new UniformShadow();
+        int vec2 = shadow.add();
+        int vec3 = shadow.add();
+        int vec4 = shadow.add();
+
+        assertTrue(shadow.update(vec2, 1, 2));
+        assertFalse(shadow.update(vec2, 1, 2));
+        assertTrue(shadow.update(vec2, 1, -0.0f));
+        assertTrue(shadow.update(vec3, 1, 2, 3));
+        assertFalse(shadow.update(vec3, 1, 2, 3));
+        assertTrue(shadow.update(vec3, 1, 2, Float.NaN));
+        assertFalse(shadow.update(vec3, 1, 2, Float.NaN));
+        for (int component = 0; component < 4; component++) {
+            float[] value = {1, 2, 3, 4};
+            shadow.update(vec4, value[0], value[1], value[2], value[3]);
+            assertFalse(shadow.update(vec4, value[0], value[1], value[2], value[3]));
+            value[component] = 5;
+            assertTrue(shadow.update(vec4, value[0], value[1], value[2], value[3]), "Component " + component);
+        }
+        assertFalse(shadow.update(vec2, 1, -0.0f), "Uniforms are independent");
+    }
+
+    @Test
+    void matrixChangesInAnyComponent() {
+        UniformShadow shadow = new UniformShadow();
+        int matrix = shadow.add();
+        float[] components = new float[UniformShadow.MAX_COMPONENTS];
+
+        assertTrue(shadow.update(matrix, components));
+        assertFalse(shadow.update(matrix, components.clone()));
+        for (int i = 0; i < components.length; i++) {
+            components[i] = -0.0f;
+            assertTrue(shadow.update(matrix, components), "Component " + i);
+            assertFalse(shadow.update(matrix, components));
+        }
+    }
+
+    @Test
+    void invalidateUploadsEverythingAgain() {
+        UniformShadow shadow = new UniformShadow();
+        int[] uniforms = new int[20]; // Mehr als die anfängliche Kapazität
+        for (int i = 0; i < uniforms.length; i++) {
+            uniforms[i] = shadow.add();
+            assertTrue(shadow.update(uniforms[i], (float) i));
+        }
+        assertEquals(uniforms.length, shadow.size());
+        for (int i = 0; i < uniforms.length; i++) {
+            assertFalse(shadow.update(uniforms[i], (float) i), "Value kept after growing: " + i);
+        }
+
+        shadow.invalidate();
+        for (int i = 0; i < uniforms.length; i++) {
+            assertTrue(shadow.update(uniforms[i], (float) i));
+        }
+    }
+
+}
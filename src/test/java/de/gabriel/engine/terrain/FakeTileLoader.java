@@ -0,0 +1,111 @@
+package de.gabriel.engine.terrain;
+
+import de.gabriel.engine.models.RawModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ein {@link TerrainTileLoader} ohne OpenGL für Tests: angeforderte Kacheln bleiben ladend, bis der Test sie mit
+ * {@link #complete(int, int)} oder {@link #fail(int, int)} abschließt. Jede Kachel ist flach und hat die Höhe
+ * {@link #heightOf(int, int)}, sodass sich an einer Höhenabfrage ablesen lässt, welche Kachel getroffen wurde.
+ */
+public class FakeTileLoader implements TerrainTileLoader {
+
+    /**
+     * Die Anzahl der Vertices pro Seite (ein Chunk).
+     */
+    private static final int VERTEX_COUNT = 33;
+
+    private final Map<Long, CompletableFuture<Terrain>> pending = new HashMap<Long, CompletableFuture<Terrain>>();
+
+    /**
+     * Die Kacheln in der Reihenfolge, in der sie angefordert wurden, als {@code {gridX, gridZ}}.
+     */
+    private final List<int[]> requests = new ArrayList<int[]>();
+
+    /**
+     * Alle freigegebenen Kacheln, in der Reihenfolge der Freigabe.
+     */
+    private final List<Terrain> unloaded = new ArrayList<Terrain>();
+
+    /**
+     * @return die Höhe der flachen Kachel an der Position.
+     */
+    public static float heightOf(int gridX, int gridZ) {
+        return gridX * 10 + gridZ;
+    }
+
+    @Override
+    public CompletableFuture<Terrain> load(int gridX, int gridZ) {
+        CompletableFuture<Terrain> future = new CompletableFuture<Terrain>();
+        pending.put(key(gridX, gridZ), future);
+        requests.add(new int[]{gridX, gridZ});
+        return future;
+    }
+
+    @Override
+    public void unload(Terrain terrain) {
+        unloaded.add(terrain);
+    }
+
+    /**
+     * Schließt das Laden einer angeforderten Kachel ab.
+     *
+     * @return die geladene Kachel.
+     */
+    public Terrain complete(int gridX, int gridZ) {
+        float[] heights = new float[VERTEX_COUNT * VERTEX_COUNT];
+        Arrays.fill(heights, heightOf(gridX, gridZ));
+        float cellSize = Terrain.SIZE / (VERTEX_COUNT - 1);
+        TerrainData data = Terrain.generate(gridX, gridZ,
+                (x, z) -> new HeightField(heights, VERTEX_COUNT, x * Terrain.SIZE, z * Terrain.SIZE, cellSize));
+        Terrain terrain = new Terrain(data, new RawModel(0, 0, 0), null, null);
+        pending.remove(key(gridX, gridZ)).complete(terrain);
+        return terrain;
+    }
+
+    /**
+     * Lässt das Laden einer angeforderten Kachel fehlschlagen.
+     */
+    public void fail(int gridX, int gridZ) {
+        pending.remove(key(gridX, gridZ)).completeExceptionally(new IllegalStateException("Fake failure"));
+    }
+
+    /**
+     * @return true, wenn die Kachel angefordert wurde und noch nicht abgeschlossen ist.
+     */
+    public boolean isPending(int gridX, int gridZ) {
+        return pending.containsKey(key(gridX, gridZ));
+    }
+
+    /**
+     * @return die Anzahl der angeforderten und noch nicht abgeschlossenen Kacheln.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @return die Kacheln in der Reihenfolge, in der sie angefordert wurden, als {@code {gridX, gridZ}}.
+     */
+    public List<int[]> getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return alle freigegebenen Kacheln, in der Reihenfolge der Freigabe.
+     */
+    public List<Terrain> getUnloaded() {
+        return unloaded;
+    }
+
+    private static long key(int gridX, int gridZ) {
+        return ((long) gridX << 32) | (gridZ & 0xFFFFFFFFL);
+    }
+
+}
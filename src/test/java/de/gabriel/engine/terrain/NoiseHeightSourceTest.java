@@ -0,0 +1,83 @@
+package de.gabriel.engine.terrain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prüft, dass die Höhen der {@link NoiseHeightSource} nur von Seed und Position abhängen: dieselben Kacheln sind mit
+ * einem und mit mehreren Threads bitgenau gleich, und benachbarte Kacheln haben auf ihrer gemeinsamen Kante dieselben
+ * Höhen.
+ */
+class NoiseHeightSourceTest {
+
+    private static final long SEED = 1337;
+    private static final int QUADS = 128;
+
+    /**
+     * Kacheln auch mit negativen Koordinaten, in denen die Gitterzellen des Noise über {@code Math.floor} bestimmt werden.
+     */
+    private static final int[][] TILES = {{0, 0}, {1, 0}, {-1, 2}, {3, -4}, {-2, -2}};
+
+    private final ForkJoinPool singleThread = new ForkJoinPool(1);
+    private final ForkJoinPool multipleThreads = new ForkJoinPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+    @AfterEach
+    void shutDownPools() {
+        singleThread.shutdownNow();
+        multipleThreads.shutdownNow();
+    }
+
+    @Test
+    void sameHeightsWithOneAndManyThreads() {
+        NoiseHeightSource sequential = createSource(singleThread);
+        NoiseHeightSource parallel = createSource(multipleThreads);
+        for (int[] tile : TILES) {
+            HeightField expected = sequential.generate(tile[0], tile[1]);
+            HeightField actual = parallel.generate(tile[0], tile[1]);
+            assertArrayEquals(heightBits(expected), heightBits(actual), "Tile " + tile[0] + ", " + tile[1]);
+            assertEquals(expected.getOriginX(), actual.getOriginX());
+            assertEquals(expected.getOriginZ(), actual.getOriginZ());
+        }
+    }
+
+    @Test
+    void neighbouringTilesShareTheirEdges() {
+        NoiseHeightSource source = createSource(multipleThreads);
+        for (int[] tile : TILES) {
+            int gridX = tile[0];
+            int gridZ = tile[1];
+            HeightField center = source.generate(gridX, gridZ);
+            HeightField east = source.generate(gridX + 1, gridZ);
+            HeightField south = source.generate(gridX, gridZ + 1);
+            for (int i = 0; i <= QUADS; i++) {
+                assertEquals(Float.floatToRawIntBits(center.getHeight(QUADS, i)),
+                        Float.floatToRawIntBits(east.getHeight(0, i)),
+                        "East edge of tile " + gridX + ", " + gridZ + " at " + i);
+                assertEquals(Float.floatToRawIntBits(center.getHeight(i, QUADS)),
+                        Float.floatToRawIntBits(south.getHeight(i, 0)),
+                        "South edge of tile " + gridX + ", " + gridZ + " at " + i);
+            }
+        }
+    }
+
+    private static NoiseHeightSource createSource(ForkJoinPool pool) {
+        return new NoiseHeightSource(SEED, QUADS, 6, 600, Terrain.MAX_HEIGHT, 150, pool);
+    }
+
+    private static int[] heightBits(HeightField heightField) {
+        int size = heightField.getSize();
+        int[] bits = new int[size * size];
+        for (int z = 0; z < size; z++) {
+            for (int x = 0; x < size; x++) {
+                bits[z * size + x] = Float.floatToRawIntBits(heightField.getHeight(x, z));
+            }
+        }
+        return bits;
+    }
+
+}
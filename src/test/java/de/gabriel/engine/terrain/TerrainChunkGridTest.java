@@ -0,0 +1,211 @@
+package de.gabriel.engine.terrain;
+
+import de.gabriel.engine.entities.Camera;
+import de.gabriel.engine.utils.Frustum;
+import de.gabriel.engine.utils.Maths;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft die Auswahl der Stufen des {@link TerrainChunkGrid}s ohne OpenGL für feste Kamerapositionen: sichtbare
+ * Chunks, die Stufe jedes Chunks, die Anzahl der Dreiecke und dass die angepassten Kanten benachbarter Chunks aus
+ * denselben Vertices bestehen (keine Risse).
+ * <p>
+ * Das Terrain besteht aus 8 x 8 Chunks mit je 16 x 16 Quadraten. Nur die Vertices mit ungeraden X und Z haben die
+ * Höhe 1, alle anderen 0; der Fehler jedes Chunks ist daher 0 in Stufe 0 und 1 in allen gröberen Stufen. Mit
+ * {@link #SCREEN_SCALE} 20 und einem tolerierten Fehler von einem Pixel hat ein Chunk Stufe 0, wenn seine Bounding Box
+ * näher als 20 an der Kamera liegt, und sonst die gröbste Stufe 4, die dann so weit verfeinert wird, dass sich
+ * Nachbarn um höchstens eine Stufe unterscheiden.
+ * </p>
+ */
+class TerrainChunkGridTest {
+
+    private static final int CHUNK_QUADS = 16;
+    private static final int CHUNKS_PER_SIDE = 8;
+    private static final float SCREEN_SCALE = 20;
+    private static final float PIXEL_ERROR = 1;
+
+    /**
+     * Die Dreiecke eines Chunks pro Stufe ohne angepasste Kanten: 2 * (16 / 2^Stufe)².
+     */
+    private static final int[] TRIANGLES = {512, 128, 32, 8, 2};
+
+    @Test
+    void overviewFromAboveUsesCoarsestLevelEverywhere() {
+        TerrainChunkGrid grid = cull(new Vector3f(64, 300, 64), 90, 0);
+
+        assertEquals(64, grid.getVisibleChunks().size());
+        assertLevels(grid, new int[][]{
+                {4, 4, 4, 4, 4, 4, 4, 4},
+                {4, 4, 4, 4, 4, 4, 4, 4},
+                {4, 4, 4, 4, 4, 4, 4, 4},
+                {4, 4, 4, 4, 4, 4, 4, 4},
+                {4, 4, 4, 4, 4, 4, 4, 4},
+                {4, 4, 4, 4, 4, 4, 4, 4},
+                {4, 4, 4, 4, 4, 4, 4, 4},
+                {4, 4, 4, 4, 4, 4, 4, 4}
+        });
+        assertEquals(64 * 2, grid.getTriangleCount());
+        assertCrackFree(grid);
+    }
+
+    @Test
+    void cornerLookingAcrossTerrain() {
+        // Die Bounding Boxes der vier Chunks um die Kamera sind höchstens 12 entfernt, (2, 0) schon 24,3
+        TerrainChunkGrid grid = cull(new Vector3f(8, 5, 8), 10, 135);
+
+        // Diagonal über das Terrain liegt alles innerhalb von 45° zur Blickrichtung
+        assertEquals(64, grid.getVisibleChunks().size());
+        assertLevels(grid, new int[][]{
+                {0, 0, 1, 2, 3, 4, 4, 4},
+                {0, 0, 1, 2, 3, 4, 4, 4},
+                {1, 1, 2, 3, 4, 4, 4, 4},
+                {2, 2, 3, 4, 4, 4, 4, 4},
+                {3, 3, 4, 4, 4, 4, 4, 4},
+                {4, 4, 4, 4, 4, 4, 4, 4},
+                {4, 4, 4, 4, 4, 4, 4, 4},
+                {4, 4, 4, 4, 4, 4, 4, 4}
+        });
+        assertEquals(2776, grid.getTriangleCount());
+        assertTriangleCount(grid);
+        assertCrackFree(grid);
+    }
+
+    @Test
+    void centerLookingEastCullsChunksBehindCamera() {
+        // Die zwölf Chunks an und neben der Kamera sind höchstens 16,5 entfernt, die diagonalen wie (5, 5) schon 23
+        TerrainChunkGrid grid = cull(new Vector3f(64, 5, 64), 10, 90);
+
+        // Von den 32 Chunks vor der Kamera liegen (4, 0), (5, 0), (4, 1) und gespiegelt außerhalb der 55° zur Seite
+        assertEquals(26, grid.getVisibleChunks().size());
+        for (TerrainChunk chunk : grid.getVisibleChunks()) {
+            assertTrue(chunk.getMinX() >= 64, "Chunk behind the camera: " + chunk.getGridX() + ", " + chunk.getGridZ());
+        }
+        assertLevels(grid, new int[][]{
+                {4, 4, 3, 2, 2, 3, 4, 4},
+                {4, 3, 2, 1, 1, 2, 3, 4},
+                {3, 2, 1, 0, 0, 1, 2, 3},
+                {2, 1, 0, 0, 0, 0, 1, 2},
+                {2, 1, 0, 0, 0, 0, 1, 2},
+                {3, 2, 1, 0, 0, 1, 2, 3},
+                {4, 3, 2, 1, 1, 2, 3, 4},
+                {4, 4, 3, 2, 2, 3, 4, 4}
+        });
+        assertEquals(3698, grid.getTriangleCount());
+        assertTriangleCount(grid);
+        assertCrackFree(grid);
+    }
+
+    /**
+     * Erstellt das Terrain und führt das Culling für eine Kamera aus. Vorher wird ein Frame aus großer Entfernung
+     * gerendert, damit alle Chunks mit der gröbsten Stufe beginnen und die Hysterese keine Rolle spielt.
+     */
+    private static TerrainChunkGrid cull(Vector3f position, float pitch, float yaw) {
+        TerrainChunkGrid grid = new TerrainChunkGrid(createHeightField(), new GeoMipmap(CHUNK_QUADS));
+        grid.selectLevels(new Vector3f(64, 10_000, 64), SCREEN_SCALE, PIXEL_ERROR);
+
+        Camera camera = new Camera();
+        camera.setPosition(position);
+        camera.setPitch(pitch);
+        camera.setYaw(yaw);
+        // Wie im MasterRenderer: 110° horizontal bei 16:9
+        float fovY = 2 * (float) Math.atan(Math.tan(Math.toRadians(55)) * 9 / 16);
+        Matrix4f projectionView = new Matrix4f().setPerspective(fovY, 16 / 9f, 0.1f, 1000)
+                .mul(Maths.createViewMatrix(camera));
+        Frustum frustum = new Frustum();
+        frustum.update(projectionView);
+        grid.cull(frustum, camera.getPosition(), SCREEN_SCALE, PIXEL_ERROR);
+        return grid;
+    }
+
+    private static HeightField createHeightField() {
+        int size = CHUNK_QUADS * CHUNKS_PER_SIDE + 1;
+        float[] heights = new float[size * size];
+        for (int z = 1; z < size; z += 2) {
+            for (int x = 1; x < size; x += 2) {
+                heights[z * size + x] = 1;
+            }
+        }
+        return new HeightField(heights, size, 0, 0, 1);
+    }
+
+    /**
+     * @param expected die Stufen, zeilenweise ({@code expected[gridZ][gridX]}).
+     */
+    private static void assertLevels(TerrainChunkGrid grid, int[][] expected) {
+        for (int z = 0; z < CHUNKS_PER_SIDE; z++) {
+            for (int x = 0; x < CHUNKS_PER_SIDE; x++) {
+                assertEquals(expected[z][x], grid.getChunk(x, z).level, "Level of chunk " + x + ", " + z);
+            }
+        }
+    }
+
+    /**
+     * Jede angepasste Kante entfernt ein Dreieck pro zwei Segmenten der Kante.
+     */
+    private static void assertTriangleCount(TerrainChunkGrid grid) {
+        int triangles = 0;
+        for (TerrainChunk chunk : grid.getVisibleChunks()) {
+            int segments = CHUNK_QUADS >> chunk.level;
+            triangles += TRIANGLES[chunk.level] - segments / 2 * Integer.bitCount(chunk.stitchMask);
+        }
+        assertEquals(triangles, grid.getTriangleCount());
+    }
+
+    /**
+     * Prüft für alle Paare benachbarter Chunks, dass sich ihre Stufen um höchstens eins unterscheiden, genau der
+     * feinere Chunk seine Kante anpasst und die Dreiecke beider Chunks auf der gemeinsamen Kante dieselben Vertices
+     * verwenden.
+     */
+    private static void assertCrackFree(TerrainChunkGrid grid) {
+        for (int z = 0; z < CHUNKS_PER_SIDE; z++) {
+            for (int x = 0; x < CHUNKS_PER_SIDE; x++) {
+                TerrainChunk chunk = grid.getChunk(x, z);
+                if (x + 1 < CHUNKS_PER_SIDE) {
+                    assertSharedEdge(grid, chunk, grid.getChunk(x + 1, z), GeoMipmap.STITCH_EAST, GeoMipmap.STITCH_WEST);
+                }
+                if (z + 1 < CHUNKS_PER_SIDE) {
+                    assertSharedEdge(grid, chunk, grid.getChunk(x, z + 1), GeoMipmap.STITCH_SOUTH, GeoMipmap.STITCH_NORTH);
+                }
+            }
+        }
+    }
+
+    private static void assertSharedEdge(TerrainChunkGrid grid, TerrainChunk first, TerrainChunk second,
+                                         int firstSide, int secondSide) {
+        String pair = first.getGridX() + ", " + first.getGridZ() + " -> " + second.getGridX() + ", " + second.getGridZ();
+        assertTrue(Math.abs(first.level - second.level) <= 1, "Levels differ by more than one: " + pair);
+        assertEquals(second.level > first.level, (first.stitchMask & firstSide) != 0, "Stitch mask of " + pair);
+        assertEquals(first.level > second.level, (second.stitchMask & secondSide) != 0, "Stitch mask of " + pair);
+        assertEquals(edgeVertices(grid.getGeoMipmap(), first, firstSide),
+                edgeVertices(grid.getGeoMipmap(), second, secondSide), "Vertices on the edge " + pair);
+    }
+
+    /**
+     * Die Positionen entlang einer Seite des Chunks, die von den Dreiecken seiner Variante verwendet werden.
+     */
+    private static Set<Integer> edgeVertices(GeoMipmap geoMipmap, TerrainChunk chunk, int side) {
+        int verticesPerSide = geoMipmap.getVerticesPerSide();
+        int[] indices = geoMipmap.getIndices();
+        int offset = geoMipmap.getOffset(chunk.level, chunk.stitchMask);
+        Set<Integer> positions = new TreeSet<Integer>();
+        for (int i = offset; i < offset + geoMipmap.getCount(chunk.level, chunk.stitchMask); i++) {
+            int x = indices[i] % verticesPerSide;
+            int z = indices[i] / verticesPerSide;
+            if (side == GeoMipmap.STITCH_NORTH && z == 0 || side == GeoMipmap.STITCH_SOUTH && z == CHUNK_QUADS) {
+                positions.add(x);
+            } else if (side == GeoMipmap.STITCH_WEST && x == 0 || side == GeoMipmap.STITCH_EAST && x == CHUNK_QUADS) {
+                positions.add(z);
+            }
+        }
+        return positions;
+    }
+
+}
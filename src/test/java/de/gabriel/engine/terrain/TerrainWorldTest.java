@@ -0,0 +1,187 @@
+package de.gabriel.engine.terrain;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft Residenz und Verwerfen der {@link TerrainWorld} mit dem {@link FakeTileLoader}, dessen Kacheln erst fertig
+ * werden, wenn der Test es sagt: Laden von innen nach außen bis zur Grenze gleichzeitiger Ladevorgänge, Verwerfen
+ * außerhalb des Radius, Freigeben verworfener ladender Kacheln und Höhenabfragen über die Kanten von Kacheln.
+ */
+class TerrainWorldTest {
+
+    private final FakeTileLoader loader = new FakeTileLoader();
+    private final List<Terrain> loaded = new ArrayList<Terrain>();
+    private final List<Terrain> evicted = new ArrayList<Terrain>();
+
+    @Test
+    void loadsNearestTilesFirstUpToMaxPendingLoads() {
+        TerrainWorld world = createWorld(1, 2, 4);
+        world.update(center(0), center(0));
+
+        assertEquals(4, world.getPendingLoads());
+        assertEquals(4, loader.getRequests().size());
+        assertArrayEquals(new int[]{0, 0}, loader.getRequests().get(0));
+        for (int[] request : loader.getRequests()) {
+            assertTrue(Math.max(Math.abs(request[0]), Math.abs(request[1])) <= 1);
+        }
+
+        loadAll(world, center(0), center(0));
+        assertEquals(9, world.getResidentTiles());
+        assertEquals(9, world.getLoadedTiles());
+        assertEquals(9, loaded.size());
+        assertEquals(9, loader.getRequests().size());
+        assertEquals(0, world.getPendingLoads());
+    }
+
+    @Test
+    void evictsTilesBeyondEvictRadius() {
+        TerrainWorld world = createWorld(1, 2, 4);
+        loadAll(world, center(0), center(0));
+
+        world.update(center(2), center(0));
+
+        assertEquals(3, world.getEvictedTiles());
+        assertEquals(3, evicted.size());
+        assertEquals(evicted, loader.getUnloaded());
+        for (Terrain terrain : evicted) {
+            assertEquals(-Terrain.SIZE, terrain.getX());
+        }
+        for (int gridZ = -1; gridZ <= 1; gridZ++) {
+            assertFalse(world.isRequested(-1, gridZ));
+            assertTrue(world.isRequested(0, gridZ), "Tiles within the evict radius stay resident");
+        }
+        assertEquals(6, world.getResidentTiles());
+    }
+
+    @Test
+    void unloadsTilesAbandonedWhileLoading() {
+        TerrainWorld world = createWorld(0, 0, 1);
+        world.update(center(0), center(0));
+        world.update(center(5), center(0));
+
+        assertFalse(world.isRequested(0, 0));
+        assertEquals(1, world.getPendingLoads());
+        assertFalse(loader.isPending(5, 0), "The abandoned tile still counts against maxPendingLoads");
+
+        Terrain abandoned = loader.complete(0, 0);
+        world.update(center(5), center(0));
+
+        assertEquals(List.of(abandoned), loader.getUnloaded());
+        assertTrue(loaded.isEmpty());
+        assertEquals(0, world.getResidentTiles());
+        assertTrue(loader.isPending(5, 0));
+    }
+
+    @Test
+    void failedTilesAreNotRequestedAgain() {
+        TerrainWorld world = createWorld(0, 0, 1);
+        world.update(center(0), center(0));
+        loader.fail(0, 0);
+        for (int frame = 0; frame < 3; frame++) {
+            world.update(center(0), center(0));
+        }
+
+        assertEquals(1, loader.getRequests().size());
+        assertFalse(world.isRequested(0, 0));
+        assertEquals(0, world.getPendingLoads());
+        assertEquals(0, world.getResidentTiles());
+    }
+
+    @Test
+    void heightQueriesFollowResidency() {
+        TerrainWorld world = createWorld(1, 1, 9);
+        loadAll(world, center(0), center(0));
+
+        assertEquals(FakeTileLoader.heightOf(0, 0), world.getHeightOfTerrain(center(0), center(0)));
+        assertEquals(FakeTileLoader.heightOf(1, 0), world.getHeightOfTerrain(center(1), center(0)));
+        assertEquals(FakeTileLoader.heightOf(-1, 1), world.getHeightOfTerrain(center(-1), center(1)));
+        assertEquals(FakeTileLoader.heightOf(0, 0), world.getHeightOfTerrain(center(0), center(0)));
+        assertEquals(0, world.getHeightOfTerrain(center(2), center(0)), "Tile was never requested");
+
+        // Die zuletzt abgefragte Kachel darf nach dem Verwerfen nicht mehr gefunden werden
+        world.update(center(3), center(0));
+        assertNull(world.getTerrain(0, 0));
+        assertEquals(0, world.getHeightOfTerrain(center(0), center(0)));
+
+        loadAll(world, center(3), center(0));
+        assertSame(world.getTerrainAt(center(3), center(0)), world.getTerrain(3, 0));
+        assertEquals(FakeTileLoader.heightOf(3, 0), world.getHeightOfTerrain(center(3), center(0)));
+    }
+
+    @Test
+    void repeatedHeightQueriesOnSameTileDoNotAllocate() {
+        // Nicht die Kachel (0, 0): deren Schlüssel 0 läge im Cache von Long.valueOf
+        TerrainWorld world = createWorld(0, 0, 1);
+        loadAll(world, center(1), center(1));
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        float sum = 0;
+        for (int i = 0; i < 20_000; i++) {
+            sum += world.getHeightOfTerrain(Terrain.SIZE + i % 800, Terrain.SIZE + (i * 7) % 800);
+        }
+
+        // Das kleinste Ergebnis mehrerer Runden, da eine Deoptimierung des JIT einzelne Objekte anlegen kann
+        long allocated = Long.MAX_VALUE;
+        int rounds = 0;
+        while (rounds < 5 && allocated > 0) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 10_000; i++) {
+                sum += world.getHeightOfTerrain(Terrain.SIZE + i % 800, Terrain.SIZE + (i * 7) % 800);
+            }
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(threadId) - before);
+            rounds++;
+        }
+
+        assertEquals(0, allocated, "Bytes allocated by 10000 height queries");
+        assertEquals((20_000 + rounds * 10_000) * FakeTileLoader.heightOf(1, 1), sum);
+    }
+
+    private TerrainWorld createWorld(int loadRadius, int evictRadius, int maxPendingLoads) {
+        TerrainWorld world = new TerrainWorld(loader, loadRadius, evictRadius, maxPendingLoads);
+        world.setListener(new TerrainWorld.Listener() {
+            @Override
+            public void onTileLoaded(Terrain terrain) {
+                loaded.add(terrain);
+            }
+
+            @Override
+            public void onTileEvicted(Terrain terrain) {
+                evicted.add(terrain);
+            }
+        });
+        return world;
+    }
+
+    /**
+     * Aktualisiert die Welt und schließt alle angeforderten Kacheln ab, bis keine mehr geladen werden.
+     */
+    private void loadAll(TerrainWorld world, float cameraX, float cameraZ) {
+        do {
+            for (int[] request : loader.getRequests()) {
+                if (loader.isPending(request[0], request[1])) {
+                    loader.complete(request[0], request[1]);
+                }
+            }
+            world.update(cameraX, cameraZ);
+        } while (world.getPendingLoads() > 0);
+    }
+
+    /**
+     * @return die Mitte einer Kachel in Weltkoordinaten.
+     */
+    private static float center(int grid) {
+        return (grid + 0.5f) * Terrain.SIZE;
+    }
+
+}
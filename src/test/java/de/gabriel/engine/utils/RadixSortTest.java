@@ -0,0 +1,89 @@
+package de.gabriel.engine.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vergleicht den {@link RadixSort} mit einer stabilen Sortierung über {@link Long#compareUnsigned(long, long)}:
+ * Schlüssel mit gesetztem oberstem Bit gelten als groß, gleiche Schlüssel behalten die Reihenfolge ihrer Werte, und
+ * übersprungene Durchläufe (gleiche Ziffern) ändern nichts am Ergebnis.
+ */
+class RadixSortTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    void sortsRandomKeysUnsigned() {
+        long[] keys = new long[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        assertSortedLikeReference(keys, keys.length);
+    }
+
+    @Test
+    void keepsOrderOfEqualKeys() {
+        long[] keys = new long[5_000];
+        for (int i = 0; i < keys.length; i++) {
+            // Wenige verschiedene Schlüssel, die sich nur in einzelnen Bytes unterscheiden
+            keys[i] = (long) random.nextInt(4) << 56 | (long) random.nextInt(4) << 8;
+        }
+        assertSortedLikeReference(keys, keys.length);
+    }
+
+    @Test
+    void sortsKeysThatDifferOnlyInLowBits() {
+        long[] keys = new long[1_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 0xABCD_0000_0000_0000L | random.nextInt(256);
+        }
+        assertSortedLikeReference(keys, keys.length);
+    }
+
+    @Test
+    void sortsOnlyTheFirstCountEntries() {
+        long[] keys = {5, 3, 1, -1, 0};
+        int[] values = {0, 1, 2, 3, 4};
+        sort(keys, values, 3);
+        assertArrayEquals(new long[]{1, 3, 5, -1, 0}, keys);
+        assertArrayEquals(new int[]{2, 1, 0, 3, 4}, values);
+
+        long[] single = {7};
+        int[] singleValue = {9};
+        sort(single, singleValue, 1);
+        assertEquals(7, single[0]);
+        assertEquals(9, singleValue[0]);
+    }
+
+    /**
+     * Sortiert die Schlüssel und prüft Schlüssel und Werte gegen eine stabile Sortierung der Indizes.
+     */
+    private static void assertSortedLikeReference(long[] source, int count) {
+        long[] keys = source.clone();
+        int[] values = new int[count];
+        Integer[] expectedOrder = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = i;
+            expectedOrder[i] = i;
+        }
+        Arrays.sort(expectedOrder, Comparator.comparing(i -> source[i], Long::compareUnsigned)); // Stabil
+
+        sort(keys, values, count);
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(expectedOrder[i], values[i], "Value at " + i);
+            assertEquals(source[expectedOrder[i]], keys[i], "Key at " + i);
+        }
+    }
+
+    private static void sort(long[] keys, int[] values, int count) {
+        RadixSort.sort(keys, values, count, new long[count], new int[count], new int[RadixSort.histogramLength()]);
+    }
+
+}
@@ -0,0 +1,207 @@
+package de.gabriel.engine.vegetation;
+
+import de.gabriel.engine.models.RawModel;
+import de.gabriel.engine.models.TexturedModel;
+import de.gabriel.engine.terrain.HeightField;
+import de.gabriel.engine.terrain.Terrain;
+import de.gabriel.engine.textures.ModelTexture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft den {@link VegetationGenerator} ohne OpenGL: Chunks sind unabhängig von Reihenfolge und Threads bitgenau
+ * gleich, wo die Dichte 0 ist entstehen keine Instanzen, und alle Instanzen liegen in ihrem Chunk.
+ * <p>
+ * Die Blend Map ist in ihrer linken Hälfte rot und in der rechten schwarz. Das Height Field reicht über die Kacheln
+ * (-1, -1) bis (0, 0), damit auch Chunks mit negativen Koordinaten erzeugt werden.
+ * </p>
+ */
+class VegetationGeneratorTest {
+
+    private static final long SEED = 1337;
+
+    /**
+     * Die Chunks einer Kachel pro Seite.
+     */
+    private static final int CHUNKS_PER_TILE = (int) (Terrain.SIZE / VegetationChunk.SIZE);
+
+    /**
+     * Die Abweichung einer quantisierten Position: die halbe Seitenlänge eines Chunks geteilt durch 32767.
+     */
+    private static final float EPSILON = 1e-3f;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final HeightField heights = createHeightField();
+    private final TexturedModel model = createModel();
+
+    /**
+     * Gras mit einer Dichte im Hintergrund und mehr auf Rot, Blumen nur auf Rot und eine Vegetation ohne Dichte.
+     */
+    private final List<VegetationLayer> layers = List.of(
+            new VegetationLayer(model, 0.2f, 0.5f, 0, 0, 0.5f, 1.5f, 100, 10),
+            new VegetationLayer(model, 0, 0.3f, 0, 0, 1, 2, 100, 10),
+            new VegetationLayer(model, 0, 0, 0, 0, 1, 1, 100, 10));
+
+    @AfterEach
+    void shutDownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void sameInstancesInAnyOrderAndOnAnyThread() throws Exception {
+        List<int[]> chunks = new ArrayList<int[]>();
+        for (int chunkZ = -CHUNKS_PER_TILE; chunkZ < CHUNKS_PER_TILE; chunkZ += 3) {
+            for (int chunkX = -CHUNKS_PER_TILE; chunkX < CHUNKS_PER_TILE; chunkX += 3) {
+                chunks.add(new int[]{chunkX, chunkZ});
+            }
+        }
+        List<VegetationChunk> expected = new ArrayList<VegetationChunk>();
+        VegetationGenerator generator = createGenerator();
+        for (int[] chunk : chunks) {
+            expected.add(generator.generate(chunk[0], chunk[1], heights));
+        }
+
+        // Ein neuer Generator in umgekehrter Reihenfolge, mit einem Chunk doppelt
+        VegetationGenerator reversed = createGenerator();
+        reversed.generate(chunks.get(1)[0], chunks.get(1)[1], heights);
+        for (int i = chunks.size() - 1; i >= 0; i--) {
+            assertSameChunk(expected.get(i), reversed.generate(chunks.get(i)[0], chunks.get(i)[1], heights));
+        }
+
+        // Derselbe Generator auf mehreren Threads gleichzeitig
+        List<Callable<VegetationChunk>> tasks = new ArrayList<Callable<VegetationChunk>>();
+        for (int[] chunk : chunks) {
+            tasks.add(() -> generator.generate(chunk[0], chunk[1], heights));
+        }
+        Collections.reverse(tasks);
+        List<Future<VegetationChunk>> parallel = pool.invokeAll(tasks);
+        for (int i = 0; i < chunks.size(); i++) {
+            assertSameChunk(expected.get(i), parallel.get(chunks.size() - 1 - i).get());
+        }
+    }
+
+    @Test
+    void zeroDensityYieldsNoInstances() {
+        VegetationGenerator generator = createGenerator();
+        int red = 0;
+        for (int chunkZ = 0; chunkZ < CHUNKS_PER_TILE; chunkZ++) {
+            for (int chunkX = 0; chunkX < CHUNKS_PER_TILE; chunkX++) {
+                VegetationChunk chunk = generator.generate(chunkX, chunkZ, heights);
+                String name = "Chunk " + chunkX + ", " + chunkZ;
+                assertSame(VegetationInstances.EMPTY, chunk.getInstances(2), name + " of layer without density");
+                if (chunkX < CHUNKS_PER_TILE / 2) {
+                    assertTrue(chunk.getInstances(0).getCount() > 0, name + " on red");
+                    red += chunk.getInstances(1).getCount();
+                } else {
+                    assertTrue(chunk.getInstances(0).getCount() > 0, name + " on background");
+                    assertSame(VegetationInstances.EMPTY, chunk.getInstances(1), name + " on background");
+                }
+            }
+        }
+        assertTrue(red > 0, "Flowers on red");
+    }
+
+    @Test
+    void instancesLieInTheirChunk() {
+        VegetationGenerator generator = createGenerator();
+        for (int chunkZ = -CHUNKS_PER_TILE; chunkZ < CHUNKS_PER_TILE; chunkZ += 5) {
+            for (int chunkX = -CHUNKS_PER_TILE; chunkX < CHUNKS_PER_TILE; chunkX += 5) {
+                VegetationChunk chunk = generator.generate(chunkX, chunkZ, heights);
+                for (int layer = 0; layer < chunk.getLayerCount(); layer++) {
+                    assertInsideChunk(chunk, chunk.getInstances(layer), layers.get(layer));
+                }
+            }
+        }
+    }
+
+    private VegetationGenerator createGenerator() {
+        byte[] pixels = new byte[4 * 4 * 3];
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 2; x++) {
+                pixels[(y * 4 + x) * 3] = (byte) 255;
+            }
+        }
+        return new VegetationGenerator(SEED, new DensityMap(pixels, 4, 4), layers);
+    }
+
+    private void assertInsideChunk(VegetationChunk chunk, VegetationInstances instances, VegetationLayer layer) {
+        float[] xs = new float[instances.getCount()];
+        float[] zs = new float[instances.getCount()];
+        for (int i = 0; i < instances.getCount(); i++) {
+            String name = "Instance " + i + " in chunk " + chunk.getOriginX() + ", " + chunk.getOriginZ();
+            xs[i] = instances.getX(i);
+            zs[i] = instances.getZ(i);
+            assertTrue(xs[i] >= chunk.getOriginX() - EPSILON, name);
+            assertTrue(xs[i] <= chunk.getOriginX() + VegetationChunk.SIZE + EPSILON, name);
+            assertTrue(zs[i] >= chunk.getOriginZ() - EPSILON, name);
+            assertTrue(zs[i] <= chunk.getOriginZ() + VegetationChunk.SIZE + EPSILON, name);
+            assertTrue(instances.getTextureIndex(i) < layer.variants(), name);
+            float scale = instances.getScale(i, layer);
+            assertTrue(scale >= layer.minScale() && scale <= layer.maxScale(), name);
+        }
+        float[] ys = new float[instances.getCount()];
+        heights.heightsAt(xs, zs, ys);
+        for (int i = 0; i < instances.getCount(); i++) {
+            // Die Höhe an der dequantisierten Position weicht nur um die Steigung mal die Abweichung der Position ab
+            assertEquals(ys[i], instances.getY(i), 0.05f, "Height of instance " + i);
+        }
+    }
+
+    private static void assertSameChunk(VegetationChunk expected, VegetationChunk actual) {
+        String name = "Chunk " + expected.getOriginX() + ", " + expected.getOriginZ();
+        assertEquals(expected.getOriginX(), actual.getOriginX(), name);
+        assertEquals(expected.getOriginZ(), actual.getOriginZ(), name);
+        assertEquals(expected.getLayerCount(), actual.getLayerCount(), name);
+        for (int layer = 0; layer < expected.getLayerCount(); layer++) {
+            VegetationInstances expectedInstances = expected.getInstances(layer);
+            VegetationInstances actualInstances = actual.getInstances(layer);
+            assertEquals(expectedInstances.getCount(), actualInstances.getCount(), name + ", layer " + layer);
+            assertEquals(expectedInstances.getDecode(), actualInstances.getDecode(), name + ", layer " + layer);
+            assertArrayEquals(vertexData(expectedInstances), vertexData(actualInstances), name + ", layer " + layer);
+        }
+    }
+
+    /**
+     * Die Instanzen im Layout des Instanz-VBOs: quantisierte Positionen, Rotation, Skalierung und Textur.
+     */
+    private static byte[] vertexData(VegetationInstances instances) {
+        ByteBuffer buffer = ByteBuffer.allocate(instances.getCount() * VegetationInstances.BYTES_PER_INSTANCE);
+        instances.put(buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Ein Height Field über vier Kacheln mit sanften Hügeln.
+     */
+    private static HeightField createHeightField() {
+        int size = 2 * CHUNKS_PER_TILE * 4 + 1;
+        float cellSize = VegetationChunk.SIZE / 4;
+        float[] heights = new float[size * size];
+        for (int z = 0; z < size; z++) {
+            for (int x = 0; x < size; x++) {
+                heights[z * size + x] = (float) (10 * Math.sin(x * 0.2) * Math.cos(z * 0.15));
+            }
+        }
+        return new HeightField(heights, size, -Terrain.SIZE, -Terrain.SIZE, cellSize);
+    }
+
+    private static TexturedModel createModel() {
+        ModelTexture texture = new ModelTexture(1);
+        texture.setNumberOfRows(2);
+        return new TexturedModel(new RawModel(1, 12, 1), texture);
+    }
+
+}